@@ -5,6 +5,7 @@ import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.ProvisionException;
 import dev.sbutler.bitflask.client.client_processing.ReplClientProcessorService;
+import dev.sbutler.bitflask.client.load.LoadCommand;
 import dev.sbutler.bitflask.resp.network.RespService;
 import dev.sbutler.bitflask.resp.network.RespServiceProvider;
 import java.io.IOException;
@@ -16,6 +17,7 @@ import picocli.CommandLine;
     name = "Client",
     mixinStandardHelpOptions = true,
     version = "Client 1.0",
+    subcommands = LoadCommand.class,
     description = "Client for interacting with a Bitflask server using the RespProtocol")
 public final class Client implements Runnable {
 
@@ -33,8 +35,14 @@ public final class Client implements Runnable {
   String[] inlineCommandArgs = {};
 
   public static void main(String[] args) {
+    System.exit(execute(args));
+  }
+
+  /** Executes the command line, returning its exit code. */
+  static int execute(String[] args) {
     int exitCode = new CommandLine(new Client()).execute(args);
     System.out.println("Exited with code " + exitCode);
+    return exitCode;
   }
 
   @Override
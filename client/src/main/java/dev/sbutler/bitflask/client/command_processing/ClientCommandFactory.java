@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.client.command_processing;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.client.client_processing.output.OutputWriter;
 import dev.sbutler.bitflask.client.client_processing.repl.types.ReplElement;
 import dev.sbutler.bitflask.resp.messages.RespRequest;
@@ -61,18 +62,83 @@ public final class ClientCommandFactory {
         switch (requestCode) {
           case PING -> new RespRequest.PingRequest();
           case GET -> new RespRequest.GetRequest(clientInput.get(1).getAsString());
-          case SET -> new RespRequest.SetRequest(
-              clientInput.get(1).getAsString(), clientInput.get(2).getAsString());
+          case SET -> createSetRequest(clientInput);
           case DELETE -> new RespRequest.DeleteRequest(clientInput.get(1).getAsString());
+          case MGET -> new RespRequest.MultiGetRequest(
+              clientInput.subList(1, clientInput.size()).stream()
+                  .map(element -> ByteString.copyFromUtf8(element.getAsString()))
+                  .collect(ImmutableList.toImmutableList()));
+          case INCRBY -> createIncrementByRequest(clientInput);
+          case APPEND -> new RespRequest.AppendRequest(
+              clientInput.get(1).getAsString(), clientInput.get(2).getAsString());
+          case INFO -> new RespRequest.InfoRequest();
+          case SLOWLOG -> createSlowLogRequest(clientInput);
         };
 
     return Optional.of(respRequest);
   }
 
+  private static RespRequest.SetRequest createSetRequest(ImmutableList<ReplElement> clientInput) {
+    String key = clientInput.get(1).getAsString();
+    String value = clientInput.get(2).getAsString();
+    if (clientInput.size() == 3) {
+      return new RespRequest.SetRequest(key, value);
+    }
+    long expirySeconds;
+    try {
+      expirySeconds = Long.parseLong(clientInput.get(4).getAsString());
+    } catch (NumberFormatException e) {
+      throw new InvalidClientCommandException("The Set command's expiry must be a number.");
+    }
+    if (expirySeconds <= 0) {
+      throw new InvalidClientCommandException("The Set command's expiry must be positive.");
+    }
+    return new RespRequest.SetRequest(key, value, expirySeconds);
+  }
+
+  private static RespRequest.IncrementByRequest createIncrementByRequest(
+      ImmutableList<ReplElement> clientInput) {
+    try {
+      return new RespRequest.IncrementByRequest(
+          clientInput.get(1).getAsString(), Long.parseLong(clientInput.get(2).getAsString()));
+    } catch (NumberFormatException e) {
+      throw new InvalidClientCommandException("The Incrby command's increment must be a number.");
+    }
+  }
+
+  private static RespRequest.SlowLogRequest createSlowLogRequest(
+      ImmutableList<ReplElement> clientInput) {
+    RespRequest.SlowLogRequest.Subcommand subcommand;
+    try {
+      subcommand =
+          RespRequest.SlowLogRequest.Subcommand.valueOf(
+              clientInput.get(1).getAsString().trim().toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new InvalidClientCommandException(
+          "The Slowlog command's subcommand must be one of GET, LEN, or RESET.");
+    }
+    if (clientInput.size() == 2) {
+      return new RespRequest.SlowLogRequest(subcommand);
+    }
+    if (subcommand != RespRequest.SlowLogRequest.Subcommand.GET) {
+      throw new InvalidClientCommandException("The Slowlog command only accepts a count with GET.");
+    }
+    long count;
+    try {
+      count = Long.parseLong(clientInput.get(2).getAsString());
+    } catch (NumberFormatException e) {
+      throw new InvalidClientCommandException("The Slowlog command's count must be a number.");
+    }
+    if (count <= 0) {
+      throw new InvalidClientCommandException("The Slowlog command's count must be positive.");
+    }
+    return new RespRequest.SlowLogRequest(count);
+  }
+
   private void validateClientInputForRespRequest(
       RespRequestCode requestCode, ImmutableList<ReplElement> clientInput) {
     switch (requestCode) {
-      case PING:
+      case PING, INFO:
         break;
       case GET:
         if (clientInput.size() < 2)
@@ -81,11 +147,35 @@ public final class ClientCommandFactory {
       case SET:
         if (clientInput.size() < 3)
           throw new InvalidClientCommandException("The Set command requires a key and value.");
+        if (clientInput.size() > 3
+            && (clientInput.size() != 5
+                || !RespRequest.SetRequest.EXPIRY_SECONDS_OPTION.equalsIgnoreCase(
+                    clientInput.get(3).getAsString())))
+          throw new InvalidClientCommandException(
+              "The Set command only accepts an expiry as 'EX seconds'.");
         break;
       case DELETE:
         if (clientInput.size() < 2)
           throw new InvalidClientCommandException("The Delete command requires a key.");
         break;
+      case MGET:
+        if (clientInput.size() < 2)
+          throw new InvalidClientCommandException("The Mget command requires at least one key.");
+        break;
+      case INCRBY:
+        if (clientInput.size() != 3)
+          throw new InvalidClientCommandException(
+              "The Incrby command requires a key and increment.");
+        break;
+      case APPEND:
+        if (clientInput.size() != 3)
+          throw new InvalidClientCommandException("The Append command requires a key and value.");
+        break;
+      case SLOWLOG:
+        if (clientInput.size() < 2 || clientInput.size() > 3)
+          throw new InvalidClientCommandException(
+              "The Slowlog command requires a subcommand and optionally a count.");
+        break;
     }
   }
 
@@ -1,5 +1,6 @@
 package dev.sbutler.bitflask.client.command_processing;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.client.client_processing.output.OutputWriter;
 import dev.sbutler.bitflask.resp.messages.RespRequest;
 import dev.sbutler.bitflask.resp.messages.RespResponse;
@@ -51,6 +52,14 @@ public final class RemoteCommand implements ClientCommand {
         outputWriter.writeWithNewLine(response.getMessage());
         yield true;
       }
+      case RespResponse.MultiSuccess multiSuccess -> {
+        multiSuccess
+            .getValues()
+            .forEach(
+                value -> outputWriter.writeWithNewLine(value.map(ByteString::toStringUtf8)
+                    .orElse("(nil)")));
+        yield true;
+      }
       case RespResponse.Failure ignored -> {
         outputWriter.writeWithNewLine(response.getMessage());
         yield true;
@@ -0,0 +1,11 @@
+package dev.sbutler.bitflask.client.load;
+
+/** How a {@link Workload} chooses the existing keys its operations target. */
+enum KeyDistribution {
+  // Every key is equally likely
+  UNIFORM,
+  // A small set of keys, scattered across the key space, receive most operations
+  ZIPFIAN,
+  // The most recently inserted keys receive most operations
+  LATEST
+}
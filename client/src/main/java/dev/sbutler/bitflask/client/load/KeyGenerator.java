@@ -0,0 +1,36 @@
+package dev.sbutler.bitflask.client.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Chooses the index of an existing key for an operation to target. */
+interface KeyGenerator {
+
+  /** Returns the index of a key in [0, numKeys). */
+  long nextKeyIndex(long numKeys);
+
+  /** Creates a thread-safe {@link KeyGenerator} for the provided {@link KeyDistribution}. */
+  static KeyGenerator create(KeyDistribution keyDistribution) {
+    return switch (keyDistribution) {
+      case UNIFORM -> numKeys -> ThreadLocalRandom.current().nextLong(numKeys);
+      case ZIPFIAN -> {
+        ZipfianGenerator zipfian = new ZipfianGenerator(ZipfianGenerator.DEFAULT_THETA);
+        // Scatter the popular items so they are not clustered at the start of the key space
+        yield numKeys -> Math.floorMod(fnvHash64(zipfian.next(numKeys)), numKeys);
+      }
+      case LATEST -> {
+        ZipfianGenerator zipfian = new ZipfianGenerator(ZipfianGenerator.DEFAULT_THETA);
+        yield numKeys -> numKeys - 1 - zipfian.next(numKeys);
+      }
+    };
+  }
+
+  /** The 64-bit FNV-1a hash of the value's bytes. */
+  static long fnvHash64(long value) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = 0; i < Long.BYTES; i++) {
+      hash ^= (value >>> (i * Byte.SIZE)) & 0xFF;
+      hash *= 0x100000001B3L;
+    }
+    return hash;
+  }
+}
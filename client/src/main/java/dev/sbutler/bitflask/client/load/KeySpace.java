@@ -0,0 +1,44 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The keys written by a load test, identified by a dense index starting at 0.
+ *
+ * <p>Inserts reserve the next index so the key space grows as a run progresses. Keys are named so
+ * that successive runs using the same number of initial keys target the same keys.
+ */
+final class KeySpace {
+
+  private static final String KEY_PREFIX = "user";
+
+  private final AtomicLong numKeys;
+
+  /**
+   * Creates a KeySpace whose first numKeys keys are assumed to already be written.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if numKeys is negative.
+   */
+  KeySpace(long numKeys) {
+    checkArgument(numKeys >= 0, "numKeys must be non-negative. Provided [%s]", numKeys);
+    this.numKeys = new AtomicLong(numKeys);
+  }
+
+  /** The number of keys inserted or assumed to already be written. */
+  long getNumKeys() {
+    return numKeys.get();
+  }
+
+  /** Reserves the index of a new key to be inserted. */
+  long reserveInsertIndex() {
+    return numKeys.getAndIncrement();
+  }
+
+  /** Creates the key for the provided index. */
+  static ByteString createKey(long index) {
+    return ByteString.copyFromUtf8(KEY_PREFIX + index);
+  }
+}
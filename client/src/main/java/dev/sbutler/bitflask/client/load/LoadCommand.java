@@ -0,0 +1,144 @@
+package dev.sbutler.bitflask.client.load;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.net.HostAndPort;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+import picocli.CommandLine;
+
+/**
+ * Load tests Bitflask servers with a configurable YCSB-style workload, reporting throughput and
+ * latency percentiles.
+ *
+ * <p>The defaults target the local three server cluster described by the default server
+ * configuration and run a 50% read, 50% update workload over Zipfian distributed keys.
+ *
+ * <p>The exit code is nonzero if the run could not be started or any connection failed during it.
+ */
+@CommandLine.Command(
+    name = "load",
+    description = "Load tests Bitflask servers, reporting throughput and latency percentiles")
+public final class LoadCommand implements Callable<Integer> {
+
+  @CommandLine.Option(
+      names = "--targets",
+      split = ",",
+      description = "The host:port RESP addresses connections are spread across")
+  List<String> targets = List.of("localhost:9090", "localhost:9091", "localhost:9092");
+
+  @CommandLine.Option(
+      names = "--connections",
+      description = "The number of connections concurrently issuing operations")
+  int numConnections = 16;
+
+  @CommandLine.Option(
+      names = "--target-rate",
+      description = "The total operations per second to schedule, or 0 for a closed loop")
+  double targetOpsPerSecond = 0;
+
+  @CommandLine.Option(names = "--duration", description = "The longest the run lasts, in seconds")
+  long durationSeconds = 60;
+
+  @CommandLine.Option(
+      names = "--operations",
+      description = "The most operations issued during the run")
+  long maxOperations = Long.MAX_VALUE;
+
+  @CommandLine.Option(
+      names = "--records",
+      description = "The number of keys assumed to exist, or inserted when preloading")
+  long numRecords = 10_000;
+
+  @CommandLine.Option(
+      names = "--preload",
+      description = "Insert the records before the run")
+  boolean preload = false;
+
+  @CommandLine.Option(names = "--read", description = "The relative frequency of reads")
+  double readProportion = 0.5;
+
+  @CommandLine.Option(names = "--update", description = "The relative frequency of updates")
+  double updateProportion = 0.5;
+
+  @CommandLine.Option(names = "--insert", description = "The relative frequency of inserts")
+  double insertProportion = 0;
+
+  @CommandLine.Option(names = "--delete", description = "The relative frequency of deletes")
+  double deleteProportion = 0;
+
+  @CommandLine.Option(
+      names = "--distribution",
+      description = "How existing keys are chosen: ${COMPLETION-CANDIDATES}")
+  KeyDistribution keyDistribution = KeyDistribution.ZIPFIAN;
+
+  @CommandLine.Option(names = "--min-value-bytes", description = "The smallest value written")
+  int minValueBytes = 100;
+
+  @CommandLine.Option(names = "--max-value-bytes", description = "The largest value written")
+  int maxValueBytes = 100;
+
+  /** Creates the {@link LoadGenerator} driving the parsed targets. */
+  Function<ImmutableList<InetSocketAddress>, LoadGenerator> loadGeneratorFactory =
+      LoadGenerator::new;
+
+  @Override
+  public Integer call() {
+    try {
+      Workload workload =
+          new Workload(
+              readProportion,
+              updateProportion,
+              insertProportion,
+              deleteProportion,
+              keyDistribution,
+              minValueBytes,
+              maxValueBytes);
+      LoadGenerator loadGenerator = loadGeneratorFactory.apply(parseTargets());
+      long numFailedConnections = 0;
+
+      if (preload) {
+        System.out.printf("Preloading [%d] records%n", numRecords);
+        LoadStats.Snapshot preloadStats =
+            loadGenerator.run(
+                Workload.createInsertOnly(minValueBytes, maxValueBytes),
+                new KeySpace(0),
+                new LoadGenerator.RunLimits(numConnections, 0, Duration.ofDays(1), numRecords));
+        System.out.print(preloadStats.toReport());
+        numFailedConnections += preloadStats.numFailedConnections();
+      }
+
+      System.out.printf("Running %s%n", workload);
+      LoadStats.Snapshot runStats =
+          loadGenerator.run(
+              workload,
+              new KeySpace(numRecords),
+              new LoadGenerator.RunLimits(
+                  numConnections,
+                  targetOpsPerSecond,
+                  Duration.ofSeconds(durationSeconds),
+                  maxOperations));
+      System.out.print(runStats.toReport());
+      numFailedConnections += runStats.numFailedConnections();
+      return numFailedConnections == 0 ? CommandLine.ExitCode.OK : CommandLine.ExitCode.SOFTWARE;
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage());
+      return CommandLine.ExitCode.USAGE;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return CommandLine.ExitCode.SOFTWARE;
+    } catch (Exception e) {
+      e.printStackTrace();
+      return CommandLine.ExitCode.SOFTWARE;
+    }
+  }
+
+  private ImmutableList<InetSocketAddress> parseTargets() {
+    return targets.stream()
+        .map(HostAndPort::fromString)
+        .map(hostAndPort -> new InetSocketAddress(hostAndPort.getHost(), hostAndPort.getPort()))
+        .collect(ImmutableList.toImmutableList());
+  }
+}
@@ -0,0 +1,83 @@
+package dev.sbutler.bitflask.client.load;
+
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.network.RespService;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
+/**
+ * A single connection used by a load test which follows the server to the current leader.
+ *
+ * <p>A connection is not thread-safe and is used by a single {@link LoadWorker}.
+ */
+final class LoadConnection implements AutoCloseable {
+
+  /** The most times a single request will be resent after being redirected to the leader. */
+  static final int MAX_REDIRECTS = 3;
+
+  /** Opens a {@link RespService} connected to the provided address. */
+  @FunctionalInterface
+  interface Connector {
+    RespService connect(InetSocketAddress address) throws IOException;
+  }
+
+  private final Connector connector;
+  private final LoadStats stats;
+
+  private RespService respService;
+
+  private LoadConnection(Connector connector, LoadStats stats, RespService respService) {
+    this.connector = connector;
+    this.stats = stats;
+    this.respService = respService;
+  }
+
+  static LoadConnection open(Connector connector, LoadStats stats, InetSocketAddress address)
+      throws IOException {
+    return new LoadConnection(connector, stats, connector.connect(address));
+  }
+
+  /**
+   * Sends the request returning the server's response.
+   *
+   * <p>When the server is not the current leader the connection is reopened to the leader and the
+   * request resent, up to {@link #MAX_REDIRECTS} times.
+   *
+   * <p>An {@link IOException} will be thrown if the server could not be communicated with or it
+   * responded with an unrecoverable error.
+   */
+  RespResponse send(RespRequest request) throws IOException {
+    RespResponse response = sendToCurrent(request);
+    for (int redirects = 0;
+        redirects < MAX_REDIRECTS && response instanceof RespResponse.NotCurrentLeader leader;
+        redirects++) {
+      stats.recordRedirect();
+      reconnect(new InetSocketAddress(leader.getHost(), leader.getRespPort()));
+      response = sendToCurrent(request);
+    }
+    return response;
+  }
+
+  private RespResponse sendToCurrent(RespRequest request) throws IOException {
+    respService.write(request.getAsRespArray());
+    RespElement respElement = respService.read();
+    if (!respElement.isRespArray()) {
+      throw new IOException(
+          String.format("The server did not return an expected RespElement. Received [%s]",
+              respElement));
+    }
+    return RespResponse.createFromRespArray(respElement.getAsRespArray());
+  }
+
+  private void reconnect(InetSocketAddress address) throws IOException {
+    respService.close();
+    respService = connector.connect(address);
+  }
+
+  @Override
+  public void close() throws IOException {
+    respService.close();
+  }
+}
@@ -0,0 +1,173 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.network.RespService;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link Workload} against one or more Bitflask servers over many connections.
+ *
+ * <p>Connections are spread round-robin across the targets and each is driven by its own virtual
+ * thread. Requests a server cannot serve because it is not the leader are followed to the leader.
+ */
+final class LoadGenerator {
+
+  private final ImmutableList<InetSocketAddress> targets;
+  private final LoadConnection.Connector connector;
+
+  LoadGenerator(ImmutableList<InetSocketAddress> targets) {
+    this(targets, address -> RespService.create(SocketChannel.open(address)));
+  }
+
+  LoadGenerator(ImmutableList<InetSocketAddress> targets, LoadConnection.Connector connector) {
+    checkArgument(!targets.isEmpty(), "At least one target must be provided.");
+    this.targets = targets;
+    this.connector = connector;
+  }
+
+  /**
+   * The bounds of a single run.
+   *
+   * @param numConnections the number of connections concurrently issuing operations
+   * @param targetOpsPerSecond the total rate operations are scheduled at, or 0 to issue them as
+   *     quickly as the connections allow
+   * @param duration the longest the run lasts
+   * @param maxOperations the most operations issued during the run
+   */
+  record RunLimits(
+      int numConnections, double targetOpsPerSecond, Duration duration, long maxOperations) {
+
+    RunLimits {
+      checkArgument(
+          numConnections > 0, "numConnections must be positive. Provided [%s]", numConnections);
+      checkArgument(
+          targetOpsPerSecond >= 0,
+          "targetOpsPerSecond must be non-negative. Provided [%s]",
+          targetOpsPerSecond);
+      checkArgument(
+          duration.isPositive(), "duration must be positive. Provided [%s]", duration);
+      checkArgument(
+          maxOperations > 0, "maxOperations must be positive. Provided [%s]", maxOperations);
+    }
+  }
+
+  /**
+   * Runs the workload until the limits are reached, returning the statistics of the run.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if the workload reads, updates, or
+   * deletes keys but the key space is empty.
+   *
+   * <p>An {@link IOException} will be thrown if connecting to the targets fails. A connection
+   * failing during the run stops only its worker and is recorded in the returned statistics.
+   */
+  LoadStats.Snapshot run(Workload workload, KeySpace keySpace, RunLimits limits)
+      throws IOException, InterruptedException {
+    boolean onlyInserts =
+        workload.readProportion() == 0
+            && workload.updateProportion() == 0
+            && workload.deleteProportion() == 0;
+    checkArgument(
+        onlyInserts || keySpace.getNumKeys() > 0,
+        "The key space must not be empty when reading, updating, or deleting keys.");
+
+    LoadStats stats = new LoadStats();
+    List<LoadConnection> connections = openConnections(stats, limits.numConnections());
+    try {
+      return runWorkers(workload, keySpace, limits, stats, connections);
+    } finally {
+      for (LoadConnection connection : connections) {
+        closeConnection(connection);
+      }
+    }
+  }
+
+  private List<LoadConnection> openConnections(LoadStats stats, int numConnections)
+      throws IOException {
+    List<LoadConnection> connections = new ArrayList<>(numConnections);
+    try {
+      for (int i = 0; i < numConnections; i++) {
+        connections.add(LoadConnection.open(connector, stats, targets.get(i % targets.size())));
+      }
+    } catch (IOException e) {
+      connections.forEach(LoadGenerator::closeConnection);
+      throw e;
+    }
+    return connections;
+  }
+
+  private LoadStats.Snapshot runWorkers(
+      Workload workload,
+      KeySpace keySpace,
+      RunLimits limits,
+      LoadStats stats,
+      List<LoadConnection> connections)
+      throws InterruptedException {
+    KeyGenerator keyGenerator = KeyGenerator.create(workload.keyDistribution());
+    ByteString valueSource = createValueSource(workload.maxValueBytes());
+    AtomicLong remainingOperations = new AtomicLong(limits.maxOperations());
+    long intervalNanos =
+        limits.targetOpsPerSecond() == 0
+            ? 0
+            : Math.max(1, (long) (1e9 * connections.size() / limits.targetOpsPerSecond()));
+
+    long startNanos = System.nanoTime();
+    long deadlineNanos = startNanos + limits.duration().toNanos();
+    List<Future<Void>> workers = new ArrayList<>(connections.size());
+    try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < connections.size(); i++) {
+        // Stagger the connections' schedules so paced operations are spread evenly
+        long firstScheduledNanos = startNanos + i * intervalNanos / connections.size();
+        workers.add(
+            executorService.submit(
+                new LoadWorker(
+                    connections.get(i),
+                    workload,
+                    keySpace,
+                    keyGenerator,
+                    valueSource,
+                    stats,
+                    remainingOperations,
+                    firstScheduledNanos,
+                    deadlineNanos,
+                    intervalNanos)));
+      }
+      for (Future<Void> worker : workers) {
+        try {
+          worker.get();
+        } catch (ExecutionException e) {
+          stats.recordConnectionFailure();
+          System.err.println("Load connection failed: " + e.getCause());
+        }
+      }
+    }
+    return stats.snapshot(Duration.ofNanos(System.nanoTime() - startNanos));
+  }
+
+  private static ByteString createValueSource(int numBytes) {
+    byte[] bytes = new byte[numBytes];
+    ThreadLocalRandom.current().nextBytes(bytes);
+    return ByteString.copyFrom(bytes);
+  }
+
+  private static void closeConnection(LoadConnection connection) {
+    try {
+      connection.close();
+    } catch (IOException e) {
+      System.err.println("Issues closing connection " + e);
+    }
+  }
+}
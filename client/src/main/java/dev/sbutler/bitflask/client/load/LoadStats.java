@@ -0,0 +1,135 @@
+package dev.sbutler.bitflask.client.load;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import dev.sbutler.bitflask.common.metrics.Histogram;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency and outcome of each operation issued during a load test.
+ *
+ * <p>All recording methods are lock-free and may be called concurrently by every connection.
+ */
+final class LoadStats {
+
+  private final EnumMap<Operation, Histogram> latencyMicrosByOperation =
+      new EnumMap<>(Operation.class);
+  private final EnumMap<Operation, LongAdder> failuresByOperation = new EnumMap<>(Operation.class);
+  private final LongAdder numRedirects = new LongAdder();
+  private final LongAdder numFailedConnections = new LongAdder();
+
+  LoadStats() {
+    for (Operation operation : Operation.values()) {
+      latencyMicrosByOperation.put(operation, new Histogram());
+      failuresByOperation.put(operation, new LongAdder());
+    }
+  }
+
+  /** Records an operation the server completed successfully. */
+  void recordSuccess(Operation operation, long latencyNanos) {
+    latencyMicrosByOperation.get(operation).record(latencyNanos / 1_000);
+  }
+
+  /** Records an operation the server could not complete or that could not be sent. */
+  void recordFailure(Operation operation) {
+    failuresByOperation.get(operation).increment();
+  }
+
+  /** Records an operation being resent to the current leader. */
+  void recordRedirect() {
+    numRedirects.increment();
+  }
+
+  /** Records a connection that stopped issuing operations before the run completed. */
+  void recordConnectionFailure() {
+    numFailedConnections.increment();
+  }
+
+  /** Returns a point-in-time copy of the recorded statistics spanning the elapsed duration. */
+  Snapshot snapshot(Duration elapsed) {
+    return new Snapshot(
+        elapsed,
+        ImmutableMap.copyOf(Maps.transformValues(latencyMicrosByOperation, Histogram::snapshot)),
+        ImmutableMap.copyOf(Maps.transformValues(failuresByOperation, LongAdder::sum)),
+        numRedirects.sum(),
+        numFailedConnections.sum());
+  }
+
+  /**
+   * A point-in-time copy of {@link LoadStats}.
+   *
+   * @param elapsed the wall clock duration the operations were issued over
+   * @param latencyMicrosByOperation the latency of successful operations, in microseconds
+   * @param failuresByOperation the number of failed operations
+   * @param numRedirects the number of operations resent to the current leader
+   * @param numFailedConnections the number of connections that stopped issuing operations before
+   *     the run completed
+   */
+  record Snapshot(
+      Duration elapsed,
+      ImmutableMap<Operation, Histogram.Snapshot> latencyMicrosByOperation,
+      ImmutableMap<Operation, Long> failuresByOperation,
+      long numRedirects,
+      long numFailedConnections) {
+
+    /** The number of operations that completed successfully. */
+    long getNumSuccesses() {
+      return latencyMicrosByOperation.values().stream().mapToLong(Histogram.Snapshot::count).sum();
+    }
+
+    /** The number of operations that failed. */
+    long getNumFailures() {
+      return failuresByOperation.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** The number of successful operations completed per second. */
+    double getThroughput() {
+      double elapsedSeconds = elapsed.toNanos() / 1e9;
+      return elapsedSeconds == 0 ? 0 : getNumSuccesses() / elapsedSeconds;
+    }
+
+    /** Formats the statistics as a human-readable report. */
+    String toReport() {
+      StringBuilder report = new StringBuilder();
+      report.append(
+          String.format(
+              "Elapsed %.3fs, %d succeeded, %d failed, %d redirected, %.1f ops/sec%n",
+              elapsed.toNanos() / 1e9,
+              getNumSuccesses(),
+              getNumFailures(),
+              numRedirects,
+              getThroughput()));
+      if (numFailedConnections > 0) {
+        report.append(String.format("%d connection(s) failed%n", numFailedConnections));
+      }
+      report.append(
+          String.format(
+              "%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+              "op", "count", "failed", "mean(us)", "p50(us)", "p95(us)", "p99(us)", "p99.9(us)",
+              "max(us)"));
+      for (Map.Entry<Operation, Histogram.Snapshot> entry : latencyMicrosByOperation.entrySet()) {
+        Histogram.Snapshot latency = entry.getValue();
+        long failures = failuresByOperation.get(entry.getKey());
+        if (latency.count() == 0 && failures == 0) {
+          continue;
+        }
+        report.append(
+            String.format(
+                "%-8s %10d %8d %10.1f %10d %10d %10d %10d %10d%n",
+                entry.getKey(),
+                latency.count(),
+                failures,
+                latency.getMean(),
+                latency.getValueAtPercentile(50),
+                latency.getValueAtPercentile(95),
+                latency.getValueAtPercentile(99),
+                latency.getValueAtPercentile(99.9),
+                latency.max()));
+      }
+      return report.toString();
+    }
+  }
+}
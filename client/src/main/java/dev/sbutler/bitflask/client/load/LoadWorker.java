@@ -0,0 +1,123 @@
+package dev.sbutler.bitflask.client.load;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Issues a {@link Workload}'s operations over a single {@link LoadConnection} until the run's
+ * deadline passes or its operations are exhausted.
+ *
+ * <p>When paced, operations are scheduled at a fixed interval and their latency is measured from
+ * when they were scheduled rather than when they were sent. A slow response therefore also counts
+ * against the operations queued behind it instead of hiding them, avoiding coordinated omission.
+ */
+final class LoadWorker implements Callable<Void> {
+
+  private final LoadConnection connection;
+  private final Workload workload;
+  private final KeySpace keySpace;
+  private final KeyGenerator keyGenerator;
+  private final ByteString valueSource;
+  private final LoadStats stats;
+  private final AtomicLong remainingOperations;
+  private final long firstScheduledNanos;
+  private final long deadlineNanos;
+  private final long intervalNanos;
+
+  /**
+   * @param valueSource bytes values are sliced from, at least as large as the largest value
+   * @param remainingOperations the operations remaining in the run, shared by all workers
+   * @param firstScheduledNanos the {@link System#nanoTime()} at which the first operation is
+   *     scheduled when paced
+   * @param deadlineNanos the {@link System#nanoTime()} at which the run ends
+   * @param intervalNanos the time between scheduled operations, or 0 to send them back-to-back
+   */
+  LoadWorker(
+      LoadConnection connection,
+      Workload workload,
+      KeySpace keySpace,
+      KeyGenerator keyGenerator,
+      ByteString valueSource,
+      LoadStats stats,
+      AtomicLong remainingOperations,
+      long firstScheduledNanos,
+      long deadlineNanos,
+      long intervalNanos) {
+    this.connection = connection;
+    this.workload = workload;
+    this.keySpace = keySpace;
+    this.keyGenerator = keyGenerator;
+    this.valueSource = valueSource;
+    this.stats = stats;
+    this.remainingOperations = remainingOperations;
+    this.firstScheduledNanos = firstScheduledNanos;
+    this.deadlineNanos = deadlineNanos;
+    this.intervalNanos = intervalNanos;
+  }
+
+  /**
+   * Runs until the run is complete.
+   *
+   * <p>An {@link IOException} will be thrown if communication with the server fails, after which
+   * the worker stops.
+   */
+  @Override
+  public Void call() throws IOException {
+    long nextScheduledNanos = firstScheduledNanos;
+    while (remainingOperations.getAndDecrement() > 0) {
+      long scheduledNanos = intervalNanos > 0 ? nextScheduledNanos : System.nanoTime();
+      if (scheduledNanos - deadlineNanos >= 0) {
+        break;
+      }
+      waitUntil(scheduledNanos);
+      nextScheduledNanos += intervalNanos;
+
+      Operation operation = workload.chooseOperation();
+      RespRequest request = createRequest(operation);
+      try {
+        RespResponse response = connection.send(request);
+        if (response instanceof RespResponse.Success
+            || response instanceof RespResponse.MultiSuccess) {
+          stats.recordSuccess(operation, System.nanoTime() - scheduledNanos);
+        } else {
+          stats.recordFailure(operation);
+        }
+      } catch (IOException e) {
+        stats.recordFailure(operation);
+        throw e;
+      }
+    }
+    return null;
+  }
+
+  private static void waitUntil(long scheduledNanos) {
+    long remainingNanos;
+    while ((remainingNanos = scheduledNanos - System.nanoTime()) > 0) {
+      LockSupport.parkNanos(remainingNanos);
+    }
+  }
+
+  private RespRequest createRequest(Operation operation) {
+    return switch (operation) {
+      case READ -> new RespRequest.GetRequest(chooseExistingKey());
+      case UPDATE -> new RespRequest.SetRequest(chooseExistingKey(), chooseValue());
+      case INSERT ->
+          new RespRequest.SetRequest(
+              KeySpace.createKey(keySpace.reserveInsertIndex()), chooseValue());
+      case DELETE -> new RespRequest.DeleteRequest(chooseExistingKey());
+    };
+  }
+
+  private ByteString chooseExistingKey() {
+    return KeySpace.createKey(keyGenerator.nextKeyIndex(keySpace.getNumKeys()));
+  }
+
+  private ByteString chooseValue() {
+    return valueSource.substring(0, workload.chooseValueBytes());
+  }
+}
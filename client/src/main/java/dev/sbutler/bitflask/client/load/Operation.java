@@ -0,0 +1,13 @@
+package dev.sbutler.bitflask.client.load;
+
+/** The operations a {@link Workload} issues against a Bitflask server. */
+enum Operation {
+  // Get an existing key
+  READ,
+  // Set an existing key to a new value
+  UPDATE,
+  // Set a key that has not been written before
+  INSERT,
+  // Delete an existing key
+  DELETE
+}
@@ -0,0 +1,79 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The mix of operations issued by a load test and the shape of the keys and values they use.
+ *
+ * <p>Proportions are relative to each other and do not need to sum to 1. Value sizes are chosen
+ * uniformly from [minValueBytes, maxValueBytes].
+ *
+ * @param readProportion the relative frequency of {@link Operation#READ}
+ * @param updateProportion the relative frequency of {@link Operation#UPDATE}
+ * @param insertProportion the relative frequency of {@link Operation#INSERT}
+ * @param deleteProportion the relative frequency of {@link Operation#DELETE}
+ * @param keyDistribution how existing keys are chosen for reads, updates, and deletes
+ * @param minValueBytes the smallest value written
+ * @param maxValueBytes the largest value written
+ */
+record Workload(
+    double readProportion,
+    double updateProportion,
+    double insertProportion,
+    double deleteProportion,
+    KeyDistribution keyDistribution,
+    int minValueBytes,
+    int maxValueBytes) {
+
+  Workload {
+    checkArgument(
+        readProportion >= 0 && updateProportion >= 0 && insertProportion >= 0
+            && deleteProportion >= 0,
+        "Operation proportions must be non-negative.");
+    checkArgument(
+        readProportion + updateProportion + insertProportion + deleteProportion > 0,
+        "At least one operation proportion must be positive.");
+    checkArgument(
+        minValueBytes > 0, "minValueBytes must be positive. Provided [%s]", minValueBytes);
+    checkArgument(
+        maxValueBytes >= minValueBytes,
+        "maxValueBytes must be at least minValueBytes. Provided [%s], [%s]",
+        maxValueBytes,
+        minValueBytes);
+  }
+
+  /** A {@link Workload} that only inserts, used to populate the key space before a run. */
+  static Workload createInsertOnly(int minValueBytes, int maxValueBytes) {
+    return new Workload(0, 0, 1, 0, KeyDistribution.UNIFORM, minValueBytes, maxValueBytes);
+  }
+
+  /** Randomly chooses the next {@link Operation} according to the proportions. */
+  Operation chooseOperation() {
+    return chooseOperation(ThreadLocalRandom.current().nextDouble());
+  }
+
+  /** Chooses the {@link Operation} that the provided random value in [0, 1) falls into. */
+  Operation chooseOperation(double random) {
+    double total = readProportion + updateProportion + insertProportion + deleteProportion;
+    double threshold = random * total;
+    if (threshold < readProportion) {
+      return Operation.READ;
+    }
+    threshold -= readProportion;
+    if (threshold < updateProportion) {
+      return Operation.UPDATE;
+    }
+    threshold -= updateProportion;
+    if (threshold < insertProportion) {
+      return Operation.INSERT;
+    }
+    return Operation.DELETE;
+  }
+
+  /** Randomly chooses the number of bytes of the next value written. */
+  int chooseValueBytes() {
+    return ThreadLocalRandom.current().nextInt(minValueBytes, maxValueBytes + 1);
+  }
+}
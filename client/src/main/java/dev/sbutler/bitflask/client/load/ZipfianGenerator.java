@@ -0,0 +1,88 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates integers in [0, numItems) following a Zipfian distribution, where 0 is the most
+ * popular item.
+ *
+ * <p>Uses the algorithm from Gray et al., "Quickly Generating Billion-Record Synthetic Databases",
+ * as popularized by YCSB. The zeta constant is extended incrementally as the number of items grows
+ * so that a growing key space does not require recomputing it from scratch.
+ */
+final class ZipfianGenerator {
+
+  /** The skew used by YCSB, where roughly 20% of the items receive 80% of the operations. */
+  static final double DEFAULT_THETA = 0.99;
+
+  private final double theta;
+  private final double alpha;
+  private final double zeta2Theta;
+
+  private volatile ZetaState zetaState;
+
+  ZipfianGenerator(double theta) {
+    checkArgument(
+        theta > 0 && theta < 1, "Theta must be in the range (0, 1). Provided [%s]", theta);
+    this.theta = theta;
+    this.alpha = 1 / (1 - theta);
+    this.zeta2Theta = zeta(0, 2, 0);
+    this.zetaState = new ZetaState(0, 0);
+  }
+
+  /**
+   * Returns the next item in [0, numItems).
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if numItems is not positive.
+   */
+  long next(long numItems) {
+    checkArgument(numItems > 0, "The number of items must be positive. Provided [%s]", numItems);
+    double zetaN = getZetaN(numItems);
+    double eta = (1 - Math.pow(2.0 / numItems, 1 - theta)) / (1 - zeta2Theta / zetaN);
+
+    double u = ThreadLocalRandom.current().nextDouble();
+    double uz = u * zetaN;
+    if (uz < 1) {
+      return 0;
+    }
+    if (uz < 1 + Math.pow(0.5, theta)) {
+      return Math.min(1, numItems - 1);
+    }
+    long item = (long) (numItems * Math.pow(eta * u - eta + 1, alpha));
+    return Math.min(item, numItems - 1);
+  }
+
+  private double getZetaN(long numItems) {
+    ZetaState state = zetaState;
+    if (state.numItems() == numItems) {
+      return state.zetaN();
+    }
+    return updateZetaN(numItems);
+  }
+
+  private synchronized double updateZetaN(long numItems) {
+    ZetaState state = zetaState;
+    if (state.numItems() == numItems) {
+      return state.zetaN();
+    }
+    double zetaN =
+        numItems > state.numItems()
+            ? zeta(state.numItems(), numItems, state.zetaN())
+            : zeta(0, numItems, 0);
+    zetaState = new ZetaState(numItems, zetaN);
+    return zetaN;
+  }
+
+  /** Extends the sum of 1 / i^theta over [1, fromNumItems] to [1, toNumItems]. */
+  private double zeta(long fromNumItems, long toNumItems, double initialSum) {
+    double sum = initialSum;
+    for (long i = fromNumItems + 1; i <= toNumItems; i++) {
+      sum += 1 / Math.pow(i, theta);
+    }
+    return sum;
+  }
+
+  private record ZetaState(long numItems, double zetaN) {}
+}
@@ -47,7 +47,7 @@ public class ClientTest {
       when(INJECTOR.getInstance(RespServiceProvider.class)).thenReturn(RESP_SERVICE_PROVIDER);
       when(INJECTOR.getInstance(ReplClientProcessorService.class)).thenReturn(REPL_PROCESSOR);
       // Act
-      Client.main(new String[0]);
+      Client.execute(new String[0]);
       // Assert
       verify(REPL_PROCESSOR, times(1)).run();
     }
@@ -69,7 +69,7 @@ public class ClientTest {
       when(INJECTOR.getInstance(ReplClientProcessorService.class))
           .thenThrow(new ProvisionException("test"));
       // Act
-      Client.main(new String[0]);
+      Client.execute(new String[0]);
       // Assert
       verify(REPL_PROCESSOR, times(0)).run();
     }
@@ -92,7 +92,7 @@ public class ClientTest {
           .thenThrow(new ConfigurationException(ImmutableList.of()));
 
       // Act
-      Client.main(new String[0]);
+      Client.execute(new String[0]);
       // Assert
       verify(REPL_PROCESSOR, times(0)).run();
     }
@@ -117,7 +117,7 @@ public class ClientTest {
       doThrow(new RuntimeException("test")).when(REPL_PROCESSOR).run();
 
       // Act
-      Client.main(new String[0]);
+      Client.execute(new String[0]);
       // Assert
       verify(REPL_PROCESSOR, times(1)).run();
     }
@@ -142,7 +142,7 @@ public class ClientTest {
       doThrow(new IOException("test")).when(RESP_SERVICE).close();
 
       // Act
-      Client.main(new String[0]);
+      Client.execute(new String[0]);
       // Assert
       verify(REPL_PROCESSOR, times(1)).run();
     }
@@ -4,6 +4,7 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.client.client_processing.output.OutputWriter;
 import dev.sbutler.bitflask.client.client_processing.repl.types.ReplElement;
 import dev.sbutler.bitflask.client.client_processing.repl.types.ReplString;
@@ -32,6 +33,17 @@ public class ClientCommandFactoryTest {
         .isInstanceOf(RespRequest.PingRequest.class);
   }
 
+  @Test
+  public void createCommand_remoteCommand_info() {
+    ImmutableList<ReplElement> clientInput = ImmutableList.of(new ReplString("info"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isInstanceOf(RespRequest.InfoRequest.class);
+  }
+
   @Test
   public void createCommand_remoteCommand_get() {
     ImmutableList<ReplElement> clientInput =
@@ -56,6 +68,23 @@ public class ClientCommandFactoryTest {
         .isInstanceOf(RespRequest.SetRequest.class);
   }
 
+  @Test
+  public void createCommand_remoteCommand_setWithExpiry() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(
+            new ReplString("set"),
+            new ReplString("key"),
+            new ReplString("value"),
+            new ReplString("ex"),
+            new ReplString("10"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isEqualTo(new RespRequest.SetRequest("key", "value", 10L));
+  }
+
   @Test
   public void createCommand_remoteCommand_delete() {
     ImmutableList<ReplElement> clientInput =
@@ -68,6 +97,57 @@ public class ClientCommandFactoryTest {
         .isInstanceOf(RespRequest.DeleteRequest.class);
   }
 
+  @Test
+  public void createCommand_remoteCommand_incrby() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("incrby"), new ReplString("key"), new ReplString("-2"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isEqualTo(new RespRequest.IncrementByRequest("key", -2));
+  }
+
+  @Test
+  public void createCommand_remoteCommand_append() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("append"), new ReplString("key"), new ReplString("value"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isEqualTo(new RespRequest.AppendRequest("key", "value"));
+  }
+
+  @Test
+  public void createCommand_remoteCommand_mget() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("mget"), new ReplString("key0"), new ReplString("key1"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isEqualTo(
+            new RespRequest.MultiGetRequest(
+                ImmutableList.of(
+                    ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("key1"))));
+  }
+
+  @Test
+  public void createCommand_remoteCommand_slowLog() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("slowlog"), new ReplString("get"), new ReplString("5"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+
+    assertThat(command).isInstanceOf(RemoteCommand.class);
+    assertThat(((RemoteCommand) command).getRespRequest())
+        .isEqualTo(new RespRequest.SlowLogRequest(5L));
+  }
+
   @Test
   public void createCommand_localCommand_help() {
     ImmutableList<ReplElement> clientInput = ImmutableList.of(new ReplString("help"));
@@ -131,6 +211,24 @@ public class ClientCommandFactoryTest {
         .writeWithNewLine("The Set command requires a key and value.");
   }
 
+  @Test
+  public void createCommand_remoteCommand_set_invalidExpiry_invalid() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(
+            new ReplString("set"),
+            new ReplString("key"),
+            new ReplString("value"),
+            new ReplString("ex"),
+            new ReplString("soon"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+    command.execute();
+
+    assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
+    verify(outputWriter, atMostOnce())
+        .writeWithNewLine("The Set command's expiry must be a number.");
+  }
+
   @Test
   public void createCommand_remoteCommand_del_invalidArgs_invalid() {
     ImmutableList<ReplElement> clientInput = ImmutableList.of(new ReplString("delete"));
@@ -141,4 +239,55 @@ public class ClientCommandFactoryTest {
     assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
     verify(outputWriter, atMostOnce()).writeWithNewLine("The Delete command requires a key.");
   }
+
+  @Test
+  public void createCommand_remoteCommand_incrby_invalidIncrement_invalid() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("incrby"), new ReplString("key"), new ReplString("one"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+    command.execute();
+
+    assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
+    verify(outputWriter, atMostOnce())
+        .writeWithNewLine("The Incrby command's increment must be a number.");
+  }
+
+  @Test
+  public void createCommand_remoteCommand_append_invalidArgs_invalid() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("append"), new ReplString("key"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+    command.execute();
+
+    assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
+    verify(outputWriter, atMostOnce())
+        .writeWithNewLine("The Append command requires a key and value.");
+  }
+
+  @Test
+  public void createCommand_remoteCommand_mget_invalidArgs_invalid() {
+    ImmutableList<ReplElement> clientInput = ImmutableList.of(new ReplString("mget"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+    command.execute();
+
+    assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
+    verify(outputWriter, atMostOnce())
+        .writeWithNewLine("The Mget command requires at least one key.");
+  }
+
+  @Test
+  public void createCommand_remoteCommand_slowLog_invalidSubcommand_invalid() {
+    ImmutableList<ReplElement> clientInput =
+        ImmutableList.of(new ReplString("slowlog"), new ReplString("clear"));
+
+    ClientCommand command = clientCommandFactory.createCommand(clientInput);
+    command.execute();
+
+    assertThat(command).isInstanceOf(LocalCommand.Invalid.class);
+    verify(outputWriter, atMostOnce())
+        .writeWithNewLine("The Slowlog command's subcommand must be one of GET, LEN, or RESET.");
+  }
 }
@@ -3,6 +3,8 @@ package dev.sbutler.bitflask.client.command_processing;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.client.client_processing.output.OutputWriter;
 import dev.sbutler.bitflask.resp.messages.RespRequest;
 import dev.sbutler.bitflask.resp.messages.RespResponse;
@@ -11,6 +13,7 @@ import dev.sbutler.bitflask.resp.network.RespServiceProvider;
 import java.io.IOException;
 import java.net.SocketAddress;
 import java.nio.channels.SocketChannel;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockedStatic;
 
@@ -39,6 +42,20 @@ public class RemoteCommandTest {
     verify(outputWriter, times(1)).writeWithNewLine("test");
   }
 
+  @Test
+  public void execute_respResponse_multiSuccess() {
+    RespResponse response =
+        new RespResponse.MultiSuccess(
+            ImmutableList.of(Optional.of(ByteString.copyFromUtf8("value")), Optional.empty()));
+    when(respCommandProcessor.sendRequest(RESP_REQUEST)).thenReturn(response);
+
+    boolean shouldContinue = remoteCommand.execute();
+
+    assertThat(shouldContinue).isTrue();
+    verify(outputWriter, times(1)).writeWithNewLine("value");
+    verify(outputWriter, times(1)).writeWithNewLine("(nil)");
+  }
+
   @Test
   public void execute_respResponse_failure() {
     RespResponse response = new RespResponse.Failure("test");
@@ -0,0 +1,52 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link KeyGenerator}. */
+public class KeyGeneratorTest {
+
+  @Test
+  public void uniform_withinRange() {
+    KeyGenerator keyGenerator = KeyGenerator.create(KeyDistribution.UNIFORM);
+
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(keyGenerator.nextKeyIndex(100)).isAtLeast(0);
+      assertThat(keyGenerator.nextKeyIndex(100)).isLessThan(100);
+    }
+  }
+
+  @Test
+  public void zipfian_withinRange() {
+    KeyGenerator keyGenerator = KeyGenerator.create(KeyDistribution.ZIPFIAN);
+
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(keyGenerator.nextKeyIndex(100)).isAtLeast(0);
+      assertThat(keyGenerator.nextKeyIndex(100)).isLessThan(100);
+    }
+  }
+
+  @Test
+  public void latest_skewedTowardsLastKeys() {
+    KeyGenerator keyGenerator = KeyGenerator.create(KeyDistribution.LATEST);
+    int numSamples = 100_000;
+    int lastTenCount = 0;
+    for (int i = 0; i < numSamples; i++) {
+      long keyIndex = keyGenerator.nextKeyIndex(1_000);
+      assertThat(keyIndex).isAtLeast(0);
+      if (keyIndex >= 990) {
+        lastTenCount++;
+      }
+    }
+
+    assertThat((double) lastTenCount / numSamples).isGreaterThan(0.3);
+  }
+
+  @Test
+  public void fnvHash64_spreadsConsecutiveValues() {
+    assertThat(KeyGenerator.fnvHash64(0)).isNotEqualTo(KeyGenerator.fnvHash64(1));
+    assertThat(Math.floorMod(KeyGenerator.fnvHash64(0), 1_000))
+        .isNotEqualTo(Math.floorMod(KeyGenerator.fnvHash64(1), 1_000));
+  }
+}
@@ -0,0 +1,56 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.network.RespService;
+import java.io.IOException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import picocli.CommandLine;
+
+/** Unit tests for {@link LoadCommand}. */
+public class LoadCommandTest {
+
+  private static final String[] ARGS = {
+    "--targets", "localhost:9090", "--connections", "2", "--operations", "10"
+  };
+
+  private final RespService respService = mock(RespService.class);
+  private final LoadCommand loadCommand = new LoadCommand();
+
+  @BeforeEach
+  public void beforeEach() {
+    loadCommand.loadGeneratorFactory =
+        targets -> new LoadGenerator(targets, address -> respService);
+  }
+
+  @Test
+  public void call_allConnectionsSucceed_exitsOk() throws Exception {
+    when(respService.read()).thenReturn(new RespResponse.Success("OK").getAsRespArray());
+
+    int exitCode = new CommandLine(loadCommand).execute(ARGS);
+
+    assertThat(exitCode).isEqualTo(CommandLine.ExitCode.OK);
+  }
+
+  @Test
+  public void call_connectionFails_exitsNonZero() throws Exception {
+    doThrow(new IOException("test")).when(respService).write(any());
+
+    int exitCode = new CommandLine(loadCommand).execute(ARGS);
+
+    assertThat(exitCode).isEqualTo(CommandLine.ExitCode.SOFTWARE);
+  }
+
+  @Test
+  public void call_invalidOptions_exitsWithUsage() {
+    int exitCode = new CommandLine(loadCommand).execute("--connections", "0");
+
+    assertThat(exitCode).isEqualTo(CommandLine.ExitCode.USAGE);
+  }
+}
@@ -0,0 +1,91 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.network.RespService;
+import dev.sbutler.bitflask.resp.types.RespError;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LoadConnection}. */
+public class LoadConnectionTest {
+
+  private static final InetSocketAddress FOLLOWER = new InetSocketAddress("localhost", 9091);
+  private static final InetSocketAddress LEADER = new InetSocketAddress("localhost", 9090);
+
+  private final RespService followerService = mock(RespService.class);
+  private final RespService leaderService = mock(RespService.class);
+  private final LoadStats stats = new LoadStats();
+
+  private final LoadConnection.Connector connector =
+      address -> address.equals(LEADER) ? leaderService : followerService;
+
+  @Test
+  public void send() throws Exception {
+    RespRequest request = new RespRequest.GetRequest("key");
+    RespResponse expected = new RespResponse.Success("value");
+    when(followerService.read()).thenReturn(expected.getAsRespArray());
+    LoadConnection connection = LoadConnection.open(connector, stats, FOLLOWER);
+
+    RespResponse response = connection.send(request);
+
+    assertThat(response).isEqualTo(expected);
+    verify(followerService, times(1)).write(request.getAsRespArray());
+  }
+
+  @Test
+  public void send_notCurrentLeader_redirectedToLeader() throws Exception {
+    RespRequest request = new RespRequest.SetRequest("key", "value");
+    RespResponse expected = new RespResponse.Success("OK");
+    when(followerService.read())
+        .thenReturn(new RespResponse.NotCurrentLeader("localhost", 9090).getAsRespArray());
+    when(leaderService.read()).thenReturn(expected.getAsRespArray());
+    LoadConnection connection = LoadConnection.open(connector, stats, FOLLOWER);
+
+    RespResponse response = connection.send(request);
+
+    assertThat(response).isEqualTo(expected);
+    verify(followerService, times(1)).close();
+    verify(leaderService, times(1)).write(request.getAsRespArray());
+    assertThat(stats.snapshot(Duration.ZERO).numRedirects()).isEqualTo(1);
+  }
+
+  @Test
+  public void send_notCurrentLeader_redirectsLimited() throws Exception {
+    RespResponse notCurrentLeader = new RespResponse.NotCurrentLeader("localhost", 9090);
+    when(leaderService.read()).thenReturn(notCurrentLeader.getAsRespArray());
+    LoadConnection connection = LoadConnection.open(connector, stats, LEADER);
+
+    RespResponse response = connection.send(new RespRequest.GetRequest("key"));
+
+    assertThat(response).isEqualTo(notCurrentLeader);
+    assertThat(stats.snapshot(Duration.ZERO).numRedirects())
+        .isEqualTo(LoadConnection.MAX_REDIRECTS);
+  }
+
+  @Test
+  public void send_respError_throwsIOException() throws Exception {
+    when(followerService.read()).thenReturn(new RespError("error"));
+    LoadConnection connection = LoadConnection.open(connector, stats, FOLLOWER);
+
+    assertThrows(IOException.class, () -> connection.send(new RespRequest.GetRequest("key")));
+  }
+
+  @Test
+  public void close() throws Exception {
+    LoadConnection connection = LoadConnection.open(connector, stats, FOLLOWER);
+
+    connection.close();
+
+    verify(followerService, times(1)).close();
+  }
+}
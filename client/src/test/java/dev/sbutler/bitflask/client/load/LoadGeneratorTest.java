@@ -0,0 +1,136 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.network.RespService;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LoadGenerator}. */
+public class LoadGeneratorTest {
+
+  private static final ImmutableList<InetSocketAddress> TARGETS =
+      ImmutableList.of(
+          new InetSocketAddress("localhost", 9090), new InetSocketAddress("localhost", 9091));
+
+  private final List<InetSocketAddress> connectedAddresses = new ArrayList<>();
+  private final RespService respService = mock(RespService.class);
+
+  private final LoadGenerator loadGenerator =
+      new LoadGenerator(
+          TARGETS,
+          address -> {
+            synchronized (connectedAddresses) {
+              connectedAddresses.add(address);
+            }
+            return respService;
+          });
+
+  @Test
+  public void run_operationsLimited() throws Exception {
+    when(respService.read()).thenReturn(new RespResponse.Success("OK").getAsRespArray());
+    Workload workload = new Workload(1, 1, 0, 1, KeyDistribution.ZIPFIAN, 1, 10);
+
+    LoadStats.Snapshot snapshot =
+        loadGenerator.run(
+            workload,
+            new KeySpace(100),
+            new LoadGenerator.RunLimits(4, 0, Duration.ofMinutes(1), 1_000));
+
+    assertThat(snapshot.getNumSuccesses()).isEqualTo(1_000);
+    assertThat(snapshot.getNumFailures()).isEqualTo(0);
+    assertThat(snapshot.numFailedConnections()).isEqualTo(0);
+    assertThat(snapshot.toReport()).contains("READ");
+    verify(respService, times(1_000)).write(any());
+    verify(respService, times(4)).close();
+    assertThat(connectedAddresses)
+        .containsExactly(TARGETS.get(0), TARGETS.get(1), TARGETS.get(0), TARGETS.get(1));
+  }
+
+  @Test
+  public void run_durationLimited() throws Exception {
+    when(respService.read()).thenReturn(new RespResponse.Success("OK").getAsRespArray());
+    Workload workload = new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 1, 1);
+
+    LoadStats.Snapshot snapshot =
+        loadGenerator.run(
+            workload,
+            new KeySpace(10),
+            new LoadGenerator.RunLimits(1, 100, Duration.ofMillis(100), Long.MAX_VALUE));
+
+    assertThat(snapshot.getNumSuccesses()).isAtLeast(1);
+    assertThat(snapshot.getNumSuccesses()).isAtMost(11);
+  }
+
+  @Test
+  public void run_insertOnly_keySpaceGrows() throws Exception {
+    when(respService.read()).thenReturn(new RespResponse.Success("OK").getAsRespArray());
+    KeySpace keySpace = new KeySpace(0);
+
+    loadGenerator.run(
+        Workload.createInsertOnly(1, 1),
+        keySpace,
+        new LoadGenerator.RunLimits(2, 0, Duration.ofMinutes(1), 50));
+
+    assertThat(keySpace.getNumKeys()).isEqualTo(50);
+  }
+
+  @Test
+  public void run_failureResponses_recorded() throws Exception {
+    when(respService.read()).thenReturn(new RespResponse.Failure("failed").getAsRespArray());
+    Workload workload = new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 1, 1);
+
+    LoadStats.Snapshot snapshot =
+        loadGenerator.run(
+            workload,
+            new KeySpace(10),
+            new LoadGenerator.RunLimits(1, 0, Duration.ofMinutes(1), 10));
+
+    assertThat(snapshot.getNumSuccesses()).isEqualTo(0);
+    assertThat(snapshot.failuresByOperation().get(Operation.READ)).isEqualTo(10);
+  }
+
+  @Test
+  public void run_connectionFails_workerStopped() throws Exception {
+    doThrow(new IOException("test")).when(respService).write(any());
+    Workload workload = new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 1, 1);
+
+    LoadStats.Snapshot snapshot =
+        loadGenerator.run(
+            workload,
+            new KeySpace(10),
+            new LoadGenerator.RunLimits(1, 0, Duration.ofMinutes(1), 10));
+
+    assertThat(snapshot.getNumFailures()).isEqualTo(1);
+    assertThat(snapshot.numFailedConnections()).isEqualTo(1);
+    assertThat(snapshot.toReport()).contains("1 connection(s) failed");
+    verify(respService, atLeastOnce()).close();
+  }
+
+  @Test
+  public void run_emptyKeySpaceWithReads_throwsIllegalArgumentException() {
+    Workload workload = new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 1, 1);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            loadGenerator.run(
+                workload,
+                new KeySpace(0),
+                new LoadGenerator.RunLimits(1, 0, Duration.ofMinutes(1), 10)));
+  }
+}
@@ -0,0 +1,70 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link Workload}. */
+public class WorkloadTest {
+
+  @Test
+  public void chooseOperation_proportionsRespected() {
+    Workload workload = new Workload(1, 1, 1, 1, KeyDistribution.UNIFORM, 1, 1);
+
+    assertThat(workload.chooseOperation(0.0)).isEqualTo(Operation.READ);
+    assertThat(workload.chooseOperation(0.3)).isEqualTo(Operation.UPDATE);
+    assertThat(workload.chooseOperation(0.6)).isEqualTo(Operation.INSERT);
+    assertThat(workload.chooseOperation(0.9)).isEqualTo(Operation.DELETE);
+  }
+
+  @Test
+  public void chooseOperation_zeroProportionSkipped() {
+    Workload workload = new Workload(0, 3, 0, 1, KeyDistribution.UNIFORM, 1, 1);
+
+    assertThat(workload.chooseOperation(0.0)).isEqualTo(Operation.UPDATE);
+    assertThat(workload.chooseOperation(0.74)).isEqualTo(Operation.UPDATE);
+    assertThat(workload.chooseOperation(0.75)).isEqualTo(Operation.DELETE);
+  }
+
+  @Test
+  public void createInsertOnly() {
+    Workload workload = Workload.createInsertOnly(1, 10);
+
+    assertThat(workload.chooseOperation()).isEqualTo(Operation.INSERT);
+  }
+
+  @Test
+  public void chooseValueBytes_withinRange() {
+    Workload workload = new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 10, 20);
+
+    for (int i = 0; i < 1_000; i++) {
+      assertThat(workload.chooseValueBytes()).isAtLeast(10);
+      assertThat(workload.chooseValueBytes()).isAtMost(20);
+    }
+  }
+
+  @Test
+  public void create_noPositiveProportion_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new Workload(0, 0, 0, 0, KeyDistribution.UNIFORM, 1, 1));
+
+    assertThat(e).hasMessageThat().isEqualTo("At least one operation proportion must be positive.");
+  }
+
+  @Test
+  public void create_negativeProportion_throwsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new Workload(-1, 1, 0, 0, KeyDistribution.UNIFORM, 1, 1));
+  }
+
+  @Test
+  public void create_maxValueBytesLessThanMin_throwsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new Workload(1, 0, 0, 0, KeyDistribution.UNIFORM, 10, 9));
+  }
+}
@@ -0,0 +1,62 @@
+package dev.sbutler.bitflask.client.load;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.Range;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ZipfianGenerator}. */
+public class ZipfianGeneratorTest {
+
+  private final ZipfianGenerator generator =
+      new ZipfianGenerator(ZipfianGenerator.DEFAULT_THETA);
+
+  @Test
+  public void next_withinRange() {
+    for (int i = 0; i < 10_000; i++) {
+      assertThat(generator.next(100)).isIn(Range.closedOpen(0L, 100L));
+    }
+  }
+
+  @Test
+  public void next_skewedTowardsFirstItems() {
+    int numSamples = 100_000;
+    int firstTenCount = 0;
+    for (int i = 0; i < numSamples; i++) {
+      if (generator.next(1_000) < 10) {
+        firstTenCount++;
+      }
+    }
+
+    // The first 1% of items receive roughly 40% of samples with the default theta
+    assertThat((double) firstTenCount / numSamples).isGreaterThan(0.3);
+  }
+
+  @Test
+  public void next_growingNumItems_withinRange() {
+    for (long numItems = 1; numItems <= 1_000; numItems++) {
+      assertThat(generator.next(numItems)).isLessThan(numItems);
+    }
+  }
+
+  @Test
+  public void next_shrinkingNumItems_withinRange() {
+    generator.next(1_000);
+
+    assertThat(generator.next(10)).isLessThan(10);
+  }
+
+  @Test
+  public void next_nonPositiveNumItems_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> generator.next(0));
+
+    assertThat(e).hasMessageThat().isEqualTo("The number of items must be positive. Provided [0]");
+  }
+
+  @Test
+  public void create_invalidTheta_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class, () -> new ZipfianGenerator(1));
+  }
+}
@@ -0,0 +1,143 @@
+package dev.sbutler.bitflask.common.metrics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative {@code long} values with log-linear buckets.
+ *
+ * <p>Values below {@link #LINEAR_BUCKETS} are counted exactly. Each following power of two range is
+ * split into {@link #SUB_BUCKETS} equally sized buckets, bounding the relative error of a reported
+ * value to 12.5%. Recording a value is a handful of atomic increments regardless of the number of
+ * values recorded, so it is safe to use on hot paths shared by many threads.
+ */
+public final class Histogram {
+
+  /** The number of values below which every value has its own bucket. */
+  static final int LINEAR_BUCKETS = 16;
+  /** The number of buckets each power of two range above the linear buckets is split into. */
+  static final int SUB_BUCKETS = 8;
+
+  private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+  private static final int FIRST_EXPONENT = Integer.numberOfTrailingZeros(LINEAR_BUCKETS);
+  private static final int NUM_BUCKETS =
+      LINEAR_BUCKETS + (Long.SIZE - 1 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+  private final AtomicLongArray bucketCounts = new AtomicLongArray(NUM_BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+  /**
+   * Records the value.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if the value is negative.
+   */
+  public void record(long value) {
+    checkArgument(value >= 0, "Recorded values must be non-negative. Provided [%s]", value);
+    bucketCounts.incrementAndGet(bucketIndex(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  /**
+   * Returns a point-in-time copy of the recorded values.
+   *
+   * <p>Values recorded concurrently with taking the snapshot may be only partially reflected.
+   */
+  public Snapshot snapshot() {
+    ImmutableList.Builder<Long> counts = ImmutableList.builderWithExpectedSize(NUM_BUCKETS);
+    for (int i = 0; i < NUM_BUCKETS; i++) {
+      counts.add(bucketCounts.get(i));
+    }
+    return new Snapshot(count.sum(), sum.sum(), max.get(), counts.build());
+  }
+
+  static int bucketIndex(long value) {
+    if (value < LINEAR_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+  }
+
+  /** Returns the largest value counted in the bucket. */
+  static long bucketUpperBound(int bucketIndex) {
+    if (bucketIndex < LINEAR_BUCKETS) {
+      return bucketIndex;
+    }
+    int exponent = (bucketIndex - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+    long subBucket = (bucketIndex - LINEAR_BUCKETS) % SUB_BUCKETS;
+    long subBucketWidth = 1L << (exponent - SUB_BUCKET_BITS);
+    return ((SUB_BUCKETS + subBucket) << (exponent - SUB_BUCKET_BITS)) + subBucketWidth - 1;
+  }
+
+  /**
+   * A point-in-time copy of a {@link Histogram}'s recorded values.
+   *
+   * @param count the number of values recorded
+   * @param sum the sum of all values recorded
+   * @param max the largest value recorded, or 0 if none have been
+   * @param bucketCounts the number of values recorded in each bucket
+   */
+  public record Snapshot(long count, long sum, long max, ImmutableList<Long> bucketCounts) {
+
+    /** Returns the mean of the recorded values, or 0 if none have been recorded. */
+    public double getMean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at or below which the provided percentage of recorded values fall, or 0 if
+     * none have been recorded.
+     *
+     * <p>The value is the upper bound of the bucket holding the percentile, capped at the
+     * {@link #max()}.
+     *
+     * <p>An {@link IllegalArgumentException} will be thrown if the percentile is not within
+     * [0, 100].
+     */
+    public long getValueAtPercentile(double percentile) {
+      checkArgument(percentile >= 0 && percentile <= 100,
+          "Percentile must be in the range [0, 100]. Provided [%s]", percentile);
+      long bucketedCount = bucketCounts.stream().mapToLong(Long::longValue).sum();
+      if (bucketedCount == 0) {
+        return 0;
+      }
+      long targetCount = Math.max(1, (long) Math.ceil(bucketedCount * percentile / 100));
+      long seenCount = 0;
+      for (int i = 0; i < bucketCounts.size(); i++) {
+        seenCount += bucketCounts.get(i);
+        if (seenCount >= targetCount) {
+          return Math.min(bucketUpperBound(i), max);
+        }
+      }
+      return max;
+    }
+
+    /**
+     * Returns the number of recorded values in the buckets up to and including the one holding the
+     * provided value.
+     *
+     * <p>Values sharing the provided value's bucket but larger than it are included, so the count
+     * may be overstated by the bucket's width, within the histogram's relative error.
+     */
+    public long getCountAtOrBelow(long value) {
+      if (value < 0) {
+        return 0;
+      }
+      int lastBucketIndex = Math.min(bucketIndex(value), bucketCounts.size() - 1);
+      long countAtOrBelow = 0;
+      for (int i = 0; i <= lastBucketIndex; i++) {
+        countAtOrBelow += bucketCounts.get(i);
+      }
+      return countAtOrBelow;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package dev.sbutler.bitflask.common.metrics;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class HistogramTest {
+
+  private final Histogram histogram = new Histogram();
+
+  @Test
+  public void snapshot_empty() {
+    Histogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.count()).isEqualTo(0);
+    assertThat(snapshot.sum()).isEqualTo(0);
+    assertThat(snapshot.max()).isEqualTo(0);
+    assertThat(snapshot.getMean()).isEqualTo(0);
+    assertThat(snapshot.getValueAtPercentile(99)).isEqualTo(0);
+  }
+
+  @Test
+  public void record_linearValues_reportedExactly() {
+    for (long value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+
+    Histogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.count()).isEqualTo(10);
+    assertThat(snapshot.sum()).isEqualTo(55);
+    assertThat(snapshot.max()).isEqualTo(10);
+    assertThat(snapshot.getMean()).isEqualTo(5.5);
+    assertThat(snapshot.getValueAtPercentile(0)).isEqualTo(1);
+    assertThat(snapshot.getValueAtPercentile(50)).isEqualTo(5);
+    assertThat(snapshot.getValueAtPercentile(90)).isEqualTo(9);
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(10);
+  }
+
+  @Test
+  public void record_largeValues_reportedWithinRelativeError() {
+    histogram.record(1_000);
+    histogram.record(1_000_000);
+
+    Histogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.getValueAtPercentile(50)).isAtLeast(1_000);
+    assertThat(snapshot.getValueAtPercentile(50)).isAtMost(1_125);
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(1_000_000);
+  }
+
+  @Test
+  public void getCountAtOrBelow() {
+    for (long value = 1; value <= 10; value++) {
+      histogram.record(value);
+    }
+    histogram.record(1_000);
+
+    Histogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThat(snapshot.getCountAtOrBelow(-1)).isEqualTo(0);
+    assertThat(snapshot.getCountAtOrBelow(0)).isEqualTo(0);
+    assertThat(snapshot.getCountAtOrBelow(5)).isEqualTo(5);
+    assertThat(snapshot.getCountAtOrBelow(100)).isEqualTo(10);
+    assertThat(snapshot.getCountAtOrBelow(Long.MAX_VALUE)).isEqualTo(11);
+  }
+
+  @Test
+  public void bucketIndex_upperBound_coversValue() {
+    long[] values = {0, 15, 16, 17, 31, 32, 1_000, 123_456_789, Long.MAX_VALUE};
+
+    for (long value : values) {
+      int bucketIndex = Histogram.bucketIndex(value);
+      assertThat(Histogram.bucketUpperBound(bucketIndex)).isAtLeast(value);
+      if (bucketIndex > 0) {
+        assertThat(Histogram.bucketUpperBound(bucketIndex - 1)).isLessThan(value);
+      }
+    }
+  }
+
+  @Test
+  public void record_negativeValue_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+
+    assertThat(e).hasMessageThat().isEqualTo("Recorded values must be non-negative. Provided [-1]");
+  }
+
+  @Test
+  public void getValueAtPercentile_outOfRange_throwsIllegalArgumentException() {
+    Histogram.Snapshot snapshot = histogram.snapshot();
+
+    assertThrows(IllegalArgumentException.class, () -> snapshot.getValueAtPercentile(101));
+  }
+}
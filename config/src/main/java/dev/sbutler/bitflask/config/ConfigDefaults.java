@@ -36,6 +36,10 @@ public final class ConfigDefaults {
   public static ServerConfig SERVER_CONFIG =
       ServerConfig.newBuilder()
           .addAllBitflaskServers(ImmutableList.of(SERVER_INFO_0, SERVER_INFO_1, SERVER_INFO_2))
+          .setSlowLogThresholdMicroseconds(10000) // 10 milliseconds
+          .setSlowLogMaxEntries(128)
+          .setReadTraceSamplePercent(10)
+          .setNetworkEngine(ServerConfig.NetworkEngine.BLOCKING)
           .buildPartial();
 
   public static StorageConfig STORAGE_CONFIG =
@@ -46,6 +50,12 @@ public final class ConfigDefaults {
           .setMemtableFlushThresholdBytes(1048576) // 1 MiB
           .setSegmentLevelFlushThresholdBytes(5242880) // 5 MiB
           .setCompactorExecutionDelayMilliseconds(5000) // 5 seconds
+          .setBlobValueThresholdBytes(4096) // 4 KiB
+          .setBlobGarbageCollectionLiveRatioPercent(50)
+          .setSegmentReadMode(StorageConfig.SegmentReadMode.BLOCKING)
+          .setSegmentDirectIo(false)
+          .setWriteAheadLogPreallocateBytes(0)
+          .setMemtableOffHeap(false)
           .build();
 
   public static RaftConfig RAFT_CONFIG =
@@ -2,6 +2,7 @@ package dev.sbutler.bitflask.config;
 
 import dev.sbutler.bitflask.config.validators.AbsolutePathValidator;
 import dev.sbutler.bitflask.config.validators.NonBlankStringValidator;
+import dev.sbutler.bitflask.config.validators.PercentageValidator;
 import dev.sbutler.bitflask.config.validators.PositiveIntegerValidator;
 import dev.sbutler.bitflask.config.validators.PositiveLongValidator;
 import java.util.HashSet;
@@ -17,6 +18,7 @@ final class ConfigValidator {
   private static final NonBlankStringValidator nonBlankStringValidator =
       new NonBlankStringValidator();
   private static final AbsolutePathValidator absolutePathValidator = new AbsolutePathValidator();
+  private static final PercentageValidator percentageValidator = new PercentageValidator();
 
   static void validate(BitflaskConfig bitflaskConfig) {
     validateServerConfig(bitflaskConfig.getServerConfig());
@@ -48,6 +50,9 @@ final class ConfigValidator {
               "this_server_id [%s] not found in bitflask_servers: %s",
               thisServerId, serverConfig.getBitflaskServersList()));
     }
+
+    percentageValidator.validate(
+        "read_trace_sample_percent", serverConfig.getReadTraceSamplePercent());
   }
 
   private static void validateUniqueServerInfo(List<ServerConfig.ServerInfo> serverInfoList) {
@@ -75,6 +80,9 @@ final class ConfigValidator {
     positiveIntegerValidator.validate(
         "compactor_execution_delay_milliseconds",
         storageConfig.getCompactorExecutionDelayMilliseconds());
+    percentageValidator.validate(
+        "blob_garbage_collection_live_ratio_percent",
+        storageConfig.getBlobGarbageCollectionLiveRatioPercent());
   }
 
   static void validateRaftConfig(RaftConfig raftConfig) {
@@ -0,0 +1,15 @@
+package dev.sbutler.bitflask.config.validators;
+
+import dev.sbutler.bitflask.config.InvalidConfigurationException;
+
+/** Validates that an integer is a percentage between 0 and 100, inclusive. */
+public class PercentageValidator implements Validator<Integer> {
+
+  @Override
+  public void validate(String name, Integer value) {
+    if (value < 0 || value > 100) {
+      throw new InvalidConfigurationException(
+          "Parameter " + name + " should be between 0 and 100 (found " + value + ")");
+    }
+  }
+}
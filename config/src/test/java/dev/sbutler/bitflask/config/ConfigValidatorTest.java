@@ -124,6 +124,28 @@ public class ConfigValidatorTest {
     assertThat(e).hasMessageThat().contains("resp_port");
   }
 
+  @Test
+  public void serverConfig_readTraceSamplePercent_invalid() {
+    ServerConfig serverConfig =
+        ServerConfig.newBuilder()
+            .setThisServerId("server_0")
+            .addBitflaskServers(
+                ServerConfig.ServerInfo.newBuilder()
+                    .setServerId("server_0")
+                    .setHost("host")
+                    .setRespPort(1)
+                    .build())
+            .setReadTraceSamplePercent(101)
+            .build();
+
+    InvalidConfigurationException e =
+        assertThrows(
+            InvalidConfigurationException.class,
+            () -> ConfigValidator.validateServerConfig(serverConfig));
+
+    assertThat(e).hasMessageThat().contains("read_trace_sample_percent");
+  }
+
   @Test
   public void storageConfig_valid() {
     StorageConfig storageConfig =
@@ -201,6 +223,25 @@ public class ConfigValidatorTest {
     assertThat(e).hasMessageThat().contains("compactor_execution_delay_milliseconds");
   }
 
+  @Test
+  public void storageConfig_blobGarbageCollectionLiveRatioPercent_invalid() {
+    StorageConfig storageConfig =
+        StorageConfig.newBuilder()
+            .setStoreDirectoryPath("/tmp")
+            .setMemtableFlushThresholdBytes(1L)
+            .setSegmentLevelFlushThresholdBytes(1L)
+            .setCompactorExecutionDelayMilliseconds(1)
+            .setBlobGarbageCollectionLiveRatioPercent(101)
+            .buildPartial();
+
+    InvalidConfigurationException e =
+        assertThrows(
+            InvalidConfigurationException.class,
+            () -> ConfigValidator.validateStorageConfig(storageConfig));
+
+    assertThat(e).hasMessageThat().contains("blob_garbage_collection_live_ratio_percent");
+  }
+
   @Test
   public void raftConfig_success() {
     RaftConfig raftConfig =
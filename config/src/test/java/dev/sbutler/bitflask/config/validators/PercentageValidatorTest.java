@@ -0,0 +1,49 @@
+package dev.sbutler.bitflask.config.validators;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import dev.sbutler.bitflask.config.InvalidConfigurationException;
+import org.junit.jupiter.api.Test;
+
+public class PercentageValidatorTest {
+
+  @Test
+  void boundaryValues() {
+    PercentageValidator validator = new PercentageValidator();
+
+    try {
+      validator.validate("percentArg", 0);
+      validator.validate("percentArg", 100);
+    } catch (Exception e) {
+      fail();
+    }
+  }
+
+  @Test
+  void negativeValue() {
+    String name = "percentArg";
+    int value = -1;
+    PercentageValidator validator = new PercentageValidator();
+
+    InvalidConfigurationException exception =
+        assertThrows(InvalidConfigurationException.class, () -> validator.validate(name, value));
+
+    assertTrue(exception.getMessage().contains(name));
+    assertTrue(exception.getMessage().contains(Integer.toString(value)));
+  }
+
+  @Test
+  void greaterThanOneHundred() {
+    String name = "percentArg";
+    int value = 101;
+    PercentageValidator validator = new PercentageValidator();
+
+    InvalidConfigurationException exception =
+        assertThrows(InvalidConfigurationException.class, () -> validator.validate(name, value));
+
+    assertTrue(exception.getMessage().contains(name));
+    assertTrue(exception.getMessage().contains(Integer.toString(value)));
+  }
+}
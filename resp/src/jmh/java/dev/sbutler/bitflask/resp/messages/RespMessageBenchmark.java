@@ -0,0 +1,91 @@
+package dev.sbutler.bitflask.resp.messages;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures converting {@link RespRequest}s and {@link RespResponse}s to and from the
+ * {@link RespArray}s sent over the wire.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RespMessageBenchmark {
+
+  private static final ByteString KEY = ByteString.copyFromUtf8("key");
+  private static final ByteString VALUE = ByteString.copyFromUtf8("v".repeat(100));
+
+  /** A request and the response a server would reply to it with. */
+  public enum Exchange {
+    GET(() -> new RespRequest.GetRequest(KEY), () -> new RespResponse.Success(VALUE)),
+    SET(() -> new RespRequest.SetRequest(KEY, VALUE), () -> new RespResponse.Success("OK")),
+    MGET(
+        () -> new RespRequest.MultiGetRequest(ImmutableList.of(KEY, KEY, KEY, KEY)),
+        () -> new RespResponse.MultiSuccess(
+            ImmutableList.of(
+                Optional.of(VALUE), Optional.empty(), Optional.of(VALUE), Optional.of(VALUE))));
+
+    private final Supplier<RespRequest> requestSupplier;
+    private final Supplier<RespResponse> responseSupplier;
+
+    Exchange(Supplier<RespRequest> requestSupplier, Supplier<RespResponse> responseSupplier) {
+      this.requestSupplier = requestSupplier;
+      this.responseSupplier = responseSupplier;
+    }
+  }
+
+  @Param({"GET", "SET", "MGET"})
+  Exchange exchange;
+
+  private RespRequest request;
+  private RespArray requestArray;
+  private RespResponse response;
+  private RespArray responseArray;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    request = exchange.requestSupplier.get();
+    requestArray = request.getAsRespArray();
+    response = exchange.responseSupplier.get();
+    responseArray = response.getAsRespArray();
+  }
+
+  @Benchmark
+  public RespArray requestToRespArray() {
+    return request.getAsRespArray();
+  }
+
+  @Benchmark
+  public RespRequest requestFromRespArray() {
+    return RespRequest.createFromRespArray(requestArray);
+  }
+
+  @Benchmark
+  public RespArray responseToRespArray() {
+    return response.getAsRespArray();
+  }
+
+  @Benchmark
+  public RespResponse responseFromRespArray() {
+    return RespResponse.createFromRespArray(responseArray);
+  }
+}
@@ -0,0 +1,94 @@
+package dev.sbutler.bitflask.resp.network;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import dev.sbutler.bitflask.resp.types.RespBulkString;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import dev.sbutler.bitflask.resp.types.RespError;
+import dev.sbutler.bitflask.resp.types.RespInteger;
+import dev.sbutler.bitflask.resp.types.RespSimpleString;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing each {@link RespElement} type with a {@link RespReader} and encoding it with a
+ * {@link RespWriter}, using in-memory streams in place of a socket.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RespCodecBenchmark {
+
+  /** The RespElement parsed and encoded. */
+  public enum ElementType {
+    SIMPLE_STRING(() -> new RespSimpleString("OK")),
+    ERROR(() -> new RespError("Failed to process request")),
+    INTEGER(() -> new RespInteger(1_234_567)),
+    BULK_STRING(() -> new RespBulkString(ByteString.copyFromUtf8("v".repeat(100)))),
+    LARGE_BULK_STRING(() -> new RespBulkString(ByteString.copyFromUtf8("v".repeat(16 * 1024)))),
+    ARRAY(() -> new RespArray(ImmutableList.of(
+        new RespInteger(2),
+        new RespBulkString(ByteString.copyFromUtf8("key")),
+        new RespBulkString(ByteString.copyFromUtf8("v".repeat(100))))));
+
+    private final Supplier<RespElement> elementSupplier;
+
+    ElementType(Supplier<RespElement> elementSupplier) {
+      this.elementSupplier = elementSupplier;
+    }
+  }
+
+  @Param({"SIMPLE_STRING", "ERROR", "INTEGER", "BULK_STRING", "LARGE_BULK_STRING", "ARRAY"})
+  ElementType elementType;
+
+  private RespElement element;
+  private ByteArrayInputStream encodedInputStream;
+  private RespReader respReader;
+  private ByteArrayOutputStream outputStream;
+  private RespWriter respWriter;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    element = elementType.elementSupplier.get();
+    encodedInputStream = new ByteArrayInputStream(element.getEncodedBytes());
+    respReader = new RespReader(encodedInputStream);
+    outputStream = new ByteArrayOutputStream();
+    respWriter = new RespWriter(outputStream);
+  }
+
+  @Benchmark
+  public byte[] getEncodedBytes() {
+    return element.getEncodedBytes();
+  }
+
+  @Benchmark
+  public ByteArrayOutputStream write() throws Exception {
+    outputStream.reset();
+    respWriter.writeRespElement(element);
+    return outputStream;
+  }
+
+  @Benchmark
+  public RespElement read() throws Exception {
+    encodedInputStream.reset();
+    return respReader.readNextRespElement();
+  }
+}
@@ -0,0 +1,87 @@
+package dev.sbutler.bitflask.resp.network;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import java.io.BufferedInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures a full request and response exchange through the RESP codec as performed by a client
+ * and a server, using in-memory {@link Pipe}s in place of a socket.
+ *
+ * <p>The client writes a {@link RespRequest}, the server reads and converts it and writes a
+ * {@link RespResponse}, which the client then reads and converts. No storage work is performed, so
+ * only the protocol's cost is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class RespPipelineBenchmark {
+
+  @Param({"16", "1024"})
+  int valueBytes;
+
+  private Pipe clientToServer;
+  private Pipe serverToClient;
+  private RespWriter clientWriter;
+  private RespReader serverReader;
+  private RespWriter serverWriter;
+  private RespReader clientReader;
+  private RespRequest request;
+  private RespResponse response;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    clientToServer = Pipe.open();
+    serverToClient = Pipe.open();
+    clientWriter = new RespWriter(Channels.newOutputStream(clientToServer.sink()));
+    serverReader =
+        new RespReader(new BufferedInputStream(Channels.newInputStream(clientToServer.source())));
+    serverWriter = new RespWriter(Channels.newOutputStream(serverToClient.sink()));
+    clientReader =
+        new RespReader(new BufferedInputStream(Channels.newInputStream(serverToClient.source())));
+
+    ByteString value = ByteString.copyFromUtf8("v".repeat(valueBytes));
+    request = new RespRequest.SetRequest(ByteString.copyFromUtf8("key"), value);
+    response = new RespResponse.Success(value);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    clientToServer.sink().close();
+    clientToServer.source().close();
+    serverToClient.sink().close();
+    serverToClient.source().close();
+  }
+
+  @Benchmark
+  public RespResponse exchange(Blackhole blackhole) throws Exception {
+    clientWriter.writeRespElement(request.getAsRespArray());
+
+    blackhole.consume(
+        RespRequest.createFromRespArray(serverReader.readNextRespElement().getAsRespArray()));
+    serverWriter.writeRespElement(response.getAsRespArray());
+
+    return RespResponse.createFromRespArray(clientReader.readNextRespElement().getAsRespArray());
+  }
+}
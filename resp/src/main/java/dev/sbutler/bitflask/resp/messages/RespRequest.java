@@ -1,19 +1,32 @@
 package dev.sbutler.bitflask.resp.messages;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespElement;
 import dev.sbutler.bitflask.resp.types.RespInteger;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
-/** A request sent to a Bitflask server when using its RESP based API. */
+/**
+ * A request sent to a Bitflask server when using its RESP based API.
+ *
+ * <p>Keys and values are carried as raw bytes. The {@link String} constructors encode as UTF-8.
+ */
 public abstract sealed class RespRequest
     permits RespRequest.PingRequest,
         RespRequest.GetRequest,
         RespRequest.SetRequest,
-        RespRequest.DeleteRequest {
+        RespRequest.DeleteRequest,
+        RespRequest.MultiGetRequest,
+        RespRequest.IncrementByRequest,
+        RespRequest.AppendRequest,
+        RespRequest.InfoRequest,
+        RespRequest.SlowLogRequest {
 
   private final RespRequestCode requestCode;
 
@@ -41,6 +54,11 @@ public abstract sealed class RespRequest
         case GET -> new GetRequest(subElements);
         case SET -> new SetRequest(subElements);
         case DELETE -> new DeleteRequest(subElements);
+        case MGET -> new MultiGetRequest(subElements);
+        case INCRBY -> new IncrementByRequest(subElements);
+        case APPEND -> new AppendRequest(subElements);
+        case INFO -> new InfoRequest();
+        case SLOWLOG -> new SlowLogRequest(subElements);
       };
     } catch (Exception e) {
       throw new RespRequestConversionException(
@@ -84,18 +102,22 @@ public abstract sealed class RespRequest
   /** A request to get the value of the provided key. */
   public static final class GetRequest extends RespRequest {
 
-    private final String key;
+    private final ByteString key;
 
     public GetRequest(String key) {
+      this(ByteString.copyFromUtf8(key));
+    }
+
+    public GetRequest(ByteString key) {
       super(RespRequestCode.GET);
       this.key = key;
     }
 
     private GetRequest(List<RespElement> elements) {
-      this(elements.getFirst().getAsRespBulkString().toString());
+      this(elements.getFirst().getAsRespBulkString().getValueBytes());
     }
 
-    public String getKey() {
+    public ByteString getKey() {
       return key;
     }
 
@@ -120,39 +142,103 @@ public abstract sealed class RespRequest
     }
   }
 
-  /** A request to set the {@code key} to {@code value}. */
+  /**
+   * A request to set the {@code key} to {@code value}.
+   *
+   * <p>The mapping optionally expires after a number of seconds, which is sent in the {@code SET
+   * key value EX seconds} form.
+   */
   public static final class SetRequest extends RespRequest {
 
-    private final String key;
-    private final String value;
+    /** The option preceding the number of seconds after which the mapping expires. */
+    public static final String EXPIRY_SECONDS_OPTION = "EX";
+
+    /**
+     * The most seconds after which a mapping can expire, about 100 years, so that the absolute
+     * expiry resolved from it cannot overflow.
+     */
+    public static final long MAX_EXPIRY_SECONDS = 100L * 365 * 24 * 60 * 60;
+
+    private final ByteString key;
+    private final ByteString value;
+    private final Optional<Long> expirySeconds;
 
     public SetRequest(String key, String value) {
+      this(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    public SetRequest(ByteString key, ByteString value) {
+      this(key, value, Optional.empty());
+    }
+
+    public SetRequest(String key, String value, long expirySeconds) {
+      this(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value), expirySeconds);
+    }
+
+    public SetRequest(ByteString key, ByteString value, long expirySeconds) {
+      this(key, value, Optional.of(expirySeconds));
+    }
+
+    private SetRequest(ByteString key, ByteString value, Optional<Long> expirySeconds) {
       super(RespRequestCode.SET);
+      expirySeconds.ifPresent(
+          seconds ->
+              checkArgument(
+                  seconds > 0 && seconds <= MAX_EXPIRY_SECONDS,
+                  "Expiry seconds must be positive and at most [%s]. Provided [%s]",
+                  MAX_EXPIRY_SECONDS,
+                  seconds));
       this.key = key;
       this.value = value;
+      this.expirySeconds = expirySeconds;
     }
 
     private SetRequest(List<RespElement> elements) {
       this(
-          elements.get(0).getAsRespBulkString().toString(),
-          elements.get(1).getAsRespBulkString().toString());
+          elements.get(0).getAsRespBulkString().getValueBytes(),
+          elements.get(1).getAsRespBulkString().getValueBytes(),
+          parseExpirySeconds(elements.subList(2, elements.size())));
     }
 
-    public String getKey() {
+    private static Optional<Long> parseExpirySeconds(List<RespElement> options) {
+      if (options.isEmpty()) {
+        return Optional.empty();
+      }
+      checkArgument(
+          options.size() == 2
+              && EXPIRY_SECONDS_OPTION.equalsIgnoreCase(
+                  options.get(0).getAsRespBulkString().getValue()),
+          "Unrecognized SET options %s",
+          options);
+      return Optional.of(options.get(1).getAsRespInteger().getValue());
+    }
+
+    public ByteString getKey() {
       return key;
     }
 
-    public String getValue() {
+    public ByteString getValue() {
       return value;
     }
 
+    /** The number of seconds after which the mapping expires, if it should. */
+    public Optional<Long> getExpirySeconds() {
+      return expirySeconds;
+    }
+
     @Override
     public RespArray getAsRespArray() {
-      return new RespArray(
-          ImmutableList.of(
-              new RespInteger(getRequestCode().getValue()),
-              new RespBulkString(getKey()),
-              new RespBulkString(getValue())));
+      ImmutableList.Builder<RespElement> elements =
+          ImmutableList.<RespElement>builder()
+              .add(new RespInteger(getRequestCode().getValue()))
+              .add(new RespBulkString(getKey()))
+              .add(new RespBulkString(getValue()));
+      expirySeconds.ifPresent(
+          seconds ->
+              elements
+                  .add(new RespBulkString(EXPIRY_SECONDS_OPTION))
+                  .add(new RespInteger(seconds)));
+      return new RespArray(elements.build());
     }
 
     @Override
@@ -160,30 +246,36 @@ public abstract sealed class RespRequest
       if (this == o) return true;
       if (!(o instanceof SetRequest that)) return false;
       if (!super.equals(o)) return false;
-      return Objects.equals(key, that.key) && Objects.equals(value, that.value);
+      return Objects.equals(key, that.key)
+          && Objects.equals(value, that.value)
+          && Objects.equals(expirySeconds, that.expirySeconds);
     }
 
     @Override
     public int hashCode() {
-      return Objects.hash(super.hashCode(), key, value);
+      return Objects.hash(super.hashCode(), key, value, expirySeconds);
     }
   }
 
   /** A request to delete the {@code key} and its associated value. */
   public static final class DeleteRequest extends RespRequest {
 
-    private final String key;
+    private final ByteString key;
 
     public DeleteRequest(String key) {
+      this(ByteString.copyFromUtf8(key));
+    }
+
+    public DeleteRequest(ByteString key) {
       super(RespRequestCode.DELETE);
       this.key = key;
     }
 
     private DeleteRequest(List<RespElement> elements) {
-      this(elements.getFirst().getAsRespBulkString().toString());
+      this(elements.getFirst().getAsRespBulkString().getValueBytes());
     }
 
-    public String getKey() {
+    public ByteString getKey() {
       return key;
     }
 
@@ -207,4 +299,252 @@ public abstract sealed class RespRequest
       return Objects.hash(super.hashCode(), key);
     }
   }
+
+  /** A request to increment the {@code key}'s value, as a decimal integer, by {@code delta}. */
+  public static final class IncrementByRequest extends RespRequest {
+
+    private final ByteString key;
+    private final long delta;
+
+    public IncrementByRequest(String key, long delta) {
+      this(ByteString.copyFromUtf8(key), delta);
+    }
+
+    public IncrementByRequest(ByteString key, long delta) {
+      super(RespRequestCode.INCRBY);
+      this.key = key;
+      this.delta = delta;
+    }
+
+    private IncrementByRequest(List<RespElement> elements) {
+      this(
+          elements.get(0).getAsRespBulkString().getValueBytes(),
+          elements.get(1).getAsRespInteger().getValue());
+    }
+
+    public ByteString getKey() {
+      return key;
+    }
+
+    public long getDelta() {
+      return delta;
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      return new RespArray(
+          ImmutableList.of(
+              new RespInteger(getRequestCode().getValue()),
+              new RespBulkString(getKey()),
+              new RespInteger(getDelta())));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof IncrementByRequest that)) return false;
+      if (!super.equals(o)) return false;
+      return delta == that.delta && Objects.equals(key, that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), key, delta);
+    }
+  }
+
+  /** A request to append {@code value} to the value of the {@code key}. */
+  public static final class AppendRequest extends RespRequest {
+
+    private final ByteString key;
+    private final ByteString value;
+
+    public AppendRequest(String key, String value) {
+      this(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+    }
+
+    public AppendRequest(ByteString key, ByteString value) {
+      super(RespRequestCode.APPEND);
+      this.key = key;
+      this.value = value;
+    }
+
+    private AppendRequest(List<RespElement> elements) {
+      this(
+          elements.get(0).getAsRespBulkString().getValueBytes(),
+          elements.get(1).getAsRespBulkString().getValueBytes());
+    }
+
+    public ByteString getKey() {
+      return key;
+    }
+
+    public ByteString getValue() {
+      return value;
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      return new RespArray(
+          ImmutableList.of(
+              new RespInteger(getRequestCode().getValue()),
+              new RespBulkString(getKey()),
+              new RespBulkString(getValue())));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof AppendRequest that)) return false;
+      if (!super.equals(o)) return false;
+      return Objects.equals(key, that.key) && Objects.equals(value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), key, value);
+    }
+  }
+
+  /** A request to get the values of all the provided keys. */
+  public static final class MultiGetRequest extends RespRequest {
+
+    private final ImmutableList<ByteString> keys;
+
+    public MultiGetRequest(ImmutableList<ByteString> keys) {
+      super(RespRequestCode.MGET);
+      this.keys = keys;
+    }
+
+    private MultiGetRequest(List<RespElement> elements) {
+      this(
+          elements.stream()
+              .map(element -> element.getAsRespBulkString().getValueBytes())
+              .collect(ImmutableList.toImmutableList()));
+    }
+
+    public ImmutableList<ByteString> getKeys() {
+      return keys;
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      return new RespArray(
+          ImmutableList.<RespElement>builder()
+              .add(new RespInteger(getRequestCode().getValue()))
+              .addAll(keys.stream().map(RespBulkString::new).iterator())
+              .build());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof MultiGetRequest that)) return false;
+      if (!super.equals(o)) return false;
+      return Objects.equals(keys, that.keys);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), keys);
+    }
+  }
+
+  /** A request for the server's connection, latency, and storage statistics. */
+  public static final class InfoRequest extends RespRequest {
+
+    public InfoRequest() {
+      super(RespRequestCode.INFO);
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      return new RespArray(ImmutableList.of(new RespInteger(getRequestCode().getValue())));
+    }
+  }
+
+  /**
+   * A request to read or clear the server's log of slow requests.
+   *
+   * <p>Sent in the {@code SLOWLOG GET [count]}, {@code SLOWLOG LEN}, and {@code SLOWLOG RESET}
+   * forms.
+   */
+  public static final class SlowLogRequest extends RespRequest {
+
+    /** The operation to perform on the slow log. */
+    public enum Subcommand {
+      /** Gets the most recent entries, newest first. */
+      GET,
+      /** Gets the number of entries. */
+      LEN,
+      /** Removes all entries. */
+      RESET
+    }
+
+    private final Subcommand subcommand;
+    private final Optional<Long> count;
+
+    public SlowLogRequest(Subcommand subcommand) {
+      this(subcommand, Optional.empty());
+    }
+
+    /** Creates a request to get at most {@code count} of the most recent entries. */
+    public SlowLogRequest(long count) {
+      this(Subcommand.GET, Optional.of(count));
+    }
+
+    private SlowLogRequest(Subcommand subcommand, Optional<Long> count) {
+      super(RespRequestCode.SLOWLOG);
+      count.ifPresent(
+          value -> {
+            checkArgument(
+                subcommand == Subcommand.GET,
+                "A count can only be provided with GET. Provided [%s]",
+                subcommand);
+            checkArgument(value > 0, "Count must be positive. Provided [%s]", value);
+          });
+      this.subcommand = subcommand;
+      this.count = count;
+    }
+
+    private SlowLogRequest(List<RespElement> elements) {
+      this(
+          Subcommand.valueOf(elements.get(0).getAsRespBulkString().getValue()),
+          elements.size() > 1
+              ? Optional.of(elements.get(1).getAsRespInteger().getValue())
+              : Optional.empty());
+    }
+
+    public Subcommand getSubcommand() {
+      return subcommand;
+    }
+
+    /** The maximum number of entries to get, if limited. */
+    public Optional<Long> getCount() {
+      return count;
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      ImmutableList.Builder<RespElement> elements =
+          ImmutableList.<RespElement>builder()
+              .add(new RespInteger(getRequestCode().getValue()))
+              .add(new RespBulkString(subcommand.name()));
+      count.ifPresent(value -> elements.add(new RespInteger(value)));
+      return new RespArray(elements.build());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof SlowLogRequest that)) return false;
+      if (!super.equals(o)) return false;
+      return subcommand == that.subcommand && Objects.equals(count, that.count);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), subcommand, count);
+    }
+  }
 }
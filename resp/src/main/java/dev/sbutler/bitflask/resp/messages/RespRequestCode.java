@@ -5,7 +5,12 @@ public enum RespRequestCode {
   PING(0),
   GET(1),
   SET(2),
-  DELETE(3);
+  DELETE(3),
+  MGET(4),
+  INCRBY(5),
+  APPEND(6),
+  INFO(7),
+  SLOWLOG(8);
 
   private final int value;
 
@@ -23,6 +28,11 @@ public enum RespRequestCode {
       case 1 -> RespRequestCode.GET;
       case 2 -> RespRequestCode.SET;
       case 3 -> RespRequestCode.DELETE;
+      case 4 -> RespRequestCode.MGET;
+      case 5 -> RespRequestCode.INCRBY;
+      case 6 -> RespRequestCode.APPEND;
+      case 7 -> RespRequestCode.INFO;
+      case 8 -> RespRequestCode.SLOWLOG;
       default -> throw new IllegalArgumentException(
           String.format("No RespRequestCode exists for value [%d].", value));
     };
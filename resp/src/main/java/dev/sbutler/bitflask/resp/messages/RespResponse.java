@@ -1,24 +1,31 @@
 package dev.sbutler.bitflask.resp.messages;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespElement;
 import dev.sbutler.bitflask.resp.types.RespInteger;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /** A response sent by a Bitflask server when using its RESP based API. */
 public abstract sealed class RespResponse
     permits RespResponse.Failure,
+        RespResponse.MultiSuccess,
         RespResponse.NoKnownLeader,
         RespResponse.NotCurrentLeader,
         RespResponse.Success {
 
   private final RespResponseCode responseCode;
-  private final String message;
+  private final ByteString message;
 
   private RespResponse(RespResponseCode responseCode, String message) {
+    this(responseCode, ByteString.copyFromUtf8(message));
+  }
+
+  private RespResponse(RespResponseCode responseCode, ByteString message) {
     this.responseCode = responseCode;
     this.message = message;
   }
@@ -34,13 +41,14 @@ public abstract sealed class RespResponse
       List<RespElement> elements = respArray.getValue();
       RespResponseCode statusCode =
           RespResponseCode.fromValue((int) elements.get(0).getAsRespInteger().getValue());
-      String message = elements.get(1).getAsRespBulkString().getValue();
+      ByteString message = elements.get(1).getAsRespBulkString().getValueBytes();
       List<RespElement> subElements = elements.subList(2, elements.size());
       return switch (statusCode) {
         case SUCCESS -> new Success(message);
-        case FAILURE -> new Failure(message);
-        case NOT_CURRENT_LEADER -> new NotCurrentLeader(message, subElements);
-        case NO_KNOWN_LEADER -> new NoKnownLeader(message);
+        case FAILURE -> new Failure(message.toStringUtf8());
+        case NOT_CURRENT_LEADER -> new NotCurrentLeader(message.toStringUtf8(), subElements);
+        case NO_KNOWN_LEADER -> new NoKnownLeader(message.toStringUtf8());
+        case MULTI_SUCCESS -> new MultiSuccess(message, subElements);
       };
     } catch (Exception e) {
       throw new RespResponseConversionException(
@@ -53,8 +61,17 @@ public abstract sealed class RespResponse
     return responseCode;
   }
 
-  /** A message from the server whose meaning various based on the type of response. */
+  /**
+   * A message from the server whose meaning various based on the type of response.
+   *
+   * <p>The message is decoded as UTF-8. Use {@link #getMessageBytes()} for binary values.
+   */
   public String getMessage() {
+    return message.toStringUtf8();
+  }
+
+  /** The raw bytes of the message from the server. */
+  public ByteString getMessageBytes() {
     return message;
   }
 
@@ -62,7 +79,7 @@ public abstract sealed class RespResponse
   public RespArray getAsRespArray() {
     return new RespArray(
         ImmutableList.of(
-            new RespInteger(getResponseCode().getValue()), new RespBulkString(getMessage())));
+            new RespInteger(getResponseCode().getValue()), new RespBulkString(getMessageBytes())));
   }
 
   @Override
@@ -82,6 +99,61 @@ public abstract sealed class RespResponse
     public Success(String message) {
       super(RespResponseCode.SUCCESS, message);
     }
+
+    public Success(ByteString message) {
+      super(RespResponseCode.SUCCESS, message);
+    }
+  }
+
+  /**
+   * Indicates the Bitflask server successfully processed a multi-key request.
+   *
+   * <p>The values are in the order of the requested keys. Keys without a value are empty and are
+   * sent as null bulk strings.
+   */
+  public static final class MultiSuccess extends RespResponse {
+
+    private final ImmutableList<Optional<ByteString>> values;
+
+    public MultiSuccess(ImmutableList<Optional<ByteString>> values) {
+      super(RespResponseCode.MULTI_SUCCESS, "OK");
+      this.values = values;
+    }
+
+    private MultiSuccess(ByteString message, List<RespElement> elements) {
+      super(RespResponseCode.MULTI_SUCCESS, message);
+      this.values =
+          elements.stream()
+              .map(element -> Optional.ofNullable(element.getAsRespBulkString().getValueBytes()))
+              .collect(ImmutableList.toImmutableList());
+    }
+
+    /** The values of the requested keys, in order. */
+    public ImmutableList<Optional<ByteString>> getValues() {
+      return values;
+    }
+
+    @Override
+    public RespArray getAsRespArray() {
+      List<RespElement> baseElements = super.getAsRespArray().getValue();
+      ImmutableList.Builder<RespElement> elements =
+          ImmutableList.<RespElement>builder().addAll(baseElements);
+      values.forEach(value -> elements.add(new RespBulkString(value.orElse(null))));
+      return new RespArray(elements.build());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof MultiSuccess that)) return false;
+      if (!super.equals(o)) return false;
+      return Objects.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(super.hashCode(), values);
+    }
   }
 
   /** Indicates the Bitflask failed to process the request. */
@@ -5,7 +5,8 @@ public enum RespResponseCode {
   SUCCESS(0),
   FAILURE(1),
   NOT_CURRENT_LEADER(2),
-  NO_KNOWN_LEADER(3);
+  NO_KNOWN_LEADER(3),
+  MULTI_SUCCESS(4);
 
   private final int value;
 
@@ -23,6 +24,7 @@ public enum RespResponseCode {
       case 1 -> RespResponseCode.FAILURE;
       case 2 -> RespResponseCode.NOT_CURRENT_LEADER;
       case 3 -> RespResponseCode.NO_KNOWN_LEADER;
+      case 4 -> RespResponseCode.MULTI_SUCCESS;
       default -> throw new IllegalArgumentException(
           String.format("No RespResponseCode exists for value [%d].", value));
     };
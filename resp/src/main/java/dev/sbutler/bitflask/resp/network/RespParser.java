@@ -0,0 +1,293 @@
+package dev.sbutler.bitflask.resp.network;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import dev.sbutler.bitflask.resp.types.RespBulkString;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import dev.sbutler.bitflask.resp.types.RespError;
+import dev.sbutler.bitflask.resp.types.RespInteger;
+import dev.sbutler.bitflask.resp.types.RespSimpleString;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An incremental parser of {@link RespElement}s from bytes held in {@link ByteBuffer}s.
+ *
+ * <p>Bytes are consumed as they are provided, including those of a partial element, whose parsing
+ * state is retained until the rest of its bytes are provided in a later call. This allows elements
+ * to be parsed from non-blocking channels without re-scanning or retaining the partial element's
+ * bytes.
+ *
+ * <p>Integers and lengths are parsed directly from their digits and bulk strings are read by their
+ * declared byte length, so their values may contain arbitrary binary data, including CR and LF.
+ *
+ * <p>This class is not thread-safe. After a {@link ProtocolException} is thrown the parser's state
+ * is undefined and it should no longer be used.
+ */
+public final class RespParser {
+
+  /**
+   * The maximum length of a bulk string, matching the maximum length of a value held by storage.
+   *
+   * <p>Longer bulk strings could never be stored, so they are rejected from their declared length
+   * before any of their bytes are buffered.
+   */
+  public static final int MAX_BULK_STRING_LENGTH = 64 * 1024 * 1024;
+
+  /** The maximum number of items in an array, matching Redis' limit on a request's arguments. */
+  public static final int MAX_ARRAY_LENGTH = 1024 * 1024;
+
+  /** The maximum number of arrays an element may be nested within. */
+  public static final int MAX_NESTING_DEPTH = 32;
+
+  /** The maximum length of a simple string or error. */
+  public static final int MAX_LINE_LENGTH = 64 * 1024;
+
+  /** The most bytes allocated for a bulk string's value before its bytes are received. */
+  private static final int INITIAL_BULK_STRING_CAPACITY = 16 * 1024;
+
+  private enum State {
+    TYPE,
+    LINE,
+    LINE_LF,
+    NUMBER,
+    NUMBER_LF,
+    BULK_STRING_VALUE,
+    BULK_STRING_CR,
+    BULK_STRING_LF
+  }
+
+  /** An array whose items are still being parsed. */
+  private record PartialArray(long size, List<RespElement> items) {}
+
+  private final ArrayDeque<PartialArray> partialArrays = new ArrayDeque<>();
+
+  private State state = State.TYPE;
+  private byte type;
+
+  private byte[] line = new byte[0];
+  private int lineLength;
+
+  private boolean numberNegative;
+  private long number;
+  private int numDigits;
+
+  private byte[] bulkStringValue;
+  private int bulkStringLength;
+  private int bulkStringRead;
+
+  /**
+   * Parses the next RespElement from the buffer's remaining bytes.
+   *
+   * <p>The buffer's position is advanced past the consumed bytes. If an element is completed,
+   * parsing stops and any bytes following it are left in the buffer. Otherwise, all the remaining
+   * bytes are consumed and empty is returned.
+   *
+   * @throws ProtocolException if the data is malformed
+   */
+  public Optional<RespElement> parse(ByteBuffer buffer) throws ProtocolException {
+    RespElement element;
+    while ((element = parseElement(buffer)) != null) {
+      // Complete any arrays the element was the final item of
+      while (!partialArrays.isEmpty()) {
+        PartialArray partialArray = partialArrays.peek();
+        partialArray.items().add(element);
+        if (partialArray.items().size() < partialArray.size()) {
+          element = null;
+          break;
+        }
+        partialArrays.pop();
+        element = new RespArray(partialArray.items());
+      }
+      if (element != null) {
+        return Optional.of(element);
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Parses the next element that is not a non-empty array, returning it or null if the buffer is
+   * exhausted first. Non-empty arrays are pushed as partial arrays to be completed by their items.
+   */
+  private RespElement parseElement(ByteBuffer buffer) throws ProtocolException {
+    while (buffer.hasRemaining()) {
+      switch (state) {
+        case TYPE -> startElement(buffer.get());
+        case LINE -> readLine(buffer);
+        case LINE_LF -> {
+          expect(buffer.get(), RespElement.LF, "RespElement line not terminated by CRLF");
+          state = State.TYPE;
+          String value = new String(line, 0, lineLength, RespElement.ENCODED_CHARSET);
+          return type == RespSimpleString.TYPE_PREFIX
+              ? new RespSimpleString(value)
+              : new RespError(value);
+        }
+        case NUMBER -> readNumber(buffer.get());
+        case NUMBER_LF -> {
+          expect(buffer.get(), RespElement.LF, "RespElement number not terminated by CRLF");
+          RespElement element = completeNumber();
+          if (element != null) {
+            return element;
+          }
+        }
+        case BULK_STRING_VALUE -> readBulkStringValue(buffer);
+        case BULK_STRING_CR -> {
+          expect(
+              buffer.get(),
+              RespElement.CR,
+              "RespBulkString value length didn't match provided length");
+          state = State.BULK_STRING_LF;
+        }
+        case BULK_STRING_LF -> {
+          expect(
+              buffer.get(),
+              RespElement.LF,
+              "RespBulkString value length didn't match provided length");
+          state = State.TYPE;
+          byte[] value =
+              bulkStringValue.length == bulkStringLength
+                  ? bulkStringValue
+                  : Arrays.copyOf(bulkStringValue, bulkStringLength);
+          bulkStringValue = null;
+          // The value array is never modified once read, so it can be shared without copying
+          return new RespBulkString(UnsafeByteOperations.unsafeWrap(value));
+        }
+      }
+    }
+    return null;
+  }
+
+  private void startElement(byte code) throws ProtocolException {
+    type = code;
+    switch (code) {
+      case RespSimpleString.TYPE_PREFIX, RespError.TYPE_PREFIX -> {
+        lineLength = 0;
+        state = State.LINE;
+      }
+      case RespInteger.TYPE_PREFIX, RespBulkString.TYPE_PREFIX, RespArray.TYPE_PREFIX -> {
+        numberNegative = false;
+        number = 0;
+        numDigits = 0;
+        state = State.NUMBER;
+      }
+      default -> throw new ProtocolException("RespElement code not recognized");
+    }
+  }
+
+  private void readLine(ByteBuffer buffer) throws ProtocolException {
+    while (buffer.hasRemaining()) {
+      byte b = buffer.get();
+      if (b == RespElement.CR) {
+        state = State.LINE_LF;
+        return;
+      }
+      if (lineLength == line.length) {
+        if (lineLength == MAX_LINE_LENGTH) {
+          throw new ProtocolException("RespElement line exceeded the maximum length");
+        }
+        line = Arrays.copyOf(line, Math.min(Math.max(64, lineLength * 2), MAX_LINE_LENGTH));
+      }
+      line[lineLength++] = b;
+    }
+  }
+
+  private void readNumber(byte b) throws ProtocolException {
+    if (b == RespElement.CR) {
+      if (numDigits == 0) {
+        throw new ProtocolException("RespElement number had no digits");
+      }
+      state = State.NUMBER_LF;
+    } else if (b == '-' && numDigits == 0 && !numberNegative) {
+      numberNegative = true;
+    } else if (b >= '0' && b <= '9') {
+      int digit = b - '0';
+      if (number > (Long.MAX_VALUE - digit) / 10) {
+        throw new ProtocolException("RespElement number out of range");
+      }
+      number = number * 10 + digit;
+      numDigits++;
+    } else {
+      throw new ProtocolException("RespElement number was malformed");
+    }
+  }
+
+  /**
+   * Completes the element whose number was parsed, returning it or null if its value or items
+   * must still be parsed.
+   */
+  private RespElement completeNumber() throws ProtocolException {
+    long value = numberNegative ? -number : number;
+    state = State.TYPE;
+    return switch (type) {
+      case RespInteger.TYPE_PREFIX -> new RespInteger(value);
+      case RespBulkString.TYPE_PREFIX -> startBulkString(value);
+      default -> startArray(value);
+    };
+  }
+
+  private RespElement startBulkString(long length) throws ProtocolException {
+    if (length == RespBulkString.NULL_STRING_LENGTH) {
+      return new RespBulkString((ByteString) null);
+    }
+    if (length < 0) {
+      throw new ProtocolException("RespBulkString length was negative");
+    }
+    if (length > MAX_BULK_STRING_LENGTH) {
+      throw new ProtocolException("RespBulkString length exceeded the maximum length");
+    }
+    bulkStringLength = (int) length;
+    bulkStringRead = 0;
+    // Grown as the value is received so a large declared length alone does not allocate memory
+    bulkStringValue = new byte[Math.min(bulkStringLength, INITIAL_BULK_STRING_CAPACITY)];
+    state = bulkStringLength == 0 ? State.BULK_STRING_CR : State.BULK_STRING_VALUE;
+    return null;
+  }
+
+  private void readBulkStringValue(ByteBuffer buffer) {
+    int numBytes = Math.min(buffer.remaining(), bulkStringLength - bulkStringRead);
+    if (bulkStringRead + numBytes > bulkStringValue.length) {
+      long grownCapacity = Math.max(2L * bulkStringValue.length, bulkStringRead + numBytes);
+      int capacity = (int) Math.min(bulkStringLength, grownCapacity);
+      bulkStringValue = Arrays.copyOf(bulkStringValue, capacity);
+    }
+    buffer.get(bulkStringValue, bulkStringRead, numBytes);
+    bulkStringRead += numBytes;
+    if (bulkStringRead == bulkStringLength) {
+      state = State.BULK_STRING_CR;
+    }
+  }
+
+  private RespElement startArray(long size) throws ProtocolException {
+    if (size == RespArray.NULL_ARRAY_LENGTH) {
+      return new RespArray(null);
+    }
+    if (size < 0) {
+      throw new ProtocolException("RespArray length was negative");
+    }
+    if (size > MAX_ARRAY_LENGTH) {
+      throw new ProtocolException("RespArray length exceeded the maximum length");
+    }
+    if (size == 0) {
+      return new RespArray(new ArrayList<>());
+    }
+    if (partialArrays.size() == MAX_NESTING_DEPTH) {
+      throw new ProtocolException("RespArray nesting exceeded the maximum depth");
+    }
+    partialArrays.push(new PartialArray(size, new ArrayList<>()));
+    return null;
+  }
+
+  private static void expect(byte actual, char expected, String message)
+      throws ProtocolException {
+    if (actual != expected) {
+      throw new ProtocolException(message);
+    }
+  }
+}
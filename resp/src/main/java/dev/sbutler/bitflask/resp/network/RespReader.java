@@ -1,31 +1,35 @@
 package dev.sbutler.bitflask.resp.network;
 
-import dev.sbutler.bitflask.resp.types.RespArray;
-import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespElement;
-import dev.sbutler.bitflask.resp.types.RespError;
-import dev.sbutler.bitflask.resp.types.RespInteger;
-import dev.sbutler.bitflask.resp.types.RespSimpleString;
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.Reader;
+import java.io.InputStream;
 import java.net.ProtocolException;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Optional;
 
 /**
- * Handles reading RESP data types from an underlying {@link java.io.InputStream} via a
- * {@link Reader}.
+ * Handles reading RESP data types from an underlying {@link InputStream}.
  *
- * <p>This class does not handle lifecycle management of the provided Reader, such as
+ * <p>Data is read from the InputStream in chunks and parsed by a {@link RespParser}, so bulk
+ * strings are read as raw bytes using their declared length and their values may contain
+ * arbitrary binary data, including CR and LF. Bytes read beyond the returned RespElement are
+ * retained for the following read, so the InputStream should not be read from elsewhere.
+ *
+ * <p>This class does not handle lifecycle management of the provided InputStream, such as
  * closing it.
  */
 final class RespReader {
 
-  private final Reader reader;
+  static final int READ_BUFFER_BYTES = 8 * 1024;
+
+  private final InputStream inputStream;
+  private final RespParser respParser = new RespParser();
+  /** Bytes read but not yet parsed, in read mode. */
+  private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_BYTES).flip();
 
-  public RespReader(Reader reader) {
-    this.reader = reader;
+  public RespReader(InputStream inputStream) {
+    this.inputStream = inputStream;
   }
 
   /**
@@ -37,92 +41,18 @@ final class RespReader {
    * @throws IOException       if a general failure occurs while reading
    */
   public RespElement readNextRespElement() throws IOException {
-    int code = reader.read();
-    if (code == -1) {
-      // TODO: consider wrapping result with optional
-      throw new EOFException("Could not parse next RespElement");
-    }
-    return switch (code) {
-      case RespSimpleString.TYPE_PREFIX -> readRespSimpleString();
-      case RespBulkString.TYPE_PREFIX -> readRespBulkString();
-      case RespInteger.TYPE_PREFIX -> readRespInteger();
-      case RespError.TYPE_PREFIX -> readRespError();
-      case RespArray.TYPE_PREFIX -> readRespArray();
-      default -> throw new ProtocolException("RespElement code not recognized");
-    };
-  }
-
-  private RespSimpleString readRespSimpleString()
-      throws IOException {
-    String value = readLine();
-    return new RespSimpleString(value);
-  }
-
-  private RespBulkString readRespBulkString()
-      throws IOException {
-    int length = Integer.parseInt(readLine());
-    if (length == RespBulkString.NULL_STRING_LENGTH) {
-      return new RespBulkString(null);
-    }
-    String readValue = readLine();
-    if (readValue.length() != length) {
-      throw new ProtocolException("RespBulkString value length didn't match provided length");
-    }
-    return new RespBulkString(readValue);
-  }
-
-  private RespInteger readRespInteger() throws IOException {
-    int value = Integer.parseInt(readLine());
-    return new RespInteger(value);
-  }
-
-  private RespError readRespError() throws IOException {
-    String value = readLine();
-    return new RespError(value);
-  }
-
-  private RespArray readRespArray() throws IOException {
-    int numItems = Integer.parseInt(readLine());
-    if (numItems == RespArray.NULL_ARRAY_LENGTH) {
-      return new RespArray(null);
-    }
-    List<RespElement> respArrayValues = new ArrayList<>();
-    for (int i = 0; i < numItems; i++) {
-      respArrayValues.add(readNextRespElement());
-    }
-    return new RespArray(respArrayValues);
-  }
-
-  /**
-   * Reads a line terminated with CRLF.
-   *
-   * <p>Other line terminators will be read like normal. Reaching EOF will also be considered
-   * terminating the read line
-   */
-  private String readLine() throws IOException {
-    StringBuilder builder = new StringBuilder();
-    int read;
-    boolean crLastRead = false;
-    while ((read = reader.read()) != -1) {
-      char c = (char) read;
-      if (crLastRead) {
-        if (c == '\n') {
-          // EOL
-          break;
-        }
-        // Add skipped CR since not EOL
-        builder.append('\r');
-        // Another CR NOT found, can add like normal
-        if (c != '\r') {
-          builder.append(c);
-          crLastRead = false;
-        }
-      } else if (c == '\r') {
-        crLastRead = true;
-      } else {
-        builder.append(c);
+    while (true) {
+      Optional<RespElement> respElement = respParser.parse(readBuffer);
+      if (respElement.isPresent()) {
+        return respElement.get();
+      }
+      // The parser consumes all remaining bytes when an element is incomplete
+      int numRead = inputStream.read(readBuffer.array(), 0, readBuffer.capacity());
+      if (numRead == -1) {
+        // TODO: consider wrapping result with optional
+        throw new EOFException("Could not parse next RespElement");
       }
+      readBuffer.limit(numRead).position(0);
     }
-    return builder.toString();
   }
 }
@@ -2,8 +2,6 @@ package dev.sbutler.bitflask.resp.network;
 
 import dev.sbutler.bitflask.resp.types.RespElement;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.nio.channels.SocketChannel;
 
 /**
@@ -25,8 +23,7 @@ public final class RespService implements AutoCloseable {
   }
 
   public static RespService create(SocketChannel socketChannel) throws IOException {
-    Reader socketReader = new InputStreamReader(socketChannel.socket().getInputStream());
-    RespReader respReader = new RespReader(socketReader);
+    RespReader respReader = new RespReader(socketChannel.socket().getInputStream());
     RespWriter respWriter = new RespWriter(socketChannel.socket().getOutputStream());
     return new RespService(socketChannel, respReader, respWriter);
   }
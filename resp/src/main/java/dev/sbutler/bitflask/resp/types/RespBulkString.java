@@ -1,19 +1,40 @@
 package dev.sbutler.bitflask.resp.types;
 
+import com.google.protobuf.ByteString;
 import java.util.Objects;
 
+/**
+ * A binary-safe RESP string.
+ *
+ * <p>The value is held as raw bytes so that arbitrary binary data can be transported unchanged.
+ * {@link #getValue()} decodes the bytes as UTF-8 for callers working with text.
+ */
 public final class RespBulkString extends RespElement {
 
   public static final char TYPE_PREFIX = '$';
   public static final long NULL_STRING_LENGTH = -1;
 
-  private final String value;
+  private final ByteString value;
 
   public RespBulkString(String value) {
+    this.value = value == null ? null : ByteString.copyFromUtf8(value);
+  }
+
+  public RespBulkString(ByteString value) {
     this.value = value;
   }
 
+  /**
+   * Returns the value decoded as UTF-8, or null if this is a null bulk string.
+   */
   public String getValue() {
+    return value == null ? null : value.toStringUtf8();
+  }
+
+  /**
+   * Returns the raw value bytes, or null if this is a null bulk string.
+   */
+  public ByteString getValueBytes() {
     return value;
   }
 
@@ -29,23 +50,21 @@ public final class RespBulkString extends RespElement {
   }
 
   private byte[] convertNonNullValueToBytes() {
-    byte[] valueBytes = value.getBytes(ENCODED_CHARSET);
-    byte[] valueLengthBytes = String.valueOf(value.length()).getBytes(ENCODED_CHARSET);
-    int encodedValueBytesNeededLength = 2 + valueLengthBytes.length + value.length();
+    byte[] valueLengthBytes = String.valueOf(value.size()).getBytes(ENCODED_CHARSET);
+    int encodedValueBytesNeededLength = 2 + valueLengthBytes.length + value.size();
 
     byte[] encodedValueBytes = new byte[encodedValueBytesNeededLength];
     System.arraycopy(valueLengthBytes, 0, encodedValueBytes, 0, valueLengthBytes.length);
     encodedValueBytes[valueLengthBytes.length] = CR;
     encodedValueBytes[valueLengthBytes.length + 1] = LF;
-    System.arraycopy(valueBytes, 0, encodedValueBytes, valueLengthBytes.length + 2,
-        valueBytes.length);
+    value.copyTo(encodedValueBytes, valueLengthBytes.length + 2);
 
     return encodedValueBytes;
   }
 
   @Override
   public String toString() {
-    return value;
+    return getValue();
   }
 
   @Override
@@ -57,11 +76,11 @@ public final class RespBulkString extends RespElement {
       return false;
     }
     RespBulkString that = (RespBulkString) o;
-    return Objects.equals(getValue(), that.getValue());
+    return Objects.equals(value, that.value);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(getValue());
+    return Objects.hash(value);
   }
 }
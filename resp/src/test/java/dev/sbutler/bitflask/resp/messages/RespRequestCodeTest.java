@@ -26,4 +26,19 @@ public class RespRequestCodeTest {
   public void fromValue_delete() {
     assertThat(RespRequestCode.fromValue(3)).isEqualTo(RespRequestCode.DELETE);
   }
+
+  @Test
+  public void fromValue_mget() {
+    assertThat(RespRequestCode.fromValue(4)).isEqualTo(RespRequestCode.MGET);
+  }
+
+  @Test
+  public void fromValue_info() {
+    assertThat(RespRequestCode.fromValue(7)).isEqualTo(RespRequestCode.INFO);
+  }
+
+  @Test
+  public void fromValue_slowLog() {
+    assertThat(RespRequestCode.fromValue(8)).isEqualTo(RespRequestCode.SLOWLOG);
+  }
 }
@@ -4,11 +4,13 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespElement;
 import dev.sbutler.bitflask.resp.types.RespInteger;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link RespRequest}. */
@@ -23,6 +25,33 @@ public class RespRequestTest {
     assertThat(createdRequest).isEqualTo(request);
   }
 
+  @Test
+  public void createFromRespArray_info_identity() {
+    var request = new RespRequest.InfoRequest();
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
+  @Test
+  public void createFromRespArray_slowLog_identity() {
+    var request = new RespRequest.SlowLogRequest(RespRequest.SlowLogRequest.Subcommand.LEN);
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
+  @Test
+  public void createFromRespArray_slowLogWithCount_identity() {
+    var request = new RespRequest.SlowLogRequest(10L);
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
   @Test
   public void createFromRespArray_get_identity() {
     var request = new RespRequest.GetRequest("key");
@@ -41,6 +70,51 @@ public class RespRequestTest {
     assertThat(createdRequest).isEqualTo(request);
   }
 
+  @Test
+  public void createFromRespArray_setWithExpiry_identity() {
+    var request = new RespRequest.SetRequest("key", "value", 10L);
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
+  @Test
+  public void createFromRespArray_setExpiryTooLarge_throwsRespRequestConversionException() {
+    var array =
+        new RespArray(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.SET.getValue()),
+                new RespBulkString("key"),
+                new RespBulkString("value"),
+                new RespBulkString("EX"),
+                new RespInteger(Long.MAX_VALUE)));
+
+    RespRequestConversionException exception =
+        assertThrows(
+            RespRequestConversionException.class, () -> RespRequest.createFromRespArray(array));
+
+    assertThat(exception).hasCauseThat().isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void createFromRespArray_setUnrecognizedOption_throwsRespRequestConversionException() {
+    var array =
+        new RespArray(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.SET.getValue()),
+                new RespBulkString("key"),
+                new RespBulkString("value"),
+                new RespBulkString("PX"),
+                new RespInteger(10)));
+
+    RespRequestConversionException exception =
+        assertThrows(
+            RespRequestConversionException.class, () -> RespRequest.createFromRespArray(array));
+
+    assertThat(exception).hasCauseThat().isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   public void createFromRespArray_delete_identity() {
     var request = new RespRequest.DeleteRequest("key");
@@ -50,6 +124,35 @@ public class RespRequestTest {
     assertThat(createdRequest).isEqualTo(request);
   }
 
+  @Test
+  public void createFromRespArray_incrementBy_identity() {
+    var request = new RespRequest.IncrementByRequest("key", -5);
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
+  @Test
+  public void createFromRespArray_append_identity() {
+    var request = new RespRequest.AppendRequest("key", "value");
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
+  @Test
+  public void createFromRespArray_multiGet_identity() {
+    var request =
+        new RespRequest.MultiGetRequest(
+            ImmutableList.of(ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("key1")));
+
+    var createdRequest = RespRequest.createFromRespArray(request.getAsRespArray());
+
+    assertThat(createdRequest).isEqualTo(request);
+  }
+
   @Test
   public void createFromRespArray_emptyRespArray_throwsRespRequestConversionException() {
     var array = new RespArray(ImmutableList.of());
@@ -76,6 +179,51 @@ public class RespRequestTest {
             ImmutableList.of(new RespInteger(RespRequestCode.PING.getValue())));
   }
 
+  @Test
+  public void info() {
+    var request = new RespRequest.InfoRequest();
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.INFO);
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(new RespInteger(RespRequestCode.INFO.getValue())));
+  }
+
+  @Test
+  public void slowLog() {
+    var request = new RespRequest.SlowLogRequest(10L);
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.SLOWLOG);
+    assertThat(request.getSubcommand()).isEqualTo(RespRequest.SlowLogRequest.Subcommand.GET);
+    assertThat(request.getCount()).isEqualTo(Optional.of(10L));
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.SLOWLOG.getValue()),
+                new RespBulkString("GET"),
+                new RespInteger(10)));
+  }
+
+  @Test
+  public void createFromRespArray_slowLogCountWithoutGet_throwsRespRequestConversionException() {
+    RespRequestConversionException exception =
+        assertThrows(
+            RespRequestConversionException.class,
+            () ->
+                RespRequest.createFromRespArray(
+                    new RespArray(
+                        ImmutableList.of(
+                            new RespInteger(RespRequestCode.SLOWLOG.getValue()),
+                            new RespBulkString("RESET"),
+                            new RespInteger(10)))));
+
+    assertThat(exception).hasCauseThat().isInstanceOf(IllegalArgumentException.class);
+  }
+
   @Test
   public void get() {
     var request = new RespRequest.GetRequest("key");
@@ -83,7 +231,7 @@ public class RespRequestTest {
     List<RespElement> elements = request.getAsRespArray().getValue();
 
     assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.GET);
-    assertThat(request.getKey()).isEqualTo("key");
+    assertThat(request.getKey()).isEqualTo(ByteString.copyFromUtf8("key"));
     assertThat(elements)
         .containsExactlyElementsIn(
             ImmutableList.of(
@@ -97,8 +245,8 @@ public class RespRequestTest {
     List<RespElement> elements = request.getAsRespArray().getValue();
 
     assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.SET);
-    assertThat(request.getKey()).isEqualTo("key");
-    assertThat(request.getValue()).isEqualTo("value");
+    assertThat(request.getKey()).isEqualTo(ByteString.copyFromUtf8("key"));
+    assertThat(request.getValue()).isEqualTo(ByteString.copyFromUtf8("value"));
     assertThat(elements)
         .containsExactlyElementsIn(
             ImmutableList.of(
@@ -107,6 +255,47 @@ public class RespRequestTest {
                 new RespBulkString("value")));
   }
 
+  @Test
+  public void setWithExpiry() {
+    var request = new RespRequest.SetRequest("key", "value", 10L);
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getExpirySeconds()).isEqualTo(Optional.of(10L));
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.SET.getValue()),
+                new RespBulkString("key"),
+                new RespBulkString("value"),
+                new RespBulkString("EX"),
+                new RespInteger(10)));
+  }
+
+  @Test
+  public void setWithExpiry_nonPositive_throwsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class, () -> new RespRequest.SetRequest("key", "value", 0L));
+  }
+
+  @Test
+  public void setWithExpiry_tooLarge_throwsIllegalArgumentException() {
+    long expirySeconds = RespRequest.SetRequest.MAX_EXPIRY_SECONDS + 1;
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new RespRequest.SetRequest("key", "value", expirySeconds));
+  }
+
+  @Test
+  public void setWithExpiry_maximum_accepted() {
+    var request =
+        new RespRequest.SetRequest("key", "value", RespRequest.SetRequest.MAX_EXPIRY_SECONDS);
+
+    assertThat(request.getExpirySeconds())
+        .isEqualTo(Optional.of(RespRequest.SetRequest.MAX_EXPIRY_SECONDS));
+  }
+
   @Test
   public void delete() {
     var request = new RespRequest.DeleteRequest("key");
@@ -114,10 +303,65 @@ public class RespRequestTest {
     List<RespElement> elements = request.getAsRespArray().getValue();
 
     assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.DELETE);
-    assertThat(request.getKey()).isEqualTo("key");
+    assertThat(request.getKey()).isEqualTo(ByteString.copyFromUtf8("key"));
     assertThat(elements)
         .containsExactlyElementsIn(
             ImmutableList.of(
                 new RespInteger(RespRequestCode.DELETE.getValue()), new RespBulkString("key")));
   }
+
+  @Test
+  public void incrementBy() {
+    var request = new RespRequest.IncrementByRequest("key", -5);
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.INCRBY);
+    assertThat(request.getKey()).isEqualTo(ByteString.copyFromUtf8("key"));
+    assertThat(request.getDelta()).isEqualTo(-5);
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.INCRBY.getValue()),
+                new RespBulkString("key"),
+                new RespInteger(-5)))
+        .inOrder();
+  }
+
+  @Test
+  public void append() {
+    var request = new RespRequest.AppendRequest("key", "value");
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.APPEND);
+    assertThat(request.getKey()).isEqualTo(ByteString.copyFromUtf8("key"));
+    assertThat(request.getValue()).isEqualTo(ByteString.copyFromUtf8("value"));
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.APPEND.getValue()),
+                new RespBulkString("key"),
+                new RespBulkString("value")))
+        .inOrder();
+  }
+
+  @Test
+  public void multiGet() {
+    ImmutableList<ByteString> keys =
+        ImmutableList.of(ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("key1"));
+    var request = new RespRequest.MultiGetRequest(keys);
+
+    List<RespElement> elements = request.getAsRespArray().getValue();
+
+    assertThat(request.getRequestCode()).isEqualTo(RespRequestCode.MGET);
+    assertThat(request.getKeys()).isEqualTo(keys);
+    assertThat(elements)
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.MGET.getValue()),
+                new RespBulkString("key0"),
+                new RespBulkString("key1")))
+        .inOrder();
+  }
 }
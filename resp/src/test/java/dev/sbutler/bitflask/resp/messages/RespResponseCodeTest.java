@@ -26,4 +26,9 @@ public class RespResponseCodeTest {
   public void fromValue_noKnownLeader() {
     assertThat(RespResponseCode.fromValue(3)).isEqualTo(RespResponseCode.NO_KNOWN_LEADER);
   }
+
+  @Test
+  public void fromValue_multiSuccess() {
+    assertThat(RespResponseCode.fromValue(4)).isEqualTo(RespResponseCode.MULTI_SUCCESS);
+  }
 }
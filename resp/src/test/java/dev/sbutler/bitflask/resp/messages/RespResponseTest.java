@@ -4,9 +4,11 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespInteger;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link RespResponse}. */
@@ -21,6 +23,17 @@ public class RespResponseTest {
     assertThat(createdResponse).isEqualTo(response);
   }
 
+  @Test
+  public void createFromRespArray_multiSuccess_identity() {
+    var response =
+        new RespResponse.MultiSuccess(
+            ImmutableList.of(Optional.of(ByteString.copyFromUtf8("value")), Optional.empty()));
+
+    var createdResponse = RespResponse.createFromRespArray(response.getAsRespArray());
+
+    assertThat(createdResponse).isEqualTo(response);
+  }
+
   @Test
   public void createFromRespArray_failure_identity() {
     var response = new RespResponse.Failure("message");
@@ -75,6 +88,16 @@ public class RespResponseTest {
                 new RespBulkString("message")));
   }
 
+  @Test
+  public void success_binaryMessage() {
+    ByteString message = ByteString.copyFrom(new byte[] {0, (byte) 0xFF});
+    var response = new RespResponse.Success(message);
+
+    var createdResponse = RespResponse.createFromRespArray(response.getAsRespArray());
+
+    assertThat(createdResponse.getMessageBytes()).isEqualTo(message);
+  }
+
   @Test
   public void failure() {
     var response = new RespResponse.Failure("message");
@@ -115,4 +138,22 @@ public class RespResponseTest {
                 new RespInteger(RespResponseCode.NO_KNOWN_LEADER.getValue()),
                 new RespBulkString("No leader is currently known.")));
   }
+
+  @Test
+  public void multiSuccess() {
+    var response =
+        new RespResponse.MultiSuccess(
+            ImmutableList.of(Optional.of(ByteString.copyFromUtf8("value")), Optional.empty()));
+
+    assertThat(response.getResponseCode()).isEqualTo(RespResponseCode.MULTI_SUCCESS);
+    assertThat(response.getMessage()).isEqualTo("OK");
+    assertThat(response.getAsRespArray().getValue())
+        .containsExactlyElementsIn(
+            ImmutableList.of(
+                new RespInteger(RespResponseCode.MULTI_SUCCESS.getValue()),
+                new RespBulkString("OK"),
+                new RespBulkString("value"),
+                new RespBulkString((ByteString) null)))
+        .inOrder();
+  }
 }
@@ -0,0 +1,200 @@
+package dev.sbutler.bitflask.resp.network;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import dev.sbutler.bitflask.resp.types.RespBulkString;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import dev.sbutler.bitflask.resp.types.RespInteger;
+import dev.sbutler.bitflask.resp.types.RespSimpleString;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RespParser}. */
+public class RespParserTest {
+
+  private static final RespArray ARRAY =
+      new RespArray(
+          ImmutableList.of(
+              new RespInteger(-42),
+              new RespBulkString(ByteString.copyFrom(new byte[] {0, '\r', '\n', (byte) 0xFF})),
+              new RespArray(ImmutableList.of(new RespSimpleString("ok"), new RespInteger(0))),
+              new RespArray(ImmutableList.of()),
+              new RespBulkString(""),
+              new RespBulkString((String) null),
+              new RespArray(null)));
+
+  private final RespParser respParser = new RespParser();
+
+  @Test
+  public void parse_completeElement_parsedAndPositionAdvanced() throws Exception {
+    ByteBuffer buffer = ByteBuffer.wrap(ARRAY.getEncodedBytes());
+
+    Optional<RespElement> parsed = respParser.parse(buffer);
+
+    assertThat(parsed).isEqualTo(Optional.of(ARRAY));
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_oneByteAtATime_parsedOnceComplete() throws Exception {
+    byte[] encoded = ARRAY.getEncodedBytes();
+    for (int i = 0; i < encoded.length - 1; i++) {
+      ByteBuffer buffer = ByteBuffer.wrap(encoded, i, 1);
+
+      assertThat(respParser.parse(buffer)).isEqualTo(Optional.empty());
+      assertThat(buffer.hasRemaining()).isFalse();
+    }
+
+    Optional<RespElement> parsed =
+        respParser.parse(ByteBuffer.wrap(encoded, encoded.length - 1, 1));
+
+    assertThat(parsed).isEqualTo(Optional.of(ARRAY));
+  }
+
+  @Test
+  public void parse_pipelinedElements_parsedInOrder() throws Exception {
+    RespInteger second = new RespInteger(Long.MAX_VALUE);
+    ByteBuffer buffer = ByteBuffer.allocate(128);
+    buffer.put(ARRAY.getEncodedBytes()).put(second.getEncodedBytes()).flip();
+
+    assertThat(respParser.parse(buffer)).isEqualTo(Optional.of(ARRAY));
+    assertThat(respParser.parse(buffer)).isEqualTo(Optional.of(second));
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_largeBulkStringSplit_parsedByDeclaredLength() throws Exception {
+    byte[] value = new byte[100_000];
+    for (int i = 0; i < value.length; i++) {
+      value[i] = (byte) (i % 3 == 0 ? '\r' : '\n');
+    }
+    RespBulkString expected = new RespBulkString(ByteString.copyFrom(value));
+    byte[] encoded = expected.getEncodedBytes();
+    int split = encoded.length / 3;
+
+    assertThat(respParser.parse(ByteBuffer.wrap(encoded, 0, split))).isEqualTo(Optional.empty());
+    Optional<RespElement> parsed =
+        respParser.parse(ByteBuffer.wrap(encoded, split, encoded.length - split));
+
+    assertThat(parsed).isEqualTo(Optional.of(expected));
+  }
+
+  @Test
+  public void parse_respError() throws Exception {
+    Optional<RespElement> parsed = respParser.parse(wrap("-ERR failed\r\n"));
+
+    assertThat(parsed.orElseThrow().getAsRespError().getValue()).isEqualTo("ERR failed");
+  }
+
+  @Test
+  public void parse_unrecognizedCode_throwsProtocolException() {
+    ProtocolException e =
+        assertThrows(ProtocolException.class, () -> respParser.parse(wrap("!1\r\n")));
+
+    assertThat(e).hasMessageThat().contains("code not recognized");
+  }
+
+  @Test
+  public void parse_malformedLength_throwsProtocolException() {
+    assertThrows(ProtocolException.class, () -> respParser.parse(wrap("$1x\r\nv\r\n")));
+  }
+
+  @Test
+  public void parse_missingDigits_throwsProtocolException() {
+    assertThrows(ProtocolException.class, () -> respParser.parse(wrap(":-\r\n")));
+  }
+
+  @Test
+  public void parse_bulkStringLongerThanDeclared_throwsProtocolException() {
+    ProtocolException e =
+        assertThrows(ProtocolException.class, () -> respParser.parse(wrap("$1\r\nvv\r\n")));
+
+    assertThat(e).hasMessageThat().contains("length didn't match");
+  }
+
+  @Test
+  public void parse_bulkStringLengthTooLarge_throwsProtocolException() {
+    ByteBuffer buffer = wrap("$" + (RespParser.MAX_BULK_STRING_LENGTH + 1L) + "\r\n");
+
+    ProtocolException e = assertThrows(ProtocolException.class, () -> respParser.parse(buffer));
+
+    assertThat(e).hasMessageThat().contains("exceeded the maximum length");
+    // Rejected from the length header alone, before any of the value is received
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_bulkStringLengthAboveStorageLimit_throwsProtocolException() {
+    ByteBuffer buffer = wrap("$" + (64 * 1024 * 1024 + 1) + "\r\n");
+
+    assertThrows(ProtocolException.class, () -> respParser.parse(buffer));
+  }
+
+  @Test
+  public void parse_bulkStringLengthAtMaximum_awaitsValue() throws Exception {
+    ByteBuffer buffer = wrap("$" + RespParser.MAX_BULK_STRING_LENGTH + "\r\n");
+
+    assertThat(respParser.parse(buffer)).isEqualTo(Optional.empty());
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_arrayLengthTooLarge_throwsProtocolException() {
+    ByteBuffer buffer = wrap("*" + (RespParser.MAX_ARRAY_LENGTH + 1L) + "\r\n");
+
+    ProtocolException e = assertThrows(ProtocolException.class, () -> respParser.parse(buffer));
+
+    assertThat(e).hasMessageThat().contains("exceeded the maximum length");
+    // Rejected from the length header alone, before any of the items are received
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_arrayLengthAtMaximum_awaitsItems() throws Exception {
+    ByteBuffer buffer = wrap("*" + RespParser.MAX_ARRAY_LENGTH + "\r\n");
+
+    assertThat(respParser.parse(buffer)).isEqualTo(Optional.empty());
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_arrayNestedTooDeeply_throwsProtocolException() {
+    ByteBuffer buffer = wrap("*1\r\n".repeat(RespParser.MAX_NESTING_DEPTH + 1));
+
+    ProtocolException e = assertThrows(ProtocolException.class, () -> respParser.parse(buffer));
+
+    assertThat(e).hasMessageThat().contains("exceeded the maximum depth");
+    assertThat(buffer.hasRemaining()).isFalse();
+  }
+
+  @Test
+  public void parse_arrayNestedAtMaximumDepth_parsed() throws Exception {
+    ByteBuffer buffer = wrap("*1\r\n".repeat(RespParser.MAX_NESTING_DEPTH) + ":1\r\n");
+
+    Optional<RespElement> parsed = respParser.parse(buffer);
+
+    RespElement expected = new RespInteger(1);
+    for (int i = 0; i < RespParser.MAX_NESTING_DEPTH; i++) {
+      expected = new RespArray(ImmutableList.of(expected));
+    }
+    assertThat(parsed).isEqualTo(Optional.of(expected));
+  }
+
+  @Test
+  public void parse_lineTooLong_throwsProtocolException() {
+    ByteBuffer buffer = wrap("+" + "a".repeat(RespParser.MAX_LINE_LENGTH + 1) + "\r\n");
+
+    assertThrows(ProtocolException.class, () -> respParser.parse(buffer));
+  }
+
+  private static ByteBuffer wrap(String data) {
+    return ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -2,10 +2,9 @@ package dev.sbutler.bitflask.resp.network;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespBulkString;
 import dev.sbutler.bitflask.resp.types.RespElement;
@@ -15,8 +14,6 @@ import dev.sbutler.bitflask.resp.types.RespSimpleString;
 import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
 import java.net.ProtocolException;
 import org.junit.jupiter.api.Test;
 
@@ -25,9 +22,8 @@ public class RespReaderTest {
   @Test
   void exception_EOFException() throws Exception {
     // Arrange
-    Reader reader = mock(Reader.class);
-    RespReader respReader = new RespReader(reader);
-    when(reader.read()).thenReturn(-1);
+    InputStream inputStream = new ByteArrayInputStream(new byte[0]);
+    RespReader respReader = new RespReader(inputStream);
     // Act
     EOFException e =
         assertThrows(EOFException.class, respReader::readNextRespElement);
@@ -38,9 +34,8 @@ public class RespReaderTest {
   @Test
   void exception_ProtocolException() throws Exception {
     // Arrange
-    Reader reader = mock(Reader.class);
-    RespReader respReader = new RespReader(reader);
-    when(reader.read()).thenReturn(Integer.valueOf('a'));
+    InputStream inputStream = new ByteArrayInputStream(new byte[]{'a'});
+    RespReader respReader = new RespReader(inputStream);
     // Act
     ProtocolException e =
         assertThrows(ProtocolException.class, respReader::readNextRespElement);
@@ -93,7 +88,7 @@ public class RespReaderTest {
   @Test
   void respBulkString_null() throws Exception {
     // Arrange
-    RespBulkString respElement = new RespBulkString(null);
+    RespBulkString respElement = new RespBulkString((String) null);
     RespReader respReader =
         createRespReaderWithRespElementSeeded(respElement);
     // Act
@@ -134,16 +129,10 @@ public class RespReaderTest {
   @Test
   void respBulkString_ProtocolException() throws Exception {
     // Arrange
-    Reader reader = mock(Reader.class);
-    RespReader respReader = new RespReader(reader);
-    when(reader.read())
-        .thenReturn(Integer.valueOf(RespBulkString.TYPE_PREFIX))
-        .thenReturn(Integer.valueOf('0'))
-        .thenReturn(Integer.valueOf('\r'))
-        .thenReturn(Integer.valueOf('\n'))
-        .thenReturn(Integer.valueOf('s'))
-        .thenReturn(Integer.valueOf('\r'))
-        .thenReturn(Integer.valueOf('\n'));
+    InputStream inputStream =
+        new ByteArrayInputStream(new byte[]{RespBulkString.TYPE_PREFIX, '0', '\r', '\n', 's', '\r',
+            '\n'});
+    RespReader respReader = new RespReader(inputStream);
     // Act
     ProtocolException e =
         assertThrows(ProtocolException.class, respReader::readNextRespElement);
@@ -151,6 +140,34 @@ public class RespReaderTest {
     assertThat(e).hasMessageThat().ignoringCase().contains("length didn't match");
   }
 
+  @Test
+  void respBulkString_multiByteCharacters() throws Exception {
+    // Arrange
+    String expected = "ключ-é";
+    RespBulkString respElement = new RespBulkString(expected);
+    RespReader respReader =
+        createRespReaderWithRespElementSeeded(respElement);
+    // Act
+    RespElement res = respReader.readNextRespElement();
+    // Assert
+    assertThat(res.isRespBulkString()).isTrue();
+    assertThat(res.getAsRespBulkString().getValue()).isEqualTo(expected);
+  }
+
+  @Test
+  void respBulkString_binary() throws Exception {
+    // Arrange
+    ByteString expected = ByteString.copyFrom(new byte[]{0, (byte) 0xFF, '\r', '\n', (byte) 0x80});
+    RespBulkString respElement = new RespBulkString(expected);
+    RespReader respReader =
+        createRespReaderWithRespElementSeeded(respElement);
+    // Act
+    RespElement res = respReader.readNextRespElement();
+    // Assert
+    assertThat(res.isRespBulkString()).isTrue();
+    assertThat(res.getAsRespBulkString().getValueBytes()).isEqualTo(expected);
+  }
+
   @Test
   void respInteger() throws Exception {
     // Arrange
@@ -209,10 +226,29 @@ public class RespReaderTest {
     assertThat(res.getAsRespArray().getValue()).isNull();
   }
 
+  @Test
+  void consecutiveRespElements_readInOrder() throws Exception {
+    // Arrange
+    RespBulkString first = new RespBulkString("first");
+    RespInteger second = new RespInteger(-2);
+    byte[] firstBytes = first.getEncodedBytes();
+    byte[] secondBytes = second.getEncodedBytes();
+    byte[] bytes = new byte[firstBytes.length + secondBytes.length];
+    System.arraycopy(firstBytes, 0, bytes, 0, firstBytes.length);
+    System.arraycopy(secondBytes, 0, bytes, firstBytes.length, secondBytes.length);
+    RespReader respReader = new RespReader(new ByteArrayInputStream(bytes));
+    // Act
+    RespElement firstRes = respReader.readNextRespElement();
+    RespElement secondRes = respReader.readNextRespElement();
+    // Assert
+    assertThat(firstRes).isEqualTo(first);
+    assertThat(secondRes).isEqualTo(second);
+    assertThrows(EOFException.class, respReader::readNextRespElement);
+  }
+
   private static RespReader createRespReaderWithRespElementSeeded(RespElement respElement) {
     InputStream is = new ByteArrayInputStream(respElement.getEncodedBytes());
-    Reader reader = new InputStreamReader(is);
-    return new RespReader(reader);
+    return new RespReader(is);
   }
 
 }
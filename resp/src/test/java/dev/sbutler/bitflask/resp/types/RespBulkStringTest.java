@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import com.google.protobuf.ByteString;
 import java.util.Objects;
 import org.junit.jupiter.api.Test;
 
@@ -19,7 +20,7 @@ class RespBulkStringTest {
 
   @Test
   void getValue_null() {
-    RespBulkString bulkString = new RespBulkString(null);
+    RespBulkString bulkString = new RespBulkString((String) null);
     assertNull(bulkString.getValue());
   }
 
@@ -36,13 +37,30 @@ class RespBulkStringTest {
 
   @Test
   void getEncodedBytes_null() {
-    RespBulkString bulkString = new RespBulkString(null);
+    RespBulkString bulkString = new RespBulkString((String) null);
     byte[] expected = new byte[]{
         RespBulkString.TYPE_PREFIX, '-', '1', RespElement.CR, RespElement.LF
     };
     assertArrayEquals(expected, bulkString.getEncodedBytes());
   }
 
+  @Test
+  void getValueBytes() {
+    ByteString value = ByteString.copyFrom(new byte[]{0, (byte) 0xFF});
+    RespBulkString bulkString = new RespBulkString(value);
+    assertEquals(value, bulkString.getValueBytes());
+  }
+
+  @Test
+  void getEncodedBytes_multiByte() {
+    RespBulkString bulkString = new RespBulkString("é");
+    byte[] expected = new byte[]{
+        RespBulkString.TYPE_PREFIX, '2', RespElement.CR, RespElement.LF,
+        (byte) 0xC3, (byte) 0xA9, RespElement.CR, RespElement.LF
+    };
+    assertArrayEquals(expected, bulkString.getEncodedBytes());
+  }
+
   @Test
   void toStringTest() {
     String expected = "test";
@@ -64,6 +82,6 @@ class RespBulkStringTest {
   void hashcodeTest() {
     String expected = "test";
     RespBulkString respBulkString = new RespBulkString(expected);
-    assertEquals(Objects.hash(expected), respBulkString.hashCode());
+    assertEquals(Objects.hash(ByteString.copyFromUtf8(expected)), respBulkString.hashCode());
   }
 }
@@ -0,0 +1,113 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableTable;
+import dev.sbutler.bitflask.common.metrics.Histogram;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
+import jakarta.inject.Inject;
+import java.util.Locale;
+
+/**
+ * Creates the human-readable report returned for an INFO request.
+ *
+ * <p>The report is made up of sections of {@code name:value} lines, in the style of Redis' INFO
+ * command. Latencies are reported only for request types and phases that have been recorded.
+ */
+final class InfoReporter {
+
+  private final ServerMetrics serverMetrics;
+  private final LSMTree lsmTree;
+
+  @Inject
+  InfoReporter(ServerMetrics serverMetrics, LSMTree lsmTree) {
+    this.serverMetrics = serverMetrics;
+    this.lsmTree = lsmTree;
+  }
+
+  /** Creates a report of the server's current connections, request latencies, and storage. */
+  String createReport() {
+    StringBuilder report = new StringBuilder();
+    appendConnections(report);
+    report.append('\n');
+    appendLatencies(report);
+    report.append('\n');
+    appendStorage(report);
+    return report.toString();
+  }
+
+  private void appendConnections(StringBuilder report) {
+    report.append("# Connections\n");
+    appendLine(report, "connections_open", serverMetrics.getNumOpenConnections());
+    appendLine(report, "connections_received", serverMetrics.getNumConnectionsReceived());
+  }
+
+  private void appendLatencies(StringBuilder report) {
+    report.append("# Latency\n");
+    ImmutableTable<RespRequestCode, RequestPhase, Histogram.Snapshot> latencyMicros =
+        serverMetrics.getLatencyMicros();
+    for (RespRequestCode requestCode : RespRequestCode.values()) {
+      for (RequestPhase phase : RequestPhase.values()) {
+        Histogram.Snapshot latency = latencyMicros.get(requestCode, phase);
+        if (latency == null || latency.count() == 0) {
+          continue;
+        }
+        appendLine(
+            report,
+            toName(requestCode) + "." + toName(phase),
+            String.format(
+                Locale.ROOT,
+                "count=%d,mean_us=%.1f,p50_us=%d,p99_us=%d,p999_us=%d,max_us=%d",
+                latency.count(),
+                latency.getMean(),
+                latency.getValueAtPercentile(50),
+                latency.getValueAtPercentile(99),
+                latency.getValueAtPercentile(99.9),
+                latency.max()));
+      }
+    }
+  }
+
+  private void appendStorage(StringBuilder report) {
+    report.append("# Storage\n");
+    StorageStats.Snapshot stats = lsmTree.getStats();
+    appendLine(report, "reads", stats.numReads());
+    appendLine(report, "read_amplification", format(stats.getReadAmplification()));
+    appendLine(report, "write_amplification", format(stats.getWriteAmplification()));
+    appendLine(report, "space_amplification", format(stats.getSpaceAmplification()));
+    appendLine(
+        report,
+        "bloom_filter_false_positive_rate",
+        format(stats.getBloomFilterFalsePositiveRate()));
+    appendLine(report, "user_bytes_written", stats.userBytesWritten());
+    appendLine(report, "flushes", stats.numFlushes());
+    appendLine(report, "flush_bytes_written", stats.flushBytesWritten());
+    for (StorageStats.LevelStats levelStats : stats.levelStats()) {
+      appendLine(
+          report,
+          "level_" + levelStats.segmentLevel(),
+          String.format(
+              Locale.ROOT,
+              "segments=%d,bytes=%d,compactions=%d,compaction_bytes_read=%d,"
+                  + "compaction_bytes_written=%d,stale_ratio=%s",
+              levelStats.numSegments(),
+              levelStats.numBytes(),
+              levelStats.numCompactions(),
+              levelStats.compactionBytesRead(),
+              levelStats.compactionBytesWritten(),
+              format(levelStats.getCompactionStaleRatio())));
+    }
+  }
+
+  private static void appendLine(StringBuilder report, String name, Object value) {
+    report.append(name).append(':').append(value).append('\n');
+  }
+
+  private static String toName(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+
+  private static String format(double value) {
+    return String.format(Locale.ROOT, "%.3f", value);
+  }
+}
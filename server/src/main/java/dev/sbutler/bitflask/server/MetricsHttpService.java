@@ -0,0 +1,96 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.AbstractIdleService;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Serves the {@link PrometheusExporter}'s exposition at {@code /metrics} over HTTP for scraping by
+ * Prometheus compatible monitoring.
+ *
+ * <p>Each scrape is handled on the shared {@link ListeningExecutorService} so a slow scraper does
+ * not hold up client requests.
+ */
+final class MetricsHttpService extends AbstractIdleService {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  static final String METRICS_PATH = "/metrics";
+
+  private final ListeningExecutorService listeningExecutorService;
+  private final PrometheusExporter prometheusExporter;
+  private final InetSocketAddress address;
+
+  private volatile HttpServer httpServer;
+
+  @Inject
+  MetricsHttpService(
+      ListeningExecutorService listeningExecutorService,
+      PrometheusExporter prometheusExporter,
+      @Assisted InetSocketAddress address) {
+    this.listeningExecutorService = listeningExecutorService;
+    this.prometheusExporter = prometheusExporter;
+    this.address = address;
+  }
+
+  interface Factory {
+    MetricsHttpService create(InetSocketAddress address);
+  }
+
+  @Override
+  protected void startUp() throws IOException {
+    httpServer = HttpServer.create(address, 0);
+    httpServer.createContext(METRICS_PATH, this::handleScrape);
+    httpServer.setExecutor(listeningExecutorService);
+    httpServer.start();
+    logger.atInfo().log("Serving metrics at [%s%s]", httpServer.getAddress(), METRICS_PATH);
+  }
+
+  @Override
+  protected void shutDown() {
+    httpServer.stop(0);
+  }
+
+  /** The address the service is listening on, which is only available once it has started. */
+  InetSocketAddress getBoundAddress() {
+    return httpServer.getAddress();
+  }
+
+  private void handleScrape(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String method = exchange.getRequestMethod();
+      if (!method.equals("GET") && !method.equals("HEAD")) {
+        exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+        exchange.sendResponseHeaders(405, -1);
+        return;
+      }
+
+      byte[] body;
+      try {
+        body = prometheusExporter.createExposition().getBytes(StandardCharsets.UTF_8);
+      } catch (RuntimeException e) {
+        logger.atWarning().withCause(e).log("Failed to render metrics.");
+        exchange.sendResponseHeaders(500, -1);
+        return;
+      }
+
+      exchange.getResponseHeaders().set("Content-Type", PrometheusExporter.CONTENT_TYPE);
+      if (method.equals("HEAD")) {
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream responseBody = exchange.getResponseBody()) {
+        responseBody.write(body);
+      }
+    }
+  }
+}
@@ -0,0 +1,333 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import dev.sbutler.bitflask.common.metrics.Histogram;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
+import dev.sbutler.bitflask.storage.raft.Raft;
+import dev.sbutler.bitflask.storage.raft.RaftMode;
+import dev.sbutler.bitflask.storage.raft.RaftStats;
+import jakarta.inject.Inject;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Renders the server's, storage engine's, and Raft's metrics in the Prometheus text exposition
+ * format.
+ *
+ * <p>Metrics are read from the lock-free registries populated on the hot paths only when a scrape
+ * is rendered. Request latencies are reported only for request types and phases that have been
+ * recorded, and are bucketed into a fixed set of bounds so the number of series stays small.
+ */
+final class PrometheusExporter {
+
+  /** The content type of the rendered exposition. */
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  /** The upper bounds, in microseconds, of the buckets request latencies are exported with. */
+  private static final ImmutableList<Long> LATENCY_BUCKET_BOUNDS_MICROS =
+      ImmutableList.of(
+          50L, 100L, 250L, 500L, 1_000L, 2_500L, 5_000L, 10_000L, 25_000L, 50_000L, 100_000L,
+          250_000L, 500_000L, 1_000_000L, 2_500_000L, 5_000_000L, 10_000_000L);
+
+  /** The upper bounds of the buckets the number of Segments probed per read is exported with. */
+  private static final ImmutableList<Long> SEGMENTS_PROBED_BUCKET_BOUNDS =
+      ImmutableList.of(0L, 1L, 2L, 3L, 4L, 6L, 8L, 12L, 16L, 32L);
+
+  private final ServerMetrics serverMetrics;
+  private final LSMTree lsmTree;
+  private final Raft raft;
+
+  @Inject
+  PrometheusExporter(ServerMetrics serverMetrics, LSMTree lsmTree, Raft raft) {
+    this.serverMetrics = serverMetrics;
+    this.lsmTree = lsmTree;
+    this.raft = raft;
+  }
+
+  /** Renders the current value of every exported metric. */
+  String createExposition() {
+    StringBuilder exposition = new StringBuilder();
+    appendConnections(exposition);
+    appendLatencies(exposition);
+    appendStorage(exposition);
+    appendRaft(exposition);
+    return exposition.toString();
+  }
+
+  private void appendConnections(StringBuilder out) {
+    appendGauge(
+        out,
+        "bitflask_connections_open",
+        "Client connections currently open.",
+        serverMetrics.getNumOpenConnections());
+    appendCounter(
+        out,
+        "bitflask_connections_received_total",
+        "Client connections accepted.",
+        serverMetrics.getNumConnectionsReceived());
+  }
+
+  private void appendLatencies(StringBuilder out) {
+    String name = "bitflask_request_duration_seconds";
+    appendHeader(out, name, "histogram", "Time client requests spent in each phase.");
+    ImmutableTable<RespRequestCode, RequestPhase, Histogram.Snapshot> latencyMicros =
+        serverMetrics.getLatencyMicros();
+    for (RespRequestCode requestCode : RespRequestCode.values()) {
+      for (RequestPhase phase : RequestPhase.values()) {
+        Histogram.Snapshot latency = latencyMicros.get(requestCode, phase);
+        if (latency == null || latency.count() == 0) {
+          continue;
+        }
+        appendHistogram(
+            out,
+            name,
+            ImmutableMap.of("command", toLabel(requestCode), "phase", toLabel(phase)),
+            latency,
+            LATENCY_BUCKET_BOUNDS_MICROS,
+            1_000_000);
+      }
+    }
+  }
+
+  private void appendStorage(StringBuilder out) {
+    StorageStats.Snapshot stats = lsmTree.getStats();
+    appendCounter(
+        out, "bitflask_storage_reads_total", "Single key reads completed.", stats.numReads());
+    String segmentsProbed = "bitflask_storage_segments_probed";
+    appendHeader(out, segmentsProbed, "histogram", "Segments read for each single key read.");
+    appendHistogram(
+        out,
+        segmentsProbed,
+        ImmutableMap.of(),
+        stats.segmentsProbedPerRead(),
+        SEGMENTS_PROBED_BUCKET_BOUNDS,
+        1);
+
+    String bloomFilterChecks = "bitflask_storage_bloom_filter_checks_total";
+    appendHeader(
+        out,
+        bloomFilterChecks,
+        "counter",
+        "Segment filter checks, by whether the Segment might contain the key.");
+    appendSample(
+        out, bloomFilterChecks, ImmutableMap.of("result", "negative"), stats.bloomFilterUseful());
+    appendSample(
+        out, bloomFilterChecks, ImmutableMap.of("result", "positive"), stats.bloomFilterPositive());
+    appendCounter(
+        out,
+        "bitflask_storage_bloom_filter_false_positives_total",
+        "Positive filter checks whose Segment did not contain the key.",
+        stats.bloomFilterFalsePositive());
+
+    appendCounter(
+        out,
+        "bitflask_storage_user_bytes_written_total",
+        "Bytes of entries written by clients.",
+        stats.userBytesWritten());
+    appendCounter(
+        out,
+        "bitflask_storage_flushes_total",
+        "Memtables flushed to a Segment.",
+        stats.numFlushes());
+    appendCounter(
+        out,
+        "bitflask_storage_flush_bytes_written_total",
+        "Bytes of Segments written by flushes.",
+        stats.flushBytesWritten());
+
+    appendGauge(
+        out,
+        "bitflask_storage_read_amplification",
+        "Mean Segments read per single key read.",
+        stats.getReadAmplification());
+    appendGauge(
+        out,
+        "bitflask_storage_write_amplification",
+        "Bytes written to Segments per byte written by clients.",
+        stats.getWriteAmplification());
+    appendGauge(
+        out,
+        "bitflask_storage_space_amplification",
+        "Bytes of all Segments per byte of the deepest level.",
+        stats.getSpaceAmplification());
+
+    appendLevelMetric(
+        out,
+        "bitflask_storage_level_segments",
+        "gauge",
+        "Segments currently in each level.",
+        stats,
+        StorageStats.LevelStats::numSegments);
+    appendLevelMetric(
+        out,
+        "bitflask_storage_level_bytes",
+        "gauge",
+        "Bytes of the Segments currently in each level.",
+        stats,
+        StorageStats.LevelStats::numBytes);
+    appendLevelMetric(
+        out,
+        "bitflask_storage_level_compactions_total",
+        "counter",
+        "Compactions of each level.",
+        stats,
+        StorageStats.LevelStats::numCompactions);
+    appendLevelMetric(
+        out,
+        "bitflask_storage_level_compaction_bytes_read_total",
+        "counter",
+        "Bytes of Segments read compacting each level.",
+        stats,
+        StorageStats.LevelStats::compactionBytesRead);
+    appendLevelMetric(
+        out,
+        "bitflask_storage_level_compaction_bytes_written_total",
+        "counter",
+        "Bytes of Segments written compacting each level.",
+        stats,
+        StorageStats.LevelStats::compactionBytesWritten);
+  }
+
+  private void appendRaft(StringBuilder out) {
+    RaftStats.Snapshot stats = raft.getStats();
+    appendHeader(out, "bitflask_raft_mode", "gauge", "1 for the server's current Raft mode.");
+    for (RaftMode raftMode : RaftMode.values()) {
+      boolean isCurrentMode = stats.raftMode().filter(raftMode::equals).isPresent();
+      appendSample(
+          out,
+          "bitflask_raft_mode",
+          ImmutableMap.of("mode", toLabel(raftMode)),
+          isCurrentMode ? 1 : 0);
+    }
+    appendGauge(
+        out, "bitflask_raft_term", "Latest term the server has seen.", stats.currentTerm());
+    appendGauge(
+        out,
+        "bitflask_raft_last_log_index",
+        "Index of the last entry in the log.",
+        stats.lastLogEntryIndex());
+    appendGauge(
+        out,
+        "bitflask_raft_commit_index",
+        "Index of the highest committed entry.",
+        stats.highestCommittedEntryIndex());
+    appendGauge(
+        out,
+        "bitflask_raft_applied_index",
+        "Index of the highest applied entry.",
+        stats.highestAppliedEntryIndex());
+    appendCounter(
+        out,
+        "bitflask_raft_elections_started_total",
+        "Elections started as a candidate.",
+        stats.numElectionsStarted());
+    appendCounter(
+        out,
+        "bitflask_raft_leaderships_acquired_total",
+        "Elections won.",
+        stats.numLeadershipsAcquired());
+    appendCounter(
+        out,
+        "bitflask_raft_entries_applied_total",
+        "Entries applied to the storage engine.",
+        stats.numEntriesApplied());
+  }
+
+  private interface LevelValue {
+    long get(StorageStats.LevelStats levelStats);
+  }
+
+  private static void appendLevelMetric(
+      StringBuilder out,
+      String name,
+      String type,
+      String help,
+      StorageStats.Snapshot stats,
+      LevelValue levelValue) {
+    appendHeader(out, name, type, help);
+    for (StorageStats.LevelStats levelStats : stats.levelStats()) {
+      appendSample(
+          out,
+          name,
+          ImmutableMap.of("level", String.valueOf(levelStats.segmentLevel())),
+          levelValue.get(levelStats));
+    }
+  }
+
+  /**
+   * Appends the cumulative buckets, sum, and count of a histogram, dividing its recorded values
+   * by {@code unitDivisor} to convert them to the exported unit.
+   */
+  private static void appendHistogram(
+      StringBuilder out,
+      String name,
+      ImmutableMap<String, String> labels,
+      Histogram.Snapshot histogram,
+      ImmutableList<Long> bucketBounds,
+      double unitDivisor) {
+    for (long bucketBound : bucketBounds) {
+      appendSample(
+          out,
+          name + "_bucket",
+          withLabel(labels, "le", formatValue(bucketBound / unitDivisor)),
+          histogram.getCountAtOrBelow(bucketBound));
+    }
+    appendSample(out, name + "_bucket", withLabel(labels, "le", "+Inf"), histogram.count());
+    appendSample(out, name + "_sum", labels, histogram.sum() / unitDivisor);
+    appendSample(out, name + "_count", labels, histogram.count());
+  }
+
+  private static void appendCounter(StringBuilder out, String name, String help, long value) {
+    appendHeader(out, name, "counter", help);
+    appendSample(out, name, ImmutableMap.of(), value);
+  }
+
+  private static void appendGauge(StringBuilder out, String name, String help, double value) {
+    appendHeader(out, name, "gauge", help);
+    appendSample(out, name, ImmutableMap.of(), value);
+  }
+
+  private static void appendHeader(StringBuilder out, String name, String type, String help) {
+    out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+    out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+  }
+
+  private static void appendSample(
+      StringBuilder out, String name, ImmutableMap<String, String> labels, double value) {
+    out.append(name);
+    if (!labels.isEmpty()) {
+      out.append('{');
+      boolean first = true;
+      for (Map.Entry<String, String> label : labels.entrySet()) {
+        if (!first) {
+          out.append(',');
+        }
+        first = false;
+        out.append(label.getKey()).append("=\"").append(label.getValue()).append('"');
+      }
+      out.append('}');
+    }
+    out.append(' ').append(formatValue(value)).append('\n');
+  }
+
+  private static ImmutableMap<String, String> withLabel(
+      ImmutableMap<String, String> labels, String name, String value) {
+    return ImmutableMap.<String, String>builder().putAll(labels).put(name, value).build();
+  }
+
+  private static String toLabel(Enum<?> value) {
+    return value.name().toLowerCase(Locale.ROOT);
+  }
+
+  /** Formats whole numbers without a fractional part, as Prometheus' own clients do. */
+  private static String formatValue(double value) {
+    if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+      return String.valueOf((long) value);
+    }
+    return String.valueOf(value);
+  }
+}
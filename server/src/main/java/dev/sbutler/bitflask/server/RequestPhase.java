@@ -0,0 +1,15 @@
+package dev.sbutler.bitflask.server;
+
+/** The phases a client's request passes through while being processed by the server. */
+enum RequestPhase {
+  // From the request being read until storage starts executing it, excluding the Raft commit
+  QUEUEING,
+  // From a write being submitted to Raft until it is committed and starts being applied
+  RAFT_COMMIT,
+  // Executing the request against the storage engine
+  STORAGE,
+  // From the results being available until the response is written to the client
+  RESPONSE_WRITE,
+  // From the request being read until the response is written to the client
+  TOTAL
+}
@@ -0,0 +1,87 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableMap;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
+import java.util.EnumMap;
+
+/**
+ * Records when a single client request reached each stage of processing so the time spent in each
+ * {@link RequestPhase} can be derived.
+ *
+ * <p>Stages within storage are recorded by the request's {@link CommandTrace}.
+ */
+final class RequestTrace {
+
+  private final RespRequestCode requestCode;
+  private final long receivedNanos;
+  private final CommandTrace commandTrace = new CommandTrace();
+
+  private long executedNanos;
+  private long respondedNanos;
+
+  /**
+   * @param receivedNanos the {@link System#nanoTime()} the request was read from the client
+   */
+  RequestTrace(RespRequestCode requestCode, long receivedNanos) {
+    this.requestCode = requestCode;
+    this.receivedNanos = receivedNanos;
+  }
+
+  RespRequestCode getRequestCode() {
+    return requestCode;
+  }
+
+  /** The trace of the request's execution within storage. */
+  CommandTrace getCommandTrace() {
+    return commandTrace;
+  }
+
+  /** Marks the request's results as available. */
+  void markExecuted() {
+    executedNanos = System.nanoTime();
+  }
+
+  /** Marks the request's response as written to the client. */
+  void markResponded() {
+    respondedNanos = System.nanoTime();
+  }
+
+  /** Returns the nanoseconds from the request being read until its response was written, or 0. */
+  long getTotalNanos() {
+    return respondedNanos == 0 ? 0 : respondedNanos - receivedNanos;
+  }
+
+  /**
+   * Returns the nanoseconds spent in each {@link RequestPhase} the request has completed.
+   *
+   * <p>Phases the request did not pass through, such as {@link RequestPhase#RAFT_COMMIT} for reads
+   * or every storage phase for requests not served by storage, are omitted.
+   */
+  ImmutableMap<RequestPhase, Long> getPhaseNanos() {
+    EnumMap<RequestPhase, Long> phaseNanos = new EnumMap<>(RequestPhase.class);
+    long submittedNanos = commandTrace.getSubmittedNanos();
+    long storageStartedNanos = commandTrace.getStorageStartedNanos();
+    long storageFinishedNanos = commandTrace.getStorageFinishedNanos();
+    if (submittedNanos != 0) {
+      if (storageStartedNanos == 0 || commandTrace.isReplicated()) {
+        phaseNanos.put(RequestPhase.QUEUEING, submittedNanos - receivedNanos);
+      } else {
+        phaseNanos.put(RequestPhase.QUEUEING, storageStartedNanos - receivedNanos);
+      }
+      if (storageStartedNanos != 0 && commandTrace.isReplicated()) {
+        phaseNanos.put(RequestPhase.RAFT_COMMIT, storageStartedNanos - submittedNanos);
+      }
+      if (storageStartedNanos != 0 && storageFinishedNanos != 0) {
+        phaseNanos.put(RequestPhase.STORAGE, storageFinishedNanos - storageStartedNanos);
+      }
+    }
+    if (executedNanos != 0 && respondedNanos != 0) {
+      phaseNanos.put(RequestPhase.RESPONSE_WRITE, respondedNanos - executedNanos);
+    }
+    if (respondedNanos != 0) {
+      phaseNanos.put(RequestPhase.TOTAL, respondedNanos - receivedNanos);
+    }
+    return ImmutableMap.copyOf(phaseNanos);
+  }
+}
@@ -4,33 +4,27 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.flogger.FluentLogger;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
-import dev.sbutler.bitflask.resp.messages.RespRequest;
-import dev.sbutler.bitflask.resp.messages.RespRequestConversionException;
-import dev.sbutler.bitflask.resp.messages.RespResponse;
 import dev.sbutler.bitflask.resp.network.RespService;
-import dev.sbutler.bitflask.resp.types.RespArray;
 import dev.sbutler.bitflask.resp.types.RespElement;
-import dev.sbutler.bitflask.resp.types.RespError;
-import dev.sbutler.bitflask.storage.commands.ClientCommandResults;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.ProtocolException;
 import java.util.Optional;
 
 /** Handles receiving a client's incoming RESP requests, processes them, and responding. */
-final class RespClientRequestProcessor implements Runnable {
+final class RespClientRequestProcessor implements Runnable, RespRequestHandler.ResponseSink {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
-  private final ServerCommandFactory serverCommandFactory;
+  private final RespRequestHandler respRequestHandler;
   private final RespService respService;
 
   private volatile boolean shouldContinueRunning = true;
 
   @Inject
   RespClientRequestProcessor(
-      ServerCommandFactory serverCommandFactory, @Assisted RespService respService) {
-    this.serverCommandFactory = serverCommandFactory;
+      RespRequestHandler respRequestHandler, @Assisted RespService respService) {
+    this.respRequestHandler = respRequestHandler;
     this.respService = respService;
   }
 
@@ -57,7 +51,7 @@ final class RespClientRequestProcessor implements Runnable {
    * Reads, processes, and responds to the client's message
    *
    * <p>Errors or issues that occur during processing which are unrecoverable will be handled. These
-   * cases will result in false being returned by this function.
+   * cases will result in the connection being shutdown.
    */
   @VisibleForTesting
   void processNextRespRequest() {
@@ -66,44 +60,7 @@ final class RespClientRequestProcessor implements Runnable {
       triggerShutdown();
       return;
     }
-
-    if (!(readRespMessage.get() instanceof RespArray)) {
-      sendResponse(new RespResponse.Failure("Message must be provided in a RespArray"));
-      return;
-    }
-
-    RespRequest request;
-    try {
-      request = RespRequest.createFromRespArray((RespArray) readRespMessage.get());
-    } catch (RespRequestConversionException e) {
-      sendResponse(new RespResponse.Failure(e.getMessage()));
-      return;
-    }
-
-    processRespRequest(request);
-  }
-
-  private void processRespRequest(RespRequest request) {
-    try {
-      ServerCommand command = serverCommandFactory.createCommand(request);
-      ClientCommandResults commandResults = command.execute();
-      RespResponse respResponse = handleCommandResults(commandResults);
-      sendResponse(respResponse);
-    } catch (Exception e) {
-      sendUnrecoverableErrorToClient(e);
-    }
-  }
-
-  private RespResponse handleCommandResults(ClientCommandResults commandResults) {
-    return switch (commandResults) {
-      case ClientCommandResults.Success success -> new RespResponse.Success(success.message());
-      case ClientCommandResults.Failure failure -> new RespResponse.Failure(failure.message());
-      case ClientCommandResults.NotCurrentLeader notCurrentLeader -> new RespResponse
-          .NotCurrentLeader(
-          notCurrentLeader.currentLeaderInfo().getHost(),
-          notCurrentLeader.currentLeaderInfo().getRespPort());
-      case ClientCommandResults.NoKnownLeader ignored -> new RespResponse.NoKnownLeader();
-    };
+    respRequestHandler.handle(readRespMessage.get(), System.nanoTime(), this);
   }
 
   private Optional<RespElement> readClientRespMessage() {
@@ -119,21 +76,23 @@ final class RespClientRequestProcessor implements Runnable {
     return Optional.empty();
   }
 
-  private void sendResponse(RespResponse response) {
+  @Override
+  public void send(RespElement response, Runnable onWritten) {
     try {
-      respService.write(response.getAsRespArray());
+      respService.write(response);
     } catch (IOException e) {
       logger.atSevere().withCause(e).log("Failed to write response to client");
       triggerShutdown();
+      return;
     }
+    onWritten.run();
   }
 
-  private void sendUnrecoverableErrorToClient(Exception e) {
-    logger.atSevere().withCause(e).log("Responding with unrecoverable error to client.");
-    RespError response = new RespError(e.getMessage());
+  @Override
+  public void sendAndClose(RespElement response) {
     try {
       respService.write(response);
-    } catch (IOException ioException) {
+    } catch (IOException e) {
       logger.atSevere().withCause(e).log("Failed to write response to client");
     }
     triggerShutdown();
@@ -0,0 +1,321 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.resp.network.RespParser;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * A single threaded {@link Selector} loop serving the I/O of many non-blocking client connections.
+ *
+ * <p>Each connection executes one request at a time, in the order they were received. A request
+ * is executed on the request executor, while the connection stops reading until the request's
+ * response has been written so that a client cannot queue unbounded work or responses.
+ *
+ * <p>Bytes are read into a buffer shared by all of the loop's connections and parsed incrementally
+ * by each connection's {@link RespParser}, so partial requests are not buffered and re-scanned. A
+ * connection only holds its own buffer while it has received pipelined requests that have not been
+ * executed yet, so idle connections hold no buffers.
+ */
+final class RespEventLoop implements Runnable {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  static final int READ_BUFFER_BYTES = 64 * 1024;
+
+  private final Selector selector;
+  private final RespRequestHandler respRequestHandler;
+  private final Executor requestExecutor;
+  private final ServerMetrics serverMetrics;
+
+  private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+  private final Queue<Runnable> pendingTasks = new ConcurrentLinkedQueue<>();
+  private final Set<Connection> connections = new HashSet<>();
+  private volatile boolean shouldContinueRunning = true;
+
+  RespEventLoop(
+      Selector selector,
+      RespRequestHandler respRequestHandler,
+      Executor requestExecutor,
+      ServerMetrics serverMetrics) {
+    this.selector = selector;
+    this.respRequestHandler = respRequestHandler;
+    this.requestExecutor = requestExecutor;
+    this.serverMetrics = serverMetrics;
+  }
+
+  /** Hands the accepted, non-blocking, client connection to this loop to serve. */
+  void register(SocketChannel socketChannel) {
+    runOnLoop(() -> openConnection(socketChannel));
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (shouldContinueRunning && !Thread.currentThread().isInterrupted()) {
+        selector.select();
+        runPendingTasks();
+        processSelectedKeys();
+      }
+    } catch (Exception e) {
+      logger.atSevere().withCause(e).log("Unexpected error occurred in event loop.");
+    } finally {
+      shouldContinueRunning = false;
+      new HashSet<>(connections).forEach(Connection::close);
+      try {
+        selector.close();
+      } catch (IOException e) {
+        logger.atWarning().withCause(e).log("Error closing the Selector");
+      }
+    }
+  }
+
+  /** Stops the loop, closing all of its connections. */
+  void triggerShutdown() {
+    shouldContinueRunning = false;
+    selector.wakeup();
+  }
+
+  private void runOnLoop(Runnable task) {
+    pendingTasks.add(task);
+    selector.wakeup();
+  }
+
+  private void runPendingTasks() {
+    Runnable task;
+    while ((task = pendingTasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private void processSelectedKeys() {
+    Iterator<SelectionKey> selectedKeys = selector.selectedKeys().iterator();
+    while (selectedKeys.hasNext()) {
+      SelectionKey key = selectedKeys.next();
+      selectedKeys.remove();
+      Connection connection = (Connection) key.attachment();
+      if (key.isValid() && key.isReadable()) {
+        connection.onReadable();
+      }
+      if (key.isValid() && key.isWritable()) {
+        connection.flush();
+      }
+    }
+  }
+
+  private void openConnection(SocketChannel socketChannel) {
+    try {
+      Connection connection = new Connection(socketChannel);
+      connection.key = socketChannel.register(selector, SelectionKey.OP_READ, connection);
+      connections.add(connection);
+      serverMetrics.recordConnectionOpened();
+    } catch (IOException e) {
+      logger.atWarning().withCause(e).log("Failed to register client connection.");
+      try {
+        socketChannel.close();
+      } catch (IOException closeException) {
+        logger.atWarning().withCause(closeException).log("Error closing the SocketChannel");
+      }
+    }
+  }
+
+  /**
+   * A client connection served by the loop.
+   *
+   * <p>All state is only accessed by the loop's thread. Responses are handed back to it from the
+   * request executor as pending tasks.
+   */
+  private final class Connection implements RespRequestHandler.ResponseSink {
+
+    private final SocketChannel socketChannel;
+    private final RespParser respParser = new RespParser();
+    private final ArrayDeque<ByteBuffer> pendingWrites = new ArrayDeque<>();
+    private SelectionKey key;
+    /** Received bytes that have not been parsed yet, in read mode, or null if there are none. */
+    private ByteBuffer pendingInput;
+    /** Run once the pending writes have drained, or null if there is nothing to run. */
+    private Runnable onWritten;
+    private boolean requestInFlight = false;
+    private boolean closeAfterWrite = false;
+    private boolean closed = false;
+
+    private Connection(SocketChannel socketChannel) {
+      this.socketChannel = socketChannel;
+    }
+
+    @Override
+    public void send(RespElement response, Runnable onWritten) {
+      runOnLoop(() -> onResponse(response, false, onWritten));
+    }
+
+    @Override
+    public void sendAndClose(RespElement response) {
+      runOnLoop(() -> onResponse(response, true, null));
+    }
+
+    private void onReadable() {
+      readBuffer.clear();
+      int numRead;
+      try {
+        numRead = socketChannel.read(readBuffer);
+      } catch (IOException e) {
+        logger.atWarning().withCause(e).log("Failure reading client's message");
+        close();
+        return;
+      }
+      if (numRead == -1) {
+        logger.atInfo().log("Client disconnected.");
+        close();
+        return;
+      }
+      readBuffer.flip();
+      if (pendingInput == null) {
+        // Parse straight from the shared buffer, only retaining what is left over
+        parseNextRequest(readBuffer);
+        retainPendingInput(readBuffer);
+      } else {
+        retainPendingInput(readBuffer);
+        parsePendingInput();
+      }
+      updateInterestOps();
+    }
+
+    private void parsePendingInput() {
+      if (pendingInput == null) {
+        return;
+      }
+      ByteBuffer input = pendingInput;
+      pendingInput = null;
+      parseNextRequest(input);
+      retainPendingInput(input);
+    }
+
+    private void parseNextRequest(ByteBuffer buffer) {
+      if (closed || requestInFlight || closeAfterWrite || !pendingWrites.isEmpty()) {
+        return;
+      }
+      Optional<RespElement> message;
+      try {
+        message = respParser.parse(buffer);
+      } catch (ProtocolException e) {
+        logger.atWarning().withCause(e).log("Client message format malformed");
+        close();
+        return;
+      }
+      if (message.isEmpty()) {
+        return;
+      }
+      requestInFlight = true;
+      long receivedNanos = System.nanoTime();
+      requestExecutor.execute(
+          () -> respRequestHandler.handle(message.get(), receivedNanos, this));
+    }
+
+    /**
+     * Retains the input's unparsed bytes, which follow a request that is being executed.
+     *
+     * <p>Reading stops while a request is executed, so at most a single read's worth of bytes is
+     * retained.
+     */
+    private void retainPendingInput(ByteBuffer input) {
+      if (closed || !input.hasRemaining()) {
+        return;
+      }
+      int pendingBytes = pendingInput == null ? 0 : pendingInput.remaining();
+      ByteBuffer retained = ByteBuffer.allocate(pendingBytes + input.remaining());
+      if (pendingInput != null) {
+        retained.put(pendingInput);
+      }
+      pendingInput = retained.put(input).flip();
+    }
+
+    private void onResponse(RespElement response, boolean closeAfterWrite, Runnable onWritten) {
+      if (closed) {
+        return;
+      }
+      requestInFlight = false;
+      this.closeAfterWrite |= closeAfterWrite;
+      this.onWritten = onWritten;
+      pendingWrites.add(ByteBuffer.wrap(response.getEncodedBytes()));
+      flush();
+    }
+
+    private void flush() {
+      try {
+        while (!pendingWrites.isEmpty()) {
+          ByteBuffer pendingWrite = pendingWrites.peek();
+          socketChannel.write(pendingWrite);
+          if (pendingWrite.hasRemaining()) {
+            break;
+          }
+          pendingWrites.poll();
+        }
+      } catch (IOException e) {
+        logger.atWarning().withCause(e).log("Failed to write response to client");
+        close();
+        return;
+      }
+      if (pendingWrites.isEmpty()) {
+        if (onWritten != null) {
+          Runnable written = onWritten;
+          onWritten = null;
+          written.run();
+        }
+        if (closeAfterWrite) {
+          close();
+          return;
+        }
+        // Pipelined requests are only executed once the previous response has been written
+        parsePendingInput();
+      }
+      updateInterestOps();
+    }
+
+    private void updateInterestOps() {
+      if (closed) {
+        return;
+      }
+      int interestOps = 0;
+      if (!requestInFlight && !closeAfterWrite && pendingWrites.isEmpty()) {
+        interestOps |= SelectionKey.OP_READ;
+      }
+      if (!pendingWrites.isEmpty()) {
+        interestOps |= SelectionKey.OP_WRITE;
+      }
+      key.interestOps(interestOps);
+    }
+
+    private void close() {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      connections.remove(this);
+      pendingInput = null;
+      pendingWrites.clear();
+      onWritten = null;
+      if (key != null) {
+        key.cancel();
+      }
+      try {
+        socketChannel.close();
+      } catch (IOException e) {
+        logger.atWarning().withCause(e).log("Error closing the SocketChannel");
+      }
+      serverMetrics.recordConnectionClosed();
+    }
+  }
+}
@@ -26,6 +26,7 @@ final class RespNetworkService extends AbstractExecutionThreadService {
 
   private final ListeningExecutorService listeningExecutorService;
   private final RespClientRequestProcessor.Factory clientRequestProcessorFactory;
+  private final ServerMetrics serverMetrics;
   private final ServerSocketChannel serverSocketChannel;
 
   private final Set<RespClientRequestProcessor> runningRespClientRequestProcessors =
@@ -36,9 +37,11 @@ final class RespNetworkService extends AbstractExecutionThreadService {
   RespNetworkService(
       ListeningExecutorService listeningExecutorService,
       RespClientRequestProcessor.Factory clientRequestProcessorFactory,
+      ServerMetrics serverMetrics,
       @Assisted ServerSocketChannel serverSocketChannel) {
     this.listeningExecutorService = listeningExecutorService;
     this.clientRequestProcessorFactory = clientRequestProcessorFactory;
+    this.serverMetrics = serverMetrics;
     this.serverSocketChannel = serverSocketChannel;
   }
 
@@ -89,6 +92,7 @@ final class RespNetworkService extends AbstractExecutionThreadService {
     RespClientRequestProcessor clientRequestProcessor =
         clientRequestProcessorFactory.create(respService);
 
+    serverMetrics.recordConnectionOpened();
     ListenableFuture<Void> clientRequestProcessorFuture =
         Futures.submit(clientRequestProcessor, listeningExecutorService);
     runningRespClientRequestProcessors.add(clientRequestProcessor);
@@ -100,11 +104,13 @@ final class RespNetworkService extends AbstractExecutionThreadService {
           @Override
           public void onSuccess(Void result) {
             runningRespClientRequestProcessors.remove(clientRequestProcessor);
+            serverMetrics.recordConnectionClosed();
           }
 
           @Override
           public void onFailure(@Nullable Throwable t) {
             runningRespClientRequestProcessors.remove(clientRequestProcessor);
+            serverMetrics.recordConnectionClosed();
           }
         },
         listeningExecutorService);
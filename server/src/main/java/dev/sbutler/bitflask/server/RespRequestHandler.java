@@ -0,0 +1,118 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespRequestConversionException;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import dev.sbutler.bitflask.resp.types.RespError;
+import dev.sbutler.bitflask.storage.commands.ClientCommandResults;
+import jakarta.inject.Inject;
+
+/**
+ * Processes a single message read from a client and hands the response to a {@link
+ * ResponseSink}, which writes it to the client using the network engine's I/O.
+ *
+ * <p>A request's response is only recorded as responded to, and its latency recorded, once the
+ * sink reports that the response has been written.
+ *
+ * <p>Executing a request may block, so non-blocking network engines should handle messages on an
+ * executor rather than the thread performing the connection's I/O.
+ */
+final class RespRequestHandler {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final ServerCommandFactory serverCommandFactory;
+  private final ServerMetrics serverMetrics;
+  private final SlowLog slowLog;
+
+  @Inject
+  RespRequestHandler(
+      ServerCommandFactory serverCommandFactory, ServerMetrics serverMetrics, SlowLog slowLog) {
+    this.serverCommandFactory = serverCommandFactory;
+    this.serverMetrics = serverMetrics;
+    this.slowLog = slowLog;
+  }
+
+  /** Receives the response to a client's message. */
+  interface ResponseSink {
+
+    /**
+     * Sends the response to the client, running {@code onWritten} once it has been completely
+     * written.
+     *
+     * <p>{@code onWritten} is not run if the connection fails or is closed before then.
+     */
+    void send(RespElement response, Runnable onWritten);
+
+    /** Sends the response to the client. */
+    default void send(RespElement response) {
+      send(response, () -> {});
+    }
+
+    /** Sends the response to the client and then closes its connection. */
+    void sendAndClose(RespElement response);
+  }
+
+  /**
+   * Executes the request contained in the message, which was read at {@code receivedNanos}, and
+   * sends its response.
+   *
+   * <p>Malformed messages are responded to with a failure. An unexpected error executing the
+   * request is responded to with a {@link RespError} and the connection is closed.
+   */
+  void handle(RespElement message, long receivedNanos, ResponseSink responseSink) {
+    if (!(message instanceof RespArray respArray)) {
+      responseSink.send(
+          new RespResponse.Failure("Message must be provided in a RespArray").getAsRespArray());
+      return;
+    }
+
+    RespRequest request;
+    try {
+      request = RespRequest.createFromRespArray(respArray);
+    } catch (RespRequestConversionException e) {
+      responseSink.send(new RespResponse.Failure(e.getMessage()).getAsRespArray());
+      return;
+    }
+
+    RequestTrace trace = new RequestTrace(request.getRequestCode(), receivedNanos);
+    if (slowLog.shouldSampleReadTrace()) {
+      trace.getCommandTrace().sampleReadTrace();
+    }
+    ClientCommandResults commandResults;
+    try {
+      ServerCommand command = serverCommandFactory.createCommand(request);
+      commandResults = command.execute(trace.getCommandTrace());
+    } catch (Exception e) {
+      logger.atSevere().withCause(e).log("Responding with unrecoverable error to client.");
+      responseSink.sendAndClose(new RespError(e.getMessage()));
+      return;
+    }
+    trace.markExecuted();
+    responseSink.send(
+        toRespResponse(commandResults).getAsRespArray(),
+        () -> {
+          trace.markResponded();
+          serverMetrics.recordRequest(trace);
+          slowLog.recordIfSlow(request, trace);
+        });
+  }
+
+  /** Converts the results of executing a client's request into the response sent to it. */
+  static RespResponse toRespResponse(ClientCommandResults commandResults) {
+    return switch (commandResults) {
+      case ClientCommandResults.Success success -> new RespResponse.Success(success.message());
+      case ClientCommandResults.MultiSuccess multiSuccess -> new RespResponse.MultiSuccess(
+          multiSuccess.values());
+      case ClientCommandResults.Failure failure -> new RespResponse.Failure(failure.message());
+      case ClientCommandResults.NotCurrentLeader notCurrentLeader -> new RespResponse
+          .NotCurrentLeader(
+          notCurrentLeader.currentLeaderInfo().getHost(),
+          notCurrentLeader.currentLeaderInfo().getRespPort());
+      case ClientCommandResults.NoKnownLeader ignored -> new RespResponse.NoKnownLeader();
+    };
+  }
+}
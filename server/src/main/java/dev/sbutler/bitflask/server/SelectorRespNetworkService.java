@@ -0,0 +1,116 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.AbstractExecutionThreadService;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.inject.Inject;
+import com.google.inject.assistedinject.Assisted;
+import dev.sbutler.bitflask.config.ServerConfig;
+import java.io.IOException;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Handles accepting incoming RESP based client connections and serving them with a fixed number
+ * of {@link RespEventLoop}s.
+ *
+ * <p>Unlike {@link RespNetworkService}, connections are not given a thread or socket streams of
+ * their own, which keeps the memory held by mostly idle connections small. Accepted connections
+ * are distributed across the event loops round-robin.
+ *
+ * <p>If this service is shutdown, all event loops and their connections will also be shutdown.
+ */
+final class SelectorRespNetworkService extends AbstractExecutionThreadService {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final ListeningExecutorService listeningExecutorService;
+  private final RespRequestHandler respRequestHandler;
+  private final ServerMetrics serverMetrics;
+  private final ServerSocketChannel serverSocketChannel;
+  private final int numEventLoops;
+
+  private volatile ImmutableList<RespEventLoop> eventLoops = ImmutableList.of();
+  private volatile ImmutableList<Thread> eventLoopThreads = ImmutableList.of();
+  private volatile boolean shouldContinueRunning = true;
+
+  @Inject
+  SelectorRespNetworkService(
+      ListeningExecutorService listeningExecutorService,
+      RespRequestHandler respRequestHandler,
+      ServerMetrics serverMetrics,
+      ServerConfig serverConfig,
+      @Assisted ServerSocketChannel serverSocketChannel) {
+    this.listeningExecutorService = listeningExecutorService;
+    this.respRequestHandler = respRequestHandler;
+    this.serverMetrics = serverMetrics;
+    this.serverSocketChannel = serverSocketChannel;
+    this.numEventLoops =
+        serverConfig.getSelectorEventLoops() > 0
+            ? serverConfig.getSelectorEventLoops()
+            : Runtime.getRuntime().availableProcessors();
+  }
+
+  interface Factory {
+    SelectorRespNetworkService create(ServerSocketChannel serverSocketChannel);
+  }
+
+  @Override
+  protected void startUp() throws IOException {
+    ImmutableList.Builder<RespEventLoop> eventLoops = ImmutableList.builder();
+    ImmutableList.Builder<Thread> eventLoopThreads = ImmutableList.builder();
+    for (int i = 0; i < numEventLoops; i++) {
+      RespEventLoop eventLoop =
+          new RespEventLoop(
+              Selector.open(), respRequestHandler, listeningExecutorService, serverMetrics);
+      eventLoops.add(eventLoop);
+      eventLoopThreads.add(Thread.ofPlatform().name("resp-event-loop-" + i).start(eventLoop));
+    }
+    this.eventLoops = eventLoops.build();
+    this.eventLoopThreads = eventLoopThreads.build();
+    logger.atInfo().log("Serving client connections with [%d] event loops", numEventLoops);
+  }
+
+  @Override
+  protected void run() {
+    try {
+      int nextEventLoop = 0;
+      while (shouldContinueRunning
+          && serverSocketChannel.isOpen()
+          && !Thread.currentThread().isInterrupted()) {
+        SocketChannel socketChannel = serverSocketChannel.accept();
+        logger.atInfo().log(
+            "Received incoming client connection from [%s]", socketChannel.getRemoteAddress());
+        socketChannel.configureBlocking(false);
+        eventLoops.get(nextEventLoop).register(socketChannel);
+        nextEventLoop = (nextEventLoop + 1) % eventLoops.size();
+      }
+    } catch (IOException e) {
+      if (shouldContinueRunning) {
+        logger.atSevere().withCause(e).log("Failed to accept resp connection. Shutting down.");
+      }
+    } finally {
+      triggerShutdown();
+    }
+  }
+
+  @Override
+  protected void triggerShutdown() {
+    shouldContinueRunning = false;
+    try {
+      serverSocketChannel.close();
+    } catch (IOException e) {
+      logger.atWarning().withCause(e).log("Error closing the ServerSocketChannel");
+    }
+    eventLoops.forEach(RespEventLoop::triggerShutdown);
+  }
+
+  @Override
+  protected void shutDown() throws InterruptedException {
+    for (Thread eventLoopThread : eventLoopThreads) {
+      eventLoopThread.join();
+    }
+  }
+}
@@ -1,13 +1,23 @@
 package dev.sbutler.bitflask.server;
 
+import dev.sbutler.bitflask.resp.messages.RespRequest.SlowLogRequest;
 import dev.sbutler.bitflask.storage.commands.ClientCommand;
 import dev.sbutler.bitflask.storage.commands.ClientCommandResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 
 /** A general interface representing any command executed by the server. */
-sealed interface ServerCommand permits ServerCommand.StorageCommand, ServerCommand.PingCommand {
+sealed interface ServerCommand
+    permits ServerCommand.StorageCommand,
+        ServerCommand.PingCommand,
+        ServerCommand.InfoCommand,
+        ServerCommand.SlowLogCommand {
 
-  /** Executes the corresponding command */
-  ClientCommandResults execute();
+  /**
+   * Executes the corresponding command.
+   *
+   * <p>Commands executed by storage mark their progress on the {@link CommandTrace}.
+   */
+  ClientCommandResults execute(CommandTrace trace);
 
   /** A {@link ServerCommand} that interacts with storage. */
   final class StorageCommand implements ServerCommand {
@@ -20,8 +30,8 @@ sealed interface ServerCommand permits ServerCommand.StorageCommand, ServerComma
 
     /** A blocking call that executes against the storage engine. */
     @Override
-    public ClientCommandResults execute() {
-      return clientCommand.execute();
+    public ClientCommandResults execute(CommandTrace trace) {
+      return clientCommand.execute(trace);
     }
   }
 
@@ -29,8 +39,48 @@ sealed interface ServerCommand permits ServerCommand.StorageCommand, ServerComma
   final class PingCommand implements ServerCommand {
 
     @Override
-    public ClientCommandResults execute() {
+    public ClientCommandResults execute(CommandTrace trace) {
       return new ClientCommandResults.Success("pong");
     }
   }
+
+  /** Reports the server's connection, latency, and storage statistics. */
+  final class InfoCommand implements ServerCommand {
+
+    private final InfoReporter infoReporter;
+
+    InfoCommand(InfoReporter infoReporter) {
+      this.infoReporter = infoReporter;
+    }
+
+    @Override
+    public ClientCommandResults execute(CommandTrace trace) {
+      return new ClientCommandResults.Success(infoReporter.createReport());
+    }
+  }
+
+  /** Reads or clears the server's {@link SlowLog}. */
+  final class SlowLogCommand implements ServerCommand {
+
+    private final SlowLog slowLog;
+    private final SlowLogRequest request;
+
+    SlowLogCommand(SlowLog slowLog, SlowLogRequest request) {
+      this.slowLog = slowLog;
+      this.request = request;
+    }
+
+    @Override
+    public ClientCommandResults execute(CommandTrace trace) {
+      return switch (request.getSubcommand()) {
+        case GET -> new ClientCommandResults.Success(
+            slowLog.createReport(request.getCount().orElse(Long.MAX_VALUE)));
+        case LEN -> new ClientCommandResults.Success(String.valueOf(slowLog.getLength()));
+        case RESET -> {
+          slowLog.reset();
+          yield new ClientCommandResults.Success("OK");
+        }
+      };
+    }
+  }
 }
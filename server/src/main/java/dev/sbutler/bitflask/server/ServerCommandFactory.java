@@ -4,34 +4,71 @@ import dev.sbutler.bitflask.resp.messages.RespRequest;
 import dev.sbutler.bitflask.storage.commands.ClientCommand;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import jakarta.inject.Inject;
+import java.time.Instant;
 
 /** Handles creating {@link ServerCommand}s from client requests. */
 final class ServerCommandFactory {
 
   private final ClientCommand.Factory clientCommandFactory;
+  private final InfoReporter infoReporter;
+  private final SlowLog slowLog;
 
   @Inject
-  ServerCommandFactory(ClientCommand.Factory clientCommandFactory) {
+  ServerCommandFactory(
+      ClientCommand.Factory clientCommandFactory, InfoReporter infoReporter, SlowLog slowLog) {
     this.clientCommandFactory = clientCommandFactory;
+    this.infoReporter = infoReporter;
+    this.slowLog = slowLog;
   }
 
   /** Creates a ServerCommand from a {@link RespRequest}. */
   public ServerCommand createCommand(RespRequest request) {
     return switch (request) {
       case RespRequest.PingRequest _ignored -> new ServerCommand.PingCommand();
+      case RespRequest.InfoRequest _ignored -> new ServerCommand.InfoCommand(infoReporter);
+      case RespRequest.SlowLogRequest slowLogRequest -> new ServerCommand.SlowLogCommand(
+          slowLog, slowLogRequest);
       case RespRequest.GetRequest getRequest -> {
         var storageCommandDTO = new StorageCommandDto.ReadDto(getRequest.getKey());
         yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
       }
+      case RespRequest.MultiGetRequest multiGetRequest -> {
+        var storageCommandDTO = new StorageCommandDto.MultiReadDto(multiGetRequest.getKeys());
+        yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
+      }
       case RespRequest.SetRequest setRequest -> {
+        // The relative expiry is resolved now so the mapping expires at the same time wherever
+        // the command is replicated
+        long expiryEpochSeconds =
+            setRequest
+                .getExpirySeconds()
+                .map(seconds -> Instant.now().getEpochSecond() + seconds)
+                .orElse(0L);
         var storageCommandDTO =
-            new StorageCommandDto.WriteDto(setRequest.getKey(), setRequest.getValue());
+            new StorageCommandDto.WriteDto(
+                setRequest.getKey(), setRequest.getValue(), expiryEpochSeconds);
         yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
       }
       case RespRequest.DeleteRequest deleteRequest -> {
         var storageCommandDTO = new StorageCommandDto.DeleteDto(deleteRequest.getKey());
         yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
       }
+      // Merge operands are stamped now so that the expiry of the value they are merged onto is
+      // evaluated at the same time wherever the command is replicated
+      case RespRequest.IncrementByRequest incrementByRequest -> {
+        var storageCommandDTO =
+            new StorageCommandDto.IncrementDto(
+                incrementByRequest.getKey(),
+                incrementByRequest.getDelta(),
+                Instant.now().getEpochSecond());
+        yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
+      }
+      case RespRequest.AppendRequest appendRequest -> {
+        var storageCommandDTO =
+            new StorageCommandDto.AppendDto(
+                appendRequest.getKey(), appendRequest.getValue(), Instant.now().getEpochSecond());
+        yield new ServerCommand.StorageCommand(clientCommandFactory.create(storageCommandDTO));
+      }
     };
   }
 }
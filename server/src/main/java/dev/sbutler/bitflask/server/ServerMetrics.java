@@ -0,0 +1,71 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Tables;
+import dev.sbutler.bitflask.common.metrics.Histogram;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of the latency of client requests and the number of client connections.
+ *
+ * <p>Latencies are recorded in microseconds per {@link RespRequestCode} and {@link RequestPhase}.
+ * All recording methods are lock-free and may be called concurrently by every connection.
+ */
+@Singleton
+final class ServerMetrics {
+
+  private final ImmutableTable<RespRequestCode, RequestPhase, Histogram> latencyMicros;
+  private final LongAdder numConnectionsReceived = new LongAdder();
+  private final LongAdder numOpenConnections = new LongAdder();
+
+  @Inject
+  ServerMetrics() {
+    ImmutableTable.Builder<RespRequestCode, RequestPhase, Histogram> latencyMicros =
+        ImmutableTable.builder();
+    for (RespRequestCode requestCode : RespRequestCode.values()) {
+      for (RequestPhase phase : RequestPhase.values()) {
+        latencyMicros.put(requestCode, phase, new Histogram());
+      }
+    }
+    this.latencyMicros = latencyMicros.build();
+  }
+
+  /** Records the time spent in each phase the traced request completed. */
+  void recordRequest(RequestTrace trace) {
+    for (Map.Entry<RequestPhase, Long> phaseNanos : trace.getPhaseNanos().entrySet()) {
+      latencyMicros
+          .get(trace.getRequestCode(), phaseNanos.getKey())
+          .record(Math.max(0, phaseNanos.getValue() / 1_000));
+    }
+  }
+
+  /** Records a client connection being accepted. */
+  void recordConnectionOpened() {
+    numConnectionsReceived.increment();
+    numOpenConnections.increment();
+  }
+
+  /** Records a client connection being closed. */
+  void recordConnectionClosed() {
+    numOpenConnections.decrement();
+  }
+
+  /** The number of client connections accepted since the server started. */
+  long getNumConnectionsReceived() {
+    return numConnectionsReceived.sum();
+  }
+
+  /** The number of client connections currently open. */
+  long getNumOpenConnections() {
+    return numOpenConnections.sum();
+  }
+
+  /** Returns a point-in-time copy of the latency of every request type and phase. */
+  ImmutableTable<RespRequestCode, RequestPhase, Histogram.Snapshot> getLatencyMicros() {
+    return ImmutableTable.copyOf(Tables.transformValues(latencyMicros, Histogram::snapshot));
+  }
+}
@@ -5,7 +5,10 @@ import com.google.common.util.concurrent.Service;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
 import dev.sbutler.bitflask.common.guice.RootModule;
+import dev.sbutler.bitflask.config.ServerConfig;
+import java.net.InetSocketAddress;
 import java.nio.channels.ServerSocketChannel;
+import java.util.Optional;
 
 public class ServerModule extends RootModule {
 
@@ -18,12 +21,43 @@ public class ServerModule extends RootModule {
   @Override
   protected void configure() {
     install(new FactoryModuleBuilder().build(RespNetworkService.Factory.class));
+    install(new FactoryModuleBuilder().build(SelectorRespNetworkService.Factory.class));
     install(new FactoryModuleBuilder().build(RespClientRequestProcessor.Factory.class));
+    install(new FactoryModuleBuilder().build(MetricsHttpService.Factory.class));
   }
 
   @Override
   public ImmutableSet<Service> getServices(Injector injector) {
-    return ImmutableSet.of(
-        injector.getInstance(RespNetworkService.Factory.class).create(serverSocketChannel));
+    ServerConfig serverConfig = injector.getInstance(ServerConfig.class);
+    ImmutableSet.Builder<Service> services = ImmutableSet.builder();
+    services.add(createRespNetworkService(injector, serverConfig.getNetworkEngine()));
+    getThisServerMetricsPort(serverConfig)
+        .map(InetSocketAddress::new)
+        .map(injector.getInstance(MetricsHttpService.Factory.class)::create)
+        .ifPresent(services::add);
+    return services.build();
+  }
+
+  private Service createRespNetworkService(
+      Injector injector, ServerConfig.NetworkEngine networkEngine) {
+    return switch (networkEngine) {
+      case SELECTOR -> injector
+          .getInstance(SelectorRespNetworkService.Factory.class)
+          .create(serverSocketChannel);
+      case BLOCKING -> injector
+          .getInstance(RespNetworkService.Factory.class)
+          .create(serverSocketChannel);
+      case UNRECOGNIZED -> throw new IllegalArgumentException(
+          "Unrecognized ServerConfig.NetworkEngine");
+    };
+  }
+
+  /** Returns the port this server's metrics endpoint should listen on, if it is enabled. */
+  private static Optional<Integer> getThisServerMetricsPort(ServerConfig serverConfig) {
+    return serverConfig.getBitflaskServersList().stream()
+        .filter(info -> info.getServerId().equals(serverConfig.getThisServerId()))
+        .map(ServerConfig.ServerInfo::getMetricsPort)
+        .filter(metricsPort -> metricsPort > 0)
+        .findFirst();
   }
 }
@@ -0,0 +1,211 @@
+package dev.sbutler.bitflask.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import dev.sbutler.bitflask.config.ServerConfig;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.types.RespBulkString;
+import dev.sbutler.bitflask.resp.types.RespElement;
+import dev.sbutler.bitflask.resp.types.RespInteger;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed size log of the most recent client requests that took longer than the configured
+ * threshold, in the style of Redis' SLOWLOG.
+ *
+ * <p>Entries are stored in a ring buffer so the oldest are overwritten once it is full. Each entry
+ * holds the time spent in each {@link RequestPhase} and, for requests sampled to record one, the
+ * {@link ReadTrace} of the storage engine's read path. Recording is lock-free and a request's trace
+ * is only inspected beyond its total latency when it exceeds the threshold.
+ */
+@Singleton
+final class SlowLog {
+
+  /** The maximum number of a request's arguments included in its entry. */
+  static final int MAX_ARGUMENTS = 32;
+
+  /** The maximum number of characters of a request's argument included in its entry. */
+  static final int MAX_ARGUMENT_LENGTH = 128;
+
+  private final long thresholdNanos;
+  private final int readTraceSamplePercent;
+  private final AtomicReferenceArray<Entry> entries;
+  private final AtomicLong nextEntryId = new AtomicLong();
+
+  @Inject
+  SlowLog(ServerConfig serverConfig) {
+    this.thresholdNanos = serverConfig.getSlowLogThresholdMicroseconds() * 1_000L;
+    this.readTraceSamplePercent = serverConfig.getReadTraceSamplePercent();
+    this.entries = new AtomicReferenceArray<>(serverConfig.getSlowLogMaxEntries());
+  }
+
+  /** Whether the slow log records requests. */
+  boolean isEnabled() {
+    return thresholdNanos > 0 && entries.length() > 0;
+  }
+
+  /** Decides whether a request should record a {@link ReadTrace} for the slow log. */
+  boolean shouldSampleReadTrace() {
+    return isEnabled()
+        && readTraceSamplePercent > 0
+        && ThreadLocalRandom.current().nextInt(100) < readTraceSamplePercent;
+  }
+
+  /** Records the traced request if it took longer than the threshold. */
+  void recordIfSlow(RespRequest request, RequestTrace trace) {
+    if (!isEnabled() || trace.getTotalNanos() < thresholdNanos) {
+      return;
+    }
+    long id = nextEntryId.getAndIncrement();
+    entries.set(
+        (int) (id % entries.length()),
+        new Entry(
+            id,
+            Instant.now(),
+            describe(request),
+            trace.getPhaseNanos(),
+            trace.getCommandTrace().getReadTrace()));
+  }
+
+  /** Returns up to {@code count} of the most recent entries, newest first. */
+  ImmutableList<Entry> getEntries(long count) {
+    List<Entry> currentEntries = new ArrayList<>(entries.length());
+    for (int i = 0; i < entries.length(); i++) {
+      Entry entry = entries.get(i);
+      if (entry != null) {
+        currentEntries.add(entry);
+      }
+    }
+    return currentEntries.stream()
+        .sorted(Comparator.comparingLong(Entry::id).reversed())
+        .limit(count)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /** Returns the number of entries currently in the log. */
+  int getLength() {
+    int length = 0;
+    for (int i = 0; i < entries.length(); i++) {
+      if (entries.get(i) != null) {
+        length++;
+      }
+    }
+    return length;
+  }
+
+  /** Removes all entries from the log. */
+  void reset() {
+    for (int i = 0; i < entries.length(); i++) {
+      entries.set(i, null);
+    }
+  }
+
+  /**
+   * Creates the human-readable report returned for a SLOWLOG GET request, with one line of {@code
+   * name=value} pairs per entry.
+   */
+  String createReport(long count) {
+    StringBuilder report = new StringBuilder();
+    for (Entry entry : getEntries(count)) {
+      report
+          .append("id=")
+          .append(entry.id())
+          .append(" time=")
+          .append(entry.timestamp())
+          .append(" request=\"")
+          .append(entry.request())
+          .append('"');
+      for (Map.Entry<RequestPhase, Long> phaseNanos : entry.phaseNanos().entrySet()) {
+        report
+            .append(' ')
+            .append(phaseNanos.getKey().name().toLowerCase(Locale.ROOT))
+            .append("_us=")
+            .append(phaseNanos.getValue() / 1_000);
+      }
+      entry
+          .readTrace()
+          .ifPresent(
+              readTrace ->
+                  report
+                      .append(" state_lock_wait_us=")
+                      .append(readTrace.getStateLockWaitNanos() / 1_000)
+                      .append(" memtable_lock_wait_us=")
+                      .append(readTrace.getMemtableLockWaitNanos() / 1_000)
+                      .append(" filter_checks=")
+                      .append(readTrace.getNumFilterChecks())
+                      .append(" filter_negatives=")
+                      .append(readTrace.getNumFilterNegatives())
+                      .append(" segments_read=")
+                      .append(readTrace.getNumSegmentsRead())
+                      .append(" filter_false_positives=")
+                      .append(readTrace.getNumFilterFalsePositives()));
+      report.append('\n');
+    }
+    return report.toString();
+  }
+
+  /**
+   * Describes the request by its type and arguments, truncating long or numerous arguments so
+   * entries for large requests stay small.
+   */
+  private static String describe(RespRequest request) {
+    StringBuilder description = new StringBuilder(request.getRequestCode().name());
+    List<RespElement> arguments = request.getAsRespArray().getValue();
+    // The first element is the request code
+    for (int i = 1; i < arguments.size(); i++) {
+      if (i > MAX_ARGUMENTS) {
+        description
+            .append(" ... (")
+            .append(arguments.size() - 1 - MAX_ARGUMENTS)
+            .append(" more arguments)");
+        break;
+      }
+      description.append(' ').append(describe(arguments.get(i)));
+    }
+    return description.toString();
+  }
+
+  private static String describe(RespElement argument) {
+    if (argument instanceof RespInteger respInteger) {
+      return String.valueOf(respInteger.getValue());
+    }
+    if (argument instanceof RespBulkString respBulkString) {
+      String value = respBulkString.getValue();
+      if (value.length() > MAX_ARGUMENT_LENGTH) {
+        return String.format(
+            "%s... (%d more characters)",
+            value.substring(0, MAX_ARGUMENT_LENGTH), value.length() - MAX_ARGUMENT_LENGTH);
+      }
+      return value;
+    }
+    return argument.toString();
+  }
+
+  /**
+   * A request recorded in the {@link SlowLog}.
+   *
+   * @param id a unique id, increasing with each recorded request
+   * @param timestamp when the request was recorded
+   * @param request the request's type and, possibly truncated, arguments
+   * @param phaseNanos the nanoseconds spent in each {@link RequestPhase} the request completed
+   * @param readTrace the trace of the request's read path, if it was sampled
+   */
+  record Entry(
+      long id,
+      Instant timestamp,
+      String request,
+      ImmutableMap<RequestPhase, Long> phaseNanos,
+      Optional<ReadTrace> readTrace) {}
+}
@@ -0,0 +1,59 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link InfoReporter}. */
+public class InfoReporterTest {
+
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+  private final LSMTree lsmTree = mock(LSMTree.class);
+
+  private final InfoReporter infoReporter = new InfoReporter(serverMetrics, lsmTree);
+
+  @Test
+  public void createReport() {
+    StorageStats storageStats = new StorageStats();
+    storageStats.recordRead(2);
+    storageStats.recordCompaction(0, 100, 50);
+    when(lsmTree.getStats())
+        .thenReturn(storageStats.snapshot(ImmutableListMultimap.of(1, 50L)));
+    serverMetrics.recordConnectionOpened();
+    RequestTrace trace = new RequestTrace(RespRequestCode.GET, System.nanoTime());
+    trace.getCommandTrace().markSubmitted(false);
+    trace.getCommandTrace().markStorageStarted();
+    trace.getCommandTrace().markStorageFinished();
+    trace.markExecuted();
+    trace.markResponded();
+    serverMetrics.recordRequest(trace);
+
+    ImmutableList<String> lines = ImmutableList.copyOf(infoReporter.createReport().split("\n"));
+
+    assertThat(lines).containsAtLeast("# Connections", "# Latency", "# Storage").inOrder();
+    assertThat(lines).containsAtLeast("connections_open:1", "connections_received:1");
+    assertThat(lines.stream().filter(line -> line.startsWith("get.")).map(this::name).toList())
+        .containsExactly("get.queueing", "get.storage", "get.response_write", "get.total")
+        .inOrder();
+    assertThat(lines).containsAtLeast("reads:1", "read_amplification:2.000");
+    assertThat(lines)
+        .contains(
+            "level_0:segments=0,bytes=0,compactions=1,compaction_bytes_read=100,"
+                + "compaction_bytes_written=50,stale_ratio=0.500");
+    assertThat(lines)
+        .contains(
+            "level_1:segments=1,bytes=50,compactions=0,compaction_bytes_read=0,"
+                + "compaction_bytes_written=0,stale_ratio=0.000");
+  }
+
+  private String name(String line) {
+    return line.substring(0, line.indexOf(':'));
+  }
+}
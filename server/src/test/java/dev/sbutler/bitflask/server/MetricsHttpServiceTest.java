@@ -0,0 +1,88 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link MetricsHttpService}. */
+public class MetricsHttpServiceTest {
+
+  private final ListeningExecutorService executorService =
+      MoreExecutors.listeningDecorator(Executors.newVirtualThreadPerTaskExecutor());
+  private final PrometheusExporter prometheusExporter = mock(PrometheusExporter.class);
+  private final HttpClient httpClient = HttpClient.newHttpClient();
+
+  private final MetricsHttpService metricsHttpService =
+      new MetricsHttpService(
+          executorService,
+          prometheusExporter,
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+
+  @BeforeEach
+  public void beforeEach() {
+    metricsHttpService.startAsync().awaitRunning();
+  }
+
+  @AfterEach
+  public void afterEach() {
+    metricsHttpService.stopAsync().awaitTerminated();
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void get_metrics_returnsExposition() throws Exception {
+    when(prometheusExporter.createExposition()).thenReturn("bitflask_raft_term 1\n");
+
+    HttpResponse<String> response = send("GET", MetricsHttpService.METRICS_PATH);
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(response.headers().firstValue("Content-Type"))
+        .isEqualTo(Optional.of(PrometheusExporter.CONTENT_TYPE));
+    assertThat(response.body()).isEqualTo("bitflask_raft_term 1\n");
+  }
+
+  @Test
+  public void post_metrics_methodNotAllowed() throws Exception {
+    HttpResponse<String> response = send("POST", MetricsHttpService.METRICS_PATH);
+
+    assertThat(response.statusCode()).isEqualTo(405);
+  }
+
+  @Test
+  public void get_metrics_exporterFailure_internalServerError() throws Exception {
+    when(prometheusExporter.createExposition()).thenThrow(new IllegalStateException("test"));
+
+    HttpResponse<String> response = send("GET", MetricsHttpService.METRICS_PATH);
+
+    assertThat(response.statusCode()).isEqualTo(500);
+  }
+
+  @Test
+  public void get_otherPath_notFound() throws Exception {
+    HttpResponse<String> response = send("GET", "/other");
+
+    assertThat(response.statusCode()).isEqualTo(404);
+  }
+
+  private HttpResponse<String> send(String method, String path) throws Exception {
+    InetSocketAddress address = metricsHttpService.getBoundAddress();
+    URI uri = URI.create("http://127.0.0.1:" + address.getPort() + path);
+    HttpRequest request =
+        HttpRequest.newBuilder(uri).method(method, HttpRequest.BodyPublishers.noBody()).build();
+    return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+}
@@ -0,0 +1,122 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
+import dev.sbutler.bitflask.storage.raft.Raft;
+import dev.sbutler.bitflask.storage.raft.RaftMode;
+import dev.sbutler.bitflask.storage.raft.RaftStats;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link PrometheusExporter}. */
+public class PrometheusExporterTest {
+
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+  private final LSMTree lsmTree = mock(LSMTree.class);
+  private final Raft raft = mock(Raft.class);
+
+  private final PrometheusExporter prometheusExporter =
+      new PrometheusExporter(serverMetrics, lsmTree, raft);
+
+  @BeforeEach
+  public void beforeEach() {
+    StorageStats storageStats = new StorageStats();
+    storageStats.recordRead(2);
+    storageStats.recordCompaction(0, 100, 50);
+    when(lsmTree.getStats()).thenReturn(storageStats.snapshot(ImmutableListMultimap.of(1, 50L)));
+    when(raft.getStats())
+        .thenReturn(new RaftStats.Snapshot(Optional.of(RaftMode.LEADER), 3, 10, 9, 8, 2, 1, 8));
+  }
+
+  @Test
+  public void createExposition_connections() {
+    serverMetrics.recordConnectionOpened();
+
+    ImmutableList<String> lines = createExpositionLines();
+
+    assertThat(lines)
+        .containsAtLeast(
+            "# HELP bitflask_connections_open Client connections currently open.",
+            "# TYPE bitflask_connections_open gauge",
+            "bitflask_connections_open 1",
+            "# TYPE bitflask_connections_received_total counter",
+            "bitflask_connections_received_total 1")
+        .inOrder();
+  }
+
+  @Test
+  public void createExposition_requestLatencies() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.GET, System.nanoTime());
+    trace.getCommandTrace().markSubmitted(false);
+    trace.getCommandTrace().markStorageStarted();
+    trace.getCommandTrace().markStorageFinished();
+    trace.markExecuted();
+    trace.markResponded();
+    serverMetrics.recordRequest(trace);
+
+    ImmutableList<String> lines = createExpositionLines();
+
+    assertThat(lines).contains("# TYPE bitflask_request_duration_seconds histogram");
+    assertThat(lines)
+        .containsAtLeast(
+            "bitflask_request_duration_seconds_bucket"
+                + "{command=\"get\",phase=\"total\",le=\"+Inf\"} 1",
+            "bitflask_request_duration_seconds_count{command=\"get\",phase=\"total\"} 1")
+        .inOrder();
+    assertThat(lines.stream().filter(line -> line.contains("phase=\"raft_commit\"")).toList())
+        .isEmpty();
+  }
+
+  @Test
+  public void createExposition_storage() {
+    ImmutableList<String> lines = createExpositionLines();
+
+    assertThat(lines)
+        .containsAtLeast(
+            "bitflask_storage_reads_total 1",
+            "bitflask_storage_segments_probed_bucket{le=\"1\"} 0",
+            "bitflask_storage_segments_probed_bucket{le=\"2\"} 1",
+            "bitflask_storage_segments_probed_bucket{le=\"+Inf\"} 1",
+            "bitflask_storage_segments_probed_sum 2",
+            "bitflask_storage_segments_probed_count 1",
+            "bitflask_storage_read_amplification 2")
+        .inOrder();
+    assertThat(lines)
+        .containsAtLeast(
+            "bitflask_storage_level_bytes{level=\"0\"} 0",
+            "bitflask_storage_level_bytes{level=\"1\"} 50",
+            "bitflask_storage_level_compaction_bytes_read_total{level=\"0\"} 100")
+        .inOrder();
+  }
+
+  @Test
+  public void createExposition_raft() {
+    ImmutableList<String> lines = createExpositionLines();
+
+    assertThat(lines)
+        .containsAtLeast(
+            "bitflask_raft_mode{mode=\"follower\"} 0",
+            "bitflask_raft_mode{mode=\"candidate\"} 0",
+            "bitflask_raft_mode{mode=\"leader\"} 1",
+            "bitflask_raft_term 3",
+            "bitflask_raft_last_log_index 10",
+            "bitflask_raft_commit_index 9",
+            "bitflask_raft_applied_index 8",
+            "bitflask_raft_elections_started_total 2",
+            "bitflask_raft_leaderships_acquired_total 1",
+            "bitflask_raft_entries_applied_total 8")
+        .inOrder();
+  }
+
+  private ImmutableList<String> createExpositionLines() {
+    return ImmutableList.copyOf(prometheusExporter.createExposition().split("\n"));
+  }
+}
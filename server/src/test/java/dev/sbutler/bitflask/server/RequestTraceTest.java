@@ -0,0 +1,84 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link RequestTrace}. */
+public class RequestTraceTest {
+
+  @Test
+  public void getPhaseNanos_read() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.GET, System.nanoTime());
+    trace.getCommandTrace().markSubmitted(false);
+    trace.getCommandTrace().markStorageStarted();
+    trace.getCommandTrace().markStorageFinished();
+    trace.markExecuted();
+    trace.markResponded();
+
+    var phaseNanos = trace.getPhaseNanos();
+
+    assertThat(phaseNanos.keySet())
+        .containsExactly(
+            RequestPhase.QUEUEING,
+            RequestPhase.STORAGE,
+            RequestPhase.RESPONSE_WRITE,
+            RequestPhase.TOTAL);
+    phaseNanos.values().forEach(nanos -> assertThat(nanos).isAtLeast(0));
+  }
+
+  @Test
+  public void getPhaseNanos_write() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.SET, System.nanoTime());
+    trace.getCommandTrace().markSubmitted(true);
+    trace.getCommandTrace().markStorageStarted();
+    trace.getCommandTrace().markStorageFinished();
+    trace.markExecuted();
+    trace.markResponded();
+
+    var phaseNanos = trace.getPhaseNanos();
+
+    assertThat(phaseNanos.keySet())
+        .containsExactly(
+            RequestPhase.QUEUEING,
+            RequestPhase.RAFT_COMMIT,
+            RequestPhase.STORAGE,
+            RequestPhase.RESPONSE_WRITE,
+            RequestPhase.TOTAL);
+    assertThat(phaseNanos.get(RequestPhase.TOTAL))
+        .isAtLeast(
+            phaseNanos.get(RequestPhase.QUEUEING)
+                + phaseNanos.get(RequestPhase.RAFT_COMMIT)
+                + phaseNanos.get(RequestPhase.STORAGE)
+                + phaseNanos.get(RequestPhase.RESPONSE_WRITE));
+  }
+
+  @Test
+  public void getPhaseNanos_notExecutedByStorage() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.PING, System.nanoTime());
+    trace.markExecuted();
+    trace.markResponded();
+
+    assertThat(trace.getPhaseNanos().keySet())
+        .containsExactly(RequestPhase.RESPONSE_WRITE, RequestPhase.TOTAL);
+  }
+
+  @Test
+  public void getPhaseNanos_notCurrentLeader() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.SET, System.nanoTime());
+    trace.getCommandTrace().markSubmitted(true);
+    trace.markExecuted();
+    trace.markResponded();
+
+    assertThat(trace.getPhaseNanos().keySet())
+        .containsExactly(RequestPhase.QUEUEING, RequestPhase.RESPONSE_WRITE, RequestPhase.TOTAL);
+  }
+
+  @Test
+  public void getPhaseNanos_notResponded() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.PING, System.nanoTime());
+
+    assertThat(trace.getPhaseNanos()).isEmpty();
+  }
+}
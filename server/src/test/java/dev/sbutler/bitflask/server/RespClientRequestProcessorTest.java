@@ -5,8 +5,11 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.ConfigDefaults;
 import dev.sbutler.bitflask.config.ServerConfig;
 import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
 import dev.sbutler.bitflask.resp.messages.RespResponse;
 import dev.sbutler.bitflask.resp.messages.RespResponseCode;
 import dev.sbutler.bitflask.resp.network.RespService;
@@ -18,6 +21,7 @@ import dev.sbutler.bitflask.storage.commands.ClientCommandResults;
 import java.io.EOFException;
 import java.io.IOException;
 import java.net.ProtocolException;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -26,10 +30,13 @@ import org.mockito.ArgumentCaptor;
 public class RespClientRequestProcessorTest {
 
   private final ServerCommandFactory serverCommandFactory = mock(ServerCommandFactory.class);
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+  private final SlowLog slowLog = new SlowLog(ConfigDefaults.SERVER_CONFIG);
   private final RespService respService = mock(RespService.class);
 
   private final RespClientRequestProcessor respClientRequestProcessor =
-      new RespClientRequestProcessor(serverCommandFactory, respService);
+      new RespClientRequestProcessor(
+          new RespRequestHandler(serverCommandFactory, serverMetrics, slowLog), respService);
 
   @BeforeEach
   public void beforeEach() {
@@ -68,13 +75,48 @@ public class RespClientRequestProcessorTest {
     verify(respService, never()).close();
   }
 
+  @Test
+  public void processNextRespRequest_latencyRecorded() throws Exception {
+    RespElement rawClientMessage = new RespRequest.PingRequest().getAsRespArray();
+    when(respService.read()).thenReturn(rawClientMessage);
+    when(serverCommandFactory.createCommand(any())).thenReturn(new ServerCommand.PingCommand());
+
+    respClientRequestProcessor.processNextRespRequest();
+
+    var latencyMicros = serverMetrics.getLatencyMicros();
+    assertThat(latencyMicros.get(RespRequestCode.PING, RequestPhase.TOTAL).count()).isEqualTo(1);
+    assertThat(latencyMicros.get(RespRequestCode.PING, RequestPhase.RESPONSE_WRITE).count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  public void processNextRespRequest_respResponse_multiSuccess() throws Exception {
+    RespElement rawClientMessage =
+        new RespRequest.MultiGetRequest(ImmutableList.of(ByteString.copyFromUtf8("key")))
+            .getAsRespArray();
+    when(respService.read()).thenReturn(rawClientMessage);
+    ServerCommand serverCommand = mock(ServerCommand.StorageCommand.class);
+    when(serverCommandFactory.createCommand(any())).thenReturn(serverCommand);
+    ImmutableList<Optional<ByteString>> values =
+        ImmutableList.of(Optional.of(ByteString.copyFromUtf8("value")), Optional.empty());
+    when(serverCommand.execute(any())).thenReturn(new ClientCommandResults.MultiSuccess(values));
+
+    respClientRequestProcessor.processNextRespRequest();
+
+    ArgumentCaptor<RespArray> responseCaptor = ArgumentCaptor.forClass(RespArray.class);
+    verify(respService, times(1)).write(responseCaptor.capture());
+    assertThat(RespResponse.createFromRespArray(responseCaptor.getValue()))
+        .isEqualTo(new RespResponse.MultiSuccess(values));
+    verify(respService, never()).close();
+  }
+
   @Test
   public void processNextRespRequest_respResponse_failure() throws Exception {
     RespElement rawClientMessage = new RespRequest.PingRequest().getAsRespArray();
     when(respService.read()).thenReturn(rawClientMessage);
     ServerCommand serverCommand = mock(ServerCommand.StorageCommand.class);
     when(serverCommandFactory.createCommand(any())).thenReturn(serverCommand);
-    when(serverCommand.execute()).thenReturn(new ClientCommandResults.Failure("test"));
+    when(serverCommand.execute(any())).thenReturn(new ClientCommandResults.Failure("test"));
 
     respClientRequestProcessor.processNextRespRequest();
 
@@ -90,7 +132,7 @@ public class RespClientRequestProcessorTest {
     when(respService.read()).thenReturn(rawClientMessage);
     ServerCommand serverCommand = mock(ServerCommand.StorageCommand.class);
     when(serverCommandFactory.createCommand(any())).thenReturn(serverCommand);
-    when(serverCommand.execute())
+    when(serverCommand.execute(any()))
         .thenReturn(
             new ClientCommandResults.NotCurrentLeader(
                 ServerConfig.ServerInfo.newBuilder()
@@ -118,7 +160,7 @@ public class RespClientRequestProcessorTest {
     when(respService.read()).thenReturn(rawClientMessage);
     ServerCommand serverCommand = mock(ServerCommand.StorageCommand.class);
     when(serverCommandFactory.createCommand(any())).thenReturn(serverCommand);
-    when(serverCommand.execute()).thenReturn(new ClientCommandResults.NoKnownLeader());
+    when(serverCommand.execute(any())).thenReturn(new ClientCommandResults.NoKnownLeader());
 
     respClientRequestProcessor.processNextRespRequest();
 
@@ -167,6 +209,9 @@ public class RespClientRequestProcessorTest {
     verify(respService, times(1)).write(responseCaptor.capture());
     assertRawResponseWithMessage(responseCaptor.getValue(), RespResponseCode.SUCCESS, "pong");
     verify(respService, times(1)).close();
+    assertThat(
+            serverMetrics.getLatencyMicros().get(RespRequestCode.PING, RequestPhase.TOTAL).count())
+        .isEqualTo(0);
   }
 
   @Test
@@ -236,7 +281,7 @@ public class RespClientRequestProcessorTest {
     ServerCommand command = mock(ServerCommand.StorageCommand.class);
     when(serverCommandFactory.createCommand(any())).thenReturn(command);
     RuntimeException exception = new RuntimeException("test");
-    when(command.execute()).thenThrow(exception);
+    when(command.execute(any())).thenThrow(exception);
 
     respClientRequestProcessor.processNextRespRequest();
 
@@ -22,8 +22,11 @@ public class RespNetworkServiceTest {
   private final RespClientRequestProcessor.Factory clientRequestProcessorFactory =
       mock(RespClientRequestProcessor.Factory.class);
 
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+
   private final RespNetworkService respNetworkService =
-      new RespNetworkService(executorService, clientRequestProcessorFactory, serverSocketChannel);
+      new RespNetworkService(
+          executorService, clientRequestProcessorFactory, serverMetrics, serverSocketChannel);
 
   @Test
   public void run_acceptNextRespConnection_success() throws Exception {
@@ -0,0 +1,99 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.messages.RespResponseCode;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import dev.sbutler.bitflask.resp.types.RespBulkString;
+import dev.sbutler.bitflask.resp.types.RespError;
+import dev.sbutler.bitflask.resp.types.RespInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/** Unit tests for {@link RespRequestHandler}. */
+public class RespRequestHandlerTest {
+
+  private final ServerCommandFactory serverCommandFactory = mock(ServerCommandFactory.class);
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+  private final RespRequestHandler.ResponseSink responseSink =
+      mock(RespRequestHandler.ResponseSink.class);
+
+  private final RespRequestHandler respRequestHandler =
+      new RespRequestHandler(
+          serverCommandFactory, serverMetrics, new SlowLog(ConfigDefaults.SERVER_CONFIG));
+
+  @Test
+  public void handle_success_responseSentAndLatencyRecordedOnceWritten() {
+    when(serverCommandFactory.createCommand(any())).thenReturn(new ServerCommand.PingCommand());
+
+    respRequestHandler.handle(
+        new RespRequest.PingRequest().getAsRespArray(), System.nanoTime(), responseSink);
+
+    ArgumentCaptor<Runnable> onWrittenCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(responseSink)
+        .send(eq(new RespResponse.Success("pong").getAsRespArray()), onWrittenCaptor.capture());
+    assertThat(getTotalLatencyCount()).isEqualTo(0);
+
+    onWrittenCaptor.getValue().run();
+
+    assertThat(getTotalLatencyCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void handle_notRespArray_failureSent() {
+    respRequestHandler.handle(new RespInteger(1), System.nanoTime(), responseSink);
+
+    verify(responseSink)
+        .send(new RespResponse.Failure("Message must be provided in a RespArray").getAsRespArray());
+  }
+
+  @Test
+  public void handle_setExpiryTooLarge_failureSentWithoutClosing() {
+    RespArray message =
+        new RespArray(
+            ImmutableList.of(
+                new RespInteger(RespRequestCode.SET.getValue()),
+                new RespBulkString("key"),
+                new RespBulkString("value"),
+                new RespBulkString(RespRequest.SetRequest.EXPIRY_SECONDS_OPTION),
+                new RespInteger(Long.MAX_VALUE)));
+
+    respRequestHandler.handle(message, System.nanoTime(), responseSink);
+
+    ArgumentCaptor<RespArray> responseCaptor = ArgumentCaptor.forClass(RespArray.class);
+    verify(responseSink).send(responseCaptor.capture());
+    assertThat(RespResponse.createFromRespArray(responseCaptor.getValue()).getResponseCode())
+        .isEqualTo(RespResponseCode.FAILURE);
+    verify(responseSink, never()).sendAndClose(any());
+  }
+
+  @Test
+  public void handle_commandThrows_errorSentAndClosed() {
+    ServerCommand command = mock(ServerCommand.StorageCommand.class);
+    when(serverCommandFactory.createCommand(any())).thenReturn(command);
+    when(command.execute(any())).thenThrow(new RuntimeException("test"));
+
+    respRequestHandler.handle(
+        new RespRequest.PingRequest().getAsRespArray(), System.nanoTime(), responseSink);
+
+    ArgumentCaptor<RespError> errorCaptor = ArgumentCaptor.forClass(RespError.class);
+    verify(responseSink).sendAndClose(errorCaptor.capture());
+    assertThat(errorCaptor.getValue().getValue()).isEqualTo("test");
+    verify(responseSink, never()).send(any(RespArray.class), any());
+  }
+
+  private long getTotalLatencyCount() {
+    return serverMetrics.getLatencyMicros().get(RespRequestCode.PING, RequestPhase.TOTAL).count();
+  }
+}
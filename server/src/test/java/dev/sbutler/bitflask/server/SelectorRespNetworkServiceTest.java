@@ -0,0 +1,144 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.ServerConfig;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespResponse;
+import dev.sbutler.bitflask.resp.network.RespService;
+import dev.sbutler.bitflask.resp.types.RespArray;
+import java.io.EOFException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SelectorRespNetworkService}. */
+public class SelectorRespNetworkServiceTest {
+
+  private final ListeningExecutorService executorService =
+      MoreExecutors.listeningDecorator(Executors.newVirtualThreadPerTaskExecutor());
+  private final ServerCommandFactory serverCommandFactory = mock(ServerCommandFactory.class);
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+
+  private ServerSocketChannel serverSocketChannel;
+  private SelectorRespNetworkService service;
+
+  @BeforeEach
+  public void beforeEach() throws Exception {
+    when(serverCommandFactory.createCommand(any())).thenReturn(new ServerCommand.PingCommand());
+    serverSocketChannel = ServerSocketChannel.open();
+    serverSocketChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    ServerConfig serverConfig =
+        ConfigDefaults.SERVER_CONFIG.toBuilder()
+            .setNetworkEngine(ServerConfig.NetworkEngine.SELECTOR)
+            .setSelectorEventLoops(2)
+            .buildPartial();
+    RespRequestHandler respRequestHandler =
+        new RespRequestHandler(serverCommandFactory, serverMetrics, new SlowLog(serverConfig));
+    service =
+        new SelectorRespNetworkService(
+            executorService, respRequestHandler, serverMetrics, serverConfig, serverSocketChannel);
+    service.startAsync().awaitRunning(5, TimeUnit.SECONDS);
+  }
+
+  @AfterEach
+  public void afterEach() throws Exception {
+    service.stopAsync().awaitTerminated(5, TimeUnit.SECONDS);
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void request_responded() throws Exception {
+    try (RespService client = connect()) {
+      client.write(new RespRequest.PingRequest().getAsRespArray());
+
+      assertPong(client);
+    }
+  }
+
+  @Test
+  public void pipelinedRequests_respondedInOrder() throws Exception {
+    try (SocketChannel socketChannel = SocketChannel.open(serverAddress());
+        RespService client = RespService.create(socketChannel)) {
+      byte[] request = new RespRequest.PingRequest().getAsRespArray().getEncodedBytes();
+      ByteBuffer pipelined = ByteBuffer.allocate(request.length * 3);
+      pipelined.put(request).put(request).put(request).flip();
+      socketChannel.write(pipelined);
+
+      assertPong(client);
+      assertPong(client);
+      assertPong(client);
+    }
+  }
+
+  @Test
+  public void partialRequest_respondedOnceComplete() throws Exception {
+    try (SocketChannel socketChannel = SocketChannel.open(serverAddress());
+        RespService client = RespService.create(socketChannel)) {
+      byte[] request = new RespRequest.PingRequest().getAsRespArray().getEncodedBytes();
+      socketChannel.write(ByteBuffer.wrap(Arrays.copyOf(request, request.length - 1)));
+      Thread.sleep(50);
+      socketChannel.write(ByteBuffer.wrap(request, request.length - 1, 1));
+
+      assertPong(client);
+    }
+  }
+
+  @Test
+  public void malformedRequest_connectionClosed() throws Exception {
+    try (SocketChannel socketChannel = SocketChannel.open(serverAddress());
+        RespService client = RespService.create(socketChannel)) {
+      socketChannel.write(ByteBuffer.wrap(new byte[] {'!', '\r', '\n'}));
+
+      assertThrows(EOFException.class, client::read);
+    }
+  }
+
+  @Test
+  public void manyConnections_allResponded() throws Exception {
+    RespService[] clients = new RespService[8];
+    try {
+      for (int i = 0; i < clients.length; i++) {
+        clients[i] = connect();
+        clients[i].write(new RespRequest.PingRequest().getAsRespArray());
+      }
+      for (RespService client : clients) {
+        assertPong(client);
+      }
+    } finally {
+      for (RespService client : clients) {
+        if (client != null) {
+          client.close();
+        }
+      }
+    }
+  }
+
+  private InetSocketAddress serverAddress() throws Exception {
+    return (InetSocketAddress) serverSocketChannel.getLocalAddress();
+  }
+
+  private RespService connect() throws Exception {
+    return RespService.create(SocketChannel.open(serverAddress()));
+  }
+
+  private static void assertPong(RespService client) throws Exception {
+    RespResponse response = RespResponse.createFromRespArray((RespArray) client.read());
+    assertThat(response).isEqualTo(new RespResponse.Success("pong"));
+  }
+}
@@ -3,9 +3,13 @@ package dev.sbutler.bitflask.server;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.resp.messages.RespRequest;
 import dev.sbutler.bitflask.storage.commands.ClientCommand;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
+import java.time.Instant;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
@@ -14,8 +18,11 @@ public class ServerCommandFactoryTest {
 
   private final ClientCommand.Factory clientCommandFactory = mock(ClientCommand.Factory.class);
 
+  private final InfoReporter infoReporter = mock(InfoReporter.class);
+  private final SlowLog slowLog = mock(SlowLog.class);
+
   private final ServerCommandFactory serverCommandFactory =
-      new ServerCommandFactory(clientCommandFactory);
+      new ServerCommandFactory(clientCommandFactory, infoReporter, slowLog);
 
   @Test
   public void createCommand_respRequest_ping() {
@@ -26,6 +33,24 @@ public class ServerCommandFactoryTest {
     assertThat(serverCommand).isInstanceOf(ServerCommand.PingCommand.class);
   }
 
+  @Test
+  public void createCommand_respRequest_info() {
+    RespRequest request = new RespRequest.InfoRequest();
+
+    ServerCommand serverCommand = serverCommandFactory.createCommand(request);
+
+    assertThat(serverCommand).isInstanceOf(ServerCommand.InfoCommand.class);
+  }
+
+  @Test
+  public void createCommand_respRequest_slowLog() {
+    RespRequest request = new RespRequest.SlowLogRequest(RespRequest.SlowLogRequest.Subcommand.LEN);
+
+    ServerCommand serverCommand = serverCommandFactory.createCommand(request);
+
+    assertThat(serverCommand).isInstanceOf(ServerCommand.SlowLogCommand.class);
+  }
+
   @Test
   public void createCommand_respRequest_get() {
     RespRequest request = new RespRequest.GetRequest("key");
@@ -36,7 +61,7 @@ public class ServerCommandFactoryTest {
     ArgumentCaptor<StorageCommandDto.ReadDto> commandDtoCaptor =
         ArgumentCaptor.forClass(StorageCommandDto.ReadDto.class);
     verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
-    assertThat(commandDtoCaptor.getValue().key()).isEqualTo("key");
+    assertThat(commandDtoCaptor.getValue().key().toStringUtf8()).isEqualTo("key");
   }
 
   @Test
@@ -49,8 +74,22 @@ public class ServerCommandFactoryTest {
     ArgumentCaptor<StorageCommandDto.WriteDto> commandDtoCaptor =
         ArgumentCaptor.forClass(StorageCommandDto.WriteDto.class);
     verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
-    assertThat(commandDtoCaptor.getValue().key()).isEqualTo("key");
-    assertThat(commandDtoCaptor.getValue().value()).isEqualTo("value");
+    assertThat(commandDtoCaptor.getValue().key().toStringUtf8()).isEqualTo("key");
+    assertThat(commandDtoCaptor.getValue().value().toStringUtf8()).isEqualTo("value");
+  }
+
+  @Test
+  public void createCommand_respRequest_setWithExpiry_resolvesAbsoluteExpiry() {
+    RespRequest request = new RespRequest.SetRequest("key", "value", 10L);
+    long before = Instant.now().getEpochSecond();
+
+    serverCommandFactory.createCommand(request);
+
+    ArgumentCaptor<StorageCommandDto.WriteDto> commandDtoCaptor =
+        ArgumentCaptor.forClass(StorageCommandDto.WriteDto.class);
+    verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
+    assertThat(commandDtoCaptor.getValue().expiryEpochSeconds())
+        .isIn(Range.closed(before + 10, Instant.now().getEpochSecond() + 10));
   }
 
   @Test
@@ -63,6 +102,55 @@ public class ServerCommandFactoryTest {
     ArgumentCaptor<StorageCommandDto.DeleteDto> commandDtoCaptor =
         ArgumentCaptor.forClass(StorageCommandDto.DeleteDto.class);
     verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
-    assertThat(commandDtoCaptor.getValue().key()).isEqualTo("key");
+    assertThat(commandDtoCaptor.getValue().key().toStringUtf8()).isEqualTo("key");
+  }
+
+  @Test
+  public void createCommand_respRequest_incrementBy() {
+    RespRequest request = new RespRequest.IncrementByRequest("key", 5);
+    long before = Instant.now().getEpochSecond();
+
+    ServerCommand serverCommand = serverCommandFactory.createCommand(request);
+
+    assertThat(serverCommand).isInstanceOf(ServerCommand.StorageCommand.class);
+    ArgumentCaptor<StorageCommandDto.IncrementDto> commandDtoCaptor =
+        ArgumentCaptor.forClass(StorageCommandDto.IncrementDto.class);
+    verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
+    assertThat(commandDtoCaptor.getValue().key().toStringUtf8()).isEqualTo("key");
+    assertThat(commandDtoCaptor.getValue().delta()).isEqualTo(5);
+    assertThat(commandDtoCaptor.getValue().creationEpochSeconds())
+        .isIn(Range.closed(before, Instant.now().getEpochSecond()));
+  }
+
+  @Test
+  public void createCommand_respRequest_append() {
+    RespRequest request = new RespRequest.AppendRequest("key", "value");
+    long before = Instant.now().getEpochSecond();
+
+    ServerCommand serverCommand = serverCommandFactory.createCommand(request);
+
+    assertThat(serverCommand).isInstanceOf(ServerCommand.StorageCommand.class);
+    ArgumentCaptor<StorageCommandDto.AppendDto> commandDtoCaptor =
+        ArgumentCaptor.forClass(StorageCommandDto.AppendDto.class);
+    verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
+    assertThat(commandDtoCaptor.getValue().key().toStringUtf8()).isEqualTo("key");
+    assertThat(commandDtoCaptor.getValue().value().toStringUtf8()).isEqualTo("value");
+    assertThat(commandDtoCaptor.getValue().creationEpochSeconds())
+        .isIn(Range.closed(before, Instant.now().getEpochSecond()));
+  }
+
+  @Test
+  public void createCommand_respRequest_multiGet() {
+    ImmutableList<ByteString> keys =
+        ImmutableList.of(ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("key1"));
+    RespRequest request = new RespRequest.MultiGetRequest(keys);
+
+    ServerCommand serverCommand = serverCommandFactory.createCommand(request);
+
+    assertThat(serverCommand).isInstanceOf(ServerCommand.StorageCommand.class);
+    ArgumentCaptor<StorageCommandDto.MultiReadDto> commandDtoCaptor =
+        ArgumentCaptor.forClass(StorageCommandDto.MultiReadDto.class);
+    verify(clientCommandFactory, times(1)).create(commandDtoCaptor.capture());
+    assertThat(commandDtoCaptor.getValue().keys()).isEqualTo(keys);
   }
 }
@@ -2,10 +2,13 @@ package dev.sbutler.bitflask.server;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import dev.sbutler.bitflask.resp.messages.RespRequest;
 import dev.sbutler.bitflask.storage.commands.ClientCommand;
 import dev.sbutler.bitflask.storage.commands.ClientCommandResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link ServerCommand}. */
@@ -16,9 +19,10 @@ public class ServerCommandTest {
     ClientCommand clientCommand = mock(ClientCommand.class);
     ServerCommand command = new ServerCommand.StorageCommand(clientCommand);
     ClientCommandResults mockResults = new ClientCommandResults.Success("test");
-    when(clientCommand.execute()).thenReturn(mockResults);
+    CommandTrace trace = new CommandTrace();
+    when(clientCommand.execute(trace)).thenReturn(mockResults);
 
-    ClientCommandResults result = command.execute();
+    ClientCommandResults result = command.execute(trace);
 
     assertThat(result).isEqualTo(mockResults);
   }
@@ -27,9 +31,46 @@ public class ServerCommandTest {
   public void pingCommand_execute() {
     ServerCommand command = new ServerCommand.PingCommand();
 
-    ClientCommandResults result = command.execute();
+    ClientCommandResults result = command.execute(new CommandTrace());
 
     assertThat(result).isInstanceOf(ClientCommandResults.Success.class);
-    assertThat(((ClientCommandResults.Success) result).message()).isEqualTo("pong");
+    assertThat(((ClientCommandResults.Success) result).message().toStringUtf8()).isEqualTo("pong");
+  }
+
+  @Test
+  public void infoCommand_execute() {
+    InfoReporter infoReporter = mock(InfoReporter.class);
+    when(infoReporter.createReport()).thenReturn("report");
+    ServerCommand command = new ServerCommand.InfoCommand(infoReporter);
+
+    ClientCommandResults result = command.execute(new CommandTrace());
+
+    assertThat(result).isEqualTo(new ClientCommandResults.Success("report"));
+  }
+
+  @Test
+  public void slowLogCommand_execute_len() {
+    SlowLog slowLog = mock(SlowLog.class);
+    when(slowLog.getLength()).thenReturn(3);
+    ServerCommand command =
+        new ServerCommand.SlowLogCommand(
+            slowLog, new RespRequest.SlowLogRequest(RespRequest.SlowLogRequest.Subcommand.LEN));
+
+    ClientCommandResults result = command.execute(new CommandTrace());
+
+    assertThat(result).isEqualTo(new ClientCommandResults.Success("3"));
+  }
+
+  @Test
+  public void slowLogCommand_execute_reset() {
+    SlowLog slowLog = mock(SlowLog.class);
+    ServerCommand command =
+        new ServerCommand.SlowLogCommand(
+            slowLog, new RespRequest.SlowLogRequest(RespRequest.SlowLogRequest.Subcommand.RESET));
+
+    ClientCommandResults result = command.execute(new CommandTrace());
+
+    assertThat(result).isEqualTo(new ClientCommandResults.Success("OK"));
+    verify(slowLog).reset();
   }
 }
@@ -0,0 +1,39 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ServerMetrics}. */
+public class ServerMetricsTest {
+
+  private final ServerMetrics serverMetrics = new ServerMetrics();
+
+  @Test
+  public void recordRequest() {
+    RequestTrace trace = new RequestTrace(RespRequestCode.PING, System.nanoTime());
+    trace.markExecuted();
+    trace.markResponded();
+
+    serverMetrics.recordRequest(trace);
+
+    var latencyMicros = serverMetrics.getLatencyMicros();
+    assertThat(latencyMicros.get(RespRequestCode.PING, RequestPhase.TOTAL).count()).isEqualTo(1);
+    assertThat(latencyMicros.get(RespRequestCode.PING, RequestPhase.RESPONSE_WRITE).count())
+        .isEqualTo(1);
+    assertThat(latencyMicros.get(RespRequestCode.PING, RequestPhase.STORAGE).count())
+        .isEqualTo(0);
+    assertThat(latencyMicros.get(RespRequestCode.GET, RequestPhase.TOTAL).count()).isEqualTo(0);
+  }
+
+  @Test
+  public void recordConnections() {
+    serverMetrics.recordConnectionOpened();
+    serverMetrics.recordConnectionOpened();
+    serverMetrics.recordConnectionClosed();
+
+    assertThat(serverMetrics.getNumConnectionsReceived()).isEqualTo(2);
+    assertThat(serverMetrics.getNumOpenConnections()).isEqualTo(1);
+  }
+}
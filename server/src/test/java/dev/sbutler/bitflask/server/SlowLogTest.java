@@ -0,0 +1,115 @@
+package dev.sbutler.bitflask.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dev.sbutler.bitflask.config.ServerConfig;
+import dev.sbutler.bitflask.resp.messages.RespRequest;
+import dev.sbutler.bitflask.resp.messages.RespRequestCode;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link SlowLog}. */
+public class SlowLogTest {
+
+  private static final ServerConfig SERVER_CONFIG =
+      ServerConfig.newBuilder()
+          .setSlowLogThresholdMicroseconds(1_000)
+          .setSlowLogMaxEntries(2)
+          .setReadTraceSamplePercent(100)
+          .buildPartial();
+
+  private final SlowLog slowLog = new SlowLog(SERVER_CONFIG);
+
+  @Test
+  public void recordIfSlow_belowThreshold_notRecorded() {
+    slowLog.recordIfSlow(new RespRequest.GetRequest("key"), createRespondedTrace(0));
+
+    assertThat(slowLog.getLength()).isEqualTo(0);
+  }
+
+  @Test
+  public void recordIfSlow_aboveThreshold_recorded() {
+    RequestTrace trace = createRespondedTrace(TimeUnit.SECONDS.toNanos(1));
+
+    slowLog.recordIfSlow(new RespRequest.GetRequest("key"), trace);
+
+    assertThat(slowLog.getLength()).isEqualTo(1);
+    SlowLog.Entry entry = slowLog.getEntries(1).getFirst();
+    assertThat(entry.request()).isEqualTo("GET key");
+    assertThat(entry.phaseNanos().get(RequestPhase.TOTAL)).isAtLeast(TimeUnit.SECONDS.toNanos(1));
+  }
+
+  @Test
+  public void recordIfSlow_full_oldestOverwritten() {
+    for (String key : new String[] {"key0", "key1", "key2"}) {
+      slowLog.recordIfSlow(
+          new RespRequest.GetRequest(key), createRespondedTrace(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    assertThat(slowLog.getLength()).isEqualTo(2);
+    assertThat(slowLog.getEntries(Long.MAX_VALUE).stream().map(SlowLog.Entry::request).toList())
+        .containsExactly("GET key2", "GET key1")
+        .inOrder();
+  }
+
+  @Test
+  public void recordIfSlow_longArgument_truncated() {
+    String value = "v".repeat(SlowLog.MAX_ARGUMENT_LENGTH + 10);
+
+    slowLog.recordIfSlow(
+        new RespRequest.SetRequest("key", value),
+        createRespondedTrace(TimeUnit.SECONDS.toNanos(1)));
+
+    assertThat(slowLog.getEntries(1).getFirst().request())
+        .isEqualTo(
+            "SET key " + "v".repeat(SlowLog.MAX_ARGUMENT_LENGTH) + "... (10 more characters)");
+  }
+
+  @Test
+  public void createReport_sampledReadTrace_included() {
+    RequestTrace trace = createRespondedTrace(TimeUnit.SECONDS.toNanos(1));
+    trace.getCommandTrace().sampleReadTrace();
+    ReadTrace readTrace = trace.getCommandTrace().getReadTrace().orElseThrow();
+    readTrace.recordStateLockWait(TimeUnit.MILLISECONDS.toNanos(2));
+    readTrace.recordSegmentProbes(3, 1, 2, 1);
+    slowLog.recordIfSlow(new RespRequest.GetRequest("key"), trace);
+
+    String report = slowLog.createReport(10);
+
+    assertThat(report).contains("request=\"GET key\"");
+    assertThat(report).contains("state_lock_wait_us=2000");
+    assertThat(report).contains("filter_checks=3");
+    assertThat(report).contains("segments_read=2");
+  }
+
+  @Test
+  public void reset_entriesRemoved() {
+    slowLog.recordIfSlow(
+        new RespRequest.GetRequest("key"), createRespondedTrace(TimeUnit.SECONDS.toNanos(1)));
+
+    slowLog.reset();
+
+    assertThat(slowLog.getLength()).isEqualTo(0);
+    assertThat(slowLog.getEntries(10)).isEmpty();
+  }
+
+  @Test
+  public void disabled_nothingRecordedOrSampled() {
+    SlowLog disabledSlowLog = new SlowLog(ServerConfig.getDefaultInstance());
+
+    disabledSlowLog.recordIfSlow(
+        new RespRequest.GetRequest("key"), createRespondedTrace(TimeUnit.SECONDS.toNanos(1)));
+
+    assertThat(disabledSlowLog.isEnabled()).isFalse();
+    assertThat(disabledSlowLog.shouldSampleReadTrace()).isFalse();
+    assertThat(disabledSlowLog.getLength()).isEqualTo(0);
+  }
+
+  private static RequestTrace createRespondedTrace(long elapsedNanos) {
+    RequestTrace trace = new RequestTrace(RespRequestCode.GET, System.nanoTime() - elapsedNanos);
+    trace.markExecuted();
+    trace.markResponded();
+    return trace;
+  }
+}
@@ -0,0 +1,161 @@
+package dev.sbutler.bitflask.storage.lsm;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.StorageConfig.SegmentReadMode;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
+import dev.sbutler.bitflask.storage.lsm.memtable.MemtableFactory;
+import dev.sbutler.bitflask.storage.lsm.segment.Segment;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentFactory;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading a key present in several level 0 {@link Segment}s by probing the candidates
+ * inline on the calling thread, forking a read per candidate segment, or issuing asynchronous reads
+ * per candidate segment. {@link #readAll()} compares the same strategies for a 16 key read.
+ *
+ * <p>Results in microseconds per operation, on JDK 21 with a single CPU and the segments in the
+ * page cache ({@code -wi 3 -w 2 -i 5 -r 2}):
+ *
+ * <pre>
+ * read      segments  INLINE  FORKED  ASYNC
+ *                  1     7.2    20.6   10.5
+ *                  2     7.8    27.3   17.9
+ *                  4     9.1    41.1   34.5
+ *                  8    10.7    89.6   98.5
+ *
+ * readAll   segments  before (always forked)  DEFAULT
+ *                  1                    57.3     32.0
+ *                  2                    87.3     34.7
+ *                  4                   150.1    156.8
+ *                  8                   224.3    251.5
+ * </pre>
+ *
+ * <p>With a single CPU and no I/O waits, forking never pays off. The default threshold still forks
+ * larger candidate sets so reads of cold segments can overlap on machines with more cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class ReadFanOutBenchmark {
+
+  /** How candidate segments within a level are read. */
+  public enum Strategy {
+    /** All candidate segments are probed sequentially on the calling thread. */
+    INLINE(SegmentReadMode.BLOCKING, Integer.MAX_VALUE),
+    /** Every candidate segment is read on its own virtual thread. */
+    FORKED(SegmentReadMode.BLOCKING, 0),
+    /** Every candidate segment is read with asynchronous I/O. */
+    ASYNC(SegmentReadMode.ASYNC, 0),
+    /** Candidate segments are probed inline up to the reader's default threshold, then forked. */
+    DEFAULT(SegmentReadMode.BLOCKING, LSMTreeReader.DEFAULT_INLINE_READ_THRESHOLD);
+
+    private final SegmentReadMode segmentReadMode;
+    private final int inlineReadThreshold;
+
+    Strategy(SegmentReadMode segmentReadMode, int inlineReadThreshold) {
+      this.segmentReadMode = segmentReadMode;
+      this.inlineReadThreshold = inlineReadThreshold;
+    }
+  }
+
+  private static final int NUM_KEYS = 1_000;
+  private static final int NUM_READ_ALL_KEYS = 16;
+
+  @Param({"1", "2", "4", "8"})
+  int candidateSegments;
+
+  @Param({"INLINE", "FORKED", "ASYNC"})
+  Strategy strategy;
+
+  private Path storeDirectory;
+  private LSMTreeReader reader;
+  private ByteString[] keys;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    storeDirectory = Files.createTempDirectory("read-fan-out-benchmark");
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(storeDirectory.toString())
+            .build();
+    Injector injector =
+        Guice.createInjector(binder -> binder.bind(StorageConfig.class).toInstance(storageConfig));
+
+    keys = new ByteString[NUM_KEYS];
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      keys[i] = ByteString.copyFromUtf8(String.format("key-%05d", i));
+      keyEntryMap.put(keys[i], new Entry(creationEpochSeconds, keys[i], keys[i]));
+    }
+
+    SegmentFactory segmentFactory = injector.getInstance(SegmentFactory.class);
+    ImmutableListMultimap.Builder<Integer, Segment> segments = ImmutableListMultimap.builder();
+    for (int i = 0; i < candidateSegments; i++) {
+      segments.put(0, segmentFactory.create(keyEntryMap, 0));
+    }
+
+    Memtable memtable = injector.getInstance(MemtableFactory.class).create();
+    SegmentLevelMultiMap segmentLevelMultiMap =
+        new SegmentLevelMultiMap.Builder(segments.build()).build();
+    LSMTreeStateManager stateManager = new LSMTreeStateManager(memtable, segmentLevelMultiMap);
+    reader =
+        new LSMTreeReader(
+            stateManager,
+            Thread.ofVirtual().factory(),
+            strategy.segmentReadMode,
+            strategy.inlineReadThreshold,
+            injector.getInstance(StorageStats.class));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    MoreFiles.deleteRecursively(storeDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public Optional<Entry> read() {
+    return reader.read(keys[ThreadLocalRandom.current().nextInt(NUM_KEYS)]);
+  }
+
+  @Benchmark
+  public ImmutableSortedMap<ByteString, Entry> readAll() {
+    int firstKey = ThreadLocalRandom.current().nextInt(NUM_KEYS - NUM_READ_ALL_KEYS);
+    return reader.readAll(Arrays.asList(keys).subList(firstKey, firstKey + NUM_READ_ALL_KEYS));
+  }
+}
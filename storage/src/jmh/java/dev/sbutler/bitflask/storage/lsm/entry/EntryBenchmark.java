@@ -0,0 +1,76 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures encoding an {@link Entry} into its persisted form and decoding it back, either fully or
+ * as a zero-copy {@link EntryView}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class EntryBenchmark {
+
+  @Param({"16", "1024", "65536"})
+  int valueBytes;
+
+  private Entry entry;
+  private byte[] encodedEntry;
+  private ByteBuffer encodeBuffer;
+  private ByteBuffer decodeBuffer;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    byte[] value = new byte[valueBytes];
+    ThreadLocalRandom.current().nextBytes(value);
+    entry =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("benchmark-key"),
+            ByteString.copyFrom(value));
+    encodedEntry = entry.getBytes();
+    encodeBuffer = ByteBuffer.allocate(encodedEntry.length);
+    decodeBuffer = ByteBuffer.wrap(encodedEntry);
+  }
+
+  @Benchmark
+  public byte[] encode() {
+    return entry.getBytes();
+  }
+
+  @Benchmark
+  public ByteBuffer encodeIntoBuffer() {
+    encodeBuffer.clear();
+    entry.writeTo(encodeBuffer);
+    return encodeBuffer;
+  }
+
+  @Benchmark
+  public Entry decode() {
+    return Entry.fromBytes(encodedEntry);
+  }
+
+  @Benchmark
+  public ByteString decodeViewKey() {
+    return EntryView.wrap(decodeBuffer, 0).key();
+  }
+}
@@ -0,0 +1,110 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading and writing a {@link Memtable} alone and while readers and a writer contend for
+ * it.
+ *
+ * <p>Writes overwrite keys of the preloaded key set so the Memtable's size stays bounded, although
+ * the {@link WriteAheadLog} grows for the duration of the trial.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class MemtableBenchmark {
+
+  private static final int NUM_KEYS = 10_000;
+
+  @Param({"false", "true"})
+  boolean offHeap;
+
+  private Path storeDirectory;
+  private Memtable memtable;
+  private ByteString[] keys;
+  private ByteString value;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    storeDirectory = Files.createTempDirectory("memtable-benchmark");
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(storeDirectory.toString())
+            .setMemtableOffHeap(offHeap)
+            .build();
+    memtable = new MemtableFactory(storageConfig).create();
+
+    keys = new ByteString[NUM_KEYS];
+    value = ByteString.copyFromUtf8("v".repeat(100));
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    for (int i = 0; i < NUM_KEYS; i++) {
+      keys[i] = ByteString.copyFromUtf8(String.format("key-%05d", i));
+      memtable.write(new Entry(creationEpochSeconds, keys[i], value));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    memtable.close();
+    MoreFiles.deleteRecursively(storeDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  @Group("uncontendedRead")
+  public Optional<Entry> uncontendedRead() {
+    return memtable.read(randomKey());
+  }
+
+  @Benchmark
+  @Group("uncontendedWrite")
+  public void uncontendedWrite() throws Exception {
+    memtable.write(new Entry(Instant.now().getEpochSecond(), randomKey(), value));
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(3)
+  public Optional<Entry> contendedRead() {
+    return memtable.read(randomKey());
+  }
+
+  @Benchmark
+  @Group("contended")
+  @GroupThreads(1)
+  public void contendedWrite() throws Exception {
+    memtable.write(new Entry(Instant.now().getEpochSecond(), randomKey(), value));
+  }
+
+  private ByteString randomKey() {
+    return keys[ThreadLocalRandom.current().nextInt(NUM_KEYS)];
+  }
+}
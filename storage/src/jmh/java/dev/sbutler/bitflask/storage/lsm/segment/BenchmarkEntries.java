@@ -0,0 +1,35 @@
+package dev.sbutler.bitflask.storage.lsm.segment;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.time.Instant;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Generates the datasets written to {@link Segment}s by the segment benchmarks. */
+final class BenchmarkEntries {
+
+  /**
+   * Creates entries for the keys {@code key-<firstKey>} to {@code key-<firstKey + numEntries - 1>},
+   * each with a random value of {@code valueBytes}.
+   */
+  static SortedMap<ByteString, Entry> create(int firstKey, int numEntries, int valueBytes) {
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    byte[] value = new byte[valueBytes];
+    for (int i = firstKey; i < firstKey + numEntries; i++) {
+      ThreadLocalRandom.current().nextBytes(value);
+      ByteString key = createKey(i);
+      keyEntryMap.put(key, new Entry(creationEpochSeconds, key, ByteString.copyFrom(value)));
+    }
+    return keyEntryMap;
+  }
+
+  /** Creates the key with the provided number, formatted so keys sort numerically. */
+  static ByteString createKey(int keyNumber) {
+    return ByteString.copyFromUtf8(String.format("key-%08d", keyNumber));
+  }
+
+  private BenchmarkEntries() {}
+}
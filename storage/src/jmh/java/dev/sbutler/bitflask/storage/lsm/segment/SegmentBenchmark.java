@@ -0,0 +1,81 @@
+package dev.sbutler.bitflask.storage.lsm.segment;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.inject.Guice;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Segment#readEntry(ByteString)} for keys the Segment contains and for keys it does
+ * not, which are mostly ruled out by its filter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SegmentBenchmark {
+
+  @Param({"1000", "100000"})
+  int numEntries;
+
+  @Param({"100"})
+  int valueBytes;
+
+  private Path storeDirectory;
+  private Segment segment;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    storeDirectory = Files.createTempDirectory("segment-benchmark");
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(storeDirectory.toString())
+            .build();
+    SegmentFactory segmentFactory =
+        Guice.createInjector(binder -> binder.bind(StorageConfig.class).toInstance(storageConfig))
+            .getInstance(SegmentFactory.class);
+    segment = segmentFactory.create(BenchmarkEntries.create(0, numEntries, valueBytes), 0);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    MoreFiles.deleteRecursively(storeDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public Optional<Entry> readEntryHit() throws Exception {
+    return segment.readEntry(BenchmarkEntries.createKey(randomKeyNumber()));
+  }
+
+  @Benchmark
+  public Optional<Entry> readEntryMiss() throws Exception {
+    return segment.readEntry(BenchmarkEntries.createKey(numEntries + randomKeyNumber()));
+  }
+
+  private int randomKeyNumber() {
+    return ThreadLocalRandom.current().nextInt(numEntries);
+  }
+}
@@ -0,0 +1,82 @@
+package dev.sbutler.bitflask.storage.lsm.segment;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.inject.Guice;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of writing a new {@link Segment} and its index with
+ * {@link SegmentFactory#create(SortedMap, int)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SegmentFactoryBenchmark {
+
+  @Param({"1000", "10000"})
+  int numEntries;
+
+  @Param({"100", "4096"})
+  int valueBytes;
+
+  private Path storeDirectory;
+  private SegmentFactory segmentFactory;
+  private SortedMap<ByteString, Entry> keyEntryMap;
+  private Segment createdSegment;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    storeDirectory = Files.createTempDirectory("segment-factory-benchmark");
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(storeDirectory.toString())
+            .build();
+    segmentFactory =
+        Guice.createInjector(binder -> binder.bind(StorageConfig.class).toInstance(storageConfig))
+            .getInstance(SegmentFactory.class);
+    keyEntryMap = BenchmarkEntries.create(0, numEntries, valueBytes);
+  }
+
+  /** Deletes each created Segment so the store directory does not grow for the whole trial. */
+  @TearDown(Level.Invocation)
+  public void deleteCreatedSegment() throws Exception {
+    Segment.SegmentRelatedPaths paths = createdSegment.getSegmentRelatedPaths();
+    Files.delete(paths.segmentPath());
+    Files.delete(paths.indexPath());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    MoreFiles.deleteRecursively(storeDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public Segment create() throws Exception {
+    createdSegment = segmentFactory.create(keyEntryMap, 0);
+    return createdSegment;
+  }
+}
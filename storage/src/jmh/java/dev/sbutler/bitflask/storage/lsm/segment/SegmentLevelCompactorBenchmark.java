@@ -0,0 +1,111 @@
+package dev.sbutler.bitflask.storage.lsm.segment;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.StorageConfig;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link SegmentLevelCompactor#compactSegmentLevel(SegmentLevelMultiMap, int)} compacting
+ * a level of freshly generated {@link Segment}s into the next level.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+public class SegmentLevelCompactorBenchmark {
+
+  /** How the keys of the Segments in the compacted level relate to each other. */
+  public enum Dataset {
+    /** Every Segment holds distinct keys, so every entry is written to the new Segment. */
+    DISJOINT,
+    /** Every Segment holds the same keys, so only the newest entry of each key is written. */
+    OVERWRITTEN
+  }
+
+  @Param({"4", "8"})
+  int segmentsInLevel;
+
+  @Param({"10000"})
+  int entriesPerSegment;
+
+  @Param({"DISJOINT", "OVERWRITTEN"})
+  Dataset dataset;
+
+  private Path storeDirectory;
+  private SegmentFactory segmentFactory;
+  private SegmentLevelCompactor compactor;
+  private SegmentLevelMultiMap segmentLevelMultiMap;
+  private SegmentLevelMultiMap compactedMultiMap;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    storeDirectory = Files.createTempDirectory("segment-level-compactor-benchmark");
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(storeDirectory.toString())
+            .build();
+    Injector injector =
+        Guice.createInjector(binder -> {
+          binder.bind(StorageConfig.class).toInstance(storageConfig);
+          binder.bind(ThreadFactory.class).toInstance(Thread.ofVirtual().factory());
+        });
+    segmentFactory = injector.getInstance(SegmentFactory.class);
+    compactor = injector.getInstance(SegmentLevelCompactor.class);
+  }
+
+  /** Writes the Segments of the level to be compacted, which is excluded from the measurement. */
+  @Setup(Level.Invocation)
+  public void createSegmentLevel() throws Exception {
+    SegmentLevelMultiMap.Builder builder = SegmentLevelMultiMap.builder();
+    for (int i = 0; i < segmentsInLevel; i++) {
+      int firstKey = dataset == Dataset.DISJOINT ? i * entriesPerSegment : 0;
+      builder.add(
+          segmentFactory.create(
+              BenchmarkEntries.create(firstKey, entriesPerSegment, 100), 0));
+    }
+    segmentLevelMultiMap = builder.build();
+  }
+
+  /** Deletes the compacted Segment so the store directory does not grow for the whole trial. */
+  @TearDown(Level.Invocation)
+  public void deleteCompactedSegment() throws Exception {
+    for (Segment segment : compactedMultiMap.getSegmentsInLevel(1)) {
+      Segment.SegmentRelatedPaths paths = segment.getSegmentRelatedPaths();
+      Files.delete(paths.segmentPath());
+      Files.delete(paths.indexPath());
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    MoreFiles.deleteRecursively(storeDirectory, RecursiveDeleteOption.ALLOW_INSECURE);
+  }
+
+  @Benchmark
+  public SegmentLevelMultiMap compactSegmentLevel() {
+    compactedMultiMap = compactor.compactSegmentLevel(segmentLevelMultiMap, 0);
+    return compactedMultiMap;
+  }
+}
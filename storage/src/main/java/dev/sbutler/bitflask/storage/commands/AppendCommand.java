@@ -0,0 +1,54 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.AppendDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+
+/**
+ * Handles submitting an asynchronous task to the storage engine for appending to the value mapped
+ * by the provided key.
+ */
+final class AppendCommand implements StorageCommand {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final LSMTree lsmTree;
+  private final AppendDto appendDTO;
+
+  public AppendCommand(LSMTree lsmTree, AppendDto appendDTO) {
+    this.lsmTree = lsmTree;
+    this.appendDTO = appendDTO;
+  }
+
+  @Override
+  public StorageCommandResults execute() {
+    String key = appendDTO.key().toStringUtf8();
+    String value = appendDTO.value().toStringUtf8();
+    logger.atInfo().log("Submitting append for [%s]:[%s]", key, value);
+
+    try {
+      lsmTree.append(appendDTO.key(), appendDTO.value(), appendDTO.creationEpochSeconds());
+    } catch (StorageMergeException e) {
+      String responseErrorMessage =
+          String.format("Failed to append [%s]:[%s]: %s", key, value, e.getMessage());
+      logger.atInfo().log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    } catch (StorageException e) {
+      String responseErrorMessage = String.format("Failed to append [%s]:[%s]", key, value);
+      logger.atWarning().withCause(e).log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    }
+
+    logger.atInfo().log("Successful append of [%s]:[%s]", key, value);
+    return new Success("OK");
+  }
+
+  @Override
+  public AppendDto getDTO() {
+    return appendDTO;
+  }
+}
@@ -31,9 +31,14 @@ public final class ClientCommand {
     }
   }
 
-  /** A blocking call that executes the corresponding command returning the results. */
-  public ClientCommandResults execute() {
-    StorageSubmitResults submitResults = raft.submitCommand(storageCommandDto);
+  /**
+   * A blocking call that executes the corresponding command returning the results.
+   *
+   * <p>The {@link CommandTrace} is marked as the command progresses through storage.
+   */
+  public ClientCommandResults execute(CommandTrace trace) {
+    trace.markSubmitted(storageCommandDto.isPersistable());
+    StorageSubmitResults submitResults = raft.submitCommand(storageCommandDto, trace);
     return switch (submitResults) {
       case StorageSubmitResults.Success success -> handleSuccessfulSubmission(success);
       case StorageSubmitResults.NotCurrentLeader notCurrentLeader -> new ClientCommandResults
@@ -47,6 +52,8 @@ public final class ClientCommand {
       return switch (success.submitFuture().get()) {
         case StorageCommandResults.Success results -> new ClientCommandResults.Success(
             results.message());
+        case StorageCommandResults.MultiSuccess results -> new ClientCommandResults
+            .MultiSuccess(results.values());
         case StorageCommandResults.Failed results -> new ClientCommandResults.Failure(
             results.message());
       };
@@ -60,11 +67,20 @@ public final class ClientCommand {
   /** Returns a client friendly message when there is a failure submitting to storage. */
   private String getFailureMessage() {
     return switch (storageCommandDto) {
-      case StorageCommandDto.ReadDto dto -> String.format("Failed to read [%s]", dto.key());
+      case StorageCommandDto.ReadDto dto -> String.format(
+          "Failed to read [%s]", dto.key().toStringUtf8());
+      case StorageCommandDto.MultiReadDto dto -> String.format(
+          "Failed to read [%d] keys", dto.keys().size());
       case StorageCommandDto.WriteDto dto -> String.format(
-          "Failed to write [%s]:[%s]", dto.key(), dto.value());
+          "Failed to write [%s]:[%s]", dto.key().toStringUtf8(), dto.value().toStringUtf8());
       case StorageCommandDto.DeleteDto deleteDTO -> String.format(
-          "Failed to delete [%s]", deleteDTO.key());
+          "Failed to delete [%s]", deleteDTO.key().toStringUtf8());
+      case StorageCommandDto.WriteBatchDto dto -> String.format(
+          "Failed to write batch of [%d] operations", dto.operations().size());
+      case StorageCommandDto.IncrementDto dto -> String.format(
+          "Failed to increment [%s] by [%d]", dto.key().toStringUtf8(), dto.delta());
+      case StorageCommandDto.AppendDto dto -> String.format(
+          "Failed to append [%s]:[%s]", dto.key().toStringUtf8(), dto.value().toStringUtf8());
     };
   }
 }
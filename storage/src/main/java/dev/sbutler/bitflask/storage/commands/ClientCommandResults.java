@@ -1,11 +1,29 @@
 package dev.sbutler.bitflask.storage.commands;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.ServerConfig;
+import java.util.Optional;
 
 /** The results of executing a {@link ClientCommand}. */
 public sealed interface ClientCommandResults {
-  /** Contains a client friendly message for the successful execution of a {@link ClientCommand}. */
-  record Success(String message) implements ClientCommandResults {}
+  /**
+   * Contains a client friendly message, or the read value's bytes, for the successful execution of
+   * a {@link ClientCommand}.
+   */
+  record Success(ByteString message) implements ClientCommandResults {
+
+    public Success(String message) {
+      this(ByteString.copyFromUtf8(message));
+    }
+  }
+
+  /**
+   * Contains the values, in the order of the requested keys, for the successful execution of a
+   * multi-key read {@link ClientCommand}. Keys without a value are empty.
+   */
+  record MultiSuccess(ImmutableList<Optional<ByteString>> values)
+      implements ClientCommandResults {}
 
   /** Contains a client friendly message for the failed execution of a {@link ClientCommand}. */
   record Failure(String message) implements ClientCommandResults {}
@@ -3,30 +3,66 @@ package dev.sbutler.bitflask.storage.commands;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+
 final class CommandInputValidator {
 
-  static final int KEY_MAX_SIZE = 255;
-  static final int VALUE_MAX_SIZE = 255;
+  static final int KEY_MAX_SIZE = Entry.KEY_MAX_LENGTH;
+  static final int VALUE_MAX_SIZE = Entry.VALUE_MAX_LENGTH;
 
   private CommandInputValidator() {}
 
-  public static void validateKey(String key) {
+  public static void validateKey(ByteString key) {
     checkNotNull(key);
-    checkArgument(!key.isBlank(), "Expected non-blank key, but was [%s]", key);
+    checkArgument(!key.isEmpty(), "Expected non-empty key");
     checkArgument(
-        key.length() <= KEY_MAX_SIZE,
-        "Expect key smaller than [%d] characters, but was [%d]",
+        key.size() <= KEY_MAX_SIZE,
+        "Expect key smaller than [%d] bytes, but was [%d]",
         KEY_MAX_SIZE,
-        key.length());
+        key.size());
+  }
+
+  public static void validateKeys(ImmutableList<ByteString> keys) {
+    checkNotNull(keys);
+    checkArgument(!keys.isEmpty(), "Expected at least one key");
+    keys.forEach(CommandInputValidator::validateKey);
   }
 
-  public static void validateValue(String value) {
+  public static void validateValue(ByteString value) {
     checkNotNull(value);
-    checkArgument(!value.isBlank(), "Expected non-blank value, but was [%s]", value);
+    checkArgument(!value.isEmpty(), "Expected non-empty value");
     checkArgument(
-        value.length() <= VALUE_MAX_SIZE,
-        "Expect value smaller than [%d] characters, but was [%d]",
+        value.size() <= VALUE_MAX_SIZE,
+        "Expect value smaller than [%d] bytes, but was [%d]",
         VALUE_MAX_SIZE,
-        value.length());
+        value.size());
+  }
+
+  public static void validateExpiryEpochSeconds(long expiryEpochSeconds) {
+    checkArgument(
+        expiryEpochSeconds >= 0,
+        "Expected non-negative expiry epoch seconds, but was [%d]",
+        expiryEpochSeconds);
+  }
+
+  public static void validateCreationEpochSeconds(long creationEpochSeconds) {
+    checkArgument(
+        creationEpochSeconds >= 0,
+        "Expected non-negative creation epoch seconds, but was [%d]",
+        creationEpochSeconds);
+  }
+
+  public static void validateBatchOperations(ImmutableList<StorageCommandDto> operations) {
+    checkNotNull(operations);
+    checkArgument(!operations.isEmpty(), "Expected at least one batch operation");
+    for (var operation : operations) {
+      checkArgument(
+          operation instanceof StorageCommandDto.WriteDto
+              || operation instanceof StorageCommandDto.DeleteDto,
+          "Expected only write or delete batch operations, but found [%s]",
+          operation);
+    }
   }
 }
@@ -0,0 +1,69 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
+import java.util.Optional;
+
+/**
+ * Records when a client's command reached each stage of being executed by storage.
+ *
+ * <p>Stages are marked by whichever thread performs them, so a trace may be marked and read
+ * concurrently. Times are {@link System#nanoTime()} values, with 0 indicating the stage has not
+ * been reached.
+ *
+ * <p>A trace may additionally be sampled to record a {@link ReadTrace} of the storage engine's read
+ * path while the command executes.
+ */
+public final class CommandTrace {
+
+  private volatile long submittedNanos;
+  private volatile boolean replicated;
+  private volatile long storageStartedNanos;
+  private volatile long storageFinishedNanos;
+  private volatile ReadTrace readTrace;
+
+  /** Samples the command so executing it against the storage engine records a {@link ReadTrace}. */
+  public void sampleReadTrace() {
+    readTrace = new ReadTrace();
+  }
+
+  /** Marks the command as submitted, noting whether it must be replicated before executing. */
+  public void markSubmitted(boolean replicated) {
+    this.replicated = replicated;
+    submittedNanos = System.nanoTime();
+  }
+
+  /** Marks the command as having started executing against the storage engine. */
+  public void markStorageStarted() {
+    storageStartedNanos = System.nanoTime();
+  }
+
+  /** Marks the command as having finished executing against the storage engine. */
+  public void markStorageFinished() {
+    storageFinishedNanos = System.nanoTime();
+  }
+
+  /** The time the command was submitted, or 0 if it has not been. */
+  public long getSubmittedNanos() {
+    return submittedNanos;
+  }
+
+  /** Whether the command must be committed by Raft before it is executed. */
+  public boolean isReplicated() {
+    return replicated;
+  }
+
+  /** The time the command started executing against the storage engine, or 0 if it has not. */
+  public long getStorageStartedNanos() {
+    return storageStartedNanos;
+  }
+
+  /** The time the command finished executing against the storage engine, or 0 if it has not. */
+  public long getStorageFinishedNanos() {
+    return storageFinishedNanos;
+  }
+
+  /** The trace of the command's read path, if the command was sampled. */
+  public Optional<ReadTrace> getReadTrace() {
+    return Optional.ofNullable(readTrace);
+  }
+}
@@ -25,17 +25,18 @@ final class DeleteCommand implements StorageCommand {
 
   @Override
   public StorageCommandResults execute() {
-    logger.atInfo().log("Submitting delete for [%s]", deleteDTO.key());
+    String key = deleteDTO.key().toStringUtf8();
+    logger.atInfo().log("Submitting delete for [%s]", key);
 
     try {
       lsmTree.delete(deleteDTO.key());
     } catch (StorageException e) {
-      String responseErrorMessage = String.format("Failed to delete [%s]", deleteDTO.key());
+      String responseErrorMessage = String.format("Failed to delete [%s]", key);
       logger.atWarning().withCause(e).log(responseErrorMessage);
       return new Failed(responseErrorMessage);
     }
 
-    logger.atInfo().log("Successful delete of [%s]", deleteDTO.key());
+    logger.atInfo().log("Successful delete of [%s]", key);
     return new Success("OK");
   }
 
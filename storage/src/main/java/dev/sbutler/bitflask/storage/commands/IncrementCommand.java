@@ -0,0 +1,54 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.IncrementDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+
+/**
+ * Handles submitting an asynchronous task to the storage engine for incrementing the value mapped
+ * by the provided key.
+ */
+final class IncrementCommand implements StorageCommand {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final LSMTree lsmTree;
+  private final IncrementDto incrementDTO;
+
+  public IncrementCommand(LSMTree lsmTree, IncrementDto incrementDTO) {
+    this.lsmTree = lsmTree;
+    this.incrementDTO = incrementDTO;
+  }
+
+  @Override
+  public StorageCommandResults execute() {
+    String key = incrementDTO.key().toStringUtf8();
+    long delta = incrementDTO.delta();
+    logger.atInfo().log("Submitting increment for [%s] by [%d]", key, delta);
+
+    try {
+      lsmTree.increment(incrementDTO.key(), delta, incrementDTO.creationEpochSeconds());
+    } catch (StorageMergeException e) {
+      String responseErrorMessage =
+          String.format("Failed to increment [%s] by [%d]: %s", key, delta, e.getMessage());
+      logger.atInfo().log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    } catch (StorageException e) {
+      String responseErrorMessage = String.format("Failed to increment [%s] by [%d]", key, delta);
+      logger.atWarning().withCause(e).log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    }
+
+    logger.atInfo().log("Successful increment of [%s] by [%d]", key, delta);
+    return new Success("OK");
+  }
+
+  @Override
+  public IncrementDto getDTO() {
+    return incrementDTO;
+  }
+}
@@ -0,0 +1,55 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.MultiReadDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.MultiSuccess;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import java.util.Optional;
+
+/** Handles submitting a read of multiple keys to the storage engine. */
+final class MultiReadCommand implements StorageCommand {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final LSMTree lsmTree;
+  private final MultiReadDto multiReadDTO;
+
+  public MultiReadCommand(LSMTree lsmTree, MultiReadDto multiReadDTO) {
+    this.lsmTree = lsmTree;
+    this.multiReadDTO = multiReadDTO;
+  }
+
+  @Override
+  public StorageCommandResults execute() {
+    int numKeys = multiReadDTO.keys().size();
+    logger.atInfo().log("Submitting read for [%d] keys", numKeys);
+
+    ImmutableSortedMap<ByteString, ByteString> readValues;
+    try {
+      readValues = lsmTree.readAll(multiReadDTO.keys());
+    } catch (StorageException e) {
+      String responseErrorMessage = String.format("Failed to read [%d] keys", numKeys);
+      logger.atWarning().withCause(e).log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    }
+
+    logger.atInfo().log("Found values for [%d] of [%d] keys", readValues.size(), numKeys);
+    ImmutableList<Optional<ByteString>> values =
+        multiReadDTO.keys().stream()
+            .map(key -> Optional.ofNullable(readValues.get(key)))
+            .collect(toImmutableList());
+    return new MultiSuccess(values);
+  }
+
+  @Override
+  public MultiReadDto getDTO() {
+    return multiReadDTO;
+  }
+}
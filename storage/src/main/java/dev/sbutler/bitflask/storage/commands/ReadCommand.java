@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.storage.commands;
 
 import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto.ReadDto;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
@@ -23,23 +24,25 @@ final class ReadCommand implements StorageCommand {
 
   @Override
   public StorageCommandResults execute() {
-    logger.atInfo().log("Submitting read for [%s]", readDTO.key());
+    logger.atInfo().log("Submitting read for [%s]", readDTO.key().toStringUtf8());
 
-    Optional<String> readValue;
+    Optional<ByteString> readValue;
     try {
       readValue = lsmTree.read(readDTO.key());
     } catch (StorageException e) {
-      String responseErrorMessage = String.format("Failed to read [%s]", readDTO.key());
+      String responseErrorMessage = String.format("Failed to read [%s]", readDTO.key().toStringUtf8());
       logger.atWarning().withCause(e).log(responseErrorMessage);
       return new Failed(responseErrorMessage);
     }
 
     if (readValue.isEmpty()) {
-      logger.atInfo().log("No value found for [%s]", readDTO.key());
-      return new Success(String.format("[%s] not found", readDTO.key()));
+      logger.atInfo().log("No value found for [%s]", readDTO.key().toStringUtf8());
+      return new Success(String.format("[%s] not found", readDTO.key().toStringUtf8()));
     }
 
-    logger.atInfo().log("Found value for [%s]:[%s]", readDTO.key(), readValue.get());
+    logger.atInfo().log(
+        "Found value for [%s]:[%s]",
+        readDTO.key().toStringUtf8(), readValue.get().toStringUtf8());
     return new Success(readValue.get());
   }
 
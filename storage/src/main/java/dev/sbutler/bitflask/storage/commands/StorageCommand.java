@@ -1,7 +1,8 @@
 package dev.sbutler.bitflask.storage.commands;
 
 /** Commands that handle interacting with the underlying storage engine. */
-public sealed interface StorageCommand permits ReadCommand, WriteCommand, DeleteCommand {
+public sealed interface StorageCommand permits ReadCommand, MultiReadCommand, WriteCommand,
+    DeleteCommand, WriteBatchCommand, IncrementCommand, AppendCommand {
 
   /** Executes the corresponding command returning the result. */
   StorageCommandResults execute();
@@ -1,13 +1,20 @@
 package dev.sbutler.bitflask.storage.commands;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+
 /**
  * The various commands that the storage engine can accept.
  *
+ * <p>Keys and values are arbitrary bytes. Constructors accepting strings are provided for
+ * convenience and use their UTF-8 encoding.
+ *
  * <p>Input will be validated at construction, throwing an {@link NullPointerException} if a
- * provided string was null, or {@link IllegalArgumentException} if the string is blank or too long.
+ * provided key or value was null, or {@link IllegalArgumentException} if it is empty or too long.
  *
- * <p>A key or value must not be blank, defined by {@code string.isBlank()}. A key or value cannot
- * be longer than 255 each.
+ * <p>A key or value must not be empty. A key cannot be longer than {@link Entry#KEY_MAX_LENGTH}
+ * bytes and a value cannot be longer than {@link Entry#VALUE_MAX_LENGTH} bytes.
  */
 public sealed interface StorageCommandDto {
 
@@ -18,12 +25,33 @@ public sealed interface StorageCommandDto {
   boolean isPersistable();
 
   /** Use when the value mapped by the provided {@code key} should be read. */
-  record ReadDto(String key) implements StorageCommandDto {
+  record ReadDto(ByteString key) implements StorageCommandDto {
 
     public ReadDto {
       CommandInputValidator.validateKey(key);
     }
 
+    public ReadDto(String key) {
+      this(ByteString.copyFromUtf8(key));
+    }
+
+    @Override
+    public boolean isPersistable() {
+      return false;
+    }
+  }
+
+  /**
+   * Use when the values mapped by each of the provided {@code keys} should be read together.
+   *
+   * <p>Values are returned in the order of the provided keys.
+   */
+  record MultiReadDto(ImmutableList<ByteString> keys) implements StorageCommandDto {
+
+    public MultiReadDto {
+      CommandInputValidator.validateKeys(keys);
+    }
+
     @Override
     public boolean isPersistable() {
       return false;
@@ -33,12 +61,26 @@ public sealed interface StorageCommandDto {
   /**
    * Use when the provided {@code key} should be written with a mapping to the provided {@code
    * value}.
+   *
+   * <p>The mapping expires at {@code expiryEpochSeconds}, as the number of seconds since epoch, or
+   * never if it is 0. The expiry is absolute so that it is identical wherever the command is
+   * applied.
    */
-  record WriteDto(String key, String value) implements StorageCommandDto {
+  record WriteDto(ByteString key, ByteString value, long expiryEpochSeconds)
+      implements StorageCommandDto {
 
     public WriteDto {
       CommandInputValidator.validateKey(key);
       CommandInputValidator.validateValue(value);
+      CommandInputValidator.validateExpiryEpochSeconds(expiryEpochSeconds);
+    }
+
+    public WriteDto(ByteString key, ByteString value) {
+      this(key, value, 0);
+    }
+
+    public WriteDto(String key, String value) {
+      this(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
     }
 
     @Override
@@ -48,12 +90,87 @@ public sealed interface StorageCommandDto {
   }
 
   /** Use when the provides {@code key}'s mapping should be deleted. */
-  record DeleteDto(String key) implements StorageCommandDto {
+  record DeleteDto(ByteString key) implements StorageCommandDto {
 
     public DeleteDto {
       CommandInputValidator.validateKey(key);
     }
 
+    public DeleteDto(String key) {
+      this(ByteString.copyFromUtf8(key));
+    }
+
+    @Override
+    public boolean isPersistable() {
+      return true;
+    }
+  }
+
+  /**
+   * Use when the value mapped by the provided {@code key} should be incremented by {@code delta}
+   * without being read.
+   *
+   * <p>The value is treated as a signed decimal integer, or 0 if it is absent or not one.
+   *
+   * <p>The {@code creationEpochSeconds} are resolved once, before the command is replicated, so
+   * every replica evaluates the existing value's expiry at the same instant.
+   */
+  record IncrementDto(ByteString key, long delta, long creationEpochSeconds)
+      implements StorageCommandDto {
+
+    public IncrementDto {
+      CommandInputValidator.validateKey(key);
+      CommandInputValidator.validateCreationEpochSeconds(creationEpochSeconds);
+    }
+
+    public IncrementDto(String key, long delta, long creationEpochSeconds) {
+      this(ByteString.copyFromUtf8(key), delta, creationEpochSeconds);
+    }
+
+    @Override
+    public boolean isPersistable() {
+      return true;
+    }
+  }
+
+  /**
+   * Use when the provided {@code value} should be appended to the value mapped by the provided
+   * {@code key} without it being read.
+   *
+   * <p>The {@code creationEpochSeconds} are resolved once, before the command is replicated, so
+   * every replica evaluates the existing value's expiry at the same instant.
+   */
+  record AppendDto(ByteString key, ByteString value, long creationEpochSeconds)
+      implements StorageCommandDto {
+
+    public AppendDto {
+      CommandInputValidator.validateKey(key);
+      CommandInputValidator.validateValue(value);
+      CommandInputValidator.validateCreationEpochSeconds(creationEpochSeconds);
+    }
+
+    public AppendDto(String key, String value, long creationEpochSeconds) {
+      this(ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value), creationEpochSeconds);
+    }
+
+    @Override
+    public boolean isPersistable() {
+      return true;
+    }
+  }
+
+  /**
+   * Use when all provided {@code operations} should be applied atomically.
+   *
+   * <p>Each operation must be a {@link WriteDto} or {@link DeleteDto}. At least one operation must
+   * be provided.
+   */
+  record WriteBatchDto(ImmutableList<StorageCommandDto> operations) implements StorageCommandDto {
+
+    public WriteBatchDto {
+      CommandInputValidator.validateBatchOperations(operations);
+    }
+
     @Override
     public boolean isPersistable() {
       return true;
@@ -22,10 +22,26 @@ public final class StorageCommandExecutor {
    * Converts the {@link dev.sbutler.bitflask.storage.commands.StorageCommandDto} into a {@link
    * dev.sbutler.bitflask.storage.commands.StorageCommand} and submits it for asynchronous
    * execution.
+   *
+   * <p>The {@link CommandTrace} is marked when execution starts and finishes, and its {@link
+   * dev.sbutler.bitflask.storage.lsm.stats.ReadTrace}, if sampled, is current during execution.
    */
-  public ListenableFuture<StorageCommandResults> submitDto(StorageCommandDto storageCommandDto) {
+  public ListenableFuture<StorageCommandResults> submitDto(
+      StorageCommandDto storageCommandDto, CommandTrace trace) {
     StorageCommand storageCommand = storageCommandFactory.create(storageCommandDto);
-    return Futures.submit(storageCommand::execute, executorService);
+    return Futures.submit(
+        () -> {
+          trace.markStorageStarted();
+          try {
+            return trace
+                .getReadTrace()
+                .map(readTrace -> readTrace.trace(storageCommand::execute))
+                .orElseGet(storageCommand::execute);
+          } finally {
+            trace.markStorageFinished();
+          }
+        },
+        executorService);
   }
 
   /**
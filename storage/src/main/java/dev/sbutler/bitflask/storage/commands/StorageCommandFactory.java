@@ -16,8 +16,15 @@ public final class StorageCommandFactory {
   public StorageCommand create(StorageCommandDto commandDTO) {
     return switch (commandDTO) {
       case StorageCommandDto.ReadDto readDTO -> new ReadCommand(lsmTree, readDTO);
+      case StorageCommandDto.MultiReadDto multiReadDTO ->
+          new MultiReadCommand(lsmTree, multiReadDTO);
       case StorageCommandDto.WriteDto writeDTO -> new WriteCommand(lsmTree, writeDTO);
       case StorageCommandDto.DeleteDto deleteDTO -> new DeleteCommand(lsmTree, deleteDTO);
+      case StorageCommandDto.WriteBatchDto writeBatchDTO ->
+          new WriteBatchCommand(lsmTree, writeBatchDTO);
+      case StorageCommandDto.IncrementDto incrementDTO ->
+          new IncrementCommand(lsmTree, incrementDTO);
+      case StorageCommandDto.AppendDto appendDTO -> new AppendCommand(lsmTree, appendDTO);
     };
   }
 }
@@ -1,9 +1,26 @@
 package dev.sbutler.bitflask.storage.commands;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.Optional;
+
 /** The results of executing a {@link StorageCommand}. */
 public sealed interface StorageCommandResults {
 
-  record Success(String message) implements StorageCommandResults {}
+  /** Contains the bytes resulting from the successful execution, such as a read value. */
+  record Success(ByteString message) implements StorageCommandResults {
+
+    public Success(String message) {
+      this(ByteString.copyFromUtf8(message));
+    }
+  }
+
+  /**
+   * Contains the values resulting from the successful execution of a multi-key read, in the order
+   * of the requested keys. Keys without a value are empty.
+   */
+  record MultiSuccess(ImmutableList<Optional<ByteString>> values)
+      implements StorageCommandResults {}
 
   record Failed(String message) implements StorageCommandResults {}
 }
@@ -0,0 +1,66 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.WriteBatchDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.WriteBatchOperation;
+
+/**
+ * Handles submitting a batch of writes and deletes to the storage engine to be applied atomically.
+ */
+final class WriteBatchCommand implements StorageCommand {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final LSMTree lsmTree;
+  private final WriteBatchDto writeBatchDTO;
+
+  public WriteBatchCommand(LSMTree lsmTree, WriteBatchDto writeBatchDTO) {
+    this.lsmTree = lsmTree;
+    this.writeBatchDTO = writeBatchDTO;
+  }
+
+  @Override
+  public StorageCommandResults execute() {
+    int numOperations = writeBatchDTO.operations().size();
+    logger.atInfo().log("Submitting write batch of [%d] operations", numOperations);
+
+    ImmutableList<WriteBatchOperation> operations =
+        writeBatchDTO.operations().stream()
+            .map(WriteBatchCommand::toWriteBatchOperation)
+            .collect(toImmutableList());
+    try {
+      lsmTree.writeBatch(operations);
+    } catch (StorageException e) {
+      String responseErrorMessage =
+          String.format("Failed to write batch of [%d] operations", numOperations);
+      logger.atWarning().withCause(e).log(responseErrorMessage);
+      return new Failed(responseErrorMessage);
+    }
+
+    logger.atInfo().log("Successful write batch of [%d] operations", numOperations);
+    return new Success("OK");
+  }
+
+  private static WriteBatchOperation toWriteBatchOperation(StorageCommandDto dto) {
+    return switch (dto) {
+      case StorageCommandDto.WriteDto writeDTO ->
+          WriteBatchOperation.put(
+              writeDTO.key(), writeDTO.value(), writeDTO.expiryEpochSeconds());
+      case StorageCommandDto.DeleteDto deleteDTO -> WriteBatchOperation.delete(deleteDTO.key());
+      default -> throw new IllegalArgumentException(
+          "Unsupported write batch operation: " + dto);
+    };
+  }
+
+  @Override
+  public WriteBatchDto getDTO() {
+    return writeBatchDTO;
+  }
+}
@@ -24,18 +24,19 @@ final class WriteCommand implements StorageCommand {
 
   @Override
   public StorageCommandResults execute() {
-    logger.atInfo().log("Submitting write for [%s]:[%s]", writeDTO.key(), writeDTO.value());
+    String key = writeDTO.key().toStringUtf8();
+    String value = writeDTO.value().toStringUtf8();
+    logger.atInfo().log("Submitting write for [%s]:[%s]", key, value);
 
     try {
-      lsmTree.write(writeDTO.key(), writeDTO.value());
+      lsmTree.write(writeDTO.key(), writeDTO.value(), writeDTO.expiryEpochSeconds());
     } catch (StorageException e) {
-      String responseErrorMessage =
-          String.format("Failed to write [%s]:[%s]", writeDTO.key(), writeDTO.value());
+      String responseErrorMessage = String.format("Failed to write [%s]:[%s]", key, value);
       logger.atWarning().withCause(e).log(responseErrorMessage);
       return new Failed(responseErrorMessage);
     }
 
-    logger.atInfo().log("Successful write of [%s]:[%s]", writeDTO.key(), writeDTO.value());
+    logger.atInfo().log("Successful write of [%s]:[%s]", key, value);
     return new Success("OK");
   }
 
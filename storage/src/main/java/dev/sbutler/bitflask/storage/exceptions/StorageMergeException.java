@@ -0,0 +1,12 @@
+package dev.sbutler.bitflask.storage.exceptions;
+
+/**
+ * Indicates a merge operand could not be applied to the value of its key, such as incrementing a
+ * value that is not an integer. The key's value is left unchanged.
+ */
+public class StorageMergeException extends StorageException {
+
+  public StorageMergeException(String message) {
+    super(message);
+  }
+}
@@ -1,13 +1,24 @@
 package dev.sbutler.bitflask.storage.lsm;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.exceptions.StorageException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
+import dev.sbutler.bitflask.storage.lsm.segment.Segment;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.Predicate;
 
 /** A Log Structured Merge Tree implementation for reading and writing key:value pairs. */
 @Singleton
@@ -16,6 +27,8 @@ public final class LSMTree {
   private final ListeningScheduledExecutorService scheduledExecutorService;
   private final LSMTreeReader reader;
   private final LSMTreeWriter writer;
+  private final LSMTreeStateManager stateManager;
+  private final StorageStats stats;
 
   private volatile boolean isClosed = false;
 
@@ -24,29 +37,153 @@ public final class LSMTree {
       @LSMTreeListeningScheduledExecutorService
           ListeningScheduledExecutorService scheduledExecutorService,
       LSMTreeReader reader,
-      LSMTreeWriter writer) {
+      LSMTreeWriter writer,
+      LSMTreeStateManager stateManager,
+      StorageStats stats) {
     this.scheduledExecutorService = scheduledExecutorService;
     this.reader = reader;
     this.writer = writer;
+    this.stateManager = stateManager;
+    this.stats = stats;
   }
 
-  /** Reads the value of the provided key and returns it, if present. */
-  public Optional<String> read(String key) {
+  /** Reads the value of the provided key and returns it, if present and not expired. */
+  public Optional<ByteString> read(ByteString key) {
     checkOpenOrThrow();
-    return reader.read(key).filter(Predicate.not(Entry::isDeleted)).map(Entry::value);
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    return reader.read(key).filter(entry -> isLive(entry, nowEpochSeconds)).map(Entry::value);
+  }
+
+  /**
+   * Reads the values of any of the provided keys, mapped by key in key order.
+   *
+   * <p>All keys are read from a single snapshot and each segment is probed at most once per level.
+   * Keys without a value, or whose value has expired, are omitted.
+   */
+  public ImmutableSortedMap<ByteString, ByteString> readAll(Collection<ByteString> keys) {
+    checkOpenOrThrow();
+    ImmutableSortedMap.Builder<ByteString, ByteString> values =
+        ImmutableSortedMap.orderedBy(Entry.KEY_COMPARATOR);
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    reader.readAll(keys).forEach((key, entry) -> {
+      if (isLive(entry, nowEpochSeconds)) {
+        values.put(key, entry.value());
+      }
+    });
+    return values.buildOrThrow();
   }
 
   /** Writes the provided key:value pair. */
-  public void write(String key, String value) {
+  public void write(ByteString key, ByteString value) {
+    write(key, value, Entry.NO_EXPIRY);
+  }
+
+  /**
+   * Writes the provided key:value pair which expires at the provided time, as the number of
+   * seconds since epoch, or never if it is {@link Entry#NO_EXPIRY}.
+   */
+  public void write(ByteString key, ByteString value, long expiryEpochSeconds) {
     checkOpenOrThrow();
-    Entry entry = new Entry(Instant.now().getEpochSecond(), key, value);
+    Entry entry = new Entry(Instant.now().getEpochSecond(), key, value, expiryEpochSeconds);
     writer.write(entry);
   }
 
+  /**
+   * Adds the delta to the key's value, which is treated as a signed decimal integer.
+   *
+   * <p>A key without a value is treated as 0. The key's expiry, if any, is kept. A {@link
+   * dev.sbutler.bitflask.storage.exceptions.StorageMergeException} is thrown, leaving the value
+   * unchanged, if it is not a decimal integer or the sum overflows.
+   *
+   * <p>The value's expiry is evaluated at {@code creationEpochSeconds}, rather than when the
+   * increment is applied, so replicas applying it at different times resolve the same value.
+   */
+  public void increment(ByteString key, long delta, long creationEpochSeconds) {
+    merge(
+        key,
+        ByteString.copyFromUtf8(Long.toString(delta)),
+        MergeOperator.INCREMENT,
+        creationEpochSeconds);
+  }
+
+  /**
+   * Appends the provided bytes to the key's value.
+   *
+   * <p>A key without a value is treated as having an empty one. The key's expiry, if any, is kept.
+   * A {@link dev.sbutler.bitflask.storage.exceptions.StorageMergeException} is thrown, leaving the
+   * value unchanged, if the result would be longer than {@link Entry#VALUE_MAX_LENGTH}.
+   *
+   * <p>The value's expiry is evaluated at {@code creationEpochSeconds}, rather than when the
+   * append is applied, so replicas applying it at different times resolve the same value.
+   */
+  public void append(ByteString key, ByteString value, long creationEpochSeconds) {
+    merge(key, value, MergeOperator.APPEND, creationEpochSeconds);
+  }
+
+  /**
+   * Merges the operand onto the key's value atomically.
+   *
+   * <p>The key's value is only read from the Segments if the Memtable does not already hold it.
+   */
+  private void merge(
+      ByteString key, ByteString operand, MergeOperator mergeOperator, long creationEpochSeconds) {
+    checkOpenOrThrow();
+    Entry operandEntry = Entry.mergeOperand(creationEpochSeconds, key, operand, mergeOperator);
+    writer.merge(operandEntry, currentState -> reader.readResolvedFromSegments(currentState, key));
+  }
+
   /** Deletes the key and any associated entry. */
-  public void delete(String key) {
+  public void delete(ByteString key) {
     checkOpenOrThrow();
-    write(key, "");
+    write(key, ByteString.EMPTY);
+  }
+
+  /**
+   * Atomically applies all provided puts and deletes.
+   *
+   * <p>Either all operations are persisted and visible, or none are. If a key appears more than
+   * once the last operation for it is applied.
+   */
+  public void writeBatch(List<WriteBatchOperation> operations) {
+    checkOpenOrThrow();
+    if (operations.isEmpty()) {
+      return;
+    }
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    Map<ByteString, Entry> entriesByKey = new LinkedHashMap<>();
+    for (WriteBatchOperation operation : operations) {
+      entriesByKey.put(
+          operation.key(),
+          new Entry(
+              creationEpochSeconds,
+              operation.key(),
+              operation.value(),
+              operation.expiryEpochSeconds()));
+    }
+    writer.writeBatch(ImmutableList.copyOf(entriesByKey.values()));
+  }
+
+  /**
+   * Returns a snapshot of the statistics recorded by the LSMTree, including the number of segments
+   * and bytes currently in each segment level.
+   */
+  public StorageStats.Snapshot getStats() {
+    ImmutableListMultimap.Builder<Integer, Long> segmentNumBytesByLevel =
+        ImmutableListMultimap.builder();
+    try (var currentState = stateManager.getCurrentState()) {
+      SegmentLevelMultiMap segmentLevelMultiMap = currentState.getSegmentLevelMultiMap();
+      for (int segmentLevel : segmentLevelMultiMap.getSegmentLevels()) {
+        for (Segment segment : segmentLevelMultiMap.getSegmentsInLevel(segmentLevel)) {
+          segmentNumBytesByLevel.put(segmentLevel, segment.getNumBytesSize());
+        }
+      }
+    }
+    return stats.snapshot(segmentNumBytesByLevel.build());
+  }
+
+  /** Returns true if the entry holds a value that has been neither deleted nor expired. */
+  private static boolean isLive(Entry entry, long nowEpochSeconds) {
+    return !entry.isDeleted() && !entry.isExpired(nowEpochSeconds);
   }
 
   private void checkOpenOrThrow() {
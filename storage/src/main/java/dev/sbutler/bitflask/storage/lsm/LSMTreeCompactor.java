@@ -1,8 +1,10 @@
 package dev.sbutler.bitflask.storage.lsm;
 
 import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageCompactionException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.memtable.MemtableFactory;
@@ -10,10 +12,14 @@ import dev.sbutler.bitflask.storage.lsm.segment.Segment;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentFactory;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelCompactor;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.MemtableFlushEvent;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.SortedMap;
 
 /**
@@ -30,6 +36,8 @@ final class LSMTreeCompactor implements Runnable {
   private final MemtableFactory memtableFactory;
   private final SegmentFactory segmentFactory;
   private final SegmentLevelCompactor segmentLevelCompactor;
+  private final BlobStore blobStore;
+  private final StorageStats stats;
 
   @Inject
   LSMTreeCompactor(
@@ -37,12 +45,16 @@ final class LSMTreeCompactor implements Runnable {
       LSMTreeStateManager stateManager,
       SegmentLevelCompactor segmentLevelCompactor,
       MemtableFactory memtableFactory,
-      SegmentFactory segmentFactory) {
+      SegmentFactory segmentFactory,
+      BlobStore blobStore,
+      StorageStats stats) {
     this.storageConfig = storageConfig;
     this.stateManager = stateManager;
     this.segmentLevelCompactor = segmentLevelCompactor;
     this.memtableFactory = memtableFactory;
     this.segmentFactory = segmentFactory;
+    this.blobStore = blobStore;
+    this.stats = stats;
   }
 
   @Override
@@ -68,11 +80,12 @@ final class LSMTreeCompactor implements Runnable {
         return false;
       }
 
-      SortedMap<String, Entry> flushedMemtable = currentState.getMemtable().flush();
+      MemtableFlushEvent flushEvent = new MemtableFlushEvent();
+      flushEvent.begin();
+      SortedMap<ByteString, Entry> flushedMemtable = currentState.getMemtable().flush();
       Segment segmentFromMemtable;
       try {
-        segmentFromMemtable =
-            segmentFactory.create(flushedMemtable, 0, currentState.getMemtable().getNumBytesSize());
+        segmentFromMemtable = segmentFactory.create(flushedMemtable, 0);
       } catch (IOException e) {
         throw new StorageCompactionException("Failed to create new Segment from Memtable", e);
       }
@@ -90,6 +103,15 @@ final class LSMTreeCompactor implements Runnable {
 
       // update state and release lock
       stateManager.updateCurrentState(newMemtable, newMultiMap);
+      closeFlushedMemtable(currentState.getMemtable());
+      stats.recordFlush(segmentFromMemtable.getNumBytesSize());
+      flushEvent.end();
+      if (flushEvent.shouldCommit()) {
+        flushEvent.numEntries = flushedMemtable.size();
+        flushEvent.segmentNumber = segmentFromMemtable.getSegmentNumber();
+        flushEvent.segmentNumBytes = segmentFromMemtable.getNumBytesSize();
+        flushEvent.commit();
+      }
 
       logger.atInfo().log(
           "Flushed Memtable with [%d] Entries to Segment [%d]",
@@ -98,6 +120,18 @@ final class LSMTreeCompactor implements Runnable {
     return true;
   }
 
+  /**
+   * Closes the flushed {@link Memtable}, releasing its memory. It is no longer reachable from the
+   * current state and the state's lock is still held, so no reader can be using it.
+   */
+  private void closeFlushedMemtable(Memtable flushedMemtable) {
+    try {
+      flushedMemtable.close();
+    } catch (IOException e) {
+      logger.atWarning().withCause(e).log("Failed to close flushed Memtable");
+    }
+  }
+
   /**
    * Iterates the current segment level's compacting each, if their threshold size has been reached,
    * and updates the {@link LSMTreeStateManager} state accordingly.
@@ -124,11 +158,38 @@ final class LSMTreeCompactor implements Runnable {
     if (segmentLevel > 0) {
       try (var currentState = stateManager.getAndLockCurrentState()) {
         stateManager.updateCurrentState(currentState.getMemtable(), segmentLevelMultiMap);
+        closeCompactedSegments(currentState.getSegmentLevelMultiMap(), segmentLevelMultiMap);
       }
+      blobStore.deleteUnreferenced(segmentLevelMultiMap.getBlobReferencedBytes().keySet());
     }
     return segmentLevel;
   }
 
+  /**
+   * Closes the {@link Segment}s that were compacted away. They are no longer reachable from the
+   * current state and the state's lock is still held, so no reader can be using them.
+   */
+  private static void closeCompactedSegments(
+      SegmentLevelMultiMap previousMultiMap, SegmentLevelMultiMap currentMultiMap) {
+    Set<Segment> currentSegments = new HashSet<>();
+    currentMultiMap.getSegmentLevels().stream()
+        .map(currentMultiMap::getSegmentsInLevel)
+        .forEach(currentSegments::addAll);
+    for (int segmentLevel : previousMultiMap.getSegmentLevels()) {
+      for (Segment segment : previousMultiMap.getSegmentsInLevel(segmentLevel)) {
+        if (currentSegments.contains(segment)) {
+          continue;
+        }
+        try {
+          segment.close();
+        } catch (IOException e) {
+          logger.atWarning().withCause(e).log(
+              "Failed to close compacted Segment [%d]", segment.getSegmentNumber());
+        }
+      }
+    }
+  }
+
   private long getSegmentLevelFlushThreshold(int segmentLevel) {
     return Math.round(
         Math.pow(storageConfig.getSegmentLevelFlushThresholdBytes(), (segmentLevel + 1)));
@@ -0,0 +1,35 @@
+package dev.sbutler.bitflask.storage.lsm;
+
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
+import jakarta.inject.Inject;
+import java.time.Instant;
+
+/**
+ * Periodically releases the values of expired entries held by the current {@link Memtable}.
+ *
+ * <p>Expired entries in {@link dev.sbutler.bitflask.storage.lsm.segment.Segment}s are dropped
+ * during compaction instead.
+ */
+final class LSMTreeExpirer implements Runnable {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final LSMTreeStateManager stateManager;
+
+  @Inject
+  LSMTreeExpirer(LSMTreeStateManager stateManager) {
+    this.stateManager = stateManager;
+  }
+
+  @Override
+  public void run() {
+    int numExpired;
+    try (var currentState = stateManager.getCurrentState()) {
+      numExpired = currentState.getMemtable().expireEntries(Instant.now().getEpochSecond());
+    }
+    if (numExpired > 0) {
+      logger.atFine().log("Expired [%d] Memtable Entries", numExpired);
+    }
+  }
+}
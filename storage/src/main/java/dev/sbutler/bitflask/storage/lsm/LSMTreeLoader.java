@@ -5,6 +5,7 @@ import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import dev.sbutler.bitflask.common.concurrency.VirtualThreadFactory;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStoreLoader;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.memtable.MemtableLoader;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
@@ -20,13 +21,18 @@ public final class LSMTreeLoader {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
+  /** The delay between runs of the {@link LSMTreeExpirer}, matching the expiry resolution. */
+  static final Duration EXPIRER_EXECUTION_DELAY = Duration.ofSeconds(1);
+
   private final StorageConfig storageConfig;
   private final ListeningScheduledExecutorService scheduledExecutorService;
   private final ThreadFactory threadFactory;
   private final LSMTreeStateManager stateManager;
   private final LSMTreeCompactor compactor;
+  private final LSMTreeExpirer expirer;
   private final MemtableLoader memtableLoader;
   private final SegmentLevelMultiMapLoader segmentLevelMultiMapLoader;
+  private final BlobStoreLoader blobStoreLoader;
 
   @Inject
   LSMTreeLoader(
@@ -35,15 +41,19 @@ public final class LSMTreeLoader {
           ListeningScheduledExecutorService scheduledExecutorService,
       LSMTreeStateManager stateManager,
       LSMTreeCompactor compactor,
+      LSMTreeExpirer expirer,
       MemtableLoader memtableLoader,
-      SegmentLevelMultiMapLoader segmentLevelMultiMapLoader) {
+      SegmentLevelMultiMapLoader segmentLevelMultiMapLoader,
+      BlobStoreLoader blobStoreLoader) {
     this.storageConfig = storageConfig;
     this.scheduledExecutorService = scheduledExecutorService;
     this.threadFactory = new VirtualThreadFactory("lsm-tree-loader-");
     this.stateManager = stateManager;
     this.compactor = compactor;
+    this.expirer = expirer;
     this.memtableLoader = memtableLoader;
     this.segmentLevelMultiMapLoader = segmentLevelMultiMapLoader;
+    this.blobStoreLoader = blobStoreLoader;
   }
 
   /** Initiate loading of all {@link LSMTree} resources. */
@@ -54,9 +64,12 @@ public final class LSMTreeLoader {
         "Loaded Memtable & SegmentLevel MultiMap in [%d]ms",
         Duration.between(startInstant, Instant.now()).toMillis());
     scheduleCompactor();
+    scheduleExpirer();
   }
 
   private void loadMemtableAndSegmentLevelMultiMap() {
+    // Blob files must be available before any Segment referencing them can be read
+    blobStoreLoader.load();
     try (var scope = new StructuredTaskScope.ShutdownOnFailure("lsm-tree-loader", threadFactory)) {
       StructuredTaskScope.Subtask<Memtable> memtable = scope.fork(memtableLoader::load);
       StructuredTaskScope.Subtask<SegmentLevelMultiMap> multiMap =
@@ -82,4 +95,9 @@ public final class LSMTreeLoader {
         Duration.ofMinutes(0),
         Duration.ofMillis(storageConfig.getCompactorExecutionDelayMilliseconds()));
   }
+
+  private void scheduleExpirer() {
+    scheduledExecutorService.scheduleWithFixedDelay(
+        expirer, EXPIRER_EXECUTION_DELAY, EXPIRER_EXECUTION_DELAY);
+  }
 }
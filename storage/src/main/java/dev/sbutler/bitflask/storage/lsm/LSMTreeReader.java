@@ -1,65 +1,315 @@
 package dev.sbutler.bitflask.storage.lsm;
 
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.StorageConfig.SegmentReadMode;
+import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageReadException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryUtils;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
+import dev.sbutler.bitflask.storage.lsm.stats.SegmentProbeEvent;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import jakarta.inject.Inject;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.StructuredTaskScope;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /** Handles read related tasks for the {@link LSMTree}. */
 final class LSMTreeReader {
 
+  /**
+   * The maximum number of candidate segments within a level that are probed sequentially on the
+   * calling thread before reads are forked onto separate threads.
+   */
+  static final int DEFAULT_INLINE_READ_THRESHOLD = 2;
+
+  private static final Comparator<Segment> NEWEST_SEGMENT_FIRST =
+      Comparator.comparingLong(Segment::getSegmentNumber).reversed();
+
   private final LSMTreeStateManager stateManager;
   private final ThreadFactory threadFactory;
+  private final SegmentReadMode segmentReadMode;
+  private final int inlineReadThreshold;
+  private final StorageStats stats;
 
   @Inject
-  LSMTreeReader(LSMTreeStateManager stateManager, ThreadFactory threadFactory) {
+  LSMTreeReader(
+      LSMTreeStateManager stateManager,
+      ThreadFactory threadFactory,
+      StorageConfig storageConfig,
+      StorageStats stats) {
+    this(
+        stateManager,
+        threadFactory,
+        storageConfig.getSegmentReadMode(),
+        DEFAULT_INLINE_READ_THRESHOLD,
+        stats);
+  }
+
+  LSMTreeReader(
+      LSMTreeStateManager stateManager,
+      ThreadFactory threadFactory,
+      SegmentReadMode segmentReadMode,
+      int inlineReadThreshold,
+      StorageStats stats) {
+    checkArgument(
+        inlineReadThreshold >= 0,
+        "Inline read threshold must be non-negative. Provided [%s]",
+        inlineReadThreshold);
     this.stateManager = stateManager;
     this.threadFactory = threadFactory;
+    this.segmentReadMode = segmentReadMode;
+    this.inlineReadThreshold = inlineReadThreshold;
+    this.stats = stats;
   }
 
   /**
    * Reads the {@link dev.sbutler.bitflask.storage.lsm.entry.Entry} associated with the key and
    * returns it, if present.
+   *
+   * <p>Segments are read using the configured {@link SegmentReadMode}. The current state is held
+   * until any asynchronous Segment reads complete.
+   *
+   * <p>If the newest entry is a merge operand, it is folded with the older entries for the key and
+   * the resulting entry is returned.
+   *
+   * <p>The number of Segments read is recorded in the {@link StorageStats}, and the filter checks
+   * and reads in a {@link SegmentProbeEvent} and any current {@link ReadTrace}.
+   */
+  Optional<Entry> read(ByteString key) {
+    SegmentProbeEvent probeEvent = new SegmentProbeEvent();
+    probeEvent.begin();
+    ReadProbes readProbes = new ReadProbes();
+    Optional<Entry> entry;
+    try (var currentState = stateManager.getCurrentState()) {
+      entry = readNewestEntry(currentState, key, readProbes);
+      if (entry.isPresent() && entry.get().isMergeOperand()) {
+        entry = Optional.of(resolveMergeOperands(currentState, key, readProbes));
+      }
+    }
+    stats.recordRead(readProbes.segmentsRead);
+    ReadTrace.current()
+        .ifPresent(
+            readTrace ->
+                readTrace.recordSegmentProbes(
+                    readProbes.filterChecks,
+                    readProbes.filterChecks - readProbes.filterPositives,
+                    readProbes.segmentsRead,
+                    readProbes.filterFalsePositives));
+    probeEvent.end();
+    if (probeEvent.shouldCommit()) {
+      probeEvent.numFilterChecks = readProbes.filterChecks;
+      probeEvent.numFilterNegatives = readProbes.filterChecks - readProbes.filterPositives;
+      probeEvent.numSegmentsRead = readProbes.segmentsRead;
+      probeEvent.numFilterFalsePositives = readProbes.filterFalsePositives;
+      probeEvent.found = entry.isPresent();
+      probeEvent.commit();
+    }
+    return entry;
+  }
+
+  private Optional<Entry> readNewestEntry(
+      LSMTreeStateManager.CurrentState currentState,
+      ByteString key,
+      ReadProbes readProbes) {
+    Optional<Entry> memtableEntry = currentState.getMemtable().read(key);
+    if (memtableEntry.isPresent()) {
+      return memtableEntry;
+    }
+    SegmentLevelMultiMap segmentLevelMultiMap = currentState.getSegmentLevelMultiMap();
+    if (segmentReadMode == SegmentReadMode.ASYNC) {
+      return joinSegmentRead(
+          readFromSegmentsAsync(
+              segmentLevelMultiMap,
+              key,
+              segmentLevelMultiMap.getSegmentLevels().iterator(),
+              readProbes));
+    }
+    return readFromSegments(segmentLevelMultiMap, key, readProbes);
+  }
+
+  /**
+   * Reads the {@link Entry}s associated with any of the provided keys, mapped by key.
+   *
+   * <p>All keys are read from a single snapshot of the current state. Each candidate
+   * {@link Segment} is probed once for all of the remaining keys it might contain rather than once
+   * per key. Keys without an entry are omitted. Keys whose newest entry is a merge operand are
+   * resolved as in {@link #read(ByteString)}.
    */
-  Optional<Entry> read(String key) {
+  ImmutableSortedMap<ByteString, Entry> readAll(Collection<ByteString> keys) {
+    ImmutableSortedSet<ByteString> sortedKeys =
+        ImmutableSortedSet.copyOf(Entry.KEY_COMPARATOR, keys);
     try (var currentState = stateManager.getCurrentState()) {
-      return currentState
-          .getMemtable()
-          .read(key)
-          .or(() -> readFromSegments(currentState.getSegmentLevelMultiMap(), key));
+      SortedMap<ByteString, Entry> foundEntries = new TreeMap<>(Entry.KEY_COMPARATOR);
+      foundEntries.putAll(currentState.getMemtable().readAll(sortedKeys));
+
+      SegmentLevelMultiMap segmentLevelMultiMap = currentState.getSegmentLevelMultiMap();
+      for (var segmentLevel : segmentLevelMultiMap.getSegmentLevels()) {
+        List<ByteString> remainingKeys =
+            sortedKeys.stream().filter(key -> !foundEntries.containsKey(key)).toList();
+        if (remainingKeys.isEmpty()) {
+          break;
+        }
+        foundEntries.putAll(
+            readNewestEntriesAtSegmentLevel(segmentLevelMultiMap, remainingKeys, segmentLevel));
+      }
+      foundEntries.replaceAll((key, entry) -> entry.isMergeOperand()
+          ? resolveMergeOperands(currentState, key, new ReadProbes())
+          : entry);
+      return ImmutableSortedMap.copyOfSorted(foundEntries);
+    }
+  }
+
+  /**
+   * Reads the entries for the key newest first until one that is not a merge operand is found, and
+   * folds the merge operands read before it onto it.
+   *
+   * <p>Segments are read sequentially on the calling thread since every level may need to be read.
+   */
+  private Entry resolveMergeOperands(
+      LSMTreeStateManager.CurrentState currentState,
+      ByteString key,
+      ReadProbes readProbes) {
+    List<Entry> operandsNewestFirst = new ArrayList<>();
+    Optional<Entry> memtableEntry = currentState.getMemtable().read(key);
+    if (memtableEntry.isPresent()) {
+      if (!memtableEntry.get().isMergeOperand()) {
+        return memtableEntry.get();
+      }
+      operandsNewestFirst.add(memtableEntry.get());
+    }
+    return resolveFromSegments(currentState, key, operandsNewestFirst, readProbes).orElseThrow();
+  }
+
+  /**
+   * Reads the entry for the key from the {@link Segment}s of the current state, ignoring its
+   * Memtable, with any merge operands folded onto the older entries for the key.
+   *
+   * <p>Segments are read sequentially on the calling thread since every level may need to be read.
+   */
+  Optional<Entry> readResolvedFromSegments(
+      LSMTreeStateManager.CurrentState currentState, ByteString key) {
+    return resolveFromSegments(currentState, key, new ArrayList<>(), new ReadProbes());
+  }
+
+  /**
+   * Reads the entries for the key from the Segments newest first until one that is not a merge
+   * operand is found, and folds the provided operands, followed by those read before it, onto it.
+   * Empty is returned if there are no operands and no entry is found.
+   */
+  private Optional<Entry> resolveFromSegments(
+      LSMTreeStateManager.CurrentState currentState,
+      ByteString key,
+      List<Entry> operandsNewestFirst,
+      ReadProbes readProbes) {
+    SegmentLevelMultiMap segmentLevelMultiMap = currentState.getSegmentLevelMultiMap();
+    try {
+      for (var segmentLevel : segmentLevelMultiMap.getSegmentLevels()) {
+        ImmutableList<Segment> candidateSegments =
+            getCandidateSegments(segmentLevelMultiMap, key, segmentLevel, readProbes);
+        for (Segment segment : candidateSegments) {
+          Optional<Entry> entry = recordSegmentProbe(segment.readEntry(key), readProbes);
+          if (entry.isEmpty()) {
+            continue;
+          }
+          if (!entry.get().isMergeOperand()) {
+            return operandsNewestFirst.isEmpty()
+                ? entry
+                : Optional.of(EntryUtils.foldMergeOperands(operandsNewestFirst, entry));
+          }
+          operandsNewestFirst.add(entry.get());
+        }
+      }
+    } catch (IOException e) {
+      throw new StorageReadException(e);
     }
+    return operandsNewestFirst.isEmpty()
+        ? Optional.empty()
+        : Optional.of(EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.empty()));
   }
 
-  private Optional<Entry> readFromSegments(SegmentLevelMultiMap segmentLevelMultiMap, String key) {
+  private Optional<Entry> readFromSegments(
+      SegmentLevelMultiMap segmentLevelMultiMap, ByteString key, ReadProbes readProbes) {
     for (var segmentLevel : segmentLevelMultiMap.getSegmentLevels()) {
-      Optional<Entry> minEntryValue =
-          readMinEntryAtSegmentLevel(segmentLevelMultiMap, key, segmentLevel);
-      if (minEntryValue.isPresent()) {
-        return minEntryValue;
+      Optional<Entry> newestEntry =
+          readNewestEntryAtSegmentLevel(segmentLevelMultiMap, key, segmentLevel, readProbes);
+      if (newestEntry.isPresent()) {
+        return newestEntry;
+      }
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Reads the newest entry for the key from the segments in the provided level.
+   *
+   * <p>Segments whose filter reports they might contain the key are probed newest first. When at
+   * most {@code inlineReadThreshold} segments are candidates they are read on the calling thread,
+   * stopping at the first hit. Otherwise, all candidates are read concurrently and the hit from the
+   * newest segment is returned.
+   */
+  private Optional<Entry> readNewestEntryAtSegmentLevel(
+      SegmentLevelMultiMap segmentLevelMultiMap,
+      ByteString key,
+      int segmentLevel,
+      ReadProbes readProbes) {
+    ImmutableList<Segment> candidateSegments =
+        getCandidateSegments(segmentLevelMultiMap, key, segmentLevel, readProbes);
+    if (candidateSegments.isEmpty()) {
+      return Optional.empty();
+    }
+    if (candidateSegments.size() <= inlineReadThreshold) {
+      return readNewestEntryInline(candidateSegments, key, readProbes);
+    }
+    return readNewestEntryForked(candidateSegments, key, readProbes);
+  }
+
+  private Optional<Entry> readNewestEntryInline(
+      ImmutableList<Segment> candidateSegments, ByteString key, ReadProbes readProbes) {
+    try {
+      for (Segment segment : candidateSegments) {
+        Optional<Entry> entry = recordSegmentProbe(segment.readEntry(key), readProbes);
+        if (entry.isPresent()) {
+          return entry;
+        }
       }
+    } catch (IOException e) {
+      throw new StorageReadException(e);
     }
     return Optional.empty();
   }
 
-  private Optional<Entry> readMinEntryAtSegmentLevel(
-      SegmentLevelMultiMap segmentLevelMultiMap, String key, int segmentLevel) {
+  private Optional<Entry> readNewestEntryForked(
+      ImmutableList<Segment> candidateSegments, ByteString key, ReadProbes readProbes) {
     try (var scope =
         new StructuredTaskScope.ShutdownOnFailure("read-segments-scope", threadFactory)) {
       List<StructuredTaskScope.Subtask<Optional<Entry>>> segmentReadFutures = new ArrayList<>();
-      for (Segment segment : segmentLevelMultiMap.getSegmentsInLevel(segmentLevel)) {
-        if (segment.mightContain(key)) {
-          segmentReadFutures.add(scope.fork(() -> segment.readEntry(key)));
-        }
-      }
-      if (segmentReadFutures.isEmpty()) {
-        return Optional.empty();
+      for (Segment segment : candidateSegments) {
+        segmentReadFutures.add(
+            scope.fork(() -> recordSegmentProbe(segment.readEntry(key), readProbes)));
       }
 
       try {
@@ -73,7 +323,208 @@ final class LSMTreeReader {
       return segmentReadFutures.stream()
           .map(StructuredTaskScope.Subtask::get)
           .flatMap(Optional::stream)
-          .min(Comparator.comparingLong(Entry::creationEpochSeconds));
+          .findFirst();
+    }
+  }
+
+  /**
+   * Asynchronously reads the newest entry for the key from the remaining segment levels, only
+   * continuing on to the next level once the current level has no entry for the key.
+   */
+  private CompletableFuture<Optional<Entry>> readFromSegmentsAsync(
+      SegmentLevelMultiMap segmentLevelMultiMap,
+      ByteString key,
+      Iterator<Integer> segmentLevels,
+      ReadProbes readProbes) {
+    if (!segmentLevels.hasNext()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return readNewestEntryAtSegmentLevelAsync(
+            segmentLevelMultiMap, key, segmentLevels.next(), readProbes)
+        .thenCompose(newestEntry -> newestEntry.isPresent()
+            ? CompletableFuture.completedFuture(newestEntry)
+            : readFromSegmentsAsync(segmentLevelMultiMap, key, segmentLevels, readProbes));
+  }
+
+  /**
+   * Issues an asynchronous read to every candidate segment in the level and returns the hit from
+   * the newest segment. No thread is parked while the reads are outstanding.
+   */
+  private CompletableFuture<Optional<Entry>> readNewestEntryAtSegmentLevelAsync(
+      SegmentLevelMultiMap segmentLevelMultiMap,
+      ByteString key,
+      int segmentLevel,
+      ReadProbes readProbes) {
+    ImmutableList<CompletableFuture<Optional<Entry>>> segmentReadFutures =
+        getCandidateSegments(segmentLevelMultiMap, key, segmentLevel, readProbes).stream()
+            .map(segment -> segment.readEntryAsync(key)
+                .thenApply(entry -> recordSegmentProbe(entry, readProbes)))
+            .collect(toImmutableList());
+    return CompletableFuture.allOf(segmentReadFutures.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> segmentReadFutures.stream()
+            .map(CompletableFuture::join)
+            .flatMap(Optional::stream)
+            .findFirst());
+  }
+
+  /**
+   * Returns the segments in the level that might contain the key, ordered newest first.
+   */
+  private ImmutableList<Segment> getCandidateSegments(
+      SegmentLevelMultiMap segmentLevelMultiMap,
+      ByteString key,
+      int segmentLevel,
+      ReadProbes readProbes) {
+    return segmentLevelMultiMap.getSegmentsInLevel(segmentLevel).stream()
+        .filter(segment -> readProbes.recordFilterCheck(mightContain(segment, key)))
+        .sorted(NEWEST_SEGMENT_FIRST)
+        .collect(toImmutableList());
+  }
+
+  /** Checks the segment's filter for the key, recording the result in the {@link StorageStats}. */
+  private boolean mightContain(Segment segment, ByteString key) {
+    boolean mightContain = segment.mightContain(key);
+    stats.recordBloomFilterCheck(mightContain);
+    return mightContain;
+  }
+
+  /**
+   * Counts the read of a candidate segment, recording a filter false positive if it did not hold an
+   * entry for the key.
+   */
+  private Optional<Entry> recordSegmentProbe(Optional<Entry> entry, ReadProbes readProbes) {
+    readProbes.recordSegmentRead(entry.isPresent());
+    if (entry.isEmpty()) {
+      stats.recordBloomFilterFalsePositives(1);
+    }
+    return entry;
+  }
+
+  /**
+   * Waits for the asynchronous segment read to complete, converting any failure into a
+   * {@link StorageReadException}.
+   */
+  private static Optional<Entry> joinSegmentRead(CompletableFuture<Optional<Entry>> segmentRead) {
+    try {
+      return segmentRead.join();
+    } catch (CompletionException e) {
+      throw new StorageReadException(e.getCause());
+    }
+  }
+
+  /**
+   * Reads the newest entries for the keys from the segments in the provided level.
+   *
+   * <p>Each segment is only read for the keys its filter reports it might contain. As with single
+   * key reads, when at most {@code inlineReadThreshold} segments are candidates they are read on the
+   * calling thread. Otherwise, all candidates are read concurrently. Entries from newer segments take
+   * precedence.
+   */
+  private Map<ByteString, Entry> readNewestEntriesAtSegmentLevel(
+      SegmentLevelMultiMap segmentLevelMultiMap, List<ByteString> keys, int segmentLevel) {
+    Map<Segment, List<ByteString>> candidateKeysBySegment = new LinkedHashMap<>();
+    for (Segment segment :
+        ImmutableList.sortedCopyOf(
+            NEWEST_SEGMENT_FIRST, segmentLevelMultiMap.getSegmentsInLevel(segmentLevel))) {
+      List<ByteString> candidateKeys =
+          keys.stream().filter(key -> mightContain(segment, key)).toList();
+      if (!candidateKeys.isEmpty()) {
+        candidateKeysBySegment.put(segment, candidateKeys);
+      }
+    }
+    if (candidateKeysBySegment.isEmpty()) {
+      return ImmutableMap.of();
+    }
+    if (candidateKeysBySegment.size() <= inlineReadThreshold) {
+      return readNewestEntriesInline(candidateKeysBySegment);
+    }
+    return readNewestEntriesForked(candidateKeysBySegment);
+  }
+
+  private Map<ByteString, Entry> readNewestEntriesInline(
+      Map<Segment, List<ByteString>> candidateKeysBySegment) {
+    Map<ByteString, Entry> newestEntries = new HashMap<>();
+    try {
+      for (var candidate : candidateKeysBySegment.entrySet()) {
+        List<ByteString> remainingKeys =
+            candidate.getValue().stream().filter(key -> !newestEntries.containsKey(key)).toList();
+        if (!remainingKeys.isEmpty()) {
+          readEntries(candidate.getKey(), remainingKeys).forEach(newestEntries::putIfAbsent);
+        }
+      }
+    } catch (IOException e) {
+      throw new StorageReadException(e);
+    }
+    return newestEntries;
+  }
+
+  private Map<ByteString, Entry> readNewestEntriesForked(
+      Map<Segment, List<ByteString>> candidateKeysBySegment) {
+    try (var scope =
+        new StructuredTaskScope.ShutdownOnFailure("read-all-segments-scope", threadFactory)) {
+      List<StructuredTaskScope.Subtask<ImmutableMap<ByteString, Entry>>> segmentReadFutures =
+          new ArrayList<>();
+      candidateKeysBySegment.forEach(
+          (segment, candidateKeys) ->
+              segmentReadFutures.add(scope.fork(() -> readEntries(segment, candidateKeys))));
+
+      try {
+        scope.join();
+        scope.throwIfFailed(StorageReadException::new);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new StorageReadException(e);
+      }
+
+      Map<ByteString, Entry> newestEntries = new HashMap<>();
+      for (var segmentReadFuture : segmentReadFutures) {
+        segmentReadFuture.get().forEach(newestEntries::putIfAbsent);
+      }
+      return newestEntries;
+    }
+  }
+
+  /** Reads the segment's entries for the keys, recording any filter false positives. */
+  private ImmutableMap<ByteString, Entry> readEntries(Segment segment, List<ByteString> keys)
+      throws IOException {
+    ImmutableMap<ByteString, Entry> entries = segment.readEntries(keys);
+    stats.recordBloomFilterFalsePositives(keys.size() - entries.size());
+    return entries;
+  }
+
+  /**
+   * Counts the Segment filter checks and reads made while reading a single key.
+   *
+   * <p>Segments of a level may be read concurrently, so reads are counted atomically. Filters are
+   * checked by one thread at a time, each level's checks happening after the previous level's
+   * reads complete.
+   */
+  private static final class ReadProbes {
+
+    private static final AtomicIntegerFieldUpdater<ReadProbes> SEGMENTS_READ =
+        AtomicIntegerFieldUpdater.newUpdater(ReadProbes.class, "segmentsRead");
+    private static final AtomicIntegerFieldUpdater<ReadProbes> FILTER_FALSE_POSITIVES =
+        AtomicIntegerFieldUpdater.newUpdater(ReadProbes.class, "filterFalsePositives");
+
+    private int filterChecks;
+    private int filterPositives;
+    private volatile int segmentsRead;
+    private volatile int filterFalsePositives;
+
+    /** Counts a filter check, returning its result. */
+    private boolean recordFilterCheck(boolean mightContain) {
+      filterChecks++;
+      if (mightContain) {
+        filterPositives++;
+      }
+      return mightContain;
+    }
+
+    private void recordSegmentRead(boolean found) {
+      SEGMENTS_READ.incrementAndGet(this);
+      if (!found) {
+        FILTER_FALSE_POSITIVES.incrementAndGet(this);
+      }
     }
   }
 }
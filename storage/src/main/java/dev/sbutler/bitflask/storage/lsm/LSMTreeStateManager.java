@@ -3,8 +3,10 @@ package dev.sbutler.bitflask.storage.lsm;
 import dev.sbutler.bitflask.storage.exceptions.StorageException;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -36,13 +38,25 @@ final class LSMTreeStateManager {
    * try-with.
    */
   CurrentState getCurrentState() {
-    lock.readLock().lock();
+    lockReadLock();
     if (memtable == null || segmentLevelMultiMap == null) {
       throw new StorageException("LSMTreeStateManager's state must be initialized before usage");
     }
     return new CurrentState(memtable, segmentLevelMultiMap, lock.readLock());
   }
 
+  /** Acquires the read lock, recording the time spent waiting if the read is being traced. */
+  private void lockReadLock() {
+    Optional<ReadTrace> readTrace = ReadTrace.current();
+    if (readTrace.isEmpty()) {
+      lock.readLock().lock();
+      return;
+    }
+    long waitStartNanos = System.nanoTime();
+    lock.readLock().lock();
+    readTrace.get().recordStateLockWait(System.nanoTime() - waitStartNanos);
+  }
+
   /**
    * Provides exclusive access to the {@link CurrentState}.
    *
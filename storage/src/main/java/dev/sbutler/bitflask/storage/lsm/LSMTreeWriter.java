@@ -2,8 +2,12 @@ package dev.sbutler.bitflask.storage.lsm;
 
 import dev.sbutler.bitflask.storage.exceptions.StorageWriteException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import jakarta.inject.Inject;
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Handles write related tasks for the {@link LSMTree}.
@@ -11,10 +15,12 @@ import java.io.IOException;
 final class LSMTreeWriter {
 
   private final LSMTreeStateManager stateManager;
+  private final StorageStats stats;
 
   @Inject
-  LSMTreeWriter(LSMTreeStateManager stateManager) {
+  LSMTreeWriter(LSMTreeStateManager stateManager, StorageStats stats) {
     this.stateManager = stateManager;
+    this.stats = stats;
   }
 
   /**
@@ -28,5 +34,41 @@ final class LSMTreeWriter {
         throw new StorageWriteException(e);
       }
     }
+    stats.recordUserWrite(entry.getNumBytesSize());
+  }
+
+  /**
+   * Merges the merge operand {@link dev.sbutler.bitflask.storage.lsm.entry.Entry} onto the key's
+   * value in the Memtable.
+   *
+   * <p>The current state is held while merging so the Memtable cannot be flushed before the key's
+   * older entry is read from the Segments with {@code segmentEntryReader}.
+   */
+  void merge(
+      Entry operand,
+      Function<LSMTreeStateManager.CurrentState, Optional<Entry>> segmentEntryReader) {
+    try (var currentState = stateManager.getCurrentState()) {
+      try {
+        currentState.getMemtable().merge(operand, () -> segmentEntryReader.apply(currentState));
+      } catch (IOException e) {
+        throw new StorageWriteException(e);
+      }
+    }
+    stats.recordUserWrite(operand.getNumBytesSize());
+  }
+
+  /**
+   * Atomically writes all {@link dev.sbutler.bitflask.storage.lsm.entry.Entry}s with a single
+   * acquisition of the Memtable's lock and a single write-ahead-log record.
+   */
+  void writeBatch(List<Entry> entries) {
+    try (var currentState = stateManager.getCurrentState()) {
+      try {
+        currentState.getMemtable().writeBatch(entries);
+      } catch (IOException e) {
+        throw new StorageWriteException(e);
+      }
+    }
+    stats.recordUserWrite(entries.stream().mapToLong(Entry::getNumBytesSize).sum());
   }
 }
@@ -0,0 +1,28 @@
+package dev.sbutler.bitflask.storage.lsm;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+
+/**
+ * A single put or delete applied as part of {@link LSMTree#writeBatch(java.util.List)}.
+ *
+ * <p>A delete is represented by an empty value, matching how deletes are persisted. An operation
+ * whose entry never expires has an expiryEpochSeconds of {@link Entry#NO_EXPIRY}.
+ */
+public record WriteBatchOperation(ByteString key, ByteString value, long expiryEpochSeconds) {
+
+  /** Creates an operation writing the key:value pair. */
+  public static WriteBatchOperation put(ByteString key, ByteString value) {
+    return put(key, value, Entry.NO_EXPIRY);
+  }
+
+  /** Creates an operation writing the key:value pair which expires at the provided time. */
+  public static WriteBatchOperation put(ByteString key, ByteString value, long expiryEpochSeconds) {
+    return new WriteBatchOperation(key, value, expiryEpochSeconds);
+  }
+
+  /** Creates an operation deleting the key and any associated entry. */
+  public static WriteBatchOperation delete(ByteString key) {
+    return new WriteBatchOperation(key, ByteString.EMPTY, Entry.NO_EXPIRY);
+  }
+}
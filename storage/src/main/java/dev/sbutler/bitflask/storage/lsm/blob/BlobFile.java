@@ -0,0 +1,103 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An immutable, append-only file of values separated from their Segment entries.
+ *
+ * <p>The file is a plain concatenation of values. Values are located using a {@link BlobPointer}
+ * stored in the referencing entry.
+ */
+public final class BlobFile {
+
+  /**
+   * The prefix of BlobFile files.
+   */
+  public static final String FILE_PREFIX = "blob_";
+  /**
+   * The file extension of BlobFile files.
+   */
+  public static final String FILE_EXTENSION = "blob";
+
+  private final long blobFileNumber;
+  private final Path filePath;
+  private final long numBytesSize;
+
+  BlobFile(long blobFileNumber, Path filePath, long numBytesSize) {
+    this.blobFileNumber = blobFileNumber;
+    this.filePath = filePath;
+    this.numBytesSize = numBytesSize;
+  }
+
+  /**
+   * Returns the number of this BlobFile.
+   *
+   * <p>Higher numbers indicate a more recently created BlobFile.
+   */
+  public long getBlobFileNumber() {
+    return blobFileNumber;
+  }
+
+  /**
+   * Returns the path of this BlobFile.
+   */
+  public Path getFilePath() {
+    return filePath;
+  }
+
+  /**
+   * Returns the number of bytes of all values contained within this BlobFile, whether they are
+   * still referenced or not.
+   */
+  public long getNumBytesSize() {
+    return numBytesSize;
+  }
+
+  /**
+   * Reads the value located by the provided {@link BlobPointer}.
+   *
+   * <p>An {@link IOException} will be thrown if the value could not be completely read.
+   */
+  ByteString read(BlobPointer pointer) throws IOException {
+    checkArgument(pointer.blobFileNumber() == blobFileNumber,
+        "BlobPointer does not reference this BlobFile. Expected [%s], actual [%s]",
+        blobFileNumber, pointer.blobFileNumber());
+
+    ByteBuffer buffer = ByteBuffer.allocate(pointer.length());
+    try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+      while (buffer.hasRemaining()) {
+        int numRead = channel.read(buffer, pointer.offset() + buffer.position());
+        if (numRead == -1) {
+          throw new IOException(String.format(
+              "Read blob value length did not match pointer. Read [%d], expected [%d].",
+              buffer.position(), pointer.length()));
+        }
+      }
+    }
+    return UnsafeByteOperations.unsafeWrap(buffer.array());
+  }
+
+  /**
+   * Creates the file name for a BlobFile with {@code blobFileNumber}.
+   */
+  static String createFileName(long blobFileNumber) {
+    return FILE_PREFIX + blobFileNumber + "." + FILE_EXTENSION;
+  }
+
+  @Override
+  public String toString() {
+    return "BlobFile{" +
+        "blobFileNumber=" + blobFileNumber +
+        ", filePath=" + filePath +
+        ", numBytesSize=" + numBytesSize +
+        '}';
+  }
+}
@@ -0,0 +1,73 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends values to a new {@link BlobFile}.
+ *
+ * <p>The file is only created once the first value is appended. When closed, the file is synced
+ * to disk and registered with the {@link BlobStore} so that its values can be read.
+ */
+public final class BlobFileWriter implements AutoCloseable {
+
+  private final BlobStore blobStore;
+  private final long blobFileNumber;
+  private final Path filePath;
+
+  private FileChannel channel;
+  private long numBytesWritten = 0;
+  private boolean closed = false;
+
+  BlobFileWriter(BlobStore blobStore, long blobFileNumber, Path filePath) {
+    this.blobStore = blobStore;
+    this.blobFileNumber = blobFileNumber;
+    this.filePath = filePath;
+  }
+
+  /**
+   * Appends the value to the blob file returning a {@link BlobPointer} for locating it.
+   */
+  public BlobPointer append(ByteString value) throws IOException {
+    checkState(!closed, "BlobFileWriter is closed");
+    checkArgument(!value.isEmpty(), "Value must not be empty.");
+    if (channel == null) {
+      channel = FileChannel.open(filePath, StandardOpenOption.CREATE_NEW,
+          StandardOpenOption.WRITE);
+    }
+
+    BlobPointer pointer = new BlobPointer(blobFileNumber, numBytesWritten, value.size());
+    ByteBuffer buffer = value.asReadOnlyByteBuffer();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    numBytesWritten += value.size();
+    return pointer;
+  }
+
+  /**
+   * Syncs and closes the blob file, if any values were appended, making it readable through the
+   * {@link BlobStore}.
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (channel == null) {
+      return;
+    }
+    try (FileChannel toClose = channel) {
+      toClose.force(true);
+    }
+    blobStore.register(new BlobFile(blobFileNumber, filePath, numBytesWritten));
+  }
+}
@@ -0,0 +1,55 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.nio.ByteBuffer;
+
+/**
+ * The location of a value stored in a {@link BlobFile}.
+ *
+ * <p>Pointers are stored in place of a value in a Segment's entry. They have a fixed encoding of
+ * {@link #BYTES} bytes.
+ *
+ * @param blobFileNumber the number of the {@link BlobFile} containing the value
+ * @param offset         the offset of the value's first byte within the blob file
+ * @param length         the number of bytes of the value
+ */
+public record BlobPointer(long blobFileNumber, long offset, int length) {
+
+  /**
+   * The number of bytes of an encoded BlobPointer.
+   */
+  public static final int BYTES = Long.BYTES + Long.BYTES + Integer.BYTES;
+
+  public BlobPointer {
+    checkArgument(blobFileNumber >= 0, "BlobFileNumber cannot be negative. Provided [%s]",
+        blobFileNumber);
+    checkArgument(offset >= 0, "Offset cannot be negative. Provided [%s]", offset);
+    checkArgument(length > 0, "Length must be positive. Provided [%s]", length);
+  }
+
+  /**
+   * Returns the encoded pointer.
+   */
+  public ByteString getBytes() {
+    ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+    buffer.putLong(blobFileNumber);
+    buffer.putLong(offset);
+    buffer.putInt(length);
+    return UnsafeByteOperations.unsafeWrap(buffer.array());
+  }
+
+  /**
+   * Decodes a BlobPointer from the provided bytes.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if the bytes are not a valid encoding.
+   */
+  public static BlobPointer fromBytes(ByteString bytes) {
+    checkArgument(bytes.size() == BYTES,
+        "BlobPointer bytes length invalid. Expected [%s], actual [%s]", BYTES, bytes.size());
+    ByteBuffer buffer = bytes.asReadOnlyByteBuffer();
+    return new BlobPointer(buffer.getLong(), buffer.getLong(), buffer.getInt());
+  }
+}
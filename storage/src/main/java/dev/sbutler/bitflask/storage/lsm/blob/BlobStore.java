@@ -0,0 +1,116 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.StorageConfig;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages the {@link BlobFile}s holding values separated from their Segment entries.
+ *
+ * <p>Values are only written when Segments are created, so a blob file's referenced bytes only
+ * change when Segments are compacted. Blob files whose live ratio falls below the configured
+ * percentage have their live values relocated to a new blob file during compaction, after which
+ * they are deleted once no Segment references them.
+ */
+@Singleton
+public final class BlobStore {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final ConcurrentMap<Long, BlobFile> blobFiles = new ConcurrentHashMap<>();
+  private final AtomicLong nextBlobFileNumber = new AtomicLong(0);
+
+  private final StorageConfig storageConfig;
+
+  @Inject
+  BlobStore(StorageConfig storageConfig) {
+    this.storageConfig = storageConfig;
+  }
+
+  /**
+   * Reads the value located by the provided {@link BlobPointer}.
+   *
+   * <p>An {@link IOException} will be thrown if the referenced {@link BlobFile} does not exist or
+   * the value could not be read.
+   */
+  public ByteString read(BlobPointer pointer) throws IOException {
+    BlobFile blobFile = blobFiles.get(pointer.blobFileNumber());
+    if (blobFile == null) {
+      throw new IOException(
+          String.format("BlobFile [%d] could not be found", pointer.blobFileNumber()));
+    }
+    return blobFile.read(pointer);
+  }
+
+  /**
+   * Creates a {@link BlobFileWriter} for a new {@link BlobFile}.
+   */
+  public BlobFileWriter createWriter() {
+    long blobFileNumber = nextBlobFileNumber.getAndIncrement();
+    Path filePath =
+        Path.of(storageConfig.getStoreDirectoryPath(), BlobFile.createFileName(blobFileNumber));
+    return new BlobFileWriter(this, blobFileNumber, filePath);
+  }
+
+  /**
+   * Returns the numbers of all {@link BlobFile}s whose percentage of referenced bytes is below the
+   * configured live ratio.
+   *
+   * @param referencedBytes the number of bytes referenced by Segments mapped by blob file number
+   */
+  public ImmutableSet<Long> getBlobFileNumbersBelowLiveRatio(Map<Long, Long> referencedBytes) {
+    long liveRatioPercent = storageConfig.getBlobGarbageCollectionLiveRatioPercent();
+    if (liveRatioPercent == 0) {
+      return ImmutableSet.of();
+    }
+    return blobFiles.values().stream()
+        .filter(blobFile -> blobFile.getNumBytesSize() > 0)
+        .filter(blobFile ->
+            referencedBytes.getOrDefault(blobFile.getBlobFileNumber(), 0L) * 100
+                < liveRatioPercent * blobFile.getNumBytesSize())
+        .map(BlobFile::getBlobFileNumber)
+        .collect(toImmutableSet());
+  }
+
+  /**
+   * Best effort deletion of all {@link BlobFile}s not in the provided set of referenced blob file
+   * numbers.
+   */
+  public void deleteUnreferenced(Set<Long> referencedBlobFileNumbers) {
+    for (var blobFile : ImmutableSet.copyOf(blobFiles.values())) {
+      if (referencedBlobFileNumbers.contains(blobFile.getBlobFileNumber())) {
+        continue;
+      }
+      blobFiles.remove(blobFile.getBlobFileNumber());
+      try {
+        Files.deleteIfExists(blobFile.getFilePath());
+        logger.atInfo().log("Deleted BlobFile [%s]", blobFile.getFilePath());
+      } catch (IOException e) {
+        logger.atSevere().withCause(e).log("Failed to delete BlobFile [%s]",
+            blobFile.getFilePath());
+      }
+    }
+  }
+
+  /**
+   * Makes the {@link BlobFile} available for reading.
+   */
+  void register(BlobFile blobFile) {
+    blobFiles.put(blobFile.getBlobFileNumber(), blobFile);
+    nextBlobFileNumber.getAndUpdate(
+        current -> Math.max(1 + blobFile.getBlobFileNumber(), current));
+  }
+}
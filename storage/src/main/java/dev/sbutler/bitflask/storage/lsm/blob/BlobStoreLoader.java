@@ -0,0 +1,63 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import dev.sbutler.bitflask.storage.lsm.utils.LoaderUtils;
+import jakarta.inject.Inject;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Handles loading all {@link BlobFile}s in the storage directory into the {@link BlobStore}.
+ */
+public final class BlobStoreLoader {
+
+  private static final String BLOB_FILE_GLOB = String.format("*.%s", BlobFile.FILE_EXTENSION);
+
+  private final StorageConfig storageConfig;
+  private final BlobStore blobStore;
+
+  @Inject
+  BlobStoreLoader(StorageConfig storageConfig, BlobStore blobStore) {
+    this.storageConfig = storageConfig;
+    this.blobStore = blobStore;
+  }
+
+  public void load() {
+    switch (storageConfig.getLoadingMode()) {
+      case TRUNCATE -> truncate();
+      case LOAD -> loadBlobFiles();
+      case UNRECOGNIZED -> throw new StorageLoadException("Unrecognized loading mode");
+    }
+  }
+
+  private void truncate() {
+    LoaderUtils.deletePathsInDirForGlob(
+        Path.of(storageConfig.getStoreDirectoryPath()), BLOB_FILE_GLOB);
+  }
+
+  private void loadBlobFiles() {
+    for (var path :
+        LoaderUtils.loadPathsInDirForGlob(
+            Path.of(storageConfig.getStoreDirectoryPath()), BLOB_FILE_GLOB)) {
+      try {
+        blobStore.register(new BlobFile(parseBlobFileNumber(path), path, Files.size(path)));
+      } catch (IOException e) {
+        throw new StorageLoadException(String.format("Failed to load BlobFile [%s]", path), e);
+      }
+    }
+  }
+
+  private static long parseBlobFileNumber(Path path) {
+    String fileName = path.getFileName().toString();
+    try {
+      return Long.parseLong(fileName.substring(
+          BlobFile.FILE_PREFIX.length(),
+          fileName.length() - BlobFile.FILE_EXTENSION.length() - 1));
+    } catch (IndexOutOfBoundsException | NumberFormatException e) {
+      throw new StorageLoadException(
+          String.format("Could not parse BlobFile number from [%s]", path), e);
+    }
+  }
+}
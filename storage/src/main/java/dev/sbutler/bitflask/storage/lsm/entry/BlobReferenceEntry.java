@@ -0,0 +1,59 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+
+/**
+ * An entry whose value is stored outside the entry's file, such as in a blob file.
+ *
+ * <p>The entry is encoded with a {@link EntryHeader#V2_BLOB_TAG} header and the reference in place
+ * of the value. The reference's format is opaque to the entry and interpreted by the caller.
+ *
+ * @param creationEpochSeconds creation time of this entry as the number of seconds since epoch.
+ *                             Cannot be negative.
+ * @param key                  the entry's key. Cannot be empty or longer than
+ *                             {@link Entry#KEY_MAX_LENGTH} bytes
+ * @param valueReference       the encoded reference to the entry's value. Cannot be empty.
+ * @param expiryEpochSeconds   the time the entry expires as the number of seconds since epoch, or
+ *                             {@link Entry#NO_EXPIRY} if it never does. Cannot be negative.
+ */
+public record BlobReferenceEntry(long creationEpochSeconds, ByteString key,
+                                 ByteString valueReference, long expiryEpochSeconds)
+    implements WritableEntry {
+
+  public BlobReferenceEntry {
+    checkArgument(creationEpochSeconds >= 0,
+        "CreationEpochSeconds cannot be negative. Provided [%s]", creationEpochSeconds);
+    checkArgument(!key.isEmpty(), "Key must not be empty.");
+    checkArgument(key.size() <= Entry.KEY_MAX_LENGTH,
+        "Key length greater than allowed. Provided [%s], max allowed [%s]", key.size(),
+        Entry.KEY_MAX_LENGTH);
+    checkArgument(!valueReference.isEmpty(), "Value reference must not be empty.");
+    checkArgument(expiryEpochSeconds >= 0,
+        "ExpiryEpochSeconds cannot be negative. Provided [%s]", expiryEpochSeconds);
+  }
+
+  /**
+   * Creates a BlobReferenceEntry for an entry that never expires.
+   */
+  public BlobReferenceEntry(long creationEpochSeconds, ByteString key, ByteString valueReference) {
+    this(creationEpochSeconds, key, valueReference, Entry.NO_EXPIRY);
+  }
+
+  @Override
+  public long getNumBytesSize() {
+    return EntryHeader.v2NumBytes(creationEpochSeconds, key.size(), valueReference.size(),
+        expiryEpochSeconds)
+        + (long) key.size() + valueReference.size();
+  }
+
+  @Override
+  public void writeTo(ByteBuffer buffer) {
+    EntryHeader.writeV2(buffer, creationEpochSeconds, key.size(), valueReference.size(),
+        expiryEpochSeconds, true);
+    key.copyTo(buffer);
+    valueReference.copyTo(buffer);
+  }
+}
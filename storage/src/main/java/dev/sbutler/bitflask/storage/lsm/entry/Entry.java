@@ -1,111 +1,209 @@
 package dev.sbutler.bitflask.storage.lsm.entry;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 
-import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
-import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
 
 /**
  * A single key:value entry with its creation time in epoch seconds.
  *
+ * <p>Keys and values are arbitrary bytes. Keys are ordered by {@link #KEY_COMPARATOR}.
+ *
+ * <p>An entry may optionally expire at a point in time, after which it is treated as absent. An
+ * expired entry still shadows any older entries for its key until it is dropped by compaction.
+ *
+ * <p>An entry may instead be a merge operand, whose value is folded onto the value of the older
+ * entries for its key by a {@link MergeOperator} when read or compacted. Merge operands never
+ * expire.
+ *
  * @param creationEpochSeconds creation time of this entry as the number of seconds since epoch.
  *                             Cannot be negative.
  * @param key                  the entry's key. Cannot be empty or longer than
- *                             {@link #KEY_MAX_LENGTH}
+ *                             {@link #KEY_MAX_LENGTH} bytes
  * @param value                the entry's value. Cannot be longer than {@link #VALUE_MAX_LENGTH}
+ *                             bytes
+ * @param expiryEpochSeconds   the time this entry expires as the number of seconds since epoch,
+ *                             or {@link #NO_EXPIRY} if it never does. Cannot be negative.
+ * @param mergeOperatorId      the id of the {@link MergeOperator} this entry's value is an operand
+ *                             of, or {@link #NO_MERGE_OPERATOR} if it is a value.
  */
-public record Entry(long creationEpochSeconds, String key, String value) {
+public record Entry(long creationEpochSeconds, ByteString key, ByteString value,
+                    long expiryEpochSeconds, int mergeOperatorId) implements WritableEntry {
 
   public static final int KEY_MAX_LENGTH = UnsignedShort.MAX_VALUE;
-  public static final int VALUE_MAX_LENGTH = UnsignedShort.MAX_VALUE;
+  public static final int VALUE_MAX_LENGTH = 64 * 1024 * 1024;
+
+  /**
+   * The {@link #expiryEpochSeconds()} of an entry that never expires.
+   */
+  public static final long NO_EXPIRY = 0;
 
   /**
-   * The minimum number of bits used to represent an Entry.
+   * The {@link #mergeOperatorId()} of an entry that is a value rather than a merge operand.
    */
-  static final int MIN_SIZE = EntryMetadata.SIZE + Byte.SIZE;
+  public static final int NO_MERGE_OPERATOR = 0;
+
+  /**
+   * Orders keys by comparing their bytes lexicographically as unsigned values.
+   */
+  public static final Comparator<ByteString> KEY_COMPARATOR =
+      ByteString.unsignedLexicographicalComparator();
+
   /**
    * The minimum number of bytes to represent an Entry.
    */
-  static final int MIN_BYTES = MIN_SIZE / Byte.SIZE;
+  static final int MIN_BYTES = EntryHeader.MIN_BYTES + 1;
 
   public Entry {
     checkArgument(creationEpochSeconds >= 0,
         "CreationEpochSeconds cannot be negative. Provided [%s]", creationEpochSeconds);
     checkArgument(!key.isEmpty(), "Key must not be empty.");
-    checkArgument(key.length() <= KEY_MAX_LENGTH,
-        "Key length greater than allowed. Provided [%s], max allowed [%s]", key.length(),
+    checkArgument(key.size() <= KEY_MAX_LENGTH,
+        "Key length greater than allowed. Provided [%s], max allowed [%s]", key.size(),
         KEY_MAX_LENGTH);
-    checkArgument(value.length() <= VALUE_MAX_LENGTH,
-        "Value length greater than allowed. Provided [%s], max allowed [%s]", value.length(),
+    checkArgument(value.size() <= VALUE_MAX_LENGTH,
+        "Value length greater than allowed. Provided [%s], max allowed [%s]", value.size(),
         VALUE_MAX_LENGTH);
+    checkArgument(expiryEpochSeconds >= 0,
+        "ExpiryEpochSeconds cannot be negative. Provided [%s]", expiryEpochSeconds);
+    if (mergeOperatorId != NO_MERGE_OPERATOR) {
+      MergeOperator.fromId(mergeOperatorId);
+      checkArgument(expiryEpochSeconds == NO_EXPIRY, "A merge operand cannot expire.");
+    }
+  }
+
+  /**
+   * Creates an Entry that is not a merge operand.
+   */
+  public Entry(long creationEpochSeconds, ByteString key, ByteString value,
+      long expiryEpochSeconds) {
+    this(creationEpochSeconds, key, value, expiryEpochSeconds, NO_MERGE_OPERATOR);
+  }
+
+  /**
+   * Creates an Entry that never expires.
+   */
+  public Entry(long creationEpochSeconds, ByteString key, ByteString value) {
+    this(creationEpochSeconds, key, value, NO_EXPIRY);
+  }
+
+  /**
+   * Creates an Entry whose key and value are the UTF-8 encodings of the provided strings.
+   */
+  public Entry(long creationEpochSeconds, String key, String value) {
+    this(creationEpochSeconds, ByteString.copyFromUtf8(key), ByteString.copyFromUtf8(value));
+  }
 
+  /**
+   * Creates an Entry whose value is an operand of the provided {@link MergeOperator}.
+   */
+  public static Entry mergeOperand(long creationEpochSeconds, ByteString key, ByteString operand,
+      MergeOperator mergeOperator) {
+    return new Entry(creationEpochSeconds, key, operand, NO_EXPIRY, mergeOperator.getId());
   }
 
+  /**
+   * Decodes an Entry from the provided byte array, which may use any supported encoding as
+   * described by {@link EntryHeader}.
+   */
   public static Entry fromBytes(byte[] bytes) {
     checkArgument(bytes.length >= MIN_BYTES,
         "Byte array length invalid. Provided [%s], expected at least [%s]",
         bytes.length, MIN_BYTES);
 
-    byte[] metadataBytes = Arrays.copyOfRange(bytes, 0, EntryMetadata.BYTES);
-    EntryMetadata decodedMetadata = EntryMetadata.fromBytes(metadataBytes);
+    EntryHeader header = EntryHeader.decode(ByteBuffer.wrap(bytes), 0);
 
-    int expectedArrayLength = EntryMetadata.BYTES + decodedMetadata.keyLength().value()
-        + decodedMetadata.valueLength().value();
+    long expectedArrayLength = header.getEntryNumBytes();
     checkArgument(bytes.length == expectedArrayLength,
         "Byte array length does not match decoded header. Provided [%s], expected [%s]",
         bytes.length,
         expectedArrayLength);
 
-    String decodedKey = new String(bytes, EntryMetadata.BYTES,
-        decodedMetadata.keyLength().value(), StandardCharsets.UTF_8);
+    ByteString decodedKey = ByteString.copyFrom(bytes, header.numBytes(), header.keyLength());
 
-    int valueOffset = EntryMetadata.BYTES + decodedMetadata.keyLength().value();
-    String decodedValue = new String(bytes, valueOffset,
-        decodedMetadata.valueLength().value(), StandardCharsets.UTF_8);
+    int valueOffset = header.numBytes() + header.keyLength();
+    ByteString decodedValue = ByteString.copyFrom(bytes, valueOffset, header.valueLength());
 
-    return new Entry(decodedMetadata.creationEpochSeconds(), decodedKey, decodedValue);
+    return new Entry(header.creationEpochSeconds(), decodedKey, decodedValue,
+        header.expiryEpochSeconds(), header.mergeOperatorId());
   }
 
   /**
    * Converts the Entry into a byte array.
    *
-   * <p>The first 12 bytes will be the {@link EntryMetadata} and encoded according to
-   * {@link EntryMetadata#getBytes()}. Following the header will be the key and then the value
-   * encoded as {@link StandardCharsets#UTF_8}.
+   * <p>The Entry is encoded with a v2 {@link EntryHeader}: a format tag followed by the
+   * creationEpochSeconds, key length, and value length as varints, and the expiryEpochSeconds if
+   * the entry expires or the mergeOperatorId if it is a merge operand. Following the header will
+   * be the key's bytes and then the value's bytes.
    */
   public byte[] getBytes() {
-    EntryMetadata entryMetadata = getMetaData();
-
-    byte[] metadataBytes = entryMetadata.getBytes();
-    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
-    byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(getNumBytesSize()));
+    writeTo(buffer);
+    return buffer.array();
+  }
 
-    return Bytes.concat(metadataBytes, keyBytes, valueBytes);
+  /**
+   * Encodes the Entry into the provided {@link ByteBuffer} starting at its current position.
+   *
+   * <p>The encoding is identical to {@link #getBytes()}, but no intermediate arrays are allocated.
+   * The buffer's position will be advanced by {@link #getNumBytesSize()}. A
+   * {@link java.nio.BufferOverflowException} will be thrown if the buffer does not have enough
+   * remaining space.
+   */
+  @Override
+  public void writeTo(ByteBuffer buffer) {
+    if (isMergeOperand()) {
+      EntryHeader.writeV2Merge(buffer, creationEpochSeconds, key.size(), value.size(),
+          mergeOperatorId);
+    } else {
+      EntryHeader.writeV2(buffer, creationEpochSeconds, key.size(), value.size(),
+          expiryEpochSeconds, false);
+    }
+    key.copyTo(buffer);
+    value.copyTo(buffer);
   }
 
   /**
    * Returns true if this Entry represents a deleted one.
    */
   public boolean isDeleted() {
-    return value.isEmpty();
+    return !isMergeOperand() && value.isEmpty();
   }
 
   /**
-   * The number of bytes required to represent this Entry.
+   * Returns true if this Entry's value is an operand of a {@link MergeOperator}.
    */
-  public long getNumBytesSize() {
-    return getBytes().length;
+  public boolean isMergeOperand() {
+    return mergeOperatorId != NO_MERGE_OPERATOR;
   }
 
   /**
-   * Returns the {@link EntryMetadata} for this Entry.
+   * Returns the {@link MergeOperator} this Entry's value is an operand of.
+   *
+   * <p>An {@link IllegalStateException} will be thrown if this Entry is not a merge operand.
    */
-  public EntryMetadata getMetaData() {
-    return new EntryMetadata(creationEpochSeconds,
-        UnsignedShort.valueOf(key.length()),
-        UnsignedShort.valueOf(value.length()));
+  public MergeOperator getMergeOperator() {
+    checkState(isMergeOperand(), "Entry is not a merge operand");
+    return MergeOperator.fromId(mergeOperatorId);
   }
 
+  /**
+   * The number of bytes required to represent this Entry.
+   */
+  @Override
+  public long getNumBytesSize() {
+    int headerNumBytes;
+    if (isMergeOperand()) {
+      headerNumBytes = EntryHeader.v2MergeNumBytes(creationEpochSeconds, key.size(), value.size(),
+          mergeOperatorId);
+    } else {
+      headerNumBytes = EntryHeader.v2NumBytes(creationEpochSeconds, key.size(), value.size(),
+          expiryEpochSeconds);
+    }
+    return headerNumBytes + (long) key.size() + value.size();
+  }
 }
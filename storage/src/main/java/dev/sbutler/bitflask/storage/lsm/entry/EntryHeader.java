@@ -0,0 +1,313 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The decoded header preceding an encoded {@link Entry}'s key and value bytes.
+ *
+ * <p>Several encodings are supported and are distinguished by an entry's first byte:
+ *
+ * <ul>
+ *   <li>{@link #V1_TAG}: the fixed 12 byte {@link EntryMetadata} layout. The tag is the most
+ *   significant byte of the big-endian creationEpochSeconds, which is always 0 for any
+ *   representable time.</li>
+ *   <li>{@link #V2_TAG}: the tag byte followed by the creationEpochSeconds, key length, and value
+ *   length each encoded as an unsigned LEB128 varint.</li>
+ *   <li>{@link #V2_BLOB_TAG}: identical to v2, but the entry's value bytes are an opaque reference
+ *   to a value stored outside the entry's file, such as a blob file.</li>
+ *   <li>{@link #V2_EXPIRING_TAG} and {@link #V2_EXPIRING_BLOB_TAG}: identical to their non-expiring
+ *   counterparts, but followed by a fourth varint holding the expiryEpochSeconds.</li>
+ *   <li>{@link #V2_MERGE_TAG}: identical to v2, but followed by a fourth varint holding the id of
+ *   the {@link MergeOperator} the entry's value is an operand of.</li>
+ * </ul>
+ *
+ * <p>New entries are always encoded with v2, using the expiring tags only if the entry expires and
+ * the merge tag only if the entry is a merge operand. v1 entries are only decoded.
+ *
+ * @param creationEpochSeconds the creation time of the entry as the number of seconds since epoch
+ * @param keyLength            the number of bytes of the entry's key
+ * @param valueLength          the number of bytes of the entry's value
+ * @param numBytes             the number of bytes of the encoded header itself
+ * @param valueInBlob          true if the entry's value bytes reference a value stored elsewhere
+ * @param expiryEpochSeconds   the expiry time of the entry as the number of seconds since epoch,
+ *                             or {@link Entry#NO_EXPIRY} if it never expires
+ * @param mergeOperatorId      the id of the {@link MergeOperator} the entry's value is an operand
+ *                             of, or {@link Entry#NO_MERGE_OPERATOR} if it is a value
+ */
+record EntryHeader(long creationEpochSeconds, int keyLength, int valueLength, int numBytes,
+                   boolean valueInBlob, long expiryEpochSeconds, int mergeOperatorId) {
+
+  static final byte V1_TAG = 0x00;
+  static final byte V2_TAG = 0x02;
+  static final byte V2_BLOB_TAG = 0x03;
+  static final byte V2_EXPIRING_TAG = 0x04;
+  static final byte V2_EXPIRING_BLOB_TAG = 0x05;
+  static final byte V2_MERGE_TAG = 0x06;
+
+  private static final int VARINT_FIELDS = 3;
+  private static final int EXPIRING_VARINT_FIELDS = VARINT_FIELDS + 1;
+  private static final int MERGE_VARINT_FIELDS = VARINT_FIELDS + 1;
+  private static final int MAX_VARINT_LONG_BYTES = 10;
+  private static final int MAX_VARINT_INT_BYTES = 5;
+
+  /**
+   * The minimum number of bytes of any encoded header.
+   */
+  static final int MIN_BYTES = 1 + VARINT_FIELDS;
+  /**
+   * The maximum number of bytes of any encoded header.
+   */
+  static final int MAX_BYTES = 1 + 2 * MAX_VARINT_LONG_BYTES + 2 * MAX_VARINT_INT_BYTES;
+
+  /**
+   * Creates the header of an entry that never expires.
+   */
+  EntryHeader(long creationEpochSeconds, int keyLength, int valueLength, int numBytes,
+      boolean valueInBlob) {
+    this(creationEpochSeconds, keyLength, valueLength, numBytes, valueInBlob, Entry.NO_EXPIRY);
+  }
+
+  /**
+   * Creates the header of an entry that is not a merge operand.
+   */
+  EntryHeader(long creationEpochSeconds, int keyLength, int valueLength, int numBytes,
+      boolean valueInBlob, long expiryEpochSeconds) {
+    this(creationEpochSeconds, keyLength, valueLength, numBytes, valueInBlob, expiryEpochSeconds,
+        Entry.NO_MERGE_OPERATOR);
+  }
+
+  /**
+   * The number of bytes of the encoded entry, including this header.
+   */
+  long getEntryNumBytes() {
+    return (long) numBytes + keyLength + valueLength;
+  }
+
+  /**
+   * The number of bytes of a v2 header encoding the provided fields.
+   */
+  static int v2NumBytes(long creationEpochSeconds, int keyLength, int valueLength) {
+    return 1 + varintNumBytes(creationEpochSeconds) + varintNumBytes(keyLength)
+        + varintNumBytes(valueLength);
+  }
+
+  /**
+   * The number of bytes of a v2 header encoding the provided fields, including the
+   * expiryEpochSeconds if the entry expires.
+   */
+  static int v2NumBytes(long creationEpochSeconds, int keyLength, int valueLength,
+      long expiryEpochSeconds) {
+    int numBytes = v2NumBytes(creationEpochSeconds, keyLength, valueLength);
+    return expiryEpochSeconds == Entry.NO_EXPIRY
+        ? numBytes
+        : numBytes + varintNumBytes(expiryEpochSeconds);
+  }
+
+  /**
+   * The number of bytes of a v2 header encoding the fields of a merge operand.
+   */
+  static int v2MergeNumBytes(long creationEpochSeconds, int keyLength, int valueLength,
+      int mergeOperatorId) {
+    return v2NumBytes(creationEpochSeconds, keyLength, valueLength)
+        + varintNumBytes(mergeOperatorId);
+  }
+
+  /**
+   * Encodes a v2 header into the {@link ByteBuffer} starting at its current position.
+   */
+  static void writeV2(ByteBuffer buffer, long creationEpochSeconds, int keyLength,
+      int valueLength) {
+    writeV2(buffer, creationEpochSeconds, keyLength, valueLength, false);
+  }
+
+  /**
+   * Encodes a v2 header into the {@link ByteBuffer} starting at its current position, tagging the
+   * value as stored in a blob if {@code valueInBlob} is true.
+   */
+  static void writeV2(ByteBuffer buffer, long creationEpochSeconds, int keyLength,
+      int valueLength, boolean valueInBlob) {
+    writeV2(buffer, creationEpochSeconds, keyLength, valueLength, Entry.NO_EXPIRY, valueInBlob);
+  }
+
+  /**
+   * Encodes a v2 header into the {@link ByteBuffer} starting at its current position, using an
+   * expiring tag followed by the expiryEpochSeconds if the entry expires.
+   */
+  static void writeV2(ByteBuffer buffer, long creationEpochSeconds, int keyLength,
+      int valueLength, long expiryEpochSeconds, boolean valueInBlob) {
+    boolean expiring = expiryEpochSeconds != Entry.NO_EXPIRY;
+    if (expiring) {
+      buffer.put(valueInBlob ? V2_EXPIRING_BLOB_TAG : V2_EXPIRING_TAG);
+    } else {
+      buffer.put(valueInBlob ? V2_BLOB_TAG : V2_TAG);
+    }
+    putVarint(buffer, creationEpochSeconds);
+    putVarint(buffer, keyLength);
+    putVarint(buffer, valueLength);
+    if (expiring) {
+      putVarint(buffer, expiryEpochSeconds);
+    }
+  }
+
+  /**
+   * Encodes the v2 header of a merge operand into the {@link ByteBuffer} starting at its current
+   * position, using the merge tag followed by the mergeOperatorId.
+   */
+  static void writeV2Merge(ByteBuffer buffer, long creationEpochSeconds, int keyLength,
+      int valueLength, int mergeOperatorId) {
+    buffer.put(V2_MERGE_TAG);
+    putVarint(buffer, creationEpochSeconds);
+    putVarint(buffer, keyLength);
+    putVarint(buffer, valueLength);
+    putVarint(buffer, mergeOperatorId);
+  }
+
+  /**
+   * Decodes the header of the entry encoded at the provided absolute offset of the buffer.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if the buffer does not contain a
+   * complete, well-formed header at the offset.
+   */
+  static EntryHeader decode(ByteBuffer buffer, int offset) {
+    checkArgument(offset >= 0 && offset < buffer.limit(),
+        "Buffer does not contain an entry header at offset [%s]", offset);
+    byte tag = buffer.get(offset);
+    return switch (tag) {
+      case V1_TAG -> decodeV1(buffer, offset);
+      case V2_TAG -> decodeV2(buffer, offset, false, false, false);
+      case V2_BLOB_TAG -> decodeV2(buffer, offset, true, false, false);
+      case V2_EXPIRING_TAG -> decodeV2(buffer, offset, false, true, false);
+      case V2_EXPIRING_BLOB_TAG -> decodeV2(buffer, offset, true, true, false);
+      case V2_MERGE_TAG -> decodeV2(buffer, offset, false, false, true);
+      default -> throw new IllegalArgumentException(String.format(
+          "Unrecognized entry format tag [%s] at offset [%s]", tag, offset));
+    };
+  }
+
+  /**
+   * Reads the bytes of the next encoded header from the {@link InputStream} into the destination
+   * array, which must be at least {@link #MAX_BYTES} long.
+   *
+   * <p>Returns the number of bytes read, or 0 if the stream was already at its end. An
+   * {@link IOException} will be thrown if the stream ends partway through a header.
+   */
+  static int readBytes(InputStream is, byte[] destination) throws IOException {
+    int tag = is.read();
+    if (tag == -1) {
+      return 0;
+    }
+    destination[0] = (byte) tag;
+    if (tag == V1_TAG) {
+      int numRead = is.readNBytes(destination, 1, EntryMetadata.BYTES - 1) + 1;
+      if (numRead != EntryMetadata.BYTES) {
+        throw new IOException(String.format(
+            "Read metadata length did not match entry. Read [%d], expected [%d].",
+            numRead, EntryMetadata.BYTES));
+      }
+      return numRead;
+    }
+    int numRead = 1;
+    int numFields;
+    if (isExpiringTag((byte) tag)) {
+      numFields = EXPIRING_VARINT_FIELDS;
+    } else if (tag == V2_MERGE_TAG) {
+      numFields = MERGE_VARINT_FIELDS;
+    } else {
+      numFields = VARINT_FIELDS;
+    }
+    for (int field = 0; field < numFields; field++) {
+      int b;
+      do {
+        b = is.read();
+        if (b == -1 || numRead == MAX_BYTES) {
+          throw new IOException(String.format(
+              "Read header was incomplete. Read [%d] bytes.", numRead));
+        }
+        destination[numRead++] = (byte) b;
+      } while ((b & 0x80) != 0);
+    }
+    return numRead;
+  }
+
+  private static EntryHeader decodeV1(ByteBuffer buffer, int offset) {
+    checkArgument(buffer.limit() - offset >= EntryMetadata.BYTES,
+        "Buffer does not contain EntryMetadata at offset [%s]", offset);
+    return new EntryHeader(
+        buffer.getLong(offset),
+        Short.toUnsignedInt(buffer.getShort(offset + Long.BYTES)),
+        Short.toUnsignedInt(buffer.getShort(offset + Long.BYTES + Short.BYTES)),
+        EntryMetadata.BYTES,
+        false,
+        Entry.NO_EXPIRY,
+        Entry.NO_MERGE_OPERATOR);
+  }
+
+  private static EntryHeader decodeV2(ByteBuffer buffer, int offset, boolean valueInBlob,
+      boolean expiring, boolean mergeOperand) {
+    int numFields = VARINT_FIELDS;
+    if (expiring) {
+      numFields = EXPIRING_VARINT_FIELDS;
+    } else if (mergeOperand) {
+      numFields = MERGE_VARINT_FIELDS;
+    }
+    long[] fields = new long[numFields];
+    int position = offset + 1;
+    for (int field = 0; field < fields.length; field++) {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        checkArgument(position < buffer.limit(),
+            "Buffer does not contain a complete entry header at offset [%s]", offset);
+        checkArgument(shift < Long.SIZE, "Malformed varint in entry header at offset [%s]",
+            offset);
+        b = buffer.get(position++);
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      fields[field] = value;
+    }
+
+    long keyLength = fields[1];
+    long valueLength = fields[2];
+    checkArgument(keyLength >= 0 && keyLength <= Entry.KEY_MAX_LENGTH,
+        "Decoded key length invalid at offset [%s]. Decoded [%s], max allowed [%s]",
+        offset, keyLength, Entry.KEY_MAX_LENGTH);
+    checkArgument(valueLength >= 0 && valueLength <= Entry.VALUE_MAX_LENGTH,
+        "Decoded value length invalid at offset [%s]. Decoded [%s], max allowed [%s]",
+        offset, valueLength, Entry.VALUE_MAX_LENGTH);
+    long expiryEpochSeconds = expiring ? fields[3] : Entry.NO_EXPIRY;
+    checkArgument(expiryEpochSeconds >= 0,
+        "Decoded expiry invalid at offset [%s]. Decoded [%s]", offset, expiryEpochSeconds);
+    long mergeOperatorId = mergeOperand ? fields[3] : Entry.NO_MERGE_OPERATOR;
+    checkArgument(!mergeOperand || (mergeOperatorId > 0 && mergeOperatorId <= Integer.MAX_VALUE),
+        "Decoded merge operator id invalid at offset [%s]. Decoded [%s]", offset, mergeOperatorId);
+    return new EntryHeader(fields[0], (int) keyLength, (int) valueLength, position - offset,
+        valueInBlob, expiryEpochSeconds, (int) mergeOperatorId);
+  }
+
+  private static boolean isExpiringTag(byte tag) {
+    return tag == V2_EXPIRING_TAG || tag == V2_EXPIRING_BLOB_TAG;
+  }
+
+  private static int varintNumBytes(long value) {
+    int numBytes = 1;
+    while ((value & ~0x7FL) != 0) {
+      value >>>= 7;
+      numBytes++;
+    }
+    return numBytes;
+  }
+
+  private static void putVarint(ByteBuffer buffer, long value) {
+    while ((value & ~0x7FL) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+}
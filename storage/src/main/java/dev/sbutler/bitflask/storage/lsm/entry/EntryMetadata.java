@@ -2,13 +2,16 @@ package dev.sbutler.bitflask.storage.lsm.entry;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
-import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Longs;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
- * The metadata for a single {@link Entry}.
+ * The metadata for a single {@link Entry} in the fixed-width v1 encoding.
+ *
+ * <p>New entries are encoded with the varint based v2 header, see {@link EntryHeader}. This layout
+ * is retained so existing v1 segments and write-ahead logs can be decoded.
  *
  * @param creationEpochSeconds creation time of the associated Entry as the number of seconds since
  *                             epoch. Cannot be negative.
@@ -66,11 +69,34 @@ public record EntryMetadata(long creationEpochSeconds, UnsignedShort keyLength,
    * indices, the key length in the next two, and the value length in the final two.
    */
   public byte[] getBytes() {
-    byte[] creationEpochSecondsBytes = Longs.toByteArray(creationEpochSeconds);
-    byte[] keyLengthBytes = keyLength.getBytes();
-    byte[] valueLengthBytes = valueLength.getBytes();
+    ByteBuffer buffer = ByteBuffer.allocate(BYTES);
+    writeTo(buffer);
+    return buffer.array();
+  }
+
+  /**
+   * Encodes the EntryMetadata into the provided {@link ByteBuffer} starting at its current position
+   * using the same layout as {@link #getBytes()}.
+   */
+  public void writeTo(ByteBuffer buffer) {
+    writeTo(buffer, creationEpochSeconds, keyLength.value(), valueLength.value());
+  }
 
-    return Bytes.concat(creationEpochSecondsBytes, keyLengthBytes, valueLengthBytes);
+  /**
+   * Encodes EntryMetadata fields into the {@link ByteBuffer} without creating an EntryMetadata
+   * instance.
+   */
+  static void writeTo(ByteBuffer buffer, long creationEpochSeconds, int keyLength,
+      int valueLength) {
+    checkArgument(keyLength <= UnsignedShort.MAX_VALUE,
+        "Key length greater than allowed. Provided [%s], max allowed [%s]", keyLength,
+        UnsignedShort.MAX_VALUE);
+    checkArgument(valueLength <= UnsignedShort.MAX_VALUE,
+        "Value length greater than allowed. Provided [%s], max allowed [%s]", valueLength,
+        UnsignedShort.MAX_VALUE);
+    buffer.putLong(creationEpochSeconds);
+    buffer.putShort((short) keyLength);
+    buffer.putShort((short) valueLength);
   }
 
   public int getKeyLength() {
@@ -2,23 +2,58 @@ package dev.sbutler.bitflask.storage.lsm.entry;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.utils.DirectIoUtils;
 import java.io.BufferedInputStream;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
 import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Enables reading {@link Entry}s from a provided file.
+ *
+ * <p>Entries are decoded as {@link EntryView}s over the raw bytes read from the file so that keys
+ * can be compared, and entries copied, without materializing their values.
+ *
+ * <p>Asynchronous reads share a single {@link AsynchronousFileChannel} that is opened by the first
+ * of them and held until this reader is closed.
  */
-public final class EntryReader {
+public final class EntryReader implements Closeable {
+
+  /**
+   * The initial number of bytes of the buffer used when scanning for a single entry.
+   */
+  static final int INITIAL_SCAN_BUFFER_BYTES = 1024;
+
+  /**
+   * The number of bytes read at a time when asynchronously scanning for a single entry.
+   */
+  static final int ASYNC_SCAN_BLOCK_BYTES = 4 * 1024;
 
   private final Path filePath;
+  private final boolean directIo;
+  private final ReentrantLock asyncChannelLock = new ReentrantLock();
 
-  private EntryReader(Path filePath) {
+  private volatile AsynchronousFileChannel asyncChannel;
+  private boolean closed = false;
+
+  private EntryReader(Path filePath, boolean directIo) {
     this.filePath = filePath;
+    this.directIo = directIo;
   }
 
   /**
@@ -26,7 +61,18 @@ public final class EntryReader {
    * provided {@link Path}.
    */
   public static EntryReader create(Path filePath) {
-    return new EntryReader(filePath);
+    return new EntryReader(filePath, false);
+  }
+
+  /**
+   * Creates an {@link EntryReader} for retrieving {@link Entry}s from the file located at the
+   * provided {@link Path}, reading all entries with direct I/O.
+   *
+   * <p>Only {@link #readAllEntryViewsFromOffset(long)} bypasses the page cache. Reads of a single
+   * entry continue to use it.
+   */
+  public static EntryReader createWithDirectIo(Path filePath) {
+    return new EntryReader(filePath, true);
   }
 
   /**
@@ -35,121 +81,349 @@ public final class EntryReader {
    * <p>An {@link IOException} will be thrown if there is an issue iterating the entries.
    */
   public ImmutableList<Entry> readAllEntriesFromOffset(long startOffset) throws IOException {
+    return readAllEntryViewsFromOffset(startOffset).stream()
+        .map(EntryView::toEntry)
+        .collect(ImmutableList.toImmutableList());
+  }
+
+  /**
+   * Reads all entries from the file starting at the provided startOffset as {@link EntryView}s.
+   *
+   * <p>The file's remaining bytes are read in a single pass and all returned views share the same
+   * backing buffer. No keys or values are decoded. If this reader was created with direct I/O the
+   * bytes are read without populating the page cache.
+   *
+   * <p>An {@link IOException} will be thrown if there is an issue iterating the entries.
+   */
+  public ImmutableList<EntryView> readAllEntryViewsFromOffset(long startOffset)
+      throws IOException {
     if (!Files.exists(filePath, LinkOption.NOFOLLOW_LINKS)) {
       return ImmutableList.of();
     }
 
-    Builder<Entry> entryListBuilder = ImmutableList.builder();
+    ByteBuffer buffer;
+    if (directIo) {
+      buffer = ByteBuffer.wrap(DirectIoUtils.readAllBytes(filePath, startOffset));
+    } else {
+      try (InputStream is = Files.newInputStream(filePath, StandardOpenOption.READ)) {
+        is.skipNBytes(startOffset);
+        buffer = ByteBuffer.wrap(is.readAllBytes());
+      }
+    }
+
+    Builder<EntryView> entryViewListBuilder = ImmutableList.builder();
+    int offset = 0;
+    while (offset < buffer.limit()) {
+      EntryView entryView = readEntryView(buffer, offset);
+      entryViewListBuilder.add(entryView);
+      offset += (int) entryView.getNumBytesSize();
+    }
+    return entryViewListBuilder.build();
+  }
+
+  /**
+   * Iterates the {@link Entry}s in the associated file until one with the provided key is found, or
+   * the end of the segment file is reached.
+   *
+   * <p>The provided key is compared against each entry's raw key bytes. The returned
+   * {@link EntryView} is backed by a buffer exclusive to this call.
+   *
+   * <p>An {@link IOException} will be thrown if there is an issue iterating the entries.
+   */
+  public Optional<EntryView> findEntryViewFromOffset(ByteString key, long startOffset)
+      throws IOException {
     try (BufferedInputStream is =
         new BufferedInputStream(Files.newInputStream(filePath, StandardOpenOption.READ))) {
       is.skipNBytes(startOffset);
 
-      byte[] metadataBuffer = new byte[EntryMetadata.BYTES];
-      while (is.read(metadataBuffer) != -1) {
-        EntryMetadata entryMetadata = EntryMetadata.fromBytes(metadataBuffer);
-        Entry entry = readEntry(is, entryMetadata);
-        entryListBuilder.add(entry);
+      ByteBuffer scanBuffer = ByteBuffer.allocate(INITIAL_SCAN_BUFFER_BYTES);
+      int headerLength;
+      while ((headerLength = EntryHeader.readBytes(is, scanBuffer.array())) > 0) {
+        scanBuffer.limit(headerLength);
+        EntryHeader header = decodeHeader(scanBuffer, 0);
+        int keyLength = header.keyLength();
+        int valueLength = header.valueLength();
+        int entryLength = Math.toIntExact(header.getEntryNumBytes());
+        scanBuffer = ensureCapacity(scanBuffer, entryLength, headerLength);
+
+        readFully(is, scanBuffer, headerLength, keyLength, "key");
+        readFully(is, scanBuffer, headerLength + keyLength, valueLength, "value");
+        scanBuffer.limit(entryLength);
+
+        EntryView entryView = EntryView.wrap(scanBuffer, 0);
+        if (entryView.keyEquals(key)) {
+          return Optional.of(entryView);
+        }
+        scanBuffer.clear();
       }
     }
-    return entryListBuilder.build();
+    return Optional.empty();
   }
 
   /**
-   * Reads an {@link Entry} in its entirety from the {@link BufferedInputStream} based on the
-   * {@link EntryMetadata}.
+   * Asynchronously iterates the {@link Entry}s in the associated file until one with the provided
+   * key is found, or the end of the segment file is reached.
    *
-   * <p>The provided BufferedInputStream will be in the correct position for reading the next entry
-   * after this method completes.
+   * <p>The file is read with this reader's shared {@link AsynchronousFileChannel} so that no thread
+   * is blocked while the read is outstanding. Entries are read in blocks of
+   * {@link #ASYNC_SCAN_BLOCK_BYTES} and every entry within a block is checked before the next block
+   * is read. The returned {@link EntryView} is backed by a buffer exclusive to this call.
+   *
+   * <p>The returned future completes exceptionally with an {@link IOException} if there is an issue
+   * iterating the entries, or if this reader has been closed.
    */
-  private Entry readEntry(BufferedInputStream is, EntryMetadata entryMetadata)
-      throws IOException {
-    String readKey = readEntryKey(is, entryMetadata);
-    String readValue = readEntryValue(is, entryMetadata);
-    return new Entry(entryMetadata.creationEpochSeconds(), readKey, readValue);
+  public CompletableFuture<Optional<EntryView>> findEntryViewFromOffsetAsync(ByteString key,
+      long startOffset) {
+    AsynchronousFileChannel channel;
+    try {
+      channel = getAsyncChannel();
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    return scanForEntryViewAsync(channel, key, startOffset, ASYNC_SCAN_BLOCK_BYTES);
   }
 
   /**
-   * Iterates the {@link Entry}s in the associated file until one with the provided key is found, or
-   * the end of the segment file is reached.
+   * Closes the {@link AsynchronousFileChannel} shared by asynchronous reads, if one was opened.
    *
-   * <p>An {@link IOException} will be thrown if there is an issue iterating the entries.
+   * <p>Asynchronous reads started after this reader is closed will fail. Reads that do not use the
+   * shared channel are unaffected.
+   */
+  @Override
+  public void close() throws IOException {
+    asyncChannelLock.lock();
+    try {
+      closed = true;
+      if (asyncChannel != null) {
+        asyncChannel.close();
+      }
+    } finally {
+      asyncChannelLock.unlock();
+    }
+  }
+
+  private AsynchronousFileChannel getAsyncChannel() throws IOException {
+    AsynchronousFileChannel channel = asyncChannel;
+    if (channel != null) {
+      return channel;
+    }
+    asyncChannelLock.lock();
+    try {
+      if (closed) {
+        throw new ClosedChannelException();
+      }
+      if (asyncChannel == null) {
+        asyncChannel = AsynchronousFileChannel.open(filePath, StandardOpenOption.READ);
+      }
+      return asyncChannel;
+    } finally {
+      asyncChannelLock.unlock();
+    }
+  }
+
+  /**
+   * Reads the entries located at each key's provided offset as {@link EntryView}s, mapped by key.
+   *
+   * <p>The file is opened once and the offsets are visited in ascending order so that all entries
+   * are read in a single sequential pass. Keys whose entry at the offset has a different key are
+   * omitted. Each returned {@link EntryView} is backed by its own buffer.
+   *
+   * <p>An {@link IOException} will be thrown if there is an issue reading the entries.
    */
-  public Optional<Entry> findEntryFromOffset(String key, long startOffset) throws IOException {
+  public ImmutableMap<ByteString, EntryView> findEntryViewsAtOffsets(
+      Map<ByteString, Long> keyOffsets) throws IOException {
+    List<Map.Entry<ByteString, Long>> sortedKeyOffsets =
+        keyOffsets.entrySet().stream().sorted(Map.Entry.comparingByValue()).toList();
+
+    ImmutableMap.Builder<ByteString, EntryView> entryViews = ImmutableMap.builder();
     try (BufferedInputStream is =
         new BufferedInputStream(Files.newInputStream(filePath, StandardOpenOption.READ))) {
-      is.skipNBytes(startOffset);
+      byte[] headerBytes = new byte[EntryHeader.MAX_BYTES];
+      long position = 0;
+      for (Map.Entry<ByteString, Long> keyOffset : sortedKeyOffsets) {
+        long offset = keyOffset.getValue();
+        is.skipNBytes(offset - position);
+
+        int headerLength = EntryHeader.readBytes(is, headerBytes);
+        if (headerLength == 0) {
+          throw new IOException(String.format("No entry found at offset [%d].", offset));
+        }
+        EntryHeader header = decodeHeader(ByteBuffer.wrap(headerBytes, 0, headerLength), 0);
+        int entryLength = Math.toIntExact(header.getEntryNumBytes());
+        ByteBuffer entryBuffer = ByteBuffer.allocate(entryLength);
+        entryBuffer.put(0, headerBytes, 0, headerLength);
+        readFully(is, entryBuffer, headerLength, header.keyLength(), "key");
+        readFully(is, entryBuffer, headerLength + header.keyLength(), header.valueLength(),
+            "value");
+        position = offset + entryLength;
 
-      byte[] metadataBuffer = new byte[EntryMetadata.BYTES];
-      while (is.read(metadataBuffer) != -1) {
-        EntryMetadata entryMetadata = EntryMetadata.fromBytes(metadataBuffer);
-        Optional<Entry> entry = readEntryWithMatchingKey(is, entryMetadata, key);
-        if (entry.isPresent()) {
-          return entry;
+        EntryView entryView = EntryView.wrap(entryBuffer, 0);
+        if (entryView.keyEquals(keyOffset.getKey())) {
+          entryViews.put(keyOffset.getKey(), entryView);
         }
       }
     }
-    return Optional.empty();
+    return entryViews.buildOrThrow();
   }
 
   /**
-   * Reads the {@link Entry} from the {@link BufferedInputStream} based on the provided
-   * {@link EntryMetadata} and returns it if the {@code key} matches.
+   * Reads a block of at least {@code blockBytes} starting at the provided position of the channel
+   * and checks each complete entry within it, continuing on to the following block if none of their
+   * keys match.
    *
-   * <p>The provided BufferedInputStream will be in the correct position for reading the next entry
-   * after this method completes.
+   * <p>An entry that is only partially contained by the block is read again at the start of the
+   * following block, which is made large enough to hold it.
+   */
+  private static CompletableFuture<Optional<EntryView>> scanForEntryViewAsync(
+      AsynchronousFileChannel channel, ByteString key, long position, int blockBytes) {
+    ByteBuffer block = ByteBuffer.allocate(blockBytes);
+    return readFullyAsync(channel, block, position)
+        .thenCompose(numRead -> {
+          block.flip();
+          boolean endOfFile = numRead < blockBytes;
+          int offset = 0;
+          while (offset < numRead) {
+            if (!endOfFile && numRead - offset < EntryHeader.MAX_BYTES) {
+              // The header may continue past the block
+              break;
+            }
+            int entryLength;
+            try {
+              entryLength = Math.toIntExact(decodeHeader(block, offset).getEntryNumBytes());
+            } catch (IOException e) {
+              return CompletableFuture.failedFuture(e);
+            }
+            if (offset + entryLength > numRead) {
+              if (endOfFile) {
+                return CompletableFuture.failedFuture(
+                    createIncompleteEntryException(numRead - offset, entryLength));
+              }
+              return scanForEntryViewAsync(channel, key, position + offset,
+                  Math.max(entryLength, ASYNC_SCAN_BLOCK_BYTES));
+            }
+            EntryView entryView = EntryView.wrap(block, offset);
+            if (entryView.keyEquals(key)) {
+              return CompletableFuture.completedFuture(Optional.of(entryView));
+            }
+            offset += entryLength;
+          }
+          if (endOfFile) {
+            return CompletableFuture.completedFuture(Optional.empty());
+          }
+          return scanForEntryViewAsync(channel, key, position + offset, ASYNC_SCAN_BLOCK_BYTES);
+        });
+  }
+
+  /**
+   * Asynchronously reads from the channel starting at the provided position until the buffer is
+   * full or the end of the file is reached, returning the number of bytes read.
    */
-  private Optional<Entry> readEntryWithMatchingKey(BufferedInputStream is,
-      EntryMetadata entryMetadata, String key) throws IOException {
-    String readKey = readEntryKey(is, entryMetadata);
+  private static CompletableFuture<Integer> readFullyAsync(AsynchronousFileChannel channel,
+      ByteBuffer buffer, long position) {
+    CompletableFuture<Integer> future = new CompletableFuture<>();
+    int startPosition = buffer.position();
+    CompletionHandler<Integer, Void> handler = new CompletionHandler<>() {
+      @Override
+      public void completed(Integer numRead, Void attachment) {
+        int totalRead = buffer.position() - startPosition;
+        if (numRead < 0 || !buffer.hasRemaining()) {
+          future.complete(totalRead);
+          return;
+        }
+        readFromChannel(channel, buffer, position + totalRead, this, future);
+      }
 
-    if (key.equals(readKey)) {
-      String readValue = readEntryValue(is, entryMetadata);
-      return Optional.of(new Entry(entryMetadata.creationEpochSeconds(), key, readValue));
+      @Override
+      public void failed(Throwable exc, Void attachment) {
+        future.completeExceptionally(exc);
+      }
+    };
+    readFromChannel(channel, buffer, position, handler, future);
+    return future;
+  }
+
+  private static void readFromChannel(AsynchronousFileChannel channel, ByteBuffer buffer,
+      long position, CompletionHandler<Integer, Void> handler, CompletableFuture<?> future) {
+    try {
+      channel.read(buffer, position, null, handler);
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
     }
+  }
 
-    is.skipNBytes(entryMetadata.getValueLength());
-    return Optional.empty();
+  private static IOException createIncompleteEntryException(int numRead, int entryLength) {
+    return new IOException(String.format(
+        "Read entry length did not match entry. Read [%d], expected [%d].",
+        numRead, entryLength));
   }
 
   /**
-   * Reads and {@link Entry}'s key from the {@link BufferedInputStream} based on the
-   * {@link EntryMetadata}.
-   *
-   * <p>The provided BufferedInputStream will be in the correct position for reading the entry's
-   * value after this method completes.
+   * Creates an {@link EntryView} for the entry at the provided offset of the buffer.
    *
-   * <p>An {@link IOException} will be thrown if the read key bytes length does not match the
-   * length expected from the EntryMetadata.
+   * <p>An {@link IOException} will be thrown if the buffer does not contain the complete entry.
    */
-  private String readEntryKey(BufferedInputStream is, EntryMetadata entryMetadata)
-      throws IOException {
-    byte[] keyBuffer = is.readNBytes(entryMetadata.getKeyLength());
-    if (keyBuffer.length != entryMetadata.getKeyLength()) {
+  private static EntryView readEntryView(ByteBuffer buffer, int offset) throws IOException {
+    EntryHeader header = decodeHeader(buffer, offset);
+    int remaining = buffer.limit() - offset - header.numBytes();
+
+    int keyLength = header.keyLength();
+    if (remaining < keyLength) {
       throw new IOException(String.format(
           "Read key length did not match entry. Read [%d], expected [%d].",
-          keyBuffer.length, entryMetadata.getKeyLength()));
+          remaining, keyLength));
+    }
+    remaining -= keyLength;
+
+    int valueLength = header.valueLength();
+    if (remaining < valueLength) {
+      throw new IOException(String.format(
+          "Read value length did not match entry. Read [%d], expected [%d].",
+          remaining, valueLength));
     }
-    return new String(keyBuffer);
+    return EntryView.wrap(buffer, offset);
   }
 
   /**
-   * Reads and {@link Entry}'s value from the {@link BufferedInputStream} based on the
-   * {@link EntryMetadata}.
+   * Decodes the {@link EntryHeader} at the provided offset of the buffer.
    *
-   * <p>The provided BufferedInputStream will be in the correct position for reading the next entry
-   * after this method completes.
+   * <p>An {@link IOException} will be thrown if the header is incomplete or malformed.
+   */
+  private static EntryHeader decodeHeader(ByteBuffer buffer, int offset) throws IOException {
+    try {
+      return EntryHeader.decode(buffer, offset);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads exactly {@code length} bytes from the {@link InputStream} into the buffer's backing array
+   * at the provided offset.
    *
-   * <p>An {@link IOException} will be thrown if the read key bytes length does not match the
-   * length expected from the EntryMetadata.
+   * <p>An {@link IOException} will be thrown if the stream ends before all bytes are read.
    */
-  private String readEntryValue(BufferedInputStream is, EntryMetadata entryMetadata)
-      throws IOException {
-    byte[] valueBuffer = is.readNBytes(entryMetadata.getValueLength());
-    if (valueBuffer.length != entryMetadata.getValueLength()) {
+  private static void readFully(InputStream is, ByteBuffer buffer, int offset, int length,
+      String fieldName) throws IOException {
+    int numRead = is.readNBytes(buffer.array(), offset, length);
+    if (numRead != length) {
       throw new IOException(String.format(
-          "Read value length did not match entry. Read [%d], expected [%d].",
-          valueBuffer.length, entryMetadata.getValueLength()));
+          "Read %s length did not match entry. Read [%d], expected [%d].",
+          fieldName, numRead, length));
+    }
+  }
+
+  /**
+   * Returns a buffer with at least the required capacity, copying over the already read header
+   * bytes if a larger buffer had to be allocated.
+   */
+  private static ByteBuffer ensureCapacity(ByteBuffer buffer, int requiredBytes,
+      int headerLength) {
+    if (buffer.capacity() >= requiredBytes) {
+      buffer.limit(buffer.capacity());
+      return buffer;
     }
-    return new String(valueBuffer);
+    ByteBuffer grown = ByteBuffer.allocate(Math.max(requiredBytes, buffer.capacity() * 2));
+    grown.put(0, buffer, 0, headerLength);
+    return grown;
   }
 }
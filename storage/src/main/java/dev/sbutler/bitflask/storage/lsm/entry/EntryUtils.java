@@ -1,7 +1,12 @@
 package dev.sbutler.bitflask.storage.lsm.entry;
 
+import static com.google.common.base.Preconditions.checkArgument;
+
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import java.util.List;
+import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -11,15 +16,16 @@ import java.util.TreeMap;
 public final class EntryUtils {
 
   /**
-   * Builds a mutable {@link SortedMap} of {@link Entry}s by their key
+   * Builds a mutable {@link SortedMap} of {@link Entry}s, or their {@link WritableEntry}
+   * representations, by their key
    *
-   * <p>The most recent {@link Entry} will be kept when duplicate keys are encountered.
+   * <p>The most recent entry will be kept when duplicate keys are encountered.
    */
-  public static SortedMap<String, Entry> buildKeyEntryMap(
-      ImmutableList<Entry> entries) {
-    SortedMap<String, Entry> keyEntryMap = new TreeMap<>();
+  public static <E extends WritableEntry> SortedMap<ByteString, E> buildKeyEntryMap(
+      ImmutableList<E> entries) {
+    SortedMap<ByteString, E> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
     for (var entry : entries) {
-      Entry prevEntry = keyEntryMap.get(entry.key());
+      E prevEntry = keyEntryMap.get(entry.key());
       if (prevEntry == null
           || prevEntry.creationEpochSeconds() < entry.creationEpochSeconds()) {
         keyEntryMap.put(entry.key(), entry);
@@ -29,15 +35,71 @@ public final class EntryUtils {
   }
 
   /**
-   * Builds an {@link ImmutableSortedMap} of {@link Entry}s by their key
+   * Builds an {@link ImmutableSortedMap} of {@link Entry}s, or their {@link WritableEntry}
+   * representations, by their key
    *
-   * <p>The most recent {@link Entry} will be kept when duplicate keys are encountered.
+   * <p>The most recent entry will be kept when duplicate keys are encountered.
    */
-  public static ImmutableSortedMap<String, Entry> buildImmutableKeyEntryMap(
-      ImmutableList<Entry> entries) {
+  public static <E extends WritableEntry>
+      ImmutableSortedMap<ByteString, E> buildImmutableKeyEntryMap(ImmutableList<E> entries) {
     return ImmutableSortedMap.copyOfSorted(buildKeyEntryMap(entries));
   }
 
+  /**
+   * Applies the merge operand onto the older entry for its key, returning the entry replacing both.
+   *
+   * <p>If the older entry is a value the result holds the merged value and keeps the older entry's
+   * expiry. A deleted older entry, or one expired when the operand was created, is merged as an
+   * empty value. If the older entry is an operand of the same {@link MergeOperator} the result is a
+   * single operand equivalent to applying both. Empty is returned for an operand of a different
+   * operator, since the two can only be folded once the value beneath them is known.
+   *
+   * <p>Expiry is evaluated at the operand's creation time so that the result is the same whenever
+   * the operand is applied.
+   */
+  public static Optional<Entry> applyMergeOperand(Entry older, Entry operand) {
+    checkArgument(operand.isMergeOperand(), "Expected a merge operand. Provided [%s]", operand);
+    MergeOperator mergeOperator = operand.getMergeOperator();
+    if (older.isMergeOperand()) {
+      if (older.mergeOperatorId() != operand.mergeOperatorId()) {
+        return Optional.empty();
+      }
+      return Optional.of(Entry.mergeOperand(operand.creationEpochSeconds(), operand.key(),
+          mergeOperator.merge(older.value(), operand.value()), mergeOperator));
+    }
+    if (older.isDeleted() || older.isExpired(operand.creationEpochSeconds())) {
+      return Optional.of(resolveMergeOperand(operand));
+    }
+    return Optional.of(new Entry(operand.creationEpochSeconds(), operand.key(),
+        mergeOperator.merge(older.value(), operand.value()), older.expiryEpochSeconds()));
+  }
+
+  /**
+   * Resolves the merge operand for a key without any older entries, returning an entry holding the
+   * value the operand creates.
+   */
+  public static Entry resolveMergeOperand(Entry operand) {
+    checkArgument(operand.isMergeOperand(), "Expected a merge operand. Provided [%s]", operand);
+    return new Entry(operand.creationEpochSeconds(), operand.key(),
+        operand.getMergeOperator().merge(ByteString.EMPTY, operand.value()));
+  }
+
+  /**
+   * Folds the merge operands, ordered newest first, onto the base entry for their key, or onto an
+   * empty value if there is no base. Returns an entry holding the resulting value.
+   */
+  public static Entry foldMergeOperands(List<Entry> operandsNewestFirst, Optional<Entry> base) {
+    checkArgument(!operandsNewestFirst.isEmpty(), "Expected at least one merge operand");
+    Entry oldestOperand = operandsNewestFirst.getLast();
+    Entry folded = base.flatMap(entry -> applyMergeOperand(entry, oldestOperand))
+        .orElseGet(() -> resolveMergeOperand(oldestOperand));
+    for (Entry operand : operandsNewestFirst.reversed().subList(1, operandsNewestFirst.size())) {
+      // The folded entry is always a value, so applying the next operand cannot fail
+      folded = applyMergeOperand(folded, operand).orElseThrow();
+    }
+    return folded;
+  }
+
   private EntryUtils() {
 
   }
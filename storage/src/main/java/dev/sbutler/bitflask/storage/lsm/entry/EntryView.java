@@ -0,0 +1,194 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import java.nio.ByteBuffer;
+
+/**
+ * A read-only flyweight view of an encoded {@link Entry} backed by a {@link ByteBuffer}.
+ *
+ * <p>The entry's {@link EntryHeader} is decoded once when the view is created, in either the v1 or
+ * v2 encoding. A key can be compared against a probe without being copied, and the value is only
+ * copied when explicitly requested.
+ *
+ * <p>The backing buffer must not be modified while views over it are in use.
+ */
+public final class EntryView implements WritableEntry {
+
+  private final ByteBuffer buffer;
+  private final int offset;
+  private final EntryHeader header;
+
+  private EntryView(ByteBuffer buffer, int offset, EntryHeader header) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.header = header;
+  }
+
+  /**
+   * Creates a view of the entry encoded in the buffer at the provided absolute offset.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if the buffer does not contain a complete
+   * entry at the offset.
+   */
+  public static EntryView wrap(ByteBuffer buffer, int offset) {
+    EntryView view = new EntryView(buffer, offset, EntryHeader.decode(buffer, offset));
+    checkArgument(buffer.limit() - offset >= view.getNumBytesSize(),
+        "Buffer does not contain a complete entry at offset [%s]. Expected [%s] bytes, found [%s]",
+        offset, view.getNumBytesSize(), buffer.limit() - offset);
+    return view;
+  }
+
+  @Override
+  public long creationEpochSeconds() {
+    return header.creationEpochSeconds();
+  }
+
+  @Override
+  public long expiryEpochSeconds() {
+    return header.expiryEpochSeconds();
+  }
+
+  /**
+   * The id of the {@link MergeOperator} the viewed entry's value is an operand of, or
+   * {@link Entry#NO_MERGE_OPERATOR} if it is a value.
+   */
+  public int mergeOperatorId() {
+    return header.mergeOperatorId();
+  }
+
+  /**
+   * Returns true if the viewed entry's value is an operand of a {@link MergeOperator}.
+   */
+  public boolean isMergeOperand() {
+    return mergeOperatorId() != Entry.NO_MERGE_OPERATOR;
+  }
+
+  /**
+   * The number of bytes of the entry's encoded key.
+   */
+  public int getKeyLength() {
+    return header.keyLength();
+  }
+
+  /**
+   * The number of bytes of the entry's encoded value.
+   */
+  public int getValueLength() {
+    return header.valueLength();
+  }
+
+  @Override
+  public long getNumBytesSize() {
+    return header.getEntryNumBytes();
+  }
+
+  /**
+   * Returns true if this view represents a deleted entry.
+   */
+  public boolean isDeleted() {
+    return getValueLength() == 0 && !isValueInBlob() && !isMergeOperand();
+  }
+
+  /**
+   * Returns true if the entry's value bytes are a reference to a value stored in a blob file rather
+   * than the value itself.
+   */
+  public boolean isValueInBlob() {
+    return header.valueInBlob();
+  }
+
+  /**
+   * Returns true if the encoded key is equal to the provided key without copying the encoded key.
+   */
+  public boolean keyEquals(ByteString probe) {
+    int keyLength = getKeyLength();
+    if (keyLength != probe.size()) {
+      return false;
+    }
+    int keyOffset = getKeyOffset();
+    if (buffer.hasArray()) {
+      return probe.equals(UnsafeByteOperations.unsafeWrap(
+          buffer.array(), buffer.arrayOffset() + keyOffset, keyLength));
+    }
+    for (int i = 0; i < keyLength; i++) {
+      if (buffer.get(keyOffset + i) != probe.byteAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Copies the entry's key out of the backing buffer.
+   */
+  @Override
+  public ByteString key() {
+    return copyBytes(getKeyOffset(), getKeyLength());
+  }
+
+  /**
+   * Copies the entry's value out of the backing buffer.
+   *
+   * <p>If {@link #isValueInBlob()} is true the returned bytes are the blob reference.
+   */
+  public ByteString value() {
+    return copyBytes(getKeyOffset() + getKeyLength(), getValueLength());
+  }
+
+  /**
+   * Materializes the viewed entry into an {@link Entry}.
+   *
+   * <p>An {@link IllegalStateException} will be thrown if the entry's value is stored in a blob
+   * file, as it must be resolved by the caller.
+   */
+  public Entry toEntry() {
+    checkState(!isValueInBlob(), "Entry value is stored in a blob file and must be resolved");
+    return new Entry(creationEpochSeconds(), key(), value(), expiryEpochSeconds(),
+        mergeOperatorId());
+  }
+
+  /**
+   * Copies the encoded entry's bytes into the provided buffer without decoding them.
+   *
+   * <p>The entry keeps the encoding it was read with.
+   */
+  @Override
+  public void writeTo(ByteBuffer destination) {
+    int numBytes = Math.toIntExact(getNumBytesSize());
+    destination.put(destination.position(), buffer, offset, numBytes);
+    destination.position(destination.position() + numBytes);
+  }
+
+  private int getKeyOffset() {
+    return offset + header.numBytes();
+  }
+
+  private ByteString copyBytes(int bytesOffset, int length) {
+    return ByteString.copyFrom(buffer.slice(bytesOffset, length));
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof EntryView that)) return false;
+    int numBytes = Math.toIntExact(getNumBytesSize());
+    return numBytes == that.getNumBytesSize()
+        && buffer.slice(offset, numBytes).equals(that.buffer.slice(that.offset, numBytes));
+  }
+
+  @Override
+  public int hashCode() {
+    return buffer.slice(offset, Math.toIntExact(getNumBytesSize())).hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "EntryView[creationEpochSeconds=%d, keyLength=%d, valueLength=%d, valueInBlob=%b]",
+        creationEpochSeconds(), getKeyLength(), getValueLength(), isValueInBlob());
+  }
+}
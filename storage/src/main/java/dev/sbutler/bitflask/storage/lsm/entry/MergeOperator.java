@@ -0,0 +1,88 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+
+/**
+ * The registered associative operators that merge operand {@link Entry}s are folded with.
+ *
+ * <p>An operator's id is persisted with each of its operands and must never change.
+ *
+ * <p>Every operator must be associative, {@code merge(merge(a, b), c)} equals {@code merge(a,
+ * merge(b, c))}, so that consecutive operands can be combined into one before the value they
+ * apply to is known. Merging onto an empty value must produce the value the operand would create
+ * for an absent key.
+ *
+ * <p>Operands are validated against the key's resolved value when written, so merging them when
+ * reading or compacting only throws if the stored values were corrupted.
+ */
+public enum MergeOperator {
+  /**
+   * Adds a signed decimal integer to the existing value, which is also treated as a signed decimal
+   * integer.
+   *
+   * <p>An empty existing value is treated as 0. A {@link StorageMergeException} is thrown if the
+   * existing value is not a decimal integer or the sum overflows.
+   */
+  INCREMENT(1) {
+    @Override
+    public ByteString merge(ByteString existingValue, ByteString operand) {
+      try {
+        long sum = Math.addExact(parseOrZero(existingValue), parseOrZero(operand));
+        return ByteString.copyFromUtf8(Long.toString(sum));
+      } catch (NumberFormatException | ArithmeticException e) {
+        throw new StorageMergeException(NOT_AN_INTEGER_MESSAGE);
+      }
+    }
+
+    private static long parseOrZero(ByteString value) {
+      return value.isEmpty() ? 0 : Long.parseLong(value.toStringUtf8());
+    }
+  },
+  /**
+   * Appends the operand's bytes to the existing value.
+   *
+   * <p>A {@link StorageMergeException} is thrown if the result would be longer than {@link
+   * Entry#VALUE_MAX_LENGTH}.
+   */
+  APPEND(2) {
+    @Override
+    public ByteString merge(ByteString existingValue, ByteString operand) {
+      if ((long) existingValue.size() + operand.size() > Entry.VALUE_MAX_LENGTH) {
+        throw new StorageMergeException(MAX_LENGTH_EXCEEDED_MESSAGE);
+      }
+      return existingValue.concat(operand);
+    }
+  };
+
+  static final String NOT_AN_INTEGER_MESSAGE = "value is not an integer or out of range";
+  static final String MAX_LENGTH_EXCEEDED_MESSAGE = "value would exceed the maximum length";
+
+  private final int id;
+
+  MergeOperator(int id) {
+    this.id = id;
+  }
+
+  /** The persisted id of this operator. */
+  public int getId() {
+    return id;
+  }
+
+  /** Merges the operand onto the existing value, returning the resulting value. */
+  public abstract ByteString merge(ByteString existingValue, ByteString operand);
+
+  /**
+   * Returns the operator with the provided id.
+   *
+   * <p>An {@link IllegalArgumentException} will be thrown if no operator has the id.
+   */
+  public static MergeOperator fromId(int id) {
+    return switch (id) {
+      case 1 -> INCREMENT;
+      case 2 -> APPEND;
+      default -> throw new IllegalArgumentException(
+          String.format("No MergeOperator exists for id [%d].", id));
+    };
+  }
+}
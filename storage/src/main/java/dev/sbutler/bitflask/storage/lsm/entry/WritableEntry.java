@@ -0,0 +1,47 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+
+/**
+ * A representation of an {@link Entry} that can be written to disk without first being converted
+ * into an Entry.
+ */
+public sealed interface WritableEntry permits Entry, EntryView, BlobReferenceEntry {
+
+  /**
+   * The creation time of the entry as the number of seconds since epoch.
+   */
+  long creationEpochSeconds();
+
+  /**
+   * The time the entry expires as the number of seconds since epoch, or {@link Entry#NO_EXPIRY} if
+   * it never does.
+   */
+  long expiryEpochSeconds();
+
+  /**
+   * Returns true if the entry expires at, or before, the provided time.
+   */
+  default boolean isExpired(long nowEpochSeconds) {
+    long expiryEpochSeconds = expiryEpochSeconds();
+    return expiryEpochSeconds != Entry.NO_EXPIRY && expiryEpochSeconds <= nowEpochSeconds;
+  }
+
+  /**
+   * The entry's key.
+   */
+  ByteString key();
+
+  /**
+   * The number of bytes required to represent the entry.
+   */
+  long getNumBytesSize();
+
+  /**
+   * Encodes the entry into the provided {@link ByteBuffer} starting at its current position.
+   *
+   * <p>The buffer's position will be advanced by {@link #getNumBytesSize()}.
+   */
+  void writeTo(ByteBuffer buffer);
+}
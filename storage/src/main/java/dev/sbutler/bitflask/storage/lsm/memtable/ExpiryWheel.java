@@ -0,0 +1,116 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel tracking when keys expire with a resolution of one second.
+ *
+ * <p>The wheel has {@link #NUM_LEVELS} levels of {@link #SLOTS_PER_LEVEL} slots. A slot in the
+ * first level spans a single second and a slot in each following level spans all slots of the
+ * level before it. A key is scheduled into the level whose span covers its expiry and is cascaded
+ * into lower levels as time advances, so scheduling and expiring a key both take constant time
+ * regardless of how many keys are tracked. Expiries beyond the last level's span are held in its
+ * furthest slot and cascaded again until they are in range.
+ *
+ * <p>A key is reported once for each time it was scheduled. Callers are expected to verify that
+ * the key's current entry is actually expired.
+ *
+ * <p>This class is not synchronized.
+ */
+final class ExpiryWheel {
+
+  static final int SLOTS_PER_LEVEL = 64;
+  static final int NUM_LEVELS = 4;
+
+  private static final int SLOT_BITS = Integer.numberOfTrailingZeros(SLOTS_PER_LEVEL);
+  private static final int SLOT_MASK = SLOTS_PER_LEVEL - 1;
+
+  private final List<List<ScheduledKey>> slots = new ArrayList<>();
+  private long currentEpochSeconds;
+  private int numScheduled = 0;
+
+  ExpiryWheel(long startEpochSeconds) {
+    this.currentEpochSeconds = startEpochSeconds;
+    for (int i = 0; i < NUM_LEVELS * SLOTS_PER_LEVEL; i++) {
+      slots.add(new ArrayList<>());
+    }
+  }
+
+  /**
+   * Schedules the key to be reported once the wheel advances to its expiry. Expiries that have
+   * already passed are reported on the next advance.
+   */
+  void schedule(ByteString key, long expiryEpochSeconds) {
+    place(new ScheduledKey(key, Math.max(expiryEpochSeconds, currentEpochSeconds + 1)));
+    numScheduled++;
+  }
+
+  /**
+   * Advances the wheel to the provided time, returning all keys whose expiry has been reached.
+   *
+   * <p>Advancing to a time at or before the wheel's current time has no effect.
+   */
+  ImmutableList<ByteString> advance(long nowEpochSeconds) {
+    ImmutableList.Builder<ByteString> expiredKeys = ImmutableList.builder();
+    while (currentEpochSeconds < nowEpochSeconds) {
+      currentEpochSeconds++;
+      cascade();
+      List<ScheduledKey> slot = slots.get(slotIndex(0, currentEpochSeconds));
+      for (ScheduledKey scheduledKey : slot) {
+        expiredKeys.add(scheduledKey.key());
+      }
+      numScheduled -= slot.size();
+      slot.clear();
+    }
+    return expiredKeys.build();
+  }
+
+  /** Returns the number of keys scheduled but not yet reported. */
+  int size() {
+    return numScheduled;
+  }
+
+  /**
+   * Moves the keys of each higher level slot whose span begins at the current time into the levels
+   * below it.
+   */
+  private void cascade() {
+    for (int level = 1; level < NUM_LEVELS; level++) {
+      if ((currentEpochSeconds & levelSpanMask(level)) != 0) {
+        return;
+      }
+      List<ScheduledKey> slot = slots.get(slotIndex(level, currentEpochSeconds));
+      List<ScheduledKey> cascading = new ArrayList<>(slot);
+      slot.clear();
+      cascading.forEach(this::place);
+    }
+  }
+
+  private void place(ScheduledKey scheduledKey) {
+    long delta = scheduledKey.expiryEpochSeconds() - currentEpochSeconds;
+    for (int level = 0; level < NUM_LEVELS; level++) {
+      if (delta < 1L << (SLOT_BITS * (level + 1))) {
+        slots.get(slotIndex(level, scheduledKey.expiryEpochSeconds())).add(scheduledKey);
+        return;
+      }
+    }
+    // Beyond the wheel's span: hold in the last level's furthest slot until it can be cascaded
+    int lastLevel = NUM_LEVELS - 1;
+    long furthestSlotStart = currentEpochSeconds + ((long) SLOT_MASK << (SLOT_BITS * lastLevel));
+    slots.get(slotIndex(lastLevel, furthestSlotStart)).add(scheduledKey);
+  }
+
+  private static long levelSpanMask(int level) {
+    return (1L << (SLOT_BITS * level)) - 1;
+  }
+
+  private static int slotIndex(int level, long epochSeconds) {
+    int slot = (int) ((epochSeconds >>> (SLOT_BITS * level)) & SLOT_MASK);
+    return level * SLOTS_PER_LEVEL + slot;
+  }
+
+  private record ScheduledKey(ByteString key, long expiryEpochSeconds) {}
+}
@@ -1,51 +1,111 @@
 package dev.sbutler.bitflask.storage.lsm.memtable;
 
-import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryUtils;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
 
 /**
  * An in memory store of new or updated {@link Entry}s with {@link WriteAheadLog} support.
  *
+ * <p>Entries with an expiry are tracked by an {@link ExpiryWheel} so their values can be released
+ * once expired, see {@link #expireEntries(long)}.
+ *
  * <p>Operations are synchronized and can be used in multiple threads concurrently.
  */
 public final class Memtable {
 
-  private final SortedMap<String, Entry> keyEntryMap;
+  private final MemtableEntryStore entryStore;
   private final WriteAheadLog writeAheadLog;
   private final ReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+  private final ExpiryWheel expiryWheel = new ExpiryWheel(Instant.now().getEpochSecond());
 
   private final AtomicLong currentSize = new AtomicLong(0);
 
-  private Memtable(SortedMap<String, Entry> keyEntryMap, WriteAheadLog writeAheadLog) {
-    this.keyEntryMap = keyEntryMap;
+  private Memtable(MemtableEntryStore entryStore, WriteAheadLog writeAheadLog) {
+    this.entryStore = entryStore;
     this.writeAheadLog = writeAheadLog;
   }
 
   static Memtable create(WriteAheadLog writeAheadLog) {
-    return new Memtable(new TreeMap<>(), writeAheadLog);
+    return create(new TreeMap<>(Entry.KEY_COMPARATOR), writeAheadLog);
   }
 
-  static Memtable create(SortedMap<String, Entry> keyEntryMap, WriteAheadLog writeAheadLog) {
-    Memtable memtable = new Memtable(keyEntryMap, writeAheadLog);
-    keyEntryMap.values().forEach(e -> memtable.updateSize(e, Optional.empty()));
+  static Memtable create(SortedMap<ByteString, Entry> keyEntryMap, WriteAheadLog writeAheadLog) {
+    Memtable memtable = new Memtable(new SortedMapEntryStore(keyEntryMap), writeAheadLog);
+    keyEntryMap.values().forEach(e -> {
+      memtable.updateSize(e.getNumBytesSize());
+      memtable.scheduleExpiry(e);
+    });
+    return memtable;
+  }
+
+  /** Creates a Memtable backed by the provided, empty {@link MemtableEntryStore}. */
+  static Memtable create(MemtableEntryStore entryStore, WriteAheadLog writeAheadLog) {
+    return new Memtable(entryStore, writeAheadLog);
+  }
+
+  /**
+   * Creates a Memtable backed by the provided, empty {@link MemtableEntryStore} populated with the
+   * entries, which are expected to already be in the {@link WriteAheadLog}.
+   */
+  static Memtable create(
+      MemtableEntryStore entryStore, Collection<Entry> entries, WriteAheadLog writeAheadLog) {
+    Memtable memtable = new Memtable(entryStore, writeAheadLog);
+    entries.forEach(memtable::putEntry);
     return memtable;
   }
 
   /** Reads the value corresponding to the provided key, if present. */
-  public Optional<Entry> read(String key) {
-    readWriteLock.readLock().lock();
+  public Optional<Entry> read(ByteString key) {
+    lockReadLock();
+    try {
+      return entryStore.get(key);
+    } finally {
+      readWriteLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Reads the entries corresponding to any of the provided keys, mapped by key.
+   *
+   * <p>All keys are read while holding the read lock once. Absent keys are omitted.
+   */
+  public ImmutableMap<ByteString, Entry> readAll(Collection<ByteString> keys) {
+    ImmutableMap.Builder<ByteString, Entry> entries = ImmutableMap.builder();
+    lockReadLock();
     try {
-      return Optional.ofNullable(keyEntryMap.get(key));
+      for (ByteString key : keys) {
+        entryStore.get(key).ifPresent(entry -> entries.put(key, entry));
+      }
     } finally {
       readWriteLock.readLock().unlock();
     }
+    return entries.buildKeepingLast();
+  }
+
+  /** Acquires the read lock, recording the time spent waiting if the read is being traced. */
+  private void lockReadLock() {
+    Optional<ReadTrace> readTrace = ReadTrace.current();
+    if (readTrace.isEmpty()) {
+      readWriteLock.readLock().lock();
+      return;
+    }
+    long waitStartNanos = System.nanoTime();
+    readWriteLock.readLock().lock();
+    readTrace.get().recordMemtableLockWait(System.nanoTime() - waitStartNanos);
   }
 
   /** Writes the provided {@link Entry}. */
@@ -53,43 +113,157 @@ public final class Memtable {
     readWriteLock.writeLock().lock();
     try {
       writeAheadLog.append(entry);
-      Entry prevEntry = keyEntryMap.put(entry.key(), entry);
-      updateSize(entry, Optional.ofNullable(prevEntry));
+      putEntry(entry);
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Merges the provided merge operand {@link Entry} onto the key's current value, resolving it
+   * while holding the write lock so that concurrent writes to the key cannot be lost.
+   *
+   * <p>If this Memtable holds a value for the key the operand is applied to it with {@link
+   * EntryUtils#applyMergeOperand(Entry, Entry)} and only the operand itself is appended to the
+   * {@link WriteAheadLog}. Otherwise, the key's entry older than this Memtable is read with {@code
+   * olderEntryReader}, any operand held for the key is folded onto it along with the provided
+   * operand, and the resolved value is written in full, so later merges of the key need not read
+   * it again.
+   *
+   * <p>A {@link dev.sbutler.bitflask.storage.exceptions.StorageMergeException} is thrown, without
+   * writing anything, if the operand cannot be applied to the key's value.
+   *
+   * @param olderEntryReader reads the key's entry, with any merge operands resolved, from the
+   *     storage older than this Memtable
+   */
+  public void merge(Entry operand, Supplier<Optional<Entry>> olderEntryReader)
+      throws IOException {
+    readWriteLock.writeLock().lock();
+    try {
+      Optional<Entry> entry = entryStore.get(operand.key());
+      if (entry.isPresent() && !entry.get().isMergeOperand()) {
+        Entry merged = EntryUtils.applyMergeOperand(entry.get(), operand).orElseThrow();
+        writeAheadLog.append(operand);
+        putEntry(merged);
+        return;
+      }
+      List<Entry> operandsNewestFirst =
+          entry.isPresent() ? List.of(operand, entry.get()) : List.of(operand);
+      Entry resolved = EntryUtils.foldMergeOperands(operandsNewestFirst, olderEntryReader.get());
+      writeAheadLog.append(resolved);
+      putEntry(resolved);
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Writes all provided {@link Entry}s atomically.
+   *
+   * <p>The entries are appended to the {@link WriteAheadLog} as a single record and applied while
+   * holding the write lock, so readers observe either none or all of them.
+   */
+  public void writeBatch(List<Entry> entries) throws IOException {
+    readWriteLock.writeLock().lock();
+    try {
+      writeAheadLog.append(entries);
+      for (Entry entry : entries) {
+        putEntry(entry);
+      }
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Releases the values of entries that expire at, or before, the provided time, replacing each
+   * with an empty, expired entry that continues to shadow any older entries for its key.
+   *
+   * <p>The replacements are not appended to the {@link WriteAheadLog}. Replaying the log restores
+   * the original expired entries, which are read identically.
+   *
+   * @return the number of entries expired
+   */
+  public int expireEntries(long nowEpochSeconds) {
+    readWriteLock.writeLock().lock();
+    try {
+      int numExpired = 0;
+      for (ByteString key : expiryWheel.advance(nowEpochSeconds)) {
+        Optional<Entry> entry = entryStore.get(key);
+        // The key may have been overwritten since it was scheduled
+        if (entry.isEmpty() || !entry.get().isExpired(nowEpochSeconds)
+            || entry.get().isDeleted()) {
+          continue;
+        }
+        Entry expiredEntry = new Entry(entry.get().creationEpochSeconds(), key, ByteString.EMPTY,
+            entry.get().expiryEpochSeconds());
+        updateSize(entryStore.put(expiredEntry));
+        numExpired++;
+      }
+      return numExpired;
     } finally {
       readWriteLock.writeLock().unlock();
     }
   }
 
-  private void updateSize(Entry newEntry, Optional<Entry> prevEntry) {
-    currentSize.getAndAdd(
-        prevEntry
-            .map(Entry::getNumBytesSize)
-            .map(prevSize -> Math.subtractExact(newEntry.getNumBytesSize(), prevSize))
-            .orElseGet(newEntry::getNumBytesSize));
+  private void putEntry(Entry entry) {
+    updateSize(entryStore.put(entry));
+    scheduleExpiry(entry);
   }
 
-  /** Returns the number of bytes of all {@link Entry}s contained within the Memtable. */
+  private void scheduleExpiry(Entry entry) {
+    if (entry.expiryEpochSeconds() != Entry.NO_EXPIRY) {
+      expiryWheel.schedule(entry.key(), entry.expiryEpochSeconds());
+    }
+  }
+
+  private void updateSize(long sizeDelta) {
+    currentSize.getAndAdd(sizeDelta);
+  }
+
+  /**
+   * Returns the number of bytes held by the {@link Entry}s contained within the Memtable.
+   *
+   * <p>This includes the memory of replaced entries that is not released until the Memtable is
+   * closed, so repeatedly updating the same keys still grows the Memtable towards being flushed.
+   */
   public long getNumBytesSize() {
     return currentSize.get();
   }
 
   /** Returns true if this Memtable contains an entry for the provided key. */
-  public boolean contains(String key) {
+  public boolean contains(ByteString key) {
     readWriteLock.readLock().lock();
     try {
-      return keyEntryMap.containsKey(key);
+      return entryStore.containsKey(key);
     } finally {
       readWriteLock.readLock().unlock();
     }
   }
 
   /** Flushes all key:entry pairs contained within this Memtable. */
-  public SortedMap<String, Entry> flush() {
+  public SortedMap<ByteString, Entry> flush() {
     readWriteLock.readLock().lock();
     try {
-      return ImmutableSortedMap.copyOfSorted(keyEntryMap);
+      return entryStore.copyEntries();
     } finally {
       readWriteLock.readLock().unlock();
     }
   }
+
+  /**
+   * Releases the memory held by this Memtable's entries and closes its {@link WriteAheadLog}.
+   *
+   * <p>This should only be called once the Memtable has been flushed and replaced. It cannot be
+   * used afterward.
+   */
+  public void close() throws IOException {
+    readWriteLock.writeLock().lock();
+    try {
+      entryStore.close();
+      writeAheadLog.close();
+    } finally {
+      readWriteLock.writeLock().unlock();
+    }
+  }
 }
@@ -0,0 +1,37 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.util.Optional;
+
+/**
+ * Stores the {@link Entry}s of a {@link Memtable} ordered by key.
+ *
+ * <p>Implementations are not synchronized. The {@link Memtable} guards all access with its lock.
+ */
+interface MemtableEntryStore extends AutoCloseable {
+
+  /** Returns the entry for the provided key, if present. */
+  Optional<Entry> get(ByteString key);
+
+  /**
+   * Stores the entry, replacing any previous entry for its key.
+   *
+   * @return the change in the number of bytes held by this store, which is negative if the entry
+   *     replaced a larger one whose memory was released
+   */
+  long put(Entry entry);
+
+  /** Returns true if an entry is stored for the provided key. */
+  boolean containsKey(ByteString key);
+
+  /** Returns a copy of all stored entries, mapped by key. */
+  ImmutableSortedMap<ByteString, Entry> copyEntries();
+
+  /**
+   * Releases any memory held by this store. The store cannot be used afterward.
+   */
+  @Override
+  void close();
+}
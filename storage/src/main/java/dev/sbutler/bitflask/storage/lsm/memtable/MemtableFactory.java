@@ -1,5 +1,6 @@
 package dev.sbutler.bitflask.storage.lsm.memtable;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import jakarta.inject.Inject;
@@ -20,10 +21,19 @@ public final class MemtableFactory {
   /**
    * Creates a new {@link Memtable}.
    *
-   * <p>The Memtable's associated {@link WriteAheadLog} will truncate any pre-existing file.
+   * <p>The Memtable's associated {@link WriteAheadLog} will truncate any pre-existing file, or
+   * recycle it if WriteAheadLog preallocation is configured. Its entries are stored off-heap if
+   * configured.
    */
   public Memtable create() throws IOException {
-    WriteAheadLog writeAheadLog = WriteAheadLog.create(getWriteAheadLogPath());
+    long preallocateBytes = storageConfig.getWriteAheadLogPreallocateBytes();
+    WriteAheadLog writeAheadLog =
+        preallocateBytes > 0
+            ? WriteAheadLog.createRecycled(getWriteAheadLogPath(), preallocateBytes)
+            : WriteAheadLog.create(getWriteAheadLogPath());
+    if (storageConfig.getMemtableOffHeap()) {
+      return Memtable.create(new OffHeapEntryStore(), writeAheadLog);
+    }
     return Memtable.create(writeAheadLog);
   }
 
@@ -32,8 +42,15 @@ public final class MemtableFactory {
    *
    * <p>The Memtable's associated {@link WriteAheadLog} will append to any pre-existing file.
    */
-  Memtable createWithLoading(SortedMap<String, Entry> keyEntryMap) throws IOException {
-    WriteAheadLog writeAheadLog = WriteAheadLog.createFromPreExisting(getWriteAheadLogPath());
+  Memtable createWithLoading(SortedMap<ByteString, Entry> keyEntryMap) throws IOException {
+    long preallocateBytes = storageConfig.getWriteAheadLogPreallocateBytes();
+    WriteAheadLog writeAheadLog =
+        preallocateBytes > 0
+            ? WriteAheadLog.createRecycledFromPreExisting(getWriteAheadLogPath(), preallocateBytes)
+            : WriteAheadLog.createFromPreExisting(getWriteAheadLogPath());
+    if (storageConfig.getMemtableOffHeap()) {
+      return Memtable.create(new OffHeapEntryStore(), keyEntryMap.values(), writeAheadLog);
+    }
     return Memtable.create(keyEntryMap, writeAheadLog);
   }
 
@@ -2,14 +2,15 @@ package dev.sbutler.bitflask.storage.lsm.memtable;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
-import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryUtils;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Creates a Memtable by loading or truncating previous values based on the {@link
@@ -52,7 +53,7 @@ public final class MemtableLoader {
 
   private Memtable createWithLoading() {
     ImmutableList<Entry> loadEntries = loadEntries();
-    SortedMap<String, Entry> keyEntryMap = EntryUtils.buildKeyEntryMap(loadEntries);
+    SortedMap<ByteString, Entry> keyEntryMap = replayEntries(loadEntries);
 
     try {
       Memtable memtable = memtableFactory.createWithLoading(keyEntryMap);
@@ -63,11 +64,34 @@ public final class MemtableLoader {
     }
   }
 
+  /**
+   * Replays the entries in the order they were appended, folding each merge operand onto the
+   * entry for its key as {@link Memtable#merge(Entry, java.util.function.Supplier)} did when the
+   * operand was written.
+   */
+  private static SortedMap<ByteString, Entry> replayEntries(ImmutableList<Entry> entries) {
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
+    for (Entry entry : entries) {
+      Entry prevEntry = keyEntryMap.get(entry.key());
+      if (!entry.isMergeOperand() || prevEntry == null) {
+        keyEntryMap.put(entry.key(), entry);
+        continue;
+      }
+      Entry merged = EntryUtils.applyMergeOperand(prevEntry, entry)
+          .orElseThrow(() -> new StorageLoadException(String.format(
+              "WriteAheadLog contains merge operands of different operators for key [%s]",
+              entry.key().toStringUtf8())));
+      keyEntryMap.put(entry.key(), merged);
+    }
+    return keyEntryMap;
+  }
+
   /** Loads all entries from the pre-existing {@link WriteAheadLog} file. */
   private ImmutableList<Entry> loadEntries() {
-    EntryReader entryReader = EntryReader.create(memtableFactory.getWriteAheadLogPath());
+    WriteAheadLogReader writeAheadLogReader =
+        WriteAheadLogReader.create(memtableFactory.getWriteAheadLogPath());
     try {
-      return entryReader.readAllEntriesFromOffset(0L);
+      return writeAheadLogReader.readAllEntries();
     } catch (IOException e) {
       throw new StorageLoadException("Failed to load entries from WriteAheadLog", e);
     }
@@ -0,0 +1,277 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link MemtableEntryStore} keeping encoded entries off-heap in memory allocated from a single
+ * {@link Arena}.
+ *
+ * <p>Entries are encoded into chunks of native memory with a bump allocator and indexed by a skip
+ * list whose nodes are also allocated in the chunks. Nodes and entries are referenced by primitive
+ * {@code long} addresses of the chunk index in the upper 32 bits and the offset within the chunk
+ * in the lower 32 bits, so the heap only holds the chunk list and the skip list's head pointers
+ * regardless of the number of entries.
+ *
+ * <p>Replacing an entry with one no longer than it overwrites the old encoding in place. Otherwise,
+ * the new encoding is appended and its node repointed, leaving the old encoding allocated until
+ * the store is closed. Closing the store frees all of its memory at once.
+ *
+ * <p>The size changes returned by {@link #put(Entry)} are the bytes allocated from the chunks,
+ * including the abandoned encodings and any unused chunk tails, so the store's reported size tracks
+ * the memory actually held rather than the size of its live entries.
+ */
+final class OffHeapEntryStore implements MemtableEntryStore {
+
+  /**
+   * The number of bytes of each chunk allocated from the arena. Entries larger than this are
+   * allocated a dedicated chunk.
+   */
+  static final int CHUNK_BYTES = 1 << 20;
+
+  /** The maximum number of levels of the skip list. */
+  static final int MAX_LEVEL = 16;
+
+  private static final long NIL = -1;
+
+  // Node layout: entry address, entry length, key offset within the entry, key length, level,
+  // followed by the next node address for each of the node's levels.
+  private static final long NODE_ENTRY_ADDRESS = 0;
+  private static final long NODE_ENTRY_LENGTH = 8;
+  private static final long NODE_KEY_OFFSET = 12;
+  private static final long NODE_KEY_LENGTH = 16;
+  private static final long NODE_LEVEL = 20;
+  private static final long NODE_NEXT = 24;
+
+  private final Arena arena = Arena.ofShared();
+  private final List<MemorySegment> chunks = new ArrayList<>();
+  private final long[] head = new long[MAX_LEVEL];
+  private MemorySegment currentChunk;
+  private long currentChunkOffset;
+  private long retiredChunkBytes;
+  private int level = 1;
+
+  OffHeapEntryStore() {
+    Arrays.fill(head, NIL);
+  }
+
+  @Override
+  public Optional<Entry> get(ByteString key) {
+    long node = findNode(key, null);
+    if (node == NIL) {
+      return Optional.empty();
+    }
+    return Optional.of(readEntryView(node).toEntry());
+  }
+
+  @Override
+  public long put(Entry entry) {
+    long allocatedBytesBefore = getNumBytesAllocated();
+    long[] update = new long[MAX_LEVEL];
+    long node = findNode(entry.key(), update);
+    int entryLength = Math.toIntExact(entry.getNumBytesSize());
+    int keyLength = entry.key().size();
+    int keyOffset = entryLength - keyLength - entry.value().size();
+
+    if (node != NIL) {
+      // Reuse the replaced entry's memory when the new encoding fits within it
+      long entryAddress =
+          entryLength <= getInt(node, NODE_ENTRY_LENGTH)
+              ? writeEntry(entry, getLong(node, NODE_ENTRY_ADDRESS))
+              : writeEntry(entry, allocate(entryLength, 1));
+      setNodeEntry(node, entryAddress, entryLength, keyOffset, keyLength);
+      return getNumBytesAllocated() - allocatedBytesBefore;
+    }
+
+    long entryAddress = writeEntry(entry, allocate(entryLength, 1));
+
+    int nodeLevel = randomLevel();
+    if (nodeLevel > level) {
+      Arrays.fill(update, level, nodeLevel, NIL);
+      level = nodeLevel;
+    }
+    long newNode = allocate(NODE_NEXT + (long) nodeLevel * Long.BYTES, Long.BYTES);
+    setNodeEntry(newNode, entryAddress, entryLength, keyOffset, keyLength);
+    setInt(newNode, NODE_LEVEL, nodeLevel);
+    for (int i = 0; i < nodeLevel; i++) {
+      setNext(newNode, i, getNext(update[i], i));
+      setNext(update[i], i, newNode);
+    }
+    return getNumBytesAllocated() - allocatedBytesBefore;
+  }
+
+  @Override
+  public boolean containsKey(ByteString key) {
+    return findNode(key, null) != NIL;
+  }
+
+  @Override
+  public ImmutableSortedMap<ByteString, Entry> copyEntries() {
+    ImmutableSortedMap.Builder<ByteString, Entry> entries =
+        ImmutableSortedMap.orderedBy(Entry.KEY_COMPARATOR);
+    for (long node = head[0]; node != NIL; node = getNext(node, 0)) {
+      Entry entry = readEntryView(node).toEntry();
+      entries.put(entry.key(), entry);
+    }
+    return entries.build();
+  }
+
+  /** Frees all memory allocated by this store in a single operation. */
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  /**
+   * Returns the node whose key equals the provided one, or {@link #NIL} if absent.
+   *
+   * <p>If {@code update} is provided, it is populated with the last node preceding the key at each
+   * level, or {@link #NIL} for the head.
+   */
+  private long findNode(ByteString key, long[] update) {
+    long node = NIL;
+    for (int i = level - 1; i >= 0; i--) {
+      long next = getNext(node, i);
+      while (next != NIL && compareKey(next, key) < 0) {
+        node = next;
+        next = getNext(node, i);
+      }
+      if (update != null) {
+        update[i] = node;
+      }
+    }
+    long candidate = getNext(node, 0);
+    return candidate != NIL && compareKey(candidate, key) == 0 ? candidate : NIL;
+  }
+
+  /**
+   * Compares the node's key to the provided key using the unsigned lexicographical order of
+   * {@link Entry#KEY_COMPARATOR} without copying the node's key onto the heap.
+   */
+  private int compareKey(long node, ByteString key) {
+    MemorySegment chunk = chunkOf(getLong(node, NODE_ENTRY_ADDRESS));
+    long keyStart =
+        offsetOf(getLong(node, NODE_ENTRY_ADDRESS)) + getInt(node, NODE_KEY_OFFSET);
+    int nodeKeyLength = getInt(node, NODE_KEY_LENGTH);
+    int length = Math.min(nodeKeyLength, key.size());
+    for (int i = 0; i < length; i++) {
+      int cmp =
+          Integer.compare(
+              Byte.toUnsignedInt(chunk.get(ValueLayout.JAVA_BYTE, keyStart + i)),
+              Byte.toUnsignedInt(key.byteAt(i)));
+      if (cmp != 0) {
+        return cmp;
+      }
+    }
+    return Integer.compare(nodeKeyLength, key.size());
+  }
+
+  private EntryView readEntryView(long node) {
+    long entryAddress = getLong(node, NODE_ENTRY_ADDRESS);
+    ByteBuffer buffer =
+        chunkOf(entryAddress)
+            .asSlice(offsetOf(entryAddress), getInt(node, NODE_ENTRY_LENGTH))
+            .asByteBuffer();
+    return EntryView.wrap(buffer, 0);
+  }
+
+  /** Encodes the entry at the address, returning the address. */
+  private long writeEntry(Entry entry, long entryAddress) {
+    long entryLength = entry.getNumBytesSize();
+    ByteBuffer buffer =
+        chunkOf(entryAddress).asSlice(offsetOf(entryAddress), entryLength).asByteBuffer();
+    entry.writeTo(buffer);
+    return entryAddress;
+  }
+
+  private void setNodeEntry(
+      long node, long entryAddress, int entryLength, int keyOffset, int keyLength) {
+    setLong(node, NODE_ENTRY_ADDRESS, entryAddress);
+    setInt(node, NODE_ENTRY_LENGTH, entryLength);
+    setInt(node, NODE_KEY_OFFSET, keyOffset);
+    setInt(node, NODE_KEY_LENGTH, keyLength);
+  }
+
+  /** Returns the next node of the provided node at the level, treating {@link #NIL} as the head. */
+  private long getNext(long node, int nodeLevel) {
+    if (node == NIL) {
+      return head[nodeLevel];
+    }
+    return getLong(node, NODE_NEXT + (long) nodeLevel * Long.BYTES);
+  }
+
+  private void setNext(long node, int nodeLevel, long next) {
+    if (node == NIL) {
+      head[nodeLevel] = next;
+    } else {
+      setLong(node, NODE_NEXT + (long) nodeLevel * Long.BYTES, next);
+    }
+  }
+
+  /** Allocates the number of bytes from the current chunk, allocating a new chunk if needed. */
+  private long allocate(long numBytes, long alignment) {
+    long offset =
+        currentChunk == null ? 0 : (currentChunkOffset + alignment - 1) / alignment * alignment;
+    if (currentChunk == null || offset + numBytes > currentChunk.byteSize()) {
+      if (currentChunk != null) {
+        retiredChunkBytes += currentChunk.byteSize();
+      }
+      currentChunk = arena.allocate(Math.max(CHUNK_BYTES, numBytes), Long.BYTES);
+      chunks.add(currentChunk);
+      offset = 0;
+    }
+    currentChunkOffset = offset + numBytes;
+    return ((long) (chunks.size() - 1) << 32) | offset;
+  }
+
+  /**
+   * Returns the number of bytes allocated from the chunks, counting the full size of every chunk
+   * before the current one.
+   */
+  private long getNumBytesAllocated() {
+    return retiredChunkBytes + currentChunkOffset;
+  }
+
+  private MemorySegment chunkOf(long address) {
+    return chunks.get((int) (address >>> 32));
+  }
+
+  private static long offsetOf(long address) {
+    return address & 0xFFFFFFFFL;
+  }
+
+  private long getLong(long node, long fieldOffset) {
+    return chunkOf(node).get(ValueLayout.JAVA_LONG, offsetOf(node) + fieldOffset);
+  }
+
+  private void setLong(long node, long fieldOffset, long value) {
+    chunkOf(node).set(ValueLayout.JAVA_LONG, offsetOf(node) + fieldOffset, value);
+  }
+
+  private int getInt(long node, long fieldOffset) {
+    return chunkOf(node).get(ValueLayout.JAVA_INT, offsetOf(node) + fieldOffset);
+  }
+
+  private void setInt(long node, long fieldOffset, int value) {
+    chunkOf(node).set(ValueLayout.JAVA_INT, offsetOf(node) + fieldOffset, value);
+  }
+
+  private static int randomLevel() {
+    int nodeLevel = 1;
+    while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextInt(4) == 0) {
+      nodeLevel++;
+    }
+    return nodeLevel;
+  }
+}
@@ -0,0 +1,41 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.util.Optional;
+import java.util.SortedMap;
+
+/** A {@link MemtableEntryStore} keeping entries on the heap in a {@link SortedMap}. */
+final class SortedMapEntryStore implements MemtableEntryStore {
+
+  private final SortedMap<ByteString, Entry> keyEntryMap;
+
+  SortedMapEntryStore(SortedMap<ByteString, Entry> keyEntryMap) {
+    this.keyEntryMap = keyEntryMap;
+  }
+
+  @Override
+  public Optional<Entry> get(ByteString key) {
+    return Optional.ofNullable(keyEntryMap.get(key));
+  }
+
+  @Override
+  public long put(Entry entry) {
+    Entry prevEntry = keyEntryMap.put(entry.key(), entry);
+    return entry.getNumBytesSize() - (prevEntry == null ? 0 : prevEntry.getNumBytesSize());
+  }
+
+  @Override
+  public boolean containsKey(ByteString key) {
+    return keyEntryMap.containsKey(key);
+  }
+
+  @Override
+  public ImmutableSortedMap<ByteString, Entry> copyEntries() {
+    return ImmutableSortedMap.copyOfSorted(keyEntryMap);
+  }
+
+  @Override
+  public void close() {}
+}
@@ -1,11 +1,19 @@
 package dev.sbutler.bitflask.storage.lsm.memtable;
 
+import com.google.common.collect.ImmutableList;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.stats.WriteAheadLogAppendEvent;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
 
 /**
  * A write-ahead-log for entries stored in the {@link Memtable}.
@@ -16,6 +24,31 @@ import java.nio.file.StandardOpenOption;
  *
  * <p>It is expected that there is only a single WriteAheadLog file at a time which corresponds to
  * the current in memory Memtable.
+ *
+ * <p>Each append is written as a single record which frames one or more encoded entries:
+ *
+ * <ul>
+ *   <li>a {@link #RECORD_TAG} byte, distinguishing records from the bare entries written by older
+ *   versions</li>
+ *   <li>the number of bytes of the encoded entries as a big-endian int</li>
+ *   <li>the CRC32C checksum of the encoded entries as a big-endian int</li>
+ *   <li>the encoded entries</li>
+ * </ul>
+ *
+ * <p>A record is the unit of atomicity: when recovering, a record is either applied in full or,
+ * if it was torn by a crash, not at all. See {@link WriteAheadLogReader}.
+ *
+ * <p>A WriteAheadLog can instead be <i>preallocated</i> to a fixed size and recycled for each new
+ * Memtable, so that appends do not change the file's size and DSYNC writes avoid metadata updates.
+ * Such files start with a header of a {@link #PREALLOCATED_FILE_TAG} byte followed by the file's
+ * generation as a big-endian long, which is incremented each time the file is recycled. Records
+ * use a {@link #GENERATION_RECORD_TAG}, followed by the payload size and checksum as above, and the
+ * generation they were written for. The checksum covers the generation and encoded entries. The
+ * logical end of the log is the first record that is incomplete, invalid, or from an earlier
+ * generation.
+ *
+ * <p>Appends are not synchronized and are expected to be performed while holding the Memtable's
+ * write lock.
  */
 final class WriteAheadLog implements AutoCloseable {
 
@@ -29,11 +62,60 @@ final class WriteAheadLog implements AutoCloseable {
    */
   public static final String FILE_EXTENSION = "wlog";
 
-  private final OutputStream logOutputStream;
+  /**
+   * The first byte of every record. It does not collide with any entry format tag.
+   */
+  static final byte RECORD_TAG = 0x10;
+
+  /**
+   * The number of bytes of a record's header preceding its encoded entries.
+   */
+  static final int RECORD_HEADER_BYTES = 1 + Integer.BYTES + Integer.BYTES;
+
+  /**
+   * The first byte of a preallocated WriteAheadLog file.
+   */
+  static final byte PREALLOCATED_FILE_TAG = 0x11;
+
+  /**
+   * The number of bytes of a preallocated WriteAheadLog file's header.
+   */
+  static final int PREALLOCATED_FILE_HEADER_BYTES = 1 + Long.BYTES;
+
+  /**
+   * The first byte of every record in a preallocated WriteAheadLog file.
+   */
+  static final byte GENERATION_RECORD_TAG = 0x12;
 
+  /**
+   * The number of bytes of a generation record's header preceding its encoded entries.
+   */
+  static final int GENERATION_RECORD_HEADER_BYTES = RECORD_HEADER_BYTES + Long.BYTES;
+
+  /**
+   * The initial number of bytes of the buffer reused for encoding appended entries.
+   */
+  static final int INITIAL_ENCODE_BUFFER_BYTES = 4096;
+
+  /**
+   * The number of zero bytes written at a time when preallocating a file.
+   */
+  private static final int PREALLOCATE_CHUNK_BYTES = 64 * 1024;
+
+  private final OutputStream logOutputStream;
+  /**
+   * The generation of the preallocated file written to, or 0 if the file is not preallocated.
+   */
+  private final long generation;
+  private ByteBuffer encodeBuffer = ByteBuffer.allocate(INITIAL_ENCODE_BUFFER_BYTES);
 
   private WriteAheadLog(OutputStream logOutputStream) {
+    this(logOutputStream, 0);
+  }
+
+  private WriteAheadLog(OutputStream logOutputStream, long generation) {
     this.logOutputStream = logOutputStream;
+    this.generation = generation;
   }
 
   /**
@@ -63,11 +145,129 @@ final class WriteAheadLog implements AutoCloseable {
   }
 
   /**
-   * Appends the entry to the {@link WriteAheadLog}.
+   * Creates a new {@link WriteAheadLog} recycling any pre-existing preallocated WriteAheadLog file.
+   *
+   * <p>The file is extended with zeros to at least {@code preallocateBytes} and its generation is
+   * incremented, invalidating all records previously written to it without truncating it.
+   */
+  static WriteAheadLog createRecycled(Path path, long preallocateBytes) throws IOException {
+    long generation =
+        WriteAheadLogReader.create(path)
+            .readPreallocatedLogEnd()
+            .map(logEnd -> logEnd.generation() + 1)
+            .orElse(1L);
+    preallocate(path, preallocateBytes);
+
+    FileChannel channel = openPreallocated(path);
+    ByteBuffer header =
+        ByteBuffer.allocate(PREALLOCATED_FILE_HEADER_BYTES)
+            .put(PREALLOCATED_FILE_TAG)
+            .putLong(generation)
+            .flip();
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+    channel.position(PREALLOCATED_FILE_HEADER_BYTES);
+    return new WriteAheadLog(Channels.newOutputStream(channel), generation);
+  }
+
+  /**
+   * Creates a {@link WriteAheadLog} from a pre-existing preallocated file with new writes appended
+   * after its last valid record.
+   *
+   * <p>A pre-existing file that is not preallocated is appended to as if by
+   * {@link #createFromPreExisting(Path)}, and will be preallocated when next recycled. A new
+   * preallocated file will be created if one does not already exist.
+   */
+  static WriteAheadLog createRecycledFromPreExisting(Path path, long preallocateBytes)
+      throws IOException {
+    Optional<WriteAheadLogReader.PreallocatedLogEnd> logEnd =
+        WriteAheadLogReader.create(path).readPreallocatedLogEnd();
+    if (logEnd.isEmpty()) {
+      if (Files.exists(path) && Files.size(path) > 0) {
+        return createFromPreExisting(path);
+      }
+      return createRecycled(path, preallocateBytes);
+    }
+    preallocate(path, preallocateBytes);
+
+    FileChannel channel = openPreallocated(path);
+    channel.position(logEnd.get().endOffset());
+    return new WriteAheadLog(Channels.newOutputStream(channel), logEnd.get().generation());
+  }
+
+  /**
+   * Extends the file with zeros, creating it if necessary, until it is at least
+   * {@code preallocateBytes} long. The written bytes are synced before returning.
+   */
+  private static void preallocate(Path path, long preallocateBytes) throws IOException {
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+      long position = channel.size();
+      if (position >= preallocateBytes) {
+        return;
+      }
+      ByteBuffer zeros = ByteBuffer.allocate(PREALLOCATE_CHUNK_BYTES);
+      while (position < preallocateBytes) {
+        zeros.clear().limit((int) Math.min(zeros.capacity(), preallocateBytes - position));
+        position += channel.write(zeros, position);
+      }
+      channel.force(true);
+    }
+  }
+
+  private static FileChannel openPreallocated(Path path) throws IOException {
+    return FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+  }
+
+  /**
+   * Appends the entry to the {@link WriteAheadLog} as a single record.
    */
   void append(Entry entry) throws IOException {
-    logOutputStream.write(entry.getBytes());
+    append(ImmutableList.of(entry));
+  }
+
+  /**
+   * Appends all entries to the {@link WriteAheadLog} as a single record so that they are recovered
+   * together or not at all.
+   *
+   * <p>The record is written with a single write, and therefore a single sync.
+   */
+  void append(List<Entry> entries) throws IOException {
+    boolean preallocated = generation > 0;
+    int headerSize = preallocated ? GENERATION_RECORD_HEADER_BYTES : RECORD_HEADER_BYTES;
+    long payloadSize = entries.stream().mapToLong(Entry::getNumBytesSize).sum();
+    int recordSize = Math.toIntExact(headerSize + payloadSize);
+    if (encodeBuffer.capacity() < recordSize) {
+      encodeBuffer = ByteBuffer.allocate(Math.max(recordSize, 2 * encodeBuffer.capacity()));
+    }
+    encodeBuffer.clear();
+    encodeBuffer.position(headerSize);
+    for (Entry entry : entries) {
+      entry.writeTo(encodeBuffer);
+    }
+    if (preallocated) {
+      encodeBuffer.putLong(RECORD_HEADER_BYTES, generation);
+    }
+
+    // A generation record's checksum also covers the generation preceding its entries
+    CRC32C checksum = new CRC32C();
+    checksum.update(
+        encodeBuffer.array(), RECORD_HEADER_BYTES, recordSize - RECORD_HEADER_BYTES);
+    encodeBuffer.put(0, preallocated ? GENERATION_RECORD_TAG : RECORD_TAG);
+    encodeBuffer.putInt(1, (int) payloadSize);
+    encodeBuffer.putInt(1 + Integer.BYTES, (int) checksum.getValue());
+
+    WriteAheadLogAppendEvent appendEvent = new WriteAheadLogAppendEvent();
+    appendEvent.begin();
+    logOutputStream.write(encodeBuffer.array(), 0, encodeBuffer.position());
     logOutputStream.flush();
+    appendEvent.end();
+    if (appendEvent.shouldCommit()) {
+      appendEvent.numEntries = entries.size();
+      appendEvent.recordNumBytes = recordSize;
+      appendEvent.commit();
+    }
   }
 
   /**
@@ -0,0 +1,188 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.flogger.FluentLogger;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the {@link Entry}s persisted by a {@link WriteAheadLog}.
+ *
+ * <p>A trailing record that is incomplete, or whose checksum does not match, is assumed to have
+ * been torn by a crash while being appended and is discarded along with all of its entries. A
+ * mismatched checksum for any other record is treated as corruption.
+ *
+ * <p>Bare entries written by older versions, without a record header, are also supported.
+ *
+ * <p>Preallocated files are read up to their logical end: the first record that is incomplete,
+ * invalid, or written for an earlier generation of the file. Since the bytes following the logical
+ * end are expected to be zeros or stale records, corruption cannot be distinguished from the end of
+ * the log in these files.
+ */
+final class WriteAheadLogReader {
+
+  private static final FluentLogger logger = FluentLogger.forEnclosingClass();
+
+  private final Path filePath;
+
+  private WriteAheadLogReader(Path filePath) {
+    this.filePath = filePath;
+  }
+
+  /**
+   * Creates a {@link WriteAheadLogReader} for the write-ahead-log file located at the provided
+   * {@link Path}.
+   */
+  static WriteAheadLogReader create(Path filePath) {
+    return new WriteAheadLogReader(filePath);
+  }
+
+  /**
+   * Reads all {@link Entry}s from completely written records in the order they were appended.
+   *
+   * <p>An {@link IOException} will be thrown if the file cannot be read or is corrupted.
+   */
+  ImmutableList<Entry> readAllEntries() throws IOException {
+    if (!Files.exists(filePath, LinkOption.NOFOLLOW_LINKS)) {
+      return ImmutableList.of();
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(filePath));
+
+    ImmutableList.Builder<Entry> entries = ImmutableList.builder();
+    if (isPreallocated(buffer)) {
+      readPreallocatedRecords(buffer, entries);
+      return entries.build();
+    }
+
+    int offset = 0;
+    while (offset < buffer.limit()) {
+      if (buffer.get(offset) != WriteAheadLog.RECORD_TAG) {
+        EntryView entryView = wrapEntryView(buffer, offset);
+        entries.add(entryView.toEntry());
+        offset += (int) entryView.getNumBytesSize();
+        continue;
+      }
+
+      int remaining = buffer.limit() - offset;
+      if (remaining < WriteAheadLog.RECORD_HEADER_BYTES) {
+        logTornRecord(offset);
+        break;
+      }
+      int payloadSize = buffer.getInt(offset + 1);
+      int payloadOffset = offset + WriteAheadLog.RECORD_HEADER_BYTES;
+      if (payloadSize < 0 || payloadSize > buffer.limit() - payloadOffset) {
+        logTornRecord(offset);
+        break;
+      }
+      int recordEnd = payloadOffset + payloadSize;
+      CRC32C checksum = new CRC32C();
+      checksum.update(buffer.array(), payloadOffset, payloadSize);
+      if ((int) checksum.getValue() != buffer.getInt(offset + 1 + Integer.BYTES)) {
+        if (recordEnd == buffer.limit()) {
+          logTornRecord(offset);
+          break;
+        }
+        throw new IOException(String.format(
+            "WriteAheadLog record checksum mismatch at offset [%d]", offset));
+      }
+
+      ByteBuffer payload = buffer.slice(payloadOffset, payloadSize);
+      int entryOffset = 0;
+      while (entryOffset < payloadSize) {
+        EntryView entryView = wrapEntryView(payload, entryOffset);
+        entries.add(entryView.toEntry());
+        entryOffset += (int) entryView.getNumBytesSize();
+      }
+      offset = recordEnd;
+    }
+    return entries.build();
+  }
+
+  /**
+   * Reads the generation and logical end offset of a preallocated write-ahead-log file.
+   *
+   * <p>An empty {@link Optional} is returned if the file does not exist or is not preallocated.
+   */
+  Optional<PreallocatedLogEnd> readPreallocatedLogEnd() throws IOException {
+    if (!Files.exists(filePath, LinkOption.NOFOLLOW_LINKS)) {
+      return Optional.empty();
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(filePath));
+    if (!isPreallocated(buffer)) {
+      return Optional.empty();
+    }
+    long generation = buffer.getLong(1);
+    int endOffset = readPreallocatedRecords(buffer, ImmutableList.builder());
+    return Optional.of(new PreallocatedLogEnd(generation, endOffset));
+  }
+
+  private static boolean isPreallocated(ByteBuffer buffer) {
+    return buffer.limit() >= WriteAheadLog.PREALLOCATED_FILE_HEADER_BYTES
+        && buffer.get(0) == WriteAheadLog.PREALLOCATED_FILE_TAG;
+  }
+
+  /**
+   * Reads the entries of all records of the preallocated file's current generation, returning the
+   * offset of the logical end of the log.
+   */
+  private int readPreallocatedRecords(ByteBuffer buffer, ImmutableList.Builder<Entry> entries)
+      throws IOException {
+    long generation = buffer.getLong(1);
+    int offset = WriteAheadLog.PREALLOCATED_FILE_HEADER_BYTES;
+    while (buffer.limit() - offset >= WriteAheadLog.GENERATION_RECORD_HEADER_BYTES
+        && buffer.get(offset) == WriteAheadLog.GENERATION_RECORD_TAG
+        && buffer.getLong(offset + WriteAheadLog.RECORD_HEADER_BYTES) == generation) {
+      int payloadSize = buffer.getInt(offset + 1);
+      int payloadOffset = offset + WriteAheadLog.GENERATION_RECORD_HEADER_BYTES;
+      if (payloadSize < 0 || payloadSize > buffer.limit() - payloadOffset) {
+        logTornRecord(offset);
+        break;
+      }
+      CRC32C checksum = new CRC32C();
+      checksum.update(
+          buffer.array(),
+          offset + WriteAheadLog.RECORD_HEADER_BYTES,
+          Long.BYTES + payloadSize);
+      if ((int) checksum.getValue() != buffer.getInt(offset + 1 + Integer.BYTES)) {
+        logTornRecord(offset);
+        break;
+      }
+
+      ByteBuffer payload = buffer.slice(payloadOffset, payloadSize);
+      int entryOffset = 0;
+      while (entryOffset < payloadSize) {
+        EntryView entryView = wrapEntryView(payload, entryOffset);
+        entries.add(entryView.toEntry());
+        entryOffset += (int) entryView.getNumBytesSize();
+      }
+      offset = payloadOffset + payloadSize;
+    }
+    return offset;
+  }
+
+  private static EntryView wrapEntryView(ByteBuffer buffer, int offset) throws IOException {
+    try {
+      return EntryView.wrap(buffer, offset);
+    } catch (IllegalArgumentException e) {
+      throw new IOException(e.getMessage(), e);
+    }
+  }
+
+  private void logTornRecord(int offset) {
+    logger.atWarning().log(
+        "Discarding incomplete WriteAheadLog record at offset [%d] of [%s]", offset, filePath);
+  }
+
+  /**
+   * The generation of a preallocated write-ahead-log file and the offset following its last valid
+   * record.
+   */
+  record PreallocatedLogEnd(long generation, int endOffset) {}
+}
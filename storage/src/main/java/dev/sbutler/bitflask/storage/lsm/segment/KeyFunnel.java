@@ -0,0 +1,19 @@
+package dev.sbutler.bitflask.storage.lsm.segment;
+
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+import com.google.protobuf.ByteString;
+
+/**
+ * A {@link Funnel} for adding the bytes of a {@link dev.sbutler.bitflask.storage.lsm.entry.Entry}
+ * key to a {@link com.google.common.hash.BloomFilter}.
+ */
+@SuppressWarnings("UnstableApiUsage")
+enum KeyFunnel implements Funnel<ByteString> {
+  INSTANCE;
+
+  @Override
+  public void funnel(ByteString key, PrimitiveSink into) {
+    into.putBytes(key.asReadOnlyByteBuffer());
+  }
+}
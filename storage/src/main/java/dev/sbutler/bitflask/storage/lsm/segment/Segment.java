@@ -3,12 +3,21 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.hash.BloomFilter;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobPointer;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Represents a single set of {@link Entry}s persisted to disk.
@@ -28,37 +37,46 @@ public final class Segment {
   private final Path filePath;
   private final SegmentMetadata metadata;
   private final EntryReader entryReader;
-  private final BloomFilter<String> keyFilter;
+  private final BloomFilter<ByteString> keyFilter;
   private final SegmentIndex segmentIndex;
   private final long numBytesSize;
+  private final BlobStore blobStore;
+  private final ImmutableMap<Long, Long> blobReferencedBytes;
 
   private Segment(
       Path filePath,
       SegmentMetadata metadata,
       EntryReader entryReader,
-      BloomFilter<String> keyFilter,
+      BloomFilter<ByteString> keyFilter,
       SegmentIndex segmentIndex,
-      long size) {
+      long size,
+      BlobStore blobStore,
+      ImmutableMap<Long, Long> blobReferencedBytes) {
     this.filePath = filePath;
     this.metadata = metadata;
     this.entryReader = entryReader;
     this.keyFilter = keyFilter;
     this.segmentIndex = segmentIndex;
     this.numBytesSize = size;
+    this.blobStore = blobStore;
+    this.blobReferencedBytes = blobReferencedBytes;
   }
 
   static Segment create(
       Path filePath,
       SegmentMetadata metadata,
       EntryReader entryReader,
-      BloomFilter<String> keyFilter,
+      BloomFilter<ByteString> keyFilter,
       SegmentIndex segmentIndex,
-      long numBytesSize) {
+      long numBytesSize,
+      BlobStore blobStore,
+      ImmutableMap<Long, Long> blobReferencedBytes) {
     checkArgument(metadata.getSegmentNumber() == segmentIndex.getSegmentNumber(),
         "SegmentMetadata segmentNumber does not match SegmentIndex segmentNumber. [%s], [%s]",
         metadata.getSegmentNumber(), segmentIndex.getSegmentNumber());
 
-    return new Segment(filePath, metadata, entryReader, keyFilter, segmentIndex, numBytesSize);
+    return new Segment(filePath, metadata, entryReader, keyFilter, segmentIndex, numBytesSize,
+        blobStore, blobReferencedBytes);
   }
 
   /**
@@ -66,8 +84,8 @@ public final class Segment {
    *
    * <p>Higher numbers indicate a more recently created Segment.
    */
-  public int getSegmentNumber() {
-    return metadata.segmentNumber().value();
+  public long getSegmentNumber() {
+    return metadata.getSegmentNumber();
   }
 
   /**
@@ -77,7 +95,7 @@ public final class Segment {
    * {@link Entry}s and therefore their age.
    */
   public int getSegmentLevel() {
-    return metadata.segmentLevel().value();
+    return metadata.getSegmentLevel();
   }
 
   /**
@@ -85,14 +103,16 @@ public final class Segment {
    * if it
    * <i>definitely</i> does not.
    */
-  public boolean mightContain(String key) {
+  public boolean mightContain(ByteString key) {
     return keyFilter.mightContain(key) || segmentIndex.mightContain(key);
   }
 
   /**
    * Reads the {@link Entry} contained by this Segment and returns it, if present.
+   *
+   * <p>If the entry's value was separated into a blob file it is read from the {@link BlobStore}.
    */
-  public Optional<Entry> readEntry(String key) throws IOException {
+  public Optional<Entry> readEntry(ByteString key) throws IOException {
     if (!mightContain(key)) {
       return Optional.empty();
     }
@@ -100,11 +120,83 @@ public final class Segment {
     if (keyOffset.isEmpty()) {
       return Optional.empty();
     }
-    return entryReader.findEntryFromOffset(key, keyOffset.get());
+    Optional<EntryView> entryView = entryReader.findEntryViewFromOffset(key, keyOffset.get());
+    if (entryView.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(resolveEntry(entryView.get()));
   }
 
-  public ImmutableList<Entry> readAllEntries() throws IOException {
-    return entryReader.readAllEntriesFromOffset(SegmentMetadata.BYTES);
+  /**
+   * Asynchronously reads the {@link Entry} contained by this Segment, if present.
+   *
+   * <p>The Segment's file is read without blocking the calling thread. If the entry's value was
+   * separated into a blob file it is read from the {@link BlobStore} once the entry is read.
+   *
+   * <p>The returned future completes exceptionally with an {@link IOException} if there is an issue
+   * reading the entry.
+   */
+  public CompletableFuture<Optional<Entry>> readEntryAsync(ByteString key) {
+    if (!mightContain(key)) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    Optional<Long> keyOffset = segmentIndex.getKeyOffset(key);
+    if (keyOffset.isEmpty()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+    return entryReader
+        .findEntryViewFromOffsetAsync(key, keyOffset.get())
+        .thenCompose(entryView -> {
+          if (entryView.isEmpty()) {
+            return CompletableFuture.completedFuture(Optional.empty());
+          }
+          try {
+            return CompletableFuture.completedFuture(Optional.of(resolveEntry(entryView.get())));
+          } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+          }
+        });
+  }
+
+  /**
+   * Reads the {@link Entry}s contained by this Segment for any of the provided keys, mapped by key.
+   *
+   * <p>The Segment's file is read once, sequentially, for all keys that it might contain. Keys
+   * without an entry in this Segment are omitted.
+   */
+  public ImmutableMap<ByteString, Entry> readEntries(Collection<ByteString> keys)
+      throws IOException {
+    Map<ByteString, Long> keyOffsets = new HashMap<>();
+    for (ByteString key : keys) {
+      if (mightContain(key)) {
+        segmentIndex.getKeyOffset(key).ifPresent(offset -> keyOffsets.put(key, offset));
+      }
+    }
+    if (keyOffsets.isEmpty()) {
+      return ImmutableMap.of();
+    }
+
+    ImmutableMap.Builder<ByteString, Entry> entries = ImmutableMap.builder();
+    for (var keyEntryView : entryReader.findEntryViewsAtOffsets(keyOffsets).entrySet()) {
+      entries.put(keyEntryView.getKey(), resolveEntry(keyEntryView.getValue()));
+    }
+    return entries.buildOrThrow();
+  }
+
+  private Entry resolveEntry(EntryView view) throws IOException {
+    if (!view.isValueInBlob()) {
+      return view.toEntry();
+    }
+    ByteString value = blobStore.read(BlobPointer.fromBytes(view.value()));
+    return new Entry(view.creationEpochSeconds(), view.key(), value, view.expiryEpochSeconds());
+  }
+
+  /**
+   * Reads all entries contained by this Segment as {@link EntryView}s without decoding their keys
+   * or values.
+   */
+  public ImmutableList<EntryView> readAllEntries() throws IOException {
+    return entryReader.readAllEntryViewsFromOffset(metadata.getNumBytes());
   }
 
   /**
@@ -114,10 +206,27 @@ public final class Segment {
     return numBytesSize;
   }
 
+  /**
+   * Returns the number of value bytes this Segment references in each blob file, mapped by blob
+   * file number.
+   */
+  public ImmutableMap<Long, Long> getBlobReferencedBytes() {
+    return blobReferencedBytes;
+  }
+
+  /**
+   * Closes the file handles held for asynchronous reads of this Segment.
+   *
+   * <p>This should only be called once the Segment is no longer reachable by readers.
+   */
+  public void close() throws IOException {
+    entryReader.close();
+  }
+
   /**
    * Creates the file name for a Segment with {@code segmentNumber}.
    */
-  static String createFileName(int segmentNumber) {
+  static String createFileName(long segmentNumber) {
     return FILE_PREFIX + segmentNumber + "." + FILE_EXTENSION;
   }
 
@@ -1,43 +1,59 @@
 package dev.sbutler.bitflask.storage.lsm.segment;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import static dev.sbutler.bitflask.storage.lsm.utils.LoaderUtils.checkLoadedBytesLength;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
-import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobFileWriter;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobPointer;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
+import dev.sbutler.bitflask.storage.lsm.entry.BlobReferenceEntry;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import dev.sbutler.bitflask.storage.lsm.entry.WritableEntry;
+import dev.sbutler.bitflask.storage.lsm.utils.DirectIoUtils;
+import dev.sbutler.bitflask.storage.lsm.utils.FsyncUtils;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
-import java.io.BufferedOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /** Handles the creation of a {@link Segment}. */
 @SuppressWarnings("UnstableApiUsage")
 @Singleton
 public final class SegmentFactory {
 
-  private final AtomicInteger nextSegmentNumber = new AtomicInteger(0);
+  /** The number of bytes buffered in memory before being written to a new Segment's file. */
+  static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+  private final AtomicLong nextSegmentNumber = new AtomicLong(0);
 
   private final StorageConfig storageConfig;
   private final SegmentIndexFactory indexFactory;
+  private final BlobStore blobStore;
 
   @Inject
-  SegmentFactory(StorageConfig storageConfig, SegmentIndexFactory indexFactory) {
+  SegmentFactory(
+      StorageConfig storageConfig, SegmentIndexFactory indexFactory, BlobStore blobStore) {
     this.storageConfig = storageConfig;
     this.indexFactory = indexFactory;
+    this.blobStore = blobStore;
   }
 
   /**
@@ -45,106 +61,216 @@ public final class SegmentFactory {
    *
    * <p>The provided {@code keyEntryMap} cannot be empty. The segmentLevel must be non-negative.
    */
-  public Segment create(SortedMap<String, Entry> keyEntryMap, int segmentLevel) throws IOException {
-    long numBytesSize =
-        keyEntryMap.values().stream().map(Entry::getNumBytesSize).mapToLong(Long::longValue).sum();
-    return create(keyEntryMap, segmentLevel, numBytesSize);
+  public Segment create(SortedMap<ByteString, ? extends WritableEntry> keyEntryMap, int segmentLevel)
+      throws IOException {
+    return create(keyEntryMap, segmentLevel, ImmutableSet.of());
   }
 
   /**
    * Creates a new Segment and its associated index file at the specified segment level.
    *
-   * <p>The provided {@code keyEntryMap} cannot be empty. The segmentLevel and numBytesSize must be
-   * non-negative.
+   * <p>The Segment file, its index file, and the store directory are forced to the storage device
+   * before the Segment is returned.
+   *
+   * <p>Values at least {@link StorageConfig#getBlobValueThresholdBytes()} long are separated into
+   * a new {@link dev.sbutler.bitflask.storage.lsm.blob.BlobFile} and the Segment stores a pointer
+   * to them. Values already separated into a blob file in {@code blobFilesToRelocate} are copied
+   * to the new blob file so that the old file can eventually be deleted.
+   *
+   * <p>The provided {@code keyEntryMap} cannot be empty. The segmentLevel must be non-negative.
    */
-  public Segment create(SortedMap<String, Entry> keyEntryMap, int segmentLevel, long numBytesSize)
+  public Segment create(
+      SortedMap<ByteString, ? extends WritableEntry> keyEntryMap,
+      int segmentLevel,
+      ImmutableSet<Long> blobFilesToRelocate)
       throws IOException {
     checkArgument(!keyEntryMap.isEmpty(), "keyEntryMap is empty.");
     checkArgument(segmentLevel >= 0, "segmentLevel must be non-negative");
-    checkArgument(numBytesSize >= 0, "numBytesSize must be non-negative");
 
-    UnsignedShort segmentNumber = UnsignedShort.valueOf(nextSegmentNumber.getAndIncrement());
+    long segmentNumber = nextSegmentNumber.getAndIncrement();
 
-    SegmentMetadata segmentMetadata =
-        new SegmentMetadata(segmentNumber, UnsignedShort.valueOf(segmentLevel));
+    SegmentMetadata segmentMetadata = new SegmentMetadata(segmentNumber, segmentLevel);
     Path segmentPath =
-        Path.of(
-            storageConfig.getStoreDirectoryPath(), Segment.createFileName(segmentNumber.value()));
-    BloomFilter<String> keyFilter =
-        BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), keyEntryMap.size());
+        Path.of(storageConfig.getStoreDirectoryPath(), Segment.createFileName(segmentNumber));
+    BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, keyEntryMap.size());
+
+    SegmentWriteResult writeResult =
+        writeSegment(keyEntryMap, segmentMetadata, keyFilter, segmentPath, blobFilesToRelocate);
 
-    SortedMap<String, Long> keyOffsetMap =
-        writeSegment(keyEntryMap, segmentMetadata, keyFilter, segmentPath);
+    SegmentIndex segmentIndex = indexFactory.create(writeResult.keyOffsetMap(), segmentNumber);
 
-    SegmentIndex segmentIndex = indexFactory.create(keyOffsetMap, segmentNumber);
+    // The Segment must be durable before the WriteAheadLog holding its entries is recycled, or the
+    // Segments it was compacted from are deleted
+    FsyncUtils.forceFile(segmentPath);
+    FsyncUtils.forceFile(segmentIndex.getFilePath());
+    FsyncUtils.forceDirectory(segmentPath.getParent());
 
     return Segment.create(
         segmentPath,
         segmentMetadata,
-        EntryReader.create(segmentPath),
+        createEntryReader(segmentPath),
         keyFilter,
         segmentIndex,
-        numBytesSize);
+        writeResult.numBytesSize(),
+        blobStore,
+        writeResult.blobReferencedBytes());
   }
 
   /**
-   * Writes a new {@link Segment} to disk.
+   * Writes a new {@link Segment} to disk, separating values into a new blob file as necessary.
    *
-   * @return a key offset map for entries in the new Segment.
+   * @return the key offset map, size, and blob references of the entries in the new Segment.
    */
-  SortedMap<String, Long> writeSegment(
-      SortedMap<String, Entry> keyEntryMap,
+  SegmentWriteResult writeSegment(
+      SortedMap<ByteString, ? extends WritableEntry> keyEntryMap,
       SegmentMetadata segmentMetadata,
-      BloomFilter<String> keyFilter,
-      Path segmentPath)
+      BloomFilter<ByteString> keyFilter,
+      Path segmentPath,
+      ImmutableSet<Long> blobFilesToRelocate)
       throws IOException {
 
-    ImmutableSortedMap.Builder<String, Long> keyOffsetMap = ImmutableSortedMap.naturalOrder();
+    ImmutableSortedMap.Builder<ByteString, Long> keyOffsetMap =
+        ImmutableSortedMap.orderedBy(Entry.KEY_COMPARATOR);
+    Map<Long, Long> blobReferencedBytes = new HashMap<>();
 
-    try (BufferedOutputStream segmentOutputStream =
-        new BufferedOutputStream(
-            Files.newOutputStream(segmentPath, StandardOpenOption.CREATE_NEW))) {
+    long entryOffset;
+    try (OutputStream segmentOutputStream = newSegmentOutputStream(segmentPath);
+        BlobFileWriter blobFileWriter = blobStore.createWriter()) {
+      ByteBuffer writeBuffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
 
       byte[] segmentMetadataBytes = segmentMetadata.getBytes();
-      segmentOutputStream.write(segmentMetadataBytes);
+      writeBuffer.put(segmentMetadataBytes);
 
-      long entryOffset = segmentMetadataBytes.length;
-      for (Entry entry : keyEntryMap.values()) {
+      entryOffset = segmentMetadataBytes.length;
+      for (WritableEntry keyEntry : keyEntryMap.values()) {
+        WritableEntry entry = separateValue(keyEntry, blobFileWriter, blobFilesToRelocate);
         keyOffsetMap.put(entry.key(), entryOffset);
         keyFilter.put(entry.key());
+        addBlobReferencedBytes(blobReferencedBytes, entry);
 
-        byte[] entryBytes = entry.getBytes();
-        segmentOutputStream.write(entryBytes);
+        int entrySize = Math.toIntExact(entry.getNumBytesSize());
+        if (writeBuffer.remaining() < entrySize) {
+          drainWriteBuffer(writeBuffer, segmentOutputStream);
+          if (writeBuffer.capacity() < entrySize) {
+            writeBuffer = ByteBuffer.allocate(entrySize);
+          }
+        }
+        entry.writeTo(writeBuffer);
 
-        entryOffset += entryBytes.length;
+        entryOffset += entrySize;
       }
+      drainWriteBuffer(writeBuffer, segmentOutputStream);
+    }
+
+    return new SegmentWriteResult(
+        keyOffsetMap.build(),
+        entryOffset - segmentMetadata.getNumBytes(),
+        ImmutableMap.copyOf(blobReferencedBytes));
+  }
+
+  /**
+   * Returns the entry to be written in place of the provided one, appending its value to the blob
+   * file if it should be separated or relocated.
+   */
+  private WritableEntry separateValue(
+      WritableEntry entry, BlobFileWriter blobFileWriter, ImmutableSet<Long> blobFilesToRelocate)
+      throws IOException {
+    // Merge operands are kept inline so they can be folded without reading a blob file
+    return switch (entry) {
+      case Entry e when !e.isMergeOperand() && shouldSeparateValue(e.value().size()) ->
+          appendValue(e, e.value(), blobFileWriter);
+      case EntryView v when v.isValueInBlob() -> {
+        BlobPointer pointer = BlobPointer.fromBytes(v.value());
+        yield blobFilesToRelocate.contains(pointer.blobFileNumber())
+            ? appendValue(v, blobStore.read(pointer), blobFileWriter)
+            : v;
+      }
+      case EntryView v when !v.isMergeOperand() && shouldSeparateValue(v.getValueLength()) ->
+          appendValue(v, v.value(), blobFileWriter);
+      case Entry e -> e;
+      case EntryView v -> v;
+      case BlobReferenceEntry b -> b;
+    };
+  }
+
+  private boolean shouldSeparateValue(int valueLength) {
+    int thresholdBytes = storageConfig.getBlobValueThresholdBytes();
+    return thresholdBytes > 0 && valueLength >= thresholdBytes;
+  }
+
+  private static BlobReferenceEntry appendValue(
+      WritableEntry entry, ByteString value, BlobFileWriter blobFileWriter) throws IOException {
+    BlobPointer pointer = blobFileWriter.append(value);
+    return new BlobReferenceEntry(
+        entry.creationEpochSeconds(), entry.key(), pointer.getBytes(), entry.expiryEpochSeconds());
+  }
+
+  /** Adds the length of the entry's value to its blob file's total, if stored in a blob file. */
+  private static void addBlobReferencedBytes(
+      Map<Long, Long> blobReferencedBytes, WritableEntry entry) {
+    Optional<BlobPointer> pointer =
+        switch (entry) {
+          case BlobReferenceEntry b -> Optional.of(BlobPointer.fromBytes(b.valueReference()));
+          case EntryView v when v.isValueInBlob() -> Optional.of(BlobPointer.fromBytes(v.value()));
+          case Entry e -> Optional.empty();
+          case EntryView v -> Optional.empty();
+        };
+    pointer.ifPresent(
+        p -> blobReferencedBytes.merge(p.blobFileNumber(), (long) p.length(), Long::sum));
+  }
+
+  /**
+   * Creates the output stream for a new Segment file, bypassing the page cache if direct I/O is
+   * enabled so that writing large Segments does not evict blocks needed by readers.
+   */
+  private OutputStream newSegmentOutputStream(Path segmentPath) throws IOException {
+    if (storageConfig.getSegmentDirectIo()) {
+      return DirectIoUtils.newOutputStream(segmentPath);
     }
+    return Files.newOutputStream(segmentPath, StandardOpenOption.CREATE_NEW);
+  }
 
-    return keyOffsetMap.build();
+  private EntryReader createEntryReader(Path segmentPath) {
+    if (storageConfig.getSegmentDirectIo()) {
+      return EntryReader.createWithDirectIo(segmentPath);
+    }
+    return EntryReader.create(segmentPath);
   }
 
+  /** Writes the buffered bytes to the output stream and clears the buffer for reuse. */
+  private static void drainWriteBuffer(ByteBuffer writeBuffer, OutputStream outputStream)
+      throws IOException {
+    outputStream.write(writeBuffer.array(), 0, writeBuffer.position());
+    writeBuffer.clear();
+  }
+
+  /** The result of writing a new {@link Segment} to disk. */
+  record SegmentWriteResult(
+      SortedMap<ByteString, Long> keyOffsetMap,
+      long numBytesSize,
+      ImmutableMap<Long, Long> blobReferencedBytes) {}
+
   /**
    * Loads a {@link Segment} from the path and finds its corresponding {@link SegmentIndex} from the
    * segmentNumberToIndexMap.
    */
-  Segment loadFromPath(Path path, ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap)
+  Segment loadFromPath(Path path, ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap)
       throws IOException {
 
     SegmentMetadata metadata;
     try (var is = Files.newInputStream(path)) {
-      byte[] metadataBytes = is.readNBytes(SegmentMetadata.BYTES);
-      checkLoadedBytesLength(metadataBytes, SegmentMetadata.BYTES, SegmentMetadata.class);
-      metadata = SegmentMetadata.fromBytes(metadataBytes);
+      metadata = SegmentMetadata.readFrom(is);
     }
 
-    EntryReader entryReader = EntryReader.create(path);
-    ImmutableList<Entry> entries = entryReader.readAllEntriesFromOffset(SegmentMetadata.BYTES);
+    EntryReader entryReader = createEntryReader(path);
+    ImmutableList<EntryView> entries =
+        entryReader.readAllEntryViewsFromOffset(metadata.getNumBytes());
 
-    BloomFilter<String> keyFilter =
-        BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), entries.size());
-    entries.stream().map(Entry::key).forEach(keyFilter::put);
-    long numBytesSize =
-        entries.stream().map(Entry::getNumBytesSize).mapToLong(Long::longValue).sum();
+    BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, entries.size());
+    entries.stream().map(EntryView::key).forEach(keyFilter::put);
+    long numBytesSize = entries.stream().mapToLong(EntryView::getNumBytesSize).sum();
+    Map<Long, Long> blobReferencedBytes = new HashMap<>();
+    entries.forEach(entry -> addBlobReferencedBytes(blobReferencedBytes, entry));
 
     SegmentIndex index = segmentNumberToIndexMap.get(metadata.getSegmentNumber());
     if (index == null) {
@@ -156,6 +282,7 @@ public final class SegmentFactory {
 
     nextSegmentNumber.getAndUpdate(current -> Math.max(1 + metadata.getSegmentNumber(), current));
 
-    return Segment.create(path, metadata, entryReader, keyFilter, index, numBytesSize);
+    return Segment.create(path, metadata, entryReader, keyFilter, index, numBytesSize, blobStore,
+        ImmutableMap.copyOf(blobReferencedBytes));
   }
 }
@@ -1,5 +1,6 @@
 package dev.sbutler.bitflask.storage.lsm.segment;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -22,23 +23,23 @@ interface SegmentIndex {
    * Returns true if the index <i>might</i> contain the provided key or false if it
    * <i>definitely</i> does not.
    */
-  boolean mightContain(String key);
+  boolean mightContain(ByteString key);
 
   /**
    * Returns the file offset to start searching for a {@link Entry} in a {@link Segment}, if
    * present.
    */
-  Optional<Long> getKeyOffset(String key);
+  Optional<Long> getKeyOffset(ByteString key);
 
   /**
    * The number of the {@link Segment} to which this index corresponds.
    */
-  int getSegmentNumber();
+  long getSegmentNumber();
 
   /**
    * Creates the file name for a SegmentIndex with {@code segmentNumber}.
    */
-  static String createFileName(int segmentNumber) {
+  static String createFileName(long segmentNumber) {
     return FILE_PREFIX + segmentNumber + "." + FILE_EXTENSION;
   }
 
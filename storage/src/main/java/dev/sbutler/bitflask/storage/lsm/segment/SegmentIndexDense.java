@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.storage.lsm.segment;
 
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import java.nio.file.Path;
 import java.util.Optional;
@@ -15,27 +16,27 @@ final class SegmentIndexDense implements SegmentIndex {
 
   private final Path filePath;
   private final SegmentIndexMetadata metadata;
-  private final ImmutableSortedMap<String, Long> keyOffsetMap;
+  private final ImmutableSortedMap<ByteString, Long> keyOffsetMap;
 
   SegmentIndexDense(
       Path filePath,
       SegmentIndexMetadata metadata,
-      ImmutableSortedMap<String, Long> keyOffsetMap) {
+      ImmutableSortedMap<ByteString, Long> keyOffsetMap) {
     this.filePath = filePath;
     this.metadata = metadata;
     this.keyOffsetMap = keyOffsetMap;
   }
 
-  public boolean mightContain(String key) {
+  public boolean mightContain(ByteString key) {
     return keyOffsetMap.containsKey(key);
   }
 
-  public Optional<Long> getKeyOffset(String key) {
+  public Optional<Long> getKeyOffset(ByteString key) {
     return Optional.ofNullable(keyOffsetMap.get(key));
   }
 
-  public int getSegmentNumber() {
-    return metadata.segmentNumber().value();
+  public long getSegmentNumber() {
+    return metadata.getSegmentNumber();
   }
 
   public Path getFilePath() {
@@ -5,9 +5,9 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 
 /**
@@ -18,7 +18,7 @@ import java.util.Arrays;
  * @param offset the offset of the associated Segment {@link Entry} in the Segment's file. Cannot be
  *               negative.
  */
-record SegmentIndexEntry(String key, long offset) {
+record SegmentIndexEntry(ByteString key, long offset) {
 
   /**
    * The minimum number of bits used to represent a SegmentIndexEntry.
@@ -32,9 +32,9 @@ record SegmentIndexEntry(String key, long offset) {
 
   SegmentIndexEntry {
     checkArgument(!key.isEmpty(), "Key must not be empty.");
-    checkArgument(key.length() <= Entry.KEY_MAX_LENGTH,
+    checkArgument(key.size() <= Entry.KEY_MAX_LENGTH,
         "Key length greater than allowed. Provided [%s], max allowed [%s]",
-        key.length(),
+        key.size(),
         Entry.KEY_MAX_LENGTH);
     checkArgument(offset >= 0L, "Offset negative. Provided [%s]", offset);
   }
@@ -53,21 +53,20 @@ record SegmentIndexEntry(String key, long offset) {
 
     PartialEntry partialEntry = PartialEntry.fromBytes(bytes);
 
-    byte[] keyBytes = Arrays.copyOfRange(
+    ByteString key = ByteString.copyFrom(
         bytes,
         PartialEntry.BYTES,
-        PartialEntry.BYTES + partialEntry.keyLength.value());
+        partialEntry.keyLength.value());
 
-    return new SegmentIndexEntry(new String(keyBytes), partialEntry.offset());
+    return new SegmentIndexEntry(key, partialEntry.offset());
   }
 
   byte[] getBytes() {
     PartialEntry partialEntry = new PartialEntry(
-        new UnsignedShort(key.length()),
+        new UnsignedShort(key.size()),
         offset);
-    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
 
-    return Bytes.concat(partialEntry.getBytes(), keyBytes);
+    return Bytes.concat(partialEntry.getBytes(), key.toByteArray());
   }
 
   record PartialEntry(UnsignedShort keyLength, long offset) {
@@ -3,8 +3,9 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static dev.sbutler.bitflask.storage.lsm.utils.LoaderUtils.checkLoadedBytesLength;
 
 import com.google.common.collect.ImmutableSortedMap;
-import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentIndexEntry.PartialEntry;
 import jakarta.inject.Inject;
 import java.io.BufferedInputStream;
@@ -28,22 +29,23 @@ final class SegmentIndexFactory {
   }
 
   /** Creates a new {@link SegmentIndex} and writes it to disk. */
-  SegmentIndex create(SortedMap<String, Long> keyOffsetMap, UnsignedShort segmentNumber)
+  SegmentIndex create(SortedMap<ByteString, Long> keyOffsetMap, long segmentNumber)
       throws IOException {
     SegmentIndexMetadata indexMetadata = new SegmentIndexMetadata(segmentNumber);
-    ImmutableSortedMap.Builder<String, Long> indexKeyOffsetMap = ImmutableSortedMap.naturalOrder();
+    ImmutableSortedMap.Builder<ByteString, Long> indexKeyOffsetMap =
+        ImmutableSortedMap.orderedBy(Entry.KEY_COMPARATOR);
 
     Path indexPath =
         Path.of(
             storageConfig.getStoreDirectoryPath(),
-            SegmentIndex.createFileName(segmentNumber.value()));
+            SegmentIndex.createFileName(segmentNumber));
 
     try (BufferedOutputStream indexOutputStream =
         new BufferedOutputStream(Files.newOutputStream(indexPath, StandardOpenOption.CREATE_NEW))) {
 
       indexOutputStream.write(indexMetadata.getBytes());
 
-      for (Map.Entry<String, Long> entry : keyOffsetMap.entrySet()) {
+      for (Map.Entry<ByteString, Long> entry : keyOffsetMap.entrySet()) {
         SegmentIndexEntry indexEntry = new SegmentIndexEntry(entry.getKey(), entry.getValue());
         indexOutputStream.write(indexEntry.getBytes());
         indexKeyOffsetMap.put(indexEntry.key(), indexEntry.offset());
@@ -56,12 +58,10 @@ final class SegmentIndexFactory {
   /** Loads a {@link SegmentIndex} from disk at the provided path. */
   SegmentIndex loadFromPath(Path path) throws IOException {
     try (BufferedInputStream is = new BufferedInputStream(Files.newInputStream(path))) {
-      byte[] metadataBytes = is.readNBytes(SegmentIndexMetadata.BYTES);
-      checkLoadedBytesLength(metadataBytes, SegmentIndexMetadata.BYTES, SegmentIndexMetadata.class);
-      SegmentIndexMetadata metadata = SegmentIndexMetadata.fromBytes(metadataBytes);
+      SegmentIndexMetadata metadata = SegmentIndexMetadata.readFrom(is);
 
-      ImmutableSortedMap.Builder<String, Long> indexKeyOffsetMap =
-          ImmutableSortedMap.naturalOrder();
+      ImmutableSortedMap.Builder<ByteString, Long> indexKeyOffsetMap =
+          ImmutableSortedMap.orderedBy(Entry.KEY_COMPARATOR);
 
       Optional<SegmentIndexEntry> nextEntry;
       while ((nextEntry = readNextSegmentIndexEntry(is)).isPresent()) {
@@ -83,7 +83,7 @@ final class SegmentIndexFactory {
 
     byte[] keyBytes = is.readNBytes(partialEntry.keyLength().value());
     checkLoadedBytesLength(keyBytes, partialEntry.keyLength().value(), SegmentIndex.class);
-    String key = new String(keyBytes);
+    ByteString key = ByteString.copyFrom(keyBytes);
 
     return Optional.of(new SegmentIndexEntry(key, partialEntry.offset()));
   }
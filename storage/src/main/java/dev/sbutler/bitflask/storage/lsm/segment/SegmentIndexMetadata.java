@@ -1,52 +1,150 @@
 package dev.sbutler.bitflask.storage.lsm.segment;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static dev.sbutler.bitflask.storage.lsm.utils.LoaderUtils.checkLoadedBytesLength;
 
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 /**
- * The metadata for a single {@link SegmentIndex} instance.
+ * The metadata for a single {@link SegmentIndex} instance, stored at the start of its file.
  *
+ * <p>Two layouts are supported:
+ *
+ * <ul>
+ *   <li>Format version {@link #LEGACY_FORMAT_VERSION}: the segmentNumber as a 16-bit unsigned
+ *   short. It is only decoded.</li>
+ *   <li>Format version {@link #CURRENT_FORMAT_VERSION}: the 4 byte {@link #MAGIC}, the format
+ *   version as a 16-bit unsigned short, and the segmentNumber as a 64-bit long.</li>
+ * </ul>
+ *
+ * <p>A legacy index is never mistaken for a versioned one: even if its segmentNumber and first key
+ * length matched the magic, the bytes read as the format version would be the two most
+ * significant bytes of its first entry's offset, which are always 0.
+ *
+ * @param formatVersion the version of the encoding of the SegmentIndex's file
  * @param segmentNumber the number of the {@link Segment} that the SegmentIndex will correspond
  *                      with.
  */
-record SegmentIndexMetadata(UnsignedShort segmentNumber) {
+record SegmentIndexMetadata(int formatVersion, long segmentNumber) {
+
+  /**
+   * The format version of SegmentIndex files written before the header was versioned.
+   */
+  static final int LEGACY_FORMAT_VERSION = 0;
+  /**
+   * The format version new SegmentIndex files are written with.
+   */
+  static final int CURRENT_FORMAT_VERSION = 1;
+  /**
+   * The bytes "BFIX" beginning every versioned SegmentIndex file.
+   */
+  static final int MAGIC = 0x42464958;
+
+  /**
+   * The number of bytes of a legacy SegmentIndexMetadata.
+   */
+  static final int LEGACY_BYTES = UnsignedShort.BYTES;
+  /**
+   * The number of bytes of a SegmentIndexMetadata written with the current format version.
+   */
+  static final int BYTES = Integer.BYTES + UnsignedShort.BYTES + Long.BYTES;
+
+  SegmentIndexMetadata {
+    checkArgument(formatVersion >= LEGACY_FORMAT_VERSION
+            && formatVersion <= CURRENT_FORMAT_VERSION,
+        "Unsupported SegmentIndex format version [%s]. Supported versions are [%s, %s]",
+        formatVersion, LEGACY_FORMAT_VERSION, CURRENT_FORMAT_VERSION);
+    checkArgument(segmentNumber >= 0,
+        "segmentNumber must be non-negative. Provided [%s]", segmentNumber);
+    if (formatVersion == LEGACY_FORMAT_VERSION) {
+      checkArgument(segmentNumber <= UnsignedShort.MAX_VALUE,
+          "A legacy segmentNumber must be at most [%s]. Provided [%s]",
+          UnsignedShort.MAX_VALUE, segmentNumber);
+    }
+  }
 
   /**
-   * The number of bits used to represent a SegmentMetadata.
+   * Creates metadata with the current format version.
    */
-  static final int SIZE = UnsignedShort.SIZE;
+  SegmentIndexMetadata(long segmentNumber) {
+    this(CURRENT_FORMAT_VERSION, segmentNumber);
+  }
+
   /**
-   * The number of bytes to represent a SegmentMetadata.
+   * Reads the SegmentIndexMetadata from the start of a SegmentIndex file, detecting its format
+   * version.
+   *
+   * <p>The stream must support {@link InputStream#mark(int)}. A
+   * {@link dev.sbutler.bitflask.storage.exceptions.StorageLoadException} will be thrown if the
+   * stream ends before the complete metadata is read.
    */
-  static final int BYTES = SIZE / Byte.SIZE;
+  static SegmentIndexMetadata readFrom(InputStream is) throws IOException {
+    checkArgument(is.markSupported(), "The InputStream must support mark");
+    is.mark(BYTES);
+    byte[] bytes = is.readNBytes(BYTES);
+    if (bytes.length == BYTES && isVersioned(bytes)) {
+      return fromBytes(bytes);
+    }
+    is.reset();
+    byte[] legacyBytes = is.readNBytes(LEGACY_BYTES);
+    checkLoadedBytesLength(legacyBytes, LEGACY_BYTES, SegmentIndexMetadata.class);
+    return fromBytes(legacyBytes);
+  }
+
+  private static boolean isVersioned(byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    return buffer.getInt() == MAGIC && buffer.getShort() != LEGACY_FORMAT_VERSION;
+  }
 
   /**
    * Creates a new SegmentIndexMetadata instance from the provided byte array.
    *
-   * <p>The 0th and 1st indices will be interpreted as a 16-bit unsigned short representing the
-   * segmentNumber.
+   * <p>An array of {@link #LEGACY_BYTES} is decoded as a legacy header: the 0th and 1st indices
+   * will be interpreted as a 16-bit unsigned short representing the segmentNumber. An array of
+   * {@link #BYTES} is decoded as a versioned header.
    *
-   * <p>An {@link IllegalArgumentException} will be thrown if the provided byte array's length if
-   * not 2.
+   * <p>An {@link IllegalArgumentException} will be thrown if the provided byte array's length is
+   * neither, if a versioned header does not begin with the {@link #MAGIC}, or if its format
+   * version is not supported.
    */
   static SegmentIndexMetadata fromBytes(byte[] bytes) {
-    checkArgument(bytes.length == BYTES,
-        "Byte array length invalid. Provided [%s], expected [%s]",
-        bytes.length, BYTES);
+    checkArgument(bytes.length == LEGACY_BYTES || bytes.length == BYTES,
+        "Byte array length invalid. Provided [%s], expected [%s] or [%s]",
+        bytes.length, LEGACY_BYTES, BYTES);
+
+    if (bytes.length == LEGACY_BYTES) {
+      UnsignedShort segmentNumber = UnsignedShort.fromBytes(bytes);
+      return new SegmentIndexMetadata(LEGACY_FORMAT_VERSION, segmentNumber.value());
+    }
 
-    UnsignedShort segmentNumber = UnsignedShort.fromBytes(bytes);
-    return new SegmentIndexMetadata(segmentNumber);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int magic = buffer.getInt();
+    checkArgument(magic == MAGIC,
+        "SegmentIndex magic invalid. Provided [%s], expected [%s]",
+        Integer.toHexString(magic), Integer.toHexString(MAGIC));
+    int formatVersion = Short.toUnsignedInt(buffer.getShort());
+    long segmentNumber = buffer.getLong();
+    return new SegmentIndexMetadata(formatVersion, segmentNumber);
   }
 
   /**
-   * Converts the metadata into a byte array with the segmentNumber in the 2 indices of the array.
+   * Converts the metadata into a byte array using its format version's layout.
    */
   byte[] getBytes() {
-    return segmentNumber.getBytes();
+    if (formatVersion == LEGACY_FORMAT_VERSION) {
+      return UnsignedShort.valueOf((int) segmentNumber).getBytes();
+    }
+    return ByteBuffer.allocate(BYTES)
+        .putInt(MAGIC)
+        .putShort((short) formatVersion)
+        .putLong(segmentNumber)
+        .array();
   }
 
-  int getSegmentNumber() {
-    return segmentNumber.value();
+  long getSegmentNumber() {
+    return segmentNumber;
   }
 }
@@ -3,15 +3,34 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.MultimapBuilder;
 import com.google.common.flogger.FluentLogger;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.exceptions.StorageCompactionException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobPointer;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryUtils;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
+import dev.sbutler.bitflask.storage.lsm.entry.WritableEntry;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment.SegmentRelatedPaths;
+import dev.sbutler.bitflask.storage.lsm.stats.SegmentLevelCompactionEvent;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import jakarta.inject.Inject;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.StructuredTaskScope;
 import java.util.concurrent.ThreadFactory;
 
@@ -20,13 +39,24 @@ public final class SegmentLevelCompactor {
 
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
+  private static final Comparator<Segment> NEWEST_SEGMENT_FIRST =
+      Comparator.comparingLong(Segment::getSegmentNumber).reversed();
+
   private final ThreadFactory threadFactory;
   private final SegmentFactory segmentFactory;
+  private final BlobStore blobStore;
+  private final StorageStats stats;
 
   @Inject
-  SegmentLevelCompactor(ThreadFactory threadFactory, SegmentFactory segmentFactory) {
+  SegmentLevelCompactor(
+      ThreadFactory threadFactory,
+      SegmentFactory segmentFactory,
+      BlobStore blobStore,
+      StorageStats stats) {
     this.threadFactory = threadFactory;
     this.segmentFactory = segmentFactory;
+    this.blobStore = blobStore;
+    this.stats = stats;
   }
 
   /**
@@ -35,33 +65,230 @@ public final class SegmentLevelCompactor {
    */
   public SegmentLevelMultiMap compactSegmentLevel(
       SegmentLevelMultiMap segmentLevelMultiMap, int segmentLevel) {
-    // TODO: evaluate performance
+    SegmentLevelCompactionEvent compactionEvent = new SegmentLevelCompactionEvent();
+    compactionEvent.begin();
     ImmutableList<Segment> segmentsInLevel = segmentLevelMultiMap.getSegmentsInLevel(segmentLevel);
-    ImmutableList<Entry> entriesInLevel = getAllEntriesInLevel(segmentsInLevel);
-    ImmutableSortedMap<String, Entry> keyEntryMap =
-        EntryUtils.buildImmutableKeyEntryMap(entriesInLevel);
+    ImmutableList<Segment> deeperSegments = getDeeperSegments(segmentLevelMultiMap, segmentLevel);
+    // Entries are merged as views so values are copied into the new segment without being decoded
+    ImmutableList<EntryView> entriesInLevel = getAllEntriesInLevel(segmentsInLevel);
+    ImmutableSortedMap<ByteString, WritableEntry> keyEntryMap =
+        dropExpiredEntries(
+            foldMergeOperands(
+                EntryUtils.buildImmutableKeyEntryMap(entriesInLevel),
+                entriesInLevel,
+                deeperSegments),
+            deeperSegments);
+
+    if (keyEntryMap.isEmpty()) {
+      // Every entry expired, so there is nothing to write to a new segment
+      deleteCompactedSegments(segmentsInLevel);
+      stats.recordCompaction(
+          segmentLevel, segmentLevelMultiMap.getNumBytesSizeOfSegmentLevel(segmentLevel), 0);
+      commitCompactionEvent(
+          compactionEvent,
+          segmentLevelMultiMap,
+          segmentLevel,
+          Optional.empty(),
+          entriesInLevel.size());
+      logger.atInfo().log(
+          "Compacted segment level [%d] removing all [%d] Entries as expired",
+          segmentLevel, entriesInLevel.size());
+      return segmentLevelMultiMap.toBuilder().clearSegmentLevel(segmentLevel).build();
+    }
+
+    // Live values in sparsely referenced blob files are relocated so those files can be deleted
+    ImmutableSet<Long> blobFilesToRelocate =
+        blobStore.getBlobFileNumbersBelowLiveRatio(segmentLevelMultiMap.getBlobReferencedBytes());
 
     Segment newSegment;
     try {
-      newSegment = segmentFactory.create(keyEntryMap, segmentLevel + 1);
+      newSegment = segmentFactory.create(keyEntryMap, segmentLevel + 1, blobFilesToRelocate);
     } catch (IOException e) {
       throw new StorageCompactionException("Failed creating new segment", e);
     }
 
     deleteCompactedSegments(segmentsInLevel);
+    stats.recordCompaction(
+        segmentLevel,
+        segmentLevelMultiMap.getNumBytesSizeOfSegmentLevel(segmentLevel),
+        newSegment.getNumBytesSize());
+    commitCompactionEvent(
+        compactionEvent,
+        segmentLevelMultiMap,
+        segmentLevel,
+        Optional.of(newSegment),
+        entriesInLevel.size() - keyEntryMap.size());
 
     logger.atInfo().log(
-        "Compacted segment level [%d] into Segment [%d] removing [%d] duplicate Entries",
+        "Compacted segment level [%d] into Segment [%d] removing [%d] duplicate or expired"
+            + " Entries",
         segmentLevel, newSegment.getSegmentNumber(), entriesInLevel.size() - keyEntryMap.size());
 
     return segmentLevelMultiMap.toBuilder().clearSegmentLevel(segmentLevel).add(newSegment).build();
   }
 
-  private ImmutableList<Entry> getAllEntriesInLevel(ImmutableList<Segment> segmentsInLevel) {
+  /**
+   * Ends the event and, if it is enabled and passed its threshold, commits it describing the
+   * compaction of the level into the new Segment, or into nothing if every entry expired.
+   */
+  private static void commitCompactionEvent(
+      SegmentLevelCompactionEvent compactionEvent,
+      SegmentLevelMultiMap segmentLevelMultiMap,
+      int segmentLevel,
+      Optional<Segment> newSegment,
+      int numEntriesDropped) {
+    compactionEvent.end();
+    if (!compactionEvent.shouldCommit()) {
+      return;
+    }
+    compactionEvent.segmentLevel = segmentLevel;
+    compactionEvent.numInputSegments =
+        segmentLevelMultiMap.getSegmentsInLevel(segmentLevel).size();
+    compactionEvent.inputNumBytes =
+        segmentLevelMultiMap.getNumBytesSizeOfSegmentLevel(segmentLevel);
+    compactionEvent.numOutputSegments = newSegment.isPresent() ? 1 : 0;
+    compactionEvent.outputNumBytes = newSegment.map(Segment::getNumBytesSize).orElse(0L);
+    compactionEvent.numEntriesDropped = numEntriesDropped;
+    compactionEvent.commit();
+  }
+
+  /**
+   * Removes expired entries that do not shadow an older entry for their key in a deeper segment
+   * level.
+   *
+   * <p>An expired entry is dropped outright rather than replaced with a tombstone. One that might
+   * shadow an older entry is kept, since it is read as absent, until it is compacted into the
+   * deepest level holding its key.
+   */
+  private static ImmutableSortedMap<ByteString, WritableEntry> dropExpiredEntries(
+      ImmutableSortedMap<ByteString, WritableEntry> keyEntryMap,
+      ImmutableList<Segment> deeperSegments) {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    return ImmutableSortedMap.copyOfSorted(
+        Maps.filterValues(
+            keyEntryMap,
+            entry ->
+                !entry.isExpired(nowEpochSeconds)
+                    || deeperSegments.stream().anyMatch(s -> s.mightContain(entry.key()))));
+  }
+
+  /**
+   * Folds the merge operands of each key whose newest entry in the level is one.
+   *
+   * <p>Operands are folded onto the newest value beneath them in the level. Without one, they are
+   * combined into a single operand to be folded once compacted into the deeper levels holding the
+   * key. If no deeper level might hold the key they are folded onto an empty value instead.
+   * Operands of different {@link MergeOperator}s cannot be combined, so they are folded onto the
+   * key's value read from the deeper levels.
+   *
+   * @param entriesNewestFirst all entries in the level, ordered from the newest segment to the
+   *     oldest
+   */
+  private ImmutableSortedMap<ByteString, WritableEntry> foldMergeOperands(
+      ImmutableSortedMap<ByteString, EntryView> keyEntryMap,
+      ImmutableList<EntryView> entriesNewestFirst,
+      ImmutableList<Segment> deeperSegments) {
+    if (keyEntryMap.values().stream().noneMatch(EntryView::isMergeOperand)) {
+      return ImmutableSortedMap.copyOfSorted(keyEntryMap);
+    }
+    ListMultimap<ByteString, EntryView> operandKeyEntries =
+        MultimapBuilder.hashKeys().arrayListValues().build();
+    for (EntryView entry : entriesNewestFirst) {
+      ByteString key = entry.key();
+      if (keyEntryMap.get(key).isMergeOperand()) {
+        operandKeyEntries.put(key, entry);
+      }
+    }
+
+    SortedMap<ByteString, WritableEntry> foldedKeyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
+    foldedKeyEntryMap.putAll(keyEntryMap);
+    for (ByteString key : operandKeyEntries.keySet()) {
+      foldedKeyEntryMap.put(
+          key, foldMergeOperandsForKey(key, operandKeyEntries.get(key), deeperSegments));
+    }
+    return ImmutableSortedMap.copyOfSorted(foldedKeyEntryMap);
+  }
+
+  private Entry foldMergeOperandsForKey(
+      ByteString key, List<EntryView> entriesNewestFirst, ImmutableList<Segment> deeperSegments) {
+    List<Entry> operandsNewestFirst = new ArrayList<>();
+    for (EntryView entry : entriesNewestFirst) {
+      if (!entry.isMergeOperand()) {
+        return EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.of(toEntry(entry)));
+      }
+      operandsNewestFirst.add(entry.toEntry());
+    }
+    if (deeperSegments.stream().noneMatch(segment -> segment.mightContain(key))) {
+      return EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.empty());
+    }
+    Optional<Entry> combinedOperand = combineMergeOperands(operandsNewestFirst);
+    if (combinedOperand.isPresent()) {
+      return combinedOperand.get();
+    }
+    try {
+      for (Segment segment : deeperSegments) {
+        Optional<Entry> entry = segment.readEntry(key);
+        if (entry.isEmpty()) {
+          continue;
+        }
+        if (!entry.get().isMergeOperand()) {
+          return EntryUtils.foldMergeOperands(operandsNewestFirst, entry);
+        }
+        operandsNewestFirst.add(entry.get());
+      }
+    } catch (IOException e) {
+      throw new StorageCompactionException("Failed reading entry from deeper segment level", e);
+    }
+    return EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.empty());
+  }
+
+  /**
+   * Combines the merge operands, ordered newest first, into a single operand if they are all of
+   * the same {@link MergeOperator}.
+   */
+  private static Optional<Entry> combineMergeOperands(List<Entry> operandsNewestFirst) {
+    Optional<Entry> combined = Optional.of(operandsNewestFirst.getLast());
+    for (Entry operand : operandsNewestFirst.reversed().subList(1, operandsNewestFirst.size())) {
+      combined = combined.flatMap(entry -> EntryUtils.applyMergeOperand(entry, operand));
+    }
+    return combined;
+  }
+
+  /** Materializes the entry, reading its value from the {@link BlobStore} if it was separated. */
+  private Entry toEntry(EntryView entry) {
+    if (!entry.isValueInBlob()) {
+      return entry.toEntry();
+    }
+    try {
+      ByteString value = blobStore.read(BlobPointer.fromBytes(entry.value()));
+      return new Entry(
+          entry.creationEpochSeconds(), entry.key(), value, entry.expiryEpochSeconds());
+    } catch (IOException e) {
+      throw new StorageCompactionException("Failed reading blob value of entry", e);
+    }
+  }
+
+  /**
+   * Returns the segments in levels deeper than the provided one, ordered by level and then from the
+   * newest segment to the oldest.
+   */
+  private static ImmutableList<Segment> getDeeperSegments(
+      SegmentLevelMultiMap segmentLevelMultiMap, int segmentLevel) {
+    return segmentLevelMultiMap.getSegmentLevels().stream()
+        .filter(level -> level > segmentLevel)
+        .sorted()
+        .flatMap(level -> segmentLevelMultiMap.getSegmentsInLevel(level).stream()
+            .sorted(NEWEST_SEGMENT_FIRST))
+        .collect(toImmutableList());
+  }
+
+  private ImmutableList<EntryView> getAllEntriesInLevel(ImmutableList<Segment> segmentsInLevel) {
     try (var scope =
         new StructuredTaskScope.ShutdownOnFailure("compact-segments-level-scope", threadFactory)) {
-      ImmutableList<StructuredTaskScope.Subtask<ImmutableList<Entry>>> segmentEntriesFutures =
+      // Segments are read newest first so that the newest of equally old entries is kept
+      ImmutableList<StructuredTaskScope.Subtask<ImmutableList<EntryView>>> segmentEntriesFutures =
           segmentsInLevel.stream()
+              .sorted(NEWEST_SEGMENT_FIRST)
               .map(segment -> scope.fork(segment::readAllEntries))
               .collect(toImmutableList());
 
@@ -2,10 +2,13 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.TreeMultimap;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * A {@link com.google.common.collect.Multimap} of segment levels to {@link Segment}s currently in
@@ -45,6 +48,19 @@ public final class SegmentLevelMultiMap {
         .sum();
   }
 
+  /**
+   * Returns the number of value bytes referenced in each blob file by all contained
+   * {@link Segment}s, mapped by blob file number.
+   */
+  public ImmutableMap<Long, Long> getBlobReferencedBytes() {
+    Map<Long, Long> referencedBytes = new HashMap<>();
+    for (var segment : segmentLevelMultiMap.values()) {
+      segment.getBlobReferencedBytes().forEach((blobFileNumber, numBytes) ->
+          referencedBytes.merge(blobFileNumber, numBytes, Long::sum));
+    }
+    return ImmutableMap.copyOf(referencedBytes);
+  }
+
   /**
    * Creates a new {@link Builder} populated with all entries contained within this.
    */
@@ -68,7 +84,7 @@ public final class SegmentLevelMultiMap {
      */
     public Builder() {
       segmentLevelMultiMapBuilder = TreeMultimap.create(
-          Integer::compare, Comparator.comparingInt(Segment::getSegmentNumber));
+          Integer::compare, Comparator.comparingLong(Segment::getSegmentNumber));
     }
 
     /**
@@ -44,7 +44,7 @@ public final class SegmentLevelMultiMapLoader {
   private SegmentLevelMultiMap createWithLoading() {
     // Load SegmentIndexes
     ImmutableList<SegmentIndex> indexes = segmentIndexLoader.load();
-    ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap =
+    ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap =
         mapIndexesBySegmentNumber(indexes);
 
     // Load Segments
@@ -58,7 +58,7 @@ public final class SegmentLevelMultiMapLoader {
     return segments.stream().collect(toImmutableListMultimap(Segment::getSegmentLevel, identity()));
   }
 
-  private ImmutableMap<Integer, SegmentIndex> mapIndexesBySegmentNumber(
+  private ImmutableMap<Long, SegmentIndex> mapIndexesBySegmentNumber(
       ImmutableList<SegmentIndex> indexes) {
     return indexes.stream()
         .collect(
@@ -36,7 +36,7 @@ final class SegmentLoader {
    * corresponding index.
    */
   ImmutableList<Segment> loadWithIndexes(
-      ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap) {
+      ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap) {
     ImmutableList<Path> segmentPaths =
         LoaderUtils.loadPathsInDirForGlob(
             Path.of(storageConfig.getStoreDirectoryPath()), SEGMENT_GLOB);
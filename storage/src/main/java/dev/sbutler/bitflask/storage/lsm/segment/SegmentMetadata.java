@@ -1,63 +1,166 @@
 package dev.sbutler.bitflask.storage.lsm.segment;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static dev.sbutler.bitflask.storage.lsm.utils.LoaderUtils.checkLoadedBytesLength;
 
 import com.google.common.primitives.Bytes;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
- * The metadata for a single {@link Segment} instance.
+ * The metadata for a single {@link Segment} instance, stored at the start of its file.
  *
+ * <p>Two layouts are supported:
+ *
+ * <ul>
+ *   <li>Format version {@link #LEGACY_FORMAT_VERSION}: the segmentNumber and segmentLevel as
+ *   16-bit unsigned shorts. It is only decoded.</li>
+ *   <li>Format version {@link #CURRENT_FORMAT_VERSION}: the 4 byte {@link #MAGIC}, the format
+ *   version and segmentLevel as 16-bit unsigned shorts, and the segmentNumber as a 64-bit
+ *   long.</li>
+ * </ul>
+ *
+ * <p>A legacy header can only begin with the magic if its segmentLevel were 21,319, which is far
+ * beyond any level reachable by compaction.
+ *
+ * @param formatVersion the version of the encoding of the Segment's file
  * @param segmentNumber the number of the Segment that this metadata is associated with
  * @param segmentLevel  the level of the Segment that this metadata is associated with
  */
-record SegmentMetadata(UnsignedShort segmentNumber, UnsignedShort segmentLevel) {
+record SegmentMetadata(int formatVersion, long segmentNumber, int segmentLevel) {
+
+  /**
+   * The format version of Segment files written before the header was versioned.
+   */
+  static final int LEGACY_FORMAT_VERSION = 0;
+  /**
+   * The format version new Segment files are written with.
+   */
+  static final int CURRENT_FORMAT_VERSION = 1;
+  /**
+   * The bytes "BFSG" beginning every versioned Segment file.
+   */
+  static final int MAGIC = 0x42465347;
+
+  /**
+   * The number of bytes of a legacy SegmentMetadata.
+   */
+  static final int LEGACY_BYTES = UnsignedShort.BYTES * 2;
+  /**
+   * The number of bytes of a SegmentMetadata written with the current format version.
+   */
+  static final int BYTES = Integer.BYTES + UnsignedShort.BYTES * 2 + Long.BYTES;
+
+  SegmentMetadata {
+    checkArgument(formatVersion >= LEGACY_FORMAT_VERSION
+            && formatVersion <= CURRENT_FORMAT_VERSION,
+        "Unsupported Segment format version [%s]. Supported versions are [%s, %s]",
+        formatVersion, LEGACY_FORMAT_VERSION, CURRENT_FORMAT_VERSION);
+    checkArgument(segmentNumber >= 0,
+        "segmentNumber must be non-negative. Provided [%s]", segmentNumber);
+    checkArgument(
+        segmentLevel >= UnsignedShort.MIN_VALUE && segmentLevel <= UnsignedShort.MAX_VALUE,
+        "segmentLevel must be in the range [%s, %s]. Provided [%s]",
+        UnsignedShort.MIN_VALUE, UnsignedShort.MAX_VALUE, segmentLevel);
+    if (formatVersion == LEGACY_FORMAT_VERSION) {
+      checkArgument(segmentNumber <= UnsignedShort.MAX_VALUE,
+          "A legacy segmentNumber must be at most [%s]. Provided [%s]",
+          UnsignedShort.MAX_VALUE, segmentNumber);
+    }
+  }
 
   /**
-   * The number of bits used to represent a SegmentMetadata.
+   * Creates metadata with the current format version.
    */
-  static final int SIZE = UnsignedShort.SIZE * 2;
+  SegmentMetadata(long segmentNumber, int segmentLevel) {
+    this(CURRENT_FORMAT_VERSION, segmentNumber, segmentLevel);
+  }
+
   /**
-   * The number of bytes to represent a SegmentMetadata.
+   * Reads the SegmentMetadata from the start of a Segment file, detecting its format version.
+   *
+   * <p>A {@link dev.sbutler.bitflask.storage.exceptions.StorageLoadException} will be thrown if
+   * the stream ends before the complete metadata is read.
    */
-  static final int BYTES = SIZE / Byte.SIZE;
+  static SegmentMetadata readFrom(InputStream is) throws IOException {
+    byte[] prefixBytes = is.readNBytes(LEGACY_BYTES);
+    checkLoadedBytesLength(prefixBytes, LEGACY_BYTES, SegmentMetadata.class);
+    if (ByteBuffer.wrap(prefixBytes).getInt() != MAGIC) {
+      return fromBytes(prefixBytes);
+    }
+    byte[] remainingBytes = is.readNBytes(BYTES - LEGACY_BYTES);
+    checkLoadedBytesLength(remainingBytes, BYTES - LEGACY_BYTES, SegmentMetadata.class);
+    return fromBytes(Bytes.concat(prefixBytes, remainingBytes));
+  }
 
   /**
    * Creates a new SegmentMetadata instance from the provided byte array.
    *
-   * <p>The 0th and 1st indices will be interpreted as a 16-bit unsigned short representing the
-   * segmentNumber. The 3rd and 4th indices will be interpreted as a 16-bit unsigned short
-   * representing the segmentLevel.
+   * <p>An array of {@link #LEGACY_BYTES} is decoded as a legacy header: the 0th and 1st indices
+   * will be interpreted as a 16-bit unsigned short representing the segmentNumber and the 2nd and
+   * 3rd as a 16-bit unsigned short representing the segmentLevel. An array of {@link #BYTES} is
+   * decoded as a versioned header.
    *
    * <p>An {@link IllegalArgumentException} will be thrown if the provided byte array's length is
-   * not 4.
+   * neither, if a versioned header does not begin with the {@link #MAGIC}, or if its format
+   * version is not supported.
    */
   static SegmentMetadata fromBytes(byte[] bytes) {
-    checkArgument(bytes.length == BYTES,
-        "Byte array length invalid. Provided [%s], expected [%s]",
-        bytes.length, BYTES);
+    checkArgument(bytes.length == LEGACY_BYTES || bytes.length == BYTES,
+        "Byte array length invalid. Provided [%s], expected [%s] or [%s]",
+        bytes.length, LEGACY_BYTES, BYTES);
+
+    if (bytes.length == LEGACY_BYTES) {
+      UnsignedShort segmentNumber = UnsignedShort.fromBytes(Arrays.copyOfRange(bytes, 0, 2));
+      UnsignedShort segmentLevel = UnsignedShort.fromBytes(Arrays.copyOfRange(bytes, 2, 4));
+      return new SegmentMetadata(
+          LEGACY_FORMAT_VERSION, segmentNumber.value(), segmentLevel.value());
+    }
 
-    byte[] segmentNumberBytes = Arrays.copyOfRange(bytes, 0, 2);
-    byte[] segmentLevelBytes = Arrays.copyOfRange(bytes, 2, 4);
-    UnsignedShort segmentNumber = UnsignedShort.fromBytes(segmentNumberBytes);
-    UnsignedShort segmentLevel = UnsignedShort.fromBytes(segmentLevelBytes);
-    return new SegmentMetadata(segmentNumber, segmentLevel);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    int magic = buffer.getInt();
+    checkArgument(magic == MAGIC,
+        "Segment magic invalid. Provided [%s], expected [%s]",
+        Integer.toHexString(magic), Integer.toHexString(MAGIC));
+    int formatVersion = Short.toUnsignedInt(buffer.getShort());
+    int segmentLevel = Short.toUnsignedInt(buffer.getShort());
+    long segmentNumber = buffer.getLong();
+    return new SegmentMetadata(formatVersion, segmentNumber, segmentLevel);
   }
 
   /**
-   * Converts the metadata into a byte array with the segmentNumber in the first 2 indices of the
-   * array and segmentLevel in the last two.
+   * Converts the metadata into a byte array using its format version's layout.
    */
   byte[] getBytes() {
-    return Bytes.concat(segmentNumber.getBytes(), segmentLevel.getBytes());
+    if (formatVersion == LEGACY_FORMAT_VERSION) {
+      return Bytes.concat(
+          UnsignedShort.valueOf((int) segmentNumber).getBytes(),
+          UnsignedShort.valueOf(segmentLevel).getBytes());
+    }
+    return ByteBuffer.allocate(BYTES)
+        .putInt(MAGIC)
+        .putShort((short) formatVersion)
+        .putShort((short) segmentLevel)
+        .putLong(segmentNumber)
+        .array();
+  }
+
+  /**
+   * Returns the number of bytes of the encoded metadata, which is the offset of the Segment's first
+   * entry.
+   */
+  int getNumBytes() {
+    return formatVersion == LEGACY_FORMAT_VERSION ? LEGACY_BYTES : BYTES;
   }
 
-  int getSegmentNumber() {
-    return segmentNumber.value();
+  long getSegmentNumber() {
+    return segmentNumber;
   }
 
   int getSegmentLevel() {
-    return segmentLevel.value();
+    return segmentLevel;
   }
 }
@@ -0,0 +1,30 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A JFR event recording a Memtable being flushed to a new level 0 Segment. */
+@Name("dev.sbutler.bitflask.storage.MemtableFlush")
+@Label("Memtable Flush")
+@Category({"Bitflask", "Storage"})
+@Description("A Memtable being flushed to a new level 0 Segment")
+@StackTrace(false)
+public final class MemtableFlushEvent extends Event {
+
+  @Label("Entries")
+  @Description("The number of entries flushed")
+  public int numEntries;
+
+  @Label("Segment Number")
+  public long segmentNumber;
+
+  @Label("Segment Size")
+  @Description("The size of the Segment written")
+  @DataAmount
+  public long segmentNumBytes;
+}
@@ -0,0 +1,87 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Records where a single sampled request spent its time on the storage engine's read path.
+ *
+ * <p>A trace is made current for the duration of {@link #trace(Supplier)}, during which the read
+ * path records into it the time spent waiting on the LSMTree state and Memtable locks, and the
+ * Segments it checked and read. Code on the read path looks the trace up with {@link #current()}
+ * and does no extra work when the request is not being traced.
+ *
+ * <p>A traced operation may fork, so recording methods may be called concurrently.
+ */
+public final class ReadTrace {
+
+  private static final ScopedValue<ReadTrace> CURRENT = ScopedValue.newInstance();
+
+  private final AtomicLong stateLockWaitNanos = new AtomicLong();
+  private final AtomicLong memtableLockWaitNanos = new AtomicLong();
+  private final AtomicInteger numFilterChecks = new AtomicInteger();
+  private final AtomicInteger numFilterNegatives = new AtomicInteger();
+  private final AtomicInteger numSegmentsRead = new AtomicInteger();
+  private final AtomicInteger numFilterFalsePositives = new AtomicInteger();
+
+  /** Returns the trace of the operation being executed by the current thread, if any. */
+  public static Optional<ReadTrace> current() {
+    return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+  }
+
+  /** Executes the operation with this as the {@link #current()} trace, returning its result. */
+  public <T> T trace(Supplier<T> operation) {
+    return ScopedValue.where(CURRENT, this).get(operation);
+  }
+
+  /** Records time spent waiting to acquire the LSMTree's state. */
+  public void recordStateLockWait(long nanos) {
+    stateLockWaitNanos.addAndGet(nanos);
+  }
+
+  /** Records time spent waiting to acquire a Memtable's lock. */
+  public void recordMemtableLockWait(long nanos) {
+    memtableLockWaitNanos.addAndGet(nanos);
+  }
+
+  /** Records the Segments checked and read while reading a single key. */
+  public void recordSegmentProbes(
+      int filterChecks, int filterNegatives, int segmentsRead, int filterFalsePositives) {
+    numFilterChecks.addAndGet(filterChecks);
+    numFilterNegatives.addAndGet(filterNegatives);
+    numSegmentsRead.addAndGet(segmentsRead);
+    numFilterFalsePositives.addAndGet(filterFalsePositives);
+  }
+
+  /** The total time spent waiting to acquire the LSMTree's state. */
+  public long getStateLockWaitNanos() {
+    return stateLockWaitNanos.get();
+  }
+
+  /** The total time spent waiting to acquire a Memtable's lock. */
+  public long getMemtableLockWaitNanos() {
+    return memtableLockWaitNanos.get();
+  }
+
+  /** The number of Segment filters checked. */
+  public int getNumFilterChecks() {
+    return numFilterChecks.get();
+  }
+
+  /** The number of Segments a filter ruled out without reading. */
+  public int getNumFilterNegatives() {
+    return numFilterNegatives.get();
+  }
+
+  /** The number of Segments read. */
+  public int getNumSegmentsRead() {
+    return numSegmentsRead.get();
+  }
+
+  /** The number of Segments read that did not contain the key being read. */
+  public int getNumFilterFalsePositives() {
+    return numFilterFalsePositives.get();
+  }
+}
@@ -0,0 +1,43 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** A JFR event recording a segment level being compacted into the next level. */
+@Name("dev.sbutler.bitflask.storage.SegmentLevelCompaction")
+@Label("Segment Level Compaction")
+@Category({"Bitflask", "Storage"})
+@Description("A segment level being compacted into a single Segment of the next level")
+@StackTrace(false)
+public final class SegmentLevelCompactionEvent extends Event {
+
+  @Label("Segment Level")
+  @Description("The level compacted")
+  public int segmentLevel;
+
+  @Label("Input Segments")
+  public int numInputSegments;
+
+  @Label("Input Size")
+  @Description("The size of the Segments compacted")
+  @DataAmount
+  public long inputNumBytes;
+
+  @Label("Output Segments")
+  @Description("The number of Segments written, 0 if every entry expired")
+  public int numOutputSegments;
+
+  @Label("Output Size")
+  @Description("The size of the Segment written")
+  @DataAmount
+  public long outputNumBytes;
+
+  @Label("Dropped Entries")
+  @Description("The number of duplicate or expired entries removed")
+  public int numEntriesDropped;
+}
@@ -0,0 +1,43 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JFR event recording the Segments checked and read while reading a single key.
+ *
+ * <p>The event is emitted for every read, so by default only reads slower than the threshold are
+ * committed. The threshold can be lowered in a recording's settings.
+ */
+@Name("dev.sbutler.bitflask.storage.SegmentProbe")
+@Label("Segment Probe")
+@Category({"Bitflask", "Storage"})
+@Description("The Segments checked and read while reading a single key")
+@StackTrace(false)
+@Threshold("10 ms")
+public final class SegmentProbeEvent extends Event {
+
+  @Label("Filter Checks")
+  @Description("The number of Segment filters checked for the key")
+  public int numFilterChecks;
+
+  @Label("Filter Negatives")
+  @Description("The number of Segments a filter ruled out without reading")
+  public int numFilterNegatives;
+
+  @Label("Segments Read")
+  public int numSegmentsRead;
+
+  @Label("Filter False Positives")
+  @Description("The number of Segments read that did not contain the key")
+  public int numFilterFalsePositives;
+
+  @Label("Found")
+  @Description("Whether an entry was found for the key")
+  public boolean found;
+}
@@ -0,0 +1,239 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedSet;
+import dev.sbutler.bitflask.common.metrics.Histogram;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of statistics describing the work performed by the
+ * {@link dev.sbutler.bitflask.storage.lsm.LSMTree}.
+ *
+ * <p>All recording methods are lock-free and may be called concurrently from any thread.
+ */
+@Singleton
+public final class StorageStats {
+
+  private final LongAdder numReads = new LongAdder();
+  private final Histogram segmentsProbedPerRead = new Histogram();
+  private final LongAdder bloomFilterUseful = new LongAdder();
+  private final LongAdder bloomFilterPositive = new LongAdder();
+  private final LongAdder bloomFilterFalsePositive = new LongAdder();
+  private final LongAdder userBytesWritten = new LongAdder();
+  private final LongAdder numFlushes = new LongAdder();
+  private final LongAdder flushBytesWritten = new LongAdder();
+  private final ConcurrentMap<Integer, CompactionCounters> compactionCountersByLevel =
+      new ConcurrentHashMap<>();
+
+  @Inject
+  public StorageStats() {}
+
+  /**
+   * Records a completed read of a single key which probed the provided number of Segments.
+   */
+  public void recordRead(int segmentsProbed) {
+    numReads.increment();
+    segmentsProbedPerRead.record(segmentsProbed);
+  }
+
+  /**
+   * Records the result of checking whether a Segment's filter might contain a key.
+   */
+  public void recordBloomFilterCheck(boolean mightContain) {
+    if (mightContain) {
+      bloomFilterPositive.increment();
+    } else {
+      bloomFilterUseful.increment();
+    }
+  }
+
+  /**
+   * Records the number of keys that a Segment's filter reported it might contain but did not.
+   */
+  public void recordBloomFilterFalsePositives(long numFalsePositives) {
+    bloomFilterFalsePositive.add(numFalsePositives);
+  }
+
+  /**
+   * Records the number of bytes of entries written by clients.
+   */
+  public void recordUserWrite(long numBytes) {
+    userBytesWritten.add(numBytes);
+  }
+
+  /**
+   * Records a Memtable being flushed to a new Segment of the provided number of bytes.
+   */
+  public void recordFlush(long segmentNumBytes) {
+    numFlushes.increment();
+    flushBytesWritten.add(segmentNumBytes);
+  }
+
+  /**
+   * Records compacting a segment level from the provided number of bytes into a new Segment of the
+   * written number of bytes, which is 0 if no Segment was written.
+   */
+  public void recordCompaction(int segmentLevel, long numBytesRead, long numBytesWritten) {
+    CompactionCounters counters =
+        compactionCountersByLevel.computeIfAbsent(
+            segmentLevel, ignored -> new CompactionCounters());
+    counters.numCompactions.increment();
+    counters.numBytesRead.add(numBytesRead);
+    counters.numBytesWritten.add(numBytesWritten);
+  }
+
+  /**
+   * Returns a point-in-time copy of the recorded statistics combined with the sizes of the Segments
+   * currently in each level.
+   *
+   * @param segmentNumBytesByLevel the number of bytes of each current Segment, keyed by its level
+   */
+  public Snapshot snapshot(ImmutableListMultimap<Integer, Long> segmentNumBytesByLevel) {
+    ImmutableSortedSet<Integer> segmentLevels =
+        ImmutableSortedSet.<Integer>naturalOrder()
+            .addAll(segmentNumBytesByLevel.keySet())
+            .addAll(compactionCountersByLevel.keySet())
+            .build();
+    ImmutableList.Builder<LevelStats> levelStats = ImmutableList.builder();
+    for (int segmentLevel : segmentLevels) {
+      ImmutableList<Long> segmentNumBytes = segmentNumBytesByLevel.get(segmentLevel);
+      CompactionCounters counters =
+          compactionCountersByLevel.getOrDefault(segmentLevel, new CompactionCounters());
+      levelStats.add(
+          new LevelStats(
+              segmentLevel,
+              segmentNumBytes.size(),
+              segmentNumBytes.stream().mapToLong(Long::longValue).sum(),
+              counters.numCompactions.sum(),
+              counters.numBytesRead.sum(),
+              counters.numBytesWritten.sum()));
+    }
+    return new Snapshot(
+        numReads.sum(),
+        segmentsProbedPerRead.snapshot(),
+        bloomFilterUseful.sum(),
+        bloomFilterPositive.sum(),
+        bloomFilterFalsePositive.sum(),
+        userBytesWritten.sum(),
+        numFlushes.sum(),
+        flushBytesWritten.sum(),
+        levelStats.build());
+  }
+
+  private static final class CompactionCounters {
+
+    private final LongAdder numCompactions = new LongAdder();
+    private final LongAdder numBytesRead = new LongAdder();
+    private final LongAdder numBytesWritten = new LongAdder();
+  }
+
+  /**
+   * A point-in-time copy of {@link StorageStats}.
+   *
+   * @param numReads the number of single key reads completed
+   * @param segmentsProbedPerRead the number of Segments read for each single key read
+   * @param bloomFilterUseful the number of times a filter ruled out a Segment
+   * @param bloomFilterPositive the number of times a filter reported a Segment might contain a key
+   * @param bloomFilterFalsePositive the number of positive filter checks whose Segment did not
+   *     contain the key
+   * @param userBytesWritten the number of bytes of entries written by clients
+   * @param numFlushes the number of Memtables flushed to a Segment
+   * @param flushBytesWritten the number of bytes of Segments written by flushes
+   * @param levelStats the statistics of each segment level, ordered by level
+   */
+  public record Snapshot(
+      long numReads,
+      Histogram.Snapshot segmentsProbedPerRead,
+      long bloomFilterUseful,
+      long bloomFilterPositive,
+      long bloomFilterFalsePositive,
+      long userBytesWritten,
+      long numFlushes,
+      long flushBytesWritten,
+      ImmutableList<LevelStats> levelStats) {
+
+    /**
+     * Returns the mean number of Segments read per single key read, or 0 if none have been read.
+     */
+    public double getReadAmplification() {
+      return segmentsProbedPerRead.getMean();
+    }
+
+    /**
+     * Returns the number of bytes written to Segments by flushes and compactions per byte written
+     * by clients, or 0 if clients have not written anything.
+     */
+    public double getWriteAmplification() {
+      if (userBytesWritten == 0) {
+        return 0;
+      }
+      long compactionBytesWritten =
+          levelStats.stream().mapToLong(LevelStats::compactionBytesWritten).sum();
+      return (double) (flushBytesWritten + compactionBytesWritten) / userBytesWritten;
+    }
+
+    /**
+     * Returns the number of bytes of all Segments per byte of the deepest non-empty level, or 0 if
+     * there are no Segments.
+     *
+     * <p>The deepest level holds the oldest, fully compacted, data so it approximates the size of
+     * the live data set.
+     */
+    public double getSpaceAmplification() {
+      long deepestLevelNumBytes =
+          levelStats.reverse().stream()
+              .mapToLong(LevelStats::numBytes)
+              .filter(numBytes -> numBytes > 0)
+              .findFirst()
+              .orElse(0);
+      if (deepestLevelNumBytes == 0) {
+        return 0;
+      }
+      long totalNumBytes = levelStats.stream().mapToLong(LevelStats::numBytes).sum();
+      return (double) totalNumBytes / deepestLevelNumBytes;
+    }
+
+    /**
+     * Returns the fraction of positive filter checks whose Segment did not contain the key, or 0 if
+     * there have been none.
+     */
+    public double getBloomFilterFalsePositiveRate() {
+      return bloomFilterPositive == 0 ? 0 : (double) bloomFilterFalsePositive / bloomFilterPositive;
+    }
+  }
+
+  /**
+   * The statistics of a single segment level.
+   *
+   * @param segmentLevel the level
+   * @param numSegments the number of Segments currently in the level
+   * @param numBytes the number of bytes of the Segments currently in the level
+   * @param numCompactions the number of times the level has been compacted
+   * @param compactionBytesRead the number of bytes of Segments read compacting the level
+   * @param compactionBytesWritten the number of bytes of Segments written compacting the level
+   */
+  public record LevelStats(
+      int segmentLevel,
+      int numSegments,
+      long numBytes,
+      long numCompactions,
+      long compactionBytesRead,
+      long compactionBytesWritten) {
+
+    /**
+     * Returns the fraction of the bytes read compacting the level that were dropped as duplicate or
+     * expired entries, or 0 if the level has not been compacted.
+     */
+    public double getCompactionStaleRatio() {
+      if (compactionBytesRead == 0) {
+        return 0;
+      }
+      return Math.max(0, 1 - (double) compactionBytesWritten / compactionBytesRead);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package dev.sbutler.bitflask.storage.lsm.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * A JFR event recording a record being durably appended to a Write Ahead Log.
+ *
+ * <p>The log is opened for synchronous writes, so the event's duration is the latency of the sync.
+ * The event is emitted for every write, so by default only appends slower than the threshold are
+ * committed.
+ */
+@Name("dev.sbutler.bitflask.storage.WriteAheadLogAppend")
+@Label("Write Ahead Log Append")
+@Category({"Bitflask", "Storage"})
+@Description("A record being written and synced to a Write Ahead Log")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class WriteAheadLogAppendEvent extends Event {
+
+  @Label("Entries")
+  @Description("The number of entries in the record")
+  public int numEntries;
+
+  @Label("Record Size")
+  @DataAmount
+  public int recordNumBytes;
+}
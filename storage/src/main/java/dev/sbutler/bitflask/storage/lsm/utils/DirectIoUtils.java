@@ -0,0 +1,176 @@
+package dev.sbutler.bitflask.storage.lsm.utils;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.sun.nio.file.ExtendedOpenOption;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility methods for reading and writing files with direct I/O, bypassing the page cache.
+ *
+ * <p>Direct I/O requires the file position, transfer length, and buffer address of every read and
+ * write to be aligned to the file system's block size. These methods handle the alignment so
+ * callers can work with unaligned offsets and lengths.
+ */
+public final class DirectIoUtils {
+
+  /**
+   * The approximate number of bytes transferred by each direct read or write.
+   */
+  static final int TRANSFER_BUFFER_BYTES = 1 << 20;
+
+  private DirectIoUtils() {}
+
+  /**
+   * Creates a new file at the provided path and returns an {@link OutputStream} that writes to it
+   * with direct I/O.
+   *
+   * <p>Writes are staged in an aligned buffer and written in whole blocks. When the stream is
+   * closed the final block is padded for the write and the file is then truncated to the number of
+   * bytes actually written.
+   */
+  public static OutputStream newOutputStream(Path path) throws IOException {
+    int blockSize = getBlockSize(path.toAbsolutePath().getParent());
+    FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.WRITE,
+            ExtendedOpenOption.DIRECT);
+    return new DirectOutputStream(channel, blockSize);
+  }
+
+  /**
+   * Reads all bytes of the file at the provided path starting at the provided offset with direct
+   * I/O.
+   */
+  public static byte[] readAllBytes(Path path, long startOffset) throws IOException {
+    checkArgument(startOffset >= 0, "startOffset must be non-negative. Provided [%s]", startOffset);
+    int blockSize = getBlockSize(path);
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, ExtendedOpenOption.DIRECT)) {
+      long fileSize = channel.size();
+      if (startOffset >= fileSize) {
+        return new byte[0];
+      }
+      byte[] bytes = new byte[Math.toIntExact(fileSize - startOffset)];
+
+      ByteBuffer readBuffer = allocateAligned(alignUp(TRANSFER_BUFFER_BYTES, blockSize), blockSize);
+      long position = startOffset - startOffset % blockSize;
+      int bytesCopied = 0;
+      while (bytesCopied < bytes.length) {
+        readBuffer.clear();
+        int numRead = channel.read(readBuffer, position);
+        if (numRead <= 0) {
+          throw new IOException(String.format(
+              "Unexpected end of file at position [%d]. Expected [%d] bytes.",
+              position, fileSize));
+        }
+        int skip = Math.toIntExact(Math.max(0, startOffset - position));
+        int length = Math.min(numRead - skip, bytes.length - bytesCopied);
+        readBuffer.get(skip, bytes, bytesCopied, length);
+        bytesCopied += length;
+        position += numRead;
+        if (numRead % blockSize != 0 && bytesCopied < bytes.length) {
+          throw new IOException(String.format(
+              "Direct read ended before the end of file at position [%d]", position));
+        }
+      }
+      return bytes;
+    }
+  }
+
+  /**
+   * Allocates a direct {@link ByteBuffer} with the provided capacity whose address is aligned to
+   * the provided alignment.
+   */
+  static ByteBuffer allocateAligned(int capacity, int alignment) {
+    return ByteBuffer.allocateDirect(capacity + alignment - 1)
+        .alignedSlice(alignment)
+        .limit(capacity)
+        .slice();
+  }
+
+  private static int getBlockSize(Path path) throws IOException {
+    return Math.toIntExact(Files.getFileStore(path).getBlockSize());
+  }
+
+  private static int alignUp(int value, int alignment) {
+    return (value + alignment - 1) / alignment * alignment;
+  }
+
+  /**
+   * An {@link OutputStream} writing whole, aligned blocks to a {@link FileChannel} opened with
+   * {@link ExtendedOpenOption#DIRECT}.
+   */
+  private static final class DirectOutputStream extends OutputStream {
+
+    private final FileChannel channel;
+    private final int blockSize;
+    private final ByteBuffer writeBuffer;
+    private long bytesWritten = 0;
+    private boolean closed = false;
+
+    private DirectOutputStream(FileChannel channel, int blockSize) {
+      this.channel = channel;
+      this.blockSize = blockSize;
+      this.writeBuffer = allocateAligned(alignUp(TRANSFER_BUFFER_BYTES, blockSize), blockSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[]{(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      ensureOpen();
+      while (len > 0) {
+        int length = Math.min(len, writeBuffer.remaining());
+        writeBuffer.put(b, off, length);
+        off += length;
+        len -= length;
+        bytesWritten += length;
+        if (!writeBuffer.hasRemaining()) {
+          drainWriteBuffer();
+        }
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      try (channel) {
+        if (writeBuffer.position() > 0) {
+          int paddedLength = alignUp(writeBuffer.position(), blockSize);
+          writeBuffer.put(new byte[paddedLength - writeBuffer.position()]);
+          drainWriteBuffer();
+          channel.truncate(bytesWritten);
+        }
+      }
+    }
+
+    private void drainWriteBuffer() throws IOException {
+      writeBuffer.flip();
+      while (writeBuffer.hasRemaining()) {
+        channel.write(writeBuffer);
+      }
+      writeBuffer.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+      if (closed) {
+        throw new IOException("Stream closed");
+      }
+    }
+  }
+}
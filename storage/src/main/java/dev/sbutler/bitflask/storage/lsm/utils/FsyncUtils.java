@@ -0,0 +1,36 @@
+package dev.sbutler.bitflask.storage.lsm.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Utility methods for making written files durable.
+ */
+public final class FsyncUtils {
+
+  /**
+   * Forces the contents and metadata of the file at the provided path to the storage device.
+   *
+   * <p>The file does not need to be open for writing. All writes to it that have completed, through
+   * any file descriptor, are made durable.
+   */
+  public static void forceFile(Path filePath) throws IOException {
+    try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  /**
+   * Forces the directory at the provided path to the storage device, making the creation, deletion,
+   * and renaming of files within it durable.
+   */
+  public static void forceDirectory(Path dirPath) throws IOException {
+    try (FileChannel channel = FileChannel.open(dirPath, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  private FsyncUtils() {}
+}
@@ -0,0 +1,42 @@
+package dev.sbutler.bitflask.storage.raft;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A JFR event recording the round trip of an {@link AppendEntriesRequest} sent by the leader to a
+ * follower, from sending the request until its response, or failure, is received.
+ */
+@Name("dev.sbutler.bitflask.raft.AppendEntriesRoundTrip")
+@Label("AppendEntries Round Trip")
+@Category({"Bitflask", "Raft"})
+@Description("An AppendEntries request sent by the leader and its response from a follower")
+@StackTrace(false)
+final class AppendEntriesRoundTripEvent extends Event {
+
+  @Label("Follower")
+  @Description("The id of the follower the request was sent to")
+  String followerServerId;
+
+  @Label("Term")
+  int term;
+
+  @Label("Previous Log Index")
+  int prevLogIndex;
+
+  @Label("Entries")
+  @Description("The number of entries sent, 0 for a heartbeat")
+  int numEntries;
+
+  @Label("Success")
+  @Description("Whether the follower accepted the entries")
+  boolean success;
+
+  @Label("Failure")
+  @Description("Why no response was received, or empty if one was")
+  String failure;
+}
@@ -4,6 +4,7 @@ import static com.google.common.util.concurrent.Futures.immediateFailedFuture;
 
 import com.google.common.flogger.FluentLogger;
 import dev.sbutler.bitflask.storage.StorageSubmitResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftException;
 import jakarta.inject.Inject;
@@ -16,16 +17,30 @@ public final class Raft implements RaftCommandSubmitter {
   private static final FluentLogger logger = FluentLogger.forEnclosingClass();
 
   private final RaftModeManager raftModeManager;
+  private final RaftPersistentState raftPersistentState;
+  private final RaftVolatileState raftVolatileState;
+  private final RaftLog raftLog;
+  private final RaftStats raftStats;
 
   @Inject
-  Raft(RaftModeManager raftModeManager) {
+  Raft(
+      RaftModeManager raftModeManager,
+      RaftPersistentState raftPersistentState,
+      RaftVolatileState raftVolatileState,
+      RaftLog raftLog,
+      RaftStats raftStats) {
     this.raftModeManager = raftModeManager;
+    this.raftPersistentState = raftPersistentState;
+    this.raftVolatileState = raftVolatileState;
+    this.raftLog = raftLog;
+    this.raftStats = raftStats;
   }
 
   /** Submits a {@link RaftCommand} to be replicated. */
-  public StorageSubmitResults submitCommand(StorageCommandDto storageCommandDto) {
+  public StorageSubmitResults submitCommand(
+      StorageCommandDto storageCommandDto, CommandTrace trace) {
     try {
-      return raftModeManager.submitCommand(storageCommandDto);
+      return raftModeManager.submitCommand(storageCommandDto, trace);
     } catch (RaftException e) {
       logger.atSevere().withCause(e).log("Failed to submit command [%s]", storageCommandDto);
       return new StorageSubmitResults.Success(immediateFailedFuture(e));
@@ -35,4 +50,14 @@ public final class Raft implements RaftCommandSubmitter {
           immediateFailedFuture(new RaftException("Unknown error while submitting.", e)));
     }
   }
+
+  /** Returns a point-in-time copy of this server's Raft statistics and state. */
+  public RaftStats.Snapshot getStats() {
+    return raftStats.snapshot(
+        raftModeManager.getRaftMode(),
+        raftPersistentState.getCurrentTerm(),
+        raftLog.getLastLogEntryDetails().index(),
+        raftVolatileState.getHighestCommittedEntryIndex(),
+        raftVolatileState.getHighestAppliedEntryIndex());
+  }
 }
@@ -1,9 +1,11 @@
 package dev.sbutler.bitflask.storage.raft;
 
+import com.google.protobuf.ByteString;
+
 /** Commands that can be accepted and replicated. */
 public sealed interface RaftCommand {
 
-  record SetCommand(String key, String value) implements RaftCommand {}
+  record SetCommand(ByteString key, ByteString value) implements RaftCommand {}
 
-  record DeleteCommand(String key) implements RaftCommand {}
+  record DeleteCommand(ByteString key) implements RaftCommand {}
 }
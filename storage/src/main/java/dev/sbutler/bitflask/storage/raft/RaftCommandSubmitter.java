@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.storage.raft;
 
 import dev.sbutler.bitflask.storage.StorageSubmitResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 
 /** Supports committing {@link RaftCommand}s. */
@@ -13,7 +14,8 @@ public interface RaftCommandSubmitter {
    * returned. If not {@link StorageSubmitResults.NotCurrentLeader} will be returned.
    *
    * <p>If a StorageCommandDto is successfully submitted and replicated it will be converted into a
-   * {@link dev.sbutler.bitflask.storage.commands.StorageCommand} and executed.
+   * {@link dev.sbutler.bitflask.storage.commands.StorageCommand} and executed. The {@link
+   * CommandTrace} is marked when it starts and finishes executing.
    */
-  StorageSubmitResults submitCommand(StorageCommandDto storageCommandDto);
+  StorageSubmitResults submitCommand(StorageCommandDto storageCommandDto, CommandTrace trace);
 }
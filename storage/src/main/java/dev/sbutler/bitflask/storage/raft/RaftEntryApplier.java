@@ -15,6 +15,7 @@ final class RaftEntryApplier extends AbstractExecutionThreadService {
   private final StorageCommandExecutor storageCommandExecutor;
   private final RaftModeManager raftModeManager;
   private final RaftSubmissionManager raftSubmissionManager;
+  private final RaftStats raftStats;
 
   private volatile boolean shouldContinueExecuting = true;
 
@@ -25,13 +26,15 @@ final class RaftEntryApplier extends AbstractExecutionThreadService {
       RaftEntryConverter raftEntryConverter,
       StorageCommandExecutor storageCommandExecutor,
       RaftModeManager raftModeManager,
-      RaftSubmissionManager raftSubmissionManager) {
+      RaftSubmissionManager raftSubmissionManager,
+      RaftStats raftStats) {
     this.raftLog = raftLog;
     this.raftVolatileState = raftVolatileState;
     this.raftEntryConverter = raftEntryConverter;
     this.storageCommandExecutor = storageCommandExecutor;
     this.raftModeManager = raftModeManager;
     this.raftSubmissionManager = raftSubmissionManager;
+    this.raftStats = raftStats;
   }
 
   @Override
@@ -67,8 +70,10 @@ final class RaftEntryApplier extends AbstractExecutionThreadService {
 
     StorageCommandResults results;
     try {
+      raftSubmissionManager.markSubmissionApplying(entryIndex);
       results = storageCommandExecutor.executeDto(dto);
       raftVolatileState.increaseHighestAppliedEntryIndexTo(entryIndex);
+      raftStats.recordEntryApplied();
     } catch (Exception e) {
       triggerShutdown();
       RaftException exception =
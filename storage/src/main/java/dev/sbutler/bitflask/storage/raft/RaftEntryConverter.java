@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.storage.raft;
 
 import com.google.common.base.Converter;
+import com.google.common.collect.ImmutableList;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftCommandConversionException;
 import jakarta.inject.Inject;
@@ -23,12 +24,34 @@ final class RaftEntryConverter extends Converter<StorageCommandDto, Entry> {
     return switch (storageCommandDto) {
       case StorageCommandDto.WriteDto dto -> Entry.newBuilder()
           .setTerm(raftPersistentState.getCurrentTerm())
-          .setSetCommand(SetCommand.newBuilder().setKey(dto.key()).setValue(dto.value()))
+          .setSetCommand(toSetCommand(dto))
           .build();
       case StorageCommandDto.DeleteDto dto -> Entry.newBuilder()
           .setTerm(raftPersistentState.getCurrentTerm())
           .setDeleteCommand(DeleteCommand.newBuilder().setKey(dto.key()).build())
           .build();
+      case StorageCommandDto.WriteBatchDto dto -> Entry.newBuilder()
+          .setTerm(raftPersistentState.getCurrentTerm())
+          .setWriteBatchCommand(toWriteBatchCommand(dto))
+          .build();
+      case StorageCommandDto.IncrementDto dto -> Entry.newBuilder()
+          .setTerm(raftPersistentState.getCurrentTerm())
+          .setIncrementCommand(
+              IncrementCommand.newBuilder()
+                  .setKey(dto.key())
+                  .setDelta(dto.delta())
+                  .setCreationEpochSeconds(dto.creationEpochSeconds())
+                  .build())
+          .build();
+      case StorageCommandDto.AppendDto dto -> Entry.newBuilder()
+          .setTerm(raftPersistentState.getCurrentTerm())
+          .setAppendCommand(
+              AppendCommand.newBuilder()
+                  .setKey(dto.key())
+                  .setValue(dto.value())
+                  .setCreationEpochSeconds(dto.creationEpochSeconds())
+                  .build())
+          .build();
       default -> throw new RaftCommandConversionException(
           "Unknown StorageCommandDto: " + storageCommandDto);
     };
@@ -37,11 +60,61 @@ final class RaftEntryConverter extends Converter<StorageCommandDto, Entry> {
   @Override
   protected StorageCommandDto doBackward(Entry entry) {
     return switch (entry.getCommandCase()) {
-      case SET_COMMAND -> new StorageCommandDto.WriteDto(
-          entry.getSetCommand().getKey(), entry.getSetCommand().getValue());
+      case SET_COMMAND -> toWriteDto(entry.getSetCommand());
       case DELETE_COMMAND -> new StorageCommandDto.DeleteDto(entry.getDeleteCommand().getKey());
+      case WRITE_BATCH_COMMAND -> toWriteBatchDto(entry.getWriteBatchCommand());
+      case INCREMENT_COMMAND -> new StorageCommandDto.IncrementDto(
+          entry.getIncrementCommand().getKey(),
+          entry.getIncrementCommand().getDelta(),
+          entry.getIncrementCommand().getCreationEpochSeconds());
+      case APPEND_COMMAND -> new StorageCommandDto.AppendDto(
+          entry.getAppendCommand().getKey(),
+          entry.getAppendCommand().getValue(),
+          entry.getAppendCommand().getCreationEpochSeconds());
       default -> throw new RaftCommandConversionException(
           "Unknown Entry command case: " + entry.getCommandCase());
     };
   }
+
+  private static SetCommand toSetCommand(StorageCommandDto.WriteDto dto) {
+    return SetCommand.newBuilder()
+        .setKey(dto.key())
+        .setValue(dto.value())
+        .setExpiryEpochSeconds(dto.expiryEpochSeconds())
+        .build();
+  }
+
+  private static StorageCommandDto.WriteDto toWriteDto(SetCommand command) {
+    return new StorageCommandDto.WriteDto(
+        command.getKey(), command.getValue(), command.getExpiryEpochSeconds());
+  }
+
+  private static WriteBatchCommand toWriteBatchCommand(StorageCommandDto.WriteBatchDto dto) {
+    WriteBatchCommand.Builder command = WriteBatchCommand.newBuilder();
+    for (var operation : dto.operations()) {
+      command.addOperations(switch (operation) {
+        case StorageCommandDto.WriteDto writeDto -> WriteBatchCommand.Operation.newBuilder()
+            .setSetCommand(toSetCommand(writeDto));
+        case StorageCommandDto.DeleteDto deleteDto -> WriteBatchCommand.Operation.newBuilder()
+            .setDeleteCommand(DeleteCommand.newBuilder().setKey(deleteDto.key()));
+        default -> throw new RaftCommandConversionException(
+            "Unknown WriteBatchDto operation: " + operation);
+      });
+    }
+    return command.build();
+  }
+
+  private static StorageCommandDto.WriteBatchDto toWriteBatchDto(WriteBatchCommand command) {
+    ImmutableList.Builder<StorageCommandDto> operations = ImmutableList.builder();
+    for (var operation : command.getOperationsList()) {
+      operations.add(switch (operation.getOperationCase()) {
+        case SET_COMMAND -> toWriteDto(operation.getSetCommand());
+        case DELETE_COMMAND -> new StorageCommandDto.DeleteDto(
+            operation.getDeleteCommand().getKey());
+        default -> throw new RaftCommandConversionException(
+            "Unknown WriteBatchCommand operation case: " + operation.getOperationCase());
+      });
+    }
+    return new StorageCommandDto.WriteBatchDto(operations.build());
+  }
 }
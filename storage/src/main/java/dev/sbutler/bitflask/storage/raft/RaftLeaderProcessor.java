@@ -12,6 +12,7 @@ import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.rpc.Code;
 import com.google.rpc.Status;
 import dev.sbutler.bitflask.storage.StorageSubmitResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.commands.StorageCommandExecutor;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults;
@@ -109,16 +110,17 @@ public final class RaftLeaderProcessor extends RaftModeProcessorBase
   }
 
   @Override
-  public StorageSubmitResults submitCommand(StorageCommandDto storageCommandDto) {
+  public StorageSubmitResults submitCommand(
+      StorageCommandDto storageCommandDto, CommandTrace trace) {
     if (!storageCommandDto.isPersistable()) {
       ListenableFuture<StorageCommandResults> results =
-          storageCommandExecutor.submitDto(storageCommandDto);
+          storageCommandExecutor.submitDto(storageCommandDto, trace);
       return new StorageSubmitResults.Success(results);
     } else {
       Entry newEntry = raftEntryConverter.convert(storageCommandDto);
       int newEntryIndex = raftLog.appendEntry(newEntry);
       ListenableFuture<StorageCommandResults> results =
-          raftSubmissionManager.addNewSubmission(newEntryIndex);
+          raftSubmissionManager.addNewSubmission(newEntryIndex, trace);
       return new StorageSubmitResults.Success(results);
     }
   }
@@ -1,6 +1,7 @@
 package dev.sbutler.bitflask.storage.raft;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static dev.sbutler.bitflask.storage.raft.RaftLeaderProcessor.AppendEntriesSubmission;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -85,15 +86,48 @@ final class RaftLeaderRpcClient {
     ImmutableList<Entry> entries = raftLog.getEntriesFromIndex(followerNextIndex, lastEntryIndex);
     AppendEntriesRequest request =
         createBaseAppendEntriesRequest(followerNextIndex - 1).addAllEntries(entries).build();
+    AppendEntriesRoundTripEvent roundTripEvent = new AppendEntriesRoundTripEvent();
+    roundTripEvent.begin();
     ListenableFuture<AppendEntriesResponse> responseFuture =
         rpcChannelManager
             .getStubForServer(serverId)
             .withDeadlineAfter(requestTimeoutMillis, MILLISECONDS)
             .appendEntries(request);
+    if (roundTripEvent.isEnabled()) {
+      responseFuture.addListener(
+          () -> commitRoundTripEvent(roundTripEvent, serverId, request, responseFuture),
+          directExecutor());
+    }
     return new AppendEntriesSubmission(
         serverId, followerNextIndex, lastEntryIndex, request, responseFuture);
   }
 
+  /**
+   * Ends the event once the response has been received, or the request failed, and commits it if it
+   * passed its threshold.
+   */
+  private static void commitRoundTripEvent(
+      AppendEntriesRoundTripEvent roundTripEvent,
+      RaftServerId serverId,
+      AppendEntriesRequest request,
+      ListenableFuture<AppendEntriesResponse> responseFuture) {
+    roundTripEvent.end();
+    if (!roundTripEvent.shouldCommit()) {
+      return;
+    }
+    roundTripEvent.followerServerId = serverId.id();
+    roundTripEvent.term = request.getTerm();
+    roundTripEvent.prevLogIndex = request.getPrevLogIndex();
+    roundTripEvent.numEntries = request.getEntriesCount();
+    switch (responseFuture.state()) {
+      case SUCCESS -> roundTripEvent.success = responseFuture.resultNow().getSuccess();
+      case FAILED -> roundTripEvent.failure = responseFuture.exceptionNow().toString();
+      case CANCELLED -> roundTripEvent.failure = "cancelled";
+      case RUNNING -> throw new IllegalStateException("The response has not been received.");
+    }
+    roundTripEvent.commit();
+  }
+
   /**
    * Creates an {@link dev.sbutler.bitflask.storage.raft.AppendEntriesRequest.Builder} without the
    * {@link dev.sbutler.bitflask.storage.raft.Entry} list populated.
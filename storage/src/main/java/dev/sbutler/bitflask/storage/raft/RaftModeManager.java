@@ -5,6 +5,7 @@ import com.google.common.flogger.FluentLogger;
 import com.google.common.util.concurrent.*;
 import dev.sbutler.bitflask.config.ServerConfig;
 import dev.sbutler.bitflask.storage.StorageSubmitResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftModeException;
 import jakarta.inject.Inject;
@@ -30,6 +31,7 @@ final class RaftModeManager extends AbstractService
   private final RaftModeProcessor.Factory raftModeProcessorFactory;
   private final RaftPersistentState raftPersistentState;
   private final RaftVolatileState raftVolatileState;
+  private final RaftStats raftStats;
   private final ReentrantLock transitionLock = new ReentrantLock();
 
   private volatile RaftModeProcessor raftModeProcessor;
@@ -41,12 +43,14 @@ final class RaftModeManager extends AbstractService
       @RaftModeManagerListeningExecutorService ListeningExecutorService executorService,
       RaftModeProcessor.Factory raftModeProcessorFactory,
       RaftPersistentState raftPersistentState,
-      RaftVolatileState raftVolatileState) {
+      RaftVolatileState raftVolatileState,
+      RaftStats raftStats) {
     this.raftConfiguration = raftConfiguration;
     this.executorService = executorService;
     this.raftModeProcessorFactory = raftModeProcessorFactory;
     this.raftPersistentState = raftPersistentState;
     this.raftVolatileState = raftVolatileState;
+    this.raftStats = raftStats;
   }
 
   @Override
@@ -96,11 +100,12 @@ final class RaftModeManager extends AbstractService
     }
   }
 
-  public StorageSubmitResults submitCommand(StorageCommandDto storageCommandDto) {
+  public StorageSubmitResults submitCommand(
+      StorageCommandDto storageCommandDto, CommandTrace trace) {
     transitionLock.lock();
     try {
       if (isCurrentLeader()) {
-        return ((RaftLeaderProcessor) raftModeProcessor).submitCommand(storageCommandDto);
+        return ((RaftLeaderProcessor) raftModeProcessor).submitCommand(storageCommandDto, trace);
       } else {
         return getCurrentLeaderServerInfo()
             .<StorageSubmitResults>map(StorageSubmitResults.NotCurrentLeader::new)
@@ -115,6 +120,16 @@ final class RaftModeManager extends AbstractService
     return raftModeProcessor.getRaftMode();
   }
 
+  /**
+   * Returns the server's current {@link RaftMode}, or empty if it has not started.
+   *
+   * <p>This does not wait for an in-progress transition so it is safe to call frequently.
+   */
+  Optional<RaftMode> getRaftMode() {
+    RaftModeProcessor currentRaftModeProcessor = raftModeProcessor;
+    return Optional.ofNullable(currentRaftModeProcessor).map(RaftModeProcessor::getRaftMode);
+  }
+
   boolean isCurrentLeader() {
     transitionLock.lock();
     try {
@@ -173,6 +188,7 @@ final class RaftModeManager extends AbstractService
         logger.atInfo().log("Transitioning to CANDIDATE state.");
         raftVolatileState.clearLeaderServerId();
         transitionToNewRaftModeProcessor(raftModeProcessorFactory.createRaftCandidateProcessor());
+        raftStats.recordElectionStarted();
       } else {
         logger.atWarning().log(
             "Not transition to CANDIDATE state with an outdated term [%d], current term [%d], current Raft mode [%s].",
@@ -199,6 +215,7 @@ final class RaftModeManager extends AbstractService
         logger.atInfo().log("Transitioning to LEADER state.");
         raftVolatileState.setLeaderServerId(raftConfiguration.thisRaftServerId());
         transitionToNewRaftModeProcessor(raftModeProcessorFactory.createRaftLeaderProcessor());
+        raftStats.recordLeadershipAcquired();
       } else {
         logger.atWarning().log(
             "Not transition to LEADER state with an outdated term [%d], current term [%d], current Raft mode [%s].",
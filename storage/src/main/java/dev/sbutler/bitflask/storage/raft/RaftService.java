@@ -49,6 +49,8 @@ public final class RaftService extends AbstractIdleService {
         Grpc.newServerBuilderForPort(
                 thisRaftServerInfo.getRaftPort(), InsecureServerCredentials.create())
             .executor(executorService)
+            // AppendEntries carries whole values, which may be far larger than gRPC's default limit
+            .maxInboundMessageSize(Integer.MAX_VALUE)
             .addService(raftRpcService)
             .build();
     rpcServer.start();
@@ -0,0 +1,80 @@
+package dev.sbutler.bitflask.storage.raft;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A registry of statistics describing the work performed by this server's {@link Raft} instance.
+ *
+ * <p>All recording methods are lock-free and may be called concurrently from any thread.
+ */
+@Singleton
+public final class RaftStats {
+
+  private final LongAdder numElectionsStarted = new LongAdder();
+  private final LongAdder numLeadershipsAcquired = new LongAdder();
+  private final LongAdder numEntriesApplied = new LongAdder();
+
+  @Inject
+  RaftStats() {}
+
+  /** Records this server becoming a candidate and starting an election. */
+  void recordElectionStarted() {
+    numElectionsStarted.increment();
+  }
+
+  /** Records this server winning an election and becoming the leader. */
+  void recordLeadershipAcquired() {
+    numLeadershipsAcquired.increment();
+  }
+
+  /** Records an {@link Entry} being applied to the storage engine. */
+  void recordEntryApplied() {
+    numEntriesApplied.increment();
+  }
+
+  /**
+   * Returns a point-in-time copy of the recorded statistics combined with the server's current
+   * state.
+   */
+  Snapshot snapshot(
+      Optional<RaftMode> raftMode,
+      int currentTerm,
+      int lastLogEntryIndex,
+      int highestCommittedEntryIndex,
+      int highestAppliedEntryIndex) {
+    return new Snapshot(
+        raftMode,
+        currentTerm,
+        lastLogEntryIndex,
+        highestCommittedEntryIndex,
+        highestAppliedEntryIndex,
+        numElectionsStarted.sum(),
+        numLeadershipsAcquired.sum(),
+        numEntriesApplied.sum());
+  }
+
+  /**
+   * A point-in-time copy of {@link RaftStats}.
+   *
+   * @param raftMode the mode of the server, or empty if it has not started
+   * @param currentTerm the latest term the server has seen
+   * @param lastLogEntryIndex the index of the last entry in the server's log
+   * @param highestCommittedEntryIndex the index of the highest entry known to be committed
+   * @param highestAppliedEntryIndex the index of the highest entry applied to the storage engine
+   * @param numElectionsStarted the number of elections this server has started as a candidate
+   * @param numLeadershipsAcquired the number of elections this server has won
+   * @param numEntriesApplied the number of entries applied to the storage engine
+   */
+  public record Snapshot(
+      Optional<RaftMode> raftMode,
+      int currentTerm,
+      int lastLogEntryIndex,
+      int highestCommittedEntryIndex,
+      int highestAppliedEntryIndex,
+      long numElectionsStarted,
+      long numLeadershipsAcquired,
+      long numEntriesApplied) {}
+}
@@ -5,6 +5,7 @@ import com.google.common.flogger.FluentLogger;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import com.google.inject.Singleton;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults;
 import jakarta.inject.Inject;
 import java.util.NavigableSet;
@@ -22,13 +23,25 @@ final class RaftSubmissionManager {
   RaftSubmissionManager() {}
 
   /** Adds a new submission for an Entry at the provided index. */
-  ListenableFuture<StorageCommandResults> addNewSubmission(int newEntryIndex) {
+  ListenableFuture<StorageCommandResults> addNewSubmission(int newEntryIndex, CommandTrace trace) {
     SettableFuture<StorageCommandResults> clientSubmitFuture = SettableFuture.create();
-    waitingSubmissions.add(new WaitingSubmission(newEntryIndex, clientSubmitFuture));
+    waitingSubmissions.add(new WaitingSubmission(newEntryIndex, clientSubmitFuture, trace));
     logger.atInfo().log("Added new submission for Entry at index [%d].", newEntryIndex);
     return clientSubmitFuture;
   }
 
+  /**
+   * Marks the submission for the Entry at {@code entryIndex}, if one is waiting, as having started
+   * being applied to the storage engine.
+   */
+  void markSubmissionApplying(int entryIndex) {
+    WaitingSubmission waitingSubmission =
+        waitingSubmissions.ceiling(new WaitingSubmission(entryIndex, null, null));
+    if (waitingSubmission != null && waitingSubmission.entryIndex() == entryIndex) {
+      waitingSubmission.trace().markStorageStarted();
+    }
+  }
+
   /** Completes the submission with {@code results} for the Entry at {@code entryIndex}. */
   void completeSubmission(int entryIndex, StorageCommandResults results) {
     Preconditions.checkState(
@@ -41,6 +54,7 @@ final class RaftSubmissionManager {
             entryIndex, firstSubmission.entryIndex()));
 
     firstSubmission = waitingSubmissions.pollFirst();
+    firstSubmission.trace().markStorageFinished();
     firstSubmission.submissionFuture().set(results);
     logger.atInfo().log("Completed submission for Entry at index [%d].", entryIndex);
   }
@@ -56,7 +70,9 @@ final class RaftSubmissionManager {
 
   /** Holds a submission future that cannot be resolved until the associated entry is applied. */
   private record WaitingSubmission(
-      int entryIndex, SettableFuture<StorageCommandResults> submissionFuture)
+      int entryIndex,
+      SettableFuture<StorageCommandResults> submissionFuture,
+      CommandTrace trace)
       implements Comparable<WaitingSubmission> {
 
     @Override
@@ -0,0 +1,64 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.AppendDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import org.junit.jupiter.api.Test;
+
+public class AppendCommandTest {
+
+  private final AppendDto DTO = new AppendDto("key", "value", 100);
+
+  private final LSMTree lsmTree = mock(LSMTree.class);
+
+  private final AppendCommand command = new AppendCommand(lsmTree, DTO);
+
+  @Test
+  void appendSucceeds_returnsOk() {
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Success.class);
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("OK");
+    verify(lsmTree, times(1)).append(DTO.key(), DTO.value(), DTO.creationEpochSeconds());
+  }
+
+  @Test
+  void appendThrowsStorageException_returnsFailed() {
+    doThrow(StorageException.class)
+        .when(lsmTree)
+        .append(any(ByteString.class), any(ByteString.class), anyLong());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message())
+        .isEqualTo(String.format("Failed to append [%s]:[%s]", DTO.key().toStringUtf8(),
+            DTO.value().toStringUtf8()));
+  }
+
+  @Test
+  void appendThrowsStorageMergeException_returnsFailedWithReason() {
+    doThrow(new StorageMergeException("value would exceed the maximum length"))
+        .when(lsmTree)
+        .append(any(ByteString.class), any(ByteString.class), anyLong());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message())
+        .isEqualTo(String.format("Failed to append [%s]:[%s]: value would exceed the maximum"
+            + " length", DTO.key().toStringUtf8(), DTO.value().toStringUtf8()));
+  }
+}
@@ -2,6 +2,8 @@ package dev.sbutler.bitflask.storage.commands;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link CommandInputValidator}. */
@@ -13,22 +15,23 @@ public class CommandInputValidatorTest {
   }
 
   @Test
-  public void validateKey_blank_throws() {
-    // empty
-    assertThrows(IllegalArgumentException.class, () -> CommandInputValidator.validateKey(""));
-    // whitespace
-    assertThrows(IllegalArgumentException.class, () -> CommandInputValidator.validateKey(" "));
+  public void validateKey_empty_throws() {
+    assertThrows(
+        IllegalArgumentException.class, () -> CommandInputValidator.validateKey(ByteString.EMPTY));
+  }
+
+  @Test
+  public void validateKey_binary_valid() {
+    CommandInputValidator.validateKey(ByteString.copyFrom(new byte[] {0, (byte) 0xFF, ' '}));
   }
 
   @Test
   public void validateKey_tooLong_throws() {
-    char[] chars = new char[CommandInputValidator.KEY_MAX_SIZE + 1];
-    // prevent blank check
-    chars[0] = 'a';
+    byte[] bytes = new byte[CommandInputValidator.KEY_MAX_SIZE + 1];
 
     assertThrows(
         IllegalArgumentException.class,
-        () -> CommandInputValidator.validateKey(String.valueOf(chars)));
+        () -> CommandInputValidator.validateKey(ByteString.copyFrom(bytes)));
   }
 
   @Test
@@ -37,21 +40,62 @@ public class CommandInputValidatorTest {
   }
 
   @Test
-  public void validateValue_blank_throws() {
-    // empty
-    assertThrows(IllegalArgumentException.class, () -> CommandInputValidator.validateValue(""));
-    // whitespace
-    assertThrows(IllegalArgumentException.class, () -> CommandInputValidator.validateValue(" "));
+  public void validateValue_empty_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandInputValidator.validateValue(ByteString.EMPTY));
   }
 
   @Test
   public void validateValue_tooLong_throws() {
-    char[] chars = new char[CommandInputValidator.VALUE_MAX_SIZE + 1];
-    // prevent blank check
-    chars[0] = 'a';
+    byte[] bytes = new byte[CommandInputValidator.VALUE_MAX_SIZE + 1];
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandInputValidator.validateValue(ByteString.copyFrom(bytes)));
+  }
+
+  @Test
+  public void validateBatchOperations_writeAndDelete_valid() {
+    CommandInputValidator.validateBatchOperations(
+        ImmutableList.of(
+            new StorageCommandDto.WriteDto("key", "value"),
+            new StorageCommandDto.DeleteDto("key")));
+  }
+
+  @Test
+  public void validateBatchOperations_empty_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandInputValidator.validateBatchOperations(ImmutableList.of()));
+  }
+
+  @Test
+  public void validateBatchOperations_read_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            CommandInputValidator.validateBatchOperations(
+                ImmutableList.of(new StorageCommandDto.ReadDto("key"))));
+  }
+
+  @Test
+  public void validateKeys_valid() {
+    CommandInputValidator.validateKeys(
+        ImmutableList.of(ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("key1")));
+  }
+
+  @Test
+  public void validateKeys_empty_throws() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> CommandInputValidator.validateKeys(ImmutableList.of()));
+  }
 
+  @Test
+  public void validateKeys_invalidKey_throws() {
     assertThrows(
         IllegalArgumentException.class,
-        () -> CommandInputValidator.validateKey(String.valueOf(chars)));
+        () -> CommandInputValidator.validateKeys(ImmutableList.of(ByteString.EMPTY)));
   }
 }
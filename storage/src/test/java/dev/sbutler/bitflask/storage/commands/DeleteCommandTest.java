@@ -1,10 +1,11 @@
 package dev.sbutler.bitflask.storage.commands;
 
 import static com.google.common.truth.Truth.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto.DeleteDto;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
@@ -25,17 +26,17 @@ public class DeleteCommandTest {
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Success.class);
-    assertThat(((Success) response).message()).isEqualTo("OK");
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("OK");
   }
 
   @Test
   void deleteThrowsStorageException_returnsFailed() {
-    doThrow(StorageException.class).when(lsmTree).delete(anyString());
+    doThrow(StorageException.class).when(lsmTree).delete(any(ByteString.class));
 
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Failed.class);
     assertThat(((Failed) response).message())
-        .isEqualTo(String.format("Failed to delete [%s]", DTO.key()));
+        .isEqualTo(String.format("Failed to delete [%s]", DTO.key().toStringUtf8()));
   }
 }
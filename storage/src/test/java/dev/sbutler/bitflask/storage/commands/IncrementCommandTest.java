@@ -0,0 +1,64 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.IncrementDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import org.junit.jupiter.api.Test;
+
+public class IncrementCommandTest {
+
+  private final IncrementDto DTO = new IncrementDto("key", 5, 100);
+
+  private final LSMTree lsmTree = mock(LSMTree.class);
+
+  private final IncrementCommand command = new IncrementCommand(lsmTree, DTO);
+
+  @Test
+  void incrementSucceeds_returnsOk() {
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Success.class);
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("OK");
+    verify(lsmTree, times(1)).increment(DTO.key(), DTO.delta(), DTO.creationEpochSeconds());
+  }
+
+  @Test
+  void incrementThrowsStorageException_returnsFailed() {
+    doThrow(StorageException.class)
+        .when(lsmTree)
+        .increment(any(ByteString.class), anyLong(), anyLong());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message())
+        .isEqualTo(String.format("Failed to increment [%s] by [%d]", DTO.key().toStringUtf8(),
+            DTO.delta()));
+  }
+
+  @Test
+  void incrementThrowsStorageMergeException_returnsFailedWithReason() {
+    doThrow(new StorageMergeException("value is not an integer or out of range"))
+        .when(lsmTree)
+        .increment(any(ByteString.class), anyLong(), anyLong());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message())
+        .isEqualTo(String.format("Failed to increment [%s] by [%d]: value is not an integer or"
+            + " out of range", DTO.key().toStringUtf8(), DTO.delta()));
+  }
+}
@@ -0,0 +1,60 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.MultiReadDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.MultiSuccess;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class MultiReadCommandTest {
+
+  private static final ByteString KEY_0 = ByteString.copyFromUtf8("key0");
+  private static final ByteString KEY_1 = ByteString.copyFromUtf8("key1");
+  private static final ByteString VALUE = ByteString.copyFromUtf8("value");
+
+  private final MultiReadDto DTO = new MultiReadDto(ImmutableList.of(KEY_1, KEY_0, KEY_1));
+
+  private final LSMTree lsmTree = mock(LSMTree.class);
+
+  private final MultiReadCommand command = new MultiReadCommand(lsmTree, DTO);
+
+  @Test
+  void readSucceeds_returnsValuesInKeyOrder() {
+    when(lsmTree.readAll(any()))
+        .thenReturn(
+            ImmutableSortedMap.<ByteString, ByteString>orderedBy(Entry.KEY_COMPARATOR)
+                .put(KEY_1, VALUE)
+                .build());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(MultiSuccess.class);
+    assertThat(((MultiSuccess) response).values())
+        .containsExactly(Optional.of(VALUE), Optional.empty(), Optional.of(VALUE))
+        .inOrder();
+  }
+
+  @Test
+  void readThrowsStorageException_returnsFailed() {
+    when(lsmTree.readAll(any())).thenThrow(StorageException.class);
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message()).isEqualTo("Failed to read [3] keys");
+  }
+}
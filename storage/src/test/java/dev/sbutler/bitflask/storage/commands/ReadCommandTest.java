@@ -1,10 +1,11 @@
 package dev.sbutler.bitflask.storage.commands;
 
 import static com.google.common.truth.Truth.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto.ReadDto;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
@@ -26,33 +27,33 @@ public class ReadCommandTest {
 
   @Test
   public void valueFound() {
-    when(lsmTree.read(anyString())).thenReturn(Optional.of("value"));
+    when(lsmTree.read(any(ByteString.class))).thenReturn(Optional.of(ByteString.copyFromUtf8("value")));
 
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Success.class);
-    assertThat(((Success) response).message()).isEqualTo("value");
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("value");
   }
 
   @Test
   public void valueNotFound() {
-    when(lsmTree.read(anyString())).thenReturn(Optional.empty());
+    when(lsmTree.read(any(ByteString.class))).thenReturn(Optional.empty());
 
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Success.class);
-    assertThat(((Success) response).message())
-        .isEqualTo(String.format("[%s] not found", DTO.key()));
+    assertThat(((Success) response).message().toStringUtf8())
+        .isEqualTo(String.format("[%s] not found", DTO.key().toStringUtf8()));
   }
 
   @Test
   public void readThrowsStorageException_returnsFailed() {
-    when(lsmTree.read(anyString())).thenThrow(StorageException.class);
+    when(lsmTree.read(any(ByteString.class))).thenThrow(StorageException.class);
 
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Failed.class);
     assertThat(((Failed) response).message())
-        .isEqualTo(String.format("Failed to read [%s]", DTO.key()));
+        .isEqualTo(String.format("Failed to read [%s]", DTO.key().toStringUtf8()));
   }
 }
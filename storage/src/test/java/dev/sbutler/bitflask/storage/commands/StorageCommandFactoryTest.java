@@ -3,6 +3,8 @@ package dev.sbutler.bitflask.storage.commands;
 import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.mock;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.lsm.LSMTree;
 import org.junit.jupiter.api.Test;
 
@@ -39,4 +41,43 @@ public class StorageCommandFactoryTest {
 
     assertThat(command).isInstanceOf(DeleteCommand.class);
   }
+
+  @Test
+  public void create_provided_incrementDTO_returnsIncrementCommand() {
+    StorageCommandDto.IncrementDto dto = new StorageCommandDto.IncrementDto("key", 1, 100);
+
+    StorageCommand command = storageCommandFactory.create(dto);
+
+    assertThat(command).isInstanceOf(IncrementCommand.class);
+  }
+
+  @Test
+  public void create_provided_appendDTO_returnsAppendCommand() {
+    StorageCommandDto.AppendDto dto = new StorageCommandDto.AppendDto("key", "value", 100);
+
+    StorageCommand command = storageCommandFactory.create(dto);
+
+    assertThat(command).isInstanceOf(AppendCommand.class);
+  }
+
+  @Test
+  public void create_provided_writeBatchDTO_returnsWriteBatchCommand() {
+    StorageCommandDto.WriteBatchDto dto =
+        new StorageCommandDto.WriteBatchDto(
+            ImmutableList.of(new StorageCommandDto.WriteDto("key", "value")));
+
+    StorageCommand command = storageCommandFactory.create(dto);
+
+    assertThat(command).isInstanceOf(WriteBatchCommand.class);
+  }
+
+  @Test
+  public void create_provided_multiReadDTO_returnsMultiReadCommand() {
+    StorageCommandDto.MultiReadDto dto =
+        new StorageCommandDto.MultiReadDto(ImmutableList.of(ByteString.copyFromUtf8("key")));
+
+    StorageCommand command = storageCommandFactory.create(dto);
+
+    assertThat(command).isInstanceOf(MultiReadCommand.class);
+  }
 }
@@ -0,0 +1,57 @@
+package dev.sbutler.bitflask.storage.commands;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.DeleteDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.WriteBatchDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.WriteDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
+import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.WriteBatchOperation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBatchCommandTest {
+
+  private final WriteBatchDto DTO =
+      new WriteBatchDto(ImmutableList.of(new WriteDto("key0", "value0"), new DeleteDto("key1")));
+
+  private final LSMTree lsmTree = mock(LSMTree.class);
+
+  private final WriteBatchCommand command = new WriteBatchCommand(lsmTree, DTO);
+
+  @Test
+  void writeBatchSucceeds_returnsOk() {
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Success.class);
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("OK");
+    verify(lsmTree)
+        .writeBatch(
+            ImmutableList.of(
+                WriteBatchOperation.put(
+                    ByteString.copyFromUtf8("key0"), ByteString.copyFromUtf8("value0")),
+                WriteBatchOperation.delete(ByteString.copyFromUtf8("key1"))));
+  }
+
+  @Test
+  void writeBatchThrowsStorageException_returnsFailed() {
+    doThrow(StorageException.class).when(lsmTree).writeBatch(any());
+
+    StorageCommandResults response = command.execute();
+
+    assertThat(response).isInstanceOf(Failed.class);
+    assertThat(((Failed) response).message())
+        .isEqualTo("Failed to write batch of [2] operations");
+  }
+}
@@ -1,10 +1,13 @@
 package dev.sbutler.bitflask.storage.commands;
 
 import static com.google.common.truth.Truth.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto.WriteDto;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Failed;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults.Success;
@@ -28,17 +31,31 @@ public class WriteCommandTest {
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Success.class);
-    assertThat(((Success) response).message()).isEqualTo("OK");
+    assertThat(((Success) response).message().toStringUtf8()).isEqualTo("OK");
+  }
+
+  @Test
+  void writeWithExpiry_passesExpiry() {
+    WriteDto dto = new WriteDto(DTO.key(), DTO.value(), 100L);
+
+    StorageCommandResults response = new WriteCommand(lsmTree, dto).execute();
+
+    assertThat(response).isInstanceOf(Success.class);
+    verify(lsmTree).write(DTO.key(), DTO.value(), 100L);
   }
 
   @Test
   void writeThrowsStorageException_returnsFailed() {
-    doThrow(StorageException.class).when(lsmTree).write(anyString(), anyString());
+    doThrow(StorageException.class)
+        .when(lsmTree)
+        .write(any(ByteString.class), any(ByteString.class), anyLong());
 
     StorageCommandResults response = command.execute();
 
     assertThat(response).isInstanceOf(Failed.class);
     assertThat(((Failed) response).message())
-        .isEqualTo(String.format("Failed to write [%s]:[%s]", DTO.key(), DTO.value()));
+        .isEqualTo(
+            String.format(
+                "Failed to write [%s]:[%s]", DTO.key().toStringUtf8(), DTO.value().toStringUtf8()));
   }
 }
@@ -0,0 +1,95 @@
+package dev.sbutler.bitflask.storage.integration;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.common.concurrency.VirtualThreadConcurrencyModule;
+import dev.sbutler.bitflask.config.ConfigDefaults;
+import dev.sbutler.bitflask.config.ConfigModule;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.StorageService;
+import dev.sbutler.bitflask.storage.StorageServiceModule;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.ReadDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandDto.WriteDto;
+import dev.sbutler.bitflask.storage.commands.StorageCommandFactory;
+import dev.sbutler.bitflask.storage.commands.StorageCommandResults;
+import dev.sbutler.bitflask.storage.lsm.LSMTree;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Writes and reads values larger than the blob value threshold through the storage commands,
+ * without replication, so that they are separated into blob files when flushed.
+ */
+public class LargeValueTest {
+
+  private static final int VALUE_NUM_BYTES = 2 * 1024 * 1024;
+
+  @Test
+  public void writeAndRead_valueLargerThanBlobThreshold(@TempDir Path tempDir) throws Exception {
+    StorageConfig storageConfig =
+        ConfigDefaults.STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(tempDir.toString())
+            .setCompactorExecutionDelayMilliseconds(100)
+            .build();
+    Injector injector =
+        Guice.createInjector(
+            new ConfigModule(
+                ConfigDefaults.BITFLASK_CONFIG.toBuilder()
+                    .setStorageConfig(storageConfig)
+                    .build()),
+            new VirtualThreadConcurrencyModule(),
+            new StorageServiceModule());
+    StorageService storageService = injector.getInstance(StorageService.class);
+    storageService.startAsync().awaitRunning(Duration.ofSeconds(5));
+    try {
+      StorageCommandFactory commandFactory = injector.getInstance(StorageCommandFactory.class);
+      LSMTree lsmTree = injector.getInstance(LSMTree.class);
+      byte[] valueBytes = new byte[VALUE_NUM_BYTES];
+      new Random(0).nextBytes(valueBytes);
+      ByteString value = ByteString.copyFrom(valueBytes);
+      assertThat(value.size()).isGreaterThan(storageConfig.getBlobValueThresholdBytes());
+
+      StorageCommandResults writeResults =
+          commandFactory.create(new WriteDto(ByteString.copyFromUtf8("key"), value)).execute();
+      StorageCommandResults memtableReadResults =
+          commandFactory.create(new ReadDto("key")).execute();
+      awaitMemtableFlushed(lsmTree);
+      StorageCommandResults segmentReadResults =
+          commandFactory.create(new ReadDto("key")).execute();
+
+      assertThat(writeResults).isEqualTo(new StorageCommandResults.Success("OK"));
+      assertThat(memtableReadResults).isEqualTo(new StorageCommandResults.Success(value));
+      assertThat(segmentReadResults).isEqualTo(new StorageCommandResults.Success(value));
+      try (Stream<Path> files = Files.list(tempDir)) {
+        assertThat(
+                files.anyMatch(
+                    file -> file.getFileName().toString().startsWith(BlobFile.FILE_PREFIX)))
+            .isTrue();
+      }
+    } finally {
+      storageService.stopAsync().awaitTerminated(Duration.ofSeconds(5));
+      MoreExecutors.shutdownAndAwaitTermination(
+          injector.getInstance(ListeningExecutorService.class), Duration.ofSeconds(5));
+    }
+  }
+
+  private static void awaitMemtableFlushed(LSMTree lsmTree) throws InterruptedException {
+    Instant deadline = Instant.now().plusSeconds(10);
+    while (lsmTree.getStats().numFlushes() == 0) {
+      assertThat(Instant.now()).isLessThan(deadline);
+      Thread.sleep(50);
+    }
+  }
+}
@@ -33,7 +33,7 @@ public class StorageTest {
     StorageCommandDto dto = new WriteDto("key", "value");
     ClientCommand command = clientCommandFactory.create(dto);
 
-    ClientCommandResults.Success response = getResponseAsSuccess(command.execute());
+    ClientCommandResults.Success response = getResponseAsSuccess(execute(command));
 
     assertThat(response.message()).isEqualTo("OK");
   }
@@ -43,7 +43,7 @@ public class StorageTest {
     StorageCommandDto dto = new ReadDto("unknownKey");
     ClientCommand command = clientCommandFactory.create(dto);
 
-    ClientCommandResults.Success response = getResponseAsSuccess(command.execute());
+    ClientCommandResults.Success response = getResponseAsSuccess(execute(command));
 
     assertThat(response.message()).isEqualTo("[unknownKey] not found");
   }
@@ -55,8 +55,8 @@ public class StorageTest {
     StorageCommandDto readDto = new ReadDto("key");
     ClientCommand readCommand = clientCommandFactory.create(readDto);
 
-    ClientCommandResults.Success writeResponse = getResponseAsSuccess(writeCommand.execute());
-    ClientCommandResults.Success readResponse = getResponseAsSuccess(readCommand.execute());
+    ClientCommandResults.Success writeResponse = getResponseAsSuccess(execute(writeCommand));
+    ClientCommandResults.Success readResponse = getResponseAsSuccess(execute(readCommand));
 
     assertThat(writeResponse.message()).isEqualTo("OK");
     assertThat(readResponse.message()).isEqualTo("value");
@@ -71,9 +71,9 @@ public class StorageTest {
     StorageCommandDto readDto = new ReadDto("key");
     ClientCommand readCommand = clientCommandFactory.create(readDto);
 
-    ClientCommandResults.Success writeResponse = getResponseAsSuccess(writeCommand.execute());
-    ClientCommandResults.Success deleteResponse = getResponseAsSuccess(deleteCommand.execute());
-    ClientCommandResults.Success readResponse = getResponseAsSuccess(readCommand.execute());
+    ClientCommandResults.Success writeResponse = getResponseAsSuccess(execute(writeCommand));
+    ClientCommandResults.Success deleteResponse = getResponseAsSuccess(execute(deleteCommand));
+    ClientCommandResults.Success readResponse = getResponseAsSuccess(execute(readCommand));
 
     assertThat(writeResponse.message()).isEqualTo("OK");
     assertThat(deleteResponse.message()).isEqualTo("OK");
@@ -92,7 +92,7 @@ public class StorageTest {
     var responseFutures =
         dtos.stream()
             .map(clientCommandFactory::create)
-            .map(command -> Futures.submit(command::execute, listeningExecutorService))
+            .map(command -> Futures.submit(() -> execute(command), listeningExecutorService))
             .collect(toImmutableList());
 
     Futures.whenAllSucceed(responseFutures)
@@ -106,6 +106,10 @@ public class StorageTest {
             listeningExecutorService);
   }
 
+  private static ClientCommandResults execute(ClientCommand command) {
+    return command.execute(new CommandTrace());
+  }
+
   private static ClientCommandResults.Success getResponseAsSuccess(ClientCommandResults response) {
     assertThat(response).isInstanceOf(ClientCommandResults.Success.class);
     return (ClientCommandResults.Success) response;
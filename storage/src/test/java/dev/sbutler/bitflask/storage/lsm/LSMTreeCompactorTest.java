@@ -4,16 +4,21 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
-import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageCompactionException;
 import dev.sbutler.bitflask.storage.lsm.LSMTreeStateManager.CurrentState;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.memtable.MemtableFactory;
@@ -21,9 +26,17 @@ import dev.sbutler.bitflask.storage.lsm.segment.Segment;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentFactory;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelCompactor;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.MemtableFlushEvent;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /** Unit tests for {@link LSMTreeCompactor}. */
 public class LSMTreeCompactorTest {
@@ -48,10 +61,17 @@ public class LSMTreeCompactorTest {
   private final SegmentLevelCompactor segmentLevelCompactor = mock(SegmentLevelCompactor.class);
   private final MemtableFactory memtableFactory = mock(MemtableFactory.class);
   private final SegmentFactory segmentFactory = mock(SegmentFactory.class);
+  private final BlobStore blobStore = mock(BlobStore.class);
 
   private final LSMTreeCompactor compactor =
       new LSMTreeCompactor(
-          STORAGE_CONFIG, stateManager, segmentLevelCompactor, memtableFactory, segmentFactory);
+          STORAGE_CONFIG,
+          stateManager,
+          segmentLevelCompactor,
+          memtableFactory,
+          segmentFactory,
+          blobStore,
+          new StorageStats());
 
   @Test
   public void run_memtableNotFlushed() {
@@ -110,15 +130,56 @@ public class LSMTreeCompactorTest {
     CurrentState currentState = stateManager.getCurrentState();
     assertThat(currentState.getMemtable()).isEqualTo(newMemtable);
     assertThat(currentState.getSegmentLevelMultiMap()).isEqualTo(newSegmentLevelMultiMap);
+    verify(memtable, times(1)).close();
+    verify(newMemtable, times(0)).close();
+  }
+
+  @Test
+  public void flushMemtable_segmentCreated_memtableFlushEventCommitted(@TempDir Path tempDir)
+      throws Exception {
+    mockMemtableFlushed(mock(Memtable.class), mock(SegmentLevelMultiMap.class));
+    when(segment.getSegmentNumber()).thenReturn(7L);
+    when(segment.getNumBytesSize()).thenReturn(128L);
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(MemtableFlushEvent.class);
+      recording.start();
+      compactor.flushMemtable();
+      recording.stop();
+      Path recordingPath = tempDir.resolve("flush.jfr");
+      recording.dump(recordingPath);
+      events = RecordingFile.readAllEvents(recordingPath);
+    }
+
+    assertThat(events).hasSize(1);
+    RecordedEvent event = events.getFirst();
+    assertThat(event.getInt("numEntries")).isEqualTo(1);
+    assertThat(event.getLong("segmentNumber")).isEqualTo(7L);
+    assertThat(event.getLong("segmentNumBytes")).isEqualTo(128L);
+  }
+
+  @Test
+  public void flushMemtable_closingFlushedMemtableThrowsIOException_returnsTrue()
+      throws Exception {
+    Memtable newMemtable = mock(Memtable.class);
+    SegmentLevelMultiMap newSegmentLevelMultiMap = mock(SegmentLevelMultiMap.class);
+    mockMemtableFlushed(newMemtable, newSegmentLevelMultiMap);
+    doThrow(IOException.class).when(memtable).close();
+
+    boolean memtableFlushed = compactor.flushMemtable();
+
+    assertThat(memtableFlushed).isTrue();
+    assertThat(stateManager.getCurrentState().getMemtable()).isEqualTo(newMemtable);
   }
 
   @Test
   public void flushMemtable_segmentFactoryThrowsIOException_throwsStorageCompactionException()
       throws Exception {
-    when(memtable.flush()).thenReturn(ImmutableSortedMap.of(ENTRY_0.key(), ENTRY_0));
+    when(memtable.flush()).thenReturn(ImmutableSortedMap.copyOf(ImmutableMap.of(ENTRY_0.key(), ENTRY_0), Entry.KEY_COMPARATOR));
     when(memtable.getNumBytesSize()).thenReturn(MEMTABLE_FLUSH_THRESHOLD);
     IOException ioException = new IOException("test");
-    when(segmentFactory.create(any(), anyInt(), anyLong())).thenThrow(ioException);
+    when(segmentFactory.create(any(), anyInt())).thenThrow(ioException);
 
     StorageCompactionException exception =
         assertThrows(StorageCompactionException.class, compactor::flushMemtable);
@@ -149,6 +210,7 @@ public class LSMTreeCompactorTest {
     compactor.compactSegmentLevels();
 
     verify(segmentLevelCompactor, times(0)).compactSegmentLevel(any(), anyInt());
+    verify(blobStore, times(0)).deleteUnreferenced(any());
 
     CurrentState currentState = stateManager.getCurrentState();
     assertThat(currentState.getMemtable()).isEqualTo(memtable);
@@ -163,17 +225,35 @@ public class LSMTreeCompactorTest {
     compactor.compactSegmentLevels();
 
     verify(segmentLevelCompactor, times(1)).compactSegmentLevel(any(), anyInt());
+    verify(blobStore, times(1)).deleteUnreferenced(ImmutableSet.of(0L));
 
     CurrentState currentState = stateManager.getCurrentState();
     assertThat(currentState.getMemtable()).isEqualTo(memtable);
     assertThat(currentState.getSegmentLevelMultiMap()).isEqualTo(newSegmentLevelMultiMap);
   }
 
+  @Test
+  public void compactSegmentLevels_compactionPerformed_compactedSegmentsClosed() throws Exception {
+    Segment compactedSegment = mock(Segment.class);
+    SegmentLevelMultiMap newSegmentLevelMultiMap = mock(SegmentLevelMultiMap.class);
+    mockFirstSegmentLevelOverThreshold(segmentLevelMultiMap, newSegmentLevelMultiMap);
+    when(segmentLevelMultiMap.getSegmentLevels()).thenReturn(ImmutableSet.of(0));
+    when(segmentLevelMultiMap.getSegmentsInLevel(0))
+        .thenReturn(ImmutableList.of(compactedSegment, segment));
+    when(newSegmentLevelMultiMap.getSegmentLevels()).thenReturn(ImmutableSet.of(1));
+    when(newSegmentLevelMultiMap.getSegmentsInLevel(1)).thenReturn(ImmutableList.of(segment));
+
+    compactor.compactSegmentLevels();
+
+    verify(compactedSegment, times(1)).close();
+    verify(segment, times(0)).close();
+  }
+
   private void mockMemtableFlushed(
       Memtable newMemtable, SegmentLevelMultiMap newSegmentLevelMultiMap) throws Exception {
-    when(memtable.flush()).thenReturn(ImmutableSortedMap.of(ENTRY_0.key(), ENTRY_0));
+    when(memtable.flush()).thenReturn(ImmutableSortedMap.copyOf(ImmutableMap.of(ENTRY_0.key(), ENTRY_0), Entry.KEY_COMPARATOR));
     when(memtable.getNumBytesSize()).thenReturn(MEMTABLE_FLUSH_THRESHOLD);
-    when(segmentFactory.create(any(), anyInt(), anyLong())).thenReturn(segment);
+    when(segmentFactory.create(any(), anyInt())).thenReturn(segment);
     when(memtableFactory.create()).thenReturn(newMemtable);
     SegmentLevelMultiMap.Builder builder = mock(SegmentLevelMultiMap.Builder.class);
     when(builder.add(any())).thenReturn(builder);
@@ -188,6 +268,9 @@ public class LSMTreeCompactorTest {
 
     when(newMap.getNumBytesSizeOfSegmentLevel(anyInt()))
         .thenReturn(SEGMENT_LEVEL_FLUSH_THRESHOLD - 1);
+    when(newMap.getBlobReferencedBytes()).thenReturn(ImmutableMap.of(0L, 1L));
+    when(overThresholdMap.getSegmentLevels()).thenReturn(ImmutableSet.of());
+    when(newMap.getSegmentLevels()).thenReturn(ImmutableSet.of());
     when(segmentLevelCompactor.compactSegmentLevel(any(), anyInt())).thenReturn(newMap);
   }
 }
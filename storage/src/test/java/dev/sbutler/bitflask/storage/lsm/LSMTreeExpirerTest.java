@@ -0,0 +1,27 @@
+package dev.sbutler.bitflask.storage.lsm;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link LSMTreeExpirer}. */
+public class LSMTreeExpirerTest {
+
+  private final Memtable memtable = mock(Memtable.class);
+  private final LSMTreeStateManager stateManager =
+      new LSMTreeStateManager(memtable, mock(SegmentLevelMultiMap.class));
+
+  private final LSMTreeExpirer expirer = new LSMTreeExpirer(stateManager);
+
+  @Test
+  public void run_expiresCurrentMemtableEntries() {
+    expirer.run();
+
+    verify(memtable, times(1)).expireEntries(anyLong());
+  }
+}
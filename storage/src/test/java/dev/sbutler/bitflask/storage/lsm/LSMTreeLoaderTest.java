@@ -8,6 +8,7 @@ import static org.mockito.Mockito.verify;
 
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStoreLoader;
 import dev.sbutler.bitflask.storage.lsm.memtable.MemtableLoader;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMapLoader;
 import java.time.Duration;
@@ -23,9 +24,11 @@ public class LSMTreeLoaderTest {
       mock(ListeningScheduledExecutorService.class);
   private final LSMTreeStateManager stateManager = mock(LSMTreeStateManager.class);
   private final LSMTreeCompactor compactor = mock(LSMTreeCompactor.class);
+  private final LSMTreeExpirer expirer = mock(LSMTreeExpirer.class);
   private final MemtableLoader memtableLoader = mock(MemtableLoader.class);
   private final SegmentLevelMultiMapLoader segmentLevelMultiMapLoader =
       mock(SegmentLevelMultiMapLoader.class);
+  private final BlobStoreLoader blobStoreLoader = mock(BlobStoreLoader.class);
 
   private final LSMTreeLoader loader =
       new LSMTreeLoader(
@@ -33,8 +36,10 @@ public class LSMTreeLoaderTest {
           scheduledExecutorService,
           stateManager,
           compactor,
+          expirer,
           memtableLoader,
-          segmentLevelMultiMapLoader);
+          segmentLevelMultiMapLoader,
+          blobStoreLoader);
 
   @Test
   public void load_success() {
@@ -42,10 +47,16 @@ public class LSMTreeLoaderTest {
 
     verify(memtableLoader, times(1)).load();
     verify(segmentLevelMultiMapLoader, times(1)).load();
+    verify(blobStoreLoader, times(1)).load();
 
     verify(stateManager, times(1)).getAndLockCurrentState();
     verify(stateManager, times(1)).updateCurrentState(any(), any());
     verify(scheduledExecutorService, times(1))
         .scheduleWithFixedDelay(eq(compactor), any(Duration.class), any(Duration.class));
+    verify(scheduledExecutorService, times(1))
+        .scheduleWithFixedDelay(
+            expirer,
+            LSMTreeLoader.EXPIRER_EXECUTION_DELAY,
+            LSMTreeLoader.EXPIRER_EXECUTION_DELAY);
   }
 }
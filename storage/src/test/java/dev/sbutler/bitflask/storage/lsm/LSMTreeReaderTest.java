@@ -1,23 +1,43 @@
 package dev.sbutler.bitflask.storage.lsm;
 
 import static com.google.common.truth.Truth8.assertThat;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.truth.Truth;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.StorageConfig.SegmentReadMode;
+import dev.sbutler.bitflask.storage.exceptions.StorageReadException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.memtable.MemtableTestHelper;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.ReadTrace;
+import dev.sbutler.bitflask.storage.lsm.stats.SegmentProbeEvent;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class LSMTreeReaderTest {
 
@@ -30,8 +50,21 @@ public class LSMTreeReaderTest {
       ImmutableListMultimap.of(0, SEGMENT_0, 1, SEGMENT_1)).build();
 
   LSMTreeStateManager stateManager = new LSMTreeStateManager(MEMTABLE, MULTI_MAP);
+  StorageStats stats = new StorageStats();
 
-  LSMTreeReader reader = new LSMTreeReader(stateManager, Thread.ofVirtual().factory());
+  LSMTreeReader reader = new LSMTreeReader(
+      stateManager,
+      Thread.ofVirtual().factory(),
+      SegmentReadMode.BLOCKING,
+      LSMTreeReader.DEFAULT_INLINE_READ_THRESHOLD,
+      stats);
+
+  LSMTreeReader asyncReader = new LSMTreeReader(
+      stateManager,
+      Thread.ofVirtual().factory(),
+      SegmentReadMode.ASYNC,
+      LSMTreeReader.DEFAULT_INLINE_READ_THRESHOLD,
+      stats);
 
   @BeforeEach
   public void beforeEach() {
@@ -58,28 +91,383 @@ public class LSMTreeReaderTest {
 
   @Test
   public void read_entryInLevelZeroSegment() throws IOException {
-    when(SEGMENT_0.mightContain(anyString())).thenReturn(true);
-    when(SEGMENT_0.readEntry(anyString())).thenReturn(Optional.of(ENTRY_0));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.of(ENTRY_0));
 
-    Optional<Entry> readValue = reader.read("key");
+    Optional<Entry> readValue = reader.read(ENTRY_0.key());
 
     assertThat(readValue).hasValue(ENTRY_0);
-    verify(SEGMENT_1, times(0)).mightContain(anyString());
-    verify(SEGMENT_1, times(0)).readEntry(anyString());
+    verify(SEGMENT_1, times(0)).mightContain(any(ByteString.class));
+    verify(SEGMENT_1, times(0)).readEntry(any(ByteString.class));
   }
 
   @Test
   public void read_entryInLevelOneSegment() throws IOException {
-    when(SEGMENT_0.mightContain(anyString())).thenReturn(false);
-    when(SEGMENT_1.mightContain(anyString())).thenReturn(true);
-    when(SEGMENT_1.readEntry(anyString())).thenReturn(Optional.of(ENTRY_0));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(false);
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntry(any(ByteString.class))).thenReturn(Optional.of(ENTRY_0));
+
+    Optional<Entry> readValue = reader.read(ENTRY_0.key());
+
+    assertThat(readValue).hasValue(ENTRY_0);
+    verify(SEGMENT_0, times(1)).mightContain(any(ByteString.class));
+    verify(SEGMENT_0, times(0)).readEntry(any(ByteString.class));
+    verify(SEGMENT_1, times(1)).mightContain(any(ByteString.class));
+    verify(SEGMENT_1, times(1)).readEntry(any(ByteString.class));
+  }
+
+  @Test
+  public void read_statsRecorded() throws IOException {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.empty());
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntry(any(ByteString.class))).thenReturn(Optional.of(ENTRY_0));
+
+    reader.read(ENTRY_0.key());
+
+    StorageStats.Snapshot snapshot = stats.snapshot(ImmutableListMultimap.of());
+    Truth.assertThat(snapshot.numReads()).isEqualTo(1);
+    Truth.assertThat(snapshot.getReadAmplification()).isEqualTo(2);
+    Truth.assertThat(snapshot.bloomFilterPositive()).isEqualTo(2);
+    Truth.assertThat(snapshot.bloomFilterFalsePositive()).isEqualTo(1);
+  }
+
+  @Test
+  public void read_segmentProbeEventCommitted(@TempDir Path tempDir) throws IOException {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.empty());
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(false);
+
+    List<RecordedEvent> events;
+    try (Recording recording = new Recording()) {
+      recording.enable(SegmentProbeEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      reader.read(ENTRY_0.key());
+      recording.stop();
+      Path recordingPath = tempDir.resolve("read.jfr");
+      recording.dump(recordingPath);
+      events = RecordingFile.readAllEvents(recordingPath);
+    }
+
+    Truth.assertThat(events).hasSize(1);
+    RecordedEvent event = events.getFirst();
+    Truth.assertThat(event.getInt("numFilterChecks")).isEqualTo(2);
+    Truth.assertThat(event.getInt("numFilterNegatives")).isEqualTo(1);
+    Truth.assertThat(event.getInt("numSegmentsRead")).isEqualTo(1);
+    Truth.assertThat(event.getInt("numFilterFalsePositives")).isEqualTo(1);
+    Truth.assertThat(event.getBoolean("found")).isFalse();
+  }
+
+  @Test
+  public void read_withReadTrace_segmentProbesRecorded() throws IOException {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.empty());
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(false);
+    ReadTrace readTrace = new ReadTrace();
+
+    Optional<Entry> readValue = readTrace.trace(() -> reader.read(ENTRY_0.key()));
+
+    assertThat(readValue).isEmpty();
+    Truth.assertThat(readTrace.getNumFilterChecks()).isEqualTo(2);
+    Truth.assertThat(readTrace.getNumFilterNegatives()).isEqualTo(1);
+    Truth.assertThat(readTrace.getNumSegmentsRead()).isEqualTo(1);
+    Truth.assertThat(readTrace.getNumFilterFalsePositives()).isEqualTo(1);
+    Truth.assertThat(ReadTrace.current().isPresent()).isFalse();
+  }
+
+  @Test
+  public void read_sameLevelSegmentsBelowThreshold_newestSegmentProbedInline() throws Exception {
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntry(any(ByteString.class))).thenReturn(Optional.of(ENTRY_0));
+
+    Optional<Entry> readValue = reader.read(ENTRY_0.key());
+
+    assertThat(readValue).hasValue(ENTRY_0);
+    verify(SEGMENT_0, times(0)).readEntry(any(ByteString.class));
+  }
+
+  @Test
+  public void read_sameLevelSegmentsAboveThreshold_newestSegmentEntryReturned() throws Exception {
+    LSMTreeReader forkingReader =
+        new LSMTreeReader(
+            stateManager, Thread.ofVirtual().factory(), SegmentReadMode.BLOCKING, 0, stats);
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    Entry olderEntry = new Entry(ENTRY_0.creationEpochSeconds(), "key0", "older");
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.of(olderEntry));
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntry(any(ByteString.class))).thenReturn(Optional.of(ENTRY_0));
+
+    Optional<Entry> readValue = forkingReader.read(ENTRY_0.key());
+
+    assertThat(readValue).hasValue(ENTRY_0);
+    verify(SEGMENT_0, times(1)).readEntry(any(ByteString.class));
+    verify(segment2, times(1)).readEntry(any(ByteString.class));
+  }
+
+  @Test
+  public void read_segmentThrowsIOException_throwsStorageReadException() throws Exception {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenThrow(new IOException("test"));
+
+    StorageReadException e =
+        assertThrows(StorageReadException.class, () -> reader.read(ENTRY_0.key()));
+
+    Truth.assertThat(e).hasCauseThat().isInstanceOf(IOException.class);
+  }
+
+  @Test
+  public void read_asyncMode_newestSegmentEntryReturned() throws Exception {
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    Entry olderEntry = new Entry(ENTRY_0.creationEpochSeconds(), "key0", "older");
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntryAsync(any(ByteString.class)))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(olderEntry)));
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntryAsync(any(ByteString.class)))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(ENTRY_0)));
+
+    Optional<Entry> readValue = asyncReader.read(ENTRY_0.key());
 
-    Optional<Entry> readValue = reader.read("key");
+    assertThat(readValue).hasValue(ENTRY_0);
+    verify(SEGMENT_0, times(0)).readEntry(any(ByteString.class));
+    verify(segment2, times(0)).readEntry(any(ByteString.class));
+  }
+
+  @Test
+  public void read_asyncMode_entryInLevelOneSegment() throws Exception {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntryAsync(any(ByteString.class)))
+        .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntryAsync(any(ByteString.class)))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(ENTRY_0)));
+
+    Optional<Entry> readValue = asyncReader.read(ENTRY_0.key());
 
     assertThat(readValue).hasValue(ENTRY_0);
-    verify(SEGMENT_0, times(1)).mightContain(anyString());
-    verify(SEGMENT_0, times(0)).readEntry(anyString());
-    verify(SEGMENT_1, times(1)).mightContain(anyString());
-    verify(SEGMENT_1, times(1)).readEntry(anyString());
+  }
+
+  @Test
+  public void read_asyncMode_segmentReadFails_throwsStorageReadException() {
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntryAsync(any(ByteString.class)))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("test")));
+
+    StorageReadException e =
+        assertThrows(StorageReadException.class, () -> asyncReader.read(ENTRY_0.key()));
+
+    Truth.assertThat(e).hasCauseThat().isInstanceOf(IOException.class);
+    verify(SEGMENT_1, times(0)).mightContain(any(ByteString.class));
+  }
+
+  @Test
+  public void construction_negativeInlineReadThreshold_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                new LSMTreeReader(
+                    stateManager,
+                    Thread.ofVirtual().factory(),
+                    SegmentReadMode.BLOCKING,
+                    -1,
+                    stats));
+
+    Truth.assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("Inline read threshold must be non-negative. Provided [-1]");
+  }
+
+  @Test
+  public void readAll() throws Exception {
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    Entry entry2 = new Entry(Instant.now().getEpochSecond(), "key2", "value2");
+    ByteString absentKey = ByteString.copyFromUtf8("key3");
+    MEMTABLE.write(ENTRY_0);
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntries(any())).thenReturn(ImmutableMap.of(entry1.key(), entry1));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntries(any())).thenReturn(ImmutableMap.of(entry2.key(), entry2));
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        reader.readAll(ImmutableList.of(absentKey, entry2.key(), entry1.key(), ENTRY_0.key()));
+
+    Truth.assertThat(entries)
+        .containsExactly(ENTRY_0.key(), ENTRY_0, entry1.key(), entry1, entry2.key(), entry2)
+        .inOrder();
+    verify(SEGMENT_0, times(1))
+        .readEntries(ImmutableList.of(entry1.key(), entry2.key(), absentKey));
+    verify(SEGMENT_1, times(1)).readEntries(ImmutableList.of(entry2.key(), absentKey));
+  }
+
+  @Test
+  public void readAll_allInMemtable_segmentsNotProbed() throws Exception {
+    MEMTABLE.write(ENTRY_0);
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        reader.readAll(ImmutableList.of(ENTRY_0.key()));
+
+    Truth.assertThat(entries).containsExactly(ENTRY_0.key(), ENTRY_0);
+    verify(SEGMENT_0, times(0)).readEntries(any());
+    verify(SEGMENT_1, times(0)).readEntries(any());
+  }
+
+  @Test
+  public void readAll_sameLevelSegments_newestEntryReturned() throws Exception {
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    Entry olderEntry = new Entry(ENTRY_0.creationEpochSeconds() - 1, "key0", "older");
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntries(any())).thenReturn(ImmutableMap.of(ENTRY_0.key(), olderEntry));
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntries(any())).thenReturn(ImmutableMap.of(ENTRY_0.key(), ENTRY_0));
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        reader.readAll(ImmutableList.of(ENTRY_0.key()));
+
+    Truth.assertThat(entries).containsExactly(ENTRY_0.key(), ENTRY_0);
+  }
+
+  @Test
+  public void readAll_sameLevelSegmentsBelowThreshold_olderSegmentReadForRemainingKeys()
+      throws Exception {
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntries(any())).thenReturn(ImmutableMap.of(entry1.key(), entry1));
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntries(any())).thenReturn(ImmutableMap.of(ENTRY_0.key(), ENTRY_0));
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        reader.readAll(ImmutableList.of(ENTRY_0.key(), entry1.key()));
+
+    Truth.assertThat(entries)
+        .containsExactly(ENTRY_0.key(), ENTRY_0, entry1.key(), entry1)
+        .inOrder();
+    verify(segment2, times(1)).readEntries(ImmutableList.of(ENTRY_0.key(), entry1.key()));
+    verify(SEGMENT_0, times(1)).readEntries(ImmutableList.of(entry1.key()));
+  }
+
+  @Test
+  public void readAll_sameLevelSegmentsAboveThreshold_newestEntryReturned() throws Exception {
+    LSMTreeReader forkingReader =
+        new LSMTreeReader(
+            stateManager, Thread.ofVirtual().factory(), SegmentReadMode.BLOCKING, 0, stats);
+    Segment segment2 = mock(Segment.class);
+    updateLevelZeroSegments(segment2);
+    Entry olderEntry = new Entry(ENTRY_0.creationEpochSeconds(), "key0", "older");
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntries(any())).thenReturn(ImmutableMap.of(ENTRY_0.key(), olderEntry));
+    when(segment2.mightContain(any(ByteString.class))).thenReturn(true);
+    when(segment2.readEntries(any())).thenReturn(ImmutableMap.of(ENTRY_0.key(), ENTRY_0));
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        forkingReader.readAll(ImmutableList.of(ENTRY_0.key()));
+
+    Truth.assertThat(entries).containsExactly(ENTRY_0.key(), ENTRY_0);
+    verify(SEGMENT_0, times(1)).readEntries(ImmutableList.of(ENTRY_0.key()));
+    verify(segment2, times(1)).readEntries(ImmutableList.of(ENTRY_0.key()));
+  }
+
+  @Test
+  public void read_mergeOperandInMemtable_foldedOntoSegmentValue() throws Exception {
+    Entry base = new Entry(ENTRY_0.creationEpochSeconds(), "key0", "a");
+    MEMTABLE.write(appendOperand("c"));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.of(appendOperand("b")));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntry(any(ByteString.class))).thenReturn(Optional.of(base));
+
+    Entry readEntry = reader.read(base.key()).orElseThrow();
+
+    Truth.assertThat(readEntry.isMergeOperand()).isFalse();
+    Truth.assertThat(readEntry.value()).isEqualTo(ByteString.copyFromUtf8("abc"));
+  }
+
+  @Test
+  public void read_onlyMergeOperands_foldedOntoEmptyValue() throws Exception {
+    MEMTABLE.write(appendOperand("b"));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.of(appendOperand("a")));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(false);
+
+    Entry readEntry = reader.read(ENTRY_0.key()).orElseThrow();
+
+    Truth.assertThat(readEntry.isMergeOperand()).isFalse();
+    Truth.assertThat(readEntry.value()).isEqualTo(ByteString.copyFromUtf8("ab"));
+  }
+
+  @Test
+  public void readAll_mergeOperand_resolved() throws Exception {
+    MEMTABLE.write(appendOperand("b"));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class)))
+        .thenReturn(Optional.of(new Entry(ENTRY_0.creationEpochSeconds(), "key0", "a")));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(false);
+
+    ImmutableSortedMap<ByteString, Entry> entries =
+        reader.readAll(ImmutableList.of(ENTRY_0.key()));
+
+    Truth.assertThat(entries.get(ENTRY_0.key()).value())
+        .isEqualTo(ByteString.copyFromUtf8("ab"));
+  }
+
+  @Test
+  public void readResolvedFromSegments_mergeOperandInSegment_foldedIgnoringMemtable()
+      throws Exception {
+    MEMTABLE.write(appendOperand("c"));
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_0.readEntry(any(ByteString.class))).thenReturn(Optional.of(appendOperand("b")));
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(true);
+    when(SEGMENT_1.readEntry(any(ByteString.class)))
+        .thenReturn(Optional.of(new Entry(ENTRY_0.creationEpochSeconds(), "key0", "a")));
+
+    Optional<Entry> readEntry;
+    try (var currentState = stateManager.getCurrentState()) {
+      readEntry = reader.readResolvedFromSegments(currentState, ENTRY_0.key());
+    }
+
+    assertThat(readEntry.map(Entry::value)).hasValue(ByteString.copyFromUtf8("ab"));
+  }
+
+  @Test
+  public void readResolvedFromSegments_notInSegments_returnsEmpty() throws Exception {
+    MEMTABLE.write(ENTRY_0);
+    when(SEGMENT_0.mightContain(any(ByteString.class))).thenReturn(false);
+    when(SEGMENT_1.mightContain(any(ByteString.class))).thenReturn(false);
+
+    Optional<Entry> readEntry;
+    try (var currentState = stateManager.getCurrentState()) {
+      readEntry = reader.readResolvedFromSegments(currentState, ENTRY_0.key());
+    }
+
+    assertThat(readEntry).isEmpty();
+  }
+
+  private Entry appendOperand(String value) {
+    return Entry.mergeOperand(
+        ENTRY_0.creationEpochSeconds(),
+        ENTRY_0.key(),
+        ByteString.copyFromUtf8(value),
+        MergeOperator.APPEND);
+  }
+
+  /** Places {@code newerSegment} in level 0 alongside, and numbered after, SEGMENT_0. */
+  private void updateLevelZeroSegments(Segment newerSegment) {
+    when(SEGMENT_0.getSegmentNumber()).thenReturn(0L);
+    when(newerSegment.getSegmentNumber()).thenReturn(1L);
+    SegmentLevelMultiMap multiMap =
+        new SegmentLevelMultiMap.Builder(ImmutableListMultimap.of(0, SEGMENT_0, 0, newerSegment))
+            .build();
+    try (var ignored = stateManager.getAndLockCurrentState()) {
+      stateManager.updateCurrentState(MEMTABLE, multiMap);
+    }
   }
 }
@@ -3,23 +3,43 @@ package dev.sbutler.bitflask.storage.lsm;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.exceptions.StorageException;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryUtils;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
+import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
+import dev.sbutler.bitflask.storage.lsm.segment.Segment;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
 
 public class LSMTreeTest {
 
-  private static final Entry ENTRY = new Entry(Instant.now().getEpochSecond(), "key", "value");
+  private static final ByteString KEY = ByteString.copyFromUtf8("key");
+  private static final ByteString VALUE = ByteString.copyFromUtf8("value");
+  private static final Entry ENTRY = new Entry(Instant.now().getEpochSecond(), KEY, VALUE);
   private static final Entry DELETED_ENTRY = new Entry(Instant.now().getEpochSecond(), "key", "");
 
   private final ListeningScheduledExecutorService scheduledExecutorService =
@@ -27,66 +47,269 @@ public class LSMTreeTest {
   private final LSMTreeReader reader = mock(LSMTreeReader.class);
   private final LSMTreeWriter writer = mock(LSMTreeWriter.class);
 
-  private final LSMTree lsmTree = new LSMTree(scheduledExecutorService, reader, writer);
+  private final Segment segment = mock(Segment.class);
+  private final LSMTreeStateManager stateManager =
+      new LSMTreeStateManager(
+          mock(Memtable.class),
+          new SegmentLevelMultiMap.Builder(ImmutableListMultimap.of(1, segment)).build());
+  private final StorageStats stats = new StorageStats();
+
+  private final LSMTree lsmTree =
+      new LSMTree(scheduledExecutorService, reader, writer, stateManager, stats);
 
   @Test
   public void read_entryFound_returnsValue() {
-    when(reader.read(anyString())).thenReturn(Optional.of(ENTRY));
+    when(reader.read(any(ByteString.class))).thenReturn(Optional.of(ENTRY));
 
-    Optional<String> readValue = lsmTree.read("key");
+    Optional<ByteString> readValue = lsmTree.read(KEY);
 
     assertThat(readValue).hasValue(ENTRY.value());
-    verify(reader, times(1)).read("key");
+    verify(reader, times(1)).read(KEY);
   }
 
   @Test
   public void read_entryNotFound_returnsEmpty() {
-    when(reader.read(anyString())).thenReturn(Optional.empty());
+    when(reader.read(any(ByteString.class))).thenReturn(Optional.empty());
 
-    Optional<String> readValue = lsmTree.read("key");
+    Optional<ByteString> readValue = lsmTree.read(KEY);
 
     assertThat(readValue).isEmpty();
-    verify(reader, times(1)).read("key");
+    verify(reader, times(1)).read(KEY);
   }
 
   @Test
   public void read_entryDeleted_returnsEmpty() {
-    when(reader.read(anyString())).thenReturn(Optional.of(DELETED_ENTRY));
+    when(reader.read(any(ByteString.class))).thenReturn(Optional.of(DELETED_ENTRY));
 
-    Optional<String> readValue = lsmTree.read("key");
+    Optional<ByteString> readValue = lsmTree.read(KEY);
 
     assertThat(readValue).isEmpty();
-    verify(reader, times(1)).read("key");
+    verify(reader, times(1)).read(KEY);
+  }
+
+  @Test
+  public void read_entryExpired_returnsEmpty() {
+    Entry expiredEntry = new Entry(1, KEY, VALUE, 2);
+    when(reader.read(any(ByteString.class))).thenReturn(Optional.of(expiredEntry));
+
+    Optional<ByteString> readValue = lsmTree.read(KEY);
+
+    assertThat(readValue).isEmpty();
+  }
+
+  @Test
+  public void read_entryNotYetExpired_returnsValue() {
+    Entry expiringEntry = new Entry(1, KEY, VALUE, Long.MAX_VALUE);
+    when(reader.read(any(ByteString.class))).thenReturn(Optional.of(expiringEntry));
+
+    Optional<ByteString> readValue = lsmTree.read(KEY);
+
+    assertThat(readValue).hasValue(VALUE);
+  }
+
+  @Test
+  public void readAll_expiredEntriesOmitted() {
+    ByteString expiredKey = ByteString.copyFromUtf8("expired");
+    when(reader.readAll(any()))
+        .thenReturn(
+            ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR)
+                .put(KEY, ENTRY)
+                .put(expiredKey, new Entry(1, expiredKey, VALUE, 2))
+                .build());
+
+    ImmutableSortedMap<ByteString, ByteString> values =
+        lsmTree.readAll(ImmutableList.of(KEY, expiredKey));
+
+    assertThat(values).containsExactly(KEY, VALUE);
+  }
+
+  @Test
+  public void readAll_deletedEntriesOmitted() {
+    ByteString deletedKey = ByteString.copyFromUtf8("deleted");
+    Entry deletedEntry = new Entry(Instant.now().getEpochSecond(), deletedKey, ByteString.EMPTY);
+    when(reader.readAll(any()))
+        .thenReturn(
+            ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR)
+                .put(KEY, ENTRY)
+                .put(deletedKey, deletedEntry)
+                .build());
+
+    ImmutableSortedMap<ByteString, ByteString> values =
+        lsmTree.readAll(ImmutableList.of(KEY, deletedKey));
+
+    assertThat(values).containsExactly(KEY, VALUE);
+    verify(reader, times(1)).readAll(ImmutableList.of(KEY, deletedKey));
   }
 
   @Test
   public void write() {
-    lsmTree.write("key", "value");
+    lsmTree.write(KEY, VALUE);
 
     var captor = ArgumentCaptor.forClass(Entry.class);
     verify(writer, times(1)).write(captor.capture());
-    assertThat(captor.getValue().key()).isEqualTo("key");
-    assertThat(captor.getValue().value()).isEqualTo("value");
+    assertThat(captor.getValue().key()).isEqualTo(KEY);
+    assertThat(captor.getValue().value()).isEqualTo(VALUE);
+  }
+
+  @Test
+  public void write_withExpiry() {
+    long expiryEpochSeconds = Instant.now().getEpochSecond() + 60;
+
+    lsmTree.write(KEY, VALUE, expiryEpochSeconds);
+
+    var captor = ArgumentCaptor.forClass(Entry.class);
+    verify(writer, times(1)).write(captor.capture());
+    assertThat(captor.getValue().value()).isEqualTo(VALUE);
+    assertThat(captor.getValue().expiryEpochSeconds()).isEqualTo(expiryEpochSeconds);
   }
 
   @Test
   public void delete() {
-    lsmTree.delete("key");
+    lsmTree.delete(KEY);
 
     var captor = ArgumentCaptor.forClass(Entry.class);
     verify(writer, times(1)).write(captor.capture());
-    assertThat(captor.getValue().key()).isEqualTo("key");
-    assertThat(captor.getValue().value()).isEqualTo("");
+    assertThat(captor.getValue().key()).isEqualTo(KEY);
+    assertThat(captor.getValue().value()).isEqualTo(ByteString.EMPTY);
+  }
+
+  @Test
+  public void increment() {
+    lsmTree.increment(KEY, -5, 100);
+
+    var captor = ArgumentCaptor.forClass(Entry.class);
+    verify(writer, times(1)).merge(captor.capture(), any());
+    assertThat(captor.getValue().key()).isEqualTo(KEY);
+    assertThat(captor.getValue().value()).isEqualTo(ByteString.copyFromUtf8("-5"));
+    assertThat(captor.getValue().getMergeOperator()).isEqualTo(MergeOperator.INCREMENT);
+    assertThat(captor.getValue().creationEpochSeconds()).isEqualTo(100);
+    verify(reader, never()).read(any());
+  }
+
+  @Test
+  public void append() {
+    lsmTree.append(KEY, VALUE, 100);
+
+    var captor = ArgumentCaptor.forClass(Entry.class);
+    verify(writer, times(1)).merge(captor.capture(), any());
+    assertThat(captor.getValue().value()).isEqualTo(VALUE);
+    assertThat(captor.getValue().getMergeOperator()).isEqualTo(MergeOperator.APPEND);
+    assertThat(captor.getValue().creationEpochSeconds()).isEqualTo(100);
+    verify(reader, never()).read(any());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void increment_olderEntryReadFromSegmentsOfMergingState() {
+    Entry older = new Entry(Instant.now().getEpochSecond(), KEY, ByteString.copyFromUtf8("5"));
+    LSMTreeStateManager.CurrentState currentState = mock(LSMTreeStateManager.CurrentState.class);
+    when(reader.readResolvedFromSegments(currentState, KEY)).thenReturn(Optional.of(older));
+
+    lsmTree.increment(KEY, 3, Instant.now().getEpochSecond());
+
+    ArgumentCaptor<Function<LSMTreeStateManager.CurrentState, Optional<Entry>>> captor =
+        ArgumentCaptor.forClass(Function.class);
+    verify(writer, times(1)).merge(any(), captor.capture());
+    assertThat(captor.getValue().apply(currentState)).hasValue(older);
+    verify(reader, never()).read(any());
+  }
+
+  @Test
+  public void increment_appliedAtDifferentTimes_resolvesSameEntry() {
+    long expiryEpochSeconds = Instant.now().getEpochSecond();
+    Entry older =
+        new Entry(expiryEpochSeconds - 10, KEY, ByteString.copyFromUtf8("5"), expiryEpochSeconds);
+    long creationEpochSeconds = expiryEpochSeconds - 1;
+    Instant beforeExpiry = Instant.ofEpochSecond(expiryEpochSeconds - 1);
+    Instant afterExpiry = Instant.ofEpochSecond(expiryEpochSeconds + 1);
+
+    try (MockedStatic<Instant> instant = mockStatic(Instant.class, CALLS_REAL_METHODS)) {
+      // Applied before the older value expires, such as by the leader
+      instant.when(Instant::now).thenReturn(beforeExpiry);
+      lsmTree.increment(KEY, 3, creationEpochSeconds);
+      // Applied after the older value expires, such as by a lagging follower
+      instant.when(Instant::now).thenReturn(afterExpiry);
+      lsmTree.increment(KEY, 3, creationEpochSeconds);
+    }
+
+    var captor = ArgumentCaptor.forClass(Entry.class);
+    verify(writer, times(2)).merge(captor.capture(), any());
+    List<Entry> resolved =
+        captor.getAllValues().stream()
+            .map(operand -> EntryUtils.foldMergeOperands(List.of(operand), Optional.of(older)))
+            .toList();
+    assertThat(resolved.get(1)).isEqualTo(resolved.get(0));
+    assertThat(resolved.get(0).value()).isEqualTo(ByteString.copyFromUtf8("8"));
+    assertThat(resolved.get(0).expiryEpochSeconds()).isEqualTo(expiryEpochSeconds);
+  }
+
+  @Test
+  public void increment_mergeFails_throwsStorageMergeException() {
+    doThrow(new StorageMergeException("value is not an integer or out of range"))
+        .when(writer)
+        .merge(any(), any());
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+
+    assertThrows(StorageMergeException.class, () -> lsmTree.increment(KEY, 3, nowEpochSeconds));
+
+    verify(writer, never()).write(any());
+  }
+
+  @Test
+  public void writeBatch() {
+    ByteString otherKey = ByteString.copyFromUtf8("other-key");
+
+    lsmTree.writeBatch(
+        ImmutableList.of(
+            WriteBatchOperation.put(KEY, ByteString.copyFromUtf8("overwritten")),
+            WriteBatchOperation.delete(otherKey),
+            WriteBatchOperation.put(KEY, VALUE)));
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<Entry>> captor = ArgumentCaptor.forClass(List.class);
+    verify(writer, times(1)).writeBatch(captor.capture());
+    List<Entry> entries = captor.getValue();
+    assertThat(entries).hasSize(2);
+    assertThat(entries.get(0).key()).isEqualTo(KEY);
+    assertThat(entries.get(0).value()).isEqualTo(VALUE);
+    assertThat(entries.get(1).key()).isEqualTo(otherKey);
+    assertThat(entries.get(1).value()).isEqualTo(ByteString.EMPTY);
+    assertThat(entries.get(0).creationEpochSeconds())
+        .isEqualTo(entries.get(1).creationEpochSeconds());
+  }
+
+  @Test
+  public void writeBatch_empty_noWrite() {
+    lsmTree.writeBatch(ImmutableList.of());
+
+    verify(writer, never()).writeBatch(any());
   }
 
   @Test
   public void close() {
     lsmTree.close();
 
-    assertThrows(StorageException.class, () -> lsmTree.read("key"));
-    assertThrows(StorageException.class, () -> lsmTree.write("key", "value"));
-    assertThrows(StorageException.class, () -> lsmTree.delete("key"));
+    assertThrows(StorageException.class, () -> lsmTree.read(KEY));
+    assertThrows(StorageException.class, () -> lsmTree.readAll(ImmutableList.of(KEY)));
+    assertThrows(StorageException.class, () -> lsmTree.write(KEY, VALUE));
+    assertThrows(StorageException.class, () -> lsmTree.delete(KEY));
+    assertThrows(StorageException.class,
+        () -> lsmTree.writeBatch(ImmutableList.of(WriteBatchOperation.delete(KEY))));
 
     verify(scheduledExecutorService, times(1)).close();
   }
+
+  @Test
+  public void getStats_currentSegmentLevelsIncluded() {
+    when(segment.getNumBytesSize()).thenReturn(10L);
+    stats.recordUserWrite(5);
+    stats.recordFlush(10);
+
+    StorageStats.Snapshot snapshot = lsmTree.getStats();
+
+    assertThat(snapshot.levelStats())
+        .containsExactly(new StorageStats.LevelStats(1, 1, 10, 0, 0, 0));
+    assertThat(snapshot.getWriteAmplification()).isEqualTo(2);
+    assertThat(snapshot.getSpaceAmplification()).isEqualTo(1);
+  }
 }
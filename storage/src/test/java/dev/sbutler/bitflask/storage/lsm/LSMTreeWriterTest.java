@@ -1,20 +1,30 @@
 package dev.sbutler.bitflask.storage.lsm;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.exceptions.StorageWriteException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
 import dev.sbutler.bitflask.storage.lsm.memtable.Memtable;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentLevelMultiMap;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Supplier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -26,7 +36,7 @@ public class LSMTreeWriterTest {
 
   private final LSMTreeStateManager stateManager = new LSMTreeStateManager(MEMTABLE, MULTI_MAP);
 
-  private final LSMTreeWriter writer = new LSMTreeWriter(stateManager);
+  private final LSMTreeWriter writer = new LSMTreeWriter(stateManager, new StorageStats());
 
   @BeforeEach
   public void beforeEach() {
@@ -54,4 +64,76 @@ public class LSMTreeWriterTest {
 
     assertThat(e).hasCauseThat().isEqualTo(ioException);
   }
+
+  @Test
+  public void merge() throws Exception {
+    Entry operand =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFromUtf8("1"),
+            MergeOperator.INCREMENT);
+    Entry older = new Entry(Instant.now().getEpochSecond(), "key", "5");
+    doAnswer(
+            invocation -> {
+              Supplier<Optional<Entry>> olderEntryReader = invocation.getArgument(1);
+              assertThat(olderEntryReader.get()).hasValue(older);
+              return null;
+            })
+        .when(MEMTABLE)
+        .merge(any(), any());
+
+    writer.merge(
+        operand,
+        currentState -> {
+          assertThat(currentState.getMemtable()).isEqualTo(MEMTABLE);
+          return Optional.of(older);
+        });
+
+    verify(MEMTABLE, times(1)).merge(eq(operand), any());
+  }
+
+  @Test
+  public void merge_memtableThrowsIOException_throwStorageWriteException() throws Exception {
+    Entry operand =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFromUtf8("1"),
+            MergeOperator.INCREMENT);
+    IOException ioException = new IOException("test");
+    doThrow(ioException).when(MEMTABLE).merge(any(), any());
+
+    StorageWriteException e =
+        assertThrows(
+            StorageWriteException.class,
+            () -> writer.merge(operand, currentState -> Optional.empty()));
+
+    assertThat(e).hasCauseThat().isEqualTo(ioException);
+  }
+
+  @Test
+  public void writeBatch() throws Exception {
+    ImmutableList<Entry> entries =
+        ImmutableList.of(
+            new Entry(Instant.now().getEpochSecond(), "key0", "value0"),
+            new Entry(Instant.now().getEpochSecond(), "key1", "value1"));
+
+    writer.writeBatch(entries);
+
+    verify(MEMTABLE, times(1)).writeBatch(entries);
+  }
+
+  @Test
+  public void writeBatch_memtableThrowsIOException_throwStorageWriteException() throws Exception {
+    ImmutableList<Entry> entries =
+        ImmutableList.of(new Entry(Instant.now().getEpochSecond(), "key", "value"));
+    IOException ioException = new IOException("test");
+    doThrow(ioException).when(MEMTABLE).writeBatch(any());
+
+    StorageWriteException e =
+        assertThrows(StorageWriteException.class, () -> writer.writeBatch(entries));
+
+    assertThat(e).hasCauseThat().isEqualTo(ioException);
+  }
 }
@@ -0,0 +1,63 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ByteString;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BlobFileTest {
+
+  private static final ByteString VALUES = ByteString.copyFromUtf8("value0value1");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void read() throws Exception {
+    BlobFile blobFile = createBlobFile();
+
+    ByteString value = blobFile.read(new BlobPointer(0, 6, 6));
+
+    assertThat(value).isEqualTo(ByteString.copyFromUtf8("value1"));
+  }
+
+  @Test
+  public void read_pastEndOfFile_throwsIOException() throws Exception {
+    BlobFile blobFile = createBlobFile();
+
+    IOException e =
+        assertThrows(IOException.class, () -> blobFile.read(new BlobPointer(0, 10, 6)));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("Read blob value length did not match pointer. Read [2], expected [6].");
+  }
+
+  @Test
+  public void read_otherBlobFile_throwsIllegalArgumentException() throws Exception {
+    BlobFile blobFile = createBlobFile();
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> blobFile.read(new BlobPointer(1, 0, 6)));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("BlobPointer does not reference this BlobFile. Expected [0], actual [1]");
+  }
+
+  @Test
+  public void createFileName() {
+    assertThat(BlobFile.createFileName(7)).isEqualTo("blob_7.blob");
+  }
+
+  private BlobFile createBlobFile() throws IOException {
+    Path path = tempDir.resolve(BlobFile.createFileName(0));
+    Files.write(path, VALUES.toByteArray());
+    return new BlobFile(0, path, VALUES.size());
+  }
+}
@@ -0,0 +1,71 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.protobuf.ByteString;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+public class BlobFileWriterTest {
+
+  private final BlobStore blobStore = mock(BlobStore.class);
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void append_close_registersBlobFile() throws Exception {
+    Path path = tempDir.resolve(BlobFile.createFileName(2));
+    ByteString value0 = ByteString.copyFromUtf8("value0");
+    ByteString value1 = ByteString.copyFromUtf8("value01");
+
+    BlobPointer pointer0;
+    BlobPointer pointer1;
+    try (BlobFileWriter writer = new BlobFileWriter(blobStore, 2, path)) {
+      pointer0 = writer.append(value0);
+      pointer1 = writer.append(value1);
+    }
+
+    assertThat(pointer0).isEqualTo(new BlobPointer(2, 0, value0.size()));
+    assertThat(pointer1).isEqualTo(new BlobPointer(2, value0.size(), value1.size()));
+    assertThat(Files.readAllBytes(path)).isEqualTo(value0.concat(value1).toByteArray());
+
+    ArgumentCaptor<BlobFile> blobFileCaptor = ArgumentCaptor.forClass(BlobFile.class);
+    verify(blobStore, times(1)).register(blobFileCaptor.capture());
+    assertThat(blobFileCaptor.getValue().getBlobFileNumber()).isEqualTo(2);
+    assertThat(blobFileCaptor.getValue().getFilePath().equals(path)).isTrue();
+    assertThat(blobFileCaptor.getValue().getNumBytesSize())
+        .isEqualTo(value0.size() + value1.size());
+  }
+
+  @Test
+  public void close_nothingAppended_fileNotCreated() throws Exception {
+    Path path = tempDir.resolve(BlobFile.createFileName(0));
+
+    new BlobFileWriter(blobStore, 0, path).close();
+
+    assertThat(Files.exists(path)).isFalse();
+    verify(blobStore, times(0)).register(any());
+  }
+
+  @Test
+  public void append_afterClose_throwsIllegalStateException() throws Exception {
+    BlobFileWriter writer =
+        new BlobFileWriter(blobStore, 0, tempDir.resolve(BlobFile.createFileName(0)));
+    writer.close();
+
+    IllegalStateException e =
+        assertThrows(
+            IllegalStateException.class, () -> writer.append(ByteString.copyFromUtf8("value")));
+
+    assertThat(e).hasMessageThat().isEqualTo("BlobFileWriter is closed");
+  }
+}
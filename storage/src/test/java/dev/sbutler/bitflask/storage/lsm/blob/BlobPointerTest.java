@@ -0,0 +1,43 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+public class BlobPointerTest {
+
+  @Test
+  public void identityConversion() {
+    BlobPointer pointer = new BlobPointer(3, Integer.MAX_VALUE + 1L, 4096);
+
+    ByteString bytes = pointer.getBytes();
+
+    assertThat(bytes.size()).isEqualTo(BlobPointer.BYTES);
+    assertThat(BlobPointer.fromBytes(bytes)).isEqualTo(pointer);
+  }
+
+  @Test
+  public void constructor_nonPositiveLength_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> new BlobPointer(0, 0, 0));
+
+    assertThat(e).hasMessageThat().isEqualTo("Length must be positive. Provided [0]");
+  }
+
+  @Test
+  public void fromBytes_invalidLength_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BlobPointer.fromBytes(ByteString.copyFrom(new byte[BlobPointer.BYTES - 1])));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(
+            String.format(
+                "BlobPointer bytes length invalid. Expected [%d], actual [%d]",
+                BlobPointer.BYTES, BlobPointer.BYTES - 1));
+  }
+}
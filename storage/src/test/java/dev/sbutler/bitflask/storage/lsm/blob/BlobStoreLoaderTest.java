@@ -0,0 +1,67 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.StorageConfig;
+import dev.sbutler.bitflask.config.StorageConfig.LoadingMode;
+import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BlobStoreLoaderTest {
+
+  private static final ByteString VALUE = ByteString.copyFromUtf8("value");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void load_loadingMode_registersBlobFiles() throws Exception {
+    Files.write(tempDir.resolve(BlobFile.createFileName(3)), VALUE.toByteArray());
+    StorageConfig storageConfig = createStorageConfig(LoadingMode.LOAD);
+    BlobStore blobStore = new BlobStore(storageConfig);
+
+    new BlobStoreLoader(storageConfig, blobStore).load();
+
+    assertThat(blobStore.read(new BlobPointer(3, 0, VALUE.size()))).isEqualTo(VALUE);
+    try (BlobFileWriter writer = blobStore.createWriter()) {
+      assertThat(writer.append(VALUE).blobFileNumber()).isEqualTo(4);
+    }
+  }
+
+  @Test
+  public void load_truncateMode_deletesBlobFiles() throws Exception {
+    Path path = tempDir.resolve(BlobFile.createFileName(0));
+    Files.write(path, VALUE.toByteArray());
+    StorageConfig storageConfig = createStorageConfig(LoadingMode.TRUNCATE);
+
+    new BlobStoreLoader(storageConfig, new BlobStore(storageConfig)).load();
+
+    assertThat(Files.exists(path)).isFalse();
+  }
+
+  @Test
+  public void load_invalidFileName_throwsStorageLoadException() throws Exception {
+    Path path = tempDir.resolve("blob_x.blob");
+    Files.write(path, VALUE.toByteArray());
+    StorageConfig storageConfig = createStorageConfig(LoadingMode.LOAD);
+    BlobStoreLoader loader = new BlobStoreLoader(storageConfig, new BlobStore(storageConfig));
+
+    StorageLoadException e = assertThrows(StorageLoadException.class, loader::load);
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(String.format("Could not parse BlobFile number from [%s]", path));
+  }
+
+  private StorageConfig createStorageConfig(LoadingMode loadingMode) {
+    return StorageConfig.newBuilder()
+        .setStoreDirectoryPath(tempDir.toString())
+        .setLoadingMode(loadingMode)
+        .buildPartial();
+  }
+}
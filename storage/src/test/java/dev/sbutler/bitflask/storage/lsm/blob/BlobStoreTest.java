@@ -0,0 +1,106 @@
+package dev.sbutler.bitflask.storage.lsm.blob;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.config.StorageConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class BlobStoreTest {
+
+  private static final ByteString VALUE = ByteString.copyFromUtf8("value");
+
+  @TempDir
+  Path tempDir;
+
+  private BlobStore blobStore;
+
+  @BeforeEach
+  public void beforeEach() {
+    blobStore =
+        new BlobStore(
+            StorageConfig.newBuilder()
+                .setStoreDirectoryPath(tempDir.toString())
+                .setBlobGarbageCollectionLiveRatioPercent(50)
+                .buildPartial());
+  }
+
+  @Test
+  public void createWriter_read() throws Exception {
+    BlobPointer pointer;
+    try (BlobFileWriter writer = blobStore.createWriter()) {
+      pointer = writer.append(VALUE);
+    }
+
+    assertThat(blobStore.read(pointer)).isEqualTo(VALUE);
+    assertThat(Files.exists(tempDir.resolve(BlobFile.createFileName(0)))).isTrue();
+  }
+
+  @Test
+  public void createWriter_numberAfterRegistered() throws Exception {
+    blobStore.register(new BlobFile(4, tempDir.resolve(BlobFile.createFileName(4)), 0));
+
+    BlobPointer pointer;
+    try (BlobFileWriter writer = blobStore.createWriter()) {
+      pointer = writer.append(VALUE);
+    }
+
+    assertThat(pointer.blobFileNumber()).isEqualTo(5);
+  }
+
+  @Test
+  public void read_blobFileNotFound_throwsIOException() {
+    IOException e =
+        assertThrows(IOException.class, () -> blobStore.read(new BlobPointer(1, 0, 1)));
+
+    assertThat(e).hasMessageThat().isEqualTo("BlobFile [1] could not be found");
+  }
+
+  @Test
+  public void getBlobFileNumbersBelowLiveRatio() {
+    blobStore.register(new BlobFile(0, tempDir.resolve(BlobFile.createFileName(0)), 100));
+    blobStore.register(new BlobFile(1, tempDir.resolve(BlobFile.createFileName(1)), 100));
+    blobStore.register(new BlobFile(2, tempDir.resolve(BlobFile.createFileName(2)), 100));
+
+    ImmutableSet<Long> belowLiveRatio =
+        blobStore.getBlobFileNumbersBelowLiveRatio(ImmutableMap.of(0L, 49L, 1L, 50L));
+
+    assertThat(belowLiveRatio).containsExactly(0L, 2L);
+  }
+
+  @Test
+  public void getBlobFileNumbersBelowLiveRatio_disabled_returnsEmpty() {
+    BlobStore disabledBlobStore =
+        new BlobStore(StorageConfig.newBuilder().setStoreDirectoryPath(tempDir.toString())
+            .buildPartial());
+    disabledBlobStore.register(new BlobFile(0, tempDir.resolve(BlobFile.createFileName(0)), 100));
+
+    assertThat(disabledBlobStore.getBlobFileNumbersBelowLiveRatio(ImmutableMap.of())).isEmpty();
+  }
+
+  @Test
+  public void deleteUnreferenced() throws Exception {
+    BlobPointer pointer_0;
+    try (BlobFileWriter writer = blobStore.createWriter()) {
+      pointer_0 = writer.append(VALUE);
+    }
+    BlobPointer pointer_1;
+    try (BlobFileWriter writer = blobStore.createWriter()) {
+      pointer_1 = writer.append(VALUE);
+    }
+
+    blobStore.deleteUnreferenced(ImmutableSet.of(pointer_1.blobFileNumber()));
+
+    assertThat(Files.exists(tempDir.resolve(BlobFile.createFileName(0)))).isFalse();
+    assertThrows(IOException.class, () -> blobStore.read(pointer_0));
+    assertThat(blobStore.read(pointer_1)).isEqualTo(VALUE);
+  }
+}
@@ -0,0 +1,51 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class BlobReferenceEntryTest {
+
+  private static final long CREATION_EPOCH_SECONDS = Instant.now().getEpochSecond();
+  private static final ByteString KEY = ByteString.copyFromUtf8("key");
+  private static final ByteString VALUE_REFERENCE = ByteString.copyFromUtf8("reference");
+
+  @Test
+  public void constructor_emptyValueReference_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new BlobReferenceEntry(CREATION_EPOCH_SECONDS, KEY, ByteString.EMPTY));
+
+    assertThat(e).hasMessageThat().isEqualTo("Value reference must not be empty.");
+  }
+
+  @Test
+  public void constructor_emptyKey_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new BlobReferenceEntry(CREATION_EPOCH_SECONDS, ByteString.EMPTY, VALUE_REFERENCE));
+
+    assertThat(e).hasMessageThat().isEqualTo("Key must not be empty.");
+  }
+
+  @Test
+  public void writeTo_decodedAsBlobReferenceView() {
+    BlobReferenceEntry entry = new BlobReferenceEntry(CREATION_EPOCH_SECONDS, KEY, VALUE_REFERENCE);
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(entry.getNumBytesSize()));
+
+    entry.writeTo(buffer);
+    EntryView view = EntryView.wrap(buffer, 0);
+
+    assertThat(buffer.position()).isEqualTo(buffer.capacity());
+    assertThat(view.isValueInBlob()).isTrue();
+    assertThat(view.creationEpochSeconds()).isEqualTo(CREATION_EPOCH_SECONDS);
+    assertThat(view.key()).isEqualTo(KEY);
+    assertThat(view.value()).isEqualTo(VALUE_REFERENCE);
+  }
+}
@@ -0,0 +1,260 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+public class EntryHeaderTest {
+
+  @Test
+  public void identityConversion_v2() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            EntryHeader.v2NumBytes(creationEpochSeconds, 300, Entry.VALUE_MAX_LENGTH));
+
+    EntryHeader.writeV2(buffer, creationEpochSeconds, 300, Entry.VALUE_MAX_LENGTH);
+    EntryHeader header = EntryHeader.decode(buffer, 0);
+
+    assertThat(header)
+        .isEqualTo(
+            new EntryHeader(
+                creationEpochSeconds, 300, Entry.VALUE_MAX_LENGTH, buffer.capacity(), false));
+  }
+
+  @Test
+  public void identityConversion_v2Blob() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    ByteBuffer buffer = ByteBuffer.allocate(EntryHeader.v2NumBytes(creationEpochSeconds, 3, 20));
+
+    EntryHeader.writeV2(buffer, creationEpochSeconds, 3, 20, true);
+    EntryHeader header = EntryHeader.decode(buffer, 0);
+
+    assertThat(buffer.get(0)).isEqualTo(EntryHeader.V2_BLOB_TAG);
+    assertThat(header)
+        .isEqualTo(new EntryHeader(creationEpochSeconds, 3, 20, buffer.capacity(), true));
+  }
+
+  @Test
+  public void identityConversion_v2Expiring() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    long expiryEpochSeconds = creationEpochSeconds + 60;
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            EntryHeader.v2NumBytes(creationEpochSeconds, 3, 20, expiryEpochSeconds));
+
+    EntryHeader.writeV2(buffer, creationEpochSeconds, 3, 20, expiryEpochSeconds, false);
+    EntryHeader header = EntryHeader.decode(buffer, 0);
+
+    assertThat(buffer.get(0)).isEqualTo(EntryHeader.V2_EXPIRING_TAG);
+    assertThat(header)
+        .isEqualTo(
+            new EntryHeader(
+                creationEpochSeconds, 3, 20, buffer.capacity(), false, expiryEpochSeconds));
+  }
+
+  @Test
+  public void identityConversion_v2ExpiringBlob() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    long expiryEpochSeconds = creationEpochSeconds + 60;
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            EntryHeader.v2NumBytes(creationEpochSeconds, 3, 20, expiryEpochSeconds));
+
+    EntryHeader.writeV2(buffer, creationEpochSeconds, 3, 20, expiryEpochSeconds, true);
+    EntryHeader header = EntryHeader.decode(buffer, 0);
+
+    assertThat(buffer.get(0)).isEqualTo(EntryHeader.V2_EXPIRING_BLOB_TAG);
+    assertThat(header)
+        .isEqualTo(
+            new EntryHeader(
+                creationEpochSeconds, 3, 20, buffer.capacity(), true, expiryEpochSeconds));
+  }
+
+  @Test
+  public void identityConversion_v2Merge() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    ByteBuffer buffer =
+        ByteBuffer.allocate(
+            EntryHeader.v2MergeNumBytes(
+                creationEpochSeconds, 3, 20, MergeOperator.APPEND.getId()));
+
+    EntryHeader.writeV2Merge(buffer, creationEpochSeconds, 3, 20, MergeOperator.APPEND.getId());
+    EntryHeader header = EntryHeader.decode(buffer, 0);
+
+    assertThat(buffer.get(0)).isEqualTo(EntryHeader.V2_MERGE_TAG);
+    assertThat(header)
+        .isEqualTo(
+            new EntryHeader(
+                creationEpochSeconds,
+                3,
+                20,
+                buffer.capacity(),
+                false,
+                Entry.NO_EXPIRY,
+                MergeOperator.APPEND.getId()));
+  }
+
+  @Test
+  public void writeV2_noExpiry_matchesNonExpiringEncoding() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    ByteBuffer expected = ByteBuffer.allocate(EntryHeader.v2NumBytes(creationEpochSeconds, 3, 20));
+    ByteBuffer buffer = ByteBuffer.allocate(expected.capacity());
+
+    EntryHeader.writeV2(expected, creationEpochSeconds, 3, 20);
+    EntryHeader.writeV2(buffer, creationEpochSeconds, 3, 20, Entry.NO_EXPIRY, false);
+
+    assertThat(EntryHeader.v2NumBytes(creationEpochSeconds, 3, 20, Entry.NO_EXPIRY))
+        .isEqualTo(expected.capacity());
+    assertThat(buffer.array()).isEqualTo(expected.array());
+  }
+
+  @Test
+  public void v2NumBytes() {
+    assertThat(EntryHeader.v2NumBytes(0, 1, 0)).isEqualTo(EntryHeader.MIN_BYTES);
+    assertThat(EntryHeader.v2NumBytes(127, 127, 127)).isEqualTo(4);
+    assertThat(EntryHeader.v2NumBytes(128, 128, 128)).isEqualTo(7);
+    assertThat(EntryHeader.v2NumBytes(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE))
+        .isEqualTo(1 + 9 + 5 + 5);
+  }
+
+  @Test
+  public void decode_v1() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    EntryMetadata metadata =
+        new EntryMetadata(
+            creationEpochSeconds, UnsignedShort.valueOf(3), UnsignedShort.valueOf(5));
+
+    EntryHeader header = EntryHeader.decode(ByteBuffer.wrap(metadata.getBytes()), 0);
+
+    assertThat(header).isEqualTo(new EntryHeader(creationEpochSeconds, 3, 5, EntryMetadata.BYTES, false));
+  }
+
+  @Test
+  public void decode_offsetOutOfBounds_throwsIllegalArgumentException() {
+    ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryHeader.decode(buffer, 0));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("Buffer does not contain an entry header at offset [0]");
+  }
+
+  @Test
+  public void decode_unrecognizedTag_throwsIllegalArgumentException() {
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[]{0x01, 0, 1, 0});
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryHeader.decode(buffer, 0));
+
+    assertThat(e).hasMessageThat().isEqualTo("Unrecognized entry format tag [1] at offset [0]");
+  }
+
+  @Test
+  public void decode_v2Incomplete_throwsIllegalArgumentException() {
+    ByteBuffer buffer = ByteBuffer.wrap(new byte[]{EntryHeader.V2_TAG, 0, (byte) 0x80});
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryHeader.decode(buffer, 0));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("Buffer does not contain a complete entry header at offset [0]");
+  }
+
+  @Test
+  public void decode_v2ValueLengthTooLarge_throwsIllegalArgumentException() {
+    ByteBuffer buffer = ByteBuffer.allocate(EntryHeader.MAX_BYTES);
+    EntryHeader.writeV2(buffer, 0, 1, Entry.VALUE_MAX_LENGTH + 1);
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryHeader.decode(buffer, 0));
+
+    assertThat(e).hasMessageThat().contains("Decoded value length invalid at offset [0].");
+  }
+
+  @Test
+  public void readBytes_v2() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(EntryHeader.MAX_BYTES);
+    EntryHeader.writeV2(buffer, Instant.now().getEpochSecond(), 3, 1000);
+    byte[] expected = Arrays.copyOf(buffer.array(), buffer.position());
+    byte[] destination = new byte[EntryHeader.MAX_BYTES];
+
+    int numRead = EntryHeader.readBytes(new ByteArrayInputStream(expected), destination);
+
+    assertThat(numRead).isEqualTo(expected.length);
+    assertThat(Arrays.copyOf(destination, numRead)).isEqualTo(expected);
+  }
+
+  @Test
+  public void readBytes_v2Expiring() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(EntryHeader.MAX_BYTES);
+    EntryHeader.writeV2(buffer, Long.MAX_VALUE, Entry.KEY_MAX_LENGTH, Entry.VALUE_MAX_LENGTH,
+        Long.MAX_VALUE, true);
+    byte[] expected = Arrays.copyOf(buffer.array(), buffer.position());
+    byte[] destination = new byte[EntryHeader.MAX_BYTES];
+
+    int numRead = EntryHeader.readBytes(new ByteArrayInputStream(expected), destination);
+
+    assertThat(numRead).isEqualTo(expected.length);
+    assertThat(Arrays.copyOf(destination, numRead)).isEqualTo(expected);
+  }
+
+  @Test
+  public void readBytes_v2Merge() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(EntryHeader.MAX_BYTES);
+    EntryHeader.writeV2Merge(buffer, Long.MAX_VALUE, Entry.KEY_MAX_LENGTH, Entry.VALUE_MAX_LENGTH,
+        MergeOperator.INCREMENT.getId());
+    byte[] expected = Arrays.copyOf(buffer.array(), buffer.position());
+    byte[] destination = new byte[EntryHeader.MAX_BYTES];
+
+    int numRead = EntryHeader.readBytes(new ByteArrayInputStream(expected), destination);
+
+    assertThat(numRead).isEqualTo(expected.length);
+    assertThat(Arrays.copyOf(destination, numRead)).isEqualTo(expected);
+  }
+
+  @Test
+  public void readBytes_v1() throws Exception {
+    byte[] expected =
+        new EntryMetadata(
+            Instant.now().getEpochSecond(), UnsignedShort.valueOf(3), UnsignedShort.valueOf(5))
+            .getBytes();
+    byte[] destination = new byte[EntryHeader.MAX_BYTES];
+
+    int numRead = EntryHeader.readBytes(new ByteArrayInputStream(expected), destination);
+
+    assertThat(numRead).isEqualTo(EntryMetadata.BYTES);
+    assertThat(Arrays.copyOf(destination, numRead)).isEqualTo(expected);
+  }
+
+  @Test
+  public void readBytes_endOfStream_returnsZero() throws Exception {
+    int numRead =
+        EntryHeader.readBytes(
+            new ByteArrayInputStream(new byte[0]), new byte[EntryHeader.MAX_BYTES]);
+
+    assertThat(numRead).isEqualTo(0);
+  }
+
+  @Test
+  public void readBytes_incomplete_throwsIOException() {
+    ByteArrayInputStream is = new ByteArrayInputStream(new byte[]{EntryHeader.V2_TAG, 1});
+
+    IOException e =
+        assertThrows(
+            IOException.class,
+            () -> EntryHeader.readBytes(is, new byte[EntryHeader.MAX_BYTES]));
+
+    assertThat(e).hasMessageThat().isEqualTo("Read header was incomplete. Read [2] bytes.");
+  }
+}
@@ -7,19 +7,23 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mockStatic;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 
 @SuppressWarnings({"resource"})
@@ -33,6 +37,9 @@ public class EntryReaderTest {
 
   private final EntryReader entryReader = EntryReader.create(FILE_PATH);
 
+  @TempDir
+  Path tempDir;
+
   @Test
   public void readAllEntriesFromOffset() throws Exception {
     InputStream is = new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
@@ -58,15 +65,50 @@ public class EntryReaderTest {
     }
   }
 
+  @Test
+  public void readAllEntryViewsFromOffset() throws Exception {
+    InputStream is = new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.exists(any(), any())).thenReturn(true);
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      ImmutableList<EntryView> entryViews = entryReader.readAllEntryViewsFromOffset(0L);
+
+      assertThat(entryViews).hasSize(2);
+      assertThat(entryViews.get(0).toEntry()).isEqualTo(ENTRY_0);
+      assertThat(entryViews.get(1).toEntry()).isEqualTo(ENTRY_1);
+    }
+  }
+
+  @Test
+  public void readAllEntriesFromOffset_v1AndV2Entries() throws Exception {
+    EntryMetadata v1Metadata =
+        new EntryMetadata(
+            ENTRY_0.creationEpochSeconds(),
+            UnsignedShort.valueOf(ENTRY_0.key().size()),
+            UnsignedShort.valueOf(ENTRY_0.value().size()));
+    byte[] v1Bytes =
+        Bytes.concat(
+            v1Metadata.getBytes(), ENTRY_0.key().toByteArray(), ENTRY_0.value().toByteArray());
+    InputStream is = new ByteArrayInputStream(Bytes.concat(v1Bytes, ENTRY_1.getBytes()));
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.exists(any(), any())).thenReturn(true);
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      ImmutableList<Entry> entries = entryReader.readAllEntriesFromOffset(0L);
+      assertThat(entries).containsExactly(ENTRY_0, ENTRY_1);
+    }
+  }
+
   @Test
   public void readAllEntriesFromOffset_numberReadMismatch_key() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     String value = "value";
 
     EntryMetadata storedMetadata =
         new EntryMetadata(
             Instant.now().getEpochSecond(),
-            UnsignedShort.valueOf(key.length()),
+            UnsignedShort.valueOf(key.size()),
             UnsignedShort.valueOf(value.length()));
     InputStream is = new ByteArrayInputStream(storedMetadata.getBytes());
 
@@ -85,17 +127,17 @@ public class EntryReaderTest {
 
   @Test
   public void readAllEntriesFromOffset_numberReadMismatch_value() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     String value = "value";
 
     EntryMetadata storedMetadata =
         new EntryMetadata(
             Instant.now().getEpochSecond(),
-            UnsignedShort.valueOf(key.length()),
+            UnsignedShort.valueOf(key.size()),
             UnsignedShort.valueOf(value.length()));
     InputStream is =
         new ByteArrayInputStream(
-            Bytes.concat(storedMetadata.getBytes(), key.getBytes(StandardCharsets.UTF_8)));
+            Bytes.concat(storedMetadata.getBytes(), key.toByteArray()));
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.exists(any(), any())).thenReturn(true);
@@ -133,55 +175,63 @@ public class EntryReaderTest {
   }
 
   @Test
-  public void findEntryFromOffset_found() throws Exception {
+  public void findEntryViewFromOffset_found() throws Exception {
     InputStream is = new ByteArrayInputStream(ENTRY_0.getBytes());
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
-      Optional<Entry> entry = entryReader.findEntryFromOffset(ENTRY_0.key(), 0L);
+      Optional<Entry> entry =
+          entryReader
+              .findEntryViewFromOffset(ENTRY_0.key(), 0L)
+              .map(EntryView::toEntry);
       assertThat(entry).hasValue(ENTRY_0);
     }
   }
 
   @Test
-  public void findEntryFromOffset_found_noOffset() throws Exception {
+  public void findEntryViewFromOffset_found_noOffset() throws Exception {
     InputStream is = new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
-      Optional<Entry> entry = entryReader.findEntryFromOffset(ENTRY_1.key(), 0L);
+      Optional<Entry> entry =
+          entryReader
+              .findEntryViewFromOffset(ENTRY_1.key(), 0L)
+              .map(EntryView::toEntry);
       assertThat(entry).hasValue(ENTRY_1);
     }
   }
 
   @Test
-  public void findEntryFromOffset_found_skipToOffset() throws Exception {
+  public void findEntryViewFromOffset_found_skipToOffset() throws Exception {
     InputStream is = new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
       Optional<Entry> entry =
-          entryReader.findEntryFromOffset(ENTRY_1.key(), ENTRY_0.getBytes().length);
+          entryReader
+              .findEntryViewFromOffset(ENTRY_1.key(), ENTRY_0.getBytes().length)
+              .map(EntryView::toEntry);
       assertThat(entry).hasValue(ENTRY_1);
     }
   }
 
   @Test
-  public void findEntryFromOffset_found_numberReadMismatch_key() {
-    String key = "key";
+  public void findEntryViewFromOffset_found_numberReadMismatch_key() {
+    ByteString key = ByteString.copyFromUtf8("key");
     String value = "value";
 
     EntryMetadata storedMetadata =
         new EntryMetadata(
             Instant.now().getEpochSecond(),
-            UnsignedShort.valueOf(key.length()),
+            UnsignedShort.valueOf(key.size()),
             UnsignedShort.valueOf(value.length()));
     InputStream is = new ByteArrayInputStream(storedMetadata.getBytes());
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
       IOException e =
-          assertThrows(IOException.class, () -> entryReader.findEntryFromOffset(key, 0L));
+          assertThrows(IOException.class, () -> entryReader.findEntryViewFromOffset(key, 0L));
 
       assertThat(e)
           .hasMessageThat()
@@ -191,23 +241,23 @@ public class EntryReaderTest {
   }
 
   @Test
-  public void findEntryFromOffset_found_numberReadMismatch_value() {
-    String key = "key";
+  public void findEntryViewFromOffset_found_numberReadMismatch_value() {
+    ByteString key = ByteString.copyFromUtf8("key");
     String value = "value";
 
     EntryMetadata storedMetadata =
         new EntryMetadata(
             Instant.now().getEpochSecond(),
-            UnsignedShort.valueOf(key.length()),
+            UnsignedShort.valueOf(key.size()),
             UnsignedShort.valueOf(value.length()));
     InputStream is =
         new ByteArrayInputStream(
-            Bytes.concat(storedMetadata.getBytes(), key.getBytes(StandardCharsets.UTF_8)));
+            Bytes.concat(storedMetadata.getBytes(), key.toByteArray()));
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
       IOException e =
-          assertThrows(IOException.class, () -> entryReader.findEntryFromOffset(key, 0L));
+          assertThrows(IOException.class, () -> entryReader.findEntryViewFromOffset(key, 0L));
 
       assertThat(e)
           .hasMessageThat()
@@ -217,29 +267,218 @@ public class EntryReaderTest {
   }
 
   @Test
-  public void findEntryFromOffset_emptyFile() throws Exception {
-    String key = "key";
+  public void findEntryViewFromOffset_emptyFile() throws Exception {
+    ByteString key = ByteString.copyFromUtf8("key");
     InputStream is = new ByteArrayInputStream(new byte[0]);
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
-      Optional<Entry> entry = entryReader.findEntryFromOffset(key, 0L);
+      Optional<Entry> entry =
+          entryReader
+              .findEntryViewFromOffset(key, 0L)
+              .map(EntryView::toEntry);
       assertThat(entry).isEmpty();
     }
   }
 
   @Test
-  public void findEntryFromOffset_notFound() throws Exception {
-    String key = "key";
+  public void findEntryViewFromOffset_notFound() throws Exception {
+    ByteString key = ByteString.copyFromUtf8("key");
     String value = "value";
 
-    Entry storedEntry = new Entry(Instant.now().getEpochSecond(), key, value);
+    Entry storedEntry = new Entry(Instant.now().getEpochSecond(), key, ByteString.copyFromUtf8(value));
     InputStream is = new ByteArrayInputStream(storedEntry.getBytes());
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
-      Optional<Entry> entry = entryReader.findEntryFromOffset("absent-key", 0L);
+      Optional<Entry> entry =
+          entryReader
+              .findEntryViewFromOffset(ByteString.copyFromUtf8("absent-key"), 0L)
+              .map(EntryView::toEntry);
       assertThat(entry).isEmpty();
     }
   }
+
+  @Test
+  public void findEntryViewFromOffset_entryLargerThanScanBuffer() throws Exception {
+    Entry largeEntry =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            "large-key",
+            "v".repeat(2 * EntryReader.INITIAL_SCAN_BUFFER_BYTES));
+    InputStream is =
+        new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), largeEntry.getBytes()));
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      Optional<Entry> entry =
+          entryReader
+              .findEntryViewFromOffset(largeEntry.key(), 0L)
+              .map(EntryView::toEntry);
+      assertThat(entry).hasValue(largeEntry);
+    }
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_found_skipToOffset() throws Exception {
+    Entry entry2 = new Entry(Instant.now().getEpochSecond(), "key2", "value2");
+    EntryReader reader =
+        createTempFileReader(
+            Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes(), entry2.getBytes()));
+
+    Optional<EntryView> entryView =
+        reader.findEntryViewFromOffsetAsync(entry2.key(), ENTRY_0.getNumBytesSize()).get();
+
+    assertThat(entryView.map(EntryView::toEntry)).hasValue(entry2);
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_notFound() throws Exception {
+    EntryReader reader = createTempFileReader(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
+
+    Optional<EntryView> entryView =
+        reader.findEntryViewFromOffsetAsync(ByteString.copyFromUtf8("absent-key"), 0L).get();
+
+    assertThat(entryView).isEmpty();
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_entryLargerThanScanBuffer() throws Exception {
+    Entry largeEntry =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            "large-key",
+            "v".repeat(2 * EntryReader.INITIAL_SCAN_BUFFER_BYTES));
+    EntryReader reader =
+        createTempFileReader(Bytes.concat(ENTRY_0.getBytes(), largeEntry.getBytes()));
+
+    Optional<EntryView> entryView =
+        reader.findEntryViewFromOffsetAsync(largeEntry.key(), 0L).get();
+
+    assertThat(entryView.map(EntryView::toEntry)).hasValue(largeEntry);
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_incompleteEntry_failsWithIOException() throws Exception {
+    byte[] bytes = ENTRY_0.getBytes();
+    EntryReader reader = createTempFileReader(Arrays.copyOf(bytes, bytes.length - 1));
+
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class,
+            () -> reader.findEntryViewFromOffsetAsync(ENTRY_0.key(), 0L).get());
+
+    assertThat(e).hasCauseThat().isInstanceOf(IOException.class);
+    assertThat(e)
+        .hasCauseThat()
+        .hasMessageThat()
+        .isEqualTo(
+            String.format(
+                "Read entry length did not match entry. Read [%d], expected [%d].",
+                bytes.length - 1, bytes.length));
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_entriesSpanningBlocks_found() throws Exception {
+    Entry filler =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            "filler",
+            "v".repeat(EntryReader.ASYNC_SCAN_BLOCK_BYTES - 100));
+    Entry entry2 = new Entry(Instant.now().getEpochSecond(), "key2", "value2");
+    EntryReader reader =
+        createTempFileReader(
+            Bytes.concat(ENTRY_0.getBytes(), filler.getBytes(), entry2.getBytes()));
+
+    Optional<EntryView> fillerView = reader.findEntryViewFromOffsetAsync(filler.key(), 0L).get();
+    Optional<EntryView> entryView = reader.findEntryViewFromOffsetAsync(entry2.key(), 0L).get();
+
+    assertThat(fillerView.map(EntryView::toEntry)).hasValue(filler);
+    assertThat(entryView.map(EntryView::toEntry)).hasValue(entry2);
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_closed_failsWithIOException() throws Exception {
+    EntryReader reader = createTempFileReader(ENTRY_0.getBytes());
+    assertThat(reader.findEntryViewFromOffsetAsync(ENTRY_0.key(), 0L).get()).isPresent();
+
+    reader.close();
+
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class,
+            () -> reader.findEntryViewFromOffsetAsync(ENTRY_0.key(), 0L).get());
+    assertThat(e).hasCauseThat().isInstanceOf(IOException.class);
+  }
+
+  @Test
+  public void findEntryViewFromOffsetAsync_fileNonexistent_failsWithIOException() {
+    EntryReader reader = EntryReader.create(tempDir.resolve("absent.seg"));
+
+    ExecutionException e =
+        assertThrows(
+            ExecutionException.class,
+            () -> reader.findEntryViewFromOffsetAsync(ENTRY_0.key(), 0L).get());
+
+    assertThat(e).hasCauseThat().isInstanceOf(IOException.class);
+  }
+
+  @Test
+  public void findEntryViewsAtOffsets() throws Exception {
+    Entry entry2 = new Entry(Instant.now().getEpochSecond(), "key2", "value2");
+    InputStream is =
+        new ByteArrayInputStream(
+            Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes(), entry2.getBytes()));
+    long entry2Offset = ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize();
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      ImmutableMap<ByteString, EntryView> entryViews =
+          entryReader.findEntryViewsAtOffsets(
+              ImmutableMap.of(entry2.key(), entry2Offset, ENTRY_0.key(), 0L));
+
+      assertThat(entryViews).hasSize(2);
+      assertThat(entryViews.get(ENTRY_0.key()).toEntry()).isEqualTo(ENTRY_0);
+      assertThat(entryViews.get(entry2.key()).toEntry()).isEqualTo(entry2);
+    }
+  }
+
+  @Test
+  public void findEntryViewsAtOffsets_keyMismatch_omitted() throws Exception {
+    InputStream is = new ByteArrayInputStream(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      ImmutableMap<ByteString, EntryView> entryViews =
+          entryReader.findEntryViewsAtOffsets(ImmutableMap.of(ENTRY_0.key(), 0L,
+              ByteString.copyFromUtf8("other"), ENTRY_0.getNumBytesSize()));
+
+      assertThat(entryViews.keySet()).containsExactly(ENTRY_0.key());
+    }
+  }
+
+  @Test
+  public void findEntryViewsAtOffsets_offsetPastEnd_throwsIOException() {
+    InputStream is = new ByteArrayInputStream(ENTRY_0.getBytes());
+
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      filesMockedStatic.when(() -> Files.newInputStream(any(), any())).thenReturn(is);
+      long offset = ENTRY_0.getNumBytesSize();
+
+      IOException e =
+          assertThrows(
+              IOException.class,
+              () -> entryReader.findEntryViewsAtOffsets(ImmutableMap.of(ENTRY_1.key(), offset)));
+
+      assertThat(e)
+          .hasMessageThat()
+          .isEqualTo(String.format("No entry found at offset [%d].", offset));
+    }
+  }
+
+  private EntryReader createTempFileReader(byte[] bytes) throws IOException {
+    Path path = tempDir.resolve("segment_0.seg");
+    Files.write(path, bytes);
+    return EntryReader.create(path);
+  }
 }
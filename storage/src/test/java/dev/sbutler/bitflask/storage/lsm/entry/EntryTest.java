@@ -4,7 +4,9 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Arrays;
@@ -57,8 +59,8 @@ public class EntryTest {
   @Test
   public void constructor_valueGreaterThanMaxLength_throwsIllegalArgumentException() {
     long creationEpochSeconds = Instant.now().getEpochSecond();
-    String key = "key";
-    String value = String.valueOf(new char[Entry.VALUE_MAX_LENGTH + 1]);
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFrom(new byte[Entry.VALUE_MAX_LENGTH + 1]);
 
     IllegalArgumentException e =
         assertThrows(
@@ -67,21 +69,22 @@ public class EntryTest {
     assertThat(e).hasMessageThat().ignoringCase().contains("Value length greater than allowed.");
   }
 
+  @Test
+  public void constructor_negativeExpiryEpochSeconds_throwsIllegalArgumentException() {
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> new Entry(Instant.now().getEpochSecond(), key, value, -1));
+
+    assertThat(e).hasMessageThat().contains("ExpiryEpochSeconds cannot be negative.");
+  }
+
   @Test
   public void identityConversion_fromBytes() {
-    long creationEpochSeconds = Instant.now().getEpochSecond();
-    String key = "key";
-    String value = "value";
-    EntryMetadata metadata =
-        new EntryMetadata(
-            creationEpochSeconds,
-            UnsignedShort.valueOf(key.length()),
-            UnsignedShort.valueOf(value.length()));
-    byte[] expectedBytes =
-        Bytes.concat(
-            metadata.getBytes(),
-            key.getBytes(StandardCharsets.UTF_8),
-            value.getBytes(StandardCharsets.UTF_8));
+    byte[] expectedBytes = new Entry(Instant.now().getEpochSecond(), "key", "value").getBytes();
 
     byte[] bytes = Entry.fromBytes(expectedBytes).getBytes();
 
@@ -101,7 +104,78 @@ public class EntryTest {
   }
 
   @Test
-  public void fromBytes() {
+  public void identityConversion_expiringEntry() {
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    Entry expected =
+        new Entry(
+            creationEpochSeconds,
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFromUtf8("value"),
+            creationEpochSeconds + 60);
+
+    Entry created = Entry.fromBytes(expected.getBytes());
+
+    assertThat(created).isEqualTo(expected);
+    assertThat(expected.getBytes()[0]).isEqualTo(EntryHeader.V2_EXPIRING_TAG);
+  }
+
+  @Test
+  public void identityConversion_mergeOperand() {
+    Entry expected =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFromUtf8("5"),
+            MergeOperator.INCREMENT);
+
+    Entry created = Entry.fromBytes(expected.getBytes());
+
+    assertThat(created).isEqualTo(expected);
+    assertThat(created.getMergeOperator()).isEqualTo(MergeOperator.INCREMENT);
+    assertThat(expected.getBytes()[0]).isEqualTo(EntryHeader.V2_MERGE_TAG);
+    assertThat(expected.getNumBytesSize()).isEqualTo(expected.getBytes().length);
+  }
+
+  @Test
+  public void constructor_expiringMergeOperand_throwsIllegalArgumentException() {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
+
+    IllegalArgumentException e =
+        assertThrows(
+            IllegalArgumentException.class,
+            () ->
+                new Entry(
+                    nowEpochSeconds,
+                    key,
+                    value,
+                    nowEpochSeconds + 1,
+                    MergeOperator.APPEND.getId()));
+
+    assertThat(e).hasMessageThat().isEqualTo("A merge operand cannot expire.");
+  }
+
+  @Test
+  public void getMergeOperator_notMergeOperand_throwsIllegalStateException() {
+    Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "value");
+
+    assertThrows(IllegalStateException.class, entry::getMergeOperator);
+  }
+
+  @Test
+  public void identityConversion_largeValue() {
+    ByteString value = ByteString.copyFrom(new byte[1024 * 1024]);
+    Entry expected =
+        new Entry(Instant.now().getEpochSecond(), ByteString.copyFromUtf8("key"), value);
+
+    Entry created = Entry.fromBytes(expected.getBytes());
+
+    assertThat(created).isEqualTo(expected);
+  }
+
+  @Test
+  public void fromBytes_v1() {
     long creationEpochSeconds = Instant.now().getEpochSecond();
     String key = "key";
     String value = "value";
@@ -148,6 +222,17 @@ public class EntryTest {
         .contains("Byte array length does not match decoded header.");
   }
 
+  @Test
+  public void fromBytes_unrecognizedFormatTag_throwsIllegalArgumentException() {
+    byte[] bytes = new Entry(Instant.now().getEpochSecond(), "key", "value").getBytes();
+    bytes[0] = 0x7F;
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> Entry.fromBytes(bytes));
+
+    assertThat(e).hasMessageThat().isEqualTo("Unrecognized entry format tag [127] at offset [0]");
+  }
+
   @Test
   public void getBytes() {
     // Arrange
@@ -160,26 +245,60 @@ public class EntryTest {
     byte[] bytes = entry.getBytes();
 
     // Assert
-    byte[] metadataBytes = Arrays.copyOfRange(bytes, 0, EntryMetadata.BYTES);
-    EntryMetadata decodedMetadata = EntryMetadata.fromBytes(metadataBytes);
-    assertThat(decodedMetadata).isEqualTo(entry.getMetaData());
+    EntryHeader header = EntryHeader.decode(ByteBuffer.wrap(bytes), 0);
+    assertThat(bytes[0]).isEqualTo(EntryHeader.V2_TAG);
+    assertThat(header.creationEpochSeconds()).isEqualTo(creationEpochSeconds);
+    assertThat(header.keyLength()).isEqualTo(key.length());
+    assertThat(header.valueLength()).isEqualTo(value.length());
 
     String decodedKey =
-        new String(
-            bytes,
-            EntryMetadata.BYTES,
-            decodedMetadata.keyLength().value(),
-            StandardCharsets.UTF_8);
+        new String(bytes, header.numBytes(), header.keyLength(), StandardCharsets.UTF_8);
     assertThat(decodedKey).isEqualTo(key);
 
-    int valueOffset = EntryMetadata.BYTES + decodedMetadata.keyLength().value();
+    int valueOffset = header.numBytes() + header.keyLength();
     String decodedValue =
-        new String(
-            bytes, valueOffset, decodedMetadata.valueLength().value(), StandardCharsets.UTF_8);
+        new String(bytes, valueOffset, header.valueLength(), StandardCharsets.UTF_8);
 
     assertThat(decodedValue).isEqualTo(value);
   }
 
+  @Test
+  public void writeTo() {
+    Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "value");
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    buffer.put((byte) 1);
+
+    entry.writeTo(buffer);
+
+    assertThat(buffer.position()).isEqualTo(1 + entry.getNumBytesSize());
+    assertThat(Arrays.copyOfRange(buffer.array(), 1, buffer.position()))
+        .isEqualTo(entry.getBytes());
+  }
+
+  @Test
+  public void writeTo_multiByteCharacters() {
+    String key = "k\u00e9y\u20ac";
+    String value = "v\ud83d\ude00";
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    Entry entry = new Entry(creationEpochSeconds, key, value);
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+
+    entry.writeTo(buffer);
+
+    int keyLength = key.getBytes(StandardCharsets.UTF_8).length;
+    int valueLength = value.getBytes(StandardCharsets.UTF_8).length;
+    ByteBuffer headerBuffer =
+        ByteBuffer.allocate(EntryHeader.v2NumBytes(creationEpochSeconds, keyLength, valueLength));
+    EntryHeader.writeV2(headerBuffer, creationEpochSeconds, keyLength, valueLength);
+    byte[] expected =
+        Bytes.concat(
+            headerBuffer.array(),
+            key.getBytes(StandardCharsets.UTF_8),
+            value.getBytes(StandardCharsets.UTF_8));
+    assertThat(Arrays.copyOf(buffer.array(), buffer.position())).isEqualTo(expected);
+    assertThat(Entry.fromBytes(expected)).isEqualTo(entry);
+  }
+
   @Test
   public void isDeleted_deletedEntry_returnsTrue() {
     Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "");
@@ -194,6 +313,32 @@ public class EntryTest {
     assertThat(entry.isDeleted()).isFalse();
   }
 
+  @Test
+  public void isDeleted_emptyMergeOperand_returnsFalse() {
+    Entry entry =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.EMPTY,
+            MergeOperator.APPEND);
+
+    assertThat(entry.isDeleted()).isFalse();
+  }
+
+  @Test
+  public void isExpired() {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
+
+    assertThat(new Entry(nowEpochSeconds, key, value).isExpired(Long.MAX_VALUE)).isFalse();
+    assertThat(new Entry(nowEpochSeconds, key, value, nowEpochSeconds).isExpired(nowEpochSeconds))
+        .isTrue();
+    assertThat(
+            new Entry(nowEpochSeconds, key, value, nowEpochSeconds + 1).isExpired(nowEpochSeconds))
+        .isFalse();
+  }
+
   @Test
   public void getNumBytesSize() {
     Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "value");
@@ -202,14 +347,19 @@ public class EntryTest {
   }
 
   @Test
-  public void getMetadata() {
+  public void getNumBytesSize_multiByteCharacters() {
     long creationEpochSeconds = Instant.now().getEpochSecond();
-    Entry entry = new Entry(creationEpochSeconds, "key", "value");
-    EntryMetadata expectedMetadata =
-        new EntryMetadata(creationEpochSeconds, UnsignedShort.valueOf(3), UnsignedShort.valueOf(5));
+    Entry entry = new Entry(creationEpochSeconds, "k\u00e9y", "v\u20ac");
 
-    EntryMetadata metadata = entry.getMetaData();
+    assertThat(entry.getNumBytesSize())
+        .isEqualTo(EntryHeader.v2NumBytes(creationEpochSeconds, 4, 4) + 4 + 4);
+    assertThat(entry.getNumBytesSize()).isEqualTo(entry.getBytes().length);
+  }
+
+  @Test
+  public void getNumBytesSize_smallerThanV1() {
+    Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "value");
 
-    assertThat(metadata).isEqualTo(expectedMetadata);
+    assertThat(entry.getNumBytesSize()).isLessThan(EntryMetadata.BYTES + 3 + 5);
   }
 }
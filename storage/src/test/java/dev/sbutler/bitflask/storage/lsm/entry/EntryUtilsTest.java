@@ -1,10 +1,13 @@
 package dev.sbutler.bitflask.storage.lsm.entry;
 
 import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.SortedMap;
 import org.junit.jupiter.api.Test;
 
@@ -20,11 +23,106 @@ public class EntryUtilsTest {
   private static final Entry ENTRY_1_DUPLICATE_OLDER =
       new Entry(EPOCH_SECONDS_0, ENTRY_1.key(), ENTRY_1.value());
 
+  private static final ByteString MERGE_KEY = ByteString.copyFromUtf8("counter");
+
+  @Test
+  public void applyMergeOperand_olderValue_mergesKeepingExpiry() {
+    Entry older = new Entry(EPOCH_SECONDS_0, MERGE_KEY, ByteString.copyFromUtf8("5"),
+        EPOCH_SECONDS_0 + 60);
+    Entry operand = incrementOperand(EPOCH_SECONDS_1, 3);
+
+    Entry merged = EntryUtils.applyMergeOperand(older, operand).orElseThrow();
+
+    assertThat(merged)
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("8"),
+            EPOCH_SECONDS_0 + 60));
+  }
+
+  @Test
+  public void applyMergeOperand_olderDeleted_mergesOntoEmptyValue() {
+    Entry older = new Entry(EPOCH_SECONDS_0, MERGE_KEY, ByteString.EMPTY);
+    Entry operand = incrementOperand(EPOCH_SECONDS_1, 3);
+
+    Entry merged = EntryUtils.applyMergeOperand(older, operand).orElseThrow();
+
+    assertThat(merged)
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("3")));
+  }
+
+  @Test
+  public void applyMergeOperand_olderExpiredAtOperandCreation_mergesOntoEmptyValue() {
+    Entry older = new Entry(0, MERGE_KEY, ByteString.copyFromUtf8("5"), 1);
+    Entry operand = incrementOperand(EPOCH_SECONDS_1, 3);
+
+    Entry merged = EntryUtils.applyMergeOperand(older, operand).orElseThrow();
+
+    assertThat(merged)
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("3")));
+  }
+
+  @Test
+  public void applyMergeOperand_olderOperandSameOperator_combinesOperands() {
+    Entry older = incrementOperand(EPOCH_SECONDS_0, 2);
+    Entry operand = incrementOperand(EPOCH_SECONDS_1, 3);
+
+    Entry merged = EntryUtils.applyMergeOperand(older, operand).orElseThrow();
+
+    assertThat(merged).isEqualTo(incrementOperand(EPOCH_SECONDS_1, 5));
+  }
+
+  @Test
+  public void applyMergeOperand_olderOperandDifferentOperator_returnsEmpty() {
+    Entry older = Entry.mergeOperand(EPOCH_SECONDS_0, MERGE_KEY, ByteString.copyFromUtf8("x"),
+        MergeOperator.APPEND);
+    Entry operand = incrementOperand(EPOCH_SECONDS_1, 3);
+
+    assertThat(EntryUtils.applyMergeOperand(older, operand)).isEqualTo(Optional.empty());
+  }
+
+  @Test
+  public void applyMergeOperand_notMergeOperand_throwsIllegalArgumentException() {
+    assertThrows(IllegalArgumentException.class,
+        () -> EntryUtils.applyMergeOperand(ENTRY_0, ENTRY_0_DUPLICATE_NEWER));
+  }
+
+  @Test
+  public void foldMergeOperands_withBase() {
+    Entry base = new Entry(EPOCH_SECONDS_0, MERGE_KEY, ByteString.copyFromUtf8("a"));
+    ImmutableList<Entry> operandsNewestFirst = ImmutableList.of(
+        Entry.mergeOperand(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("c"),
+            MergeOperator.APPEND),
+        Entry.mergeOperand(EPOCH_SECONDS_0, MERGE_KEY, ByteString.copyFromUtf8("b"),
+            MergeOperator.APPEND));
+
+    Entry folded = EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.of(base));
+
+    assertThat(folded)
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("abc")));
+  }
+
+  @Test
+  public void foldMergeOperands_withoutBase_differentOperators() {
+    ImmutableList<Entry> operandsNewestFirst = ImmutableList.of(
+        Entry.mergeOperand(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("1"),
+            MergeOperator.APPEND),
+        incrementOperand(EPOCH_SECONDS_0, 4));
+
+    Entry folded = EntryUtils.foldMergeOperands(operandsNewestFirst, Optional.empty());
+
+    assertThat(folded)
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, MERGE_KEY, ByteString.copyFromUtf8("41")));
+  }
+
+  private static Entry incrementOperand(long creationEpochSeconds, long delta) {
+    return Entry.mergeOperand(creationEpochSeconds, MERGE_KEY,
+        ByteString.copyFromUtf8(Long.toString(delta)), MergeOperator.INCREMENT);
+  }
+
   @Test
   public void buildImmutableKeyEntryMap_stillMutable() {
     ImmutableList<Entry> entries = ImmutableList.of(ENTRY_0, ENTRY_1);
 
-    SortedMap<String, Entry> keyEntryMap = EntryUtils.buildKeyEntryMap(entries);
+    SortedMap<ByteString, Entry> keyEntryMap = EntryUtils.buildKeyEntryMap(entries);
 
     assertThat(keyEntryMap.values()).containsExactly(ENTRY_0, ENTRY_1).inOrder();
     assertThat(keyEntryMap.get(ENTRY_0.key())).isEqualTo(ENTRY_0);
@@ -38,7 +136,7 @@ public class EntryUtilsTest {
   public void buildImmutableKeyEntryMap_allUnique_inOrder() {
     ImmutableList<Entry> entries = ImmutableList.of(ENTRY_0, ENTRY_1);
 
-    ImmutableSortedMap<String, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
 
     assertThat(keyEntryMap.values()).containsExactly(ENTRY_0, ENTRY_1).inOrder();
     assertThat(keyEntryMap.get(ENTRY_0.key())).isEqualTo(ENTRY_0);
@@ -49,7 +147,7 @@ public class EntryUtilsTest {
   public void buildImmutableKeyEntryMap_allUnique_reverseOrderOrder() {
     ImmutableList<Entry> entries = ImmutableList.of(ENTRY_1, ENTRY_0);
 
-    ImmutableSortedMap<String, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
 
     assertThat(keyEntryMap.values()).containsExactly(ENTRY_0, ENTRY_1).inOrder();
     assertThat(keyEntryMap.get(ENTRY_0.key())).isEqualTo(ENTRY_0);
@@ -60,7 +158,7 @@ public class EntryUtilsTest {
   public void buildImmutableKeyEntryMap_withNewerDuplicateFirst() {
     ImmutableList<Entry> entries = ImmutableList.of(ENTRY_0_DUPLICATE_NEWER, ENTRY_0);
 
-    ImmutableSortedMap<String, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
 
     assertThat(keyEntryMap.values()).containsExactly(ENTRY_0_DUPLICATE_NEWER);
     assertThat(keyEntryMap.get(ENTRY_0_DUPLICATE_NEWER.key())).isEqualTo(ENTRY_0_DUPLICATE_NEWER);
@@ -70,7 +168,7 @@ public class EntryUtilsTest {
   public void buildImmutableKeyEntryMap_withOlderDuplicateFirst() {
     ImmutableList<Entry> entries = ImmutableList.of(ENTRY_1_DUPLICATE_OLDER, ENTRY_1);
 
-    ImmutableSortedMap<String, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap = EntryUtils.buildImmutableKeyEntryMap(entries);
 
     assertThat(keyEntryMap.values()).containsExactly(ENTRY_1);
     assertThat(keyEntryMap.get(ENTRY_1.key())).isEqualTo(ENTRY_1);
@@ -0,0 +1,175 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+public class EntryViewTest {
+
+  private static final Entry ENTRY_0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+  private static final Entry ENTRY_1 = new Entry(Instant.now().getEpochSecond(), "kéy1", "välue1");
+
+  private final ByteBuffer buffer =
+      ByteBuffer.wrap(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes()));
+  private final EntryView view_0 = EntryView.wrap(buffer, 0);
+  private final EntryView view_1 =
+      EntryView.wrap(buffer, Math.toIntExact(ENTRY_0.getNumBytesSize()));
+
+  @Test
+  public void wrap_incompleteMetadata_throwsIllegalArgumentException() {
+    ByteBuffer incomplete = ByteBuffer.allocate(EntryMetadata.BYTES - 1);
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryView.wrap(incomplete, 0));
+
+    assertThat(e).hasMessageThat().isEqualTo("Buffer does not contain EntryMetadata at offset [0]");
+  }
+
+  @Test
+  public void wrap_incompleteEntry_throwsIllegalArgumentException() {
+    byte[] bytes = ENTRY_0.getBytes();
+    ByteBuffer incomplete = ByteBuffer.wrap(bytes, 0, bytes.length - 1).slice();
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> EntryView.wrap(incomplete, 0));
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo(
+            String.format(
+                "Buffer does not contain a complete entry at offset [0]. Expected [%d] bytes,"
+                    + " found [%d]",
+                bytes.length, bytes.length - 1));
+  }
+
+  @Test
+  public void fields() {
+    assertThat(view_1.creationEpochSeconds()).isEqualTo(ENTRY_1.creationEpochSeconds());
+    assertThat(view_1.getKeyLength())
+        .isEqualTo(ENTRY_1.key().size());
+    assertThat(view_1.getValueLength())
+        .isEqualTo(ENTRY_1.value().size());
+    assertThat(view_1.getNumBytesSize()).isEqualTo(ENTRY_1.getNumBytesSize());
+    assertThat(view_1.key()).isEqualTo(ENTRY_1.key());
+    assertThat(view_1.value()).isEqualTo(ENTRY_1.value());
+  }
+
+  @Test
+  public void keyEquals() {
+    assertThat(view_0.keyEquals(ENTRY_0.key())).isTrue();
+    assertThat(view_0.keyEquals(ENTRY_1.key())).isFalse();
+    assertThat(view_0.keyEquals(ByteString.copyFromUtf8("key"))).isFalse();
+  }
+
+  @Test
+  public void keyEquals_directBuffer() {
+    byte[] bytes = ENTRY_0.getBytes();
+    ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    EntryView view = EntryView.wrap(directBuffer, 0);
+
+    assertThat(view.keyEquals(ENTRY_0.key())).isTrue();
+    assertThat(view.keyEquals(ByteString.copyFromUtf8("key1"))).isFalse();
+    assertThat(view.toEntry()).isEqualTo(ENTRY_0);
+  }
+
+  @Test
+  public void isDeleted() {
+    Entry deletedEntry = new Entry(Instant.now().getEpochSecond(), "key", "");
+    EntryView view = EntryView.wrap(ByteBuffer.wrap(deletedEntry.getBytes()), 0);
+
+    assertThat(view.isDeleted()).isTrue();
+    assertThat(view_0.isDeleted()).isFalse();
+  }
+
+  @Test
+  public void isValueInBlob() {
+    EntryView blobView = createBlobReferenceView();
+
+    assertThat(blobView.isValueInBlob()).isTrue();
+    assertThat(blobView.isDeleted()).isFalse();
+    assertThat(view_0.isValueInBlob()).isFalse();
+  }
+
+  @Test
+  public void toEntry() {
+    assertThat(view_0.toEntry()).isEqualTo(ENTRY_0);
+    assertThat(view_1.toEntry()).isEqualTo(ENTRY_1);
+  }
+
+  @Test
+  public void toEntry_expiringEntry() {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Entry expiringEntry =
+        new Entry(
+            nowEpochSeconds,
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFromUtf8("value"),
+            nowEpochSeconds + 60);
+    EntryView view = EntryView.wrap(ByteBuffer.wrap(expiringEntry.getBytes()), 0);
+
+    assertThat(view.expiryEpochSeconds()).isEqualTo(nowEpochSeconds + 60);
+    assertThat(view.isExpired(nowEpochSeconds)).isFalse();
+    assertThat(view.isExpired(nowEpochSeconds + 60)).isTrue();
+    assertThat(view.toEntry()).isEqualTo(expiringEntry);
+  }
+
+  @Test
+  public void toEntry_mergeOperand() {
+    Entry operand =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.EMPTY,
+            MergeOperator.APPEND);
+    EntryView view = EntryView.wrap(ByteBuffer.wrap(operand.getBytes()), 0);
+
+    assertThat(view.isMergeOperand()).isTrue();
+    assertThat(view.mergeOperatorId()).isEqualTo(MergeOperator.APPEND.getId());
+    assertThat(view.isDeleted()).isFalse();
+    assertThat(view.toEntry()).isEqualTo(operand);
+  }
+
+  @Test
+  public void toEntry_valueInBlob_throwsIllegalStateException() {
+    EntryView blobView = createBlobReferenceView();
+
+    IllegalStateException e = assertThrows(IllegalStateException.class, blobView::toEntry);
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("Entry value is stored in a blob file and must be resolved");
+  }
+
+  @Test
+  public void writeTo() {
+    ByteBuffer destination = ByteBuffer.allocate(Math.toIntExact(ENTRY_1.getNumBytesSize()));
+
+    view_1.writeTo(destination);
+
+    assertThat(destination.position()).isEqualTo(destination.capacity());
+    assertThat(destination.array()).isEqualTo(ENTRY_1.getBytes());
+  }
+
+  @Test
+  public void equals() {
+    EntryView copy = EntryView.wrap(ByteBuffer.wrap(ENTRY_0.getBytes()), 0);
+
+    assertThat(view_0).isEqualTo(copy);
+    assertThat(view_0.hashCode()).isEqualTo(copy.hashCode());
+    assertThat(view_0).isNotEqualTo(view_1);
+  }
+
+  private static EntryView createBlobReferenceView() {
+    BlobReferenceEntry entry =
+        new BlobReferenceEntry(
+            ENTRY_0.creationEpochSeconds(), ENTRY_0.key(), ByteString.copyFromUtf8("pointer"));
+    ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(entry.getNumBytesSize()));
+    entry.writeTo(buffer);
+    return EntryView.wrap(buffer, 0);
+  }
+}
@@ -0,0 +1,86 @@
+package dev.sbutler.bitflask.storage.lsm.entry;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
+import org.junit.jupiter.api.Test;
+
+public class MergeOperatorTest {
+
+  @Test
+  public void increment_merge() {
+    assertThat(merge(MergeOperator.INCREMENT, "5", "3")).isEqualTo("8");
+    assertThat(merge(MergeOperator.INCREMENT, "5", "-7")).isEqualTo("-2");
+  }
+
+  @Test
+  public void increment_merge_emptyExistingValue_treatedAsZero() {
+    assertThat(merge(MergeOperator.INCREMENT, "", "3")).isEqualTo("3");
+  }
+
+  @Test
+  public void increment_merge_nonNumericExistingValue_throwsStorageMergeException() {
+    StorageMergeException e =
+        assertThrows(
+            StorageMergeException.class, () -> merge(MergeOperator.INCREMENT, "value", "3"));
+
+    assertThat(e).hasMessageThat().isEqualTo("value is not an integer or out of range");
+  }
+
+  @Test
+  public void increment_merge_overflow_throwsStorageMergeException() {
+    String max = Long.toString(Long.MAX_VALUE);
+
+    StorageMergeException e =
+        assertThrows(StorageMergeException.class, () -> merge(MergeOperator.INCREMENT, max, "1"));
+
+    assertThat(e).hasMessageThat().isEqualTo("value is not an integer or out of range");
+  }
+
+  @Test
+  public void increment_merge_isAssociative() {
+    assertThat(merge(MergeOperator.INCREMENT, merge(MergeOperator.INCREMENT, "1", "2"), "3"))
+        .isEqualTo(merge(MergeOperator.INCREMENT, "1", merge(MergeOperator.INCREMENT, "2", "3")));
+  }
+
+  @Test
+  public void append_merge() {
+    assertThat(merge(MergeOperator.APPEND, "abc", "def")).isEqualTo("abcdef");
+    assertThat(merge(MergeOperator.APPEND, "", "def")).isEqualTo("def");
+  }
+
+  @Test
+  public void append_merge_exceedsMaxLength_throwsStorageMergeException() {
+    ByteString existingValue = ByteString.copyFrom(new byte[Entry.VALUE_MAX_LENGTH]);
+
+    StorageMergeException e =
+        assertThrows(
+            StorageMergeException.class,
+            () -> MergeOperator.APPEND.merge(existingValue, ByteString.copyFromUtf8("x")));
+
+    assertThat(e).hasMessageThat().isEqualTo("value would exceed the maximum length");
+  }
+
+  @Test
+  public void fromId() {
+    for (MergeOperator mergeOperator : MergeOperator.values()) {
+      assertThat(MergeOperator.fromId(mergeOperator.getId())).isEqualTo(mergeOperator);
+    }
+  }
+
+  @Test
+  public void fromId_unknownId_throwsIllegalArgumentException() {
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> MergeOperator.fromId(0));
+
+    assertThat(e).hasMessageThat().isEqualTo("No MergeOperator exists for id [0].");
+  }
+
+  private static String merge(MergeOperator mergeOperator, String existingValue, String operand) {
+    return mergeOperator
+        .merge(ByteString.copyFromUtf8(existingValue), ByteString.copyFromUtf8(operand))
+        .toStringUtf8();
+  }
+}
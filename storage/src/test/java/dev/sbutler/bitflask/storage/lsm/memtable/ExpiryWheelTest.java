@@ -0,0 +1,92 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ExpiryWheel}. */
+public class ExpiryWheelTest {
+
+  private static final long START_EPOCH_SECONDS = 1_000_000;
+  private static final ByteString KEY_0 = ByteString.copyFromUtf8("key0");
+  private static final ByteString KEY_1 = ByteString.copyFromUtf8("key1");
+
+  private final ExpiryWheel wheel = new ExpiryWheel(START_EPOCH_SECONDS);
+
+  @Test
+  public void advance_beforeExpiry_returnsNothing() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS + 10);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 9)).isEmpty();
+    assertThat(wheel.size()).isEqualTo(1);
+  }
+
+  @Test
+  public void advance_atExpiry_returnsKey() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS + 10);
+    wheel.schedule(KEY_1, START_EPOCH_SECONDS + 11);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 10)).containsExactly(KEY_0);
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 11)).containsExactly(KEY_1);
+    assertThat(wheel.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void advance_pastExpiry_returnsKey() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS + 10);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 100)).containsExactly(KEY_0);
+  }
+
+  @Test
+  public void advance_toCurrentTime_returnsNothing() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS - 10);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS)).isEmpty();
+    assertThat(wheel.advance(START_EPOCH_SECONDS - 5)).isEmpty();
+  }
+
+  @Test
+  public void schedule_alreadyExpired_returnedOnNextAdvance() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS - 10);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 1)).containsExactly(KEY_0);
+  }
+
+  @Test
+  public void schedule_higherLevels_cascadedToExactExpiry() {
+    long[] delays = {
+      ExpiryWheel.SLOTS_PER_LEVEL - 1,
+      ExpiryWheel.SLOTS_PER_LEVEL,
+      ExpiryWheel.SLOTS_PER_LEVEL * ExpiryWheel.SLOTS_PER_LEVEL + 7,
+      (long) ExpiryWheel.SLOTS_PER_LEVEL * ExpiryWheel.SLOTS_PER_LEVEL * ExpiryWheel.SLOTS_PER_LEVEL
+          + 13,
+    };
+    for (long delay : delays) {
+      ExpiryWheel levelWheel = new ExpiryWheel(START_EPOCH_SECONDS);
+      levelWheel.schedule(KEY_0, START_EPOCH_SECONDS + delay);
+
+      assertThat(levelWheel.advance(START_EPOCH_SECONDS + delay - 1)).isEmpty();
+      assertThat(levelWheel.advance(START_EPOCH_SECONDS + delay)).containsExactly(KEY_0);
+    }
+  }
+
+  @Test
+  public void schedule_beyondWheelSpan_returnedAtExpiry() {
+    long span = 1L << 24;
+    long expiry = START_EPOCH_SECONDS + 2 * span + 5;
+    wheel.schedule(KEY_0, expiry);
+
+    assertThat(wheel.advance(expiry - 1)).isEmpty();
+    assertThat(wheel.advance(expiry)).containsExactly(KEY_0);
+  }
+
+  @Test
+  public void schedule_sameKeyTwice_returnedForEach() {
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS + 1);
+    wheel.schedule(KEY_0, START_EPOCH_SECONDS + 2);
+
+    assertThat(wheel.advance(START_EPOCH_SECONDS + 2)).containsExactly(KEY_0, KEY_0);
+  }
+}
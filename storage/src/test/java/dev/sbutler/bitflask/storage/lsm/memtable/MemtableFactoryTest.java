@@ -1,11 +1,15 @@
 package dev.sbutler.bitflask.storage.lsm.memtable;
 
 import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import java.time.Instant;
@@ -17,8 +21,8 @@ import org.mockito.MockedStatic;
 public class MemtableFactoryTest {
 
   private static final Entry ENTRY_0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
-  private static final SortedMap<String, Entry> KEY_ENTRY_MAP =
-      ImmutableSortedMap.of(ENTRY_0.key(), ENTRY_0);
+  private static final SortedMap<ByteString, Entry> KEY_ENTRY_MAP =
+      ImmutableSortedMap.copyOf(ImmutableMap.of(ENTRY_0.key(), ENTRY_0), Entry.KEY_COMPARATOR);
   private static final StorageConfig STORAGE_CONFIG =
       StorageConfig.newBuilder().setStoreDirectoryPath("/tmp/.bitflask").buildPartial();
 
@@ -46,4 +50,38 @@ public class MemtableFactoryTest {
       assertThat(memtable.flush().get(ENTRY_0.key())).isEqualTo(ENTRY_0);
     }
   }
+
+  @Test
+  public void create_preallocated_recyclesWriteAheadLog() throws Exception {
+    MemtableFactory preallocatingFactory =
+        new MemtableFactory(
+            STORAGE_CONFIG.toBuilder().setWriteAheadLogPreallocateBytes(1024).buildPartial());
+    try (MockedStatic<WriteAheadLog> walMockedStatic = mockStatic(WriteAheadLog.class)) {
+      walMockedStatic
+          .when(() -> WriteAheadLog.createRecycled(any(), anyLong()))
+          .thenReturn(writeAheadLog);
+
+      Memtable memtable = preallocatingFactory.create();
+
+      assertThat(memtable.getNumBytesSize()).isEqualTo(0);
+      walMockedStatic.verify(
+          () -> WriteAheadLog.createRecycled(preallocatingFactory.getWriteAheadLogPath(), 1024));
+    }
+  }
+
+  @Test
+  public void createWithLoading_offHeap() throws Exception {
+    MemtableFactory offHeapFactory =
+        new MemtableFactory(STORAGE_CONFIG.toBuilder().setMemtableOffHeap(true).buildPartial());
+    try (MockedStatic<WriteAheadLog> walMockedStatic = mockStatic(WriteAheadLog.class)) {
+      walMockedStatic.when(() -> WriteAheadLog.createFromPreExisting(any()))
+          .thenReturn(writeAheadLog);
+
+      Memtable memtable = offHeapFactory.createWithLoading(KEY_ENTRY_MAP);
+
+      assertThat(memtable.read(ENTRY_0.key())).hasValue(ENTRY_0);
+      assertThat(memtable.getNumBytesSize()).isAtLeast(ENTRY_0.getNumBytesSize());
+      memtable.close();
+    }
+  }
 }
@@ -3,7 +3,6 @@ package dev.sbutler.bitflask.storage.lsm.memtable;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
@@ -11,10 +10,11 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
-import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
 import java.io.IOException;
 import java.time.Instant;
 import java.util.SortedMap;
@@ -36,7 +36,7 @@ public class MemtableLoaderTest {
   private static final Entry ENTRY_1 = new Entry(EPOCH_SECONDS_1, "key1", "value1");
 
   private final MemtableFactory memtableFactory = mock(MemtableFactory.class);
-  private final EntryReader entryReader = mock(EntryReader.class);
+  private final WriteAheadLogReader writeAheadLogReader = mock(WriteAheadLogReader.class);
   private final Memtable memtable = mock(Memtable.class);
 
   @Test
@@ -68,18 +68,21 @@ public class MemtableLoaderTest {
   public void load_withLoading_withLoadableEntries_noDuplicates() throws Exception {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
     when(memtableFactory.createWithLoading(any())).thenReturn(memtable);
-    when(entryReader.readAllEntriesFromOffset(anyLong()))
+    when(writeAheadLogReader.readAllEntries())
         .thenReturn(ImmutableList.of(ENTRY_0, ENTRY_1));
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       Memtable createdMemtable = memtableLoader.load();
 
       assertThat(createdMemtable).isEqualTo(memtable);
     }
 
-    ArgumentCaptor<SortedMap<String, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
+    ArgumentCaptor<SortedMap<ByteString, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
     verify(memtableFactory, times(1)).createWithLoading(captor.capture());
     assertThat(captor.getValue().get(ENTRY_0.key())).isEqualTo(ENTRY_0);
     assertThat(captor.getValue().get(ENTRY_1.key())).isEqualTo(ENTRY_1);
@@ -91,18 +94,21 @@ public class MemtableLoaderTest {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
     when(memtableFactory.createWithLoading(any())).thenReturn(memtable);
     Entry duplicate = new Entry(EPOCH_SECONDS_1, ENTRY_0.key(), ENTRY_0.value());
-    when(entryReader.readAllEntriesFromOffset(anyLong()))
+    when(writeAheadLogReader.readAllEntries())
         .thenReturn(ImmutableList.of(ENTRY_0, duplicate));
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       Memtable createdMemtable = memtableLoader.load();
 
       assertThat(createdMemtable).isEqualTo(memtable);
     }
 
-    ArgumentCaptor<SortedMap<String, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
+    ArgumentCaptor<SortedMap<ByteString, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
     verify(memtableFactory, times(1)).createWithLoading(captor.capture());
     assertThat(captor.getValue().get(ENTRY_0.key())).isEqualTo(duplicate);
   }
@@ -113,50 +119,85 @@ public class MemtableLoaderTest {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
     when(memtableFactory.createWithLoading(any())).thenReturn(memtable);
     Entry duplicate = new Entry(EPOCH_SECONDS_1, ENTRY_0.key(), ENTRY_0.value());
-    when(entryReader.readAllEntriesFromOffset(anyLong()))
+    when(writeAheadLogReader.readAllEntries())
         .thenReturn(ImmutableList.of(duplicate, ENTRY_0));
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       Memtable createdMemtable = memtableLoader.load();
 
       assertThat(createdMemtable).isEqualTo(memtable);
     }
 
-    ArgumentCaptor<SortedMap<String, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
+    ArgumentCaptor<SortedMap<ByteString, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
     verify(memtableFactory, times(1)).createWithLoading(captor.capture());
     assertThat(captor.getValue().get(ENTRY_0.key())).isEqualTo(duplicate);
   }
 
+  @Test
+  public void load_withLoading_withMergeOperands_appliedInLogOrder() throws Exception {
+    MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
+    when(memtableFactory.createWithLoading(any())).thenReturn(memtable);
+    Entry value = new Entry(EPOCH_SECONDS_0, "counter", "5");
+    Entry operand =
+        Entry.mergeOperand(
+            EPOCH_SECONDS_1, value.key(), ByteString.copyFromUtf8("3"), MergeOperator.INCREMENT);
+    when(writeAheadLogReader.readAllEntries())
+        .thenReturn(ImmutableList.of(value, operand, operand));
+
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
+
+      memtableLoader.load();
+    }
+
+    ArgumentCaptor<SortedMap<ByteString, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
+    verify(memtableFactory, times(1)).createWithLoading(captor.capture());
+    assertThat(captor.getValue().get(value.key()))
+        .isEqualTo(new Entry(EPOCH_SECONDS_1, value.key(), ByteString.copyFromUtf8("11")));
+  }
+
   @Test
   public void load_withLoading_withoutLoadableEntries() throws Exception {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
     when(memtableFactory.createWithLoading(any())).thenReturn(memtable);
-    when(entryReader.readAllEntriesFromOffset(anyLong())).thenReturn(ImmutableList.of());
+    when(writeAheadLogReader.readAllEntries()).thenReturn(ImmutableList.of());
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       Memtable createdMemtable = memtableLoader.load();
 
       assertThat(createdMemtable).isEqualTo(memtable);
     }
 
-    ArgumentCaptor<SortedMap<String, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
+    ArgumentCaptor<SortedMap<ByteString, Entry>> captor = ArgumentCaptor.forClass(SortedMap.class);
     verify(memtableFactory, times(1)).createWithLoading(captor.capture());
     assertThat(captor.getValue()).isEmpty();
   }
 
   @Test
-  public void load_withLoading_entryReaderThrowsIoException_throwsStorageLoadException()
+  public void load_withLoading_writeAheadLogReaderThrowsIoException_throwsStorageLoadException()
       throws Exception {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
     IOException ioException = new IOException("test");
-    when(entryReader.readAllEntriesFromOffset(anyLong())).thenThrow(ioException);
+    when(writeAheadLogReader.readAllEntries()).thenThrow(ioException);
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       StorageLoadException e = assertThrows(StorageLoadException.class, memtableLoader::load);
 
@@ -169,12 +210,15 @@ public class MemtableLoaderTest {
   public void load_withLoading_memtableFactoryThrowsIoException_throwsStorageLoadException()
       throws Exception {
     MemtableLoader memtableLoader = createMemtableLoaderWithMode(StorageConfig.LoadingMode.LOAD);
-    when(entryReader.readAllEntriesFromOffset(anyLong())).thenReturn(ImmutableList.of());
+    when(writeAheadLogReader.readAllEntries()).thenReturn(ImmutableList.of());
     IOException ioException = new IOException("test");
     when(memtableFactory.createWithLoading(any())).thenThrow(ioException);
 
-    try (MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
-      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+    try (MockedStatic<WriteAheadLogReader> readerMockedStatic =
+        mockStatic(WriteAheadLogReader.class)) {
+      readerMockedStatic
+          .when(() -> WriteAheadLogReader.create(any()))
+          .thenReturn(writeAheadLogReader);
 
       StorageLoadException e = assertThrows(StorageLoadException.class, memtableLoader::load);
 
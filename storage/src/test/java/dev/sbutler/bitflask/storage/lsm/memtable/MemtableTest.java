@@ -2,12 +2,23 @@ package dev.sbutler.bitflask.storage.lsm.memtable;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.exceptions.StorageMergeException;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
+import java.io.IOException;
 import java.time.Instant;
+import java.util.Optional;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,7 +32,8 @@ public class MemtableTest {
   private final Entry ENTRY_1_EXTENDED = new Entry(Instant.now().getEpochSecond(), "key1",
       "value1-extended");
 
-  private final SortedMap<String, Entry> KEY_ENTRY_MAP = new TreeMap<>();
+  private final SortedMap<ByteString, Entry> KEY_ENTRY_MAP =
+      new TreeMap<>(Entry.KEY_COMPARATOR);
 
   private final WriteAheadLog writeAheadLog = mock(WriteAheadLog.class);
 
@@ -55,7 +67,7 @@ public class MemtableTest {
 
   @Test
   public void read_presentEntry_returnsValue() {
-    SortedMap<String, Entry> keyEntryMap = new TreeMap<>();
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
     keyEntryMap.put(ENTRY_0.key(), ENTRY_0);
     Memtable memtable = Memtable.create(keyEntryMap, writeAheadLog);
 
@@ -64,12 +76,23 @@ public class MemtableTest {
 
   @Test
   public void read_absentEntry_returnsEmpty() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     Memtable memtable = Memtable.create(writeAheadLog);
 
     assertThat(memtable.read(key)).isEmpty();
   }
 
+  @Test
+  public void readAll() {
+    Memtable memtable = Memtable.create(KEY_ENTRY_MAP, writeAheadLog);
+    ByteString absentKey = ByteString.copyFromUtf8("key");
+
+    ImmutableMap<ByteString, Entry> entries =
+        memtable.readAll(ImmutableList.of(ENTRY_0.key(), absentKey, ENTRY_1.key()));
+
+    assertThat(entries).containsExactly(ENTRY_0.key(), ENTRY_0, ENTRY_1.key(), ENTRY_1);
+  }
+
   @Test
   public void write() throws Exception {
     Memtable memtable = Memtable.create(writeAheadLog);
@@ -127,16 +150,153 @@ public class MemtableTest {
     assertThat(memtable.contains(ENTRY_1.key())).isTrue();
     assertThat(memtable.read(ENTRY_0.key())).hasValue(ENTRY_0);
     assertThat(memtable.read(ENTRY_1.key())).hasValue(ENTRY_1);
-    assertThat(memtable.getNumBytesSize()).isEqualTo(
+    assertThat(memtable.getNumBytesSize()).isAtLeast(
         ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize());
 
     verify(writeAheadLog, times(1)).append(ENTRY_0);
     verify(writeAheadLog, times(1)).append(ENTRY_1);
   }
 
+  @Test
+  public void writeBatch() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    ImmutableList<Entry> entries = ImmutableList.of(ENTRY_0, ENTRY_1);
+
+    memtable.writeBatch(entries);
+
+    assertThat(memtable.read(ENTRY_0.key())).hasValue(ENTRY_0);
+    assertThat(memtable.read(ENTRY_1.key())).hasValue(ENTRY_1);
+    assertThat(memtable.getNumBytesSize()).isAtLeast(
+        ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize());
+
+    verify(writeAheadLog, times(1)).append(entries);
+    verify(writeAheadLog, never()).append(any(Entry.class));
+  }
+
+  @Test
+  public void writeBatch_writeAheadLogThrowsIOException_entriesNotApplied() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    ImmutableList<Entry> entries = ImmutableList.of(ENTRY_0, ENTRY_1);
+    doThrow(IOException.class).when(writeAheadLog).append(entries);
+
+    assertThrows(IOException.class, () -> memtable.writeBatch(entries));
+
+    assertThat(memtable.contains(ENTRY_0.key())).isFalse();
+    assertThat(memtable.contains(ENTRY_1.key())).isFalse();
+    assertThat(memtable.getNumBytesSize()).isEqualTo(0);
+  }
+
+  @Test
+  public void merge_absentKey_noOlderEntry_storesResolvedValue() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    Entry operand = incrementOperand("key", 5);
+
+    memtable.merge(operand, Optional::empty);
+
+    Entry resolved = memtable.read(operand.key()).orElseThrow();
+    assertThat(resolved.isMergeOperand()).isFalse();
+    assertThat(resolved.value()).isEqualTo(ByteString.copyFromUtf8("5"));
+    verify(writeAheadLog, times(1)).append(resolved);
+    verify(writeAheadLog, never()).append(operand);
+  }
+
+  @Test
+  public void merge_absentKey_olderEntry_storesResolvedValue() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    Entry older = new Entry(Instant.now().getEpochSecond(), "key", "5");
+    Entry operand = incrementOperand("key", 3);
+
+    memtable.merge(operand, () -> Optional.of(older));
+
+    Entry resolved = memtable.read(operand.key()).orElseThrow();
+    assertThat(resolved.value()).isEqualTo(ByteString.copyFromUtf8("8"));
+    verify(writeAheadLog, times(1)).append(resolved);
+  }
+
+  @Test
+  public void merge_presentValue_storesMergedValue() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    Entry value = new Entry(Instant.now().getEpochSecond(), "key", "5");
+    Entry operand = incrementOperand("key", 3);
+    memtable.write(value);
+
+    memtable.merge(operand, () -> {
+      throw new AssertionError("The older entry should not be read");
+    });
+
+    Entry merged = memtable.read(operand.key()).orElseThrow();
+    assertThat(merged.isMergeOperand()).isFalse();
+    assertThat(merged.value()).isEqualTo(ByteString.copyFromUtf8("8"));
+    verify(writeAheadLog, times(1)).append(operand);
+  }
+
+  @Test
+  public void merge_presentOperandDifferentOperator_foldedOntoOlderEntry() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    memtable.write(incrementOperand("key", 2));
+    Entry older = new Entry(Instant.now().getEpochSecond(), "key", "5");
+    Entry operand =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            older.key(),
+            ByteString.copyFromUtf8("x"),
+            MergeOperator.APPEND);
+
+    memtable.merge(operand, () -> Optional.of(older));
+
+    assertThat(memtable.read(older.key()).map(Entry::value))
+        .hasValue(ByteString.copyFromUtf8("7x"));
+  }
+
+  @Test
+  public void merge_nonIntegerValue_throwsStorageMergeException() throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    Entry value = new Entry(Instant.now().getEpochSecond(), "key", "value");
+    memtable.write(value);
+    Entry operand = incrementOperand("key", 1);
+
+    StorageMergeException e =
+        assertThrows(StorageMergeException.class, () -> memtable.merge(operand, Optional::empty));
+
+    assertThat(e).hasMessageThat().isEqualTo("value is not an integer or out of range");
+    assertThat(memtable.read(value.key())).hasValue(value);
+    verify(writeAheadLog, never()).append(operand);
+  }
+
+  @Test
+  public void merge_olderValueAppendedBeyondMaxLength_throwsStorageMergeException()
+      throws Exception {
+    Memtable memtable = Memtable.create(writeAheadLog);
+    Entry older =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            ByteString.copyFromUtf8("key"),
+            ByteString.copyFrom(new byte[Entry.VALUE_MAX_LENGTH]));
+    Entry operand =
+        Entry.mergeOperand(
+            Instant.now().getEpochSecond(),
+            older.key(),
+            ByteString.copyFromUtf8("x"),
+            MergeOperator.APPEND);
+
+    assertThrows(
+        StorageMergeException.class, () -> memtable.merge(operand, () -> Optional.of(older)));
+
+    assertThat(memtable.contains(older.key())).isFalse();
+    verify(writeAheadLog, never()).append(any(Entry.class));
+  }
+
+  private static Entry incrementOperand(String key, long delta) {
+    return Entry.mergeOperand(
+        Instant.now().getEpochSecond(),
+        ByteString.copyFromUtf8(key),
+        ByteString.copyFromUtf8(Long.toString(delta)),
+        MergeOperator.INCREMENT);
+  }
+
   @Test
   public void contains_presentEntry_returnsTrue() {
-    SortedMap<String, Entry> keyEntryMap = new TreeMap<>();
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
     keyEntryMap.put(ENTRY_0.key(), ENTRY_0);
     Memtable memtable = Memtable.create(keyEntryMap, writeAheadLog);
 
@@ -145,7 +305,7 @@ public class MemtableTest {
 
   @Test
   public void contains_absentEntry_returnsFalse() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     Memtable memtable = Memtable.create(writeAheadLog);
 
     assertThat(memtable.contains(key)).isFalse();
@@ -153,12 +313,12 @@ public class MemtableTest {
 
   @Test
   public void flush() {
-    SortedMap<String, Entry> keyEntryMap = new TreeMap<>();
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
     keyEntryMap.put(ENTRY_0.key(), ENTRY_0);
     keyEntryMap.put(ENTRY_1.key(), ENTRY_1);
     Memtable memtable = Memtable.create(keyEntryMap, writeAheadLog);
 
-    SortedMap<String, Entry> flushedKeyEntryMap = memtable.flush();
+    SortedMap<ByteString, Entry> flushedKeyEntryMap = memtable.flush();
 
     assertThat(flushedKeyEntryMap.containsKey(ENTRY_0.key())).isTrue();
     assertThat(flushedKeyEntryMap.get(ENTRY_0.key())).isEqualTo(ENTRY_0);
@@ -166,4 +326,130 @@ public class MemtableTest {
     assertThat(flushedKeyEntryMap.containsKey(ENTRY_1.key())).isTrue();
     assertThat(flushedKeyEntryMap.get(ENTRY_1.key())).isEqualTo(ENTRY_1);
   }
+
+  @Test
+  public void create_withEntryStoreAndEntries() {
+    Memtable memtable =
+        Memtable.create(new OffHeapEntryStore(), KEY_ENTRY_MAP.values(), writeAheadLog);
+
+    assertThat(memtable.read(ENTRY_0.key())).hasValue(ENTRY_0);
+    assertThat(memtable.read(ENTRY_1.key())).hasValue(ENTRY_1);
+    assertThat(memtable.getNumBytesSize()).isAtLeast(
+        ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize());
+  }
+
+  @Test
+  public void write_offHeap_overwritePreExistingEntry() throws Exception {
+    Memtable memtable = Memtable.create(new OffHeapEntryStore(), writeAheadLog);
+
+    memtable.write(ENTRY_1);
+    memtable.write(ENTRY_1_EXTENDED);
+    memtable.write(ENTRY_0);
+
+    assertThat(memtable.read(ENTRY_1.key())).hasValue(ENTRY_1_EXTENDED);
+    // The replaced entry's memory is held until the Memtable is closed
+    assertThat(memtable.getNumBytesSize()).isAtLeast(
+        ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize()
+            + ENTRY_1_EXTENDED.getNumBytesSize());
+    assertThat(memtable.flush().values()).containsExactly(ENTRY_0, ENTRY_1_EXTENDED).inOrder();
+  }
+
+  @Test
+  public void write_offHeap_singleKeyRepeatedlyGrown_reachesFlushThreshold() throws Exception {
+    long flushThresholdBytes = 1024 * 1024;
+    Memtable memtable = Memtable.create(new OffHeapEntryStore(), writeAheadLog);
+
+    StringBuilder value = new StringBuilder();
+    while (value.length() < 2048) {
+      value.append('a');
+      memtable.write(new Entry(Instant.now().getEpochSecond(), "key", value.toString()));
+    }
+
+    assertThat(memtable.flush()).hasSize(1);
+    assertThat(memtable.getNumBytesSize()).isAtLeast(flushThresholdBytes);
+  }
+
+  @Test
+  public void write_offHeap_singleKeyRepeatedlyOverwrittenSameSize_sizeUnchanged()
+      throws Exception {
+    Memtable memtable = Memtable.create(new OffHeapEntryStore(), writeAheadLog);
+    memtable.write(ENTRY_0);
+    long sizeAfterFirstWrite = memtable.getNumBytesSize();
+
+    for (int i = 0; i < 1000; i++) {
+      memtable.write(new Entry(Instant.now().getEpochSecond(), "key0", String.format("v%05d", i)));
+    }
+
+    assertThat(memtable.read(ENTRY_0.key()).map(e -> e.value().toStringUtf8())).hasValue("v00999");
+    assertThat(memtable.getNumBytesSize()).isEqualTo(sizeAfterFirstWrite);
+  }
+
+  @Test
+  public void close() throws Exception {
+    MemtableEntryStore entryStore = mock(MemtableEntryStore.class);
+    Memtable memtable = Memtable.create(entryStore, writeAheadLog);
+
+    memtable.close();
+
+    verify(entryStore, times(1)).close();
+    verify(writeAheadLog, times(1)).close();
+  }
+
+  @Test
+  public void expireEntries_expiredEntry_valueReleased() throws Exception {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Entry expiringEntry =
+        new Entry(nowEpochSeconds, ENTRY_0.key(), ENTRY_0.value(), nowEpochSeconds + 1);
+    Memtable memtable = Memtable.create(writeAheadLog);
+    memtable.write(expiringEntry);
+    memtable.write(ENTRY_1);
+
+    int numExpired = memtable.expireEntries(nowEpochSeconds + 1);
+
+    Entry expiredEntry =
+        new Entry(nowEpochSeconds, ENTRY_0.key(), ByteString.EMPTY, nowEpochSeconds + 1);
+    assertThat(numExpired).isEqualTo(1);
+    assertThat(memtable.read(ENTRY_0.key())).hasValue(expiredEntry);
+    assertThat(memtable.read(ENTRY_1.key())).hasValue(ENTRY_1);
+    assertThat(memtable.getNumBytesSize()).isEqualTo(
+        expiredEntry.getNumBytesSize() + ENTRY_1.getNumBytesSize());
+    verify(writeAheadLog, never()).append(expiredEntry);
+  }
+
+  @Test
+  public void expireEntries_beforeExpiry_noneExpired() throws Exception {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Entry expiringEntry =
+        new Entry(nowEpochSeconds, ENTRY_0.key(), ENTRY_0.value(), nowEpochSeconds + 10);
+    Memtable memtable = Memtable.create(writeAheadLog);
+    memtable.write(expiringEntry);
+
+    assertThat(memtable.expireEntries(nowEpochSeconds + 9)).isEqualTo(0);
+    assertThat(memtable.read(ENTRY_0.key())).hasValue(expiringEntry);
+  }
+
+  @Test
+  public void expireEntries_overwrittenEntry_notExpired() throws Exception {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Memtable memtable = Memtable.create(writeAheadLog);
+    memtable.write(
+        new Entry(nowEpochSeconds, ENTRY_0.key(), ENTRY_0.value(), nowEpochSeconds + 1));
+    memtable.write(ENTRY_0);
+
+    assertThat(memtable.expireEntries(nowEpochSeconds + 1)).isEqualTo(0);
+    assertThat(memtable.read(ENTRY_0.key())).hasValue(ENTRY_0);
+  }
+
+  @Test
+  public void expireEntries_loadedEntry_expired() {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    SortedMap<ByteString, Entry> keyEntryMap = new TreeMap<>(Entry.KEY_COMPARATOR);
+    keyEntryMap.put(
+        ENTRY_0.key(),
+        new Entry(nowEpochSeconds, ENTRY_0.key(), ENTRY_0.value(), nowEpochSeconds + 1));
+    Memtable memtable = Memtable.create(keyEntryMap, writeAheadLog);
+
+    assertThat(memtable.expireEntries(nowEpochSeconds + 1)).isEqualTo(1);
+    assertThat(memtable.read(ENTRY_0.key()).map(Entry::isDeleted)).hasValue(true);
+  }
 }
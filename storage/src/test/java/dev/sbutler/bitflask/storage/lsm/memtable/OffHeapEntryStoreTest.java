@@ -0,0 +1,127 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link OffHeapEntryStore}. */
+public class OffHeapEntryStoreTest {
+
+  private static final long EPOCH_SECONDS = Instant.now().getEpochSecond();
+  private static final Entry ENTRY_0 = new Entry(EPOCH_SECONDS, "key0", "value0");
+  private static final Entry ENTRY_1 = new Entry(EPOCH_SECONDS, "key1", "value1");
+
+  private final OffHeapEntryStore entryStore = new OffHeapEntryStore();
+
+  @AfterEach
+  public void afterEach() {
+    entryStore.close();
+  }
+
+  @Test
+  public void get_presentEntry_returnsEntry() {
+    entryStore.put(ENTRY_0);
+
+    assertThat(entryStore.get(ENTRY_0.key())).hasValue(ENTRY_0);
+    assertThat(entryStore.containsKey(ENTRY_0.key())).isTrue();
+  }
+
+  @Test
+  public void get_absentEntry_returnsEmpty() {
+    entryStore.put(ENTRY_0);
+
+    assertThat(entryStore.get(ENTRY_1.key())).isEmpty();
+    assertThat(entryStore.containsKey(ENTRY_1.key())).isFalse();
+  }
+
+  @Test
+  public void put_newEntry_returnsAllocatedBytes() {
+    assertThat(entryStore.put(ENTRY_0)).isGreaterThan(ENTRY_0.getNumBytesSize());
+  }
+
+  @Test
+  public void put_replacesWithLargerEntry_returnsAllocatedBytes() {
+    Entry replacement = new Entry(EPOCH_SECONDS, "key0", "value0-replacement");
+    entryStore.put(ENTRY_0);
+
+    long allocatedBytes = entryStore.put(replacement);
+
+    assertThat(allocatedBytes).isEqualTo(replacement.getNumBytesSize());
+    assertThat(entryStore.get(ENTRY_0.key())).hasValue(replacement);
+    assertThat(entryStore.copyEntries()).hasSize(1);
+  }
+
+  @Test
+  public void put_replacesWithSmallerEntry_reusedInPlace() {
+    Entry replacement = new Entry(EPOCH_SECONDS, "key0", "v0");
+    entryStore.put(ENTRY_0);
+
+    long allocatedBytes = entryStore.put(replacement);
+
+    assertThat(allocatedBytes).isEqualTo(0);
+    assertThat(entryStore.get(ENTRY_0.key())).hasValue(replacement);
+    assertThat(entryStore.put(ENTRY_0)).isGreaterThan(0);
+    assertThat(entryStore.get(ENTRY_0.key())).hasValue(ENTRY_0);
+  }
+
+  @Test
+  public void put_largeEntry_allocatedDedicatedChunk() {
+    Entry largeEntry =
+        new Entry(
+            EPOCH_SECONDS,
+            ByteString.copyFromUtf8("large"),
+            ByteString.copyFrom(new byte[OffHeapEntryStore.CHUNK_BYTES + 1]));
+
+    entryStore.put(ENTRY_0);
+    entryStore.put(largeEntry);
+
+    assertThat(entryStore.get(largeEntry.key())).hasValue(largeEntry);
+    assertThat(entryStore.get(ENTRY_0.key())).hasValue(ENTRY_0);
+  }
+
+  @Test
+  public void copyEntries_orderedByUnsignedKey() {
+    List<Entry> entries = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      entries.add(new Entry(EPOCH_SECONDS, String.format("key%04d", i), "value" + i));
+    }
+    Entry highByteKeyEntry =
+        new Entry(
+            EPOCH_SECONDS, ByteString.copyFrom(new byte[] {(byte) 0xFF}), ByteString.EMPTY);
+    Entry prefixKeyEntry = new Entry(EPOCH_SECONDS, "key", "value");
+    List<Entry> shuffled = new ArrayList<>(entries);
+    shuffled.add(highByteKeyEntry);
+    shuffled.add(prefixKeyEntry);
+    Collections.shuffle(shuffled);
+
+    shuffled.forEach(entryStore::put);
+
+    ImmutableList<Entry> expected =
+        ImmutableList.<Entry>builder()
+            .add(prefixKeyEntry)
+            .addAll(entries)
+            .add(highByteKeyEntry)
+            .build();
+    assertThat(entryStore.copyEntries().values()).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void close_subsequentAccess_throwsIllegalStateException() {
+    OffHeapEntryStore closedStore = new OffHeapEntryStore();
+    closedStore.put(ENTRY_0);
+
+    closedStore.close();
+
+    assertThrows(IllegalStateException.class, () -> closedStore.get(ENTRY_0.key()));
+  }
+}
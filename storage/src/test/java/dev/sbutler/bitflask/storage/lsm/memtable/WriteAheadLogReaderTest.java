@@ -0,0 +1,160 @@
+package dev.sbutler.bitflask.storage.lsm.memtable;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static dev.sbutler.bitflask.storage.lsm.memtable.WriteAheadLogTest.createGenerationRecord;
+import static dev.sbutler.bitflask.storage.lsm.memtable.WriteAheadLogTest.createPreallocatedFileHeader;
+import static dev.sbutler.bitflask.storage.lsm.memtable.WriteAheadLogTest.createRecord;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Bytes;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.memtable.WriteAheadLogReader.PreallocatedLogEnd;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link WriteAheadLogReader}. */
+public class WriteAheadLogReaderTest {
+
+  private static final Entry ENTRY_0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+  private static final Entry ENTRY_1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+  private static final Entry ENTRY_2 = new Entry(Instant.now().getEpochSecond(), "key2", "value2");
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void readAllEntries_fileDoesNotExist_returnsEmpty() throws Exception {
+    WriteAheadLogReader reader = WriteAheadLogReader.create(tempDir.resolve("memtable.wlog"));
+
+    assertThat(reader.readAllEntries()).isEmpty();
+  }
+
+  @Test
+  public void readAllEntries_records() throws Exception {
+    Path path = write(Bytes.concat(createRecord(ENTRY_0), createRecord(ENTRY_1, ENTRY_2)));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0, ENTRY_1, ENTRY_2).inOrder();
+  }
+
+  @Test
+  public void readAllEntries_bareEntries() throws Exception {
+    Path path = write(Bytes.concat(ENTRY_0.getBytes(), ENTRY_1.getBytes(), createRecord(ENTRY_2)));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0, ENTRY_1, ENTRY_2).inOrder();
+  }
+
+  @Test
+  public void readAllEntries_incompleteTrailingRecord_discarded() throws Exception {
+    byte[] batch = createRecord(ENTRY_1, ENTRY_2);
+    Path path =
+        write(Bytes.concat(createRecord(ENTRY_0), Arrays.copyOf(batch, batch.length - 1)));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0);
+  }
+
+  @Test
+  public void readAllEntries_incompleteTrailingRecordHeader_discarded() throws Exception {
+    Path path = write(Bytes.concat(createRecord(ENTRY_0), new byte[]{WriteAheadLog.RECORD_TAG}));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0);
+  }
+
+  @Test
+  public void readAllEntries_trailingRecordChecksumMismatch_discarded() throws Exception {
+    byte[] batch = createRecord(ENTRY_1, ENTRY_2);
+    batch[batch.length - 1] ^= 1;
+    Path path = write(Bytes.concat(createRecord(ENTRY_0), batch));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0);
+  }
+
+  @Test
+  public void readAllEntries_checksumMismatch_throwsIOException() throws Exception {
+    byte[] record = createRecord(ENTRY_0);
+    record[record.length - 1] ^= 1;
+    Path path = write(Bytes.concat(record, createRecord(ENTRY_1)));
+    WriteAheadLogReader reader = WriteAheadLogReader.create(path);
+
+    IOException e = assertThrows(IOException.class, reader::readAllEntries);
+
+    assertThat(e)
+        .hasMessageThat()
+        .isEqualTo("WriteAheadLog record checksum mismatch at offset [0]");
+  }
+
+  @Test
+  public void readAllEntries_preallocated_readsToLogicalEnd() throws Exception {
+    Path path =
+        write(
+            Bytes.concat(
+                createPreallocatedFileHeader(2),
+                createGenerationRecord(2, ENTRY_0),
+                createGenerationRecord(2, ENTRY_1),
+                createGenerationRecord(1, ENTRY_2),
+                new byte[64]));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0, ENTRY_1).inOrder();
+  }
+
+  @Test
+  public void readAllEntries_preallocatedChecksumMismatch_discarded() throws Exception {
+    byte[] record = createGenerationRecord(1, ENTRY_1);
+    record[record.length - 1] ^= 1;
+    Path path =
+        write(
+            Bytes.concat(
+                createPreallocatedFileHeader(1),
+                createGenerationRecord(1, ENTRY_0),
+                record,
+                createGenerationRecord(1, ENTRY_2)));
+
+    ImmutableList<Entry> entries = WriteAheadLogReader.create(path).readAllEntries();
+
+    assertThat(entries).containsExactly(ENTRY_0);
+  }
+
+  @Test
+  public void readPreallocatedLogEnd() throws Exception {
+    byte[] header = createPreallocatedFileHeader(3);
+    byte[] record = createGenerationRecord(3, ENTRY_0);
+    Path path = write(Bytes.concat(header, record, createGenerationRecord(2, ENTRY_1)));
+
+    Optional<PreallocatedLogEnd> logEnd =
+        WriteAheadLogReader.create(path).readPreallocatedLogEnd();
+
+    assertThat(logEnd).hasValue(new PreallocatedLogEnd(3, header.length + record.length));
+  }
+
+  @Test
+  public void readPreallocatedLogEnd_notPreallocated_returnsEmpty() throws Exception {
+    Path path = write(createRecord(ENTRY_0));
+
+    assertThat(WriteAheadLogReader.create(path).readPreallocatedLogEnd()).isEmpty();
+  }
+
+  private Path write(byte[] bytes) throws IOException {
+    Path path = tempDir.resolve("memtable.wlog");
+    Files.write(path, bytes);
+    return path;
+  }
+}
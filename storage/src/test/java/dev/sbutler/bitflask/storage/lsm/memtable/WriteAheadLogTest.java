@@ -4,15 +4,20 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mockStatic;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Bytes;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 
 /** Unit tests for {@link WriteAheadLog}. */
@@ -38,7 +43,35 @@ public class WriteAheadLogTest {
     writeAheadLog.append(entry);
     writeAheadLog.close();
     // Assert
-    assertThat(outputStream.toByteArray()).isEqualTo(entry.getBytes());
+    assertThat(outputStream.toByteArray()).isEqualTo(createRecord(entry));
+  }
+
+  @Test
+  public void append_entryLargerThanEncodeBuffer() throws Exception {
+    // Arrange
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 =
+        new Entry(
+            Instant.now().getEpochSecond(),
+            "key1",
+            "v".repeat(WriteAheadLog.INITIAL_ENCODE_BUFFER_BYTES));
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    WriteAheadLog writeAheadLog;
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
+      fileMockedStatic
+          .when(() -> Files.newOutputStream(any(), any(StandardOpenOption[].class)))
+          .thenReturn(outputStream);
+      writeAheadLog = WriteAheadLog.create(TEST_RESOURCE_PATH);
+    }
+
+    // Act
+    writeAheadLog.append(entry0);
+    writeAheadLog.append(entry1);
+    writeAheadLog.close();
+    // Assert
+    assertThat(outputStream.toByteArray())
+        .isEqualTo(Bytes.concat(createRecord(entry0), createRecord(entry1)));
   }
 
   @Test
@@ -47,7 +80,7 @@ public class WriteAheadLogTest {
     Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
     Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    outputStream.write(entry0.getBytes());
+    outputStream.write(createRecord(entry0));
 
     WriteAheadLog writeAheadLog;
     try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
@@ -62,6 +95,139 @@ public class WriteAheadLogTest {
     writeAheadLog.close();
     // Assert
     assertThat(outputStream.toByteArray())
-        .isEqualTo(Bytes.concat(entry0.getBytes(), entry1.getBytes()));
+        .isEqualTo(Bytes.concat(createRecord(entry0), createRecord(entry1)));
+  }
+
+  @Test
+  public void append_batch_writesSingleRecord() throws Exception {
+    // Arrange
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+    WriteAheadLog writeAheadLog;
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
+      fileMockedStatic
+          .when(() -> Files.newOutputStream(any(), any(StandardOpenOption[].class)))
+          .thenReturn(outputStream);
+      writeAheadLog = WriteAheadLog.create(TEST_RESOURCE_PATH);
+    }
+
+    // Act
+    writeAheadLog.append(ImmutableList.of(entry0, entry1));
+    writeAheadLog.close();
+    // Assert
+    assertThat(outputStream.toByteArray()).isEqualTo(createRecord(entry0, entry1));
+  }
+
+  @Test
+  public void createRecycled_newFile_preallocated(@TempDir Path tempDir) throws Exception {
+    Path path = tempDir.resolve("memtable.wlog");
+    Entry entry = new Entry(Instant.now().getEpochSecond(), "key", "value");
+
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycled(path, 1024)) {
+      writeAheadLog.append(entry);
+    }
+
+    byte[] expected =
+        Bytes.concat(createPreallocatedFileHeader(1), createGenerationRecord(1, entry));
+    byte[] bytes = Files.readAllBytes(path);
+    assertThat(bytes.length).isEqualTo(1024);
+    assertThat(Arrays.copyOf(bytes, expected.length)).isEqualTo(expected);
+    assertThat(Arrays.copyOfRange(bytes, expected.length, bytes.length))
+        .isEqualTo(new byte[bytes.length - expected.length]);
+  }
+
+  @Test
+  public void createRecycled_preExistingFile_generationIncrementedWithoutTruncation(
+      @TempDir Path tempDir) throws Exception {
+    Path path = tempDir.resolve("memtable.wlog");
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycled(path, 1024)) {
+      writeAheadLog.append(entry0);
+    }
+
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycled(path, 512)) {
+      writeAheadLog.append(entry1);
+    }
+
+    byte[] expected =
+        Bytes.concat(createPreallocatedFileHeader(2), createGenerationRecord(2, entry1));
+    byte[] bytes = Files.readAllBytes(path);
+    assertThat(bytes.length).isEqualTo(1024);
+    assertThat(Arrays.copyOf(bytes, expected.length)).isEqualTo(expected);
+    assertThat(WriteAheadLogReader.create(path).readAllEntries()).containsExactly(entry1);
+  }
+
+  @Test
+  public void createRecycledFromPreExisting_appendsAfterLogicalEnd(@TempDir Path tempDir)
+      throws Exception {
+    Path path = tempDir.resolve("memtable.wlog");
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycled(path, 1024)) {
+      writeAheadLog.append(entry0);
+    }
+
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycledFromPreExisting(path, 1024)) {
+      writeAheadLog.append(entry1);
+    }
+
+    assertThat(Files.size(path)).isEqualTo(1024);
+    assertThat(WriteAheadLogReader.create(path).readAllEntries())
+        .containsExactly(entry0, entry1)
+        .inOrder();
+  }
+
+  @Test
+  public void createRecycledFromPreExisting_notPreallocated_appendsRecords(@TempDir Path tempDir)
+      throws Exception {
+    Path path = tempDir.resolve("memtable.wlog");
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    Files.write(path, createRecord(entry0));
+
+    try (WriteAheadLog writeAheadLog = WriteAheadLog.createRecycledFromPreExisting(path, 1024)) {
+      writeAheadLog.append(entry1);
+    }
+
+    assertThat(Files.readAllBytes(path))
+        .isEqualTo(Bytes.concat(createRecord(entry0), createRecord(entry1)));
+  }
+
+  static byte[] createRecord(Entry... entries) {
+    byte[] payload =
+        Bytes.concat(Arrays.stream(entries).map(Entry::getBytes).toArray(byte[][]::new));
+    CRC32C checksum = new CRC32C();
+    checksum.update(payload);
+    return ByteBuffer.allocate(WriteAheadLog.RECORD_HEADER_BYTES + payload.length)
+        .put(WriteAheadLog.RECORD_TAG)
+        .putInt(payload.length)
+        .putInt((int) checksum.getValue())
+        .put(payload)
+        .array();
+  }
+
+  static byte[] createPreallocatedFileHeader(long generation) {
+    return ByteBuffer.allocate(WriteAheadLog.PREALLOCATED_FILE_HEADER_BYTES)
+        .put(WriteAheadLog.PREALLOCATED_FILE_TAG)
+        .putLong(generation)
+        .array();
+  }
+
+  static byte[] createGenerationRecord(long generation, Entry... entries) {
+    byte[] payload =
+        Bytes.concat(Arrays.stream(entries).map(Entry::getBytes).toArray(byte[][]::new));
+    CRC32C checksum = new CRC32C();
+    checksum.update(ByteBuffer.allocate(Long.BYTES).putLong(generation).array());
+    checksum.update(payload);
+    return ByteBuffer.allocate(WriteAheadLog.GENERATION_RECORD_HEADER_BYTES + payload.length)
+        .put(WriteAheadLog.GENERATION_RECORD_TAG)
+        .putInt(payload.length)
+        .putInt((int) checksum.getValue())
+        .putLong(generation)
+        .put(payload)
+        .array();
   }
 }
@@ -3,6 +3,7 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
@@ -11,18 +12,26 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
 import com.google.common.primitives.Bytes;
-import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobFileWriter;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobPointer;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
+import dev.sbutler.bitflask.storage.lsm.entry.BlobReferenceEntry;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import dev.sbutler.bitflask.storage.lsm.entry.WritableEntry;
+import dev.sbutler.bitflask.storage.lsm.segment.SegmentFactory.SegmentWriteResult;
+import dev.sbutler.bitflask.storage.lsm.utils.FsyncUtils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -30,6 +39,7 @@ import java.time.Instant;
 import java.util.SortedMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.MockedStatic;
 
 /** Unit tests for {@link SegmentFactory}. */
@@ -46,39 +56,52 @@ public class SegmentFactoryTest {
   private static final Entry ENTRY_0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
   private static final Entry ENTRY_1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
 
-  private static final UnsignedShort SEGMENT_NUMBER = UnsignedShort.valueOf(0);
-  private static final UnsignedShort SEGMENT_LEVEL = UnsignedShort.valueOf(0);
+  private static final long SEGMENT_NUMBER = 0;
+  private static final int SEGMENT_LEVEL = 0;
 
   private static final SegmentMetadata METADATA =
       new SegmentMetadata(SEGMENT_NUMBER, SEGMENT_LEVEL);
 
   private final SegmentIndexFactory indexFactory = mock(SegmentIndexFactory.class);
   private final SegmentIndex segmentIndex = mock(SegmentIndex.class);
+  private final BlobStore blobStore = mock(BlobStore.class);
+  private final BlobFileWriter blobFileWriter = mock(BlobFileWriter.class);
 
-  private final SegmentFactory factory = new SegmentFactory(STORAGE_CONFIG, indexFactory);
+  private final SegmentFactory factory =
+      new SegmentFactory(STORAGE_CONFIG, indexFactory, blobStore);
 
   @BeforeEach
   public void beforeEach() throws Exception {
-    when(indexFactory.create(any(), any())).thenReturn(segmentIndex);
-    when(segmentIndex.getSegmentNumber()).thenReturn(SEGMENT_NUMBER.value());
+    when(indexFactory.create(any(), anyLong())).thenReturn(segmentIndex);
+    when(segmentIndex.getSegmentNumber()).thenReturn(SEGMENT_NUMBER);
+    when(blobStore.createWriter()).thenReturn(blobFileWriter);
   }
 
   @Test
   public void create() throws Exception {
-    ImmutableSortedMap<String, Entry> keyEntryMap =
-        ImmutableSortedMap.<String, Entry>naturalOrder().put(ENTRY_0.key(), ENTRY_0).build();
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap =
+        ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR).put(ENTRY_0.key(), ENTRY_0).build();
 
     Segment segment;
 
+    Path indexPath = Paths.get("index");
+    when(segmentIndex.getFilePath()).thenReturn(indexPath);
+
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class);
+        MockedStatic<FsyncUtils> fsyncMockedStatic = mockStatic(FsyncUtils.class)) {
       fileMockedStatic.when(() -> Files.newOutputStream(any(), any())).thenReturn(outputStream);
 
       segment = factory.create(keyEntryMap, 0);
+
+      Path segmentPath = TEST_RESOURCE_PATH.resolve(Segment.createFileName(SEGMENT_NUMBER));
+      fsyncMockedStatic.verify(() -> FsyncUtils.forceFile(segmentPath));
+      fsyncMockedStatic.verify(() -> FsyncUtils.forceFile(indexPath));
+      fsyncMockedStatic.verify(() -> FsyncUtils.forceDirectory(TEST_RESOURCE_PATH));
     }
 
-    assertThat(segment.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER.value());
-    assertThat(segment.getSegmentLevel()).isEqualTo(SEGMENT_LEVEL.value());
+    assertThat(segment.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER);
+    assertThat(segment.getSegmentLevel()).isEqualTo(SEGMENT_LEVEL);
     assertThat(segment.mightContain(ENTRY_0.key())).isTrue();
     assertThat(segment.getNumBytesSize()).isEqualTo(ENTRY_0.getNumBytesSize());
 
@@ -87,7 +110,7 @@ public class SegmentFactoryTest {
 
     verify(indexFactory, times(1))
         .create(
-            ImmutableSortedMap.<String, Long>naturalOrder()
+            ImmutableSortedMap.<ByteString, Long>orderedBy(Entry.KEY_COMPARATOR)
                 .put(ENTRY_0.key(), (long) SegmentMetadata.BYTES)
                 .build(),
             SEGMENT_NUMBER);
@@ -95,8 +118,8 @@ public class SegmentFactoryTest {
 
   @Test
   public void create_emptyKeyEntryMap() {
-    ImmutableSortedMap<String, Entry> keyEntryMap =
-        ImmutableSortedMap.<String, Entry>naturalOrder().build();
+    ImmutableSortedMap<ByteString, Entry> keyEntryMap =
+        ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR).build();
 
     IllegalArgumentException e =
         assertThrows(IllegalArgumentException.class, () -> factory.create(keyEntryMap, 0));
@@ -106,22 +129,24 @@ public class SegmentFactoryTest {
 
   @Test
   public void writeSegment() throws Exception {
-    SortedMap<String, Entry> keyEntryMap =
-        ImmutableSortedMap.<String, Entry>naturalOrder()
+    SortedMap<ByteString, Entry> keyEntryMap =
+        ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR)
             .put(ENTRY_0.key(), ENTRY_0)
             .put(ENTRY_1.key(), ENTRY_1)
             .build();
-    BloomFilter<String> keyFilter =
-        BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), keyEntryMap.size());
+    BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, keyEntryMap.size());
 
-    SortedMap<String, Long> keyOffsetMap;
+    SegmentWriteResult writeResult;
 
     ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
     try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
       fileMockedStatic.when(() -> Files.newOutputStream(any(), any())).thenReturn(outputStream);
 
-      keyOffsetMap = factory.writeSegment(keyEntryMap, METADATA, keyFilter, TEST_RESOURCE_PATH);
+      writeResult =
+          factory.writeSegment(
+              keyEntryMap, METADATA, keyFilter, TEST_RESOURCE_PATH, ImmutableSet.of());
     }
+    SortedMap<ByteString, Long> keyOffsetMap = writeResult.keyOffsetMap();
 
     assertThat(keyFilter.mightContain(ENTRY_0.key())).isTrue();
     assertThat(keyFilter.mightContain(ENTRY_1.key())).isTrue();
@@ -132,16 +157,124 @@ public class SegmentFactoryTest {
     assertThat(keyOffsetMap.get(ENTRY_0.key())).isEqualTo(SegmentMetadata.BYTES);
     assertThat(keyOffsetMap.get(ENTRY_1.key()))
         .isEqualTo(SegmentMetadata.BYTES + ENTRY_0.getBytes().length);
+    assertThat(writeResult.numBytesSize())
+        .isEqualTo(ENTRY_0.getNumBytesSize() + ENTRY_1.getNumBytesSize());
+    assertThat(writeResult.blobReferencedBytes()).isEmpty();
+    verify(blobFileWriter, times(0)).append(any());
+  }
+
+  @Test
+  public void create_directIo_entriesReadBack(@TempDir Path tempDir) throws Exception {
+    StorageConfig storageConfig =
+        STORAGE_CONFIG.toBuilder()
+            .setStoreDirectoryPath(tempDir.toString())
+            .setSegmentDirectIo(true)
+            .buildPartial();
+    SegmentFactory directIoFactory = new SegmentFactory(storageConfig, indexFactory, blobStore);
+    when(segmentIndex.getFilePath()).thenReturn(Files.createFile(tempDir.resolve("index")));
+    SortedMap<ByteString, Entry> keyEntryMap =
+        ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR)
+            .put(ENTRY_0.key(), ENTRY_0)
+            .put(ENTRY_1.key(), ENTRY_1)
+            .build();
+
+    Segment segment = directIoFactory.create(keyEntryMap, 0);
+
+    assertThat(Files.readAllBytes(tempDir.resolve(Segment.createFileName(0))))
+        .isEqualTo(Bytes.concat(METADATA.getBytes(), ENTRY_0.getBytes(), ENTRY_1.getBytes()));
+    assertThat(segment.readAllEntries().stream().map(EntryView::toEntry).toList())
+        .containsExactly(ENTRY_0, ENTRY_1)
+        .inOrder();
+  }
+
+  @Test
+  public void writeSegment_valueAtThreshold_separatedIntoBlobFile() throws Exception {
+    SegmentFactory blobFactory =
+        new SegmentFactory(
+            STORAGE_CONFIG.toBuilder()
+                .setBlobValueThresholdBytes(ENTRY_0.value().size())
+                .buildPartial(),
+            indexFactory,
+            blobStore);
+    SortedMap<ByteString, Entry> keyEntryMap =
+        ImmutableSortedMap.<ByteString, Entry>orderedBy(Entry.KEY_COMPARATOR)
+            .put(ENTRY_0.key(), ENTRY_0)
+            .build();
+    BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, keyEntryMap.size());
+    BlobPointer pointer = new BlobPointer(3, 0, ENTRY_0.value().size());
+    when(blobFileWriter.append(ENTRY_0.value())).thenReturn(pointer);
+    BlobReferenceEntry expectedEntry =
+        new BlobReferenceEntry(ENTRY_0.creationEpochSeconds(), ENTRY_0.key(), pointer.getBytes());
+
+    SegmentWriteResult writeResult;
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
+      fileMockedStatic.when(() -> Files.newOutputStream(any(), any())).thenReturn(outputStream);
+
+      writeResult =
+          blobFactory.writeSegment(
+              keyEntryMap, METADATA, keyFilter, TEST_RESOURCE_PATH, ImmutableSet.of());
+    }
+
+    assertThat(outputStream.toByteArray())
+        .isEqualTo(Bytes.concat(METADATA.getBytes(), getBytes(expectedEntry)));
+    assertThat(writeResult.numBytesSize()).isEqualTo(expectedEntry.getNumBytesSize());
+    assertThat(writeResult.blobReferencedBytes())
+        .containsExactly(3L, (long) ENTRY_0.value().size());
+    verify(blobFileWriter, times(1)).close();
+  }
+
+  @Test
+  public void writeSegment_blobFileToRelocate_valueCopiedToNewBlobFile() throws Exception {
+    BlobPointer oldPointer = new BlobPointer(1, 10, ENTRY_0.value().size());
+    BlobPointer newPointer = new BlobPointer(2, 0, ENTRY_0.value().size());
+    EntryView relocatedView =
+        createEntryView(
+            new BlobReferenceEntry(
+                ENTRY_0.creationEpochSeconds(), ENTRY_0.key(), oldPointer.getBytes()));
+    BlobPointer keptPointer = new BlobPointer(0, 0, ENTRY_1.value().size());
+    EntryView keptView =
+        createEntryView(
+            new BlobReferenceEntry(
+                ENTRY_1.creationEpochSeconds(), ENTRY_1.key(), keptPointer.getBytes()));
+    SortedMap<ByteString, EntryView> keyEntryMap =
+        ImmutableSortedMap.<ByteString, EntryView>orderedBy(Entry.KEY_COMPARATOR)
+            .put(ENTRY_0.key(), relocatedView)
+            .put(ENTRY_1.key(), keptView)
+            .build();
+    BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, keyEntryMap.size());
+    when(blobStore.read(oldPointer)).thenReturn(ENTRY_0.value());
+    when(blobFileWriter.append(ENTRY_0.value())).thenReturn(newPointer);
+
+    SegmentWriteResult writeResult;
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class)) {
+      fileMockedStatic.when(() -> Files.newOutputStream(any(), any())).thenReturn(outputStream);
+
+      writeResult =
+          factory.writeSegment(
+              keyEntryMap, METADATA, keyFilter, TEST_RESOURCE_PATH, ImmutableSet.of(1L));
+    }
+
+    BlobReferenceEntry expectedEntry =
+        new BlobReferenceEntry(
+            ENTRY_0.creationEpochSeconds(), ENTRY_0.key(), newPointer.getBytes());
+    assertThat(outputStream.toByteArray())
+        .isEqualTo(
+            Bytes.concat(METADATA.getBytes(), getBytes(expectedEntry), getBytes(keptView)));
+    assertThat(writeResult.blobReferencedBytes())
+        .containsExactly(
+            2L, (long) ENTRY_0.value().size(), 0L, (long) ENTRY_1.value().size());
   }
 
   @Test
   public void loadFromPath_success() throws Exception {
-    ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap =
+    ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap =
         ImmutableMap.of(METADATA.getSegmentNumber(), segmentIndex);
     ByteArrayInputStream inputStream = new ByteArrayInputStream(METADATA.getBytes());
     EntryReader entryReader = mock(EntryReader.class);
-    when(entryReader.readAllEntriesFromOffset(SegmentMetadata.BYTES))
-        .thenReturn(ImmutableList.of(ENTRY_0, ENTRY_1));
+    when(entryReader.readAllEntryViewsFromOffset(SegmentMetadata.BYTES))
+        .thenReturn(ImmutableList.of(createEntryView(ENTRY_0), createEntryView(ENTRY_1)));
 
     Segment segment;
     try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class);
@@ -157,11 +290,45 @@ public class SegmentFactoryTest {
 
     assertThat(segment.mightContain(ENTRY_0.key())).isTrue();
     assertThat(segment.mightContain(ENTRY_1.key())).isTrue();
+    assertThat(segment.getBlobReferencedBytes()).isEmpty();
+  }
+
+  @Test
+  public void loadFromPath_blobReferences_referencedBytesSummed() throws Exception {
+    ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap =
+        ImmutableMap.of(METADATA.getSegmentNumber(), segmentIndex);
+    ByteArrayInputStream inputStream = new ByteArrayInputStream(METADATA.getBytes());
+    EntryReader entryReader = mock(EntryReader.class);
+    EntryView view_0 =
+        createEntryView(
+            new BlobReferenceEntry(
+                ENTRY_0.creationEpochSeconds(),
+                ENTRY_0.key(),
+                new BlobPointer(0, 0, 100).getBytes()));
+    EntryView view_1 =
+        createEntryView(
+            new BlobReferenceEntry(
+                ENTRY_1.creationEpochSeconds(),
+                ENTRY_1.key(),
+                new BlobPointer(0, 100, 50).getBytes()));
+    when(entryReader.readAllEntryViewsFromOffset(SegmentMetadata.BYTES))
+        .thenReturn(ImmutableList.of(view_0, view_1));
+
+    Segment segment;
+    try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class);
+        MockedStatic<EntryReader> entryReaderMockedStatic = mockStatic(EntryReader.class)) {
+      fileMockedStatic.when(() -> Files.newInputStream(any())).thenReturn(inputStream);
+      entryReaderMockedStatic.when(() -> EntryReader.create(any())).thenReturn(entryReader);
+
+      segment = factory.loadFromPath(SEGMENT_PATH, segmentNumberToIndexMap);
+    }
+
+    assertThat(segment.getBlobReferencedBytes()).containsExactly(0L, 150L);
   }
 
   @Test
   public void loadFromPath_emptyFile_throwsStorageLoadException() {
-    ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap = ImmutableMap.of();
+    ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap = ImmutableMap.of();
     ByteArrayInputStream is = new ByteArrayInputStream(new byte[] {});
 
     StorageLoadException e;
@@ -179,17 +346,17 @@ public class SegmentFactoryTest {
         .isEqualTo(
             String.format(
                 "SegmentMetadata bytes read too short. Expected [%d], actual [%d]",
-                SegmentMetadata.BYTES, 0));
+                SegmentMetadata.LEGACY_BYTES, 0));
   }
 
   @Test
   public void loadFromPath_matchingSegmentIndexNotFound_throwsStorageLoadException()
       throws Exception {
-    ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap = ImmutableMap.of();
+    ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap = ImmutableMap.of();
     ByteArrayInputStream inputStream = new ByteArrayInputStream(METADATA.getBytes());
     EntryReader entryReader = mock(EntryReader.class);
-    when(entryReader.readAllEntriesFromOffset(SegmentMetadata.BYTES))
-        .thenReturn(ImmutableList.of(ENTRY_0, ENTRY_1));
+    when(entryReader.readAllEntryViewsFromOffset(SegmentMetadata.BYTES))
+        .thenReturn(ImmutableList.of(createEntryView(ENTRY_0), createEntryView(ENTRY_1)));
 
     StorageLoadException e;
     try (MockedStatic<Files> fileMockedStatic = mockStatic(Files.class);
@@ -210,4 +377,18 @@ public class SegmentFactoryTest {
                 "Could not find a SegmentIndex with expected segment number [%d]",
                 METADATA.getSegmentNumber()));
   }
+
+  private static EntryView createEntryView(Entry entry) {
+    return EntryView.wrap(ByteBuffer.wrap(entry.getBytes()), 0);
+  }
+
+  private static EntryView createEntryView(BlobReferenceEntry entry) {
+    return EntryView.wrap(ByteBuffer.wrap(getBytes(entry)), 0);
+  }
+
+  private static byte[] getBytes(WritableEntry entry) {
+    ByteBuffer buffer = ByteBuffer.allocate((int) entry.getNumBytesSize());
+    entry.writeTo(buffer);
+    return buffer.array();
+  }
 }
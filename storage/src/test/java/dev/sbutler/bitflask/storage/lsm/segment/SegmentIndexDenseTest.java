@@ -4,7 +4,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
 
 import com.google.common.collect.ImmutableSortedMap;
-import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 
@@ -12,36 +13,38 @@ public class SegmentIndexDenseTest {
 
   private static final Path PATH = Path.of("/tmp/index_0.idx");
   private static final SegmentIndexMetadata METADATA =
-      new SegmentIndexMetadata(UnsignedShort.valueOf(0));
+      new SegmentIndexMetadata(0);
 
-  private static final ImmutableSortedMap<String, Long> KEY_OFFSET_MAP =
-      ImmutableSortedMap.<String, Long>naturalOrder()
-          .put("key", 0L).buildOrThrow();
-  private static final ImmutableSortedMap<String, Long> KEY_OFFSET_MAP_EMPTY =
-      ImmutableSortedMap.<String, Long>naturalOrder().buildOrThrow();
+  private static final ByteString KEY = ByteString.copyFromUtf8("key");
+
+  private static final ImmutableSortedMap<ByteString, Long> KEY_OFFSET_MAP =
+      ImmutableSortedMap.<ByteString, Long>orderedBy(Entry.KEY_COMPARATOR)
+          .put(KEY, 0L).buildOrThrow();
+  private static final ImmutableSortedMap<ByteString, Long> KEY_OFFSET_MAP_EMPTY =
+      ImmutableSortedMap.<ByteString, Long>orderedBy(Entry.KEY_COMPARATOR).buildOrThrow();
 
   @Test
   public void mightContain_absent_false() {
     SegmentIndexDense segmentIndex = new SegmentIndexDense(PATH, METADATA, KEY_OFFSET_MAP_EMPTY);
-    assertThat(segmentIndex.mightContain("key")).isFalse();
+    assertThat(segmentIndex.mightContain(KEY)).isFalse();
   }
 
   @Test
   public void mightContain_present_true() {
     SegmentIndexDense segmentIndex = new SegmentIndexDense(PATH, METADATA, KEY_OFFSET_MAP);
-    assertThat(segmentIndex.mightContain("key")).isTrue();
+    assertThat(segmentIndex.mightContain(KEY)).isTrue();
   }
 
   @Test
   public void getKeyOffset_absent() {
     SegmentIndexDense segmentIndex = new SegmentIndexDense(PATH, METADATA, KEY_OFFSET_MAP_EMPTY);
-    assertThat(segmentIndex.getKeyOffset("key")).isEmpty();
+    assertThat(segmentIndex.getKeyOffset(KEY)).isEmpty();
   }
 
   @Test
   public void getKeyOffset_present() {
     SegmentIndexDense segmentIndex = new SegmentIndexDense(PATH, METADATA, KEY_OFFSET_MAP);
-    assertThat(segmentIndex.getKeyOffset("key")).hasValue(0L);
+    assertThat(segmentIndex.getKeyOffset(KEY)).hasValue(0L);
   }
 
   @Test
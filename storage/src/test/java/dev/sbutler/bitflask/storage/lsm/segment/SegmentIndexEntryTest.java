@@ -5,16 +5,16 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Longs;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
 import dev.sbutler.bitflask.storage.lsm.segment.SegmentIndexEntry.PartialEntry;
-import java.nio.charset.StandardCharsets;
 import org.junit.jupiter.api.Test;
 
 public class SegmentIndexEntryTest {
 
   @Test
   public void constructor_emptyKey_throwsIllegalArgumentException() {
-    String key = "";
+    ByteString key = ByteString.EMPTY;
     long offset = 0L;
 
     IllegalArgumentException e =
@@ -25,12 +25,12 @@ public class SegmentIndexEntryTest {
 
   @Test
   public void identityConversion_fromBytes() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     long offset = 0L;
     byte[] expectedBytes =
         Bytes.concat(
-            new PartialEntry(new UnsignedShort(key.length()), offset).getBytes(),
-            key.getBytes(StandardCharsets.UTF_8));
+            new PartialEntry(new UnsignedShort(key.size()), offset).getBytes(),
+            key.toByteArray());
 
     byte[] bytes = SegmentIndexEntry.fromBytes(expectedBytes).getBytes();
 
@@ -39,7 +39,7 @@ public class SegmentIndexEntryTest {
 
   @Test
   public void identityConversion_getBytes() {
-    SegmentIndexEntry expected = new SegmentIndexEntry("key", 0L);
+    SegmentIndexEntry expected = new SegmentIndexEntry(ByteString.copyFromUtf8("key"), 0L);
 
     SegmentIndexEntry created = SegmentIndexEntry.fromBytes(expected.getBytes());
 
@@ -48,12 +48,12 @@ public class SegmentIndexEntryTest {
 
   @Test
   public void fromBytes_valid() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     long offset = 0L;
     byte[] bytes =
         Bytes.concat(
-            new PartialEntry(new UnsignedShort(key.length()), offset).getBytes(),
-            key.getBytes(StandardCharsets.UTF_8));
+            new PartialEntry(new UnsignedShort(key.size()), offset).getBytes(),
+            key.toByteArray());
 
     SegmentIndexEntry entry = SegmentIndexEntry.fromBytes(bytes);
 
@@ -85,13 +85,13 @@ public class SegmentIndexEntryTest {
 
   @Test
   public void fromBytes_invalid_offset_negative_throwsIllegalArgumentException() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     long offset = -1L;
     byte[] bytes =
         Bytes.concat(
-            UnsignedShort.valueOf(key.length()).getBytes(),
+            UnsignedShort.valueOf(key.size()).getBytes(),
             Longs.toByteArray(offset),
-            key.getBytes(StandardCharsets.UTF_8));
+            key.toByteArray());
 
     IllegalArgumentException e =
         assertThrows(IllegalArgumentException.class, () -> SegmentIndexEntry.fromBytes(bytes));
@@ -101,17 +101,27 @@ public class SegmentIndexEntryTest {
 
   @Test
   public void getBytes_valid() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     long offset = 0L;
     SegmentIndexEntry entry = new SegmentIndexEntry(key, offset);
     byte[] expectedBytes =
         Bytes.concat(
-            UnsignedShort.valueOf(key.length()).getBytes(),
+            UnsignedShort.valueOf(key.size()).getBytes(),
             Longs.toByteArray(offset),
-            key.getBytes(StandardCharsets.UTF_8));
+            key.toByteArray());
 
     byte[] bytes = entry.getBytes();
 
     assertThat(bytes).isEqualTo(expectedBytes);
   }
+
+  @Test
+  public void getBytes_multiByteKey_usesEncodedLength() {
+    ByteString key = ByteString.copyFromUtf8("kéy");
+    SegmentIndexEntry entry = new SegmentIndexEntry(key, 0L);
+
+    SegmentIndexEntry created = SegmentIndexEntry.fromBytes(entry.getBytes());
+
+    assertThat(created).isEqualTo(entry);
+  }
 }
@@ -8,6 +8,7 @@ import static org.mockito.Mockito.mockStatic;
 
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.primitives.Bytes;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
 import dev.sbutler.bitflask.config.StorageConfig;
 import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
@@ -41,13 +42,13 @@ public class SegmentIndexFactoryTest {
 
   private static final long ENTRY_0_OFFSET = SegmentMetadata.BYTES;
   private static final long ENTRY_1_OFFSET = SegmentMetadata.BYTES + ENTRY_0.getBytes().length;
-  private static final SortedMap<String, Long> KEY_OFFSET_MAP =
-      ImmutableSortedMap.<String, Long>naturalOrder()
+  private static final SortedMap<ByteString, Long> KEY_OFFSET_MAP =
+      ImmutableSortedMap.<ByteString, Long>orderedBy(Entry.KEY_COMPARATOR)
           .put(ENTRY_0.key(), ENTRY_0_OFFSET)
           .put(ENTRY_1.key(), ENTRY_1_OFFSET)
           .build();
 
-  private static final UnsignedShort SEGMENT_NUMBER = UnsignedShort.valueOf(0);
+  private static final long SEGMENT_NUMBER = 0;
 
   private static final SegmentIndexMetadata METADATA = new SegmentIndexMetadata(SEGMENT_NUMBER);
 
@@ -73,7 +74,7 @@ public class SegmentIndexFactoryTest {
         .isEqualTo(
             Bytes.concat(METADATA.getBytes(), INDEX_ENTRY_0.getBytes(), INDEX_ENTRY_1.getBytes()));
 
-    assertThat(segmentIndex.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER.value());
+    assertThat(segmentIndex.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER);
     assertThat(segmentIndex.getKeyOffset(ENTRY_0.key())).hasValue(ENTRY_0_OFFSET);
     assertThat(segmentIndex.getKeyOffset(ENTRY_1.key())).hasValue(ENTRY_1_OFFSET);
   }
@@ -91,7 +92,7 @@ public class SegmentIndexFactoryTest {
       segmentIndex = indexFactory.loadFromPath(INDEX_PATH);
     }
 
-    assertThat(segmentIndex.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER.value());
+    assertThat(segmentIndex.getSegmentNumber()).isEqualTo(SEGMENT_NUMBER);
     assertThat(segmentIndex.getKeyOffset(ENTRY_0.key())).hasValue(ENTRY_0_OFFSET);
     assertThat(segmentIndex.getKeyOffset(ENTRY_1.key())).hasValue(ENTRY_1_OFFSET);
   }
@@ -112,7 +113,7 @@ public class SegmentIndexFactoryTest {
         .isEqualTo(
             String.format(
                 "SegmentIndexMetadata bytes read too short. Expected [%d], actual [%d]",
-                SegmentIndexMetadata.BYTES, 0));
+                SegmentIndexMetadata.LEGACY_BYTES, 0));
   }
 
   @Test
@@ -3,8 +3,14 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.google.common.primitives.Bytes;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.Test;
 
 public class SegmentIndexMetadataTest {
@@ -21,8 +27,19 @@ public class SegmentIndexMetadataTest {
 
   @Test
   public void identityConversion_getBytes() {
-    UnsignedShort segmentNumber = UnsignedShort.valueOf(UnsignedShort.MAX_VALUE);
-    SegmentIndexMetadata expected = new SegmentIndexMetadata(segmentNumber);
+    SegmentIndexMetadata expected = new SegmentIndexMetadata(Long.MAX_VALUE);
+
+    SegmentIndexMetadata created = SegmentIndexMetadata.fromBytes(expected.getBytes());
+
+    assertThat(created).isEqualTo(expected);
+    assertThat(created.formatVersion()).isEqualTo(SegmentIndexMetadata.CURRENT_FORMAT_VERSION);
+  }
+
+  @Test
+  public void identityConversion_getBytes_legacy() {
+    SegmentIndexMetadata expected =
+        new SegmentIndexMetadata(
+            SegmentIndexMetadata.LEGACY_FORMAT_VERSION, UnsignedShort.MAX_VALUE);
 
     SegmentIndexMetadata created = SegmentIndexMetadata.fromBytes(expected.getBytes());
 
@@ -71,7 +88,8 @@ public class SegmentIndexMetadataTest {
   @Test
   public void getBytes_lowerRange() {
     UnsignedShort minValue = UnsignedShort.valueOf(UnsignedShort.MIN_VALUE);
-    SegmentIndexMetadata metadata = new SegmentIndexMetadata(minValue);
+    SegmentIndexMetadata metadata =
+        new SegmentIndexMetadata(SegmentIndexMetadata.LEGACY_FORMAT_VERSION, minValue.value());
 
     assertThat(metadata.getBytes()).isEqualTo(minValue.getBytes());
   }
@@ -79,8 +97,78 @@ public class SegmentIndexMetadataTest {
   @Test
   public void getBytes_upperRange() {
     UnsignedShort maxValue = UnsignedShort.valueOf(UnsignedShort.MAX_VALUE);
-    SegmentIndexMetadata metadata = new SegmentIndexMetadata(maxValue);
+    SegmentIndexMetadata metadata =
+        new SegmentIndexMetadata(SegmentIndexMetadata.LEGACY_FORMAT_VERSION, maxValue.value());
 
     assertThat(metadata.getBytes()).isEqualTo(maxValue.getBytes());
   }
+
+  @Test
+  public void getBytes_currentFormatVersion() {
+    SegmentIndexMetadata metadata = new SegmentIndexMetadata(1L << 40);
+
+    assertThat(metadata.getBytes())
+        .isEqualTo(
+            ByteBuffer.allocate(SegmentIndexMetadata.BYTES)
+                .putInt(SegmentIndexMetadata.MAGIC)
+                .putShort((short) SegmentIndexMetadata.CURRENT_FORMAT_VERSION)
+                .putLong(1L << 40)
+                .array());
+  }
+
+  @Test
+  public void fromBytes_invalidMagic_throwsIllegalArgumentException() {
+    byte[] bytes = new byte[SegmentIndexMetadata.BYTES];
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> SegmentIndexMetadata.fromBytes(bytes));
+
+    assertThat(e).hasMessageThat().startsWith("SegmentIndex magic invalid.");
+  }
+
+  @Test
+  public void readFrom_currentFormatVersion() throws Exception {
+    SegmentIndexMetadata expected = new SegmentIndexMetadata(70_000);
+    InputStream is =
+        new BufferedInputStream(
+            new ByteArrayInputStream(Bytes.concat(expected.getBytes(), new byte[] {1})));
+
+    SegmentIndexMetadata read = SegmentIndexMetadata.readFrom(is);
+
+    assertThat(read).isEqualTo(expected);
+    assertThat(is.available()).isEqualTo(1);
+  }
+
+  @Test
+  public void readFrom_legacyFormatVersion() throws Exception {
+    SegmentIndexMetadata expected =
+        new SegmentIndexMetadata(SegmentIndexMetadata.LEGACY_FORMAT_VERSION, 5);
+    byte[] firstEntryBytes =
+        new SegmentIndexEntry(ByteString.copyFromUtf8("key"), 2).getBytes();
+    InputStream is =
+        new BufferedInputStream(
+            new ByteArrayInputStream(Bytes.concat(expected.getBytes(), firstEntryBytes)));
+
+    SegmentIndexMetadata read = SegmentIndexMetadata.readFrom(is);
+
+    assertThat(read).isEqualTo(expected);
+    assertThat(is.readAllBytes()).isEqualTo(firstEntryBytes);
+  }
+
+  @Test
+  public void readFrom_legacyFormatVersionMatchingMagic_readAsLegacy() throws Exception {
+    // A legacy index whose segment number and first key length spell out the magic
+    byte[] bytes =
+        ByteBuffer.allocate(SegmentIndexMetadata.BYTES)
+            .putInt(SegmentIndexMetadata.MAGIC)
+            .putLong(2)
+            .array();
+    InputStream is = new BufferedInputStream(new ByteArrayInputStream(bytes));
+
+    SegmentIndexMetadata read = SegmentIndexMetadata.readFrom(is);
+
+    assertThat(read.formatVersion()).isEqualTo(SegmentIndexMetadata.LEGACY_FORMAT_VERSION);
+    assertThat(read.getSegmentNumber()).isEqualTo(SegmentIndexMetadata.MAGIC >>> 16);
+    assertThat(is.available()).isEqualTo(SegmentIndexMetadata.BYTES - Short.BYTES);
+  }
 }
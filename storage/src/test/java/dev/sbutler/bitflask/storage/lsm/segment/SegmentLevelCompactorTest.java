@@ -12,11 +12,21 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedMap;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.exceptions.StorageCompactionException;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
+import dev.sbutler.bitflask.storage.lsm.entry.MergeOperator;
+import dev.sbutler.bitflask.storage.lsm.entry.WritableEntry;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment.SegmentRelatedPaths;
+import dev.sbutler.bitflask.storage.lsm.stats.StorageStats;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
@@ -36,8 +46,13 @@ public class SegmentLevelCompactorTest {
   private final Path SEGMENT_PATH_1 = Path.of("/tmp/segment_1.seg");
   private final Path SEGMENT_INDEX_PATH_1 = Path.of("/tmp/index_1.idx");
 
-  private final Entry ENTRY_0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
-  private final Entry ENTRY_1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+  private final EntryView ENTRY_0 = createEntryView(
+      new Entry(Instant.now().getEpochSecond(), "key0", "value0"));
+  private final EntryView ENTRY_1 = createEntryView(
+      new Entry(Instant.now().getEpochSecond(), "key1", "value1"));
+
+  private final ByteString BYTES_KEY_2 = ByteString.copyFromUtf8("key2");
+  private final ByteString BYTES_VALUE_2 = ByteString.copyFromUtf8("value2");
 
   private final Segment segment_0 = mock(Segment.class);
   private final Segment segment_1 = mock(Segment.class);
@@ -47,23 +62,29 @@ public class SegmentLevelCompactorTest {
 
   private final ThreadFactory threadFactory = Thread.ofVirtual().factory();
   private final SegmentFactory segmentFactory = mock(SegmentFactory.class);
+  private final BlobStore blobStore = mock(BlobStore.class);
+  private final StorageStats stats = new StorageStats();
 
   private final SegmentLevelCompactor compactor =
-      new SegmentLevelCompactor(threadFactory, segmentFactory);
+      new SegmentLevelCompactor(threadFactory, segmentFactory, blobStore, stats);
 
   @BeforeEach
   public void beforeEach() throws Exception {
     when(segment_0.getSegmentLevel()).thenReturn(SEGMENT_LEVEL);
-    when(segment_0.getSegmentNumber()).thenReturn(0);
+    when(segment_0.getSegmentNumber()).thenReturn(0L);
     when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(ENTRY_0));
     when(segment_0.getSegmentRelatedPaths())
         .thenReturn(new SegmentRelatedPaths(SEGMENT_PATH_0, SEGMENT_INDEX_PATH_0));
+    when(segment_0.getBlobReferencedBytes()).thenReturn(ImmutableMap.of(0L, 10L));
 
     when(segment_1.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
-    when(segment_1.getSegmentNumber()).thenReturn(1);
+    when(segment_1.getSegmentNumber()).thenReturn(1L);
     when(segment_1.readAllEntries()).thenReturn(ImmutableList.of(ENTRY_1));
     when(segment_1.getSegmentRelatedPaths())
         .thenReturn(new SegmentRelatedPaths(SEGMENT_PATH_1, SEGMENT_INDEX_PATH_1));
+    when(segment_1.getBlobReferencedBytes()).thenReturn(ImmutableMap.of(0L, 5L));
+
+    when(blobStore.getBlobFileNumbersBelowLiveRatio(any())).thenReturn(ImmutableSet.of(0L));
 
     segmentLevelMultiMap = SegmentLevelMultiMap.builder().add(segment_0).add(segment_1).build();
   }
@@ -72,8 +93,8 @@ public class SegmentLevelCompactorTest {
   public void compactSegmentLevel_success() throws Exception {
     int nextSegmentLevel = SEGMENT_LEVEL + 1;
     when(newSegment.getSegmentLevel()).thenReturn(nextSegmentLevel);
-    when(newSegment.getSegmentNumber()).thenReturn(2);
-    when(segmentFactory.create(any(), anyInt())).thenReturn(newSegment);
+    when(newSegment.getSegmentNumber()).thenReturn(2L);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
 
     SegmentLevelMultiMap compactedMap;
     try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
@@ -84,22 +105,171 @@ public class SegmentLevelCompactorTest {
     assertThat(compactedMap.getSegmentsInLevel(nextSegmentLevel))
         .containsExactly(segment_1, newSegment);
 
-    ArgumentCaptor<ImmutableSortedMap<String, Entry>> keyEntryMapCaptor =
+    ArgumentCaptor<ImmutableSortedMap<ByteString, EntryView>> keyEntryMapCaptor =
         ArgumentCaptor.forClass(ImmutableSortedMap.class);
     ArgumentCaptor<Integer> segmentLevelCaptor = ArgumentCaptor.forClass(Integer.class);
     verify(segmentFactory, times(1))
-        .create(keyEntryMapCaptor.capture(), segmentLevelCaptor.capture());
+        .create(
+            keyEntryMapCaptor.capture(), segmentLevelCaptor.capture(), eq(ImmutableSet.of(0L)));
     assertThat(keyEntryMapCaptor.getValue())
-        .isEqualTo(ImmutableSortedMap.of(ENTRY_0.key(), ENTRY_0));
+        .isEqualTo(ImmutableSortedMap.copyOf(ImmutableMap.of(ENTRY_0.key(), ENTRY_0), Entry.KEY_COMPARATOR));
     assertThat(segmentLevelCaptor.getValue()).isEqualTo(nextSegmentLevel);
+    verify(blobStore, times(1)).getBlobFileNumbersBelowLiveRatio(ImmutableMap.of(0L, 15L));
+  }
+
+  @Test
+  public void compactSegmentLevel_statsRecorded() throws Exception {
+    when(segment_0.getNumBytesSize()).thenReturn(100L);
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(newSegment.getNumBytesSize()).thenReturn(60L);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+    }
+
+    StorageStats.LevelStats levelStats =
+        stats.snapshot(ImmutableListMultimap.of()).levelStats().getFirst();
+    assertThat(levelStats.segmentLevel()).isEqualTo(SEGMENT_LEVEL);
+    assertThat(levelStats.numCompactions()).isEqualTo(1);
+    assertThat(levelStats.compactionBytesRead()).isEqualTo(100);
+    assertThat(levelStats.compactionBytesWritten()).isEqualTo(60);
+    assertThat(levelStats.getCompactionStaleRatio()).isWithin(1e-9).of(0.4);
+  }
+
+  @Test
+  public void compactSegmentLevel_expiredEntryNotInDeeperLevel_dropped() throws Exception {
+    EntryView expiredEntry = createEntryView(new Entry(1, BYTES_KEY_2, BYTES_VALUE_2, 2));
+    when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(ENTRY_0, expiredEntry));
+    when(segment_1.mightContain(any())).thenReturn(false);
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+    }
+
+    ArgumentCaptor<ImmutableSortedMap<ByteString, EntryView>> keyEntryMapCaptor =
+        ArgumentCaptor.forClass(ImmutableSortedMap.class);
+    verify(segmentFactory, times(1)).create(keyEntryMapCaptor.capture(), anyInt(), any());
+    assertThat(keyEntryMapCaptor.getValue()).containsExactly(ENTRY_0.key(), ENTRY_0);
+  }
+
+  @Test
+  public void compactSegmentLevel_expiredEntryInDeeperLevel_kept() throws Exception {
+    EntryView expiredEntry = createEntryView(new Entry(1, BYTES_KEY_2, BYTES_VALUE_2, 2));
+    when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(ENTRY_0, expiredEntry));
+    when(segment_1.mightContain(BYTES_KEY_2)).thenReturn(true);
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+    }
+
+    ArgumentCaptor<ImmutableSortedMap<ByteString, EntryView>> keyEntryMapCaptor =
+        ArgumentCaptor.forClass(ImmutableSortedMap.class);
+    verify(segmentFactory, times(1)).create(keyEntryMapCaptor.capture(), anyInt(), any());
+    assertThat(keyEntryMapCaptor.getValue())
+        .containsExactly(ENTRY_0.key(), ENTRY_0, BYTES_KEY_2, expiredEntry);
+  }
+
+  @Test
+  public void compactSegmentLevel_mergeOperandWithValueInLevel_folded() throws Exception {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Entry operand = Entry.mergeOperand(nowEpochSeconds, BYTES_KEY_2, ByteString.copyFromUtf8("b"),
+        MergeOperator.APPEND);
+    Segment newerSegment = mock(Segment.class);
+    when(newerSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL);
+    when(newerSegment.getSegmentNumber()).thenReturn(2L);
+    when(newerSegment.readAllEntries()).thenReturn(ImmutableList.of(createEntryView(operand)));
+    when(newerSegment.getSegmentRelatedPaths())
+        .thenReturn(new SegmentRelatedPaths(SEGMENT_PATH_1, SEGMENT_INDEX_PATH_1));
+    when(newerSegment.getBlobReferencedBytes()).thenReturn(ImmutableMap.of());
+    when(segment_0.readAllEntries())
+        .thenReturn(ImmutableList.of(createEntryView(new Entry(nowEpochSeconds, "key2", "a"))));
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+    SegmentLevelMultiMap multiMap =
+        SegmentLevelMultiMap.builder().add(segment_0).add(newerSegment).add(segment_1).build();
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(multiMap, SEGMENT_LEVEL);
+    }
+
+    ArgumentCaptor<ImmutableSortedMap<ByteString, WritableEntry>> keyEntryMapCaptor =
+        ArgumentCaptor.forClass(ImmutableSortedMap.class);
+    verify(segmentFactory, times(1)).create(keyEntryMapCaptor.capture(), anyInt(), any());
+    assertThat(keyEntryMapCaptor.getValue())
+        .containsExactly(BYTES_KEY_2, new Entry(nowEpochSeconds, "key2", "ab"));
+    verify(segment_1, times(0)).mightContain(any());
+  }
+
+  @Test
+  public void compactSegmentLevel_mergeOperandNotInDeeperLevel_resolved() throws Exception {
+    long nowEpochSeconds = Instant.now().getEpochSecond();
+    Entry operand = Entry.mergeOperand(nowEpochSeconds, BYTES_KEY_2, ByteString.copyFromUtf8("7"),
+        MergeOperator.INCREMENT);
+    when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(createEntryView(operand)));
+    when(segment_1.mightContain(any())).thenReturn(false);
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+    }
+
+    ArgumentCaptor<ImmutableSortedMap<ByteString, WritableEntry>> keyEntryMapCaptor =
+        ArgumentCaptor.forClass(ImmutableSortedMap.class);
+    verify(segmentFactory, times(1)).create(keyEntryMapCaptor.capture(), anyInt(), any());
+    assertThat(keyEntryMapCaptor.getValue())
+        .containsExactly(BYTES_KEY_2, new Entry(nowEpochSeconds, "key2", "7"));
+  }
+
+  @Test
+  public void compactSegmentLevel_mergeOperandInDeeperLevel_keptAsOperand() throws Exception {
+    Entry operand =
+        Entry.mergeOperand(Instant.now().getEpochSecond(), BYTES_KEY_2,
+            ByteString.copyFromUtf8("7"), MergeOperator.INCREMENT);
+    when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(createEntryView(operand)));
+    when(segment_1.mightContain(BYTES_KEY_2)).thenReturn(true);
+    when(newSegment.getSegmentLevel()).thenReturn(SEGMENT_LEVEL + 1);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
+
+    try (MockedStatic<Files> ignored = mockStatic(Files.class)) {
+      compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+    }
+
+    ArgumentCaptor<ImmutableSortedMap<ByteString, WritableEntry>> keyEntryMapCaptor =
+        ArgumentCaptor.forClass(ImmutableSortedMap.class);
+    verify(segmentFactory, times(1)).create(keyEntryMapCaptor.capture(), anyInt(), any());
+    assertThat(keyEntryMapCaptor.getValue()).containsExactly(BYTES_KEY_2, operand);
+    verify(segment_1, times(0)).readEntry(any());
+  }
+
+  @Test
+  public void compactSegmentLevel_allEntriesExpired_noSegmentCreated() throws Exception {
+    EntryView expiredEntry = createEntryView(new Entry(1, BYTES_KEY_2, BYTES_VALUE_2, 2));
+    when(segment_0.readAllEntries()).thenReturn(ImmutableList.of(expiredEntry));
+
+    SegmentLevelMultiMap compactedMap;
+    try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
+      compactedMap = compactor.compactSegmentLevel(segmentLevelMultiMap, SEGMENT_LEVEL);
+
+      filesMockedStatic.verify(() -> Files.delete(eq(SEGMENT_PATH_0)), times(1));
+    }
+
+    verify(segmentFactory, times(0)).create(any(), anyInt(), any());
+    assertThat(compactedMap.getSegmentLevels()).containsExactly(SEGMENT_LEVEL + 1);
+    assertThat(compactedMap.getSegmentsInLevel(SEGMENT_LEVEL + 1)).containsExactly(segment_1);
   }
 
   @Test
   public void compactSegmentLevel_segmentDeletionFailure_indexDeletionSkipped() throws Exception {
     int nextSegmentLevel = SEGMENT_LEVEL + 1;
     when(newSegment.getSegmentLevel()).thenReturn(nextSegmentLevel);
-    when(newSegment.getSegmentNumber()).thenReturn(2);
-    when(segmentFactory.create(any(), anyInt())).thenReturn(newSegment);
+    when(newSegment.getSegmentNumber()).thenReturn(2L);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic.when(() -> Files.delete(SEGMENT_PATH_0)).thenThrow(new IOException("test"));
@@ -115,8 +285,8 @@ public class SegmentLevelCompactorTest {
   public void compactSegmentLevel_indexDeletionFailure() throws Exception {
     int nextSegmentLevel = SEGMENT_LEVEL + 1;
     when(newSegment.getSegmentLevel()).thenReturn(nextSegmentLevel);
-    when(newSegment.getSegmentNumber()).thenReturn(2);
-    when(segmentFactory.create(any(), anyInt())).thenReturn(newSegment);
+    when(newSegment.getSegmentNumber()).thenReturn(2L);
+    when(segmentFactory.create(any(), anyInt(), any())).thenReturn(newSegment);
 
     try (MockedStatic<Files> filesMockedStatic = mockStatic(Files.class)) {
       filesMockedStatic
@@ -150,7 +320,7 @@ public class SegmentLevelCompactorTest {
   public void compactSegmentLevel_segmentFactoryThrowsIoException_throwStorageCompactionException()
       throws Exception {
     IOException ioException = new IOException("test");
-    when(segmentFactory.create(any(), anyInt())).thenThrow(ioException);
+    when(segmentFactory.create(any(), anyInt(), any())).thenThrow(ioException);
 
     StorageCompactionException exception =
         assertThrows(
@@ -160,4 +330,8 @@ public class SegmentLevelCompactorTest {
     assertThat(exception).hasCauseThat().isEqualTo(ioException);
     assertThat(exception).hasMessageThat().isEqualTo("Failed creating new segment");
   }
+
+  private static EntryView createEntryView(Entry entry) {
+    return EntryView.wrap(ByteBuffer.wrap(entry.getBytes()), 0);
+  }
 }
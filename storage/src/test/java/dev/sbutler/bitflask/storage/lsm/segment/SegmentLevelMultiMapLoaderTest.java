@@ -34,8 +34,8 @@ public class SegmentLevelMultiMapLoaderTest {
 
   @BeforeEach
   public void beforeEach() {
-    when(SEGMENT_INDEX_0.getSegmentNumber()).thenReturn(0);
-    when(SEGMENT_INDEX_1.getSegmentNumber()).thenReturn(1);
+    when(SEGMENT_INDEX_0.getSegmentNumber()).thenReturn(0L);
+    when(SEGMENT_INDEX_1.getSegmentNumber()).thenReturn(1L);
 
     when(SEGMENT_0.getSegmentLevel()).thenReturn(0);
     when(SEGMENT_1.getSegmentLevel()).thenReturn(1);
@@ -6,6 +6,7 @@ import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -119,4 +120,16 @@ public class SegmentLevelMultiMapTest {
     assertThat(segmentLevelMultiMap.getSegmentLevels()).isEqualTo(ImmutableSet.of(1));
     assertThat(segmentLevelMultiMap.getSegmentsInLevel(1)).containsExactly(SEGMENT_1);
   }
+
+  @Test
+  public void getBlobReferencedBytes_summedAcrossSegments() {
+    when(SEGMENT_0.getBlobReferencedBytes()).thenReturn(ImmutableMap.of(0L, 10L, 1L, 5L));
+    when(SEGMENT_1.getBlobReferencedBytes()).thenReturn(ImmutableMap.of(1L, 20L));
+    SegmentLevelMultiMap segmentLevelMultiMap = SegmentLevelMultiMap.builder()
+        .addAll(ImmutableList.of(SEGMENT_1, SEGMENT_0))
+        .build();
+
+    assertThat(segmentLevelMultiMap.getBlobReferencedBytes())
+        .containsExactly(0L, 10L, 1L, 25L);
+  }
 }
@@ -31,8 +31,8 @@ public class SegmentLoaderTest {
   private final Segment segment_0 = mock(Segment.class);
   private final Segment segment_1 = mock(Segment.class);
 
-  private final ImmutableMap<Integer, SegmentIndex> segmentNumberToIndexMap =
-      ImmutableMap.of(0, index_0, 1, index_1);
+  private final ImmutableMap<Long, SegmentIndex> segmentNumberToIndexMap =
+      ImmutableMap.of(0L, index_0, 1L, index_1);
 
   private final ThreadFactory threadFactory = Thread.ofVirtual().factory();
   private final SegmentFactory segmentFactory = mock(SegmentFactory.class);
@@ -6,6 +6,10 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.UnsignedBytes;
 import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import dev.sbutler.bitflask.storage.exceptions.StorageLoadException;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.junit.jupiter.api.Test;
 
 public class SegmentMetadataTest {
@@ -23,9 +27,21 @@ public class SegmentMetadataTest {
 
   @Test
   public void identityConversion_getBytes() {
-    UnsignedShort segmentNumber = UnsignedShort.valueOf(UnsignedShort.MIN_VALUE);
-    UnsignedShort segmentLevel = UnsignedShort.valueOf(UnsignedShort.MAX_VALUE);
-    SegmentMetadata expected = new SegmentMetadata(segmentNumber, segmentLevel);
+    SegmentMetadata expected = new SegmentMetadata(Long.MAX_VALUE, UnsignedShort.MAX_VALUE);
+
+    SegmentMetadata created = SegmentMetadata.fromBytes(expected.getBytes());
+
+    assertThat(created).isEqualTo(expected);
+    assertThat(created.formatVersion()).isEqualTo(SegmentMetadata.CURRENT_FORMAT_VERSION);
+  }
+
+  @Test
+  public void identityConversion_getBytes_legacy() {
+    SegmentMetadata expected =
+        new SegmentMetadata(
+            SegmentMetadata.LEGACY_FORMAT_VERSION,
+            UnsignedShort.MAX_VALUE,
+            UnsignedShort.MIN_VALUE);
 
     SegmentMetadata created = SegmentMetadata.fromBytes(expected.getBytes());
 
@@ -38,6 +54,7 @@ public class SegmentMetadataTest {
 
     SegmentMetadata metadata = SegmentMetadata.fromBytes(bytes);
 
+    assertThat(metadata.formatVersion()).isEqualTo(SegmentMetadata.LEGACY_FORMAT_VERSION);
     assertThat(metadata.getSegmentNumber()).isEqualTo(UnsignedShort.MIN_VALUE);
     assertThat(metadata.getSegmentLevel()).isEqualTo(UnsignedShort.MIN_VALUE);
   }
@@ -73,10 +90,37 @@ public class SegmentMetadataTest {
     assertThat(e).hasMessageThat().ignoringCase().contains("Byte array length invalid.");
   }
 
+  @Test
+  public void fromBytes_invalidMagic_throwsIllegalArgumentException() {
+    byte[] bytes = new byte[SegmentMetadata.BYTES];
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> SegmentMetadata.fromBytes(bytes));
+
+    assertThat(e).hasMessageThat().isEqualTo("Segment magic invalid. Provided [0], expected "
+        + "[42465347]");
+  }
+
+  @Test
+  public void fromBytes_unsupportedFormatVersion_throwsIllegalArgumentException() {
+    byte[] bytes =
+        ByteBuffer.allocate(SegmentMetadata.BYTES)
+            .putInt(SegmentMetadata.MAGIC)
+            .putShort((short) (SegmentMetadata.CURRENT_FORMAT_VERSION + 1))
+            .array();
+
+    IllegalArgumentException e =
+        assertThrows(IllegalArgumentException.class, () -> SegmentMetadata.fromBytes(bytes));
+
+    assertThat(e).hasMessageThat().contains("Unsupported Segment format version [2]");
+  }
+
   @Test
   public void getBytes_lowerRange() {
     UnsignedShort minValue = UnsignedShort.valueOf(UnsignedShort.MIN_VALUE);
-    SegmentMetadata metadata = new SegmentMetadata(minValue, minValue);
+    SegmentMetadata metadata =
+        new SegmentMetadata(
+            SegmentMetadata.LEGACY_FORMAT_VERSION, minValue.value(), minValue.value());
 
     assertThat(metadata.getBytes())
         .isEqualTo(Bytes.concat(minValue.getBytes(), minValue.getBytes()));
@@ -85,9 +129,69 @@ public class SegmentMetadataTest {
   @Test
   public void getBytes_upperRange() {
     UnsignedShort maxValue = UnsignedShort.valueOf(UnsignedShort.MAX_VALUE);
-    SegmentMetadata metadata = new SegmentMetadata(maxValue, maxValue);
+    SegmentMetadata metadata =
+        new SegmentMetadata(
+            SegmentMetadata.LEGACY_FORMAT_VERSION, maxValue.value(), maxValue.value());
 
     assertThat(metadata.getBytes())
         .isEqualTo(Bytes.concat(maxValue.getBytes(), maxValue.getBytes()));
   }
+
+  @Test
+  public void getBytes_currentFormatVersion() {
+    SegmentMetadata metadata = new SegmentMetadata(1L << 40, 3);
+
+    assertThat(metadata.getBytes())
+        .isEqualTo(
+            ByteBuffer.allocate(SegmentMetadata.BYTES)
+                .putInt(SegmentMetadata.MAGIC)
+                .putShort((short) SegmentMetadata.CURRENT_FORMAT_VERSION)
+                .putShort((short) 3)
+                .putLong(1L << 40)
+                .array());
+    assertThat(metadata.getNumBytes()).isEqualTo(SegmentMetadata.BYTES);
+  }
+
+  @Test
+  public void constructor_legacySegmentNumberTooLarge_throwsIllegalArgumentException() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new SegmentMetadata(
+                SegmentMetadata.LEGACY_FORMAT_VERSION, UnsignedShort.MAX_VALUE + 1, 0));
+  }
+
+  @Test
+  public void readFrom_currentFormatVersion() throws Exception {
+    SegmentMetadata expected = new SegmentMetadata(70_000, 1);
+    InputStream is = new ByteArrayInputStream(Bytes.concat(expected.getBytes(), new byte[]{1}));
+
+    SegmentMetadata read = SegmentMetadata.readFrom(is);
+
+    assertThat(read).isEqualTo(expected);
+    assertThat(is.available()).isEqualTo(1);
+  }
+
+  @Test
+  public void readFrom_legacyFormatVersion() throws Exception {
+    SegmentMetadata expected = new SegmentMetadata(SegmentMetadata.LEGACY_FORMAT_VERSION, 5, 1);
+    InputStream is =
+        new ByteArrayInputStream(
+            Bytes.concat(expected.getBytes(), new byte[SegmentMetadata.BYTES]));
+
+    SegmentMetadata read = SegmentMetadata.readFrom(is);
+
+    assertThat(read).isEqualTo(expected);
+    assertThat(read.getNumBytes()).isEqualTo(SegmentMetadata.LEGACY_BYTES);
+    assertThat(is.available()).isEqualTo(SegmentMetadata.BYTES);
+  }
+
+  @Test
+  public void readFrom_truncatedVersionedHeader_throwsStorageLoadException() {
+    byte[] bytes = ByteBuffer.allocate(Integer.BYTES + 2).putInt(SegmentMetadata.MAGIC).array();
+
+    assertThrows(
+        StorageLoadException.class,
+        () -> SegmentMetadata.readFrom(new ByteArrayInputStream(bytes)));
+  }
 }
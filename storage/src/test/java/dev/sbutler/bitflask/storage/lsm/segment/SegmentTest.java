@@ -3,24 +3,30 @@ package dev.sbutler.bitflask.storage.lsm.segment;
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth8.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
-import dev.sbutler.bitflask.common.primitives.UnsignedShort;
+import com.google.protobuf.ByteString;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobPointer;
+import dev.sbutler.bitflask.storage.lsm.blob.BlobStore;
+import dev.sbutler.bitflask.storage.lsm.entry.BlobReferenceEntry;
 import dev.sbutler.bitflask.storage.lsm.entry.Entry;
 import dev.sbutler.bitflask.storage.lsm.entry.EntryReader;
+import dev.sbutler.bitflask.storage.lsm.entry.EntryView;
 import dev.sbutler.bitflask.storage.lsm.segment.Segment.SegmentRelatedPaths;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.Test;
 
 @SuppressWarnings({"UnstableApiUsage"})
@@ -29,29 +35,31 @@ public class SegmentTest {
   private static final Path SEGMENT_PATH = Path.of("/tmp/segment_0.seg");
   private static final Path INDEX_PATH = Path.of("/tmp/index_0.idx");
 
-  private final UnsignedShort zeroUnsignedShort = UnsignedShort.valueOf(0);
+  private static final ImmutableSortedMap<ByteString, Long> EMPTY_KEY_OFFSET_MAP =
+      ImmutableSortedMap.<ByteString, Long>orderedBy(Entry.KEY_COMPARATOR).build();
+
 
   private final SegmentMetadata metadata =
-      new SegmentMetadata(zeroUnsignedShort, UnsignedShort.valueOf(1));
+      new SegmentMetadata(0, 1);
   private final EntryReader entryReader = mock(EntryReader.class);
-  private final BloomFilter<String> keyFilter =
-      BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), 1);
+  private final BloomFilter<ByteString> keyFilter = BloomFilter.create(KeyFunnel.INSTANCE, 1);
+  private final BlobStore blobStore = mock(BlobStore.class);
   SegmentIndex emptySegmentIndex =
       new SegmentIndexDense(
-          INDEX_PATH, new SegmentIndexMetadata(zeroUnsignedShort), ImmutableSortedMap.of());
+          INDEX_PATH, new SegmentIndexMetadata(0), EMPTY_KEY_OFFSET_MAP);
 
   @Test
   public void construction_mismatchSegmentNumber_throwsIllegalArgumentException() {
     SegmentIndex segmentIndex =
         new SegmentIndexDense(
             INDEX_PATH,
-            new SegmentIndexMetadata(UnsignedShort.valueOf(1)),
-            ImmutableSortedMap.of());
+            new SegmentIndexMetadata(1),
+            EMPTY_KEY_OFFSET_MAP);
 
     IllegalArgumentException e =
         assertThrows(
             IllegalArgumentException.class,
-            () -> Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, segmentIndex, 0));
+            () -> createSegment(segmentIndex));
 
     assertThat(e)
         .hasMessageThat()
@@ -61,52 +69,47 @@ public class SegmentTest {
 
   @Test
   public void getSegmentNumber_matchesSegmentMetadata() {
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     assertThat(segment.getSegmentNumber()).isEqualTo(metadata.getSegmentNumber());
   }
 
   @Test
   public void getSegmentLevel_matchesSegmentMetadata() {
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     assertThat(segment.getSegmentLevel()).isEqualTo(metadata.getSegmentLevel());
   }
 
   @Test
   public void mightContain_absent_returnsFalse() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
 
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     assertThat(segment.mightContain(key)).isFalse();
   }
 
   @Test
   public void mightContain_presentInBloomFilter_returnsTrue() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     keyFilter.put(key);
 
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     assertThat(segment.mightContain(key)).isTrue();
   }
 
   @Test
   public void mightContain_presentInSegmentIndex_returnsTrue() {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     SegmentIndex segmentIndex =
         new SegmentIndexDense(
             INDEX_PATH,
-            new SegmentIndexMetadata(zeroUnsignedShort),
-            ImmutableSortedMap.of(key, 0L));
+            new SegmentIndexMetadata(0),
+            ImmutableSortedMap.copyOf(ImmutableMap.of(key, 0L), Entry.KEY_COMPARATOR));
 
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, segmentIndex, 0);
+    Segment segment = createSegment(segmentIndex);
 
     assertThat(segment.mightContain(key)).isTrue();
   }
@@ -116,31 +119,29 @@ public class SegmentTest {
     SegmentIndex segmentIndex =
         new SegmentIndexDense(
             INDEX_PATH,
-            new SegmentIndexMetadata(UnsignedShort.valueOf(0)),
-            ImmutableSortedMap.of());
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, segmentIndex, 0);
+            new SegmentIndexMetadata(0),
+            EMPTY_KEY_OFFSET_MAP);
+    Segment segment = createSegment(segmentIndex);
 
-    Optional<Entry> readEntry = segment.readEntry("key");
+    Optional<Entry> readEntry = segment.readEntry(ByteString.copyFromUtf8("key"));
 
     assertThat(readEntry).isEmpty();
   }
 
   @Test
   public void readEntry_found() throws Exception {
-    String key = "key";
-    String value = "value";
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
     keyFilter.put(key);
     SegmentIndex segmentIndex =
         new SegmentIndexDense(
             INDEX_PATH,
-            new SegmentIndexMetadata(UnsignedShort.valueOf(0)),
-            ImmutableSortedMap.of(key, 0L));
+            new SegmentIndexMetadata(0),
+            ImmutableSortedMap.copyOf(ImmutableMap.of(key, 0L), Entry.KEY_COMPARATOR));
     Entry entry = new Entry(Instant.now().getEpochSecond(), key, value);
-    Segment segment =
-        Segment.create(
-            SEGMENT_PATH, metadata, entryReader, keyFilter, segmentIndex, entry.getNumBytesSize());
-    when(entryReader.findEntryFromOffset(anyString(), anyLong())).thenReturn(Optional.of(entry));
+    Segment segment = createSegment(segmentIndex);
+    when(entryReader.findEntryViewFromOffset(any(ByteString.class), anyLong()))
+        .thenReturn(Optional.of(createEntryView(entry)));
 
     Optional<Entry> readEntry = segment.readEntry(key);
 
@@ -149,43 +150,169 @@ public class SegmentTest {
 
   @Test
   public void readEntry_offsetNotFound() throws Exception {
-    String key = "key";
+    ByteString key = ByteString.copyFromUtf8("key");
     keyFilter.put(key);
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     Optional<Entry> readEntry = segment.readEntry(key);
 
     assertThat(readEntry).isEmpty();
-    verify(entryReader, times(0)).findEntryFromOffset(anyString(), anyLong());
+    verify(entryReader, times(0)).findEntryViewFromOffset(any(ByteString.class), anyLong());
+  }
+
+  @Test
+  public void readEntryAsync_found() throws Exception {
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
+    keyFilter.put(key);
+    SegmentIndex segmentIndex =
+        new SegmentIndexDense(
+            INDEX_PATH,
+            new SegmentIndexMetadata(0),
+            ImmutableSortedMap.copyOf(ImmutableMap.of(key, 0L), Entry.KEY_COMPARATOR));
+    Entry entry = new Entry(Instant.now().getEpochSecond(), key, value);
+    Segment segment = createSegment(segmentIndex);
+    when(entryReader.findEntryViewFromOffsetAsync(any(ByteString.class), anyLong()))
+        .thenReturn(CompletableFuture.completedFuture(Optional.of(createEntryView(entry))));
+
+    Optional<Entry> readEntry = segment.readEntryAsync(key).get();
+
+    assertThat(readEntry).hasValue(entry);
+  }
+
+  @Test
+  public void readEntryAsync_offsetNotFound_doesNotReadFile() throws Exception {
+    ByteString key = ByteString.copyFromUtf8("key");
+    keyFilter.put(key);
+    Segment segment = createSegment(emptySegmentIndex);
+
+    Optional<Entry> readEntry = segment.readEntryAsync(key).get();
+
+    assertThat(readEntry).isEmpty();
+    verify(entryReader, times(0)).findEntryViewFromOffsetAsync(any(ByteString.class), anyLong());
+  }
+
+  @Test
+  public void readEntries() throws Exception {
+    Entry entry0 = new Entry(Instant.now().getEpochSecond(), "key0", "value0");
+    Entry entry1 = new Entry(Instant.now().getEpochSecond(), "key1", "value1");
+    ByteString absentKey = ByteString.copyFromUtf8("key2");
+    keyFilter.put(entry0.key());
+    keyFilter.put(entry1.key());
+    SegmentIndex segmentIndex =
+        new SegmentIndexDense(
+            INDEX_PATH,
+            new SegmentIndexMetadata(0),
+            ImmutableSortedMap.copyOf(
+                ImmutableMap.of(entry0.key(), 0L, entry1.key(), entry0.getNumBytesSize()),
+                Entry.KEY_COMPARATOR));
+    Segment segment = createSegment(segmentIndex);
+    when(entryReader.findEntryViewsAtOffsets(any()))
+        .thenReturn(
+            ImmutableMap.of(
+                entry0.key(), createEntryView(entry0), entry1.key(), createEntryView(entry1)));
+
+    ImmutableMap<ByteString, Entry> readEntries =
+        segment.readEntries(ImmutableList.of(entry0.key(), entry1.key(), absentKey));
+
+    assertThat(readEntries).containsExactly(entry0.key(), entry0, entry1.key(), entry1);
+    verify(entryReader, times(1))
+        .findEntryViewsAtOffsets(
+            ImmutableMap.of(entry0.key(), 0L, entry1.key(), entry0.getNumBytesSize()));
+  }
+
+  @Test
+  public void readEntries_noCandidateKeys_doesNotReadFile() throws Exception {
+    Segment segment = createSegment(emptySegmentIndex);
+
+    ImmutableMap<ByteString, Entry> readEntries =
+        segment.readEntries(ImmutableList.of(ByteString.copyFromUtf8("key")));
+
+    assertThat(readEntries).isEmpty();
+    verify(entryReader, times(0)).findEntryViewsAtOffsets(any());
   }
 
   @Test
   public void readAllEntries() throws Exception {
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     segment.readAllEntries();
 
-    verify(entryReader, times(1)).readAllEntriesFromOffset(SegmentMetadata.BYTES);
+    verify(entryReader, times(1)).readAllEntryViewsFromOffset(SegmentMetadata.BYTES);
   }
 
   @Test
   public void getNumBytesSize() {
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     assertThat(segment.getNumBytesSize()).isEqualTo(0);
   }
 
   @Test
   public void getPathsForDeletion() {
-    Segment segment =
-        Segment.create(SEGMENT_PATH, metadata, entryReader, keyFilter, emptySegmentIndex, 0);
+    Segment segment = createSegment(emptySegmentIndex);
 
     SegmentRelatedPaths pathsForDeletion = segment.getSegmentRelatedPaths();
 
     assertThat(pathsForDeletion.segmentPath()).isEqualTo(SEGMENT_PATH);
     assertThat(pathsForDeletion.indexPath()).isEqualTo(INDEX_PATH);
   }
+
+  @Test
+  public void readEntry_valueInBlob_readFromBlobStore() throws Exception {
+    ByteString key = ByteString.copyFromUtf8("key");
+    ByteString value = ByteString.copyFromUtf8("value");
+    keyFilter.put(key);
+    SegmentIndex segmentIndex =
+        new SegmentIndexDense(
+            INDEX_PATH,
+            new SegmentIndexMetadata(0),
+            ImmutableSortedMap.copyOf(ImmutableMap.of(key, 0L), Entry.KEY_COMPARATOR));
+    long creationEpochSeconds = Instant.now().getEpochSecond();
+    BlobPointer pointer = new BlobPointer(0, 0, value.size());
+    BlobReferenceEntry blobReferenceEntry =
+        new BlobReferenceEntry(creationEpochSeconds, key, pointer.getBytes());
+    ByteBuffer buffer = ByteBuffer.allocate((int) blobReferenceEntry.getNumBytesSize());
+    blobReferenceEntry.writeTo(buffer);
+    Segment segment = createSegment(segmentIndex);
+    when(entryReader.findEntryViewFromOffset(any(ByteString.class), anyLong()))
+        .thenReturn(Optional.of(EntryView.wrap(buffer, 0)));
+    when(blobStore.read(pointer)).thenReturn(value);
+
+    Optional<Entry> readEntry = segment.readEntry(key);
+
+    assertThat(readEntry).hasValue(new Entry(creationEpochSeconds, key, value));
+  }
+
+  @Test
+  public void getBlobReferencedBytes() {
+    Segment segment =
+        Segment.create(
+            SEGMENT_PATH,
+            metadata,
+            entryReader,
+            keyFilter,
+            emptySegmentIndex,
+            0,
+            blobStore,
+            ImmutableMap.of(0L, 10L));
+
+    assertThat(segment.getBlobReferencedBytes()).containsExactly(0L, 10L);
+  }
+
+  private Segment createSegment(SegmentIndex segmentIndex) {
+    return Segment.create(
+        SEGMENT_PATH,
+        metadata,
+        entryReader,
+        keyFilter,
+        segmentIndex,
+        0,
+        blobStore,
+        ImmutableMap.of());
+  }
+
+  private static EntryView createEntryView(Entry entry) {
+    return EntryView.wrap(ByteBuffer.wrap(entry.getBytes()), 0);
+  }
 }
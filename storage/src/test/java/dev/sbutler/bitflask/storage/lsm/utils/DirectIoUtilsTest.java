@@ -0,0 +1,84 @@
+package dev.sbutler.bitflask.storage.lsm.utils;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link DirectIoUtils}. */
+public class DirectIoUtilsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void newOutputStream_unalignedLength_fileTruncatedToBytesWritten() throws Exception {
+    byte[] bytes = randomBytes(DirectIoUtils.TRANSFER_BUFFER_BYTES + 123);
+
+    try (OutputStream os = DirectIoUtils.newOutputStream(path())) {
+      os.write(bytes, 0, 10);
+      os.write(bytes[10]);
+      os.write(bytes, 11, bytes.length - 11);
+    }
+
+    assertThat(Files.readAllBytes(path())).isEqualTo(bytes);
+  }
+
+  @Test
+  public void newOutputStream_nothingWritten_emptyFile() throws Exception {
+    try (OutputStream ignored = DirectIoUtils.newOutputStream(path())) {}
+
+    assertThat(Files.size(path())).isEqualTo(0);
+  }
+
+  @Test
+  public void newOutputStream_fileExists_throwsFileAlreadyExistsException() throws Exception {
+    Files.write(path(), new byte[1]);
+
+    assertThrows(FileAlreadyExistsException.class, () -> DirectIoUtils.newOutputStream(path()));
+  }
+
+  @Test
+  public void readAllBytes_unalignedOffset() throws Exception {
+    byte[] bytes = randomBytes(DirectIoUtils.TRANSFER_BUFFER_BYTES + 5000);
+    Files.write(path(), bytes);
+
+    byte[] readBytes = DirectIoUtils.readAllBytes(path(), 4099);
+
+    assertThat(readBytes).isEqualTo(Arrays.copyOfRange(bytes, 4099, bytes.length));
+  }
+
+  @Test
+  public void readAllBytes_offsetAtEnd_returnsEmpty() throws Exception {
+    Files.write(path(), new byte[10]);
+
+    assertThat(DirectIoUtils.readAllBytes(path(), 10)).isEmpty();
+  }
+
+  @Test
+  public void allocateAligned() {
+    ByteBuffer buffer = DirectIoUtils.allocateAligned(8192, 4096);
+
+    assertThat(buffer.isDirect()).isTrue();
+    assertThat(buffer.capacity()).isEqualTo(8192);
+    assertThat(buffer.alignmentOffset(0, 4096)).isEqualTo(0);
+  }
+
+  private Path path() {
+    return tempDir.resolve("file");
+  }
+
+  private static byte[] randomBytes(int length) {
+    byte[] bytes = new byte[length];
+    new Random(0).nextBytes(bytes);
+    return bytes;
+  }
+}
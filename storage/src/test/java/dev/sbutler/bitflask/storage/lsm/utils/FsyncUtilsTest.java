@@ -0,0 +1,34 @@
+package dev.sbutler.bitflask.storage.lsm.utils;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Unit tests for {@link FsyncUtils}. */
+public class FsyncUtilsTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  public void forceFile() throws Exception {
+    Path filePath = Files.write(tempDir.resolve("file"), new byte[] {1, 2, 3});
+
+    FsyncUtils.forceFile(filePath);
+  }
+
+  @Test
+  public void forceFile_fileNonexistent_throwsNoSuchFileException() {
+    assertThrows(
+        NoSuchFileException.class, () -> FsyncUtils.forceFile(tempDir.resolve("absent")));
+  }
+
+  @Test
+  public void forceDirectory() throws Exception {
+    FsyncUtils.forceDirectory(tempDir);
+  }
+}
@@ -4,8 +4,10 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandExecutor;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftException;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -19,6 +21,7 @@ public class RaftEntryApplierTest {
   private final StorageCommandExecutor storageCommandExecutor = mock(StorageCommandExecutor.class);
   private final RaftModeManager raftModeManager = mock(RaftModeManager.class);
   private final RaftSubmissionManager raftSubmissionManager = mock(RaftSubmissionManager.class);
+  private final RaftStats raftStats = new RaftStats();
 
   private final RaftEntryApplier raftEntryApplier =
       new RaftEntryApplier(
@@ -27,7 +30,8 @@ public class RaftEntryApplierTest {
           raftEntryConverter,
           storageCommandExecutor,
           raftModeManager,
-          raftSubmissionManager);
+          raftSubmissionManager,
+          raftStats);
 
   @BeforeEach
   public void beforeEach() {
@@ -49,7 +53,7 @@ public class RaftEntryApplierTest {
     raftLog.appendEntry(
         Entry.newBuilder()
             .setTerm(0)
-            .setSetCommand(SetCommand.newBuilder().setKey("key").setValue("value"))
+            .setSetCommand(SetCommand.newBuilder().setKey(ByteString.copyFromUtf8("key")).setValue(ByteString.copyFromUtf8("value")))
             .build());
     raftVolatileState.increaseHighestCommittedEntryIndexTo(1);
     assertThat(raftVolatileState.getHighestAppliedEntryIndex()).isEqualTo(0);
@@ -59,6 +63,7 @@ public class RaftEntryApplierTest {
     assertThat(raftVolatileState.getHighestAppliedEntryIndex()).isEqualTo(1);
     verify(storageCommandExecutor, times(1)).executeDto(any());
     verify(raftSubmissionManager, never()).completeSubmission(anyInt(), any());
+    assertThat(raftStats.snapshot(Optional.empty(), 0, 1, 1, 1).numEntriesApplied()).isEqualTo(1);
   }
 
   @Test
@@ -66,7 +71,7 @@ public class RaftEntryApplierTest {
     raftLog.appendEntry(
         Entry.newBuilder()
             .setTerm(0)
-            .setSetCommand(SetCommand.newBuilder().setKey("key").setValue("value"))
+            .setSetCommand(SetCommand.newBuilder().setKey(ByteString.copyFromUtf8("key")).setValue(ByteString.copyFromUtf8("value")))
             .build());
     raftVolatileState.increaseHighestCommittedEntryIndexTo(1);
     assertThat(raftVolatileState.getHighestAppliedEntryIndex()).isEqualTo(0);
@@ -84,7 +89,7 @@ public class RaftEntryApplierTest {
     raftLog.appendEntry(
         Entry.newBuilder()
             .setTerm(0)
-            .setSetCommand(SetCommand.newBuilder().setKey("key").setValue("value"))
+            .setSetCommand(SetCommand.newBuilder().setKey(ByteString.copyFromUtf8("key")).setValue(ByteString.copyFromUtf8("value")))
             .build());
     raftVolatileState.increaseHighestCommittedEntryIndexTo(1);
     assertThat(raftVolatileState.getHighestAppliedEntryIndex()).isEqualTo(0);
@@ -4,6 +4,8 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
+import com.google.protobuf.ByteString;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftCommandConversionException;
 import org.junit.jupiter.api.Test;
@@ -47,6 +49,73 @@ public class RaftEntryConverterTest {
                 .build());
   }
 
+  @Test
+  public void convertStorageCommandDto_increment() {
+    when(raftPersistentState.getCurrentTerm()).thenReturn(1);
+    var command = new StorageCommandDto.IncrementDto("key", -3, 100);
+
+    var entry = raftEntryConverter.convert(command);
+
+    assertThat(entry)
+        .isEqualTo(
+            Entry.newBuilder()
+                .setTerm(1)
+                .setIncrementCommand(
+                    IncrementCommand.newBuilder()
+                        .setKey(command.key())
+                        .setDelta(-3)
+                        .setCreationEpochSeconds(100))
+                .build());
+    assertThat(raftEntryConverter.reverse().convert(entry)).isEqualTo(command);
+  }
+
+  @Test
+  public void convertStorageCommandDto_append() {
+    when(raftPersistentState.getCurrentTerm()).thenReturn(1);
+    var command = new StorageCommandDto.AppendDto("key", "value", 100);
+
+    var entry = raftEntryConverter.convert(command);
+
+    assertThat(entry)
+        .isEqualTo(
+            Entry.newBuilder()
+                .setTerm(1)
+                .setAppendCommand(
+                    AppendCommand.newBuilder()
+                        .setKey(command.key())
+                        .setValue(command.value())
+                        .setCreationEpochSeconds(100))
+                .build());
+    assertThat(raftEntryConverter.reverse().convert(entry)).isEqualTo(command);
+  }
+
+  @Test
+  public void convertStorageCommandDto_writeBatch() {
+    when(raftPersistentState.getCurrentTerm()).thenReturn(1);
+    var write = new StorageCommandDto.WriteDto("key0", "value0");
+    var delete = new StorageCommandDto.DeleteDto("key1");
+    var command = new StorageCommandDto.WriteBatchDto(ImmutableList.of(write, delete));
+
+    var entry = raftEntryConverter.convert(command);
+
+    assertThat(entry)
+        .isEqualTo(
+            Entry.newBuilder()
+                .setTerm(1)
+                .setWriteBatchCommand(
+                    WriteBatchCommand.newBuilder()
+                        .addOperations(
+                            WriteBatchCommand.Operation.newBuilder()
+                                .setSetCommand(
+                                    SetCommand.newBuilder()
+                                        .setKey(write.key())
+                                        .setValue(write.value())))
+                        .addOperations(
+                            WriteBatchCommand.Operation.newBuilder()
+                                .setDeleteCommand(DeleteCommand.newBuilder().setKey(delete.key()))))
+                .build());
+  }
+
   @Test
   public void convertStorageCommandDto_unknown_throwsRaftCommandConversionException() {
     var dto = new StorageCommandDto.ReadDto("key");
@@ -62,7 +131,7 @@ public class RaftEntryConverterTest {
     var entry =
         Entry.newBuilder()
             .setTerm(1)
-            .setSetCommand(SetCommand.newBuilder().setKey("key").setValue("value"))
+            .setSetCommand(SetCommand.newBuilder().setKey(ByteString.copyFromUtf8("key")).setValue(ByteString.copyFromUtf8("value")))
             .build();
 
     var command = raftEntryConverter.reverse().convert(entry);
@@ -74,12 +143,25 @@ public class RaftEntryConverterTest {
     assertThat(writeDto.value()).isEqualTo(entry.getSetCommand().getValue());
   }
 
+  @Test
+  public void convertWithExpiry_roundTrip() {
+    when(raftPersistentState.getCurrentTerm()).thenReturn(1);
+    var command =
+        new StorageCommandDto.WriteDto(
+            ByteString.copyFromUtf8("key"), ByteString.copyFromUtf8("value"), 100L);
+
+    var entry = raftEntryConverter.convert(command);
+
+    assertThat(entry.getSetCommand().getExpiryEpochSeconds()).isEqualTo(100L);
+    assertThat(raftEntryConverter.reverse().convert(entry)).isEqualTo(command);
+  }
+
   @Test
   public void convertEntry_delete() {
     var entry =
         Entry.newBuilder()
             .setTerm(1)
-            .setDeleteCommand(DeleteCommand.newBuilder().setKey("key").build())
+            .setDeleteCommand(DeleteCommand.newBuilder().setKey(ByteString.copyFromUtf8("key")).build())
             .build();
 
     var command = raftEntryConverter.reverse().convert(entry);
@@ -90,6 +172,21 @@ public class RaftEntryConverterTest {
     assertThat(deleteDto.key()).isEqualTo(entry.getDeleteCommand().getKey());
   }
 
+  @Test
+  public void convertEntry_writeBatch() {
+    var dto =
+        new StorageCommandDto.WriteBatchDto(
+            ImmutableList.of(
+                new StorageCommandDto.WriteDto("key0", "value0"),
+                new StorageCommandDto.DeleteDto("key1")));
+    when(raftPersistentState.getCurrentTerm()).thenReturn(1);
+    var entry = raftEntryConverter.convert(dto);
+
+    var command = raftEntryConverter.reverse().convert(entry);
+
+    assertThat(command).isEqualTo(dto);
+  }
+
   @Test
   public void convertEntry_unknownCommand_throwsRaftCommandConversionException() {
     var entry = Entry.newBuilder().setEmptyCommand(Entry.EmptyCommand.getDefaultInstance()).build();
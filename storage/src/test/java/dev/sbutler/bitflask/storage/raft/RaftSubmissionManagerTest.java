@@ -3,6 +3,7 @@ package dev.sbutler.bitflask.storage.raft;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandResults;
 import org.junit.jupiter.api.Test;
 
@@ -13,7 +14,7 @@ public class RaftSubmissionManagerTest {
 
   @Test
   public void completeSubmission() {
-    var resultsFuture = submissionManager.addNewSubmission(1);
+    var resultsFuture = submissionManager.addNewSubmission(1, new CommandTrace());
     assertThat(resultsFuture.isDone()).isFalse();
     var results = new StorageCommandResults.Success("success");
 
@@ -23,6 +24,33 @@ public class RaftSubmissionManagerTest {
     assertThat(resultsFuture.resultNow()).isEqualTo(results);
   }
 
+  @Test
+  public void completeSubmission_traceMarked() {
+    CommandTrace trace = new CommandTrace();
+    submissionManager.addNewSubmission(1, new CommandTrace());
+    submissionManager.addNewSubmission(2, trace);
+    var results = new StorageCommandResults.Success("success");
+
+    submissionManager.completeSubmission(1, results);
+    submissionManager.markSubmissionApplying(2);
+    assertThat(trace.getStorageStartedNanos()).isGreaterThan(0);
+    assertThat(trace.getStorageFinishedNanos()).isEqualTo(0);
+    submissionManager.completeSubmission(2, results);
+
+    assertThat(trace.getStorageFinishedNanos()).isAtLeast(trace.getStorageStartedNanos());
+  }
+
+  @Test
+  public void markSubmissionApplying_noWaitingSubmission_ignored() {
+    CommandTrace trace = new CommandTrace();
+    submissionManager.addNewSubmission(2, trace);
+
+    submissionManager.markSubmissionApplying(1);
+    submissionManager.markSubmissionApplying(3);
+
+    assertThat(trace.getStorageStartedNanos()).isEqualTo(0);
+  }
+
   @Test
   public void completeSubmission_emptySubmission_throwsIllegalStateException() {
     var results = new StorageCommandResults.Success("success");
@@ -36,7 +64,7 @@ public class RaftSubmissionManagerTest {
 
   @Test
   public void completeSubmission_outOfOrderSubmission_throwsIllegalStateException() {
-    submissionManager.addNewSubmission(1);
+    submissionManager.addNewSubmission(1, new CommandTrace());
     var results = new StorageCommandResults.Success("success");
 
     IllegalStateException exception =
@@ -51,7 +79,7 @@ public class RaftSubmissionManagerTest {
 
   @Test
   public void completeAllSubmissionsWithFailure() {
-    var resultsFuture = submissionManager.addNewSubmission(1);
+    var resultsFuture = submissionManager.addNewSubmission(1, new CommandTrace());
     assertThat(resultsFuture.isDone()).isFalse();
     RuntimeException exception = new RuntimeException("test");
 
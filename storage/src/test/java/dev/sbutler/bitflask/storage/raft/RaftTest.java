@@ -4,8 +4,10 @@ import static com.google.common.truth.Truth.assertThat;
 import static org.mockito.Mockito.*;
 
 import dev.sbutler.bitflask.storage.StorageSubmitResults;
+import dev.sbutler.bitflask.storage.commands.CommandTrace;
 import dev.sbutler.bitflask.storage.commands.StorageCommandDto;
 import dev.sbutler.bitflask.storage.raft.exceptions.RaftException;
+import java.util.Optional;
 import org.junit.jupiter.api.Test;
 
 /** Unit tests for {@link Raft}. */
@@ -14,23 +16,29 @@ public class RaftTest {
   private static final StorageCommandDto COMMAND_DTO =
       new StorageCommandDto.WriteDto("key", "value");
 
+  private final CommandTrace trace = new CommandTrace();
   private final RaftModeManager raftModeManager = mock(RaftModeManager.class);
+  private final RaftPersistentState raftPersistentState =
+      new RaftPersistentState(mock(RaftConfiguration.class));
+  private final RaftVolatileState raftVolatileState = new RaftVolatileState();
+  private final RaftLog raftLog = new RaftLog();
 
-  private final Raft raft = new Raft(raftModeManager);
+  private final Raft raft =
+      new Raft(raftModeManager, raftPersistentState, raftVolatileState, raftLog, new RaftStats());
 
   @Test
   public void submitCommand_success() {
-    raft.submitCommand(COMMAND_DTO);
+    raft.submitCommand(COMMAND_DTO, trace);
 
-    verify(raftModeManager, times(1)).submitCommand(COMMAND_DTO);
+    verify(raftModeManager, times(1)).submitCommand(COMMAND_DTO, trace);
   }
 
   @Test
   public void submitCommand_raftExceptionThrown_successResultsWithFailedFuture() {
     RaftException exception = new RaftException("test");
-    when(raftModeManager.submitCommand(COMMAND_DTO)).thenThrow(exception);
+    when(raftModeManager.submitCommand(COMMAND_DTO, trace)).thenThrow(exception);
 
-    StorageSubmitResults submitResults = raft.submitCommand(COMMAND_DTO);
+    StorageSubmitResults submitResults = raft.submitCommand(COMMAND_DTO, trace);
 
     assertThat(submitResults).isInstanceOf(StorageSubmitResults.Success.class);
     var submitFuture = ((StorageSubmitResults.Success) submitResults).submitFuture();
@@ -40,9 +48,9 @@ public class RaftTest {
   @Test
   public void submitCommand_generalExceptionThrown_successResultsWithFailedFuture() {
     RuntimeException exception = new RuntimeException("test");
-    when(raftModeManager.submitCommand(COMMAND_DTO)).thenThrow(exception);
+    when(raftModeManager.submitCommand(COMMAND_DTO, trace)).thenThrow(exception);
 
-    StorageSubmitResults submitResults = raft.submitCommand(COMMAND_DTO);
+    StorageSubmitResults submitResults = raft.submitCommand(COMMAND_DTO, trace);
 
     assertThat(submitResults).isInstanceOf(StorageSubmitResults.Success.class);
     var submitFuture = ((StorageSubmitResults.Success) submitResults).submitFuture();
@@ -52,4 +60,21 @@ public class RaftTest {
         .isEqualTo("Unknown error while submitting.");
     assertThat(submitFuture.exceptionNow()).hasCauseThat().isEqualTo(exception);
   }
+
+  @Test
+  public void getStats() {
+    raftPersistentState.initialize(2, Optional.empty());
+    raftVolatileState.initialize(1, 1);
+    raftLog.appendEntry(Entry.newBuilder().setTerm(2).build());
+    when(raftModeManager.getRaftMode()).thenReturn(Optional.of(RaftMode.LEADER));
+
+    RaftStats.Snapshot stats = raft.getStats();
+
+    assertThat(stats.raftMode()).isEqualTo(Optional.of(RaftMode.LEADER));
+    assertThat(stats.currentTerm()).isEqualTo(2);
+    assertThat(stats.lastLogEntryIndex()).isEqualTo(1);
+    assertThat(stats.highestCommittedEntryIndex()).isEqualTo(1);
+    assertThat(stats.highestAppliedEntryIndex()).isEqualTo(1);
+    assertThat(stats.numElectionsStarted()).isEqualTo(0);
+  }
 }